@@ -0,0 +1,171 @@
+// Classification  : UNCLASSIFIED
+
+/******************************************************************************
+* Filename        : testConversionScaling.cpp
+*
+* MODIFICATION HISTORY:
+*
+* DATE        NAME              DR#               DESCRIPTION
+*
+* 10/17/26                                        Original code
+*
+******************************************************************************/
+
+#include <iostream>
+#include <iomanip>
+#include <vector>
+#include <thread>
+#include <chrono>
+#include <stdlib.h>
+
+#include "CoordinateConversionService.h"
+#include "CoordinateSystemParameters.h"
+#include "GeodeticParameters.h"
+#include "GeodeticCoordinates.h"
+#include "Accuracy.h"
+#include "UTMParameters.h"
+#include "UTMCoordinates.h"
+#include "CoordinateType.h"
+#include "HeightType.h"
+#include "CoordinateConversionException.h"
+
+/**
+ * Multi-threaded scaling benchmark for the Coordinate Conversion Service.
+ *
+ * Each worker thread owns its own CoordinateConversionService
+ * (Geodetic NAS-C -> UTM WGE, so every point is datum shifted and
+ * projected) and converts a fixed number of points.  The aggregate
+ * throughput is reported for 1, 2, 4, ... up to the requested maximum
+ * number of threads.  Independent services no longer share a conversion
+ * lock, so throughput should grow with the number of threads.
+ *
+ * Usage: testConversionScaling [maxThreads] [pointsPerThread]
+ **/
+
+
+/**
+ * Converts 'count' points with the given service.  Returns the number of
+ * conversions which raised an exception.
+ **/
+long convertPoints( MSP::CCS::CoordinateConversionService* ccs, long count )
+{
+   const double PI = 3.14159265358979323e0;
+   long failed = 0;
+
+   MSP::CCS::Accuracy sourceAccuracy;
+   MSP::CCS::Accuracy targetAccuracy;
+   MSP::CCS::UTMCoordinates targetCoordinates;
+
+   for( long i = 0; i < count; i++ )
+   {
+      double lat = ( 25.0 + ( i % 2000 ) * 0.01 ) * PI / 180.0;
+      double lon = ( -120.0 + ( i % 3000 ) * 0.01 ) * PI / 180.0;
+
+      MSP::CCS::GeodeticCoordinates sourceCoordinates(
+         MSP::CCS::CoordinateType::geodetic, lon, lat, 0.0 );
+
+      try
+      {
+         ccs->convertSourceToTarget(
+            &sourceCoordinates, &sourceAccuracy,
+            targetCoordinates, targetAccuracy );
+      }
+      catch( MSP::CCS::CoordinateConversionException& )
+      {
+         failed++;
+      }
+   }
+
+   return failed;
+}
+
+
+int main( int argc, char **argv )
+{
+   int  maxThreads      = 8;
+   long pointsPerThread = 200000;
+
+   if( argc > 1 )
+      maxThreads = atoi( argv[1] );
+   if( argc > 2 )
+      pointsPerThread = atol( argv[2] );
+   if( maxThreads < 1 )
+      maxThreads = 1;
+
+   std::cout << "Coordinate Conversion Service Scaling Benchmark" << std::endl;
+   std::cout << "Hardware threads: " << std::thread::hardware_concurrency()
+             << std::endl << std::endl;
+
+   MSP::CCS::GeodeticParameters geodeticParameters(
+      MSP::CCS::CoordinateType::geodetic,
+      MSP::CCS::HeightType::ellipsoidHeight );
+
+   MSP::CCS::UTMParameters utmParameters(
+      MSP::CCS::CoordinateType::universalTransverseMercator, 0, 0 );
+
+   double baseRate = 0.0;
+
+   std::cout << std::setw( 8 ) << "threads"
+             << std::setw( 16 ) << "points/sec"
+             << std::setw( 10 ) << "speedup" << std::endl;
+
+   try
+   {
+      for( int threads = 1; threads <= maxThreads; threads *= 2 )
+      {
+         std::vector< MSP::CCS::CoordinateConversionService* > services;
+         std::vector< std::thread > workers;
+         std::vector< long > failed( threads, 0 );
+
+         for( int t = 0; t < threads; t++ )
+         {
+            services.push_back( new MSP::CCS::CoordinateConversionService(
+               "NAS-C", &geodeticParameters, "WGE", &utmParameters ) );
+         }
+
+         std::chrono::steady_clock::time_point start =
+            std::chrono::steady_clock::now();
+
+         for( int t = 0; t < threads; t++ )
+         {
+            workers.push_back( std::thread( [&services, &failed, t, pointsPerThread]()
+            {
+               failed[t] = convertPoints( services[t], pointsPerThread );
+            } ) );
+         }
+
+         for( int t = 0; t < threads; t++ )
+            workers[t].join();
+
+         double seconds = std::chrono::duration< double >(
+            std::chrono::steady_clock::now() - start ).count();
+
+         long totalFailed = 0;
+         for( int t = 0; t < threads; t++ )
+         {
+            totalFailed += failed[t];
+            delete services[t];
+         }
+
+         double rate = ( threads * pointsPerThread ) / seconds;
+         if( threads == 1 )
+            baseRate = rate;
+
+         std::cout << std::setw( 8 ) << threads
+                   << std::setw( 16 ) << std::fixed << std::setprecision( 0 ) << rate
+                   << std::setw( 10 ) << std::setprecision( 2 ) << rate / baseRate;
+         if( totalFailed > 0 )
+            std::cout << "  (" << totalFailed << " failed)";
+         std::cout << std::endl;
+      }
+   }
+   catch( MSP::CCS::CoordinateConversionException& e )
+   {
+      std::cout << "ERROR: " << e.getMessage() << std::endl;
+      return 1;
+   }
+
+   return 0;
+}
+
+// Classification  : UNCLASSIFIED
@@ -92,9 +92,23 @@
  *             include the rest of the special cases.
  *    04/30/19 K. Lam GTR-28 Update service version for Geotrans 3.8
  *    01/27/22 K. Lam GTRU-15 Update service version for Geotrans 3.9
+ *    10/17/26 Conversion state is now guarded by a per-instance mutex so
+ *             independent services convert in parallel; the static mutex
+ *             only guards the shared CCSData reference count
+ *    10/17/26 convertCollection converts to UTM and MGRS, and from UTM,
+ *             in batches
+ *    10/17/26 convertTargetToSourceCollection converts from the target to
+ *             the source coordinate system
+ *    10/17/26 transformDatum shifts through DatumTransformPlans created with
+ *             the service, instead of looking up the datums for each point
+ *    10/17/26 Added pinDataLibraries and unpinDataLibraries, which keep the
+ *             data libraries resident while no service uses them
+ *    10/17/26 transformDatum shifts points with ellipsoid heights directly
+ *             between two local datums
  */
 
 #include <stdio.h>
+#include <stdlib.h>
 #include "CoordinateConversionService.h"
 #include "CoordinateSystemParameters.h"
 #include "CoordinateTuple.h"
@@ -103,6 +117,7 @@
 #include "EllipsoidLibraryImplementation.h"
 #include "DatumLibrary.h"
 #include "DatumLibraryImplementation.h"
+#include "DatumTransformPlan.h"
 #include "GeoidLibrary.h"
 #include "Accuracy.h"
 #include "EquidistantCylindricalParameters.h"
@@ -178,6 +193,57 @@ using MSP::CCSThreadLock;
 //                DEFINES
 const double PI = 3.14159265358979323e0;
 CCSThreadMutex CoordinateConversionService::mutex;
+int CoordinateConversionService::dataLibraryPins = 0;
+bool CoordinateConversionService::dataLibraryResidencyApplied = false;
+
+// Points of a collection converted together by convertBatch
+const int COLLECTION_BATCH_SIZE = 64;
+
+
+/*
+ *  Points of a collection queued by convertCollection, and the storage
+ *  used by convertBatch to convert them together.
+ */
+struct CoordinateConversionService::ConversionBatch
+{
+  int              size;
+
+  CoordinateTuple* sourceCoordinates[COLLECTION_BATCH_SIZE];
+  Accuracy*        sourceAccuracy[COLLECTION_BATCH_SIZE];
+  CoordinateTuple* targetCoordinates[COLLECTION_BATCH_SIZE];
+  Accuracy*        targetAccuracy[COLLECTION_BATCH_SIZE];
+
+  bool             failed[COLLECTION_BATCH_SIZE];
+  char             sourceWarningMessage[COLLECTION_BATCH_SIZE][256];
+  char             targetWarningMessage[COLLECTION_BATCH_SIZE][256];
+
+  int              index[COLLECTION_BATCH_SIZE];
+  double           longitude[COLLECTION_BATCH_SIZE];
+  double           latitude[COLLECTION_BATCH_SIZE];
+  long             zone[COLLECTION_BATCH_SIZE];
+  char             hemisphere[COLLECTION_BATCH_SIZE];
+  double           easting[COLLECTION_BATCH_SIZE];
+  double           northing[COLLECTION_BATCH_SIZE];
+  long             precision[COLLECTION_BATCH_SIZE];
+  const char*      errorMessages[COLLECTION_BATCH_SIZE];
+
+  MGRSorUSNGCoordinates mgrsorUSNGCoordinates[COLLECTION_BATCH_SIZE];
+
+  ConversionBatch() : size( 0 ) {}
+
+  void add(
+     CoordinateTuple* _sourceCoordinates,
+     Accuracy*        _sourceAccuracy,
+     CoordinateTuple* _targetCoordinates,
+     Accuracy*        _targetAccuracy )
+  {
+    sourceCoordinates[size] = _sourceCoordinates;
+    sourceAccuracy[size]    = _sourceAccuracy;
+    targetCoordinates[size] = _targetCoordinates;
+    targetAccuracy[size]    = _targetAccuracy;
+    size++;
+  }
+};
 
 
 
@@ -220,8 +286,14 @@ CoordinateConversionService::CoordinateConversionService(
    MSP::CCS::CoordinateSystemParameters* sourceParameters,
    const char*                           targetDatumCode,
    MSP::CCS::CoordinateSystemParameters* targetParameters ) :
+   conversionMutex( new CCSThreadMutex() ),
    WGS84_datum_index( 0 )
 {
+  datumTransformPlan[SourceOrTarget::source] = 0;
+  datumTransformPlan[SourceOrTarget::target] = 0;
+
+  applyDataLibraryResidency();
+
   //Instantiate the variables here so exceptions can be caught
   try
   {
@@ -323,14 +395,18 @@ CoordinateConversionService::CoordinateConversionService(
   }
 
   datumLibraryImplementation->datumIndex( "WGE", &WGS84_datum_index );
+
+  createDatumTransformPlans();
 }
 
 
 CoordinateConversionService::CoordinateConversionService(
    const CoordinateConversionService &ccs ) :
-   ccsData( ccs.ccsData )
+   ccsData( ccs.ccsData ),
+   conversionMutex( new CCSThreadMutex() )
 {
   CCSThreadLock lock(&mutex);
+  CCSThreadLock sourceLock(ccs.conversionMutex);
 
   ++ccsData->refCount;
 
@@ -356,6 +432,10 @@ CoordinateConversionService::CoordinateConversionService(
      ccs.coordinateSystemState[SourceOrTarget::target].datumIndex;
 
   WGS84_datum_index = ccs.WGS84_datum_index;
+
+  datumTransformPlan[SourceOrTarget::source] = 0;
+  datumTransformPlan[SourceOrTarget::target] = 0;
+  createDatumTransformPlans();
 }
 
 
@@ -380,6 +460,11 @@ CoordinateConversionService::~CoordinateConversionService()
 
   deleteCoordinateSystem( SourceOrTarget::source );
   deleteCoordinateSystem( SourceOrTarget::target );
+
+  deleteDatumTransformPlans();
+
+  delete conversionMutex;
+  conversionMutex = 0;
 }
 
 
@@ -391,6 +476,9 @@ CoordinateConversionService& CoordinateConversionService::operator=(
   if( ccsData == ccs.ccsData )
 	  return *this;
 
+  CCSThreadLock targetLock(conversionMutex);
+  CCSThreadLock sourceLock(ccs.conversionMutex);
+
   if( --ccsData->refCount == 0 )
     delete ccsData;
 
@@ -420,6 +508,9 @@ CoordinateConversionService& CoordinateConversionService::operator=(
 
   WGS84_datum_index = ccs.WGS84_datum_index;
 
+  deleteDatumTransformPlans();
+  createDatumTransformPlans();
+
   return *this;
 }
 
@@ -479,6 +570,7 @@ void CoordinateConversionService::convertSourceToTargetCollection(
  */
 
   convertCollection(
+     SourceOrTarget::source, SourceOrTarget::target,
      sourceCoordinates, sourceAccuracy, targetCoordinates, targetAccuracy );
 }
 
@@ -500,6 +592,7 @@ void CoordinateConversionService::convertTargetToSourceCollection(
  */
 
   convertCollection(
+     SourceOrTarget::target, SourceOrTarget::source,
      targetCoordinates, targetAccuracy, sourceCoordinates, sourceAccuracy );
 }
     
@@ -626,6 +719,41 @@ CoordinateConversionService::getCoordinateSystem(
 }
 
 
+void CoordinateConversionService::pinDataLibraries()
+{
+   /*
+    *  The function pinDataLibraries keeps the ellipsoid, datum and geoid
+    *  libraries resident while no service is using them, by holding an
+    *  instance of each for the first pin.
+    */
+
+   CCSThreadLock lock( &mutex );
+
+   if( dataLibraryPins == 0 )
+      holdDataLibraries();
+
+   dataLibraryPins++;
+}
+
+
+void CoordinateConversionService::unpinDataLibraries()
+{
+   /*
+    *  The function unpinDataLibraries removes a pin added by
+    *  pinDataLibraries, releasing the instances held for the pins with
+    *  the last one.  Extra calls are ignored.
+    */
+
+   CCSThreadLock lock( &mutex );
+
+   if( dataLibraryPins == 0 )
+      return;
+
+   if( --dataLibraryPins == 0 )
+      releaseDataLibraries();
+}
+
+
 /************************************************************************/
 /*                              PRIVATE FUNCTIONS     
  *
@@ -641,7 +769,7 @@ void CoordinateConversionService::initCoordinateSystemState(
  *               source or target                                      (input)
  */
 
-  CCSThreadLock lock(&mutex);
+  CCSThreadLock lock(conversionMutex);
 
   coordinateSystemState[direction].datumIndex       = 0;
   coordinateSystemState[direction].coordinateType   = CoordinateType::geodetic;
@@ -701,7 +829,7 @@ void CoordinateConversionService::setDatum(
     *  datumCode  : Identifies the code of the datum to be used          (input)
     */
 
-   CCSThreadLock lock(&mutex);
+   CCSThreadLock lock(conversionMutex);
 
    if( !datumCode )
       throw CoordinateConversionException( ErrorMessages::invalidDatumCode );
@@ -726,7 +854,7 @@ void CoordinateConversionService::setCoordinateSystem(
     *  parameters : Coordinate system parameters to be used           (input)
     */
 
-   CCSThreadLock lock(&mutex);
+   CCSThreadLock lock(conversionMutex);
 
    coordinateSystemState[direction].coordinateSystem = 0;
 
@@ -2010,6 +2138,114 @@ void CoordinateConversionService::deleteCoordinateSystem(
 }
 
 
+void CoordinateConversionService::applyDataLibraryResidency()
+{
+   /*
+    *  The function applyDataLibraryResidency holds the data libraries, for
+    *  the life of the process, if the environment variable
+    *  MSPCCS_DATA_RESIDENCY is set to PINNED.  This hold is not counted as
+    *  a pin, so unpinDataLibraries cannot remove it.  A hold that fails is
+    *  not retried; the service being created reports the error.
+    */
+
+   CCSThreadLock lock( &mutex );
+
+   if( dataLibraryResidencyApplied )
+      return;
+
+   dataLibraryResidencyApplied = true;
+
+   const char* residency = getenv( "MSPCCS_DATA_RESIDENCY" );
+   if( residency && strcmp( residency, "PINNED" ) == 0 )
+   {
+      try
+      {
+         holdDataLibraries();
+      }
+      catch( CoordinateConversionException e )
+      {
+      }
+   }
+}
+
+
+void CoordinateConversionService::holdDataLibraries()
+{
+   /*
+    *  The function holdDataLibraries gets an instance of the ellipsoid,
+    *  datum and geoid libraries, loading any that are not loaded.  If one
+    *  cannot be loaded, the instances already got are removed.
+    */
+
+   EllipsoidLibraryImplementation::getInstance();
+   try
+   {
+      DatumLibraryImplementation::getInstance();
+   }
+   catch( CoordinateConversionException e )
+   {
+      EllipsoidLibraryImplementation::removeInstance();
+      throw e;
+   }
+   try
+   {
+      GeoidLibrary::getInstance();
+   }
+   catch( CoordinateConversionException e )
+   {
+      DatumLibraryImplementation::removeInstance();
+      EllipsoidLibraryImplementation::removeInstance();
+      throw e;
+   }
+}
+
+
+void CoordinateConversionService::releaseDataLibraries()
+{
+   /*
+    *  The function releaseDataLibraries removes the instances got by
+    *  holdDataLibraries, deleting libraries no longer used.
+    */
+
+   GeoidLibrary::removeInstance();
+   DatumLibraryImplementation::removeInstance();
+   EllipsoidLibraryImplementation::removeInstance();
+}
+
+
+void CoordinateConversionService::createDatumTransformPlans()
+{
+/*
+ *  The function createDatumTransformPlans creates the datum shift plans
+ *  from the source datum to the target datum and back, so that datums and
+ *  ellipsoids are looked up once instead of for every converted point.
+ */
+
+  datumTransformPlan[SourceOrTarget::source] =
+     datumLibraryImplementation->createDatumTransformPlan(
+        coordinateSystemState[SourceOrTarget::source].datumIndex,
+        coordinateSystemState[SourceOrTarget::target].datumIndex );
+  datumTransformPlan[SourceOrTarget::target] =
+     datumLibraryImplementation->createDatumTransformPlan(
+        coordinateSystemState[SourceOrTarget::target].datumIndex,
+        coordinateSystemState[SourceOrTarget::source].datumIndex );
+}
+
+
+void CoordinateConversionService::deleteDatumTransformPlans()
+{
+/*
+ *  The function deleteDatumTransformPlans frees the datum shift plans.
+ */
+
+  delete datumTransformPlan[SourceOrTarget::source];
+  datumTransformPlan[SourceOrTarget::source] = 0;
+
+  delete datumTransformPlan[SourceOrTarget::target];
+  datumTransformPlan[SourceOrTarget::target] = 0;
+}
+
+
 void CoordinateConversionService::copyParameters(
    SourceOrTarget::Enum direction,
    CoordinateType::Enum coordinateType,
@@ -2123,11 +2359,10 @@ void CoordinateConversionService::convert(
  *  targetDirection: Indicates which set of coordinates and parameters to use as the target (input)
  */
 
-  CCSThreadLock lock(&mutex);
+  CCSThreadLock lock(conversionMutex);
 
-  GeodeticCoordinates* _convertedGeodetic = 0;
-  GeodeticCoordinates* _wgs84Geodetic = 0;
-  GeodeticCoordinates* _shiftedGeodetic = 0;
+  GeodeticCoordinates _convertedGeodetic( CoordinateType::geodetic );
+  GeodeticCoordinates _shiftedGeodetic( CoordinateType::geodetic );
 
   bool special = false;
 
@@ -2380,336 +2615,413 @@ void CoordinateConversionService::convert(
       /* First coordinate conversion stage, convert to Geodetic */
       /**********************************************************/
 
-      _convertedGeodetic = convertSourceToGeodetic(
-         sourceDirection, sourceCoordinates, sourceWarningMessage );
+      convertSourceToGeodetic(
+         sourceDirection, sourceCoordinates, sourceWarningMessage,
+         _convertedGeodetic );
 
       /******************************/
       /* Datum Transformation Stage */
       /******************************/
 
-        HeightType::Enum input_height_type;
-        HeightType::Enum output_height_type;
-
-        if (source->coordinateType == CoordinateType::geodetic)
-          input_height_type = source->parameters.geodeticParameters->heightType();
-        else if ((source->coordinateType == CoordinateType::geocentric) ||
-				 (source->coordinateType == CoordinateType::localCartesian) ||
-				 (source->coordinateType == CoordinateType::localSpherical) ||
-				 (source->coordinateType == CoordinateType::spherical))
-          input_height_type = HeightType::ellipsoidHeight;
-        else
-          input_height_type = HeightType::noHeight;
-
-        if (target->coordinateType == CoordinateType::geodetic)
-          output_height_type = target->parameters.geodeticParameters->heightType();
-        else if ((target->coordinateType == CoordinateType::geocentric) ||
-		         (target->coordinateType == CoordinateType::localCartesian) ||
-				 (target->coordinateType == CoordinateType::localSpherical) ||
-				 (target->coordinateType == CoordinateType::spherical))
-          output_height_type = HeightType::ellipsoidHeight;
-        else
-          output_height_type = HeightType::noHeight;
-
-        if ((source->datumIndex == target->datumIndex) &&
-            ((input_height_type == output_height_type) ||
-             (input_height_type == HeightType::noHeight) ||
-             (output_height_type == HeightType::noHeight)))
-        { /* Copy coordinate tuple */
-          _wgs84Geodetic = new GeodeticCoordinates( *_convertedGeodetic );
-          _shiftedGeodetic = new GeodeticCoordinates( *_convertedGeodetic );
-
-          if ((input_height_type == HeightType::noHeight) ||
-             (output_height_type == HeightType::noHeight))
-          {
-            _shiftedGeodetic->setHeight( 0 );
-          }
+      transformDatum(
+         sourceDirection, targetDirection, sourceCoordinates, sourceAccuracy,
+         _convertedGeodetic, _shiftedGeodetic, targetCoordinates,
+         targetAccuracy, sourceWarningMessage, targetWarningMessage );
 
-          if(source->datumIndex != WGS84_datum_index &&
-             target->datumIndex != WGS84_datum_index)
-          {
-            long valid = 0;
+      /*************************************************************/
+      /* Second coordinate conversion stage, convert from Geodetic */
+      /*************************************************************/
 
-            /* check source datum validity */
-            datumLibraryImplementation->validDatum(
-               source->datumIndex, _wgs84Geodetic->longitude(),
-               _wgs84Geodetic->latitude(), &valid );
-            if( !valid )
-            {
-              strcat( sourceWarningMessage, MSP::CCS::WarningMessages::datum );
-            }
+      convertGeodeticToTarget(
+         targetDirection, &_shiftedGeodetic,
+         targetCoordinates, targetWarningMessage );
 
-            /* check target datum validity */
-            datumLibraryImplementation->validDatum(
-               target->datumIndex, _wgs84Geodetic->longitude(),
-               _wgs84Geodetic->latitude(), &valid );
-            if( !valid )
-            {
-              strcat( targetWarningMessage, MSP::CCS::WarningMessages::datum );
-            }
-          }
-        }
-        else
-        { /* Shift to WGS84, apply geoid correction, shift to target datum */
-          if (source->datumIndex != WGS84_datum_index)
-          {
-            _wgs84Geodetic = datumLibraryImplementation->geodeticShiftToWGS84(
-               source->datumIndex, _convertedGeodetic );
+      setTargetWarningMessage(
+         sourceDirection, targetDirection, sourceWarningMessage,
+         targetWarningMessage, targetCoordinates );
+    } /* if (!special) */
+  }
+  catch(CoordinateConversionException e)
+  {
+    targetAccuracy.set(-1.0, -1.0, -1.0);
 
-            switch(input_height_type)
-            {
-              case HeightType::EGM2008TwoPtFiveMinBicubicSpline:
-              case HeightType::EGM96FifteenMinBilinear:
-              case HeightType::EGM96VariableNaturalSpline:
-              case HeightType::EGM84TenDegBilinear:
-              case HeightType::EGM84TenDegNaturalSpline:
-              case HeightType::EGM84ThirtyMinBiLinear:
-                _wgs84Geodetic->setHeight( _convertedGeodetic->height() );
-                break;
-              case HeightType::noHeight:
-                _wgs84Geodetic->setHeight( 0.0 );
-                break;
-              case HeightType::ellipsoidHeight:
-              default:
-                break;
-            }
+    throw CoordinateConversionException(e.getMessage());        
+  }
+}
 
-            /* check source datum validity */
-            long sourceValid = 0;
 
-            datumLibraryImplementation->validDatum(
-               source->datumIndex, _wgs84Geodetic->longitude(),
-               _wgs84Geodetic->latitude(), &sourceValid );
-            if( !sourceValid )
-            {
-              strcat( sourceWarningMessage, MSP::CCS::WarningMessages::datum );
-            }
-          }
-          else
-          { /* Copy coordinate tuple */
-            _wgs84Geodetic = new GeodeticCoordinates( *_convertedGeodetic );
-            if( input_height_type == HeightType::noHeight )
-              _wgs84Geodetic->setHeight( 0.0 );
-          }
+void CoordinateConversionService::transformDatum(
+   SourceOrTarget::Enum sourceDirection,
+   SourceOrTarget::Enum targetDirection,
+   CoordinateTuple*     sourceCoordinates,
+   Accuracy*            sourceAccuracy,
+   GeodeticCoordinates& _convertedGeodetic,
+   GeodeticCoordinates& _shiftedGeodetic,
+   CoordinateTuple&     targetCoordinates,
+   Accuracy&            targetAccuracy,
+   char*                sourceWarningMessage,
+   char*                targetWarningMessage )
+{
+/*
+ *  The function transformDatum is the datum transformation stage of
+ *  convert.  It shifts the geodetic coordinates converted from the source
+ *  coordinates from the source datum to the target datum, converting
+ *  their height to the target height type, and calculates the target
+ *  accuracy.
+ *
+ *  sourceDirection    : Indicates which set of parameters to use as the source (input)
+ *  targetDirection    : Indicates which set of parameters to use as the target (input)
+ *  sourceCoordinates  : Source coordinates, for their precision          (input)
+ *  sourceAccuracy     : Source circular/linear/spherical errors          (input)
+ *  _convertedGeodetic : Geodetic coordinates on the source datum         (input)
+ *  _shiftedGeodetic   : Geodetic coordinates on the target datum         (output)
+ *  targetCoordinates  : Target coordinates, for their precision          (input)
+ *  targetAccuracy     : Target circular/linear/spherical errors          (output)
+ */
 
-          if(input_height_type != output_height_type)
-          {
-            double tempHeight;
+  Coordinate_State_Row* source = &coordinateSystemState[sourceDirection];
+  Coordinate_State_Row* target = &coordinateSystemState[targetDirection];
 
-            /* Convert the source height value to an ellipsoid height value */
-            switch(input_height_type)
-            {
-              case HeightType::EGM2008TwoPtFiveMinBicubicSpline:
-                geoidLibrary->convertEGM2008GeoidHeightToEllipsoidHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   _wgs84Geodetic->height(), &tempHeight);
-                break;
-              case HeightType::EGM96FifteenMinBilinear:
-                geoidLibrary->convertEGM96FifteenMinBilinearGeoidToEllipsoidHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   _wgs84Geodetic->height(), &tempHeight);
-                break;
-              case HeightType::EGM96VariableNaturalSpline:
-                geoidLibrary->convertEGM96VariableNaturalSplineToEllipsoidHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   _wgs84Geodetic->height(), &tempHeight );
-                break;
-              case HeightType::EGM84TenDegBilinear:
-                geoidLibrary->convertEGM84TenDegBilinearToEllipsoidHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   _wgs84Geodetic->height(), &tempHeight );
-                break;
-              case HeightType::EGM84TenDegNaturalSpline:
-                geoidLibrary->convertEGM84TenDegNaturalSplineToEllipsoidHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   _wgs84Geodetic->height(), &tempHeight );
-                break;
-              case HeightType::EGM84ThirtyMinBiLinear:
-                geoidLibrary->convertEGM84ThirtyMinBiLinearToEllipsoidHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   _wgs84Geodetic->height(), &tempHeight );
-                break;
-              case HeightType::ellipsoidHeight:
-              default:
-                tempHeight = _wgs84Geodetic->height();
-                break;
-            }
+  GeodeticCoordinates _wgs84Geodetic( CoordinateType::geodetic );
+
+  HeightType::Enum input_height_type;
+  HeightType::Enum output_height_type;
+
+  if (source->coordinateType == CoordinateType::geodetic)
+    input_height_type = source->parameters.geodeticParameters->heightType();
+  else if ((source->coordinateType == CoordinateType::geocentric) ||
+           (source->coordinateType == CoordinateType::localCartesian) ||
+           (source->coordinateType == CoordinateType::localSpherical) ||
+           (source->coordinateType == CoordinateType::spherical))
+    input_height_type = HeightType::ellipsoidHeight;
+  else
+    input_height_type = HeightType::noHeight;
+
+  if (target->coordinateType == CoordinateType::geodetic)
+    output_height_type = target->parameters.geodeticParameters->heightType();
+  else if ((target->coordinateType == CoordinateType::geocentric) ||
+           (target->coordinateType == CoordinateType::localCartesian) ||
+           (target->coordinateType == CoordinateType::localSpherical) ||
+           (target->coordinateType == CoordinateType::spherical))
+    output_height_type = HeightType::ellipsoidHeight;
+  else
+    output_height_type = HeightType::noHeight;
+
+  if ((source->datumIndex == target->datumIndex) &&
+      ((input_height_type == output_height_type) ||
+       (input_height_type == HeightType::noHeight) ||
+       (output_height_type == HeightType::noHeight)))
+  { /* Copy coordinate tuple */
+    _wgs84Geodetic = _convertedGeodetic;
+    _shiftedGeodetic = _convertedGeodetic;
+
+    if ((input_height_type == HeightType::noHeight) ||
+       (output_height_type == HeightType::noHeight))
+    {
+      _shiftedGeodetic.setHeight( 0 );
+    }
 
-            double correctedHeight;
+    if(source->datumIndex != WGS84_datum_index &&
+       target->datumIndex != WGS84_datum_index)
+    {
+      long valid = 0;
 
-            /* Convert the ellipsoid height value to the target height value */
-            switch(output_height_type)
-            {
-              case HeightType::EGM2008TwoPtFiveMinBicubicSpline:
-                geoidLibrary->convertEllipsoidHeightToEGM2008GeoidHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   tempHeight, &correctedHeight );
-                break;
-              case HeightType::EGM96FifteenMinBilinear:
-                geoidLibrary->convertEllipsoidToEGM96FifteenMinBilinearGeoidHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   tempHeight, &correctedHeight );
-                break;
-              case HeightType::EGM96VariableNaturalSpline:
-                geoidLibrary->convertEllipsoidToEGM96VariableNaturalSplineHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   tempHeight, &correctedHeight );
-                break;
-              case HeightType::EGM84TenDegBilinear:
-                geoidLibrary->convertEllipsoidToEGM84TenDegBilinearHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   tempHeight, &correctedHeight );
-                break;
-              case HeightType::EGM84TenDegNaturalSpline:
-                geoidLibrary->convertEllipsoidToEGM84TenDegNaturalSplineHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   tempHeight, &correctedHeight );
-                break;
-              case HeightType::EGM84ThirtyMinBiLinear:
-                geoidLibrary->convertEllipsoidToEGM84ThirtyMinBiLinearHeight(
-                   _wgs84Geodetic->longitude(), _wgs84Geodetic->latitude(),
-                   tempHeight, &correctedHeight );
-                break;
-              case HeightType::ellipsoidHeight:
-              default:
-                correctedHeight = tempHeight;
-                break;
-            }
+      /* check source datum validity */
+      datumLibraryImplementation->validDatum(
+         source->datumIndex, _wgs84Geodetic.longitude(),
+         _wgs84Geodetic.latitude(), &valid );
+      if( !valid )
+      {
+        strcat( sourceWarningMessage, MSP::CCS::WarningMessages::datum );
+      }
 
-            /* Set the target height */
-            _wgs84Geodetic->setHeight( correctedHeight );
-          }
+      /* check target datum validity */
+      datumLibraryImplementation->validDatum(
+         target->datumIndex, _wgs84Geodetic.longitude(),
+         _wgs84Geodetic.latitude(), &valid );
+      if( !valid )
+      {
+        strcat( targetWarningMessage, MSP::CCS::WarningMessages::datum );
+      }
+    }
+  }
+  else if ((source->datumIndex != WGS84_datum_index) &&
+           (target->datumIndex != WGS84_datum_index) &&
+           (input_height_type == HeightType::ellipsoidHeight) &&
+           ((output_height_type == HeightType::ellipsoidHeight) ||
+            (output_height_type == HeightType::noHeight)))
+  { /* No geoid correction: shift directly to the target datum; the WGS84
+       coordinates are only used to check validity and for the accuracy */
+    datumTransformPlan[sourceDirection]->geodeticShift(
+       &_convertedGeodetic, _wgs84Geodetic, _shiftedGeodetic );
+
+    if( output_height_type == HeightType::noHeight )
+      _shiftedGeodetic.setHeight( 0.0 );
+
+    long valid = 0;
+
+    /* check source datum validity */
+    datumLibraryImplementation->validDatum(
+       source->datumIndex, _wgs84Geodetic.longitude(),
+       _wgs84Geodetic.latitude(), &valid );
+    if( !valid )
+    {
+      strcat( sourceWarningMessage, MSP::CCS::WarningMessages::datum );
+    }
 
-          if (target->datumIndex != WGS84_datum_index)
-          {
-            _shiftedGeodetic = 
-               datumLibraryImplementation->geodeticShiftFromWGS84(
-                  _wgs84Geodetic, target->datumIndex );
+    /* check target datum validity */
+    datumLibraryImplementation->validDatum(
+       target->datumIndex, _wgs84Geodetic.longitude(),
+       _wgs84Geodetic.latitude(), &valid );
+    if( !valid )
+    {
+      strcat( targetWarningMessage, MSP::CCS::WarningMessages::datum );
+    }
+  }
+  else
+  { /* Shift to WGS84, apply geoid correction, shift to target datum */
+    if (source->datumIndex != WGS84_datum_index)
+    {
+      datumTransformPlan[sourceDirection]->shiftToWGS84(
+         &_convertedGeodetic, _wgs84Geodetic );
 
-            switch(output_height_type)
-            {
-              case HeightType::EGM2008TwoPtFiveMinBicubicSpline:
-              case HeightType::EGM96FifteenMinBilinear:
-              case HeightType::EGM96VariableNaturalSpline:
-              case HeightType::EGM84TenDegBilinear:
-              case HeightType::EGM84TenDegNaturalSpline:
-              case HeightType::EGM84ThirtyMinBiLinear:
-                _shiftedGeodetic->setHeight( _wgs84Geodetic->height() );
-                break;
-              case HeightType::noHeight:
-                _shiftedGeodetic->setHeight( 0.0 );
-                break;
-              case HeightType::ellipsoidHeight:
-              default:
-                break;
-            }
+      switch(input_height_type)
+      {
+        case HeightType::EGM2008TwoPtFiveMinBicubicSpline:
+        case HeightType::EGM96FifteenMinBilinear:
+        case HeightType::EGM96VariableNaturalSpline:
+        case HeightType::EGM84TenDegBilinear:
+        case HeightType::EGM84TenDegNaturalSpline:
+        case HeightType::EGM84ThirtyMinBiLinear:
+          _wgs84Geodetic.setHeight( _convertedGeodetic.height() );
+          break;
+        case HeightType::noHeight:
+          _wgs84Geodetic.setHeight( 0.0 );
+          break;
+        case HeightType::ellipsoidHeight:
+        default:
+          break;
+      }
 
-            /* check target datum validity */
-            long targetValid = 0;
+      /* check source datum validity */
+      long sourceValid = 0;
 
-            datumLibraryImplementation->validDatum(
-               target->datumIndex, _wgs84Geodetic->longitude(),
-               _wgs84Geodetic->latitude(), &targetValid );
-            if( !targetValid )
-            {
-               strcat( targetWarningMessage, MSP::CCS::WarningMessages::datum );
-            }
-          }
-          else
-          { /* Copy coordinate tuple */
-            _shiftedGeodetic = new GeodeticCoordinates( *_wgs84Geodetic );
-            if( output_height_type == HeightType::noHeight )
-              _shiftedGeodetic->setHeight( 0.0 );
-          }
-        }
+      datumLibraryImplementation->validDatum(
+         source->datumIndex, _wgs84Geodetic.longitude(),
+         _wgs84Geodetic.latitude(), &sourceValid );
+      if( !sourceValid )
+      {
+        strcat( sourceWarningMessage, MSP::CCS::WarningMessages::datum );
+      }
+    }
+    else
+    { /* Copy coordinate tuple */
+      _wgs84Geodetic = _convertedGeodetic;
+      if( input_height_type == HeightType::noHeight )
+        _wgs84Geodetic.setHeight( 0.0 );
+    }
 
-        /* calculate conversion errors */
-        if( strlen( sourceWarningMessage ) > 0 ||
-           strlen( targetWarningMessage ) > 0 )
-           targetAccuracy.set(-1.0, -1.0, -1.0);
-        else
-        {
-           Precision::Enum precS = sourceCoordinates->precision();
-           Precision::Enum precT = targetCoordinates.precision();
-           Precision::Enum prec = precS;
-           if( precT < prec )
-           {
-              prec = precT;
-           }
-
-           Accuracy* _targetAccuracy =
-              datumLibraryImplementation->datumShiftError(
-           source->datumIndex, target->datumIndex,
-           _wgs84Geodetic->longitude(), 
-           _wgs84Geodetic->latitude(), sourceAccuracy, prec );
-
-           targetAccuracy.set(
-              _targetAccuracy->circularError90(),
-              _targetAccuracy->linearError90(),
-              _targetAccuracy->sphericalError90() );
-
-           delete _targetAccuracy;
-        }
+    if(input_height_type != output_height_type)
+    {
+      double tempHeight;
 
-      /*************************************************************/
-      /* Second coordinate conversion stage, convert from Geodetic */
-      /*************************************************************/
+      /* Convert the source height value to an ellipsoid height value */
+      switch(input_height_type)
+      {
+        case HeightType::EGM2008TwoPtFiveMinBicubicSpline:
+          geoidLibrary->convertEGM2008GeoidHeightToEllipsoidHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             _wgs84Geodetic.height(), &tempHeight);
+          break;
+        case HeightType::EGM96FifteenMinBilinear:
+          geoidLibrary->convertEGM96FifteenMinBilinearGeoidToEllipsoidHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             _wgs84Geodetic.height(), &tempHeight);
+          break;
+        case HeightType::EGM96VariableNaturalSpline:
+          geoidLibrary->convertEGM96VariableNaturalSplineToEllipsoidHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             _wgs84Geodetic.height(), &tempHeight );
+          break;
+        case HeightType::EGM84TenDegBilinear:
+          geoidLibrary->convertEGM84TenDegBilinearToEllipsoidHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             _wgs84Geodetic.height(), &tempHeight );
+          break;
+        case HeightType::EGM84TenDegNaturalSpline:
+          geoidLibrary->convertEGM84TenDegNaturalSplineToEllipsoidHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             _wgs84Geodetic.height(), &tempHeight );
+          break;
+        case HeightType::EGM84ThirtyMinBiLinear:
+          geoidLibrary->convertEGM84ThirtyMinBiLinearToEllipsoidHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             _wgs84Geodetic.height(), &tempHeight );
+          break;
+        case HeightType::ellipsoidHeight:
+        default:
+          tempHeight = _wgs84Geodetic.height();
+          break;
+      }
 
-      convertGeodeticToTarget(
-         targetDirection, _shiftedGeodetic,
-         targetCoordinates, targetWarningMessage );
+      double correctedHeight;
 
-      // Format and set the warning message in the target coordinates
-      char warningMessage[500] = "";
-      bool warning = false;
-      if( strlen( sourceWarningMessage ) > 0 )
+      /* Convert the ellipsoid height value to the target height value */
+      switch(output_height_type)
       {
-        strcpy( warningMessage, "Input " );
-        strcat( warningMessage,
-           Coordinate_System_Table[source->coordinateType].Name );
-        strcat( warningMessage, ": \n" );
-        strcat( warningMessage, sourceWarningMessage );
-        warning = true;
+        case HeightType::EGM2008TwoPtFiveMinBicubicSpline:
+          geoidLibrary->convertEllipsoidHeightToEGM2008GeoidHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             tempHeight, &correctedHeight );
+          break;
+        case HeightType::EGM96FifteenMinBilinear:
+          geoidLibrary->convertEllipsoidToEGM96FifteenMinBilinearGeoidHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             tempHeight, &correctedHeight );
+          break;
+        case HeightType::EGM96VariableNaturalSpline:
+          geoidLibrary->convertEllipsoidToEGM96VariableNaturalSplineHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             tempHeight, &correctedHeight );
+          break;
+        case HeightType::EGM84TenDegBilinear:
+          geoidLibrary->convertEllipsoidToEGM84TenDegBilinearHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             tempHeight, &correctedHeight );
+          break;
+        case HeightType::EGM84TenDegNaturalSpline:
+          geoidLibrary->convertEllipsoidToEGM84TenDegNaturalSplineHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             tempHeight, &correctedHeight );
+          break;
+        case HeightType::EGM84ThirtyMinBiLinear:
+          geoidLibrary->convertEllipsoidToEGM84ThirtyMinBiLinearHeight(
+             _wgs84Geodetic.longitude(), _wgs84Geodetic.latitude(),
+             tempHeight, &correctedHeight );
+          break;
+        case HeightType::ellipsoidHeight:
+        default:
+          correctedHeight = tempHeight;
+          break;
       }
-    
-      if( strlen( targetWarningMessage ) > 0 )
-      {
-        if( strlen( warningMessage ) > 0 )
-          strcat( warningMessage, "\nOutput " );
-        else
-          strcpy( warningMessage, "Output " );
 
-        strcat( warningMessage,
-           Coordinate_System_Table[target->coordinateType].Name );
-        strcat( warningMessage, ": \n" );
-        strcat( warningMessage, targetWarningMessage );
-        warning = true;
+      /* Set the target height */
+      _wgs84Geodetic.setHeight( correctedHeight );
+    }
+
+    if (target->datumIndex != WGS84_datum_index)
+    {
+      datumTransformPlan[sourceDirection]->shiftFromWGS84(
+         &_wgs84Geodetic, _shiftedGeodetic );
+
+      switch(output_height_type)
+      {
+        case HeightType::EGM2008TwoPtFiveMinBicubicSpline:
+        case HeightType::EGM96FifteenMinBilinear:
+        case HeightType::EGM96VariableNaturalSpline:
+        case HeightType::EGM84TenDegBilinear:
+        case HeightType::EGM84TenDegNaturalSpline:
+        case HeightType::EGM84ThirtyMinBiLinear:
+          _shiftedGeodetic.setHeight( _wgs84Geodetic.height() );
+          break;
+        case HeightType::noHeight:
+          _shiftedGeodetic.setHeight( 0.0 );
+          break;
+        case HeightType::ellipsoidHeight:
+        default:
+          break;
       }
-      
-      if( warning )
+
+      /* check target datum validity */
+      long targetValid = 0;
+
+      datumLibraryImplementation->validDatum(
+         target->datumIndex, _wgs84Geodetic.longitude(),
+         _wgs84Geodetic.latitude(), &targetValid );
+      if( !targetValid )
       {
-        warningMessage[strlen( warningMessage )] = '\0';
-        targetCoordinates.setWarningMessage(warningMessage);
+         strcat( targetWarningMessage, MSP::CCS::WarningMessages::datum );
       }
-    } /* if (!special) */
+    }
+    else
+    { /* Copy coordinate tuple */
+      _shiftedGeodetic = _wgs84Geodetic;
+      if( output_height_type == HeightType::noHeight )
+        _shiftedGeodetic.setHeight( 0.0 );
+    }
   }
-  catch(CoordinateConversionException e)
+
+  /* calculate conversion errors */
+  if( strlen( sourceWarningMessage ) > 0 ||
+     strlen( targetWarningMessage ) > 0 )
+     targetAccuracy.set(-1.0, -1.0, -1.0);
+  else
   {
-    targetAccuracy.set(-1.0, -1.0, -1.0);
-	
-	/* since initialized to 0 at the top is safe to 
-	   cleanup memory before rethrowing the exception */
-    delete _convertedGeodetic;
-    delete _shiftedGeodetic;
-    delete _wgs84Geodetic;
+     Precision::Enum precS = sourceCoordinates->precision();
+     Precision::Enum precT = targetCoordinates.precision();
+     Precision::Enum prec = precS;
+     if( precT < prec )
+     {
+        prec = precT;
+     }
+
+     datumLibraryImplementation->datumShiftError(
+        source->datumIndex, target->datumIndex,
+        _wgs84Geodetic.longitude(), 
+        _wgs84Geodetic.latitude(), sourceAccuracy, prec,
+        targetAccuracy );
+  }
+}
 
-    throw CoordinateConversionException(e.getMessage());        
+
+void CoordinateConversionService::setTargetWarningMessage(
+   SourceOrTarget::Enum sourceDirection,
+   SourceOrTarget::Enum targetDirection,
+   const char*          sourceWarningMessage,
+   const char*          targetWarningMessage,
+   CoordinateTuple&     targetCoordinates )
+{
+/*
+ *  The function setTargetWarningMessage combines the warnings raised while
+ *  converting from the source coordinates and to the target coordinates,
+ *  and sets them as the warning message of the target coordinates.
+ */
+
+  Coordinate_State_Row* source = &coordinateSystemState[sourceDirection];
+  Coordinate_State_Row* target = &coordinateSystemState[targetDirection];
+
+  // Format and set the warning message in the target coordinates
+  char warningMessage[500] = "";
+  bool warning = false;
+  if( strlen( sourceWarningMessage ) > 0 )
+  {
+    strcpy( warningMessage, "Input " );
+    strcat( warningMessage,
+       Coordinate_System_Table[source->coordinateType].Name );
+    strcat( warningMessage, ": \n" );
+    strcat( warningMessage, sourceWarningMessage );
+    warning = true;
   }
 
-  // cleanup memory before returning
-  delete _convertedGeodetic;
-  delete _shiftedGeodetic;
-  delete _wgs84Geodetic;
+  if( strlen( targetWarningMessage ) > 0 )
+  {
+    if( strlen( warningMessage ) > 0 )
+      strcat( warningMessage, "\nOutput " );
+    else
+      strcpy( warningMessage, "Output " );
 
+    strcat( warningMessage,
+       Coordinate_System_Table[target->coordinateType].Name );
+    strcat( warningMessage, ": \n" );
+    strcat( warningMessage, targetWarningMessage );
+    warning = true;
+  }
+  
+  if( warning )
+  {
+    warningMessage[strlen( warningMessage )] = '\0';
+    targetCoordinates.setWarningMessage(warningMessage);
+  }
 }
 
 
@@ -3022,6 +3334,116 @@ GeodeticCoordinates* CoordinateConversionService::convertSourceToGeodetic(
 }
 
 
+void CoordinateConversionService::convertSourceToGeodetic(
+   SourceOrTarget::Enum sourceDirection,
+   CoordinateTuple*     sourceCoordinates,
+   char*                sourceWarningMessage,
+   GeodeticCoordinates& convertedGeodetic )
+{
+/*
+ *  This version of convertSourceToGeodetic stores the geodetic coordinates
+ *  in convertedGeodetic, supplied by the caller.  The most commonly used
+ *  coordinate systems are converted without allocating any coordinate
+ *  tuples; the others are converted by the allocating version.
+ */
+
+  Coordinate_State_Row* source = &coordinateSystemState[sourceDirection];
+
+  try
+  {
+  switch (source->coordinateType)
+  {
+    case CoordinateType::geocentric:
+    {
+        CartesianCoordinates* coordinates =
+           dynamic_cast< CartesianCoordinates* >( sourceCoordinates );
+
+        ((Geocentric*)(source->coordinateSystem))->convertToGeodetic(
+           coordinates, convertedGeodetic );
+        return;
+    }
+    case CoordinateType::geodetic:
+    {
+        convertedGeodetic =
+           *dynamic_cast< GeodeticCoordinates* >( sourceCoordinates );
+
+        if( source->parameters.geodeticParameters->heightType() == HeightType::noHeight )
+          convertedGeodetic.setHeight( 0.0 );
+
+        return;
+    }
+    case CoordinateType::lambertConformalConic1Parallel:
+    case CoordinateType::lambertConformalConic2Parallels:
+    {
+        MapProjectionCoordinates* coordinates = dynamic_cast< MapProjectionCoordinates* >( sourceCoordinates );
+
+        ((LambertConformalConic*)(source->coordinateSystem))->convertToGeodetic( coordinates, convertedGeodetic );
+        return;
+    }
+    case CoordinateType::mercatorStandardParallel:
+    case CoordinateType::mercatorScaleFactor:
+    {
+        MapProjectionCoordinates* coordinates =
+           dynamic_cast< MapProjectionCoordinates* >( sourceCoordinates );
+
+        ((Mercator*)(source->coordinateSystem))->convertToGeodetic( coordinates, convertedGeodetic );
+        return;
+    }
+    case CoordinateType::polarStereographicStandardParallel:
+    case CoordinateType::polarStereographicScaleFactor:
+    {
+        MapProjectionCoordinates* coordinates = dynamic_cast< MapProjectionCoordinates* >( sourceCoordinates );
+
+        ((PolarStereographic*)(source->coordinateSystem))->convertToGeodetic( coordinates, convertedGeodetic );
+        return;
+    }
+    case CoordinateType::transverseMercator:
+    {
+        MapProjectionCoordinates* coordinates = dynamic_cast< MapProjectionCoordinates* >( sourceCoordinates );
+
+        ((TransverseMercator*)(source->coordinateSystem))->convertToGeodetic( coordinates, convertedGeodetic );
+
+        if( strlen( convertedGeodetic.warningMessage() ) > 0)
+          strcat( sourceWarningMessage, convertedGeodetic.warningMessage() );
+
+        return;
+    }
+    case CoordinateType::universalPolarStereographic:
+    {
+        UPSCoordinates* coordinates = dynamic_cast< UPSCoordinates* >( sourceCoordinates );
+
+        ((UPS*)(source->coordinateSystem))->convertToGeodetic( coordinates, convertedGeodetic );
+        return;
+    }
+    case CoordinateType::universalTransverseMercator:
+    {
+        UTMCoordinates* coordinates = dynamic_cast< UTMCoordinates* >( sourceCoordinates );
+
+        ((UTM*)(source->coordinateSystem))->convertToGeodetic( coordinates, convertedGeodetic );
+        return;
+    }
+    default:
+      break;
+  }
+  }
+  catch( CoordinateConversionException e )
+  {
+     throw CoordinateConversionException(
+        "Input ", Coordinate_System_Table[source->coordinateType].Name,
+        ": \n", e.getMessage() );
+  }
+
+  GeodeticCoordinates* geodeticCoordinates = convertSourceToGeodetic(
+     sourceDirection, sourceCoordinates, sourceWarningMessage );
+
+  if( geodeticCoordinates )
+  {
+    convertedGeodetic = *geodeticCoordinates;
+    delete geodeticCoordinates;
+  }
+}
+
+
 void CoordinateConversionService::convertGeodeticToTarget(
    SourceOrTarget::Enum targetDirection,
    GeodeticCoordinates* _shiftedGeodetic,
@@ -3039,14 +3461,12 @@ void CoordinateConversionService::convertGeodeticToTarget(
   {
     case CoordinateType::geocentric:
     {
-        CartesianCoordinates* coordinates =
-           ((Geocentric*)(target->coordinateSystem))->convertFromGeodetic(
-              _shiftedGeodetic );
+        CartesianCoordinates coordinates( CoordinateType::geocentric );
+        ((Geocentric*)(target->coordinateSystem))->convertFromGeodetic(
+           _shiftedGeodetic, coordinates );
 
         ( dynamic_cast< CartesianCoordinates& >( targetCoordinates ) ).set(
-           coordinates->x(), coordinates->y(), coordinates->z() );
-
-        delete coordinates;
+           coordinates.x(), coordinates.y(), coordinates.z() );
 
       break;
 	} 
@@ -3266,29 +3686,25 @@ void CoordinateConversionService::convertGeodeticToTarget(
     }
    case CoordinateType::lambertConformalConic1Parallel:
     {
-        MapProjectionCoordinates* coordinates =
-           ((LambertConformalConic*)(
-               target->coordinateSystem))->convertFromGeodetic(
-                  _shiftedGeodetic );
+        MapProjectionCoordinates coordinates( target->coordinateType );
+        ((LambertConformalConic*)(
+            target->coordinateSystem))->convertFromGeodetic(
+               _shiftedGeodetic, coordinates );
 
         ( dynamic_cast< MapProjectionCoordinates& >( targetCoordinates ) ).set(
-           coordinates->easting(), coordinates->northing() );
-
-        delete coordinates;
+           coordinates.easting(), coordinates.northing() );
 
       break;
       }
      case CoordinateType::lambertConformalConic2Parallels:
     {
-        MapProjectionCoordinates* coordinates =
-           ((LambertConformalConic*)(
-               target->coordinateSystem))->convertFromGeodetic(
-                  _shiftedGeodetic );
+        MapProjectionCoordinates coordinates( target->coordinateType );
+        ((LambertConformalConic*)(
+            target->coordinateSystem))->convertFromGeodetic(
+               _shiftedGeodetic, coordinates );
 
         ( dynamic_cast< MapProjectionCoordinates& >( targetCoordinates ) ).set(
-           coordinates->easting(), coordinates->northing() );
-
-        delete coordinates;
+           coordinates.easting(), coordinates.northing() );
 
       break;
     }
@@ -3321,14 +3737,12 @@ void CoordinateConversionService::convertGeodeticToTarget(
 	case CoordinateType::mercatorStandardParallel:
     case CoordinateType::mercatorScaleFactor:
     {
-        MapProjectionCoordinates* coordinates =
-           ((Mercator*)(target->coordinateSystem))->convertFromGeodetic(
-              _shiftedGeodetic );
+        MapProjectionCoordinates coordinates( target->coordinateType );
+        ((Mercator*)(target->coordinateSystem))->convertFromGeodetic(
+           _shiftedGeodetic, coordinates );
 
         ( dynamic_cast< MapProjectionCoordinates& >( targetCoordinates ) ).set(
-           coordinates->easting(), coordinates->northing() );
-
-        delete coordinates;
+           coordinates.easting(), coordinates.northing() );
 
       break;
     }
@@ -3441,15 +3855,13 @@ void CoordinateConversionService::convertGeodeticToTarget(
     case CoordinateType::polarStereographicStandardParallel:
     case CoordinateType::polarStereographicScaleFactor:
     {
-        MapProjectionCoordinates* coordinates =
-           ((PolarStereographic*)(
-               target->coordinateSystem))->convertFromGeodetic(
-                  _shiftedGeodetic );
+        MapProjectionCoordinates coordinates( target->coordinateType );
+        ((PolarStereographic*)(
+            target->coordinateSystem))->convertFromGeodetic(
+               _shiftedGeodetic, coordinates );
 
         ( dynamic_cast< MapProjectionCoordinates& >( targetCoordinates ) ).set(
-           coordinates->easting(), coordinates->northing() );
-
-        delete coordinates;
+           coordinates.easting(), coordinates.northing() );
 
       break;
     }
@@ -3520,36 +3932,32 @@ void CoordinateConversionService::convertGeodeticToTarget(
     }
     case CoordinateType::transverseMercator:
     {
-        MapProjectionCoordinates* coordinates =
-           ((TransverseMercator*)(
-               target->coordinateSystem))->convertFromGeodetic(
-                  _shiftedGeodetic );
+        MapProjectionCoordinates coordinates( CoordinateType::transverseMercator );
+        ((TransverseMercator*)(
+            target->coordinateSystem))->convertFromGeodetic(
+               _shiftedGeodetic, coordinates );
 
         ( dynamic_cast< MapProjectionCoordinates& >( targetCoordinates ) ).set(
-           coordinates->easting(), coordinates->northing() );
+           coordinates.easting(), coordinates.northing() );
 
-        if( strlen( coordinates->warningMessage() ) > 0)
+        if( strlen( coordinates.warningMessage() ) > 0)
         {
-          targetCoordinates.setWarningMessage( coordinates->warningMessage() );
+          targetCoordinates.setWarningMessage( coordinates.warningMessage() );
           strcat( targetWarningMessage, targetCoordinates.warningMessage() );
         }
 
-        delete coordinates;
-
       break;
     }
     case CoordinateType::universalPolarStereographic:
     {
-        UPSCoordinates* coordinates =
-           ((UPS*)(target->coordinateSystem))->convertFromGeodetic(
-              _shiftedGeodetic );
+        UPSCoordinates coordinates( CoordinateType::universalPolarStereographic );
+        ((UPS*)(target->coordinateSystem))->convertFromGeodetic(
+           _shiftedGeodetic, coordinates );
 
         ( dynamic_cast< UPSCoordinates& >( targetCoordinates ) ).set(
-           coordinates->hemisphere(),
-           coordinates->easting(),
-           coordinates->northing() );
-
-        delete coordinates;
+           coordinates.hemisphere(),
+           coordinates.easting(),
+           coordinates.northing() );
 
       break;
     }
@@ -3576,15 +3984,13 @@ void CoordinateConversionService::convertGeodeticToTarget(
     }
     case CoordinateType::universalTransverseMercator:
     {
-        UTMCoordinates* coordinates =
-           ((UTM*)(target->coordinateSystem))->convertFromGeodetic(
-              _shiftedGeodetic );
+        UTMCoordinates coordinates( CoordinateType::universalTransverseMercator );
+        ((UTM*)(target->coordinateSystem))->convertFromGeodetic(
+           _shiftedGeodetic, coordinates );
 
         ( dynamic_cast< UTMCoordinates& >( targetCoordinates ) ).set(
-           coordinates->zone(), coordinates->hemisphere(),
-           coordinates->easting(), coordinates->northing() );
-
-        delete coordinates;
+           coordinates.zone(), coordinates.hemisphere(),
+           coordinates.easting(), coordinates.northing() );
 
       break;
     }
@@ -3625,7 +4031,234 @@ void CoordinateConversionService::convertGeodeticToTarget(
 }
 
 
+void CoordinateConversionService::convertBatch(
+   SourceOrTarget::Enum sourceDirection,
+   SourceOrTarget::Enum targetDirection,
+   ConversionBatch&     batch )
+{
+/*
+ *  The function convertBatch converts the points queued by convertCollection
+ *  from the source to the target coordinate system, with the same results
+ *  as converting them one at a time with convert.  UTM source coordinates
+ *  are converted to geodetic, and geodetic coordinates are converted to
+ *  UTM or MGRS target coordinates, by the batch conversions of those
+ *  coordinate systems; the datum transformation and the other coordinate
+ *  systems are handled one point at a time.  The batch is emptied.
+ *
+ *  sourceDirection : Indicates which set of coordinates and parameters to
+ *                    use as the source                          (input)
+ *  targetDirection : Indicates which set of coordinates and parameters to
+ *                    use as the target                          (input)
+ *  batch           : Queued points and their conversion storage (input/output)
+ */
+
+  CCSThreadLock lock(conversionMutex);
+
+  Coordinate_State_Row* source = &coordinateSystemState[sourceDirection];
+  Coordinate_State_Row* target = &coordinateSystemState[targetDirection];
+
+  bool batchSource =
+     (source->coordinateType == CoordinateType::universalTransverseMercator);
+  bool batchTarget =
+     (target->coordinateType == CoordinateType::universalTransverseMercator) ||
+     (target->coordinateType == CoordinateType::militaryGridReferenceSystem);
+
+  GeodeticCoordinates _convertedGeodetic( CoordinateType::geodetic );
+  GeodeticCoordinates _shiftedGeodetic( CoordinateType::geodetic );
+
+  /**********************************************************/
+  /* First coordinate conversion stage, convert to Geodetic */
+  /**********************************************************/
+
+  if( batchSource )
+  {
+    for( int i = 0; i < batch.size; i++ )
+    {
+      UTMCoordinates* coordinates =
+         dynamic_cast< UTMCoordinates* >( batch.sourceCoordinates[i] );
+      if( coordinates )
+      {
+        batch.zone[i]       = coordinates->zone();
+        batch.hemisphere[i] = coordinates->hemisphere();
+        batch.easting[i]    = coordinates->easting();
+        batch.northing[i]   = coordinates->northing();
+      }
+      else
+      {
+        batch.zone[i]       = 0;
+        batch.hemisphere[i] = 0;
+        batch.easting[i]    = 0;
+        batch.northing[i]   = 0;
+      }
+    }
+
+    ((UTM*)(source->coordinateSystem))->convertToGeodetic(
+       batch.size, batch.zone, batch.hemisphere, batch.easting,
+       batch.northing, batch.longitude, batch.latitude, batch.errorMessages );
+  }
+
+  for( int i = 0; i < batch.size; i++ )
+  {
+    batch.failed[i] = false;
+    batch.sourceWarningMessage[i][0] = '\0';
+    batch.targetWarningMessage[i][0] = '\0';
+
+    try
+    {
+      if( batchSource )
+      {
+        if( batch.errorMessages[i] )
+        {
+          throw CoordinateConversionException(
+             "Input ", Coordinate_System_Table[source->coordinateType].Name,
+             ": \n", batch.errorMessages[i] );
+        }
+
+        _convertedGeodetic = GeodeticCoordinates(
+           CoordinateType::geodetic, batch.longitude[i], batch.latitude[i] );
+      }
+      else
+      {
+        convertSourceToGeodetic(
+           sourceDirection, batch.sourceCoordinates[i],
+           batch.sourceWarningMessage[i], _convertedGeodetic );
+      }
+
+      /******************************/
+      /* Datum Transformation Stage */
+      /******************************/
+
+      transformDatum(
+         sourceDirection, targetDirection,
+         batch.sourceCoordinates[i], batch.sourceAccuracy[i],
+         _convertedGeodetic, _shiftedGeodetic, *batch.targetCoordinates[i],
+         *batch.targetAccuracy[i], batch.sourceWarningMessage[i],
+         batch.targetWarningMessage[i] );
+
+      if( batchTarget )
+      {
+        batch.longitude[i] = _shiftedGeodetic.longitude();
+        batch.latitude[i]  = _shiftedGeodetic.latitude();
+      }
+      else
+      {
+        convertGeodeticToTarget(
+           targetDirection, &_shiftedGeodetic,
+           *batch.targetCoordinates[i], batch.targetWarningMessage[i] );
+
+        setTargetWarningMessage(
+           sourceDirection, targetDirection,
+           batch.sourceWarningMessage[i], batch.targetWarningMessage[i],
+           *batch.targetCoordinates[i] );
+      }
+    }
+    catch( CoordinateConversionException e )
+    {
+      batch.failed[i] = true;
+      batch.targetAccuracy[i]->set( -1.0, -1.0, -1.0 );
+      batch.targetCoordinates[i]->setErrorMessage( e.getMessage() );
+    }
+  }
+
+  /*************************************************************/
+  /* Second coordinate conversion stage, convert from Geodetic */
+  /*************************************************************/
+
+  if( batchTarget )
+  {
+    // Gather the points converted so far
+    int count = 0;
+    for( int i = 0; i < batch.size; i++ )
+    {
+      if( !batch.failed[i] )
+      {
+        batch.index[count]     = i;
+        batch.longitude[count] = batch.longitude[i];
+        batch.latitude[count]  = batch.latitude[i];
+
+        if( target->coordinateType ==
+            CoordinateType::militaryGridReferenceSystem )
+        {
+          Precision::Enum temp_precision =
+             batch.targetCoordinates[i]->precision();
+
+          if (temp_precision < 0)
+            temp_precision = Precision::degree;
+          if (temp_precision > 5)
+            temp_precision = Precision::tenthOfSecond;
+
+          batch.precision[count] = temp_precision;
+        }
+
+        count++;
+      }
+    }
+
+    if( target->coordinateType == CoordinateType::universalTransverseMercator )
+    {
+      ((UTM*)(target->coordinateSystem))->convertFromGeodetic(
+         count, batch.longitude, batch.latitude, batch.zone,
+         batch.hemisphere, batch.easting, batch.northing,
+         batch.errorMessages );
+    }
+    else
+    {
+      ((MGRS*)(target->coordinateSystem))->convertFromGeodetic(
+         count, batch.longitude, batch.latitude, batch.precision,
+         batch.mgrsorUSNGCoordinates );
+    }
+
+    for( int j = 0; j < count; j++ )
+    {
+      int i = batch.index[j];
+      const char* errorMessage;
+
+      if( target->coordinateType == CoordinateType::universalTransverseMercator )
+        errorMessage = batch.errorMessages[j];
+      else if( strlen( batch.mgrsorUSNGCoordinates[j].errorMessage() ) > 0 )
+        errorMessage = batch.mgrsorUSNGCoordinates[j].errorMessage();
+      else
+        errorMessage = 0;
+
+      if( errorMessage )
+      {
+        CoordinateConversionException e(
+           "Output ", Coordinate_System_Table[target->coordinateType].Name,
+           ": \n", errorMessage );
+
+        batch.targetAccuracy[i]->set( -1.0, -1.0, -1.0 );
+        batch.targetCoordinates[i]->setErrorMessage( e.getMessage() );
+        continue;
+      }
+
+      if( target->coordinateType == CoordinateType::universalTransverseMercator )
+      {
+        ( dynamic_cast< UTMCoordinates& >( *batch.targetCoordinates[i] ) ).set(
+           batch.zone[j], batch.hemisphere[j],
+           batch.easting[j], batch.northing[j] );
+      }
+      else
+      {
+        char mgrsString[21];
+        strcpy( mgrsString, batch.mgrsorUSNGCoordinates[j].MGRSString() );
+        ( dynamic_cast< MGRSorUSNGCoordinates& >(
+             *batch.targetCoordinates[i] ) ).set( mgrsString );
+      }
+
+      setTargetWarningMessage(
+         sourceDirection, targetDirection,
+         batch.sourceWarningMessage[i], batch.targetWarningMessage[i],
+         *batch.targetCoordinates[i] );
+    }
+  }
+
+  batch.size = 0;
+}
+
+
 void CoordinateConversionService::convertCollection(
+   SourceOrTarget::Enum                           sourceDirection,
+   SourceOrTarget::Enum                           targetDirection,
    const std::vector<MSP::CCS::CoordinateTuple*>& sourceCoordinatesCollection,
    const std::vector<MSP::CCS::Accuracy*>&        sourceAccuracyCollection,
    std::vector<MSP::CCS::CoordinateTuple*>&       targetCoordinatesCollection,
@@ -3635,6 +4268,10 @@ void CoordinateConversionService::convertCollection(
  *  The function convertCollection will convert a list of source coordinates
  *  to a list of target coordinates in a single step.
  *
+ *  sourceDirection : Indicates which set of coordinates and parameters to
+ *                    use as the source                             (input)
+ *  targetDirection : Indicates which set of coordinates and parameters to
+ *                    use as the target                             (input)
  *  sourceCoordinatesCollection : Coordinates to be converted           (input)
  *  sourceAccuracyCollection  : Source circular/linear/spherical errors (input)
  *  targetCoordinatesCollection : Converted coordinates                 (output)
@@ -3645,11 +4282,43 @@ void CoordinateConversionService::convertCollection(
   int numTargetCoordinates = targetCoordinatesCollection.size();
   int numTargetAccuracies = targetAccuracyCollection.size();
   CoordinateType::Enum targetCoordinateType = 
-     coordinateSystemState[SourceOrTarget::target].coordinateType;
+     coordinateSystemState[targetDirection].coordinateType;
+  CoordinateType::Enum sourceCoordinateType =
+     coordinateSystemState[sourceDirection].coordinateType;
 
   CoordinateTuple* _targetCoordinates = 0;
   Accuracy* _targetAccuracy;
 
+  // Conversions to UTM and MGRS, and from UTM to geodetic, are queued and
+  // converted in batches through the UTM batch conversions, except for
+  // the source coordinate systems which convert has special cases for
+  bool batchConversion = false;
+  switch(targetCoordinateType)
+  {
+    case CoordinateType::universalTransverseMercator:
+      batchConversion =
+         (sourceCoordinateType != CoordinateType::militaryGridReferenceSystem) &&
+         (sourceCoordinateType != CoordinateType::usNationalGrid) &&
+         (sourceCoordinateType != CoordinateType::webMercator);
+      break;
+    case CoordinateType::militaryGridReferenceSystem:
+      batchConversion =
+         (sourceCoordinateType != CoordinateType::universalTransverseMercator) &&
+         (sourceCoordinateType != CoordinateType::universalPolarStereographic) &&
+         (sourceCoordinateType != CoordinateType::webMercator);
+      break;
+    case CoordinateType::geodetic:
+      batchConversion =
+         (sourceCoordinateType == CoordinateType::universalTransverseMercator);
+      break;
+    default:
+      break;
+  }
+
+  ConversionBatch* batch = 0;
+  if( batchConversion && (num > 1) )
+    batch = new ConversionBatch();
+
   for( int i = 0; i < num; i++ )
   {
     CoordinateTuple* _sourceCoordinates = sourceCoordinatesCollection[i];
@@ -3683,8 +4352,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -3711,8 +4380,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -3739,8 +4408,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -3767,8 +4436,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -3795,8 +4464,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -3823,8 +4492,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -3851,8 +4520,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -3879,8 +4548,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -3907,8 +4576,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -3935,7 +4604,7 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source, SourceOrTarget::target,
+               sourceDirection, targetDirection,
                sourceCoordinatesCollection[i], sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
           }
@@ -3961,7 +4630,7 @@ void CoordinateConversionService::convertCollection(
 		  try
 		  {
 		    convert(
-			   SourceOrTarget::source, SourceOrTarget::target,
+			   sourceDirection, targetDirection,
 			   sourceCoordinatesCollection[i], sourceAccuracyCollection[i],
 			   *_targetCoordinates, *_targetAccuracy); 
           }
@@ -3984,16 +4653,27 @@ void CoordinateConversionService::convertCollection(
                CoordinateType::geodetic);
             targetCoordinateExists = false;
           }
-          try
+          if( batch )
           {
-            convert(
-               SourceOrTarget::source, SourceOrTarget::target,
+            batch->add(
                sourceCoordinatesCollection[i], sourceAccuracyCollection[i],
-               *_targetCoordinates, *_targetAccuracy);
+               _targetCoordinates, _targetAccuracy );
+            if( batch->size == COLLECTION_BATCH_SIZE )
+              convertBatch( sourceDirection, targetDirection, *batch );
           }
-          catch(CoordinateConversionException e)
+          else
           {
-            _targetCoordinates->setErrorMessage(e.getMessage());
+            try
+            {
+              convert(
+                 sourceDirection, targetDirection,
+                 sourceCoordinatesCollection[i], sourceAccuracyCollection[i],
+                 *_targetCoordinates, *_targetAccuracy);
+            }
+            catch(CoordinateConversionException e)
+            {
+              _targetCoordinates->setErrorMessage(e.getMessage());
+            }
           }
 
           if(!targetCoordinateExists)
@@ -4012,8 +4692,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4040,8 +4720,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4068,8 +4748,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4096,8 +4776,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates,
@@ -4125,8 +4805,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4153,8 +4833,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4181,8 +4861,8 @@ void CoordinateConversionService::convertCollection(
 		  try
 		  {
 			convert(
-                SourceOrTarget::source,
-				SourceOrTarget::target,
+                sourceDirection,
+				targetDirection,
 				sourceCoordinatesCollection[i],
 				sourceAccuracyCollection[i],
 				*_targetCoordinates, *_targetAccuracy);
@@ -4209,8 +4889,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4237,8 +4917,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4262,18 +4942,29 @@ void CoordinateConversionService::convertCollection(
                CoordinateType::militaryGridReferenceSystem);
             targetCoordinateExists = false;
           }
-          try
+          if( batch )
           {
-            convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
-               sourceCoordinatesCollection[i],
-               sourceAccuracyCollection[i],
-               *_targetCoordinates, *_targetAccuracy);
+            batch->add(
+               sourceCoordinatesCollection[i], sourceAccuracyCollection[i],
+               _targetCoordinates, _targetAccuracy );
+            if( batch->size == COLLECTION_BATCH_SIZE )
+              convertBatch( sourceDirection, targetDirection, *batch );
           }
-          catch(CoordinateConversionException e)
+          else
           {
-            _targetCoordinates->setErrorMessage(e.getMessage());
+            try
+            {
+              convert(
+                 sourceDirection,
+                 targetDirection,
+                 sourceCoordinatesCollection[i],
+                 sourceAccuracyCollection[i],
+                 *_targetCoordinates, *_targetAccuracy);
+            }
+            catch(CoordinateConversionException e)
+            {
+              _targetCoordinates->setErrorMessage(e.getMessage());
+            }
           }
 
           if(!targetCoordinateExists)
@@ -4293,8 +4984,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4321,8 +5012,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4349,8 +5040,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4377,8 +5068,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4405,8 +5096,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4433,8 +5124,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4461,8 +5152,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4489,8 +5180,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4517,8 +5208,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4545,8 +5236,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4573,8 +5264,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4601,8 +5292,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4629,8 +5320,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4657,8 +5348,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                _sourceCoordinates,
                _sourceAccuracy,
                *_targetCoordinates, *_targetAccuracy);
@@ -4682,18 +5373,29 @@ void CoordinateConversionService::convertCollection(
                CoordinateType::universalTransverseMercator);
             targetCoordinateExists = false;
           }
-          try
+          if( batch )
           {
-            convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
-               sourceCoordinatesCollection[i],
-               sourceAccuracyCollection[i],
-               *_targetCoordinates, *_targetAccuracy);
+            batch->add(
+               sourceCoordinatesCollection[i], sourceAccuracyCollection[i],
+               _targetCoordinates, _targetAccuracy );
+            if( batch->size == COLLECTION_BATCH_SIZE )
+              convertBatch( sourceDirection, targetDirection, *batch );
           }
-          catch(CoordinateConversionException e)
+          else
           {
-            _targetCoordinates->setErrorMessage(e.getMessage());
+            try
+            {
+              convert(
+                 sourceDirection,
+                 targetDirection,
+                 sourceCoordinatesCollection[i],
+                 sourceAccuracyCollection[i],
+                 *_targetCoordinates, *_targetAccuracy);
+            }
+            catch(CoordinateConversionException e)
+            {
+              _targetCoordinates->setErrorMessage(e.getMessage());
+            }
           }
 
           if(!targetCoordinateExists)
@@ -4713,8 +5415,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4741,8 +5443,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4769,8 +5471,8 @@ void CoordinateConversionService::convertCollection(
           try
           {
             convert(
-               SourceOrTarget::source,
-               SourceOrTarget::target,
+               sourceDirection,
+               targetDirection,
                sourceCoordinatesCollection[i],
                sourceAccuracyCollection[i],
                *_targetCoordinates, *_targetAccuracy);
@@ -4829,6 +5531,13 @@ void CoordinateConversionService::convertCollection(
     }
   }
 
+  if( batch )
+  {
+    if( batch->size > 0 )
+      convertBatch( sourceDirection, targetDirection, *batch );
+    delete batch;
+  }
+
   if(numTargetCoordinates > num)
   {
     for(int i = num; i < numTargetCoordinates; i++)
@@ -72,6 +72,16 @@
  *   07-17-06    Added support for GARS
  *   03-17-07    Original C++ Code
  *   07-20-10    NGL BAEts27152 Updated getServiceVersion to return an int
+ *   10-17-26    Replaced process-wide conversion lock with a per-instance
+ *               conversionMutex
+ *   10-17-26    convert() keeps its intermediate geodetic coordinates
+ *               on the stack
+ *   10-17-26    convertCollection() converts UTM and MGRS coordinates in
+ *               batches
+ *   10-17-26    convertTargetToSourceCollection() converts from the target
+ *               to the source coordinate system
+ *   10-17-26    Datum shifts use DatumTransformPlans created with the service
+ *   10-17-26    Added pinDataLibraries() and unpinDataLibraries()
  */
 
 
@@ -104,6 +114,7 @@ namespace MSP
     class EllipsoidLibraryImplementation;
     class DatumLibrary;
     class DatumLibraryImplementation;
+    class DatumTransformPlan;
     class GeoidLibrary;
     class Accuracy;
     class CoordinateSystemParameters;
@@ -317,10 +328,46 @@ namespace MSP
            const SourceOrTarget::Enum direction ) const;
 
 
+        /*
+         *  The function pinDataLibraries keeps the ellipsoid, datum and
+         *  geoid libraries, and the data they have read, in memory while
+         *  no service is using them.  Otherwise they are deleted with the
+         *  last service, and the next service reads the data files again.
+         *  Pins are counted: the libraries stay resident until each call
+         *  has been matched by a call to unpinDataLibraries.
+         *
+         *  Setting the environment variable MSPCCS_DATA_RESIDENCY to
+         *  PINNED holds the libraries, for the life of the process, from
+         *  the creation of the first service; unpinDataLibraries does not
+         *  remove that hold.
+         */
+
+        static void pinDataLibraries();
+
+
+        /*
+         *  The function unpinDataLibraries removes a pin added by
+         *  pinDataLibraries.  When the last pin is removed, libraries
+         *  not used by any service are deleted.
+         */
+
+        static void unpinDataLibraries();
+
+
      private:
 
+        /* Guards the shared CCSData reference count across copies */
         static CCSThreadMutex mutex;
 
+        /* Guards this instance's coordinate system state during conversion */
+        CCSThreadMutex* conversionMutex;
+
+        /* Pins holding the data libraries resident, guarded by mutex */
+        static int dataLibraryPins;
+
+        /* Set once MSPCCS_DATA_RESIDENCY has been read, guarded by mutex */
+        static bool dataLibraryResidencyApplied;
+
         /* Object used to keep track of the number of CCS objects */
         struct CCSData
         {
@@ -398,6 +445,10 @@ namespace MSP
 
         long WGS84_datum_index;
 
+        /* datumTransformPlan[x] shifts from the datum of direction x to
+           the datum of the other direction */
+        DatumTransformPlan* datumTransformPlan[2];
+
         /*
          *  The function setDataLibraries sets the initial state of the engine
          *  in preparation for coordinate conversion and/or datum transformation
@@ -428,6 +479,36 @@ namespace MSP
         void deleteCoordinateSystem( const SourceOrTarget::Enum direction );
 
 
+        /*
+         *  The function createDatumTransformPlans creates the datum shift
+         *  plans between the source and target datums, and
+         *  deleteDatumTransformPlans frees them.
+         */
+
+        void createDatumTransformPlans();
+
+        void deleteDatumTransformPlans();
+
+
+        /*
+         *  The function applyDataLibraryResidency holds the data libraries
+         *  for the life of the process if MSPCCS_DATA_RESIDENCY is set to
+         *  PINNED.  Only its first call has any effect.
+         */
+
+        static void applyDataLibraryResidency();
+
+
+        /*
+         *  The function holdDataLibraries gets an instance of each data
+         *  library, and releaseDataLibraries removes one.
+         */
+
+        static void holdDataLibraries();
+
+        static void releaseDataLibraries();
+
+
         /*
          *  The function copyParameters uses the input parameters to set the
          *  value of the current parameters.
@@ -507,6 +588,13 @@ namespace MSP
            char*                sourceWarningMessage );
 
 
+        void convertSourceToGeodetic(
+           SourceOrTarget::Enum sourceDirection,
+           CoordinateTuple*     sourceCoordinates,
+           char*                sourceWarningMessage,
+           GeodeticCoordinates& convertedGeodetic );
+
+
         void convertGeodeticToTarget(
            SourceOrTarget::Enum targetDirection,
            GeodeticCoordinates* _shiftedGeodetic,
@@ -514,10 +602,46 @@ namespace MSP
            char*                targetWarningMessage );
 
 
+        void transformDatum(
+           SourceOrTarget::Enum sourceDirection,
+           SourceOrTarget::Enum targetDirection,
+           CoordinateTuple*     sourceCoordinates,
+           Accuracy*            sourceAccuracy,
+           GeodeticCoordinates& _convertedGeodetic,
+           GeodeticCoordinates& _shiftedGeodetic,
+           CoordinateTuple&     targetCoordinates,
+           Accuracy&            targetAccuracy,
+           char*                sourceWarningMessage,
+           char*                targetWarningMessage );
+
+
+        void setTargetWarningMessage(
+           SourceOrTarget::Enum sourceDirection,
+           SourceOrTarget::Enum targetDirection,
+           const char*          sourceWarningMessage,
+           const char*          targetWarningMessage,
+           CoordinateTuple&     targetCoordinates );
+
+
+        /*
+         *  Points of a collection converted together, defined in the
+         *  implementation file
+         */
+
+        struct ConversionBatch;
+
+        void convertBatch(
+           SourceOrTarget::Enum sourceDirection,
+           SourceOrTarget::Enum targetDirection,
+           ConversionBatch&     batch );
+
+
         /*
          *  The function convertCollection will convert a list of source
          *  coordinates to a list of target coordinates in a single step.
          *
+         *  sourceDirection              : Indicates which set of coordinates and parameters to use as the source (input)
+         *  targetDirection              : Indicates which set of coordinates and parameters to use as the target (input)
          *  sourceCoordinatesCollection  : Coordinates of the source coordinate system to be converted   (input)
          *  sourceAccuracyCollection     : Source circular, linear and spherical errors                  (input)
          *  targetCoordinatesCollection  : Converted coordinates of the target coordinate system         (output)
@@ -525,6 +649,8 @@ namespace MSP
          */
 
         void convertCollection(
+           SourceOrTarget::Enum sourceDirection,
+           SourceOrTarget::Enum targetDirection,
            const std::vector<MSP::CCS::CoordinateTuple*>& sourceCoordinatesCollection,
            const std::vector<MSP::CCS::Accuracy*>& sourceAccuracyCollection,
            std::vector<MSP::CCS::CoordinateTuple*>& targetCoordinatesCollection,
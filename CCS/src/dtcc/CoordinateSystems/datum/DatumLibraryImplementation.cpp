@@ -125,6 +125,15 @@
  *    07/17/12          S.Gillis,MSP_00029561,Fixed problem with deleting datum
  *    08/13/12          S. Gillis, MSP_00029654, Added lat/lon to define7ParamDatum
  *    10/02/17          M. Thakkar : LSC-13195 : Fixed array out of bounds error (DATUM_CODE_LENGTH)
+ *    10/17/26          datumIndex and datumUsesEllipsoid use hashed code
+ *                      indexes kept with each datum table snapshot
+ *    10/17/26          Added createDatumTransformPlan; Molodensky and WGS72
+ *                      shift formulas are shared with DatumTransformPlan
+ *    10/17/26          Datum table is read through an atomic pointer;
+ *                      replaced tables are retired until the library is
+ *                      deleted
+ *    10/17/26          Retired datum tables are deleted once no read
+ *                      section can hold them
  */
 
 
@@ -142,6 +151,7 @@
 #include "EllipsoidParameters.h"
 #include "SevenParameterDatum.h"
 #include "ThreeParameterDatum.h"
+#include "DatumTransformPlan.h"
 #include "Geocentric.h"
 #include "Datum.h"
 #include "CartesianCoordinates.h"
@@ -157,6 +167,7 @@
  *    EllipsoidLibrary.h  - used to get ellipsoid parameters
  *    SevenParameterDatum.h  - creates a 7 parameter datum
  *    ThreeParameterDatum.h  - creates a 3 parameter datum
+ *    DatumTransformPlan.h  - shifts coordinates between two datums
  *    Geocentric.h  - converts between geodetic and geocentric coordinates
  *    Datum.h       - used to store individual datum information
  *    DatumLibraryImplementation.h - for error ehecking and error codes
@@ -198,104 +209,6 @@ const char *WGS84_Datum_Code = "WGE";
 const char *WGS72_Datum_Code = "WGC";
 
 
-/************************************************************************/
-/*                              LOCAL FUNCTIONS     
- *
- */
-
-GeodeticCoordinates* molodenskyShift(
-   const double a,
-   const double da,
-   const double f,
-   const double df,
-   const double dx,
-   const double dy,
-   const double dz,
-   const double sourceLongitude,
-   const double sourceLatitude,
-   const double sourceHeight )
-{ 
-/*
- *  The function molodenskyShift shifts geodetic coordinates
- *  using the Molodensky method.
- *
- *    a               : Semi-major axis of source ellipsoid in meters  (input)
- *    da              : Destination a minus source a                   (input)
- *    f               : Flattening of source ellipsoid                 (input)
- *    df              : Destination f minus source f                   (input)
- *    dx              : X coordinate shift in meters                   (input)
- *    dy              : Y coordinate shift in meters                   (input)
- *    dz              : Z coordinate shift in meters                   (input)
- *    sourceLongitude : Longitude in radians                           (input)
- *    sourceLatitude  : Latitude in radians.                           (input)
- *    sourceHeight    : Height in meters.                              (input)
- *    targetLongitude : Calculated longitude in radians.               (output)
- *    targetLatitude  : Calculated latitude in radians.                (output)
- *    targetHeight    : Calculated height in meters.                   (output)
- */
-
-  double tLon_in;   /* temp longitude                                     */
-  double e2;        /* Intermediate calculations for dp, dl               */
-  double ep2;       /* Intermediate calculations for dp, dl               */
-  double sin_Lat;   /* sin(Latitude_1)                                    */
-  double sin2_Lat;  /* (sin(Latitude_1))^2                                */
-  double sin_Lon;   /* sin(Longitude_1)                                   */
-  double cos_Lat;   /* cos(Latitude_1)                                    */
-  double cos_Lon;   /* cos(Longitude_1)                                   */
-  double w2;        /* Intermediate calculations for dp, dl               */
-  double w;         /* Intermediate calculations for dp, dl               */
-  double w3;        /* Intermediate calculations for dp, dl               */
-  double m;         /* Intermediate calculations for dp, dl               */
-  double n;         /* Intermediate calculations for dp, dl               */
-  double dp;        /* Delta phi                                          */
-  double dp1;       /* Delta phi calculations                             */
-  double dp2;       /* Delta phi calculations                             */
-  double dp3;       /* Delta phi calculations                             */
-  double dl;        /* Delta lambda                                       */
-  double dh;        /* Delta height                                       */
-  double dh1;       /* Delta height calculations                          */
-  double dh2;       /* Delta height calculations                          */
-
-  if (sourceLongitude > PI)
-    tLon_in = sourceLongitude - TWO_PI;
-  else
-    tLon_in = sourceLongitude;
-
-  e2  = 2 * f - f * f;
-  ep2 = e2 / (1 - e2);
-  sin_Lat = sin(sourceLatitude);
-  cos_Lat = cos(sourceLatitude);
-  sin_Lon = sin(tLon_in);
-  cos_Lon = cos(tLon_in);
-  sin2_Lat = sin_Lat * sin_Lat;
-  w2  = 1.0 - e2 * sin2_Lat;
-  w   = sqrt(w2);
-  w3  = w * w2;
-  m   = (a * (1.0 - e2)) / w3;
-  n   = a / w;
-  dp1 = cos_Lat * dz - sin_Lat * cos_Lon * dx - sin_Lat * sin_Lon * dy;
-  dp2 = ((e2 * sin_Lat * cos_Lat) / w) * da;
-  dp3 = sin_Lat * cos_Lat * (2.0 * n + ep2 * m * sin2_Lat) * (1.0 - f) * df;
-  dp  = (dp1 + dp2 + dp3) / (m + sourceHeight);
-  dl  = (-sin_Lon * dx + cos_Lon * dy) / ((n + sourceHeight) * cos_Lat);
-  dh1 = (cos_Lat * cos_Lon * dx) + (cos_Lat * sin_Lon * dy) + (sin_Lat * dz);
-  dh2 = -(w * da) + ((a * (1 - f)) / w) * sin2_Lat * df;
-  dh  = dh1 + dh2;
-
-  double targetLatitude = sourceLatitude + dp;
-  double targetLongitude = sourceLongitude + dl;
-  double targetHeight = sourceHeight + dh;
-  
-  if (targetLongitude > TWO_PI)
-    targetLongitude -= TWO_PI;
-  if (targetLongitude < (- PI))
-    targetLongitude += TWO_PI;
-
-  return new GeodeticCoordinates(
-     CoordinateType::geodetic, targetLongitude, targetLatitude, targetHeight );
-} 
-
-
 /************************************************************************/
 /*                              FUNCTIONS     
  *
@@ -369,52 +282,36 @@ void DatumLibraryImplementation::deleteInstance()
 
 
 DatumLibraryImplementation::DatumLibraryImplementation():
-  _ellipsoidLibraryImplementation( 0 ),
-  datum3ParamCount( 0 ),
-  datum7ParamCount( 0 )
+  datumTable( 0 ),
+  datumTableEpoch( 0 ),
+  _ellipsoidLibraryImplementation( 0 )
 {
+   datumTableReaders[0].store( 0 );
+   datumTableReaders[1].store( 0 );
+
    loadDatums();
 }
 
 
 DatumLibraryImplementation::DatumLibraryImplementation(
-   const DatumLibraryImplementation &dl )
+   const DatumLibraryImplementation &dl ):
+  datumTable( new DatumTable( *dl.currentDatumTable() ) ),
+  datumTableEpoch( 0 )
 {
-  int size = dl.datumList.size();
-  for( int i = 0; i < size; i++ )
-  {
-    switch( dl.datumList[i]->datumType() )
-    {
-       case DatumType::threeParamDatum:
-          datumList.push_back( new ThreeParameterDatum(
-             *( ( ThreeParameterDatum* )( dl.datumList[i] ) ) ) );
-          break;
-       case DatumType::sevenParamDatum:
-          datumList.push_back( new SevenParameterDatum(
-             *( ( SevenParameterDatum* )( dl.datumList[i] ) ) ) );
-          break;
-       case DatumType::wgs84Datum:
-       case DatumType::wgs72Datum:
-          datumList.push_back( new Datum( *( dl.datumList[i] ) ) );
-          break;
-    }
-  }
+  datumTableReaders[0].store( 0 );
+  datumTableReaders[1].store( 0 );
 
   _ellipsoidLibraryImplementation = dl._ellipsoidLibraryImplementation;
-  datum3ParamCount = dl.datum3ParamCount;
-  datum7ParamCount = dl.datum7ParamCount;
 }
 
 
 DatumLibraryImplementation::~DatumLibraryImplementation()
 {
-  std::vector<Datum*>::iterator iter = datumList.begin();
-  while( iter != datumList.end() )
-	{
-		delete( *iter );
-    iter++;
-	}
-  datumList.clear();
+  delete datumTable.load();
+
+  for( size_t i = 0; i < retiredDatumTables.size(); i++ )
+    delete retiredDatumTables[i].table;
+  retiredDatumTables.clear();
 
   _ellipsoidLibraryImplementation = 0;
 }
@@ -426,29 +323,11 @@ DatumLibraryImplementation& DatumLibraryImplementation::operator=(
   if ( &dl == this )
      return *this;
 
-  int size = dl.datumList.size();
-  for( int i = 0; i < size; i++ )
-  {
-     switch( dl.datumList[i]->datumType() )
-     {
-        case DatumType::threeParamDatum:
-           datumList.push_back( new ThreeParameterDatum(
-              *( ( ThreeParameterDatum* )( dl.datumList[i] ) ) ) );
-           break;
-        case DatumType::sevenParamDatum:
-           datumList.push_back( new SevenParameterDatum(
-              *( ( SevenParameterDatum* )( dl.datumList[i] ) ) ) );
-           break;
-        case DatumType::wgs84Datum:
-        case DatumType::wgs72Datum:
-           datumList.push_back( new Datum( *( dl.datumList[i] ) ) );
-           break;
-     }
-  }
+  CCSThreadLock lock(&mutex);
+
+  publishDatumTable( new DatumTable( *dl.currentDatumTable() ) );
 
   _ellipsoidLibraryImplementation = dl._ellipsoidLibraryImplementation;
-  datum3ParamCount = dl.datum3ParamCount;
-  datum7ParamCount = dl.datum7ParamCount;
 
   return *this;
 }
@@ -519,6 +398,9 @@ void DatumLibraryImplementation::define3ParamDatum(
      (eastLongitude >= 0 && eastLongitude < 180))
     throw CoordinateConversionException( ErrorMessages::datumDomain );
 
+  // serialize writers; readers keep using the current table
+  CCSThreadLock lock(&mutex);
+
   // assume the datum code is new
   bool isNewDatumCode = true;
   try
@@ -556,15 +438,22 @@ void DatumLibraryImplementation::define3ParamDatum(
   for( long i = 0; i < code_length; i++ )
     datum_Code[i] = ( char )toupper( datum_Code[i] );
 
-  int numDatums = datumList.size();
-  datumList.push_back( new ThreeParameterDatum(
+  std::unique_ptr< DatumTable > table(
+     new DatumTable( *currentDatumTable() ) );
+
+  int numDatums = table->datumList.size();
+  table->datumList.push_back( DatumPtr( new ThreeParameterDatum(
      numDatums, ( char* )datum_Code, ( char* )ellipsoidCode,
      ( char* )name, DatumType::threeParamDatum, deltaX, deltaY, deltaZ,
      westLongitude, eastLongitude, southLatitude, northLatitude, sigmaX,
-     sigmaY, sigmaZ, true ) );
-  datum3ParamCount++;
+     sigmaY, sigmaZ, true ) ) );
+  table->datum3ParamCount++;
+
+  write3ParamFile( *table );
+
+  table->buildIndex();
 
-  write3ParamFile();
+  publishDatumTable( table.release() );
 } 
 
 
@@ -625,6 +514,9 @@ void DatumLibraryImplementation::define7ParamDatum(
   if ((scale < -0.001) || (scale > 0.001))
     throw CoordinateConversionException( ErrorMessages::scaleFactor );
 
+  // serialize writers; readers keep using the current table
+  CCSThreadLock lock(&mutex);
+
   // assume the datum code is new
   bool isNewDatumCode = true;
   try
@@ -661,17 +553,26 @@ void DatumLibraryImplementation::define7ParamDatum(
   for( i = 0; i < code_length; i++ )
     datum_Code[i] = ( char )toupper( datum_Code[i] );
 
-  datumList.insert( datumList.begin() + MAX_WGS + datum7ParamCount,
-     new SevenParameterDatum( datum7ParamCount, ( char* )datum_Code,
+  std::unique_ptr< DatumTable > table(
+     new DatumTable( *currentDatumTable() ) );
+
+  table->datumList.insert(
+     table->datumList.begin() + MAX_WGS + table->datum7ParamCount,
+     DatumPtr( new SevenParameterDatum( table->datum7ParamCount,
+        ( char* )datum_Code,
         ( char* )ellipsoidCode, ( char* )name, DatumType::sevenParamDatum,
         deltaX, deltaY, deltaZ, 
         westLongitude, eastLongitude, southLatitude, northLatitude,
         rotationX / SECONDS_PER_RADIAN,
         rotationY / SECONDS_PER_RADIAN, rotationZ / SECONDS_PER_RADIAN,
-        scale, true ) );
-  datum7ParamCount++;
+        scale, true ) ) );
+  table->datum7ParamCount++;
+
+  write7ParamFile( *table );
 
-  write7ParamFile();
+  table->buildIndex();
+
+  publishDatumTable( table.release() );
 } 
 
 
@@ -694,17 +595,24 @@ void DatumLibraryImplementation::removeDatum( const char* code )
   long index = 0;
   bool delete_3param_datum = true;
 
+  // serialize writers; readers keep using the current table
+  CCSThreadLock lock(&mutex);
+
   datumIndex( code, &index );
 
+  std::unique_ptr< DatumTable > table(
+     new DatumTable( *currentDatumTable() ) );
+  DatumList& datumList = table->datumList;
+
   if( datumList[index]->datumType() == DatumType::threeParamDatum )
   {
-    if( !( ( ThreeParameterDatum* )datumList[index] )->userDefined() )
+    if( !( ( ThreeParameterDatum* )datumList[index].get() )->userDefined() )
       throw CoordinateConversionException( ErrorMessages::notUserDefined );
   }
   else if( datumList[index]->datumType() == DatumType::sevenParamDatum )
   {
     delete_3param_datum = false;
-    if( !( ( SevenParameterDatum* )datumList[index] )->userDefined() )
+    if( !( ( SevenParameterDatum* )datumList[index].get() )->userDefined() )
       throw CoordinateConversionException( ErrorMessages::notUserDefined );
   }
   else
@@ -714,16 +622,20 @@ void DatumLibraryImplementation::removeDatum( const char* code )
 
   if( !delete_3param_datum )
   {
-    datum7ParamCount--;
+    table->datum7ParamCount--;
 
-    write7ParamFile();
+    write7ParamFile( *table );
   }
   else if( delete_3param_datum )
   {
-    datum3ParamCount--;
+    table->datum3ParamCount--;
 
-    write3ParamFile();
+    write3ParamFile( *table );
   }
+
+  table->buildIndex();
+
+  publishDatumTable( table.release() );
 } 
 
 
@@ -736,6 +648,9 @@ void DatumLibraryImplementation::datumCount( long *count )
  *  count        : number of datums in the datum table     (output)
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   *count = datumList.size();
 } 
 
@@ -751,6 +666,9 @@ void DatumLibraryImplementation::datumIndex( const char *code, long *index )
  *              specified code.
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   char temp_code[DATUM_CODE_LENGTH];
   long length;
   long pos = 0;
@@ -785,17 +703,13 @@ void DatumLibraryImplementation::datumIndex( const char *code, long *index )
         pos += 1;
     }
 
-    int numDatums = datumList.size();
-    /* Search for code */
-    i = 0;
-    while( i < numDatums && strcmp( temp_code, datumList[i]->code() ) )
-    {
-      i++;
-    }
-    if( i == numDatums || strcmp( temp_code, datumList[i]->code() ) )
+    /* Look up code */
+    DatumTable::CodeIndex::const_iterator iter =
+       table->codeIndex.find( temp_code );
+    if( iter == table->codeIndex.end() )
       throw CoordinateConversionException( ErrorMessages::invalidDatumCode );
     else
-      *index = i;
+      *index = iter->second;
   }
 } 
 
@@ -810,6 +724,9 @@ void DatumLibraryImplementation::datumCode( const long index, char *code )
  *  code    : The datum Code of the datum referenced by Index.      (output)
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   if( index < 0 || index >= datumList.size() )
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
   else
@@ -827,6 +744,9 @@ void DatumLibraryImplementation::datumName( const long index, char *name )
  *  name    : The datum Name of the datum referenced by Index.      (output)
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   if( index < 0 || index >= datumList.size() )
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
   else
@@ -846,6 +766,9 @@ void DatumLibraryImplementation::datumEllipsoidCode(
  *               the datum referenced by index.
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   if( index < 0 || index >= datumList.size() )
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
   else
@@ -869,11 +792,14 @@ void DatumLibraryImplementation::datumStandardErrors(
  *    sigma_Z    : Standard error in Z in meters                   (output)
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   if( index < 0 || index >= datumList.size() )
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
   else
   {
-    Datum* datum = datumList[index];
+    Datum* datum = datumList[index].get();
 
     if( datum->datumType() == DatumType::threeParamDatum )
     {
@@ -907,11 +833,14 @@ void DatumLibraryImplementation::datumSevenParameters(
  *    scaleFactor : Scale factor                                   (output)
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   if( index < 0 || index >= datumList.size() )
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
   else
   {
-    Datum* datum = datumList[index];
+    Datum* datum = datumList[index].get();
 
     if( datum->datumType() == DatumType::sevenParamDatum )
     {
@@ -944,11 +873,14 @@ void DatumLibraryImplementation::datumTranslationValues(
  *    deltaZ      : Z translation in meters                        (output)
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   if( index < 0 || index >= datumList.size() )
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
   else
   {
-    Datum* datum = datumList[index];
+    Datum* datum = datumList[index].get();
 
     *deltaX = datum->deltaX();
     *deltaY = datum->deltaY();
@@ -957,14 +889,18 @@ void DatumLibraryImplementation::datumTranslationValues(
 } 
 
 
-Accuracy* DatumLibraryImplementation::datumShiftError(
+void DatumLibraryImplementation::datumShiftError(
    const long      sourceIndex,
    const long      targetIndex, 
    double          longitude,
    double          latitude,
    Accuracy*       sourceAccuracy,
-   Precision::Enum precision )
+   Precision::Enum precision,
+   Accuracy&       targetAccuracy )
 {
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   double sinlat = sin( latitude );
   double coslat = cos( latitude );
   double sinlon = sin( longitude );
@@ -1003,8 +939,8 @@ Accuracy* DatumLibraryImplementation::datumShiftError(
   }
   else
   {
-    Datum* sourceDatum = datumList[sourceIndex];
-    Datum* targetDatum = datumList[targetIndex];
+    Datum* sourceDatum = datumList[sourceIndex].get();
+    Datum* targetDatum = datumList[targetIndex].get();
 
     /* calculate input datum errors */
     switch( sourceDatum->datumType() )
@@ -1187,7 +1123,29 @@ Accuracy* DatumLibraryImplementation::datumShiftError(
         sphericalError90 * sphericalError90 + sePrec * sePrec );
   }
 
-  return new Accuracy( circularError90, linearError90, sphericalError90 );
+  targetAccuracy.set( circularError90, linearError90, sphericalError90 );
+}
+
+
+Accuracy* DatumLibraryImplementation::datumShiftError(
+   const long      sourceIndex,
+   const long      targetIndex, 
+   double          longitude,
+   double          latitude,
+   Accuracy*       sourceAccuracy,
+   Precision::Enum precision )
+{
+/*
+ *  The function datumShiftError returns the accuracy of the shifted
+ *  coordinates in a new object, owned by the caller.
+ */
+
+  Accuracy targetAccuracy;
+
+  datumShiftError( sourceIndex, targetIndex, longitude, latitude,
+     sourceAccuracy, precision, targetAccuracy );
+
+  return new Accuracy( targetAccuracy );
 }
 
 
@@ -1205,13 +1163,16 @@ void DatumLibraryImplementation::datumUserDefined(
  *               or not (0)                                (output)
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   *result = false;
 
   if( index < 0 || index >= datumList.size() )
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
   else
   {
-    Datum* datum = datumList[index];
+    Datum* datum = datumList[index].get();
 
     if( datum->datumType() == DatumType::threeParamDatum )
     {
@@ -1242,6 +1203,9 @@ bool DatumLibraryImplementation::datumUsesEllipsoid( const char *ellipsoidCode )
  *  ellipsoidCode    : The ellipsoid code being searched for.    (input)
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   char temp_code[DATUM_CODE_LENGTH];
   long length;
   long pos = 0;
@@ -1270,15 +1234,11 @@ bool DatumLibraryImplementation::datumUsesEllipsoid( const char *ellipsoidCode )
         pos += 1;
     }
 
-    /* Search for code */
-    i = 0;
-    int numDatums = datumList.size();
-    while( ( i < numDatums ) && ( !ellipsoid_in_use ) )
-    {
-      if( strcmp( temp_code, datumList[i]->ellipsoidCode() ) == 0 )
-        ellipsoid_in_use = true;
-      i++;
-    }
+    /* Look up code */
+    DatumTable::CodeIndex::const_iterator iter =
+       table->ellipsoidUsage.find( temp_code );
+    if( iter != table->ellipsoidUsage.end() && iter->second > 0 )
+      ellipsoid_in_use = true;
   }
 
   return ellipsoid_in_use;
@@ -1304,6 +1264,9 @@ void DatumLibraryImplementation::datumValidRectangle(
  *
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   if( index < 0 && index >= datumList.size() )
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
   else
@@ -1339,6 +1302,9 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricDatumShift(
  *
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   int numDatums = datumList.size();
 
   if( ( sourceIndex < 0 ) || ( sourceIndex >= numDatums ) )
@@ -1367,11 +1333,12 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricDatumShift(
 } 
 
 
-CartesianCoordinates* DatumLibraryImplementation::geocentricShiftFromWGS84(
+void DatumLibraryImplementation::geocentricShiftFromWGS84(
    const double WGS84X,
    const double WGS84Y,
    const double WGS84Z,
-   const long targetIndex )
+   const long targetIndex,
+   CartesianCoordinates& targetCoordinates )
 { 
 /*
  *  The function geocentricShiftFromWGS84 shifts a geocentric coordinate (X, Y, Z in meters) relative
@@ -1387,12 +1354,15 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricShiftFromWGS84(
  *  targetZ       : Z coordinate relative to the destination datum      (output)
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   int numDatums = datumList.size();
 
   if( ( targetIndex < 0 ) || ( targetIndex >= numDatums ) )
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
 
-  Datum* localDatum = datumList[targetIndex];
+  Datum* localDatum = datumList[targetIndex].get();
   switch( localDatum->datumType() )
   {
     case DatumType::wgs72Datum:
@@ -1400,12 +1370,15 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricShiftFromWGS84(
       CartesianCoordinates* wgs72CartesianCoordinates =
          geocentricShiftWGS84ToWGS72( WGS84X, WGS84Y, WGS84Z );
 
-      return wgs72CartesianCoordinates;
+      targetCoordinates = *wgs72CartesianCoordinates;
+      delete wgs72CartesianCoordinates;
+      return;
     }
     case DatumType::wgs84Datum:
     {
-      return new CartesianCoordinates(
+      targetCoordinates = CartesianCoordinates(
          CoordinateType::geocentric, WGS84X, WGS84Y, WGS84Z );
+      return;
     }
     case DatumType::sevenParamDatum:
     {
@@ -1421,7 +1394,8 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricShiftFromWGS84(
       double targetZ = WGS84Z - sevenParameterDatum->deltaZ() - sevenParameterDatum->rotationY() * WGS84X
                  + sevenParameterDatum->rotationX() * WGS84Y - sevenParameterDatum->scaleFactor() * WGS84Z;
 
-      return new CartesianCoordinates( CoordinateType::geocentric, targetX, targetY, targetZ );
+      targetCoordinates = CartesianCoordinates( CoordinateType::geocentric, targetX, targetY, targetZ );
+      return;
     }
     case DatumType::threeParamDatum:
     {
@@ -1431,7 +1405,8 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricShiftFromWGS84(
       double targetY = WGS84Y - threeParameterDatum->deltaY();
       double targetZ = WGS84Z - threeParameterDatum->deltaZ();
 
-      return new CartesianCoordinates( CoordinateType::geocentric, targetX, targetY, targetZ );
+      targetCoordinates = CartesianCoordinates( CoordinateType::geocentric, targetX, targetY, targetZ );
+      return;
     }
     default:
       throw CoordinateConversionException( ErrorMessages::datumType );
@@ -1439,11 +1414,12 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricShiftFromWGS84(
 } 
 
 
-CartesianCoordinates* DatumLibraryImplementation::geocentricShiftToWGS84(
+void DatumLibraryImplementation::geocentricShiftToWGS84(
    const long sourceIndex,
    const double sourceX,
    const double sourceY,
-   const double sourceZ )
+   const double sourceZ,
+   CartesianCoordinates& wgs84Coordinates )
 { 
 /*
  *  The function geocentricShiftToWGS84 shifts a geocentric coordinate (X, Y, Z in meters) relative
@@ -1459,12 +1435,15 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricShiftToWGS84(
  *  WGS84Z      : Z coordinate relative to WGS84                (output)
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   int numDatums = datumList.size();
 
   if( ( sourceIndex < 0 ) || (sourceIndex > numDatums ) )
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
 
-  Datum* localDatum = datumList[sourceIndex];
+  Datum* localDatum = datumList[sourceIndex].get();
   switch( localDatum->datumType() )
   {
     case DatumType::wgs72Datum:
@@ -1472,11 +1451,14 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricShiftToWGS84(
       CartesianCoordinates* wgs84CartesianCoordinates = 
          geocentricShiftWGS72ToWGS84( sourceX, sourceY, sourceZ );
 
-      return wgs84CartesianCoordinates;
+      wgs84Coordinates = *wgs84CartesianCoordinates;
+      delete wgs84CartesianCoordinates;
+      return;
     }
     case DatumType::wgs84Datum:
     {
-      return new CartesianCoordinates( CoordinateType::geocentric, sourceX, sourceY, sourceZ );
+      wgs84Coordinates = CartesianCoordinates( CoordinateType::geocentric, sourceX, sourceY, sourceZ );
+      return;
     }
     case DatumType::sevenParamDatum:
     {
@@ -1491,7 +1473,8 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricShiftToWGS84(
       double wgs84Z = sourceZ + sevenParameterDatum->deltaZ() + sevenParameterDatum->rotationY() * sourceX
                  - sevenParameterDatum->rotationX() * sourceY + sevenParameterDatum->scaleFactor() * sourceZ;
 
-      return new CartesianCoordinates( CoordinateType::geocentric, wgs84X, wgs84Y, wgs84Z );
+      wgs84Coordinates = CartesianCoordinates( CoordinateType::geocentric, wgs84X, wgs84Y, wgs84Z );
+      return;
     }
     case DatumType::threeParamDatum:
     {
@@ -1501,7 +1484,8 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricShiftToWGS84(
       double wgs84Y = sourceY + threeParameterDatum->deltaY();
       double wgs84Z = sourceZ + threeParameterDatum->deltaZ();
 
-      return new CartesianCoordinates( CoordinateType::geocentric, wgs84X, wgs84Y, wgs84Z );
+      wgs84Coordinates = CartesianCoordinates( CoordinateType::geocentric, wgs84X, wgs84Y, wgs84Z );
+      return;
     }
     default:
       throw CoordinateConversionException( ErrorMessages::datumType );
@@ -1509,6 +1493,44 @@ CartesianCoordinates* DatumLibraryImplementation::geocentricShiftToWGS84(
 } 
 
 
+CartesianCoordinates* DatumLibraryImplementation::geocentricShiftFromWGS84(
+   const double WGS84X,
+   const double WGS84Y,
+   const double WGS84Z,
+   const long targetIndex )
+{ 
+/*
+ *  The function geocentricShiftFromWGS84 returns the shifted geocentric
+ *  coordinates in a new object, owned by the caller.
+ */
+
+  CartesianCoordinates targetCoordinates( CoordinateType::geocentric );
+
+  geocentricShiftFromWGS84( WGS84X, WGS84Y, WGS84Z, targetIndex, targetCoordinates );
+
+  return new CartesianCoordinates( targetCoordinates );
+}
+
+
+CartesianCoordinates* DatumLibraryImplementation::geocentricShiftToWGS84(
+   const long sourceIndex,
+   const double sourceX,
+   const double sourceY,
+   const double sourceZ )
+{ 
+/*
+ *  The function geocentricShiftToWGS84 returns the shifted geocentric
+ *  coordinates in a new object, owned by the caller.
+ */
+
+  CartesianCoordinates wgs84Coordinates( CoordinateType::geocentric );
+
+  geocentricShiftToWGS84( sourceIndex, sourceX, sourceY, sourceZ, wgs84Coordinates );
+
+  return new CartesianCoordinates( wgs84Coordinates );
+}
+
+
 GeodeticCoordinates* DatumLibraryImplementation::geodeticDatumShift(
    const long sourceIndex,
    const GeodeticCoordinates* sourceCoordinates,
@@ -1530,6 +1552,9 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticDatumShift(
  *  targetHeight    : Height in meters relative to destination datum    (output)
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   long E_Index;
   double a;
   double f;
@@ -1551,8 +1576,8 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticDatumShift(
   if( ( sourceLongitude < ( -PI )) || ( sourceLongitude > TWO_PI ) )
     throw CoordinateConversionException( ErrorMessages::longitude );
 
-  Datum* sourceDatum = datumList[sourceIndex];
-  Datum* targetDatum = datumList[targetIndex];
+  Datum* sourceDatum = datumList[sourceIndex].get();
+  Datum* targetDatum = datumList[targetIndex].get();
 
   if ( sourceIndex == targetIndex )
   { /* Just copy */
@@ -1672,8 +1697,9 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticDatumShift(
 } 
 
 
-GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftFromWGS84(
-   const GeodeticCoordinates* sourceCoordinates, const long targetIndex )
+void DatumLibraryImplementation::geodeticShiftFromWGS84(
+   const GeodeticCoordinates* sourceCoordinates, const long targetIndex,
+   GeodeticCoordinates& targetCoordinates )
 { 
 /*
  *  The function geodeticShiftFromWGS84 shifts geodetic coordinates relative to WGS84
@@ -1689,6 +1715,9 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftFromWGS84(
  *
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   double WGS84_a;   /* Semi-major axis of WGS84 ellipsoid in meters */
   double WGS84_f;   /* Flattening of WGS84 ellisoid                 */
   double a;         /* Semi-major axis of ellipsoid in meters       */
@@ -1712,17 +1741,20 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftFromWGS84(
   if( ( WGS84Longitude < ( -PI ) ) || ( WGS84Longitude > TWO_PI ) )
     throw CoordinateConversionException( ErrorMessages::longitude );
 
-  Datum* localDatum = datumList[targetIndex];
+  Datum* localDatum = datumList[targetIndex].get();
   switch( localDatum->datumType() )
   {
     case DatumType::wgs72Datum:
     {
       GeodeticCoordinates* targetGeodeticCoordinates = geodeticShiftWGS84ToWGS72( WGS84Longitude, WGS84Latitude, WGS84Height );
-      return targetGeodeticCoordinates;
+      targetCoordinates = *targetGeodeticCoordinates;
+      delete targetGeodeticCoordinates;
+      return;
     }
     case DatumType::wgs84Datum:
     {
-      return new GeodeticCoordinates( CoordinateType::geodetic, WGS84Longitude, WGS84Latitude, WGS84Height );
+      targetCoordinates = GeodeticCoordinates( CoordinateType::geodetic, WGS84Longitude, WGS84Latitude, WGS84Height );
+      return;
     }
     case DatumType::sevenParamDatum:
     case DatumType::threeParamDatum:
@@ -1741,18 +1773,17 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftFromWGS84(
             ( WGS84Latitude > MOLODENSKY_MAX ) )
         { /* Use 3-step method */
           Geocentric geocentricFromGeodetic( WGS84_a, WGS84_f );
-          CartesianCoordinates* wgs84CartesianCoordinates = geocentricFromGeodetic.convertFromGeodetic( sourceCoordinates );
+          CartesianCoordinates wgs84CartesianCoordinates( CoordinateType::geocentric );
+          geocentricFromGeodetic.convertFromGeodetic( sourceCoordinates, wgs84CartesianCoordinates );
 
-          CartesianCoordinates* localCartesianCoordinates = geocentricShiftFromWGS84( wgs84CartesianCoordinates->x(), wgs84CartesianCoordinates->y(), 
-                wgs84CartesianCoordinates->z(), targetIndex );
+          CartesianCoordinates localCartesianCoordinates( CoordinateType::geocentric );
+          geocentricShiftFromWGS84( wgs84CartesianCoordinates.x(), wgs84CartesianCoordinates.y(), 
+                wgs84CartesianCoordinates.z(), targetIndex, localCartesianCoordinates );
 
           Geocentric geocentricToGeodetic( a, f );
-          GeodeticCoordinates* targetGeodeticCoordinates = geocentricToGeodetic.convertToGeodetic( localCartesianCoordinates );
-
-          delete localCartesianCoordinates;
-          delete wgs84CartesianCoordinates;
+          geocentricToGeodetic.convertToGeodetic( &localCartesianCoordinates, targetCoordinates );
 
-          return targetGeodeticCoordinates;
+          return;
         }
         else
         { /* Use Molodensky's method */
@@ -1762,10 +1793,10 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftFromWGS84(
           dy = -( localDatum->deltaY() );
           dz = -( localDatum->deltaZ() );
 
-          GeodeticCoordinates* targetGeodeticCoordinates = molodenskyShift( WGS84_a, da, WGS84_f, df, dx, dy, dz,
-                           WGS84Longitude, WGS84Latitude, WGS84Height );
+          DatumTransformPlan::molodenskyShift( WGS84_a, da, WGS84_f, df, dx, dy, dz,
+                           WGS84Longitude, WGS84Latitude, WGS84Height, targetCoordinates );
 
-          return targetGeodeticCoordinates;
+          return;
         }
       }
     }
@@ -1775,7 +1806,8 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftFromWGS84(
 } 
 
 
-GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftToWGS84( const long sourceIndex,  const GeodeticCoordinates* sourceCoordinates )
+void DatumLibraryImplementation::geodeticShiftToWGS84( const long sourceIndex,  const GeodeticCoordinates* sourceCoordinates,
+   GeodeticCoordinates& wgs84Coordinates )
 { 
 /*
  *  The function geodeticShiftToWGS84 shifts geodetic coordinates relative to a given source datum
@@ -1791,6 +1823,9 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftToWGS84( const lon
  *
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   double WGS84_a;   /* Semi-major axis of WGS84 ellipsoid in meters */
   double WGS84_f;   /* Flattening of WGS84 ellisoid                 */
   double a;         /* Semi-major axis of ellipsoid in meters       */
@@ -1814,16 +1849,20 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftToWGS84( const lon
   if( ( sourceLongitude < ( -PI ) ) || ( sourceLongitude > TWO_PI ) )
     throw CoordinateConversionException( ErrorMessages::longitude );
 
-  Datum* localDatum = datumList[sourceIndex];
+  Datum* localDatum = datumList[sourceIndex].get();
   switch( localDatum->datumType() )
   {
     case DatumType::wgs72Datum:
     { /* Special case for WGS72 */
-      return geodeticShiftWGS72ToWGS84( sourceLongitude, sourceLatitude, sourceHeight );
+      GeodeticCoordinates* wgs84GeodeticCoordinates = geodeticShiftWGS72ToWGS84( sourceLongitude, sourceLatitude, sourceHeight );
+      wgs84Coordinates = *wgs84GeodeticCoordinates;
+      delete wgs84GeodeticCoordinates;
+      return;
     }
     case DatumType::wgs84Datum:
     {        /* Just  copy */
-      return new GeodeticCoordinates(CoordinateType::geodetic, sourceLongitude, sourceLatitude, sourceHeight);
+      wgs84Coordinates = GeodeticCoordinates(CoordinateType::geodetic, sourceLongitude, sourceLatitude, sourceHeight);
+      return;
     }
     case DatumType::sevenParamDatum:
     case DatumType::threeParamDatum:
@@ -1838,22 +1877,20 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftToWGS84( const lon
            ( sourceLatitude > MOLODENSKY_MAX ) )
         { /* Use 3-step method */
             Geocentric geocentricFromGeodetic( a, f );
-            CartesianCoordinates* localCartesianCoordinates =
-               geocentricFromGeodetic.convertFromGeodetic( sourceCoordinates );
+            CartesianCoordinates localCartesianCoordinates( CoordinateType::geocentric );
+            geocentricFromGeodetic.convertFromGeodetic( sourceCoordinates, localCartesianCoordinates );
 
-            CartesianCoordinates* wgs84CartesianCoordinates = geocentricShiftToWGS84( sourceIndex, localCartesianCoordinates->x(), localCartesianCoordinates->y(), localCartesianCoordinates->z() );
+            CartesianCoordinates wgs84CartesianCoordinates( CoordinateType::geocentric );
+            geocentricShiftToWGS84( sourceIndex, localCartesianCoordinates.x(), localCartesianCoordinates.y(), localCartesianCoordinates.z(), wgs84CartesianCoordinates );
 
             long wgs84EllipsoidIndex;
             _ellipsoidLibraryImplementation->ellipsoidIndex( "WE", &wgs84EllipsoidIndex );
             _ellipsoidLibraryImplementation->ellipsoidParameters( wgs84EllipsoidIndex, &WGS84_a, &WGS84_f );
 
             Geocentric geocentricToGeodetic( WGS84_a, WGS84_f );
-            GeodeticCoordinates* wgs84GeodeticCoordinates = geocentricToGeodetic.convertToGeodetic( wgs84CartesianCoordinates );
+            geocentricToGeodetic.convertToGeodetic( &wgs84CartesianCoordinates, wgs84Coordinates );
 
-            delete wgs84CartesianCoordinates;
-            delete localCartesianCoordinates;
-
-            return wgs84GeodeticCoordinates;
+            return;
           }
           else
           { /* Use Molodensky's method */
@@ -1867,9 +1904,9 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftToWGS84( const lon
             dy = localDatum->deltaY();
             dz = localDatum->deltaZ();
 
-            GeodeticCoordinates* wgs84GeodeticCoordinates = molodenskyShift( a, da, f, df, dx, dy, dz, sourceLongitude, sourceLatitude, sourceHeight );
+            DatumTransformPlan::molodenskyShift( a, da, f, df, dx, dy, dz, sourceLongitude, sourceLatitude, sourceHeight, wgs84Coordinates );
 
-            return wgs84GeodeticCoordinates;
+            return;
           }
         }
     }
@@ -1879,6 +1916,121 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftToWGS84( const lon
 } 
 
 
+GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftFromWGS84(
+   const GeodeticCoordinates* sourceCoordinates, const long targetIndex )
+{ 
+/*
+ *  The function geodeticShiftFromWGS84 returns the shifted geodetic
+ *  coordinates in a new object, owned by the caller.
+ */
+
+  GeodeticCoordinates targetCoordinates( CoordinateType::geodetic );
+
+  geodeticShiftFromWGS84( sourceCoordinates, targetIndex, targetCoordinates );
+
+  return new GeodeticCoordinates( targetCoordinates );
+}
+
+
+GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftToWGS84( const long sourceIndex,  const GeodeticCoordinates* sourceCoordinates )
+{ 
+/*
+ *  The function geodeticShiftToWGS84 returns the shifted geodetic
+ *  coordinates in a new object, owned by the caller.
+ */
+
+  GeodeticCoordinates wgs84Coordinates( CoordinateType::geodetic );
+
+  geodeticShiftToWGS84( sourceIndex, sourceCoordinates, wgs84Coordinates );
+
+  return new GeodeticCoordinates( wgs84Coordinates );
+}
+
+
+DatumTransformPlan* DatumLibraryImplementation::createDatumTransformPlan(
+   const long sourceIndex,
+   const long targetIndex )
+{
+/*
+ *  The function createDatumTransformPlan returns a plan, owned by the
+ *  caller, that shifts coordinates from the source datum to the target
+ *  datum using the parameters of the datums and ellipsoids found here.
+ *
+ *    sourceIndex : Index of source datum                        (input)
+ *    targetIndex : Index of target datum                        (input)
+ */
+
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
+  if( ( sourceIndex < 0 ) || ( sourceIndex >= datumList.size() ) )
+    throw CoordinateConversionException( ErrorMessages::invalidIndex );
+  if( ( targetIndex < 0 ) || ( targetIndex >= datumList.size() ) )
+    throw CoordinateConversionException( ErrorMessages::invalidIndex );
+
+  if( !_ellipsoidLibraryImplementation )
+    throw CoordinateConversionException( ErrorMessages::ellipse );
+
+  DatumTransformPlan::DatumParameters parameters[2];
+  long indexes[2] = { sourceIndex, targetIndex };
+
+  for( int i = 0; i < 2; i++ )
+  {
+    Datum* datum = datumList[indexes[i]].get();
+    DatumTransformPlan::DatumParameters& datumParameters = parameters[i];
+    long E_Index;
+
+    _ellipsoidLibraryImplementation->ellipsoidIndex( datum->ellipsoidCode(), &E_Index );
+    _ellipsoidLibraryImplementation->ellipsoidParameters(
+       E_Index, &datumParameters.a, &datumParameters.f );
+
+    datumParameters.index       = indexes[i];
+    datumParameters.datumType   = datum->datumType();
+    datumParameters.deltaX      = datum->deltaX();
+    datumParameters.deltaY      = datum->deltaY();
+    datumParameters.deltaZ      = datum->deltaZ();
+    datumParameters.rotationX   = 0.0;
+    datumParameters.rotationY   = 0.0;
+    datumParameters.rotationZ   = 0.0;
+    datumParameters.scaleFactor = 0.0;
+    datumParameters.geocentric  = 0;
+
+    if( datum->datumType() == DatumType::sevenParamDatum )
+    {
+      SevenParameterDatum* sevenParameterDatum = ( SevenParameterDatum* )datum;
+
+      datumParameters.rotationX   = sevenParameterDatum->rotationX();
+      datumParameters.rotationY   = sevenParameterDatum->rotationY();
+      datumParameters.rotationZ   = sevenParameterDatum->rotationZ();
+      datumParameters.scaleFactor = sevenParameterDatum->scaleFactor();
+    }
+    else if( ( datum->datumType() == DatumType::wgs84Datum ) ||
+             ( datum->datumType() == DatumType::wgs72Datum ) )
+    {
+      datumParameters.deltaX = 0.0;
+      datumParameters.deltaY = 0.0;
+      datumParameters.deltaZ = 0.0;
+    }
+  }
+
+  double WGS84_a;
+  double WGS84_f;
+  double WGS72_a;
+  double WGS72_f;
+
+  long wgs84EllipsoidIndex;
+  _ellipsoidLibraryImplementation->ellipsoidIndex( "WE", &wgs84EllipsoidIndex );
+  _ellipsoidLibraryImplementation->ellipsoidParameters( wgs84EllipsoidIndex, &WGS84_a, &WGS84_f );
+
+  long wgs72EllipsoidIndex;
+  _ellipsoidLibraryImplementation->ellipsoidIndex( "WD", &wgs72EllipsoidIndex );
+  _ellipsoidLibraryImplementation->ellipsoidParameters( wgs72EllipsoidIndex, &WGS72_a, &WGS72_f );
+
+  return new DatumTransformPlan( parameters[0], parameters[1],
+     WGS84_a, WGS84_f, WGS72_a, WGS72_f );
+}
+
+
 void DatumLibraryImplementation::retrieveDatumType(
    const long index,
    DatumType::Enum *datumType )
@@ -1892,6 +2044,9 @@ void DatumLibraryImplementation::retrieveDatumType(
  *
  */
 
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
+
   if( index < 0 || index >= datumList.size() )
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
   else
@@ -1916,6 +2071,9 @@ void DatumLibraryImplementation::validDatum(
  *   result    : Indicates whether location is inside (1) or outside (0)
  *               of the validity rectangle of the specified datum   (output)
  */
+
+  DatumTablePtr table = currentDatumTable();
+  const DatumList& datumList = table->datumList;
   *result = 0;
 
   if( ( index < 0 ) || ( index >= datumList.size() ) )
@@ -1925,7 +2083,7 @@ void DatumLibraryImplementation::validDatum(
   if( ( longitude < MIN_LON ) || ( longitude > MAX_LON ) )
     throw CoordinateConversionException( ErrorMessages::longitude );
   
-  Datum* datum = datumList[index];
+  Datum* datum = datumList[index].get();
 
   double west_longitude = datum->westLongitude();
   double east_longitude = datum->eastLongitude();
@@ -2000,6 +2158,136 @@ void DatumLibraryImplementation::setEllipsoidLibraryImplementation(
  *
  */
 
+void DatumLibraryImplementation::DatumTable::buildIndex()
+{
+/*
+ * The function buildIndex rebuilds the datum code and ellipsoid usage
+ * indexes from datumList.  If a code appears more than once the first
+ * entry wins, matching the order of a table scan.
+ */
+
+  codeIndex.clear();
+  ellipsoidUsage.clear();
+  codeIndex.reserve( datumList.size() );
+
+  long numDatums = datumList.size();
+  for( long i = 0; i < numDatums; i++ )
+  {
+    codeIndex.insert( CodeIndex::value_type( datumList[i]->code(), i ) );
+    ellipsoidUsage[datumList[i]->ellipsoidCode()]++;
+  }
+}
+
+
+DatumLibraryImplementation::DatumTablePtr::DatumTablePtr(
+   const DatumLibraryImplementation* library )
+{
+/*
+ * Starts a read section: counts it in the reader count of the current
+ * epoch, then loads the current table.  If the epoch changes before the
+ * section is counted, reclaimDatumTables may already have checked that
+ * count, so the section is counted again in the new epoch.
+ */
+
+  for( ;; )
+  {
+    unsigned long epoch = library->datumTableEpoch.load();
+    readerCount = &library->datumTableReaders[epoch & 1];
+    readerCount->fetch_add( 1 );
+    if( library->datumTableEpoch.load() == epoch )
+      break;
+    readerCount->fetch_sub( 1 );
+  }
+
+  table = library->datumTable.load();
+}
+
+
+DatumLibraryImplementation::DatumTablePtr::DatumTablePtr(
+   DatumTablePtr&& ptr ):
+  readerCount( ptr.readerCount ),
+  table( ptr.table )
+{
+  ptr.readerCount = 0;
+  ptr.table = 0;
+}
+
+
+DatumLibraryImplementation::DatumTablePtr::~DatumTablePtr()
+{
+  if( readerCount )
+    readerCount->fetch_sub( 1, std::memory_order_release );
+}
+
+
+DatumLibraryImplementation::DatumTablePtr
+DatumLibraryImplementation::currentDatumTable() const
+{
+/*
+ * The function currentDatumTable starts a read section on the current
+ * datum table snapshot.  Concurrent readers share no lock.
+ */
+
+  return DatumTablePtr( this );
+}
+
+
+void DatumLibraryImplementation::publishDatumTable(
+   const DatumTable* table )
+{
+/*
+ * The function publishDatumTable atomically replaces the current datum
+ * table.  Readers holding the previous table are not affected; it is
+ * retired, tagged with the current epoch, and deleted by
+ * reclaimDatumTables once no read section can hold it.
+ *
+ *   table  : New datum table                                      (input)
+ */
+
+  RetiredDatumTable retired = { 0, datumTableEpoch.load() };
+  retiredDatumTables.reserve( retiredDatumTables.size() + 1 );
+
+  retired.table = datumTable.exchange( table );
+  if( retired.table )
+    retiredDatumTables.push_back( retired );
+
+  reclaimDatumTables();
+}
+
+
+void DatumLibraryImplementation::reclaimDatumTables()
+{
+/*
+ * The function reclaimDatumTables deletes retired tables and advances the
+ * epoch while the read sections of the previous epoch have all ended.
+ * When the epoch is E, sections started before E - 1 ended before the
+ * epoch became E, so once the count of epoch E - 1 is zero no section
+ * started before E remains.  A table retired before E was replaced before
+ * any later section started, and can then be deleted.  It never waits for
+ * readers: tables still possibly in use are left for the next call.
+ */
+
+  while( !retiredDatumTables.empty() )
+  {
+    unsigned long epoch = datumTableEpoch.load();
+    if( datumTableReaders[( epoch + 1 ) & 1].load() != 0 )
+      break;
+
+    size_t kept = 0;
+    for( size_t i = 0; i < retiredDatumTables.size(); i++ )
+    {
+      if( retiredDatumTables[i].epoch < epoch )
+        delete retiredDatumTables[i].table;
+      else
+        retiredDatumTables[kept++] = retiredDatumTables[i];
+    }
+    retiredDatumTables.resize( kept );
+
+    datumTableEpoch.store( epoch + 1 );
+  }
+}
+
+
 void DatumLibraryImplementation::loadDatums()
 { 
 /*
@@ -2019,6 +2307,11 @@ void DatumLibraryImplementation::loadDatums()
 
   CCSThreadLock lock(&mutex);
 
+  std::unique_ptr< DatumTable > table( new DatumTable );
+  DatumList& datumList = table->datumList;
+  long& datum3ParamCount = table->datum3ParamCount;
+  long& datum7ParamCount = table->datum7ParamCount;
+
   /*  Check the environment for a user provided path, else current directory; */
   /*  Build a File Name, including specified or default path:                */
 
@@ -2066,16 +2359,16 @@ void DatumLibraryImplementation::loadDatums()
   /*  Open the File READONLY, or Return Error Condition:                    */
 
     /* WGS84 datum entry */
-  datumList.push_back( new Datum(
+  datumList.push_back( DatumPtr( new Datum(
      index, "WGE", "WE", "World Geodetic System 1984", DatumType::wgs84Datum,
-     0.0, 0.0, 0.0, -PI, +PI, -PI / 2.0, +PI / 2.0, false ) );
+     0.0, 0.0, 0.0, -PI, +PI, -PI / 2.0, +PI / 2.0, false ) ) );
   index ++;
 
 
     /* WGS72 datum entry */
-  datumList.push_back( new Datum(
+  datumList.push_back( DatumPtr( new Datum(
      index, "WGC", "WD", "World Geodetic System 1972", DatumType::wgs72Datum,
-     0.0, 0.0, 0.0, -PI, +PI, -PI / 2.0, +PI / 2.0, false ) );
+     0.0, 0.0, 0.0, -PI, +PI, -PI / 2.0, +PI / 2.0, false ) ) );
 
   index ++;
 
@@ -2131,10 +2424,10 @@ void DatumLibraryImplementation::loadDatums()
           rotationY /= SECONDS_PER_RADIAN;
           rotationZ /= SECONDS_PER_RADIAN;
           
-          datumList.push_back( new SevenParameterDatum(
+          datumList.push_back( DatumPtr( new SevenParameterDatum(
              index, code, ellipsoidCode, name, DatumType::sevenParamDatum,
              deltaX, deltaY, deltaZ, -PI, +PI, -PI / 2.0, +PI / 2.0,
-             rotationX, rotationY, rotationZ, scaleFactor, userDefined ) );
+             rotationX, rotationY, rotationZ, scaleFactor, userDefined ) ) );
         }
         index++;
         datum7ParamCount++;
@@ -2230,11 +2523,11 @@ void DatumLibraryImplementation::loadDatums()
           westLongitude *= PI_OVER_180;
           eastLongitude *= PI_OVER_180;
 
-          datumList.push_back( new ThreeParameterDatum(
+          datumList.push_back( DatumPtr( new ThreeParameterDatum(
              index, code, ellipsoidCode, name, DatumType::threeParamDatum,
              deltaX, deltaY, deltaZ, westLongitude, eastLongitude,
              southLatitude, northLatitude, sigmaX, sigmaY, sigmaZ,
-             userDefined ) );
+             userDefined ) ) );
         }
 
         index++;
@@ -2246,16 +2539,24 @@ void DatumLibraryImplementation::loadDatums()
   FileName7 = 0;
   delete [] FileName3;
   FileName3 = 0;
+
+  table->buildIndex();
+
+  publishDatumTable( table.release() );
 }
 
 
-void DatumLibraryImplementation::write3ParamFile()
+void DatumLibraryImplementation::write3ParamFile( const DatumTable& table )
 {
 /*
  *  The function write3ParamFile writes the 3 parameter datums in the datum list
  *  to the 3_param.dat file.
+ *
+ *  table  : Datum table to be written                              (input)
  */
 
+  const DatumList& datumList = table.datumList;
+
   char datum_name[DATUM_NAME_LENGTH+2];
   char *PathName = NULL;
   char FileName[FILENAME_LENGTH];
@@ -2292,11 +2593,11 @@ void DatumLibraryImplementation::write3ParamFile()
   }
 
   /* write file */
-  long index = MAX_WGS + datum7ParamCount;
+  long index = MAX_WGS + table.datum7ParamCount;
   int size = datumList.size();
   while( index < size )
   {
-    ThreeParameterDatum* _3parameterDatum = ( ThreeParameterDatum* )datumList[index];
+    ThreeParameterDatum* _3parameterDatum = ( ThreeParameterDatum* )datumList[index].get();
     if( _3parameterDatum )
     {
       strcpy( datum_name, "\"" );
@@ -2329,13 +2630,17 @@ void DatumLibraryImplementation::write3ParamFile()
 }
 
 
-void DatumLibraryImplementation::write7ParamFile()
+void DatumLibraryImplementation::write7ParamFile( const DatumTable& table )
 {
 /*
  *  The function write3ParamFile writes the 7 parameter datums in the datum list
  *  to the 7_param.dat file.
+ *
+ *  table  : Datum table to be written                              (input)
  */
 
+  const DatumList& datumList = table.datumList;
+
   char datum_name[DATUM_NAME_LENGTH+2];
   char *PathName = NULL;
   char FileName[FILENAME_LENGTH];
@@ -2373,10 +2678,10 @@ void DatumLibraryImplementation::write7ParamFile()
 
   /* write file */
   long index = MAX_WGS;
-  int endIndex = datum7ParamCount + MAX_WGS;
+  int endIndex = table.datum7ParamCount + MAX_WGS;
   while( index < endIndex )
   {
-    SevenParameterDatum* _7parameterDatum = ( SevenParameterDatum* )datumList[index];
+    SevenParameterDatum* _7parameterDatum = ( SevenParameterDatum* )datumList[index].get();
     if( _7parameterDatum )
     {
       strcpy( datum_name, "\"" );
@@ -2420,18 +2725,10 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftWGS84ToWGS72( cons
  *  WGS72Height    : Height in meters relative to WGS72        (output)
  */
 
-  double Delta_Lat;
-  double Delta_Lon;
-  double Delta_Hgt;
   double WGS84_a;       /* Semi-major axis of WGS84 ellipsoid               */
   double WGS84_f;       /* Flattening of WGS84 ellipsoid                    */
   double WGS72_a;       /* Semi-major axis of WGS72 ellipsoid               */
   double WGS72_f;       /* Flattening of WGS72 ellipsoid                    */
-  double da;            /* WGS72_a - WGS84_a                                */
-  double df;            /* WGS72_f - WGS84_f                                */
-  double Q;
-  double sin_Lat;
-  double sin2_Lat;
 
   long wgs84EllipsoidIndex;
   _ellipsoidLibraryImplementation->ellipsoidIndex( "WE", &wgs84EllipsoidIndex );
@@ -2441,33 +2738,11 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftWGS84ToWGS72( cons
   _ellipsoidLibraryImplementation->ellipsoidIndex( "WD", &wgs72EllipsoidIndex );
   _ellipsoidLibraryImplementation->ellipsoidParameters( wgs72EllipsoidIndex, &WGS72_a, &WGS72_f );
 
-  da = WGS72_a - WGS84_a;
-  df = WGS72_f - WGS84_f;
-  Q = PI / 648000;
-  sin_Lat = sin(WGS84Latitude);
-  sin2_Lat = sin_Lat * sin_Lat;
-
-  Delta_Lat = (-4.5 * cos(WGS84Latitude)) / (WGS84_a*Q)
-              + (df * sin(2*WGS84Latitude)) / Q;
-  Delta_Lat /= SECONDS_PER_RADIAN;
-  Delta_Lon = -0.554 / SECONDS_PER_RADIAN;
-  Delta_Hgt = -4.5 * sin_Lat + WGS84_a * df * sin2_Lat - da - 1.4;
-
-  double wgs72Latitude = WGS84Latitude + Delta_Lat;
-  double wgs72Longitude = WGS84Longitude + Delta_Lon;
-  double wgs72Height = WGS84Height + Delta_Hgt;
-
-  if (wgs72Latitude > PI_OVER_2)
-    wgs72Latitude = PI_OVER_2 - (wgs72Latitude - PI_OVER_2);
-  else if (wgs72Latitude < -PI_OVER_2)
-    wgs72Latitude = -PI_OVER_2  - (wgs72Latitude + PI_OVER_2);
-
-  if (wgs72Longitude > PI)
-    wgs72Longitude -= TWO_PI;
-  if (wgs72Longitude < -PI)
-    wgs72Longitude += TWO_PI;
-
-  return new GeodeticCoordinates(CoordinateType::geodetic, wgs72Longitude, wgs72Latitude, wgs72Height);
+  GeodeticCoordinates wgs72Coordinates( CoordinateType::geodetic );
+  DatumTransformPlan::geodeticShiftWGS84ToWGS72( WGS84_a, WGS84_f, WGS72_a, WGS72_f,
+     WGS84Longitude, WGS84Latitude, WGS84Height, wgs72Coordinates );
+
+  return new GeodeticCoordinates( wgs72Coordinates );
 } 
 
 
@@ -2486,18 +2761,10 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftWGS72ToWGS84( cons
  *  WGS84Height    : Height in meters  relative to WGS84       (output)
  */
 
-  double Delta_Lat;
-  double Delta_Lon;
-  double Delta_Hgt;
   double WGS84_a;       /* Semi-major axis of WGS84 ellipsoid               */
   double WGS84_f;       /* Flattening of WGS84 ellipsoid                    */
   double WGS72_a;       /* Semi-major axis of WGS72 ellipsoid               */
   double WGS72_f;       /* Flattening of WGS72 ellipsoid                    */
-  double da;            /* WGS84_a - WGS72_a                                */
-  double df;            /* WGS84_f - WGS72_f                                */
-  double Q;
-  double sin_Lat;
-  double sin2_Lat;
 
   long wgs84EllipsoidIndex;
   _ellipsoidLibraryImplementation->ellipsoidIndex( "WE", &wgs84EllipsoidIndex );
@@ -2507,32 +2774,11 @@ GeodeticCoordinates* DatumLibraryImplementation::geodeticShiftWGS72ToWGS84( cons
   _ellipsoidLibraryImplementation->ellipsoidIndex( "WD", &wgs72EllipsoidIndex );
   _ellipsoidLibraryImplementation->ellipsoidParameters( wgs72EllipsoidIndex, &WGS72_a, &WGS72_f );
 
-  da = WGS84_a - WGS72_a;
-  df = WGS84_f - WGS72_f;
-  Q = PI /  648000;
-  sin_Lat = sin(WGS72Latitude);
-  sin2_Lat = sin_Lat * sin_Lat;
-
-  Delta_Lat = (4.5 * cos(WGS72Latitude)) / (WGS72_a*Q) + (df * sin(2*WGS72Latitude)) / Q;
-  Delta_Lat /= SECONDS_PER_RADIAN;
-  Delta_Lon = 0.554 / SECONDS_PER_RADIAN;
-  Delta_Hgt = 4.5 * sin_Lat + WGS72_a * df * sin2_Lat - da + 1.4;
-
-  double wgs84Latitude = WGS72Latitude + Delta_Lat;
-  double wgs84Longitude = WGS72Longitude + Delta_Lon;
-  double wgs84Height = WGS72Height + Delta_Hgt;
-
-  if (wgs84Latitude > PI_OVER_2)
-    wgs84Latitude = PI_OVER_2 - (wgs84Latitude - PI_OVER_2);
-  else if (wgs84Latitude < -PI_OVER_2)
-    wgs84Latitude = -PI_OVER_2  - (wgs84Latitude + PI_OVER_2);
-
-  if (wgs84Longitude > PI)
-    wgs84Longitude -= TWO_PI;
-  if (wgs84Longitude < -PI)
-    wgs84Longitude += TWO_PI;
+  GeodeticCoordinates wgs84Coordinates( CoordinateType::geodetic );
+  DatumTransformPlan::geodeticShiftWGS72ToWGS84( WGS84_a, WGS84_f, WGS72_a, WGS72_f,
+     WGS72Longitude, WGS72Latitude, WGS72Height, wgs84Coordinates );
 
-  return new GeodeticCoordinates(CoordinateType::geodetic, wgs84Longitude, wgs84Latitude, wgs84Height);
+  return new GeodeticCoordinates( wgs84Coordinates );
 } 
 
 
@@ -120,10 +120,21 @@
  *    05/26/10     S. Gillis, BAEts26674, Added Validate Datum to the API
  *                 in MSP Geotrans 3.0
  *    08/13/12     S. Gillis, MSP_00029654, Added lat/lon to define7ParamDatum
+ *    10/17/26     Datum table is now a copy-on-write snapshot; readers
+ *                 no longer lock and define/remove publish a new table
+ *    10/17/26     Added hashed datum code and ellipsoid usage indexes
+ *    10/17/26     Added datum shifts into caller-supplied coordinates
+ *    10/17/26     Added createDatumTransformPlan
+ *    10/17/26     Replaced datum tables are deleted once no reader can
+ *                 hold them
  */
 
 
 #include <vector>
+#include <memory>
+#include <atomic>
+#include <string>
+#include <unordered_map>
 #include "DatumType.h"
 #include "Precision.h"
 #include "DtccApi.h"
@@ -136,6 +147,7 @@ namespace MSP
   {
     class Accuracy;
     class Datum;
+    class DatumTransformPlan;
     class EllipsoidLibraryImplementation;
     class CartesianCoordinates;
     class GeodeticCoordinates;
@@ -361,6 +373,22 @@ namespace MSP
          Accuracy*       sourceAccuracy,
          Precision::Enum precision );
 
+
+      /*
+       *  This version of datumShiftError stores the accuracy of the
+       *  shifted coordinates in targetAccuracy, supplied by the caller,
+       *  instead of allocating it.
+       */
+
+      void datumShiftError(
+         const long      sourceIndex,
+         const long      targetIndex, 
+         double          longitude,
+         double          latitude,
+         Accuracy*       sourceAccuracy,
+         Precision::Enum precision,
+         Accuracy&       targetAccuracy );
+
       /*
        *  The function datumUserDefined checks whether or not the specified datum is
        *  user defined. It returns 1 if the datum is user defined, and returns
@@ -437,6 +465,16 @@ namespace MSP
       CartesianCoordinates* geocentricShiftFromWGS84( const double WGS84X, const double WGS84Y, const double WGS84Z, const long targetIndex );
 
 
+      /*
+       *  This version of geocentricShiftFromWGS84 stores the shifted
+       *  coordinates in targetCoordinates, supplied by the caller,
+       *  instead of allocating them.
+       */
+
+      void geocentricShiftFromWGS84( const double WGS84X, const double WGS84Y, const double WGS84Z, const long targetIndex,
+                                     CartesianCoordinates& targetCoordinates );
+
+
       /*
        *  The function geocentricShiftToWGS84 shifts a geocentric coordinate (X, Y, Z in meters) relative
        *  to the datum referenced by index to a geocentric coordinate (X, Y, Z in
@@ -454,6 +492,16 @@ namespace MSP
       CartesianCoordinates* geocentricShiftToWGS84( const long sourceIndex, const double sourceX, const double sourceY, const double sourceZ );
 
 
+      /*
+       *  This version of geocentricShiftToWGS84 stores the shifted
+       *  coordinates in wgs84Coordinates, supplied by the caller,
+       *  instead of allocating them.
+       */
+
+      void geocentricShiftToWGS84( const long sourceIndex, const double sourceX, const double sourceY, const double sourceZ,
+                                   CartesianCoordinates& wgs84Coordinates );
+
+
       /*
        *  The function geodeticDatumShift shifts geodetic coordinates (latitude, longitude in radians
        *  and height in meters) relative to the source datum to geodetic coordinates
@@ -492,6 +540,16 @@ namespace MSP
                                    const long targetIndex );
 
 
+      /*
+       *  This version of geodeticShiftFromWGS84 stores the shifted
+       *  coordinates in targetCoordinates, supplied by the caller,
+       *  instead of allocating them.
+       */
+
+      void geodeticShiftFromWGS84( const GeodeticCoordinates* sourceCoordinates,
+                                   const long targetIndex, GeodeticCoordinates& targetCoordinates );
+
+
       /*
        *  The function geodeticShiftToWGS84 shifts geodetic coordinates relative to a given source datum
        *  to geodetic coordinates relative to WGS84.
@@ -509,6 +567,29 @@ namespace MSP
       GeodeticCoordinates* geodeticShiftToWGS84( const long sourceIndex,  const GeodeticCoordinates* sourceCoordinates );
 
 
+      /*
+       *  This version of geodeticShiftToWGS84 stores the shifted
+       *  coordinates in wgs84Coordinates, supplied by the caller,
+       *  instead of allocating them.
+       */
+
+      void geodeticShiftToWGS84( const long sourceIndex,  const GeodeticCoordinates* sourceCoordinates,
+                                 GeodeticCoordinates& wgs84Coordinates );
+
+
+      /*
+       *  The function createDatumTransformPlan looks up the parameters of
+       *  the source and target datums, and of their ellipsoids, once and
+       *  returns a plan that shifts coordinates between them without further
+       *  lookups.  The plan is owned by the caller.
+       *
+       *    sourceIndex : Index of source datum                        (input)
+       *    targetIndex : Index of target datum                        (input)
+       */
+
+      DatumTransformPlan* createDatumTransformPlan( const long sourceIndex, const long targetIndex );
+
+
       /*
        *  The function retrieveDatumType returns the type of the datum referenced by
        *  index.
@@ -565,16 +646,116 @@ namespace MSP
 
     private:
 
+      typedef std::shared_ptr< Datum > DatumPtr;
+      typedef std::vector< DatumPtr > DatumList;
+
+      /*
+       * Immutable snapshot of the datum table.  Readers load a pointer to
+       * the current table with a single atomic load, taking no lock and
+       * touching no reference count; define3ParamDatum, define7ParamDatum
+       * and removeDatum copy it, apply the change and publish the new
+       * table atomically.  A replaced table may still be in use by a
+       * reader, so it is retired, and deleted once every read section
+       * that could hold it has ended.
+       */
+      struct DatumTable
+      {
+        typedef std::unordered_map< std::string, long > CodeIndex;
+
+        DatumList datumList;
+        long      datum3ParamCount;
+        long      datum7ParamCount;
+
+        /* Datum code -> index in datumList */
+        CodeIndex codeIndex;
+
+        /* Ellipsoid code -> number of datums using that ellipsoid */
+        CodeIndex ellipsoidUsage;
+
+        DatumTable() : datum3ParamCount( 0 ), datum7ParamCount( 0 ) {}
+
+        /*
+         * The function buildIndex rebuilds codeIndex and ellipsoidUsage
+         * from datumList.  Must be called before the table is published.
+         */
+        void buildIndex();
+      };
+
+      /*
+       * Read section on the current datum table, used like a pointer to
+       * it.  The table is not deleted while the DatumTablePtr exists.
+       * Starting a read section increments the reader count of the current
+       * epoch; it takes no lock.
+       */
+      class DatumTablePtr
+      {
+      public:
+
+        DatumTablePtr( const DatumLibraryImplementation* library );
+
+        DatumTablePtr( DatumTablePtr&& ptr );
+
+        ~DatumTablePtr();
+
+        const DatumTable* operator->() const { return table; }
+
+        const DatumTable& operator*() const { return *table; }
+
+      private:
+
+        DatumTablePtr( const DatumTablePtr& ptr );
+
+        DatumTablePtr& operator=( const DatumTablePtr& ptr );
+
+        std::atomic< long >* readerCount;
+        const DatumTable*    table;
+      };
+
+      /* Table replaced by publishDatumTable, and the epoch it was replaced in */
+      struct RetiredDatumTable
+      {
+        const DatumTable* table;
+        unsigned long     epoch;
+      };
+
       static MSP::CCSThreadMutex mutex;
       static DatumLibraryImplementation* instance;
       static int instanceCount;
 
-      std::vector<Datum*> datumList;
+      std::atomic< const DatumTable* > datumTable;
+
+      /* Incremented by reclaimDatumTables; only changed with mutex held */
+      std::atomic< unsigned long > datumTableEpoch;
+
+      /* Read sections started in even and odd epochs and not yet ended */
+      mutable std::atomic< long > datumTableReaders[2];
+
+      /* Tables replaced by publishDatumTable; guarded by mutex */
+      std::vector< RetiredDatumTable > retiredDatumTables;
 
       EllipsoidLibraryImplementation* _ellipsoidLibraryImplementation;
 
-      long datum3ParamCount;
-      long datum7ParamCount;
+      /*
+       * The function currentDatumTable starts a read section on the current
+       * datum table snapshot, which stays valid until the returned
+       * DatumTablePtr is destroyed.
+       */
+      DatumTablePtr currentDatumTable() const;
+
+      /*
+       * The function reclaimDatumTables deletes the retired tables that no
+       * read section can still hold.  Must be called with mutex held.
+       */
+      void reclaimDatumTables();
+
+      /*
+       * The function publishDatumTable replaces the current datum table
+       * with table, which the library then owns.  Must be called with mutex
+       * held.
+       *
+       *   table  : New datum table                                    (input)
+       */
+      void publishDatumTable( const DatumTable* table );
 
 
       /*
@@ -592,7 +773,7 @@ namespace MSP
         *  to the 3_param.dat file.
         */
 
-      void write3ParamFile();
+      void write3ParamFile( const DatumTable& table );
 
 
        /*
@@ -600,7 +781,7 @@ namespace MSP
         *  to the 7_param.dat file.
         */
 
-      void write7ParamFile();
+      void write7ParamFile( const DatumTable& table );
 
       /*
        *  The function geodeticShiftWGS84ToWGS72 shifts a geodetic coordinate (latitude, longitude in radians
@@ -0,0 +1,1066 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/***************************************************************************/
+/* RSC IDENTIFIER: Datum Transform Plan
+ *
+ * ABSTRACT
+ *
+ *    This component shifts coordinates from one datum to another using
+ *    parameters gathered once, when the plan is created by the Datum
+ *    Library.  See DatumTransformPlan.h.
+ *
+ * MODIFICATIONS
+ *
+ *    Date              Description
+ *    ----              -----------
+ *    10/17/26          Original Code.  molodenskyShift and the WGS72
+ *                      shifts moved here from DatumLibraryImplementation
+ */
+
+
+/***************************************************************************/
+/*
+ *                               INCLUDES
+ */
+
+#include <math.h>
+#include "DatumTransformPlan.h"
+#include "Geocentric.h"
+#include "CartesianCoordinates.h"
+#include "GeodeticCoordinates.h"
+#include "CoordinateConversionException.h"
+#include "ErrorMessages.h"
+
+/*
+ *    math.h     - standard C mathematics library
+ *    DatumTransformPlan.h - for error checking and error codes
+ *    Geocentric.h  - converts between geodetic and geocentric coordinates
+ *    CartesianCoordinates.h   - defines cartesian coordinates
+ *    GeodeticCoordinates.h   - defines geodetic coordinates
+ *    CoordinateConversionException.h - Exception handler
+ *    ErrorMessages.h  - Contains exception messages
+ */
+
+
+using namespace MSP::CCS;
+
+
+/***************************************************************************/
+/*
+ *                               DEFINES
+ */
+
+const double SECONDS_PER_RADIAN = 206264.8062471;   /* Seconds in a radian */
+const double PI = 3.14159265358979323e0;
+const double PI_OVER_2 = (PI / 2.0);
+const double PI_OVER_180 = (PI / 180.0);
+const double TWO_PI = (2.0 * PI);
+const double MOLODENSKY_MAX = (89.75 * PI_OVER_180); /* Polar limit */
+
+/* Message of the only error the geocentric to geodetic conversion raises */
+const char* const LEGACY_GEOCENTRIC_ERROR =
+   "Legacy geocentric-to-geodetic is not accurate at this height.";
+
+
+/************************************************************************/
+/*                              LOCAL FUNCTIONS
+ *
+ */
+
+namespace
+{
+  const char* checkGeodetic( double longitude, double latitude )
+  {
+  /*
+   *  The function checkGeodetic returns the error message for a geodetic
+   *  point outside the range accepted by the datum shifts, or 0.  NaN
+   *  coordinates are out of range.
+   */
+
+    if( !( ( latitude >= ( -90 * PI_OVER_180 ) ) &&
+           ( latitude <= (  90 * PI_OVER_180 ) ) ) )
+      return ErrorMessages::latitude;
+    if( !( ( longitude >= ( -PI ) ) && ( longitude <= TWO_PI ) ) )
+      return ErrorMessages::longitude;
+
+    return 0;
+  }
+
+
+  void resolveGeocentric( Geocentric* geocentric, double a )
+  {
+  /*
+   *  The function resolveGeocentric makes the geocentric converter select
+   *  its geocentric to geodetic algorithm, so that converting does not
+   *  change it, and the plan can be used by several threads at once.
+   */
+
+    CartesianCoordinates surfacePoint( CoordinateType::geocentric, a, 0.0, 0.0 );
+    GeodeticCoordinates geodeticCoordinates( CoordinateType::geodetic );
+
+    geocentric->convertToGeodetic( &surfacePoint, geodeticCoordinates );
+  }
+}
+
+
+/************************************************************************/
+/*                              FUNCTIONS
+ *
+ */
+
+DatumTransformPlan::DatumTransformPlan(
+   const DatumParameters& sourceParameters,
+   const DatumParameters& targetParameters,
+   double                 wgs84SemiMajorAxis,
+   double                 wgs84Flattening,
+   double                 wgs72SemiMajorAxis,
+   double                 wgs72Flattening ) :
+   source( sourceParameters ),
+   target( targetParameters ),
+   WGS84_a( wgs84SemiMajorAxis ),
+   WGS84_f( wgs84Flattening ),
+   WGS72_a( wgs72SemiMajorAxis ),
+   WGS72_f( wgs72Flattening ),
+   wgs84Geocentric( 0 ),
+   wgs72Geocentric( 0 ),
+   combined( false )
+{
+/*
+ *  The constructor creates the geocentric converters of the ellipsoids
+ *  and combines the geocentric shifts of both datums when neither is WGS72.
+ */
+
+  source.geocentric = 0;
+  target.geocentric = 0;
+
+  try
+  {
+    source.geocentric = new Geocentric( source.a, source.f );
+    target.geocentric = new Geocentric( target.a, target.f );
+    wgs84Geocentric   = new Geocentric( WGS84_a, WGS84_f );
+    wgs72Geocentric   = new Geocentric( WGS72_a, WGS72_f );
+  }
+  catch( CoordinateConversionException e )
+  {
+    delete source.geocentric;
+    delete target.geocentric;
+    delete wgs84Geocentric;
+    delete wgs72Geocentric;
+    throw e;
+  }
+
+  resolveGeocentric( source.geocentric, source.a );
+  resolveGeocentric( target.geocentric, target.a );
+  resolveGeocentric( wgs84Geocentric, WGS84_a );
+  resolveGeocentric( wgs72Geocentric, WGS72_a );
+
+  if( ( source.datumType != DatumType::wgs72Datum ) &&
+      ( target.datumType != DatumType::wgs72Datum ) )
+  {
+    /* The shift of each datum is X' = X + S * X + T, for a datum to WGS84,
+       and X = X' - S * X' - T, for WGS84 to the datum, where S holds the
+       rotations and scale factor.  Composing the source shift S1, T1 with
+       the target shift S2, T2 gives X'' = X + D * X + T1 - S2 * T1 - T2,
+       with D = S1 - S2 - S2 * S1. */
+    double s1[3][3] = {
+       {  source.scaleFactor,  source.rotationZ, -source.rotationY },
+       { -source.rotationZ,  source.scaleFactor,  source.rotationX },
+       {  source.rotationY, -source.rotationX,  source.scaleFactor } };
+    double s2[3][3] = {
+       {  target.scaleFactor,  target.rotationZ, -target.rotationY },
+       { -target.rotationZ,  target.scaleFactor,  target.rotationX },
+       {  target.rotationY, -target.rotationX,  target.scaleFactor } };
+    double t1[3] = { source.deltaX, source.deltaY, source.deltaZ };
+    double t2[3] = { target.deltaX, target.deltaY, target.deltaZ };
+
+    for( int i = 0; i < 3; i++ )
+    {
+      for( int j = 0; j < 3; j++ )
+      {
+        double product = 0.0;
+        for( int k = 0; k < 3; k++ )
+          product += s2[i][k] * s1[k][j];
+
+        matrix[i][j] = s1[i][j] - s2[i][j] - product;
+      }
+
+      double rotated = 0.0;
+      for( int k = 0; k < 3; k++ )
+        rotated += s2[i][k] * t1[k];
+
+      translation[i] = ( t1[i] - t2[i] ) - rotated;
+    }
+
+    combined = true;
+  }
+}
+
+
+DatumTransformPlan::~DatumTransformPlan()
+{
+  delete source.geocentric;
+  source.geocentric = 0;
+
+  delete target.geocentric;
+  target.geocentric = 0;
+
+  delete wgs84Geocentric;
+  wgs84Geocentric = 0;
+
+  delete wgs72Geocentric;
+  wgs72Geocentric = 0;
+}
+
+
+long DatumTransformPlan::sourceIndex() const
+{
+  return source.index;
+}
+
+
+long DatumTransformPlan::targetIndex() const
+{
+  return target.index;
+}
+
+
+void DatumTransformPlan::geodeticShift(
+   const GeodeticCoordinates* sourceCoordinates,
+   GeodeticCoordinates&       targetCoordinates ) const
+{
+/*
+ *  The function geodeticShift shifts geodetic coordinates relative to the
+ *  source datum to geodetic coordinates relative to the target datum, with
+ *  the methods of DatumLibraryImplementation::geodeticDatumShift.
+ *
+ *  sourceCoordinates : Coordinates relative to the source datum (input)
+ *  targetCoordinates : Coordinates relative to the target datum (output)
+ */
+
+  const char* errorMessage = checkGeodetic(
+     sourceCoordinates->longitude(), sourceCoordinates->latitude() );
+  if( errorMessage )
+    throw CoordinateConversionException( errorMessage );
+
+  if( source.index == target.index )
+  { /* Just copy */
+    targetCoordinates = GeodeticCoordinates( CoordinateType::geodetic,
+       sourceCoordinates->longitude(), sourceCoordinates->latitude(),
+       sourceCoordinates->height() );
+  }
+  else if( source.datumType == DatumType::sevenParamDatum )
+  {
+    CartesianCoordinates sourceCartesianCoordinates( CoordinateType::geocentric );
+    source.geocentric->convertFromGeodetic( sourceCoordinates, sourceCartesianCoordinates );
+
+    double x = sourceCartesianCoordinates.x();
+    double y = sourceCartesianCoordinates.y();
+    double z = sourceCartesianCoordinates.z();
+
+    if( target.datumType == DatumType::sevenParamDatum )
+    { /* Use the combined 3-step method */
+      CartesianCoordinates targetCartesianCoordinates( CoordinateType::geocentric,
+         x + ( matrix[0][0] * x + matrix[0][1] * y + matrix[0][2] * z + translation[0] ),
+         y + ( matrix[1][0] * x + matrix[1][1] * y + matrix[1][2] * z + translation[1] ),
+         z + ( matrix[2][0] * x + matrix[2][1] * y + matrix[2][2] * z + translation[2] ) );
+
+      target.geocentric->convertToGeodetic( &targetCartesianCoordinates, targetCoordinates );
+    }
+    else
+    { /* Use 3-step method for 1st stage, Molodensky if possible for 2nd stage */
+      double wgs84X, wgs84Y, wgs84Z;
+      geocentricToWGS84( source, x, y, z, wgs84X, wgs84Y, wgs84Z );
+
+      CartesianCoordinates wgs84CartesianCoordinates(
+         CoordinateType::geocentric, wgs84X, wgs84Y, wgs84Z );
+      GeodeticCoordinates wgs84GeodeticCoordinates( CoordinateType::geodetic );
+      wgs84Geocentric->convertToGeodetic( &wgs84CartesianCoordinates, wgs84GeodeticCoordinates );
+
+      shiftFromWGS84( &wgs84GeodeticCoordinates, targetCoordinates );
+    }
+  }
+  else if( target.datumType == DatumType::sevenParamDatum )
+  { /* Use Molodensky if possible for 1st stage, 3-step method for 2nd stage */
+    GeodeticCoordinates wgs84GeodeticCoordinates( CoordinateType::geodetic );
+    shiftToWGS84( sourceCoordinates, wgs84GeodeticCoordinates );
+
+    CartesianCoordinates wgs84CartesianCoordinates( CoordinateType::geocentric );
+    wgs84Geocentric->convertFromGeodetic( &wgs84GeodeticCoordinates, wgs84CartesianCoordinates );
+
+    double x, y, z;
+    geocentricFromWGS84( target, wgs84CartesianCoordinates.x(),
+       wgs84CartesianCoordinates.y(), wgs84CartesianCoordinates.z(), x, y, z );
+
+    CartesianCoordinates targetCartesianCoordinates( CoordinateType::geocentric, x, y, z );
+    target.geocentric->convertToGeodetic( &targetCartesianCoordinates, targetCoordinates );
+  }
+  else
+  { /* Use Molodensky if possible for both stages */
+    GeodeticCoordinates wgs84GeodeticCoordinates( CoordinateType::geodetic );
+    shiftToWGS84( sourceCoordinates, wgs84GeodeticCoordinates );
+
+    shiftFromWGS84( &wgs84GeodeticCoordinates, targetCoordinates );
+  }
+}
+
+
+void DatumTransformPlan::geodeticShift(
+   const GeodeticCoordinates* sourceCoordinates,
+   GeodeticCoordinates&       wgs84Coordinates,
+   GeodeticCoordinates&       targetCoordinates ) const
+{
+/*
+ *  The function geodeticShift shifts geodetic coordinates relative to the
+ *  source datum to geodetic coordinates relative to the target datum, and
+ *  returns the intermediate coordinates relative to WGS84.
+ *
+ *  sourceCoordinates : Coordinates relative to the source datum (input)
+ *  wgs84Coordinates  : Coordinates relative to WGS84            (output)
+ *  targetCoordinates : Coordinates relative to the target datum (output)
+ */
+
+  if( ( source.datumType == DatumType::sevenParamDatum ) &&
+      ( target.datumType == DatumType::sevenParamDatum ) &&
+      ( source.index != target.index ) )
+  { /* Use the combined 3-step method from the source geocentric coordinates */
+    const char* errorMessage = checkGeodetic(
+       sourceCoordinates->longitude(), sourceCoordinates->latitude() );
+    if( errorMessage )
+      throw CoordinateConversionException( errorMessage );
+
+    CartesianCoordinates sourceCartesianCoordinates( CoordinateType::geocentric );
+    source.geocentric->convertFromGeodetic( sourceCoordinates, sourceCartesianCoordinates );
+
+    double x = sourceCartesianCoordinates.x();
+    double y = sourceCartesianCoordinates.y();
+    double z = sourceCartesianCoordinates.z();
+
+    double wgs84X, wgs84Y, wgs84Z;
+    geocentricToWGS84( source, x, y, z, wgs84X, wgs84Y, wgs84Z );
+
+    CartesianCoordinates wgs84CartesianCoordinates( CoordinateType::geocentric, wgs84X, wgs84Y, wgs84Z );
+    wgs84Geocentric->convertToGeodetic( &wgs84CartesianCoordinates, wgs84Coordinates );
+
+    CartesianCoordinates targetCartesianCoordinates( CoordinateType::geocentric,
+       x + ( matrix[0][0] * x + matrix[0][1] * y + matrix[0][2] * z + translation[0] ),
+       y + ( matrix[1][0] * x + matrix[1][1] * y + matrix[1][2] * z + translation[1] ),
+       z + ( matrix[2][0] * x + matrix[2][1] * y + matrix[2][2] * z + translation[2] ) );
+
+    target.geocentric->convertToGeodetic( &targetCartesianCoordinates, targetCoordinates );
+  }
+  else
+  {
+    shiftToWGS84( sourceCoordinates, wgs84Coordinates );
+
+    shiftFromWGS84( &wgs84Coordinates, targetCoordinates );
+  }
+}
+
+
+void DatumTransformPlan::geodeticShift(
+   long         count,
+   const double sourceLongitude[],
+   const double sourceLatitude[],
+   const double sourceHeight[],
+   double       targetLongitude[],
+   double       targetLatitude[],
+   double       targetHeight[],
+   const char*  errorMessages[] ) const
+{
+/*
+ *  This version of geodeticShift shifts count points held in arrays.
+ *
+ *  count           : Number of points                               (input)
+ *  sourceLongitude : Longitudes in radians relative to source datum (input)
+ *  sourceLatitude  : Latitudes in radians relative to source datum  (input)
+ *  sourceHeight    : Heights in meters relative to source datum     (input)
+ *  targetLongitude : Longitudes in radians relative to target datum (output)
+ *  targetLatitude  : Latitudes in radians relative to target datum  (output)
+ *  targetHeight    : Heights in meters relative to target datum     (output)
+ *  errorMessages   : Error message of each point, or 0              (output)
+ */
+
+  GeodeticCoordinates sourceCoordinates( CoordinateType::geodetic );
+  GeodeticCoordinates targetCoordinates( CoordinateType::geodetic );
+
+  for( long i = 0; i < count; i++ )
+  {
+    errorMessages[i] = checkGeodetic( sourceLongitude[i], sourceLatitude[i] );
+
+    if( !errorMessages[i] )
+    {
+      sourceCoordinates.set( sourceLongitude[i], sourceLatitude[i], sourceHeight[i] );
+
+      try
+      {
+        geodeticShift( &sourceCoordinates, targetCoordinates );
+      }
+      catch( CoordinateConversionException e )
+      {
+        errorMessages[i] = LEGACY_GEOCENTRIC_ERROR;
+      }
+    }
+
+    if( errorMessages[i] )
+    {
+      targetLongitude[i] = 0;
+      targetLatitude[i]  = 0;
+      targetHeight[i]    = 0;
+    }
+    else
+    {
+      targetLongitude[i] = targetCoordinates.longitude();
+      targetLatitude[i]  = targetCoordinates.latitude();
+      targetHeight[i]    = targetCoordinates.height();
+    }
+  }
+}
+
+
+void DatumTransformPlan::geocentricShift(
+   double                sourceX,
+   double                sourceY,
+   double                sourceZ,
+   CartesianCoordinates& targetCoordinates ) const
+{
+/*
+ *  The function geocentricShift shifts a geocentric coordinate relative to
+ *  the source datum to a geocentric coordinate relative to the target datum.
+ *
+ *  sourceX           : X coordinate relative to the source datum   (input)
+ *  sourceY           : Y coordinate relative to the source datum   (input)
+ *  sourceZ           : Z coordinate relative to the source datum   (input)
+ *  targetCoordinates : Coordinates relative to the target datum    (output)
+ */
+
+  if( source.index == target.index )
+  {
+    targetCoordinates = CartesianCoordinates(
+       CoordinateType::geocentric, sourceX, sourceY, sourceZ );
+  }
+  else if( combined )
+  {
+    targetCoordinates = CartesianCoordinates( CoordinateType::geocentric,
+       sourceX + ( matrix[0][0] * sourceX + matrix[0][1] * sourceY + matrix[0][2] * sourceZ + translation[0] ),
+       sourceY + ( matrix[1][0] * sourceX + matrix[1][1] * sourceY + matrix[1][2] * sourceZ + translation[1] ),
+       sourceZ + ( matrix[2][0] * sourceX + matrix[2][1] * sourceY + matrix[2][2] * sourceZ + translation[2] ) );
+  }
+  else
+  { /* A datum is WGS72, which is shifted through geodetic coordinates */
+    double wgs84X, wgs84Y, wgs84Z;
+    geocentricShiftToWGS84( source, sourceX, sourceY, sourceZ, wgs84X, wgs84Y, wgs84Z );
+
+    double targetX, targetY, targetZ;
+    geocentricShiftFromWGS84( target, wgs84X, wgs84Y, wgs84Z, targetX, targetY, targetZ );
+
+    targetCoordinates = CartesianCoordinates(
+       CoordinateType::geocentric, targetX, targetY, targetZ );
+  }
+}
+
+
+void DatumTransformPlan::geocentricShift(
+   long         count,
+   const double sourceX[],
+   const double sourceY[],
+   const double sourceZ[],
+   double       targetX[],
+   double       targetY[],
+   double       targetZ[],
+   const char*  errorMessages[] ) const
+{
+/*
+ *  This version of geocentricShift shifts count points held in arrays.
+ *  Only the WGS72 shifts, which go through geodetic coordinates, can fail.
+ *
+ *  count         : Number of points                               (input)
+ *  sourceX       : X coordinates relative to the source datum     (input)
+ *  sourceY       : Y coordinates relative to the source datum     (input)
+ *  sourceZ       : Z coordinates relative to the source datum     (input)
+ *  targetX       : X coordinates relative to the target datum     (output)
+ *  targetY       : Y coordinates relative to the target datum     (output)
+ *  targetZ       : Z coordinates relative to the target datum     (output)
+ *  errorMessages : Error message of each point, or 0              (output)
+ */
+
+  if( combined || ( source.index == target.index ) )
+  {
+    double m[3][3];
+    double t[3];
+
+    for( int i = 0; i < 3; i++ )
+    {
+      for( int j = 0; j < 3; j++ )
+        m[i][j] = ( source.index == target.index ) ? 0.0 : matrix[i][j];
+      t[i] = ( source.index == target.index ) ? 0.0 : translation[i];
+    }
+
+    for( long i = 0; i < count; i++ )
+    {
+      double x = sourceX[i];
+      double y = sourceY[i];
+      double z = sourceZ[i];
+
+      targetX[i] = x + ( m[0][0] * x + m[0][1] * y + m[0][2] * z + t[0] );
+      targetY[i] = y + ( m[1][0] * x + m[1][1] * y + m[1][2] * z + t[1] );
+      targetZ[i] = z + ( m[2][0] * x + m[2][1] * y + m[2][2] * z + t[2] );
+      errorMessages[i] = 0;
+    }
+  }
+  else
+  {
+    CartesianCoordinates targetCoordinates( CoordinateType::geocentric );
+
+    for( long i = 0; i < count; i++ )
+    {
+      try
+      {
+        geocentricShift( sourceX[i], sourceY[i], sourceZ[i], targetCoordinates );
+
+        targetX[i] = targetCoordinates.x();
+        targetY[i] = targetCoordinates.y();
+        targetZ[i] = targetCoordinates.z();
+        errorMessages[i] = 0;
+      }
+      catch( CoordinateConversionException e )
+      {
+        targetX[i] = 0;
+        targetY[i] = 0;
+        targetZ[i] = 0;
+        errorMessages[i] = LEGACY_GEOCENTRIC_ERROR;
+      }
+    }
+  }
+}
+
+
+void DatumTransformPlan::shiftToWGS84(
+   const GeodeticCoordinates* sourceCoordinates,
+   GeodeticCoordinates&       wgs84Coordinates ) const
+{
+/*
+ *  The function shiftToWGS84 shifts geodetic coordinates relative to the
+ *  source datum to geodetic coordinates relative to WGS84, as
+ *  DatumLibraryImplementation::geodeticShiftToWGS84 does.
+ *
+ *  sourceCoordinates : Coordinates relative to the source datum (input)
+ *  wgs84Coordinates  : Coordinates relative to WGS84            (output)
+ */
+
+  double sourceLongitude = sourceCoordinates->longitude();
+  double sourceLatitude = sourceCoordinates->latitude();
+  double sourceHeight = sourceCoordinates->height();
+
+  if(( sourceLatitude < ( -90 * PI_OVER_180 ) ) ||
+     ( sourceLatitude > (  90 * PI_OVER_180 ) ) )
+    throw CoordinateConversionException( ErrorMessages::latitude );
+  if( ( sourceLongitude < ( -PI ) ) || ( sourceLongitude > TWO_PI ) )
+    throw CoordinateConversionException( ErrorMessages::longitude );
+
+  switch( source.datumType )
+  {
+    case DatumType::wgs72Datum:
+    { /* Special case for WGS72 */
+      geodeticShiftWGS72ToWGS84( WGS84_a, WGS84_f, WGS72_a, WGS72_f,
+         sourceLongitude, sourceLatitude, sourceHeight, wgs84Coordinates );
+      return;
+    }
+    case DatumType::wgs84Datum:
+    {        /* Just  copy */
+      wgs84Coordinates = GeodeticCoordinates( CoordinateType::geodetic, sourceLongitude, sourceLatitude, sourceHeight );
+      return;
+    }
+    case DatumType::sevenParamDatum:
+    case DatumType::threeParamDatum:
+    {
+      if( ( source.datumType == DatumType::sevenParamDatum ) ||
+          ( sourceLatitude < ( -MOLODENSKY_MAX ) ) ||
+          ( sourceLatitude > MOLODENSKY_MAX ) )
+      { /* Use 3-step method */
+        CartesianCoordinates localCartesianCoordinates( CoordinateType::geocentric );
+        source.geocentric->convertFromGeodetic( sourceCoordinates, localCartesianCoordinates );
+
+        double wgs84X, wgs84Y, wgs84Z;
+        geocentricToWGS84( source, localCartesianCoordinates.x(), localCartesianCoordinates.y(),
+           localCartesianCoordinates.z(), wgs84X, wgs84Y, wgs84Z );
+
+        CartesianCoordinates wgs84CartesianCoordinates( CoordinateType::geocentric, wgs84X, wgs84Y, wgs84Z );
+        wgs84Geocentric->convertToGeodetic( &wgs84CartesianCoordinates, wgs84Coordinates );
+      }
+      else
+      { /* Use Molodensky's method */
+        molodenskyShift( source.a, WGS84_a - source.a, source.f, WGS84_f - source.f,
+           source.deltaX, source.deltaY, source.deltaZ,
+           sourceLongitude, sourceLatitude, sourceHeight, wgs84Coordinates );
+      }
+      return;
+    }
+    default:
+      throw CoordinateConversionException( ErrorMessages::datumType );
+  }
+}
+
+
+void DatumTransformPlan::shiftFromWGS84(
+   const GeodeticCoordinates* wgs84Coordinates,
+   GeodeticCoordinates&       targetCoordinates ) const
+{
+/*
+ *  The function shiftFromWGS84 shifts geodetic coordinates relative to
+ *  WGS84 to geodetic coordinates relative to the target datum, as
+ *  DatumLibraryImplementation::geodeticShiftFromWGS84 does.
+ *
+ *  wgs84Coordinates  : Coordinates relative to WGS84            (input)
+ *  targetCoordinates : Coordinates relative to the target datum (output)
+ */
+
+  double WGS84Longitude = wgs84Coordinates->longitude();
+  double WGS84Latitude = wgs84Coordinates->latitude();
+  double WGS84Height = wgs84Coordinates->height();
+
+  if(( WGS84Latitude < ( -90 * PI_OVER_180 ) ) ||
+     ( WGS84Latitude > (  90 * PI_OVER_180 ) ) )
+    throw CoordinateConversionException( ErrorMessages::latitude );
+  if( ( WGS84Longitude < ( -PI ) ) || ( WGS84Longitude > TWO_PI ) )
+    throw CoordinateConversionException( ErrorMessages::longitude );
+
+  switch( target.datumType )
+  {
+    case DatumType::wgs72Datum:
+    {
+      geodeticShiftWGS84ToWGS72( WGS84_a, WGS84_f, WGS72_a, WGS72_f,
+         WGS84Longitude, WGS84Latitude, WGS84Height, targetCoordinates );
+      return;
+    }
+    case DatumType::wgs84Datum:
+    {
+      targetCoordinates = GeodeticCoordinates( CoordinateType::geodetic, WGS84Longitude, WGS84Latitude, WGS84Height );
+      return;
+    }
+    case DatumType::sevenParamDatum:
+    case DatumType::threeParamDatum:
+    {
+      if( ( target.datumType == DatumType::sevenParamDatum ) ||
+          ( WGS84Latitude < ( -MOLODENSKY_MAX ) ) ||
+          ( WGS84Latitude > MOLODENSKY_MAX ) )
+      { /* Use 3-step method */
+        CartesianCoordinates wgs84CartesianCoordinates( CoordinateType::geocentric );
+        wgs84Geocentric->convertFromGeodetic( wgs84Coordinates, wgs84CartesianCoordinates );
+
+        double x, y, z;
+        geocentricFromWGS84( target, wgs84CartesianCoordinates.x(), wgs84CartesianCoordinates.y(),
+           wgs84CartesianCoordinates.z(), x, y, z );
+
+        CartesianCoordinates localCartesianCoordinates( CoordinateType::geocentric, x, y, z );
+        target.geocentric->convertToGeodetic( &localCartesianCoordinates, targetCoordinates );
+      }
+      else
+      { /* Use Molodensky's method */
+        molodenskyShift( WGS84_a, target.a - WGS84_a, WGS84_f, target.f - WGS84_f,
+           -( target.deltaX ), -( target.deltaY ), -( target.deltaZ ),
+           WGS84Longitude, WGS84Latitude, WGS84Height, targetCoordinates );
+      }
+      return;
+    }
+    default:
+      throw CoordinateConversionException( ErrorMessages::datumType );
+  }
+}
+
+
+void DatumTransformPlan::geocentricToWGS84(
+   const DatumParameters& datum,
+   double                 x,
+   double                 y,
+   double                 z,
+   double&                wgs84X,
+   double&                wgs84Y,
+   double&                wgs84Z )
+{
+/*
+ *  The function geocentricToWGS84 shifts geocentric coordinates relative
+ *  to a 3- or 7-parameter datum to WGS84.  The terms are evaluated in the
+ *  order of DatumLibraryImplementation::geocentricShiftToWGS84.
+ */
+
+  if( datum.datumType == DatumType::sevenParamDatum )
+  {
+    wgs84X = x + datum.deltaX + datum.rotationZ * y
+               - datum.rotationY * z + datum.scaleFactor * x;
+
+    wgs84Y = y + datum.deltaY - datum.rotationZ * x
+               + datum.rotationX * z + datum.scaleFactor * y;
+
+    wgs84Z = z + datum.deltaZ + datum.rotationY * x
+               - datum.rotationX * y + datum.scaleFactor * z;
+  }
+  else
+  {
+    wgs84X = x + datum.deltaX;
+    wgs84Y = y + datum.deltaY;
+    wgs84Z = z + datum.deltaZ;
+  }
+}
+
+
+void DatumTransformPlan::geocentricFromWGS84(
+   const DatumParameters& datum,
+   double                 wgs84X,
+   double                 wgs84Y,
+   double                 wgs84Z,
+   double&                x,
+   double&                y,
+   double&                z )
+{
+/*
+ *  The function geocentricFromWGS84 shifts geocentric coordinates relative
+ *  to WGS84 to a 3- or 7-parameter datum.  The terms are evaluated in the
+ *  order of DatumLibraryImplementation::geocentricShiftFromWGS84.
+ */
+
+  if( datum.datumType == DatumType::sevenParamDatum )
+  {
+    x = wgs84X - datum.deltaX - datum.rotationZ * wgs84Y
+               + datum.rotationY * wgs84Z - datum.scaleFactor * wgs84X;
+
+    y = wgs84Y - datum.deltaY + datum.rotationZ * wgs84X
+               - datum.rotationX * wgs84Z - datum.scaleFactor * wgs84Y;
+
+    z = wgs84Z - datum.deltaZ - datum.rotationY * wgs84X
+               + datum.rotationX * wgs84Y - datum.scaleFactor * wgs84Z;
+  }
+  else
+  {
+    x = wgs84X - datum.deltaX;
+    y = wgs84Y - datum.deltaY;
+    z = wgs84Z - datum.deltaZ;
+  }
+}
+
+
+void DatumTransformPlan::geocentricShiftToWGS84(
+   const DatumParameters& datum,
+   double                 x,
+   double                 y,
+   double                 z,
+   double&                wgs84X,
+   double&                wgs84Y,
+   double&                wgs84Z ) const
+{
+/*
+ *  The function geocentricShiftToWGS84 shifts geocentric coordinates
+ *  relative to a datum of the plan, of any type, to WGS84.
+ */
+
+  switch( datum.datumType )
+  {
+    case DatumType::wgs72Datum:
+    {
+      CartesianCoordinates wgs72CartesianCoordinates( CoordinateType::geocentric, x, y, z );
+      GeodeticCoordinates wgs72GeodeticCoordinates( CoordinateType::geodetic );
+      wgs72Geocentric->convertToGeodetic( &wgs72CartesianCoordinates, wgs72GeodeticCoordinates );
+
+      GeodeticCoordinates wgs84GeodeticCoordinates( CoordinateType::geodetic );
+      geodeticShiftWGS72ToWGS84( WGS84_a, WGS84_f, WGS72_a, WGS72_f,
+         wgs72GeodeticCoordinates.longitude(), wgs72GeodeticCoordinates.latitude(),
+         wgs72GeodeticCoordinates.height(), wgs84GeodeticCoordinates );
+
+      CartesianCoordinates wgs84CartesianCoordinates( CoordinateType::geocentric );
+      wgs84Geocentric->convertFromGeodetic( &wgs84GeodeticCoordinates, wgs84CartesianCoordinates );
+
+      wgs84X = wgs84CartesianCoordinates.x();
+      wgs84Y = wgs84CartesianCoordinates.y();
+      wgs84Z = wgs84CartesianCoordinates.z();
+      return;
+    }
+    case DatumType::wgs84Datum:
+      wgs84X = x;
+      wgs84Y = y;
+      wgs84Z = z;
+      return;
+    case DatumType::sevenParamDatum:
+    case DatumType::threeParamDatum:
+      geocentricToWGS84( datum, x, y, z, wgs84X, wgs84Y, wgs84Z );
+      return;
+    default:
+      throw CoordinateConversionException( ErrorMessages::datumType );
+  }
+}
+
+
+void DatumTransformPlan::geocentricShiftFromWGS84(
+   const DatumParameters& datum,
+   double                 wgs84X,
+   double                 wgs84Y,
+   double                 wgs84Z,
+   double&                x,
+   double&                y,
+   double&                z ) const
+{
+/*
+ *  The function geocentricShiftFromWGS84 shifts geocentric coordinates
+ *  relative to WGS84 to a datum of the plan, of any type.
+ */
+
+  switch( datum.datumType )
+  {
+    case DatumType::wgs72Datum:
+    {
+      CartesianCoordinates wgs84CartesianCoordinates( CoordinateType::geocentric, wgs84X, wgs84Y, wgs84Z );
+      GeodeticCoordinates wgs84GeodeticCoordinates( CoordinateType::geodetic );
+      wgs84Geocentric->convertToGeodetic( &wgs84CartesianCoordinates, wgs84GeodeticCoordinates );
+
+      GeodeticCoordinates wgs72GeodeticCoordinates( CoordinateType::geodetic );
+      geodeticShiftWGS84ToWGS72( WGS84_a, WGS84_f, WGS72_a, WGS72_f,
+         wgs84GeodeticCoordinates.longitude(), wgs84GeodeticCoordinates.latitude(),
+         wgs84GeodeticCoordinates.height(), wgs72GeodeticCoordinates );
+
+      CartesianCoordinates wgs72CartesianCoordinates( CoordinateType::geocentric );
+      wgs72Geocentric->convertFromGeodetic( &wgs72GeodeticCoordinates, wgs72CartesianCoordinates );
+
+      x = wgs72CartesianCoordinates.x();
+      y = wgs72CartesianCoordinates.y();
+      z = wgs72CartesianCoordinates.z();
+      return;
+    }
+    case DatumType::wgs84Datum:
+      x = wgs84X;
+      y = wgs84Y;
+      z = wgs84Z;
+      return;
+    case DatumType::sevenParamDatum:
+    case DatumType::threeParamDatum:
+      geocentricFromWGS84( datum, wgs84X, wgs84Y, wgs84Z, x, y, z );
+      return;
+    default:
+      throw CoordinateConversionException( ErrorMessages::datumType );
+  }
+}
+
+
+void DatumTransformPlan::molodenskyShift(
+   const double         a,
+   const double         da,
+   const double         f,
+   const double         df,
+   const double         dx,
+   const double         dy,
+   const double         dz,
+   const double         sourceLongitude,
+   const double         sourceLatitude,
+   const double         sourceHeight,
+   GeodeticCoordinates& targetCoordinates )
+{
+/*
+ *  The function molodenskyShift shifts geodetic coordinates
+ *  using the Molodensky method.
+ *
+ *    a               : Semi-major axis of source ellipsoid in meters  (input)
+ *    da              : Destination a minus source a                   (input)
+ *    f               : Flattening of source ellipsoid                 (input)
+ *    df              : Destination f minus source f                   (input)
+ *    dx              : X coordinate shift in meters                   (input)
+ *    dy              : Y coordinate shift in meters                   (input)
+ *    dz              : Z coordinate shift in meters                   (input)
+ *    sourceLongitude : Longitude in radians                           (input)
+ *    sourceLatitude  : Latitude in radians.                           (input)
+ *    sourceHeight    : Height in meters.                              (input)
+ *    targetLongitude : Calculated longitude in radians.               (output)
+ *    targetLatitude  : Calculated latitude in radians.                (output)
+ *    targetHeight    : Calculated height in meters.                   (output)
+ */
+
+  double tLon_in;   /* temp longitude                                     */
+  double e2;        /* Intermediate calculations for dp, dl               */
+  double ep2;       /* Intermediate calculations for dp, dl               */
+  double sin_Lat;   /* sin(Latitude_1)                                    */
+  double sin2_Lat;  /* (sin(Latitude_1))^2                                */
+  double sin_Lon;   /* sin(Longitude_1)                                   */
+  double cos_Lat;   /* cos(Latitude_1)                                    */
+  double cos_Lon;   /* cos(Longitude_1)                                   */
+  double w2;        /* Intermediate calculations for dp, dl               */
+  double w;         /* Intermediate calculations for dp, dl               */
+  double w3;        /* Intermediate calculations for dp, dl               */
+  double m;         /* Intermediate calculations for dp, dl               */
+  double n;         /* Intermediate calculations for dp, dl               */
+  double dp;        /* Delta phi                                          */
+  double dp1;       /* Delta phi calculations                             */
+  double dp2;       /* Delta phi calculations                             */
+  double dp3;       /* Delta phi calculations                             */
+  double dl;        /* Delta lambda                                       */
+  double dh;        /* Delta height                                       */
+  double dh1;       /* Delta height calculations                          */
+  double dh2;       /* Delta height calculations                          */
+
+  if (sourceLongitude > PI)
+    tLon_in = sourceLongitude - TWO_PI;
+  else
+    tLon_in = sourceLongitude;
+
+  e2  = 2 * f - f * f;
+  ep2 = e2 / (1 - e2);
+  sin_Lat = sin(sourceLatitude);
+  cos_Lat = cos(sourceLatitude);
+  sin_Lon = sin(tLon_in);
+  cos_Lon = cos(tLon_in);
+  sin2_Lat = sin_Lat * sin_Lat;
+  w2  = 1.0 - e2 * sin2_Lat;
+  w   = sqrt(w2);
+  w3  = w * w2;
+  m   = (a * (1.0 - e2)) / w3;
+  n   = a / w;
+  dp1 = cos_Lat * dz - sin_Lat * cos_Lon * dx - sin_Lat * sin_Lon * dy;
+  dp2 = ((e2 * sin_Lat * cos_Lat) / w) * da;
+  dp3 = sin_Lat * cos_Lat * (2.0 * n + ep2 * m * sin2_Lat) * (1.0 - f) * df;
+  dp  = (dp1 + dp2 + dp3) / (m + sourceHeight);
+  dl  = (-sin_Lon * dx + cos_Lon * dy) / ((n + sourceHeight) * cos_Lat);
+  dh1 = (cos_Lat * cos_Lon * dx) + (cos_Lat * sin_Lon * dy) + (sin_Lat * dz);
+  dh2 = -(w * da) + ((a * (1 - f)) / w) * sin2_Lat * df;
+  dh  = dh1 + dh2;
+
+  double targetLatitude = sourceLatitude + dp;
+  double targetLongitude = sourceLongitude + dl;
+  double targetHeight = sourceHeight + dh;
+
+  if (targetLongitude > TWO_PI)
+    targetLongitude -= TWO_PI;
+  if (targetLongitude < (- PI))
+    targetLongitude += TWO_PI;
+
+  targetCoordinates = GeodeticCoordinates(
+     CoordinateType::geodetic, targetLongitude, targetLatitude, targetHeight );
+}
+
+
+void DatumTransformPlan::geodeticShiftWGS84ToWGS72(
+   double               WGS84_a,
+   double               WGS84_f,
+   double               WGS72_a,
+   double               WGS72_f,
+   double               WGS84Longitude,
+   double               WGS84Latitude,
+   double               WGS84Height,
+   GeodeticCoordinates& wgs72Coordinates )
+{
+/*
+ *  The function geodeticShiftWGS84ToWGS72 shifts a geodetic coordinate (latitude, longitude in radians
+ *  and height in meters) relative to WGS84 to a geodetic coordinate
+ *  (latitude, longitude in radians and height in meters) relative to WGS72.
+ *
+ *  WGS84_a        : Semi-major axis of WGS84 ellipsoid         (input)
+ *  WGS84_f        : Flattening of WGS84 ellipsoid              (input)
+ *  WGS72_a        : Semi-major axis of WGS72 ellipsoid         (input)
+ *  WGS72_f        : Flattening of WGS72 ellipsoid              (input)
+ *  WGS84Longitude : Longitude in radians relative to WGS84    (input)
+ *  WGS84Latitude  : Latitude in radians relative to WGS84     (input)
+ *  WGS84Height    : Height in meters  relative to WGS84       (input)
+ *  WGS72Longitude : Longitude in radians relative to WGS72    (output)
+ *  WGS72Latitude  : Latitude in radians relative to WGS72     (output)
+ *  WGS72Height    : Height in meters relative to WGS72        (output)
+ */
+
+  double Delta_Lat;
+  double Delta_Lon;
+  double Delta_Hgt;
+  double da;            /* WGS72_a - WGS84_a                                */
+  double df;            /* WGS72_f - WGS84_f                                */
+  double Q;
+  double sin_Lat;
+  double sin2_Lat;
+
+  da = WGS72_a - WGS84_a;
+  df = WGS72_f - WGS84_f;
+  Q = PI / 648000;
+  sin_Lat = sin(WGS84Latitude);
+  sin2_Lat = sin_Lat * sin_Lat;
+
+  Delta_Lat = (-4.5 * cos(WGS84Latitude)) / (WGS84_a*Q)
+              + (df * sin(2*WGS84Latitude)) / Q;
+  Delta_Lat /= SECONDS_PER_RADIAN;
+  Delta_Lon = -0.554 / SECONDS_PER_RADIAN;
+  Delta_Hgt = -4.5 * sin_Lat + WGS84_a * df * sin2_Lat - da - 1.4;
+
+  double wgs72Latitude = WGS84Latitude + Delta_Lat;
+  double wgs72Longitude = WGS84Longitude + Delta_Lon;
+  double wgs72Height = WGS84Height + Delta_Hgt;
+
+  if (wgs72Latitude > PI_OVER_2)
+    wgs72Latitude = PI_OVER_2 - (wgs72Latitude - PI_OVER_2);
+  else if (wgs72Latitude < -PI_OVER_2)
+    wgs72Latitude = -PI_OVER_2  - (wgs72Latitude + PI_OVER_2);
+
+  if (wgs72Longitude > PI)
+    wgs72Longitude -= TWO_PI;
+  if (wgs72Longitude < -PI)
+    wgs72Longitude += TWO_PI;
+
+  wgs72Coordinates = GeodeticCoordinates(CoordinateType::geodetic, wgs72Longitude, wgs72Latitude, wgs72Height);
+}
+
+
+void DatumTransformPlan::geodeticShiftWGS72ToWGS84(
+   double               WGS84_a,
+   double               WGS84_f,
+   double               WGS72_a,
+   double               WGS72_f,
+   double               WGS72Longitude,
+   double               WGS72Latitude,
+   double               WGS72Height,
+   GeodeticCoordinates& wgs84Coordinates )
+{
+/*
+ *  The function geodeticShiftWGS72ToWGS84 shifts a geodetic coordinate (latitude, longitude in radians
+ *  and height in meters) relative to WGS72 to a geodetic coordinate
+ *  (latitude, longitude in radians and height in meters) relative to WGS84.
+ *
+ *  WGS84_a        : Semi-major axis of WGS84 ellipsoid         (input)
+ *  WGS84_f        : Flattening of WGS84 ellipsoid              (input)
+ *  WGS72_a        : Semi-major axis of WGS72 ellipsoid         (input)
+ *  WGS72_f        : Flattening of WGS72 ellipsoid              (input)
+ *  WGS72Longitude : Longitude in radians relative to WGS72    (input)
+ *  WGS72Latitude  : Latitude in radians relative to WGS72     (input)
+ *  WGS72Height    : Height in meters relative to WGS72        (input)
+ *  WGS84Longitude : Longitude in radians relative to WGS84    (output)
+ *  WGS84Latitude  : Latitude in radians relative to WGS84     (output)
+ *  WGS84Height    : Height in meters  relative to WGS84       (output)
+ */
+
+  double Delta_Lat;
+  double Delta_Lon;
+  double Delta_Hgt;
+  double da;            /* WGS84_a - WGS72_a                                */
+  double df;            /* WGS84_f - WGS72_f                                */
+  double Q;
+  double sin_Lat;
+  double sin2_Lat;
+
+  da = WGS84_a - WGS72_a;
+  df = WGS84_f - WGS72_f;
+  Q = PI /  648000;
+  sin_Lat = sin(WGS72Latitude);
+  sin2_Lat = sin_Lat * sin_Lat;
+
+  Delta_Lat = (4.5 * cos(WGS72Latitude)) / (WGS72_a*Q) + (df * sin(2*WGS72Latitude)) / Q;
+  Delta_Lat /= SECONDS_PER_RADIAN;
+  Delta_Lon = 0.554 / SECONDS_PER_RADIAN;
+  Delta_Hgt = 4.5 * sin_Lat + WGS72_a * df * sin2_Lat - da + 1.4;
+
+  double wgs84Latitude = WGS72Latitude + Delta_Lat;
+  double wgs84Longitude = WGS72Longitude + Delta_Lon;
+  double wgs84Height = WGS72Height + Delta_Hgt;
+
+  if (wgs84Latitude > PI_OVER_2)
+    wgs84Latitude = PI_OVER_2 - (wgs84Latitude - PI_OVER_2);
+  else if (wgs84Latitude < -PI_OVER_2)
+    wgs84Latitude = -PI_OVER_2  - (wgs84Latitude + PI_OVER_2);
+
+  if (wgs84Longitude > PI)
+    wgs84Longitude -= TWO_PI;
+  if (wgs84Longitude < -PI)
+    wgs84Longitude += TWO_PI;
+
+  wgs84Coordinates = GeodeticCoordinates(CoordinateType::geodetic, wgs84Longitude, wgs84Latitude, wgs84Height);
+}
+
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,395 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+#ifndef DatumTransformPlan_H
+#define DatumTransformPlan_H
+
+/***************************************************************************/
+/* RSC IDENTIFIER: Datum Transform Plan
+ *
+ * ABSTRACT
+ *
+ *    This component shifts coordinates from one datum to another using
+ *    parameters gathered once, when the plan is created by the Datum
+ *    Library, instead of looking up the datums and their ellipsoids for
+ *    every point.
+ *
+ *    A plan holds the translations, rotations and scale factor of both
+ *    datums, the parameters of their ellipsoids and of the WGS 84 and
+ *    WGS 72 ellipsoids, and a geocentric converter for each ellipsoid.
+ *    When neither datum is WGS 72, the shifts of the source datum to WGS 84
+ *    and of WGS 84 to the target datum are combined into one geocentric
+ *    transformation: a 3x3 matrix, holding the rotations and scale factors,
+ *    and a translation.
+ *
+ *    Geodetic shifts follow the methods of the Datum Library: Molodensky's
+ *    method for 3-parameter datums away from the poles, and the 3-step
+ *    method (through geocentric coordinates) for 7-parameter datums and
+ *    near the poles.  When both datums are 7-parameter datums, the combined
+ *    transformation is applied directly, without the intermediate WGS 84
+ *    coordinates.  shiftToWGS84 and shiftFromWGS84 give the same results as
+ *    the geodeticShiftToWGS84 and geodeticShiftFromWGS84 functions of the
+ *    Datum Library.
+ *
+ *    A plan is a snapshot: it is not affected by datums defined or removed
+ *    after it is created.  Plans are not changed once created, so one plan
+ *    may be used by several threads at once.
+ *
+ * ERROR HANDLING
+ *
+ *    The single point functions throw a CoordinateConversionException
+ *    for coordinates that cannot be shifted.  The batch functions set
+ *    errorMessages[i] to the error message of each point that cannot be
+ *    shifted, and to 0 otherwise; the outputs of such points are set to 0.
+ *
+ * REUSE NOTES
+ *
+ *    DatumTransformPlan is intended for reuse by any application that
+ *    shifts many coordinates between the same two datums.
+ *
+ * MODIFICATIONS
+ *
+ *    Date         Description
+ *    ----         -----------
+ *    10/17/26     Original Code
+ *    10/17/26     Added geodeticShift returning the WGS84 coordinates,
+ *                 used by the Coordinate Conversion Service
+ */
+
+
+#include "DatumType.h"
+#include "DtccApi.h"
+
+
+namespace MSP
+{
+  namespace CCS
+  {
+    class CartesianCoordinates;
+    class GeodeticCoordinates;
+    class Geocentric;
+
+
+    class MSP_DTCC_API DatumTransformPlan
+    {
+    friend class DatumLibraryImplementation;
+
+    public:
+
+      ~DatumTransformPlan( void );
+
+
+      /*
+       *  The function sourceIndex returns the index of the source datum in
+       *  the datum table when the plan was created.
+       */
+
+      long sourceIndex() const;
+
+
+      /*
+       *  The function targetIndex returns the index of the target datum in
+       *  the datum table when the plan was created.
+       */
+
+      long targetIndex() const;
+
+
+      /*
+       *  The function geodeticShift shifts geodetic coordinates (latitude,
+       *  longitude in radians and height in meters) relative to the source
+       *  datum to geodetic coordinates relative to the target datum.
+       *
+       *  sourceCoordinates : Coordinates relative to the source datum (input)
+       *  targetCoordinates : Coordinates relative to the target datum (output)
+       */
+
+      void geodeticShift(
+         const GeodeticCoordinates* sourceCoordinates,
+         GeodeticCoordinates&       targetCoordinates ) const;
+
+
+      /*
+       *  This version of geodeticShift also returns the coordinates
+       *  relative to WGS84, as shiftToWGS84 does, which the Coordinate
+       *  Conversion Service uses to check the datums' validity areas.
+       *  When both datums are 7-parameter datums the WGS84 coordinates are
+       *  computed from the same geocentric coordinates as the target
+       *  coordinates, which are not shifted from them.
+       *
+       *  sourceCoordinates : Coordinates relative to the source datum (input)
+       *  wgs84Coordinates  : Coordinates relative to WGS84            (output)
+       *  targetCoordinates : Coordinates relative to the target datum (output)
+       */
+
+      void geodeticShift(
+         const GeodeticCoordinates* sourceCoordinates,
+         GeodeticCoordinates&       wgs84Coordinates,
+         GeodeticCoordinates&       targetCoordinates ) const;
+
+
+      /*
+       *  This version of geodeticShift shifts count points held in arrays.
+       *  The output arrays may be the input arrays.
+       *
+       *  count           : Number of points                               (input)
+       *  sourceLongitude : Longitudes in radians relative to source datum (input)
+       *  sourceLatitude  : Latitudes in radians relative to source datum  (input)
+       *  sourceHeight    : Heights in meters relative to source datum     (input)
+       *  targetLongitude : Longitudes in radians relative to target datum (output)
+       *  targetLatitude  : Latitudes in radians relative to target datum  (output)
+       *  targetHeight    : Heights in meters relative to target datum     (output)
+       *  errorMessages   : Error message of each point, or 0              (output)
+       */
+
+      void geodeticShift(
+         long         count,
+         const double sourceLongitude[],
+         const double sourceLatitude[],
+         const double sourceHeight[],
+         double       targetLongitude[],
+         double       targetLatitude[],
+         double       targetHeight[],
+         const char*  errorMessages[] ) const;
+
+
+      /*
+       *  The function geocentricShift shifts a geocentric coordinate (X, Y,
+       *  Z in meters) relative to the source datum to a geocentric
+       *  coordinate relative to the target datum.
+       *
+       *  sourceX           : X coordinate relative to the source datum   (input)
+       *  sourceY           : Y coordinate relative to the source datum   (input)
+       *  sourceZ           : Z coordinate relative to the source datum   (input)
+       *  targetCoordinates : Coordinates relative to the target datum    (output)
+       */
+
+      void geocentricShift(
+         double                sourceX,
+         double                sourceY,
+         double                sourceZ,
+         CartesianCoordinates& targetCoordinates ) const;
+
+
+      /*
+       *  This version of geocentricShift shifts count points held in
+       *  arrays.  The output arrays may be the input arrays.
+       *
+       *  count         : Number of points                               (input)
+       *  sourceX       : X coordinates relative to the source datum     (input)
+       *  sourceY       : Y coordinates relative to the source datum     (input)
+       *  sourceZ       : Z coordinates relative to the source datum     (input)
+       *  targetX       : X coordinates relative to the target datum     (output)
+       *  targetY       : Y coordinates relative to the target datum     (output)
+       *  targetZ       : Z coordinates relative to the target datum     (output)
+       *  errorMessages : Error message of each point, or 0              (output)
+       */
+
+      void geocentricShift(
+         long         count,
+         const double sourceX[],
+         const double sourceY[],
+         const double sourceZ[],
+         double       targetX[],
+         double       targetY[],
+         double       targetZ[],
+         const char*  errorMessages[] ) const;
+
+
+      /*
+       *  The function shiftToWGS84 shifts geodetic coordinates relative to
+       *  the source datum to geodetic coordinates relative to WGS84.
+       *
+       *  sourceCoordinates : Coordinates relative to the source datum (input)
+       *  wgs84Coordinates  : Coordinates relative to WGS84            (output)
+       */
+
+      void shiftToWGS84(
+         const GeodeticCoordinates* sourceCoordinates,
+         GeodeticCoordinates&       wgs84Coordinates ) const;
+
+
+      /*
+       *  The function shiftFromWGS84 shifts geodetic coordinates relative
+       *  to WGS84 to geodetic coordinates relative to the target datum.
+       *
+       *  wgs84Coordinates  : Coordinates relative to WGS84            (input)
+       *  targetCoordinates : Coordinates relative to the target datum (output)
+       */
+
+      void shiftFromWGS84(
+         const GeodeticCoordinates* wgs84Coordinates,
+         GeodeticCoordinates&       targetCoordinates ) const;
+
+
+    private:
+
+      /*
+       *  Parameters of one of the datums of the plan.  The translations,
+       *  rotations and scale factor are those of the shift to WGS84.
+       */
+      struct DatumParameters
+      {
+        long            index;
+        DatumType::Enum datumType;
+        double          a;            /* Semi-major axis of ellipsoid in meters */
+        double          f;            /* Flattening of ellipsoid                */
+        double          deltaX;
+        double          deltaY;
+        double          deltaZ;
+        double          rotationX;
+        double          rotationY;
+        double          rotationZ;
+        double          scaleFactor;
+        Geocentric*     geocentric;   /* Converter on the datum's ellipsoid     */
+      };
+
+      DatumParameters source;
+      DatumParameters target;
+
+      double WGS84_a;
+      double WGS84_f;
+      double WGS72_a;
+      double WGS72_f;
+
+      Geocentric* wgs84Geocentric;
+      Geocentric* wgs72Geocentric;
+
+      /* Combined geocentric transformation: target = matrix * source + translation */
+      bool   combined;
+      double matrix[3][3];
+      double translation[3];
+
+
+      /*
+       *  The constructor is used by the Datum Library, which supplies the
+       *  parameters of the datums and ellipsoids.
+       */
+
+      DatumTransformPlan(
+         const DatumParameters& sourceParameters,
+         const DatumParameters& targetParameters,
+         double                 wgs84SemiMajorAxis,
+         double                 wgs84Flattening,
+         double                 wgs72SemiMajorAxis,
+         double                 wgs72Flattening );
+
+
+      DatumTransformPlan( const DatumTransformPlan &p );
+
+
+      DatumTransformPlan& operator=( const DatumTransformPlan &p );
+
+
+      /*
+       *  The function geocentricToWGS84 shifts geocentric coordinates
+       *  relative to a 3- or 7-parameter datum to WGS84, and
+       *  geocentricFromWGS84 shifts them from WGS84 to the datum.
+       */
+
+      static void geocentricToWGS84(
+         const DatumParameters& datum,
+         double                 x,
+         double                 y,
+         double                 z,
+         double&                wgs84X,
+         double&                wgs84Y,
+         double&                wgs84Z );
+
+      static void geocentricFromWGS84(
+         const DatumParameters& datum,
+         double                 wgs84X,
+         double                 wgs84Y,
+         double                 wgs84Z,
+         double&                x,
+         double&                y,
+         double&                z );
+
+
+      /*
+       *  The function molodenskyShift shifts geodetic coordinates
+       *  using the Molodensky method.
+       *
+       *    a               : Semi-major axis of source ellipsoid in meters  (input)
+       *    da              : Destination a minus source a                   (input)
+       *    f               : Flattening of source ellipsoid                 (input)
+       *    df              : Destination f minus source f                   (input)
+       *    dx              : X coordinate shift in meters                   (input)
+       *    dy              : Y coordinate shift in meters                   (input)
+       *    dz              : Z coordinate shift in meters                   (input)
+       *    sourceLongitude : Longitude in radians                           (input)
+       *    sourceLatitude  : Latitude in radians.                           (input)
+       *    sourceHeight    : Height in meters.                              (input)
+       *    targetCoordinates : Shifted coordinates                          (output)
+       */
+
+      static void molodenskyShift(
+         const double         a,
+         const double         da,
+         const double         f,
+         const double         df,
+         const double         dx,
+         const double         dy,
+         const double         dz,
+         const double         sourceLongitude,
+         const double         sourceLatitude,
+         const double         sourceHeight,
+         GeodeticCoordinates& targetCoordinates );
+
+
+      /*
+       *  The functions geodeticShiftWGS84ToWGS72 and geodeticShiftWGS72ToWGS84
+       *  shift geodetic coordinates between WGS84 and WGS72, given the
+       *  parameters of both ellipsoids.
+       */
+
+      static void geodeticShiftWGS84ToWGS72(
+         double               WGS84_a,
+         double               WGS84_f,
+         double               WGS72_a,
+         double               WGS72_f,
+         double               WGS84Longitude,
+         double               WGS84Latitude,
+         double               WGS84Height,
+         GeodeticCoordinates& wgs72Coordinates );
+
+      static void geodeticShiftWGS72ToWGS84(
+         double               WGS84_a,
+         double               WGS84_f,
+         double               WGS72_a,
+         double               WGS72_f,
+         double               WGS72Longitude,
+         double               WGS72Latitude,
+         double               WGS72Height,
+         GeodeticCoordinates& wgs84Coordinates );
+
+
+      /*
+       *  The functions geocentricShiftToWGS84 and geocentricShiftFromWGS84
+       *  shift geocentric coordinates between a datum of the plan and WGS84.
+       */
+
+      void geocentricShiftToWGS84(
+         const DatumParameters& datum,
+         double                 x,
+         double                 y,
+         double                 z,
+         double&                wgs84X,
+         double&                wgs84Y,
+         double&                wgs84Z ) const;
+
+      void geocentricShiftFromWGS84(
+         const DatumParameters& datum,
+         double                 wgs84X,
+         double                 wgs84Y,
+         double                 wgs84Z,
+         double&                x,
+         double&                y,
+         double&                z ) const;
+    };
+  }
+}
+
+#endif
+
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -94,6 +94,15 @@
  *    07/17/12          S.Gillis,MSP_00029561,Fixed problem with creating and 
  *                      deleting ellipsoid
  *    10/08/17          M. Thakkar : LSC-13195 : Fixed array out of bounds error (ELLIPSOID_NAME_LENGTH)
+ *    10/17/26          Ellipsoid table is now a copy-on-write snapshot;
+ *                      readers no longer lock and define/remove publish
+ *                      a new table
+ *    10/17/26          ellipsoidIndex uses a hashed code index
+ *    10/17/26          Ellipsoid table is read through an atomic pointer;
+ *                      replaced tables are retired until the library is
+ *                      deleted
+ *    10/17/26          Retired ellipsoid tables are deleted once no read
+ *                      section can hold them
  */
 
 
@@ -232,20 +241,26 @@ void EllipsoidLibraryImplementation::deleteInstance()
 
 
 EllipsoidLibraryImplementation::EllipsoidLibraryImplementation():
+  ellipsoidTable( 0 ),
+  ellipsoidTableEpoch( 0 ),
   _datumLibraryImplementation( 0 )
 {
    /*
     * The constructor loads ellipsoids from data file. 
     */
+   ellipsoidTableReaders[0].store( 0 );
+   ellipsoidTableReaders[1].store( 0 );
+
    loadEllipsoids();
 }
 
 
-EllipsoidLibraryImplementation::EllipsoidLibraryImplementation( const EllipsoidLibraryImplementation &el )
+EllipsoidLibraryImplementation::EllipsoidLibraryImplementation( const EllipsoidLibraryImplementation &el ):
+  ellipsoidTable( new EllipsoidTable( *el.currentEllipsoidTable() ) ),
+  ellipsoidTableEpoch( 0 )
 {
-  int size = el.ellipsoidList.size();
-  for( int i = 0; i < size; i++ )
-    ellipsoidList.push_back( new Ellipsoid( *( el.ellipsoidList[i] ) ) );
+  ellipsoidTableReaders[0].store( 0 );
+  ellipsoidTableReaders[1].store( 0 );
 
   _datumLibraryImplementation = el._datumLibraryImplementation;
 }
@@ -253,13 +268,11 @@ EllipsoidLibraryImplementation::EllipsoidLibraryImplementation( const EllipsoidL
 
 EllipsoidLibraryImplementation::~EllipsoidLibraryImplementation()
 {
-  std::vector<Ellipsoid*>::iterator iter = ellipsoidList.begin();
-  while( iter != ellipsoidList.end() )
-	{
-		delete( *iter );
-    iter++;
-	}
-  ellipsoidList.clear();
+  delete ellipsoidTable.load();
+
+  for( size_t i = 0; i < retiredEllipsoidTables.size(); i++ )
+    delete retiredEllipsoidTables[i].table;
+  retiredEllipsoidTables.clear();
 
   _datumLibraryImplementation = 0;
 }
@@ -270,9 +283,9 @@ EllipsoidLibraryImplementation& EllipsoidLibraryImplementation::operator=( const
   if ( &el == this )
 	  return *this;
 
-  int size = el.ellipsoidList.size();
-  for( int i = 0; i < size; i++ )
-    ellipsoidList[i] = new Ellipsoid( *( el.ellipsoidList[i] ) );
+  CCSThreadLock lock(&mutex);
+
+  publishEllipsoidTable( new EllipsoidTable( *el.currentEllipsoidTable() ) );
 
   _datumLibraryImplementation = el._datumLibraryImplementation;
 
@@ -298,16 +311,18 @@ void EllipsoidLibraryImplementation::defineEllipsoid( const char* code, const ch
  */
 
   long code_length = 0;
-  char *PathName = NULL;
-  char FileName[FILENAME_LENGTH];
   char ellipsoid_code[ELLIPSOID_CODE_LENGTH];
-  FILE *fp = NULL;                    /* File pointer to file ellips.dat     */
   long index = 0;
-  long numEllipsoids = ellipsoidList.size();
   double inv_f = 1 / flattening;
 
+  // serialize writers; readers keep using the current table
+  CCSThreadLock lock(&mutex);
+
+  std::unique_ptr< EllipsoidTable > table(
+     new EllipsoidTable( *currentEllipsoidTable() ) );
+
 #ifdef NDK_BUILD
-  __android_log_print(ANDROID_LOG_VERBOSE, "GtApp", "numEllipsoid %d ", numEllipsoids );
+  __android_log_print(ANDROID_LOG_VERBOSE, "GtApp", "numEllipsoid %d ", table->ellipsoidList.size() );
 #endif
 
   // assume the ellipsoid code is new
@@ -346,57 +361,15 @@ void EllipsoidLibraryImplementation::defineEllipsoid( const char* code, const ch
 
   double semiMinorAxis = semiMajorAxis * ( 1 - flattening );
   double eccentricitySquared = 2.0 * flattening - flattening * flattening;
-  ellipsoidList.push_back( new Ellipsoid( index, ellipsoid_code, ( char* )name, 
-        semiMajorAxis, semiMinorAxis, flattening, eccentricitySquared, true ) );
+  table->ellipsoidList.push_back( EllipsoidPtr( new Ellipsoid( index, ellipsoid_code,
+        ( char* )name, semiMajorAxis, semiMinorAxis, flattening,
+        eccentricitySquared, true ) ) );
 
-  numEllipsoids++;
+  writeEllipsoidFile( table->ellipsoidList );
 
-  CCSThreadLock lock(&mutex);
+  table->buildIndex();
 
-  /*output updated ellipsoid table*/
-  PathName = getenv( "MSPCCS_DATA" );
-  if( PathName != NULL )
-  {
-     strcpy( FileName, PathName );
-     strcat( FileName, "/" );
-  }
-  else
-  {
-     strcpy( FileName, "../../data/" );
-  }
-  strcat( FileName, "ellips.dat" );
-
-  if( ( fp = fopen( FileName, "w" ) ) == NULL )
-  { /* fatal error */
-     throw CoordinateConversionException( ErrorMessages::ellipsoidFileOpenError );
-  }
-
-  /* write file */
-  index = 0;
-  while( index < numEllipsoids )
-  {
-     if( ellipsoidList[index]->userDefined() )
-     {
-        fprintf( fp, "*%-28s  %-2s %11.9f %12.9f %13.13f \n",
-           ellipsoidList[index]->name(),
-           ellipsoidList[index]->code(),
-           ellipsoidList[index]->semiMajorAxis(),
-           ellipsoidList[index]->semiMinorAxis(),
-           1 / ellipsoidList[index]->flattening() );
-     }
-     else
-     {
-        fprintf( fp, "%-29s  %-2s %11.9f %12.9f %13.13f \n",
-           ellipsoidList[index]->name(),
-           ellipsoidList[index]->code(),
-           ellipsoidList[index]->semiMajorAxis(),
-           ellipsoidList[index]->semiMinorAxis(),
-           1 / ellipsoidList[index]->flattening() );
-     }
-     index++;
-  }
-
-  fclose( fp );
+  publishEllipsoidTable( table.release() );
 } 
 
 
@@ -415,12 +388,16 @@ void EllipsoidLibraryImplementation::removeEllipsoid( const char* code )
  */
 
   long index = 0;
-  char *PathName = NULL;
-  char FileName[FILENAME_LENGTH];
-  FILE *fp = NULL;                    /* File pointer to file ellips.dat     */
+
+  // serialize writers; readers keep using the current table
+  CCSThreadLock lock(&mutex);
 
   ellipsoidIndex( code, &index );
-  if( ellipsoidList[index]->userDefined() )
+
+  std::unique_ptr< EllipsoidTable > table(
+     new EllipsoidTable( *currentEllipsoidTable() ) );
+
+  if( table->ellipsoidList[index]->userDefined() )
   {
     if( _datumLibraryImplementation )
     {
@@ -431,54 +408,13 @@ void EllipsoidLibraryImplementation::removeEllipsoid( const char* code )
   else
     throw CoordinateConversionException( ErrorMessages::notUserDefined );
 
-   ellipsoidList.erase( ellipsoidList.begin() + index ); 
-
-   int numEllipsoids = ellipsoidList.size();
-
-   CCSThreadLock lock(&mutex);
-
-   /*output updated ellipsoid table*/
-   PathName = getenv( "MSPCCS_DATA" );
-   if( PathName != NULL )
-   {
-      strcpy( FileName, PathName );
-      strcat( FileName, "/" );
-   }
-   else
-   {
-      strcpy( FileName, "../../data/" );
-   }
-   strcat( FileName, "ellips.dat" );
-   if( ( fp = fopen( FileName, "w" ) ) == NULL )
-   { /* fatal error */
-      throw CoordinateConversionException( ErrorMessages::ellipsoidFileOpenError );
-   }
-   /* write file */
-   index = 0;
-   while( index < numEllipsoids )
-   {
-      if( ellipsoidList[index]->userDefined() )
-      {
-         fprintf(fp, "*%-28s  %-2s %11.3f %12.4f %13.9f \n",
-            ellipsoidList[index]->name(),
-            ellipsoidList[index]->code(),
-            ellipsoidList[index]->semiMajorAxis(),
-            ellipsoidList[index]->semiMinorAxis(),
-            1 / ellipsoidList[index]->flattening() );
-      }
-      else
-      {
-         fprintf(fp, "*%-29s  %-2s %11.3f %12.4f %13.9f \n",
-            ellipsoidList[index]->name(),
-            ellipsoidList[index]->code(),
-            ellipsoidList[index]->semiMajorAxis(),
-            ellipsoidList[index]->semiMinorAxis(),
-            1 / ellipsoidList[index]->flattening() );
-      }
-      index++;
-   }
-
-   fclose( fp );
+  table->ellipsoidList.erase( table->ellipsoidList.begin() + index ); 
+
+  writeEllipsoidFile( table->ellipsoidList );
+
+  table->buildIndex();
+
+  publishEllipsoidTable( table.release() );
 }
 
 
@@ -493,6 +429,9 @@ void EllipsoidLibraryImplementation::ellipsoidCount( long *count )
  *
  */
 
+  EllipsoidTablePtr table = currentEllipsoidTable();
+  const EllipsoidList& ellipsoidList = table->ellipsoidList;
+
   *count = ellipsoidList.size();
 } 
 
@@ -510,8 +449,10 @@ void EllipsoidLibraryImplementation::ellipsoidIndex( const char *code, long* ind
  *
  */
 
+  EllipsoidTablePtr table = currentEllipsoidTable();
+  const EllipsoidList& ellipsoidList = table->ellipsoidList;
+
   char temp_code[3];
-  long i = 0;                   /* index for ellipsoid table */
   long j = 0;
 
   while( j < ELLIPSOID_CODE_LENGTH )
@@ -521,27 +462,16 @@ void EllipsoidLibraryImplementation::ellipsoidIndex( const char *code, long* ind
   }
   temp_code[ELLIPSOID_CODE_LENGTH - 1] = 0;
 
-  int numEllipsoids = ellipsoidList.size();
-
 #ifdef NDK_BUILD
-  __android_log_print(ANDROID_LOG_VERBOSE, "GtApp", "ellipsoid code %s %d ", code, numEllipsoids );
+  __android_log_print(ANDROID_LOG_VERBOSE, "GtApp", "ellipsoid code %s %d ", code, ellipsoidList.size() );
 #endif
 
-  while( ( i < numEllipsoids )
-         && strcmp( temp_code, ellipsoidList[i]->code() ) )
-  {
-    i++;
-  }
-
-  if( i == numEllipsoids )
+  EllipsoidTable::CodeIndex::const_iterator iter =
+     table->codeIndex.find( temp_code );
+  if( iter == table->codeIndex.end() )
     throw CoordinateConversionException( ErrorMessages::invalidEllipsoidCode );
   else
-  {
-    if ( strcmp( temp_code, ellipsoidList[i]->code() ) )
-      throw CoordinateConversionException( ErrorMessages::invalidEllipsoidCode );
-    else
-      *index = i;
-  }
+    *index = iter->second;
 } 
 
 
@@ -557,6 +487,9 @@ void EllipsoidLibraryImplementation::ellipsoidCode( const long index, char *code
  *
  */
 
+  EllipsoidTablePtr table = currentEllipsoidTable();
+  const EllipsoidList& ellipsoidList = table->ellipsoidList;
+
   strcpy( code, "" );
 
   if ( ( index < 0 ) || ( index >= ellipsoidList.size() ) )
@@ -579,6 +512,9 @@ void EllipsoidLibraryImplementation::ellipsoidName( const long index, char *name
  *
  */
 
+  EllipsoidTablePtr table = currentEllipsoidTable();
+  const EllipsoidList& ellipsoidList = table->ellipsoidList;
+
   strcpy( name,"" );
 
   if( ( index < 0 ) || ( index >= ellipsoidList.size() ) )
@@ -601,6 +537,9 @@ void EllipsoidLibraryImplementation::ellipsoidParameters( const long index, doub
  *
  */
 
+  EllipsoidTablePtr table = currentEllipsoidTable();
+  const EllipsoidList& ellipsoidList = table->ellipsoidList;
+
   *a = 0;
   *f = 0;
 
@@ -608,7 +547,7 @@ void EllipsoidLibraryImplementation::ellipsoidParameters( const long index, doub
     throw CoordinateConversionException( ErrorMessages::invalidIndex );
   else
   {
-    Ellipsoid* ellipsoid = ellipsoidList[index];
+    Ellipsoid* ellipsoid = ellipsoidList[index].get();
     *a = ellipsoid->semiMajorAxis();
     *f = ellipsoid->flattening();
   }
@@ -627,6 +566,9 @@ void EllipsoidLibraryImplementation::ellipsoidEccentricity2( const long index, d
  *
  */
 
+  EllipsoidTablePtr table = currentEllipsoidTable();
+  const EllipsoidList& ellipsoidList = table->ellipsoidList;
+
   *eccentricitySquared = 0;
 
   if( ( index < 0 ) || ( index >= ellipsoidList.size() ) )
@@ -649,6 +591,9 @@ void EllipsoidLibraryImplementation::ellipsoidUserDefined( const long index, lon
  *
  */
 
+  EllipsoidTablePtr table = currentEllipsoidTable();
+  const EllipsoidList& ellipsoidList = table->ellipsoidList;
+
   *result = false;
 
   if( ( index < 0 ) || ( index >= ellipsoidList.size() ) )
@@ -693,6 +638,8 @@ void EllipsoidLibraryImplementation::loadEllipsoids()
 
   CCSThreadLock lock(&mutex);
 
+  std::unique_ptr< EllipsoidTable > table( new EllipsoidTable );
+
   /*  Check the environment for a user provided path, else current directory;   */
   /*  Build a File Name, including specified or default path:                   */
 
@@ -769,7 +716,7 @@ void EllipsoidLibraryImplementation::loadEllipsoids()
         __android_log_print(ANDROID_LOG_VERBOSE, "GtApp", "recpF %f", recpF);
 #endif
 
-        ellipsoidList.push_back( new Ellipsoid( index, code, name, semiMajorAxis, semiMinorAxis, flattening, eccentricitySquared, userDefined ) );
+        table->ellipsoidList.push_back( EllipsoidPtr( new Ellipsoid( index, code, name, semiMajorAxis, semiMinorAxis, flattening, eccentricitySquared, userDefined ) ) );
 
         index++;
      }
@@ -779,6 +726,192 @@ void EllipsoidLibraryImplementation::loadEllipsoids()
 
   delete [] FileName;
   FileName = 0;
+
+  table->buildIndex();
+
+  publishEllipsoidTable( table.release() );
+}
+
+
+void EllipsoidLibraryImplementation::EllipsoidTable::buildIndex()
+{
+/*
+ * The function buildIndex rebuilds the ellipsoid code index from
+ * ellipsoidList.  If a code appears more than once the first entry wins,
+ * matching the order of a table scan.
+ */
+
+  codeIndex.clear();
+  codeIndex.reserve( ellipsoidList.size() );
+
+  long numEllipsoids = ellipsoidList.size();
+  for( long i = 0; i < numEllipsoids; i++ )
+    codeIndex.insert( CodeIndex::value_type( ellipsoidList[i]->code(), i ) );
+}
+
+
+EllipsoidLibraryImplementation::EllipsoidTablePtr::EllipsoidTablePtr(
+   const EllipsoidLibraryImplementation* library )
+{
+/*
+ * Starts a read section: counts it in the reader count of the current
+ * epoch, then loads the current table.  If the epoch changes before the
+ * section is counted, reclaimEllipsoidTables may already have checked
+ * that count, so the section is counted again in the new epoch.
+ */
+
+  for( ;; )
+  {
+    unsigned long epoch = library->ellipsoidTableEpoch.load();
+    readerCount = &library->ellipsoidTableReaders[epoch & 1];
+    readerCount->fetch_add( 1 );
+    if( library->ellipsoidTableEpoch.load() == epoch )
+      break;
+    readerCount->fetch_sub( 1 );
+  }
+
+  table = library->ellipsoidTable.load();
+}
+
+
+EllipsoidLibraryImplementation::EllipsoidTablePtr::EllipsoidTablePtr(
+   EllipsoidTablePtr&& ptr ):
+  readerCount( ptr.readerCount ),
+  table( ptr.table )
+{
+  ptr.readerCount = 0;
+  ptr.table = 0;
+}
+
+
+EllipsoidLibraryImplementation::EllipsoidTablePtr::~EllipsoidTablePtr()
+{
+  if( readerCount )
+    readerCount->fetch_sub( 1, std::memory_order_release );
+}
+
+
+EllipsoidLibraryImplementation::EllipsoidTablePtr
+EllipsoidLibraryImplementation::currentEllipsoidTable() const
+{
+/*
+ * The function currentEllipsoidTable starts a read section on the current
+ * ellipsoid table snapshot.  Concurrent readers share no lock.
+ */
+
+  return EllipsoidTablePtr( this );
+}
+
+
+void EllipsoidLibraryImplementation::publishEllipsoidTable(
+   const EllipsoidTable* table )
+{
+/*
+ * The function publishEllipsoidTable atomically replaces the current
+ * ellipsoid table.  Readers holding the previous table are not affected;
+ * it is retired, tagged with the current epoch, and deleted by
+ * reclaimEllipsoidTables once no read section can hold it.
+ *
+ *   table  : New ellipsoid table                                  (input)
+ */
+
+  RetiredEllipsoidTable retired = { 0, ellipsoidTableEpoch.load() };
+  retiredEllipsoidTables.reserve( retiredEllipsoidTables.size() + 1 );
+
+  retired.table = ellipsoidTable.exchange( table );
+  if( retired.table )
+    retiredEllipsoidTables.push_back( retired );
+
+  reclaimEllipsoidTables();
+}
+
+
+void EllipsoidLibraryImplementation::reclaimEllipsoidTables()
+{
+/*
+ * The function reclaimEllipsoidTables deletes retired tables and advances
+ * the epoch while the read sections of the previous epoch have all ended.
+ * See DatumLibraryImplementation::reclaimDatumTables.
+ */
+
+  while( !retiredEllipsoidTables.empty() )
+  {
+    unsigned long epoch = ellipsoidTableEpoch.load();
+    if( ellipsoidTableReaders[( epoch + 1 ) & 1].load() != 0 )
+      break;
+
+    size_t kept = 0;
+    for( size_t i = 0; i < retiredEllipsoidTables.size(); i++ )
+    {
+      if( retiredEllipsoidTables[i].epoch < epoch )
+        delete retiredEllipsoidTables[i].table;
+      else
+        retiredEllipsoidTables[kept++] = retiredEllipsoidTables[i];
+    }
+    retiredEllipsoidTables.resize( kept );
+
+    ellipsoidTableEpoch.store( epoch + 1 );
+  }
+}
+
+
+void EllipsoidLibraryImplementation::writeEllipsoidFile(
+   const EllipsoidList& table )
+{
+/*
+ * The function writeEllipsoidFile writes the ellipsoids in table to the
+ * ellips.dat file.
+ *
+ *   table  : Ellipsoid table to be written                        (input)
+ */
+
+  char *PathName = NULL;
+  char FileName[FILENAME_LENGTH];
+  FILE *fp = NULL;                    /* File pointer to file ellips.dat     */
+
+  /*output updated ellipsoid table*/
+  PathName = getenv( "MSPCCS_DATA" );
+  if( PathName != NULL )
+  {
+     strcpy( FileName, PathName );
+     strcat( FileName, "/" );
+  }
+  else
+  {
+     strcpy( FileName, "../../data/" );
+  }
+  strcat( FileName, "ellips.dat" );
+
+  if( ( fp = fopen( FileName, "w" ) ) == NULL )
+  { /* fatal error */
+     throw CoordinateConversionException( ErrorMessages::ellipsoidFileOpenError );
+  }
+
+  /* write file */
+  long numEllipsoids = table.size();
+  for( long index = 0; index < numEllipsoids; index++ )
+  {
+     if( table[index]->userDefined() )
+     {
+        fprintf( fp, "*%-28s  %-2s %11.9f %12.9f %13.13f \n",
+           table[index]->name(),
+           table[index]->code(),
+           table[index]->semiMajorAxis(),
+           table[index]->semiMinorAxis(),
+           1 / table[index]->flattening() );
+     }
+     else
+     {
+        fprintf( fp, "%-29s  %-2s %11.9f %12.9f %13.13f \n",
+           table[index]->name(),
+           table[index]->code(),
+           table[index]->semiMajorAxis(),
+           table[index]->semiMinorAxis(),
+           1 / table[index]->flattening() );
+     }
+  }
+
+  fclose( fp );
 }
 
 // CLASSIFICATION: UNCLASSIFIED
@@ -88,11 +88,20 @@
  *    24-May-99         Added user-defined ellipsoids (GEOTRANS for JMTK)
  *    06-27-06          Moved data file to data directory
  *    03-09-07          Original C++ Code
+ *    10-17-26          Ellipsoid table is now a copy-on-write snapshot;
+ *                      readers no longer lock
+ *    10-17-26          Added hashed ellipsoid code index
+ *    10-17-26          Replaced ellipsoid tables are deleted once no
+ *                      reader can hold them
  *
  */
 
 
 #include <vector>
+#include <memory>
+#include <atomic>
+#include <string>
+#include <unordered_map>
 #include "DtccApi.h"
 
 
@@ -291,11 +300,121 @@ namespace MSP
 
    private:
 
+      typedef std::shared_ptr< Ellipsoid > EllipsoidPtr;
+      typedef std::vector< EllipsoidPtr > EllipsoidList;
+
+      /*
+       * Immutable snapshot of the ellipsoid table.  Readers load a pointer
+       * to the current table with a single atomic load, taking no lock and
+       * touching no reference count; defineEllipsoid and removeEllipsoid
+       * copy it, apply the change and publish the new table atomically.
+       * A replaced table may still be in use by a reader, so it is retired,
+       * and deleted once every read section that could hold it has ended.
+       */
+      struct EllipsoidTable
+      {
+        typedef std::unordered_map< std::string, long > CodeIndex;
+
+        EllipsoidList ellipsoidList;
+
+        /* Ellipsoid code -> index in ellipsoidList */
+        CodeIndex codeIndex;
+
+        /*
+         * The function buildIndex rebuilds codeIndex from ellipsoidList.
+         * Must be called before the table is published.
+         */
+        void buildIndex();
+      };
+
+      /*
+       * Read section on the current ellipsoid table, used like a pointer
+       * to it.  The table is not deleted while the EllipsoidTablePtr
+       * exists.  Starting a read section increments the reader count of
+       * the current epoch; it takes no lock.
+       */
+      class EllipsoidTablePtr
+      {
+      public:
+
+        EllipsoidTablePtr( const EllipsoidLibraryImplementation* library );
+
+        EllipsoidTablePtr( EllipsoidTablePtr&& ptr );
+
+        ~EllipsoidTablePtr();
+
+        const EllipsoidTable* operator->() const { return table; }
+
+        const EllipsoidTable& operator*() const { return *table; }
+
+      private:
+
+        EllipsoidTablePtr( const EllipsoidTablePtr& ptr );
+
+        EllipsoidTablePtr& operator=( const EllipsoidTablePtr& ptr );
+
+        std::atomic< long >*  readerCount;
+        const EllipsoidTable* table;
+      };
+
+      /* Table replaced by publishEllipsoidTable, and the epoch it was replaced in */
+      struct RetiredEllipsoidTable
+      {
+        const EllipsoidTable* table;
+        unsigned long         epoch;
+      };
+
       static CCSThreadMutex mutex;
       static EllipsoidLibraryImplementation* instance;
       static int instanceCount;
 
-      std::vector<Ellipsoid*> ellipsoidList;
+      std::atomic< const EllipsoidTable* > ellipsoidTable;
+
+      /* Incremented by reclaimEllipsoidTables; only changed with mutex held */
+      std::atomic< unsigned long > ellipsoidTableEpoch;
+
+      /* Read sections started in even and odd epochs and not yet ended */
+      mutable std::atomic< long > ellipsoidTableReaders[2];
+
+      /* Tables replaced by publishEllipsoidTable; guarded by mutex */
+      std::vector< RetiredEllipsoidTable > retiredEllipsoidTables;
+
+      /*
+       * The function currentEllipsoidTable starts a read section on the
+       * current ellipsoid table snapshot, which stays valid until the
+       * returned EllipsoidTablePtr is destroyed.
+       */
+
+      EllipsoidTablePtr currentEllipsoidTable() const;
+
+
+      /*
+       * The function reclaimEllipsoidTables deletes the retired tables that
+       * no read section can still hold.  Must be called with mutex held.
+       */
+
+      void reclaimEllipsoidTables();
+
+
+      /*
+       * The function publishEllipsoidTable replaces the current ellipsoid
+       * table with table, which the library then owns.  Must be called with
+       * mutex held.
+       *
+       *   table  : New ellipsoid table                                (input)
+       */
+
+      void publishEllipsoidTable( const EllipsoidTable* table );
+
+
+      /*
+       * The function writeEllipsoidFile writes the ellipsoids in table
+       * to the ellips.dat file.
+       *
+       *   table  : Ellipsoid table to be written                      (input)
+       */
+
+      void writeEllipsoidFile( const EllipsoidList& table );
 
 
       DatumLibraryImplementation* _datumLibraryImplementation;
@@ -183,8 +183,9 @@ Geocentric& Geocentric::operator=( const Geocentric &g )
 }
 
 
-MSP::CCS::CartesianCoordinates* Geocentric::convertFromGeodetic(
-   const MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+void Geocentric::convertFromGeodetic(
+   const MSP::CCS::GeodeticCoordinates* geodeticCoordinates,
+   MSP::CCS::CartesianCoordinates& cartesianCoordinates )
 {
 /*
  * The function convertFromGeodetic converts geodetic coordinates
@@ -228,12 +229,29 @@ MSP::CCS::CartesianCoordinates* Geocentric::convertFromGeodetic(
   double Y = (Rn + height) * Cos_Lat * sin(longitude);
   double Z = ((Rn * (1 - Geocent_e2)) + height) * Sin_Lat;
 
-  return new CartesianCoordinates( CoordinateType::geocentric, X, Y, Z );
+  cartesianCoordinates = CartesianCoordinates( CoordinateType::geocentric, X, Y, Z );
 }
 
 
-MSP::CCS::GeodeticCoordinates* Geocentric::convertToGeodetic(
-   MSP::CCS::CartesianCoordinates* cartesianCoordinates )
+MSP::CCS::CartesianCoordinates* Geocentric::convertFromGeodetic(
+   const MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+{
+/*
+ * The function convertFromGeodetic returns the geocentric coordinates
+ * in a new object, owned by the caller.
+ */
+
+  CartesianCoordinates cartesianCoordinates( CoordinateType::geocentric );
+
+  convertFromGeodetic( geodeticCoordinates, cartesianCoordinates );
+
+  return new CartesianCoordinates( cartesianCoordinates );
+}
+
+
+void Geocentric::convertToGeodetic(
+   MSP::CCS::CartesianCoordinates* cartesianCoordinates,
+   MSP::CCS::GeodeticCoordinates& geodeticCoordinates )
 {
 /*
  * The function convertToGeodetic converts geocentric
@@ -321,8 +339,9 @@ MSP::CCS::GeodeticCoordinates* Geocentric::convertToGeodetic(
            {  /* center of earth */
               latitude = PI_OVER_2;
               height = -Geocent_b;
-              return new GeodeticCoordinates(
+              geodeticCoordinates = GeodeticCoordinates(
                  CoordinateType::geodetic, longitude, latitude, height );
+              return;
            } 
         }
      }
@@ -369,10 +388,26 @@ MSP::CCS::GeodeticCoordinates* Geocentric::convertToGeodetic(
       }
   }
 
-  return new GeodeticCoordinates(
+  geodeticCoordinates = GeodeticCoordinates(
      CoordinateType::geodetic, longitude, latitude, height );
 }
 
+
+MSP::CCS::GeodeticCoordinates* Geocentric::convertToGeodetic(
+   MSP::CCS::CartesianCoordinates* cartesianCoordinates )
+{
+/*
+ * The function convertToGeodetic returns the geodetic coordinates
+ * in a new object, owned by the caller.
+ */
+
+  GeodeticCoordinates geodeticCoordinates( CoordinateType::geodetic );
+
+  convertToGeodetic( cartesianCoordinates, geodeticCoordinates );
+
+  return new GeodeticCoordinates( geodeticCoordinates );
+}
+
 void Geocentric::geocentricToGeodetic(
    const double x,
    const double y,
@@ -71,6 +71,8 @@
  *    3-02-07           Original C++ Code
  *    01/24/11          I. Krinsky    BAEts28121   
  *                      Terrain Service rearchitecture
+ *    10-17-26          Added convertFromGeodetic and convertToGeodetic
+ *                      versions that fill caller-supplied coordinates
  *
  */
 
@@ -134,6 +136,17 @@ namespace MSP
                const MSP::CCS::GeodeticCoordinates* geodeticCoordinates );
 
 
+            /*
+             * This version of convertFromGeodetic stores the geocentric
+             * coordinates in cartesianCoordinates, supplied by the caller,
+             * instead of allocating them.
+             */
+
+            void convertFromGeodetic(
+               const MSP::CCS::GeodeticCoordinates* geodeticCoordinates,
+               MSP::CCS::CartesianCoordinates&      cartesianCoordinates );
+
+
             /*
              * The function convertToGeodetic converts geocentric
              * coordinates (X, Y, Z) to geodetic coordinates (latitude, longitude, 
@@ -151,6 +164,17 @@ namespace MSP
             MSP::CCS::GeodeticCoordinates* convertToGeodetic(
                MSP::CCS::CartesianCoordinates* cartesianCoordinates );
 
+
+            /*
+             * This version of convertToGeodetic stores the geodetic
+             * coordinates in geodeticCoordinates, supplied by the caller,
+             * instead of allocating them.
+             */
+
+            void convertToGeodetic(
+               MSP::CCS::CartesianCoordinates* cartesianCoordinates,
+               MSP::CCS::GeodeticCoordinates&  geodeticCoordinates );
+
          private:
     
             void geocentricToGeodetic(
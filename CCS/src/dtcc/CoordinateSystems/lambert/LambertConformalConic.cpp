@@ -487,8 +487,9 @@ MapProjection6Parameters* LambertConformalConic::get2StandardParallelParameters(
 }
 
 
-MSP::CCS::MapProjectionCoordinates* LambertConformalConic::convertFromGeodetic(
-   MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+void LambertConformalConic::convertFromGeodetic(
+   MSP::CCS::GeodeticCoordinates* geodeticCoordinates,
+   MSP::CCS::MapProjectionCoordinates& mapProjectionCoordinates )
 {
 /*
  * The function convertFromGeodetic converts Geodetic (latitude and
@@ -551,11 +552,28 @@ MSP::CCS::MapProjectionCoordinates* LambertConformalConic::convertFromGeodetic(
   double easting = rho * sin(theta) + Lambert_False_Easting;
   double northing = Lambert_1_rho_olat - rho * cos(theta) + Lambert_False_Northing;
 
-  return new MapProjectionCoordinates( coordinateType, easting, northing );
+  mapProjectionCoordinates = MapProjectionCoordinates( coordinateType, easting, northing );
 }
 
 
-MSP::CCS::GeodeticCoordinates* LambertConformalConic::convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates )
+MSP::CCS::MapProjectionCoordinates* LambertConformalConic::convertFromGeodetic(
+   MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+{
+/*
+ * The function convertFromGeodetic returns the Lambert Conformal Conic
+ * coordinates in a new object, owned by the caller.
+ */
+
+  MapProjectionCoordinates mapProjectionCoordinates( coordinateType );
+
+  convertFromGeodetic( geodeticCoordinates, mapProjectionCoordinates );
+
+  return new MapProjectionCoordinates( mapProjectionCoordinates );
+}
+
+
+void LambertConformalConic::convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates,
+   MSP::CCS::GeodeticCoordinates& geodeticCoordinates )
 {
 /*
  * The function convertToGeodetic converts Lambert Conformal
@@ -666,7 +684,22 @@ MSP::CCS::GeodeticCoordinates* LambertConformalConic::convertToGeodetic( MSP::CC
     longitude = Lambert_Origin_Long;
   }
 
-  return new GeodeticCoordinates( CoordinateType::geodetic, longitude, latitude );
+  geodeticCoordinates = GeodeticCoordinates( CoordinateType::geodetic, longitude, latitude );
+}
+
+
+MSP::CCS::GeodeticCoordinates* LambertConformalConic::convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates )
+{
+/*
+ * The function convertToGeodetic returns the geodetic coordinates
+ * in a new object, owned by the caller.
+ */
+
+  GeodeticCoordinates geodeticCoordinates( CoordinateType::geodetic );
+
+  convertToGeodetic( mapProjectionCoordinates, geodeticCoordinates );
+
+  return new GeodeticCoordinates( geodeticCoordinates );
 }
 
 
@@ -82,6 +82,7 @@
  *    03-05-2005        Original Code
  *    03-02-2007        Original C++ Code
  *    02-25-2009        Merged Lambert 1 and 2
+ *    10-17-2026        Added conversions into caller-supplied coordinates
  *
  */
 
@@ -209,6 +210,15 @@ namespace MSP
       MSP::CCS::MapProjectionCoordinates* convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates );
 
 
+      /*
+       * This version of convertFromGeodetic stores the Lambert Conformal Conic
+       * coordinates in mapProjectionCoordinates, supplied by the caller,
+       * instead of allocating them.
+       */
+
+      void convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates, MSP::CCS::MapProjectionCoordinates& mapProjectionCoordinates );
+
+
       /*
        * The function convertToGeodetic converts Lambert Conformal
        * Conic (1 or 2 Standard Parallel) projection (easting and northing) coordinates to Geodetic
@@ -224,6 +234,15 @@ namespace MSP
 
       MSP::CCS::GeodeticCoordinates* convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates );
 
+
+      /*
+       * This version of convertToGeodetic stores the geodetic
+       * coordinates in geodeticCoordinates, supplied by the caller,
+       * instead of allocating them.
+       */
+
+      void convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates, MSP::CCS::GeodeticCoordinates& geodeticCoordinates );
+
     private:
     
       CoordinateType::Enum coordinateType;
@@ -447,7 +447,8 @@ MercatorScaleFactorParameters* Mercator::getScaleFactorParameters() const
 }
 
 
-MSP::CCS::MapProjectionCoordinates* Mercator::convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+void Mercator::convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates,
+   MSP::CCS::MapProjectionCoordinates& mapProjectionCoordinates )
 {
 /*
  * The function convertFromGeodetic converts geodetic (latitude and
@@ -496,11 +497,27 @@ MSP::CCS::MapProjectionCoordinates* Mercator::convertFromGeodetic( MSP::CCS::Geo
   double easting = Merc_Scale_Factor * semiMajorAxis * Delta_Long
              + Merc_False_Easting;
 
-  return new MapProjectionCoordinates( coordinateType, easting, northing );
+  mapProjectionCoordinates = MapProjectionCoordinates( coordinateType, easting, northing );
 }
 
 
-MSP::CCS::GeodeticCoordinates* Mercator::convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates )
+MSP::CCS::MapProjectionCoordinates* Mercator::convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+{
+/*
+ * The function convertFromGeodetic returns the Mercator coordinates
+ * in a new object, owned by the caller.
+ */
+
+  MapProjectionCoordinates mapProjectionCoordinates( coordinateType );
+
+  convertFromGeodetic( geodeticCoordinates, mapProjectionCoordinates );
+
+  return new MapProjectionCoordinates( mapProjectionCoordinates );
+}
+
+
+void Mercator::convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates,
+   MSP::CCS::GeodeticCoordinates& geodeticCoordinates )
 {
 /*
  * The function convertToGeodetic converts Mercator projection
@@ -546,7 +563,22 @@ MSP::CCS::GeodeticCoordinates* Mercator::convertToGeodetic( MSP::CCS::MapProject
   if (longitude < -PI)
     longitude += TWO_PI;
 
-  return new GeodeticCoordinates( CoordinateType::geodetic, longitude, latitude );
+  geodeticCoordinates = GeodeticCoordinates( CoordinateType::geodetic, longitude, latitude );
+}
+
+
+MSP::CCS::GeodeticCoordinates* Mercator::convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates )
+{
+/*
+ * The function convertToGeodetic returns the geodetic coordinates
+ * in a new object, owned by the caller.
+ */
+
+  GeodeticCoordinates geodeticCoordinates( CoordinateType::geodetic );
+
+  convertToGeodetic( mapProjectionCoordinates, geodeticCoordinates );
+
+  return new GeodeticCoordinates( geodeticCoordinates );
 }
 
 
@@ -75,6 +75,7 @@
  *    ----              -----------
  *    10-02-97          Original Code
  *    03-06-07          Original C++ Code
+ *    10-17-26          Added conversions into caller-supplied coordinates
  *
  */
 
@@ -212,6 +213,15 @@ namespace MSP
       MSP::CCS::MapProjectionCoordinates* convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates );
 
 
+      /*
+       * This version of convertFromGeodetic stores the Mercator
+       * coordinates in mapProjectionCoordinates, supplied by the caller,
+       * instead of allocating them.
+       */
+
+      void convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates, MSP::CCS::MapProjectionCoordinates& mapProjectionCoordinates );
+
+
       /*
        * The function convertToGeodetic converts Mercator projection
        * (easting and northing) coordinates to geodetic (latitude and longitude)
@@ -227,6 +237,15 @@ namespace MSP
 
       MSP::CCS::GeodeticCoordinates* convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates );
 
+
+      /*
+       * This version of convertToGeodetic stores the geodetic
+       * coordinates in geodeticCoordinates, supplied by the caller,
+       * instead of allocating them.
+       */
+
+      void convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates, MSP::CCS::GeodeticCoordinates& geodeticCoordinates );
+
     private:
     
       CoordinateType::Enum coordinateType;
@@ -77,6 +77,8 @@
  *                     the latitude band in MGRS.
  *    1/19/2016        A. Layne MSP_DR30125 Updated to pass ellipsoid code 
  *                     into call to UTM and UTM override.  
+ *    10/17/2026       Added batch conversion from geodetic coordinate
+ *                     arrays, projecting through the UTM batch conversion.
  */
 
 /***************************************************************************/
@@ -198,6 +200,8 @@ using namespace MSP::CCS;
 
 #define EPSILON2 4.99e-4
 
+#define BATCH_SIZE 256  /* points projected together in batches */
+
 struct Latitude_Band
 {
   long letter;            /* letter representing latitude band  */
@@ -633,6 +637,131 @@ MSP::CCS::MGRSorUSNGCoordinates* MGRS::convertFromGeodetic(
 }
 
 
+void MGRS::convertFromGeodetic(
+   long                             count,
+   const double                     longitude[],
+   const double                     latitude[],
+   const long                       precision[],
+   MSP::CCS::MGRSorUSNGCoordinates  mgrsorUSNGCoordinates[] )
+{
+/*
+ * This version of convertFromGeodetic converts count points a block at a
+ * time.  The points of the block outside the polar regions are gathered
+ * and converted to UTM by a single call to the UTM batch conversion, then
+ * each is lettered by fromUTM.  Polar points are converted one at a time.
+ *
+ *    count                 : Number of points                 (input)
+ *    longitude             : Longitudes in radians            (input)
+ *    latitude              : Latitudes in radians             (input)
+ *    precision             : Precision levels of MGRS strings (input)
+ *    mgrsorUSNGCoordinates : MGRS coordinate strings          (output)
+ */
+
+  long        utmIndex[BATCH_SIZE];
+  double      utmLongitude[BATCH_SIZE];
+  double      utmLatitude[BATCH_SIZE];
+  long        utmZone[BATCH_SIZE];
+  char        utmHemisphere[BATCH_SIZE];
+  double      utmEasting[BATCH_SIZE];
+  double      utmNorthing[BATCH_SIZE];
+  const char* utmErrorMessages[BATCH_SIZE];
+
+  for( long start = 0; start < count; start += BATCH_SIZE )
+  {
+    long end = start + BATCH_SIZE;
+    if( end > count )
+      end = count;
+
+    int numUTM = 0;
+
+    for( long i = start; i < end; i++ )
+    {
+      double lat = latitude[i];
+      double lon = longitude[i];
+      const char* errorMessage = 0;
+
+      if ((lat < -PI_OVER_2) || (lat > PI_OVER_2))
+      { /* latitude out of range */
+        errorMessage = ErrorMessages::latitude;
+      }
+      else if ((lon < (-PI - EPSILON)) || (lon > (2*PI + EPSILON)))
+      { /* longitude out of range */
+        errorMessage = ErrorMessages::longitude;
+      }
+      else if ((precision[i] < 0) || (precision[i] > MAX_PRECISION))
+        errorMessage = ErrorMessages::precision;
+
+      if( errorMessage )
+      {
+        mgrsorUSNGCoordinates[i] = MGRSorUSNGCoordinates(
+           CoordinateType::militaryGridReferenceSystem );
+        mgrsorUSNGCoordinates[i].setErrorMessage( errorMessage );
+      }
+      else if((lat >= MIN_MGRS_NON_POLAR_LAT - EPSILON) &&
+              (lat <  MAX_MGRS_NON_POLAR_LAT + EPSILON))
+      {
+        utmIndex[numUTM]     = i;
+        utmLongitude[numUTM] = lon;
+        utmLatitude[numUTM]  = lat;
+        numUTM++;
+      }
+      else
+      {
+        UPSCoordinates* upsCoordinates = 0;
+        try
+        {
+          GeodeticCoordinates geodeticCoordinates(
+             CoordinateType::geodetic, lon, lat );
+          upsCoordinates = ups->convertFromGeodetic( &geodeticCoordinates );
+          MGRSorUSNGCoordinates* coordinates =
+             fromUPS( upsCoordinates, precision[i] );
+          mgrsorUSNGCoordinates[i] = *coordinates;
+          mgrsorUSNGCoordinates[i].setErrorMessage( "" );
+          delete coordinates;
+        }
+        catch( CoordinateConversionException e )
+        {
+          mgrsorUSNGCoordinates[i] = MGRSorUSNGCoordinates(
+             CoordinateType::militaryGridReferenceSystem );
+          mgrsorUSNGCoordinates[i].setErrorMessage( e.getMessage() );
+        }
+        delete upsCoordinates;
+      }
+    }
+
+    utm->convertFromGeodetic(
+       numUTM, utmLongitude, utmLatitude, utmZone, utmHemisphere,
+       utmEasting, utmNorthing, utmErrorMessages );
+
+    for( int j = 0; j < numUTM; j++ )
+    {
+      long i = utmIndex[j];
+
+      try
+      {
+        if( utmErrorMessages[j] )
+          throw CoordinateConversionException( utmErrorMessages[j] );
+
+        UTMCoordinates utmCoordinates(
+           CoordinateType::universalTransverseMercator,
+           utmZone[j], utmHemisphere[j], utmEasting[j], utmNorthing[j] );
+        MGRSorUSNGCoordinates* coordinates = fromUTM(
+           &utmCoordinates, utmLongitude[j], utmLatitude[j], precision[i] );
+        mgrsorUSNGCoordinates[i] = *coordinates;
+        mgrsorUSNGCoordinates[i].setErrorMessage( "" );
+        delete coordinates;
+      }
+      catch( CoordinateConversionException e )
+      {
+        mgrsorUSNGCoordinates[i] = MGRSorUSNGCoordinates(
+           CoordinateType::militaryGridReferenceSystem );
+        mgrsorUSNGCoordinates[i].setErrorMessage( e.getMessage() );
+      }
+    }
+  }
+}
+
+
 MSP::CCS::GeodeticCoordinates* MGRS::convertToGeodetic(
    MSP::CCS::MGRSorUSNGCoordinates* mgrsorUSNGCoordinates )
 {
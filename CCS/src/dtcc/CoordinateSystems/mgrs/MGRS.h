@@ -72,6 +72,7 @@
  *    Date              Description
  *    ----              -----------
  *    2-27-07          Original Code
+ *    10-17-26         Added batch conversion from geodetic coordinate arrays
  */
 
 
@@ -155,6 +156,30 @@ namespace MSP
               MSP::CCS::GeodeticCoordinates* geodeticCoordinates,
               long precision );
 
+      /*
+       * This version of convertFromGeodetic converts count points, held in
+       * separate longitude and latitude arrays, to MGRS coordinate strings
+       * stored in mgrsorUSNGCoordinates, supplied by the caller.  Points
+       * outside the polar regions are projected together by the UTM batch
+       * conversion.  The results are identical to those of the single
+       * point version.  Instead of throwing an exception, the error message
+       * of each point that cannot be converted is set to a description of
+       * the error.
+       *
+       *    count                 : Number of points                 (input)
+       *    longitude             : Longitudes in radians            (input)
+       *    latitude              : Latitudes in radians             (input)
+       *    precision             : Precision levels of MGRS strings (input)
+       *    mgrsorUSNGCoordinates : MGRS coordinate strings          (output)
+       */
+
+           void convertFromGeodetic(
+              long                             count,
+              const double                     longitude[],
+              const double                     latitude[],
+              const long                       precision[],
+              MSP::CCS::MGRSorUSNGCoordinates  mgrsorUSNGCoordinates[] );
+
       /*
        * The function convertToGeodetic converts an MGRS coordinate string
        * to Geodetic (latitude and longitude) coordinates 
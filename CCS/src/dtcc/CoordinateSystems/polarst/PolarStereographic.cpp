@@ -498,7 +498,8 @@ PolarStereographicScaleFactorParameters* PolarStereographic::getScaleFactorParam
 }
 
 
-MSP::CCS::MapProjectionCoordinates* PolarStereographic::convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+void PolarStereographic::convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates,
+   MSP::CCS::MapProjectionCoordinates& mapProjectionCoordinates )
 {
 /*
  * The function convertFromGeodetic converts geodetic
@@ -585,11 +586,27 @@ MSP::CCS::MapProjectionCoordinates* PolarStereographic::convertFromGeodetic( MSP
     }
   }
 
-  return new MapProjectionCoordinates( coordinateType, easting, northing );
+  mapProjectionCoordinates = MapProjectionCoordinates( coordinateType, easting, northing );
 }
 
 
-MSP::CCS::GeodeticCoordinates* PolarStereographic::convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates )
+MSP::CCS::MapProjectionCoordinates* PolarStereographic::convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+{
+/*
+ * The function convertFromGeodetic returns the polar stereographic
+ * coordinates in a new object, owned by the caller.
+ */
+
+  MapProjectionCoordinates mapProjectionCoordinates( coordinateType );
+
+  convertFromGeodetic( geodeticCoordinates, mapProjectionCoordinates );
+
+  return new MapProjectionCoordinates( mapProjectionCoordinates );
+}
+
+
+void PolarStereographic::convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates,
+   MSP::CCS::GeodeticCoordinates& geodeticCoordinates )
 {
 /*
  * The function convertToGeodetic converts Polar
@@ -699,11 +716,26 @@ MSP::CCS::GeodeticCoordinates* PolarStereographic::convertToGeodetic( MSP::CCS::
      longitude *= -1.0;
   }
 
-  return new GeodeticCoordinates(
+  geodeticCoordinates = GeodeticCoordinates(
      CoordinateType::geodetic, longitude, latitude );
 }
 
 
+MSP::CCS::GeodeticCoordinates* PolarStereographic::convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates )
+{
+/*
+ * The function convertToGeodetic returns the geodetic coordinates
+ * in a new object, owned by the caller.
+ */
+
+  GeodeticCoordinates geodeticCoordinates( CoordinateType::geodetic );
+
+  convertToGeodetic( mapProjectionCoordinates, geodeticCoordinates );
+
+  return new GeodeticCoordinates( geodeticCoordinates );
+}
+
+
 double PolarStereographic::polarPow( double esSin )
 {
   return pow((1.0 - esSin) / (1.0 + esSin), es_OVER_2);
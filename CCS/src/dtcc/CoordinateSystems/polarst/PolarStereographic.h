@@ -86,6 +86,7 @@
  *    Date              Description
  *    ----              -----------
  *    2-27-07          Original Code
+ *    10-17-26         Added conversions into caller-supplied coordinates
  *
  *
  */
@@ -203,6 +204,15 @@ namespace MSP
       MSP::CCS::MapProjectionCoordinates* convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates );
 
 
+      /*
+       * This version of convertFromGeodetic stores the polar stereographic
+       * coordinates in mapProjectionCoordinates, supplied by the caller,
+       * instead of allocating them.
+       */
+
+      void convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates, MSP::CCS::MapProjectionCoordinates& mapProjectionCoordinates );
+
+
       /*
        * The function convertToGeodetic converts Polar
        * Stereographic coordinates (easting and northing) to geodetic
@@ -219,6 +229,15 @@ namespace MSP
 
       MSP::CCS::GeodeticCoordinates* convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates );
 
+
+      /*
+       * This version of convertToGeodetic stores the geodetic
+       * coordinates in geodeticCoordinates, supplied by the caller,
+       * instead of allocating them.
+       */
+
+      void convertToGeodetic( MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates, MSP::CCS::GeodeticCoordinates& geodeticCoordinates );
+
     private:
 
       CoordinateType::Enum coordinateType;
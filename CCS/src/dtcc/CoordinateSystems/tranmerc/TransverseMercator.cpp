@@ -27,6 +27,9 @@
  *
  *   10/12/17  S. Holt LSC-16618 Initialized last two elements of aCoeff[] and bCoeff[] to 0.0
  *   10/12/17  S. Holt LSC-9451 Swapped values for TranMerc_Delta_Northing and TranMerc_Delta_Easting
+ *   10/17/26  Added conversions into caller-supplied coordinates.
+ *   10/17/26  Added batch conversions of coordinate arrays, sharing the
+ *             series evaluation with single point conversions.
  */
 #include <iostream>
 
@@ -39,11 +42,28 @@
 #include "CoordinateConversionException.h"
 #include "ErrorMessages.h"
 
+// The series sums are evaluated four points at a time with AVX2
+// instructions when the processor supports them
+#if defined(__GNUC__) && (defined(__x86_64__) || defined(__i386__))
+#include <immintrin.h>
+#define TRANMERC_AVX2
+#define TRANMERC_AVX2_TARGET __attribute__((target("avx2")))
+#define TRANMERC_AVX2_SUPPORTED() __builtin_cpu_supports("avx2")
+#elif defined(_MSC_VER) && defined(__AVX2__)
+#include <immintrin.h>
+#define TRANMERC_AVX2
+#define TRANMERC_AVX2_TARGET
+#define TRANMERC_AVX2_SUPPORTED() true
+#endif
+
 using MSP::CCS::TransverseMercator;
 // Terms in series A and B coefficients
 #define N_TERMS   6
 #define MAX_TERMS 8
 
+// Points converted together by the batch conversions
+#define BATCH_SIZE 64
+
 //                  DEFINES
 #define PI                3.14159265358979323e0
 #define PI_OVER_2         (PI/2.0e0)
@@ -167,8 +187,9 @@ MSP::CCS::MapProjection5Parameters* TransverseMercator::getParameters() const
 }
 
 
-MSP::CCS::MapProjectionCoordinates* TransverseMercator::convertFromGeodetic(
-   MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+void TransverseMercator::convertFromGeodetic(
+   MSP::CCS::GeodeticCoordinates* geodeticCoordinates,
+   MSP::CCS::MapProjectionCoordinates& mapProjectionCoordinates )
 {
    double longitude = geodeticCoordinates->longitude();
    double latitude  = geodeticCoordinates->latitude();
@@ -207,11 +228,27 @@ MSP::CCS::MapProjectionCoordinates* TransverseMercator::convertFromGeodetic(
       strcat( warning,
          "Eccentricity is outside range that algorithm accuracy has been tested." );
 
-   return new MapProjectionCoordinates(
+   mapProjectionCoordinates = MapProjectionCoordinates(
       CoordinateType::transverseMercator, warning, easting, northing );
 }
 
 
+MSP::CCS::MapProjectionCoordinates* TransverseMercator::convertFromGeodetic(
+   MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+{
+/*
+ * The function convertFromGeodetic returns the transverse Mercator
+ * coordinates in a new object, owned by the caller.
+ */
+
+   MapProjectionCoordinates mapProjectionCoordinates( CoordinateType::transverseMercator );
+
+   convertFromGeodetic( geodeticCoordinates, mapProjectionCoordinates );
+
+   return new MapProjectionCoordinates( mapProjectionCoordinates );
+}
+
+
 void TransverseMercator::latLonToNorthingEasting( 
    const double &latitude,
    const double &longitude,
@@ -220,7 +257,6 @@ void TransverseMercator::latLonToNorthingEasting(
 {
    //  Convert longitude (Greenwhich) to longitude from the central meridian
    //  (-Pi, Pi] equivalent needed for checkLatLon.
-   //  Compute its cosine and sine.
    double lambda  = longitude - TranMerc_Origin_Long;
    if (lambda > PI)
       lambda -= (2 * PI);
@@ -228,61 +264,155 @@ void TransverseMercator::latLonToNorthingEasting(
       lambda += (2 * PI);
    checkLatLon( latitude, lambda );
 
-   double cosLam = cos(lambda);
-   double sinLam = sin(lambda);
-   double cosPhi = cos(latitude);
-   double sinPhi = sin(latitude);
-
-   double P, part1, part2, denom, cosChi, sinChi;
-   double U, V;
-   double c2ku[MAX_TERMS], s2ku[MAX_TERMS];
-   double c2kv[MAX_TERMS], s2kv[MAX_TERMS];
-
-   //  Ellipsoid to sphere
-   //  --------- -- ------ 
-
-   //  Convert geodetic latitude, Phi, to conformal latitude, Chi
-   //  Only the cosine and sine of Chi are actually needed.
-   P      = exp(TranMerc_eps * aTanH(TranMerc_eps * sinPhi));
-   part1  = (1 + sinPhi) / P;
-   part2  = (1 - sinPhi) * P;
-   denom  = part1 + part2;
-   cosChi = 2 * cosPhi / denom;
-   sinChi = (part1 - part2) / denom;
+   latLonToNorthingEasting( 1, &latitude, &lambda, &northing, &easting );
+}
 
-   //  Sphere to first plane
-   //  ------ -- ----- ----- 
 
-   // Apply spherical theory of transverse Mercator to get (u,v) coord.s
-   U = aTanH(cosChi * sinLam);
-   V = atan2(sinChi, cosChi * cosLam);
+void TransverseMercator::latLonToNorthingEasting( 
+   int          count,
+   const double latitude[],
+   const double deltaLon[],
+   double       northing[],
+   double       easting[] )
+{
+   double U[BATCH_SIZE], V[BATCH_SIZE];
+   double coshTwoU[BATCH_SIZE], sinhTwoU[BATCH_SIZE];
+   double cosTwoV[BATCH_SIZE], sinTwoV[BATCH_SIZE];
+   double xSum[BATCH_SIZE], ySum[BATCH_SIZE];
 
-   // Use trig identities to compute cosh(2kU), sinh(2kU), cos(2kV), sin(2kV)
-   computeHyperbolicSeries( 2.0 * U, c2ku, s2ku );
-   computeTrigSeries( 2.0 * V, c2kv, s2kv );
+   for( int i = 0; i < count; i++ )
+   {
+      double cosLam = cos(deltaLon[i]);
+      double sinLam = sin(deltaLon[i]);
+      double cosPhi = cos(latitude[i]);
+      double sinPhi = sin(latitude[i]);
+
+      double P, part1, part2, denom, cosChi, sinChi;
+
+      //  Ellipsoid to sphere
+      //  --------- -- ------ 
+
+      //  Convert geodetic latitude, Phi, to conformal latitude, Chi
+      //  Only the cosine and sine of Chi are actually needed.
+      P      = exp(TranMerc_eps * aTanH(TranMerc_eps * sinPhi));
+      part1  = (1 + sinPhi) / P;
+      part2  = (1 - sinPhi) * P;
+      denom  = part1 + part2;
+      cosChi = 2 * cosPhi / denom;
+      sinChi = (part1 - part2) / denom;
+
+      //  Sphere to first plane
+      //  ------ -- ----- ----- 
+
+      // Apply spherical theory of transverse Mercator to get (u,v) coord.s
+      U[i] = aTanH(cosChi * sinLam);
+      V[i] = atan2(sinChi, cosChi * cosLam);
+
+      coshTwoU[i] = cosh(2.0 * U[i]);
+      sinhTwoU[i] = sinh(2.0 * U[i]);
+      cosTwoV[i]  = cos(2.0 * V[i]);
+      sinTwoV[i]  = sin(2.0 * V[i]);
+   }
 
    //  First plane to second plane
    //  Accumulate terms for X and Y
-   double xStar = 0;
-   double yStar = 0;
+   computeSeriesSums(
+      count, TranMerc_aCoeff, coshTwoU, sinhTwoU, cosTwoV, sinTwoV,
+      xSum, ySum );
 
-   for (int k = N_TERMS - 1; k >= 0; k--)
+   for( int i = 0; i < count; i++ )
    {
-      xStar += TranMerc_aCoeff[k] * s2ku[k] * c2kv[k];
-      yStar += TranMerc_aCoeff[k] * c2ku[k] * s2kv[k];
+      double xStar = xSum[i] + U[i];
+      double yStar = ySum[i] + V[i];
+
+      // Apply isoperimetric radius, scale adjustment, and offsets
+      easting[i]  = (TranMerc_K0R4 * xStar);
+      northing[i] = (TranMerc_K0R4 * yStar);
    }
+}
 
-   xStar += U;
-   yStar += V;
 
-   // Apply isoperimetric radius, scale adjustment, and offsets
-   easting  = (TranMerc_K0R4 * xStar);
-   northing = (TranMerc_K0R4 * yStar);
+void TransverseMercator::convertFromGeodetic(
+   long         count,
+   const double longitude[],
+   const double latitude[],
+   double       easting[],
+   double       northing[],
+   const char*  errorMessages[] )
+{
+/*
+ * This version of convertFromGeodetic converts count points, held in the
+ * arrays longitude and latitude, a block of points at a time.  Points
+ * which cannot be converted are given the latitude and longitude of the
+ * origin in the block, and their eastings and northings are set to 0.
+ */
+
+   double falseEasting, falseNorthing;
+   latLonToNorthingEasting(
+      TranMerc_Origin_Lat, TranMerc_Origin_Long, falseNorthing, falseEasting );
+
+   double blockLatitude[BATCH_SIZE], blockDeltaLon[BATCH_SIZE];
+
+   for( long start = 0; start < count; start += BATCH_SIZE )
+   {
+      int blockSize = BATCH_SIZE;
+      if( count - start < BATCH_SIZE )
+         blockSize = (int)(count - start);
+
+      for( int i = 0; i < blockSize; i++ )
+      {
+         double lambda = longitude[start + i];
+         if (lambda > PI)
+            lambda -= (2 * PI);
+         if (lambda < -PI)
+            lambda += (2 * PI);
+
+         //  Convert longitude (Greenwhich) to longitude from the central
+         //  meridian (-Pi, Pi] equivalent needed for checkLatLon.
+         lambda -= TranMerc_Origin_Long;
+         if (lambda > PI)
+            lambda -= (2 * PI);
+         if (lambda < -PI)
+            lambda += (2 * PI);
+
+         if( inLatLonRange( latitude[start + i], lambda ) )
+         {
+            errorMessages[start + i] = 0;
+            blockLatitude[i] = latitude[start + i];
+            blockDeltaLon[i] = lambda;
+         }
+         else
+         {
+            errorMessages[start + i] = ErrorMessages::longitude;
+            blockLatitude[i] = TranMerc_Origin_Lat;
+            blockDeltaLon[i] = 0;
+         }
+      }
+
+      latLonToNorthingEasting(
+         blockSize, blockLatitude, blockDeltaLon,
+         &northing[start], &easting[start] );
+
+      for( long i = start; i < start + blockSize; i++ )
+      {
+         if( errorMessages[i] )
+         {
+            easting[i]  = 0;
+            northing[i] = 0;
+         }
+         else
+         {
+            easting[i]  += TranMerc_False_Easting  - falseEasting;
+            northing[i] += TranMerc_False_Northing - falseNorthing;
+         }
+      }
+   }
 }
 
 
-MSP::CCS::GeodeticCoordinates* TransverseMercator::convertToGeodetic(
-   MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates )
+void TransverseMercator::convertToGeodetic(
+   MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates,
+   MSP::CCS::GeodeticCoordinates& geodeticCoordinates )
 {
    double easting  = mapProjectionCoordinates->easting();
    double northing = mapProjectionCoordinates->northing();
@@ -338,64 +468,188 @@ MSP::CCS::GeodeticCoordinates* TransverseMercator::convertToGeodetic(
       strcat( warning,
          "Eccentricity is outside range that algorithm accuracy has been tested." );
 
-   return new GeodeticCoordinates(
+   geodeticCoordinates = GeodeticCoordinates(
       CoordinateType::geodetic, warning, longitude, latitude );
 }
 
+
+MSP::CCS::GeodeticCoordinates* TransverseMercator::convertToGeodetic(
+   MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates )
+{
+/*
+ * The function convertToGeodetic returns the geodetic coordinates
+ * in a new object, owned by the caller.
+ */
+
+   GeodeticCoordinates geodeticCoordinates( CoordinateType::geodetic );
+
+   convertToGeodetic( mapProjectionCoordinates, geodeticCoordinates );
+
+   return new GeodeticCoordinates( geodeticCoordinates );
+}
+
 void TransverseMercator::northingEastingToLatLon( 
    const double &northing,
    const double &easting,
    double       &latitude,
    double       &longitude )
 {
-   double c2kx[MAX_TERMS], s2kx[MAX_TERMS], c2ky[MAX_TERMS], s2ky[MAX_TERMS];
-   double U, V;
-   double lambda;
-   double sinChi;
+   northingEastingToLatLon( 1, &northing, &easting, &latitude, &longitude );
+}
 
-   //  Undo offsets, scale change, and factor R4
-   //  ---- -------  ----- ------  --- ------ --
-   double xStar = TranMerc_K0R4inv * (easting);
-   double yStar = TranMerc_K0R4inv * (northing);
 
-   // Use trig identities to compute cosh(2kU), sinh(2kU), cos(2kV), sin(2kV)
-   computeHyperbolicSeries( 2.0 * xStar, c2kx, s2kx );
-   computeTrigSeries( 2.0 * yStar, c2ky, s2ky );
+void TransverseMercator::northingEastingToLatLon( 
+   int          count,
+   const double northing[],
+   const double easting[],
+   double       latitude[],
+   double       longitude[] )
+{
+   double xStar[BATCH_SIZE], yStar[BATCH_SIZE];
+   double coshTwoX[BATCH_SIZE], sinhTwoX[BATCH_SIZE];
+   double cosTwoY[BATCH_SIZE], sinTwoY[BATCH_SIZE];
+   double uSum[BATCH_SIZE], vSum[BATCH_SIZE];
+
+   for( int i = 0; i < count; i++ )
+   {
+      //  Undo offsets, scale change, and factor R4
+      //  ---- -------  ----- ------  --- ------ --
+      xStar[i] = TranMerc_K0R4inv * (easting[i]);
+      yStar[i] = TranMerc_K0R4inv * (northing[i]);
+
+      coshTwoX[i] = cosh(2.0 * xStar[i]);
+      sinhTwoX[i] = sinh(2.0 * xStar[i]);
+      cosTwoY[i]  = cos(2.0 * yStar[i]);
+      sinTwoY[i]  = sin(2.0 * yStar[i]);
+   }
 
    //  Second plane (x*, y*) to first plane (u, v)
    //  ------ ----- -------- -- ----- ----- ------
-   U = 0;
-   V = 0;
+   computeSeriesSums(
+      count, TranMerc_bCoeff, coshTwoX, sinhTwoX, cosTwoY, sinTwoY,
+      uSum, vSum );
 
-   for (int k = N_TERMS - 1; k >= 0; k--)
+   for( int i = 0; i < count; i++ )
    {
-      U += TranMerc_bCoeff[k] * s2kx[k] * c2ky[k];
-      V += TranMerc_bCoeff[k] * c2kx[k] * s2ky[k];
+      double U = uSum[i] + xStar[i];
+      double V = vSum[i] + yStar[i];
+      double lambda;
+      double sinChi;
+
+      //  First plane to sphere
+      //  ----- ----- -- ------
+      double coshU = cosh(U);
+      double sinhU = sinh(U);
+      double cosV  = cos(V);
+      double sinV  = sin(V);
+
+      //   Longitude from central meridian
+      if ((fabs(cosV) < 10E-12) && (fabs(coshU) < 10E-12))
+         lambda = 0;
+      else
+         lambda = atan2(sinhU, cosV);
+
+      //   Conformal latitude
+      sinChi = sinV / coshU;
+      latitude[i] = geodeticLat( sinChi, TranMerc_eps );
+
+      // Longitude from Greenwich
+      // --------  ---- ---------
+      longitude[i] = TranMerc_Origin_Long + lambda;
    }
+}
 
-   U += xStar;
-   V += yStar;
 
-   //  First plane to sphere
-   //  ----- ----- -- ------
-   double coshU = cosh(U);
-   double sinhU = sinh(U);
-   double cosV  = cos(V);
-   double sinV  = sin(V);
+void TransverseMercator::convertToGeodetic(
+   long         count,
+   const double easting[],
+   const double northing[],
+   double       longitude[],
+   double       latitude[],
+   const char*  errorMessages[] )
+{
+/*
+ * This version of convertToGeodetic converts count points, held in the
+ * arrays easting and northing, a block of points at a time.  Points
+ * which cannot be converted are given the false easting and northing in
+ * the block, and their longitudes and latitudes are set to 0.
+ */
 
-   //   Longitude from central meridian
-   if ((fabs(cosV) < 10E-12) && (fabs(coshU) < 10E-12))
-      lambda = 0;
-   else
-      lambda = atan2(sinhU, cosV);
+   double falseEasting, falseNorthing;
+   latLonToNorthingEasting(
+      TranMerc_Origin_Lat, TranMerc_Origin_Long, falseNorthing, falseEasting );
+
+   double blockEasting[BATCH_SIZE], blockNorthing[BATCH_SIZE];
+
+   for( long start = 0; start < count; start += BATCH_SIZE )
+   {
+      int blockSize = BATCH_SIZE;
+      if( count - start < BATCH_SIZE )
+         blockSize = (int)(count - start);
+
+      for( int i = 0; i < blockSize; i++ )
+      {
+         double x = easting[start + i];
+         double y = northing[start + i];
+
+         errorMessages[start + i] = 0;
+         if (  (x < (TranMerc_False_Easting - TranMerc_Delta_Easting))
+             ||(x > (TranMerc_False_Easting + TranMerc_Delta_Easting)))
+         { // easting out of range
+            errorMessages[start + i] = ErrorMessages::easting;
+         }
+         else if (   (y < (TranMerc_False_Northing - TranMerc_Delta_Northing))
+                  || (y > (TranMerc_False_Northing + TranMerc_Delta_Northing)))
+         { // northing out of range
+            errorMessages[start + i] = ErrorMessages::northing;
+         }
+
+         if( errorMessages[start + i] )
+         {
+            x = TranMerc_False_Easting;
+            y = TranMerc_False_Northing;
+         }
+
+         blockEasting[i]  = x - (TranMerc_False_Easting  - falseEasting);
+         blockNorthing[i] = y - (TranMerc_False_Northing - falseNorthing);
+      }
 
-   //   Conformal latitude
-   sinChi = sinV / coshU;
-   latitude = geodeticLat( sinChi, TranMerc_eps );
+      northingEastingToLatLon(
+         blockSize, blockNorthing, blockEasting,
+         &latitude[start], &longitude[start] );
 
-   // Longitude from Greenwich
-   // --------  ---- ---------
-   longitude = TranMerc_Origin_Long + lambda;
+      for( long i = start; i < start + blockSize; i++ )
+      {
+         if( !errorMessages[i] )
+         {
+            double lon = longitude[i];
+            lon = (lon >   PI) ? lon - (2 * PI): lon;
+            lon = (lon <= -PI) ? lon + (2 * PI): lon;
+
+            if(fabs(latitude[i]) > (90.0 * PI / 180.0))
+               errorMessages[i] = ErrorMessages::northing;
+            else if((lon) > (PI))
+            {
+               lon -= (2 * PI);
+               if(fabs(lon) > PI)
+                  errorMessages[i] = ErrorMessages::easting;
+            }
+            else if((lon) < (-PI))
+            {
+               lon += (2 * PI);
+               if(fabs(lon) > PI)
+                  errorMessages[i] = ErrorMessages::easting;
+            }
+            longitude[i] = lon;
+         }
+
+         if( errorMessages[i] )
+         {
+            longitude[i] = 0;
+            latitude[i]  = 0;
+         }
+      }
+   }
 }
 
 //                PRIVATE FUNCTIONS
@@ -912,6 +1166,15 @@ void TransverseMercator::generateCoefficients(
 
 
 void TransverseMercator::checkLatLon( double latitude, double deltaLon )
+{
+   if( !inLatLonRange( latitude, deltaLon ) )
+   {
+      throw CoordinateConversionException( ErrorMessages::longitude );
+   }
+}
+
+
+bool TransverseMercator::inLatLonRange( double latitude, double deltaLon )
 {
    // test is based on distance from central meridian = deltaLon
    if (deltaLon > PI)
@@ -938,10 +1201,7 @@ void TransverseMercator::checkLatLon( double latitude, double deltaLon )
    if( delta < testAngle )
       testAngle = delta;
 
-   if( testAngle > MAX_DELTA_LONG )
-   {
-      throw CoordinateConversionException( ErrorMessages::longitude );
-   }
+   return testAngle <= MAX_DELTA_LONG;
 }
 
 
@@ -978,54 +1238,137 @@ double TransverseMercator::geodeticLat(
    return asin(s);
 }
 
-void TransverseMercator::computeHyperbolicSeries(
-   double twoX,
-   double c2kx[],
-   double s2kx[])
+#ifdef TRANMERC_AVX2
+TRANMERC_AVX2_TARGET
+static int computeSeriesSumsAVX2(
+   int          count,
+   const double coeff[],
+   const double coshTwoX[],
+   const double sinhTwoX[],
+   const double cosTwoY[],
+   const double sinTwoY[],
+   double       sumSC[],
+   double       sumCS[])
 {
-   // Use trig identities to compute
-   // c2kx[k] = cosh(2kX), s2kx[k] = sinh(2kX)   for k = 0 .. 8
-   c2kx[0] = cosh(twoX);
-   s2kx[0] = sinh(twoX);
-   c2kx[1] = 2.0 * c2kx[0] * c2kx[0] - 1.0;
-   s2kx[1] = 2.0 * c2kx[0] * s2kx[0];
-   c2kx[2] = c2kx[0] * c2kx[1] + s2kx[0] * s2kx[1];
-   s2kx[2] = c2kx[1] * s2kx[0] + c2kx[0] * s2kx[1];
-   c2kx[3] = 2.0 * c2kx[1] * c2kx[1] - 1.0;
-   s2kx[3] = 2.0 * c2kx[1] * s2kx[1];
-   c2kx[4] = c2kx[0] * c2kx[3] + s2kx[0] * s2kx[3];
-   s2kx[4] = c2kx[3] * s2kx[0] + c2kx[0] * s2kx[3];
-   c2kx[5] = 2.0 * c2kx[2] * c2kx[2] - 1.0;
-   s2kx[5] = 2.0 * c2kx[2] * s2kx[2];
-   c2kx[6] = c2kx[0] * c2kx[5] + s2kx[0] * s2kx[5];
-   s2kx[6] = c2kx[5] * s2kx[0] + c2kx[0] * s2kx[5];
-   c2kx[7] = 2.0 * c2kx[3] * c2kx[3] - 1.0;
-   s2kx[7] = 2.0 * c2kx[3] * s2kx[3];
-}
+   // Evaluates the same expressions as the scalar loop in
+   // computeSeriesSums, four points at a time and in the same order, so
+   // that the results are identical.  Returns the number of points done.
+   const __m256d one = _mm256_set1_pd( 1.0 );
+   const __m256d two = _mm256_set1_pd( 2.0 );
+
+   int i = 0;
+   for( ; i + 4 <= count; i += 4 )
+   {
+      __m256d c2kx[N_TERMS], s2kx[N_TERMS], c2ky[N_TERMS], s2ky[N_TERMS];
+
+      c2kx[0] = _mm256_loadu_pd( &coshTwoX[i] );
+      s2kx[0] = _mm256_loadu_pd( &sinhTwoX[i] );
+      c2ky[0] = _mm256_loadu_pd( &cosTwoY[i] );
+      s2ky[0] = _mm256_loadu_pd( &sinTwoY[i] );
+
+      c2kx[1] = _mm256_sub_pd( _mm256_mul_pd( _mm256_mul_pd( two, c2kx[0] ), c2kx[0] ), one );
+      s2kx[1] = _mm256_mul_pd( _mm256_mul_pd( two, c2kx[0] ), s2kx[0] );
+      c2kx[2] = _mm256_add_pd( _mm256_mul_pd( c2kx[0], c2kx[1] ), _mm256_mul_pd( s2kx[0], s2kx[1] ) );
+      s2kx[2] = _mm256_add_pd( _mm256_mul_pd( c2kx[1], s2kx[0] ), _mm256_mul_pd( c2kx[0], s2kx[1] ) );
+      c2kx[3] = _mm256_sub_pd( _mm256_mul_pd( _mm256_mul_pd( two, c2kx[1] ), c2kx[1] ), one );
+      s2kx[3] = _mm256_mul_pd( _mm256_mul_pd( two, c2kx[1] ), s2kx[1] );
+      c2kx[4] = _mm256_add_pd( _mm256_mul_pd( c2kx[0], c2kx[3] ), _mm256_mul_pd( s2kx[0], s2kx[3] ) );
+      s2kx[4] = _mm256_add_pd( _mm256_mul_pd( c2kx[3], s2kx[0] ), _mm256_mul_pd( c2kx[0], s2kx[3] ) );
+      c2kx[5] = _mm256_sub_pd( _mm256_mul_pd( _mm256_mul_pd( two, c2kx[2] ), c2kx[2] ), one );
+      s2kx[5] = _mm256_mul_pd( _mm256_mul_pd( two, c2kx[2] ), s2kx[2] );
+
+      c2ky[1] = _mm256_sub_pd( _mm256_mul_pd( _mm256_mul_pd( two, c2ky[0] ), c2ky[0] ), one );
+      s2ky[1] = _mm256_mul_pd( _mm256_mul_pd( two, c2ky[0] ), s2ky[0] );
+      c2ky[2] = _mm256_sub_pd( _mm256_mul_pd( c2ky[1], c2ky[0] ), _mm256_mul_pd( s2ky[1], s2ky[0] ) );
+      s2ky[2] = _mm256_add_pd( _mm256_mul_pd( c2ky[1], s2ky[0] ), _mm256_mul_pd( c2ky[0], s2ky[1] ) );
+      c2ky[3] = _mm256_sub_pd( _mm256_mul_pd( _mm256_mul_pd( two, c2ky[1] ), c2ky[1] ), one );
+      s2ky[3] = _mm256_mul_pd( _mm256_mul_pd( two, c2ky[1] ), s2ky[1] );
+      c2ky[4] = _mm256_sub_pd( _mm256_mul_pd( c2ky[3], c2ky[0] ), _mm256_mul_pd( s2ky[3], s2ky[0] ) );
+      s2ky[4] = _mm256_add_pd( _mm256_mul_pd( c2ky[3], s2ky[0] ), _mm256_mul_pd( c2ky[0], s2ky[3] ) );
+      c2ky[5] = _mm256_sub_pd( _mm256_mul_pd( _mm256_mul_pd( two, c2ky[2] ), c2ky[2] ), one );
+      s2ky[5] = _mm256_mul_pd( _mm256_mul_pd( two, c2ky[2] ), s2ky[2] );
+
+      __m256d sc = _mm256_setzero_pd();
+      __m256d cs = _mm256_setzero_pd();
+      for (int k = N_TERMS - 1; k >= 0; k--)
+      {
+         __m256d a = _mm256_set1_pd( coeff[k] );
+         sc = _mm256_add_pd( sc, _mm256_mul_pd( _mm256_mul_pd( a, s2kx[k] ), c2ky[k] ) );
+         cs = _mm256_add_pd( cs, _mm256_mul_pd( _mm256_mul_pd( a, c2kx[k] ), s2ky[k] ) );
+      }
+
+      _mm256_storeu_pd( &sumSC[i], sc );
+      _mm256_storeu_pd( &sumCS[i], cs );
+   }
 
-void TransverseMercator::computeTrigSeries(
-   double twoY,
-   double c2ky[],
-   double s2ky[])
+   return i;
+}
+#endif
+
+void TransverseMercator::computeSeriesSums(
+   int          count,
+   const double coeff[],
+   const double coshTwoX[],
+   const double sinhTwoX[],
+   const double cosTwoY[],
+   const double sinTwoY[],
+   double       sumSC[],
+   double       sumCS[])
 {
-   // Use trig identities to compute
-   // c2ky[k] = cos(2kY), s2ky[k] = sin(2kY)   for k = 0 .. 8
-   c2ky[0] = cos(twoY);
-   s2ky[0] = sin(twoY);
-   c2ky[1] = 2.0 * c2ky[0] * c2ky[0] - 1.0;
-   s2ky[1] = 2.0 * c2ky[0] * s2ky[0];
-   c2ky[2] = c2ky[1] * c2ky[0] - s2ky[1] * s2ky[0];
-   s2ky[2] = c2ky[1] * s2ky[0] + c2ky[0] * s2ky[1];
-   c2ky[3] = 2.0 * c2ky[1] * c2ky[1] - 1.0;
-   s2ky[3] = 2.0 * c2ky[1] * s2ky[1];
-   c2ky[4] = c2ky[3] * c2ky[0] - s2ky[3] * s2ky[0];
-   s2ky[4] = c2ky[3] * s2ky[0] + c2ky[0] * s2ky[3];
-   c2ky[5] = 2.0 * c2ky[2] * c2ky[2] - 1.0;
-   s2ky[5] = 2.0 * c2ky[2] * s2ky[2];
-   c2ky[6] = c2ky[5] * c2ky[0] - s2ky[5] * s2ky[0];
-   s2ky[6] = c2ky[5] * s2ky[0] + c2ky[0] * s2ky[5];
-   c2ky[7] = 2.0 * c2ky[3] * c2ky[3] - 1.0;
-   s2ky[7] = 2.0 * c2ky[3] * s2ky[3];
+   int i = 0;
+
+#ifdef TRANMERC_AVX2
+   static const bool avx2 = TRANMERC_AVX2_SUPPORTED() ? true : false;
+   if( avx2 )
+      i = computeSeriesSumsAVX2(
+         count, coeff, coshTwoX, sinhTwoX, cosTwoY, sinTwoY, sumSC, sumCS );
+#endif
+
+   for( ; i < count; i++ )
+   {
+      double c2kx[N_TERMS], s2kx[N_TERMS], c2ky[N_TERMS], s2ky[N_TERMS];
+
+      // Use trig identities to compute
+      // c2kx[k] = cosh(2kX), s2kx[k] = sinh(2kX)   for k = 0 .. 5
+      c2kx[0] = coshTwoX[i];
+      s2kx[0] = sinhTwoX[i];
+      c2kx[1] = 2.0 * c2kx[0] * c2kx[0] - 1.0;
+      s2kx[1] = 2.0 * c2kx[0] * s2kx[0];
+      c2kx[2] = c2kx[0] * c2kx[1] + s2kx[0] * s2kx[1];
+      s2kx[2] = c2kx[1] * s2kx[0] + c2kx[0] * s2kx[1];
+      c2kx[3] = 2.0 * c2kx[1] * c2kx[1] - 1.0;
+      s2kx[3] = 2.0 * c2kx[1] * s2kx[1];
+      c2kx[4] = c2kx[0] * c2kx[3] + s2kx[0] * s2kx[3];
+      s2kx[4] = c2kx[3] * s2kx[0] + c2kx[0] * s2kx[3];
+      c2kx[5] = 2.0 * c2kx[2] * c2kx[2] - 1.0;
+      s2kx[5] = 2.0 * c2kx[2] * s2kx[2];
+
+      // c2ky[k] = cos(2kY), s2ky[k] = sin(2kY)   for k = 0 .. 5
+      c2ky[0] = cosTwoY[i];
+      s2ky[0] = sinTwoY[i];
+      c2ky[1] = 2.0 * c2ky[0] * c2ky[0] - 1.0;
+      s2ky[1] = 2.0 * c2ky[0] * s2ky[0];
+      c2ky[2] = c2ky[1] * c2ky[0] - s2ky[1] * s2ky[0];
+      s2ky[2] = c2ky[1] * s2ky[0] + c2ky[0] * s2ky[1];
+      c2ky[3] = 2.0 * c2ky[1] * c2ky[1] - 1.0;
+      s2ky[3] = 2.0 * c2ky[1] * s2ky[1];
+      c2ky[4] = c2ky[3] * c2ky[0] - s2ky[3] * s2ky[0];
+      s2ky[4] = c2ky[3] * s2ky[0] + c2ky[0] * s2ky[3];
+      c2ky[5] = 2.0 * c2ky[2] * c2ky[2] - 1.0;
+      s2ky[5] = 2.0 * c2ky[2] * s2ky[2];
+
+      double sc = 0;
+      double cs = 0;
+
+      for (int k = N_TERMS - 1; k >= 0; k--)
+      {
+         sc += coeff[k] * s2kx[k] * c2ky[k];
+         cs += coeff[k] * c2kx[k] * s2ky[k];
+      }
+
+      sumSC[i] = sc;
+      sumCS[i] = cs;
+   }
 }
 
 // CLASSIFICATION: UNCLASSIFIED
@@ -37,6 +37,8 @@
  *    ----         -----------
  *    2-26-07      Original C++ Code
  *    7-01-14      Updated algorithm in NGA.SIG.0012_2.0.0_UTMUPS.
+ *    10-17-26     Added conversions into caller-supplied coordinates.
+ *    10-17-26     Added batch conversions of coordinate arrays.
  *
  */
 
@@ -121,6 +123,16 @@ namespace MSP
          MSP::CCS::MapProjectionCoordinates* convertFromGeodetic(
             MSP::CCS::GeodeticCoordinates* geodeticCoordinates );
 
+         /*
+          * This version of convertFromGeodetic stores the transverse Mercator
+          * coordinates in mapProjectionCoordinates, supplied by the caller,
+          * instead of allocating them.
+          */
+
+         void convertFromGeodetic(
+            MSP::CCS::GeodeticCoordinates*      geodeticCoordinates,
+            MSP::CCS::MapProjectionCoordinates& mapProjectionCoordinates );
+
          /*
           * Converts Transverse Mercator projection (easting and northing)
           * coordinates to geodetic (latitude and longitude)
@@ -135,6 +147,65 @@ namespace MSP
          MSP::CCS::GeodeticCoordinates* convertToGeodetic(
             MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates );
 
+         /*
+          * This version of convertToGeodetic stores the geodetic
+          * coordinates in geodeticCoordinates, supplied by the caller,
+          * instead of allocating them.
+          */
+
+         void convertToGeodetic(
+            MSP::CCS::MapProjectionCoordinates* mapProjectionCoordinates,
+            MSP::CCS::GeodeticCoordinates&      geodeticCoordinates );
+
+         /*
+          * This version of convertFromGeodetic converts count points, held
+          * in separate longitude and latitude arrays, to eastings and
+          * northings.  The points are projected in blocks, with the series
+          * evaluated for several points at once using AVX2 instructions
+          * where the processor supports them.  The results are identical
+          * to those of the single point version.  Instead of throwing an
+          * exception, errorMessages[i] is set to a description of the error
+          * for each point that cannot be converted, and to 0 otherwise.
+          * The eccentricity warning is not reported.
+          *
+          *  @param   count          Number of points               (input)
+          *  @param   longitude      Longitudes in radians          (input)
+          *  @param   latitude       Latitudes in radians           (input)
+          *  @param   easting        Eastings/X in meters           (output)
+          *  @param   northing       Northings/Y in meters          (output)
+          *  @param   errorMessages  Error descriptions, or 0       (output)
+          */
+
+         void convertFromGeodetic(
+            long         count,
+            const double longitude[],
+            const double latitude[],
+            double       easting[],
+            double       northing[],
+            const char*  errorMessages[] );
+
+         /*
+          * This version of convertToGeodetic converts count points, held
+          * in separate easting and northing arrays, to longitudes and
+          * latitudes, in the same way as the array version of
+          * convertFromGeodetic.
+          *
+          *  @param   count          Number of points               (input)
+          *  @param   easting        Eastings/X in meters           (input)
+          *  @param   northing       Northings/Y in meters          (input)
+          *  @param   longitude      Longitudes in radians          (output)
+          *  @param   latitude       Latitudes in radians           (output)
+          *  @param   errorMessages  Error descriptions, or 0       (output)
+          */
+
+         void convertToGeodetic(
+            long         count,
+            const double easting[],
+            const double northing[],
+            double       longitude[],
+            double       latitude[],
+            const char*  errorMessages[] );
+
       private:
     
          /* Ellipsoid Parameters */
@@ -177,6 +248,29 @@ namespace MSP
             double       &latitude,
             double       &longitude );
 
+         /**
+          * Basic conversion of up to BATCH_SIZE points without regard to
+          * false easting/northing or origin.  The longitudes are given
+          * from the central meridian, and must already have been checked.
+          */
+         void latLonToNorthingEasting( 
+            int          count,
+            const double latitude[],
+            const double deltaLon[],
+            double       northing[],
+            double       easting[] );
+
+         /**
+          * Basic conversion of up to BATCH_SIZE points without regard to
+          * false easting/northing or origin
+          */
+         void northingEastingToLatLon( 
+            int          count,
+            const double northing[],
+            const double easting[],
+            double       latitude[],
+            double       longitude[] );
+
          /**
           * Generate coefficients for trig series.
           * 
@@ -195,6 +289,12 @@ namespace MSP
           */
          static void checkLatLon( double latitude, double deltaLon );
 
+         /**
+          * Returns true if latitude and longitude are in valid range,
+          * as checked by checkLatLon.
+          */
+         static bool inLatLonRange( double latitude, double deltaLon );
+
          /**
           * Hyperbolic arc tangent.
           */
@@ -208,22 +308,22 @@ namespace MSP
             double e );
 
          /**
-          * Use trig identities to compute
-          * c2kx[k] = cosh(2kX), s2kx[k] = sinh(2kX)   for k = 0 .. 8
-          */
-         static void computeHyperbolicSeries(
-            double twoX,
-            double c2kx[],
-            double s2kx[]);
-
-         /**
-          * Use trig identities to compute
-          * c2ky[k] = cos(2kY), s2ky[k] = sin(2kY)   for k = 0 .. 8
+          * Use trig identities to compute cosh(2kX), sinh(2kX), cos(2kY)
+          * and sin(2kY) from cosh(2X), sinh(2X), cos(2Y) and sin(2Y), and
+          * sum the series
+          *   sumSC = sum of coeff[k] * sinh(2kX) * cos(2kY)
+          *   sumCS = sum of coeff[k] * cosh(2kX) * sin(2kY)
+          * for each of count points.
           */
-         void computeTrigSeries(
-            double twoY,
-            double c2ky[],
-            double s2ky[]);
+         static void computeSeriesSums(
+            int          count,
+            const double coeff[],
+            const double coshTwoX[],
+            const double sinhTwoX[],
+            const double cosTwoY[],
+            const double sinTwoY[],
+            double       sumSC[],
+            double       sumCS[]);
  
       };
    }
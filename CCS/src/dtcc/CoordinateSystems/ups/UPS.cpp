@@ -205,7 +205,8 @@ UPS& UPS::operator=( const UPS &u )
 }
 
 
-MSP::CCS::UPSCoordinates* UPS::convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+void UPS::convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates,
+   MSP::CCS::UPSCoordinates& upsCoordinates )
 {
 /*
  * The function convertFromGeodetic converts geodetic (latitude and
@@ -251,17 +252,33 @@ MSP::CCS::UPSCoordinates* UPS::convertFromGeodetic( MSP::CCS::GeodeticCoordinate
   }
   
   PolarStereographic polarStereographic = *polarStereographicMap[hemisphere];   
-  MapProjectionCoordinates* polarStereographicCoordinates = polarStereographic.convertFromGeodetic( geodeticCoordinates );
+  MapProjectionCoordinates polarStereographicCoordinates( CoordinateType::polarStereographicStandardParallel );
+  polarStereographic.convertFromGeodetic( geodeticCoordinates, polarStereographicCoordinates );
 
-  double easting = polarStereographicCoordinates->easting();
-  double northing = polarStereographicCoordinates->northing();
-  delete polarStereographicCoordinates;
+  double easting = polarStereographicCoordinates.easting();
+  double northing = polarStereographicCoordinates.northing();
 
-  return new UPSCoordinates( CoordinateType::universalPolarStereographic, hemisphere, easting, northing );
+  upsCoordinates = UPSCoordinates( CoordinateType::universalPolarStereographic, hemisphere, easting, northing );
 }
 
 
-MSP::CCS::GeodeticCoordinates* UPS::convertToGeodetic( MSP::CCS::UPSCoordinates* upsCoordinates )
+MSP::CCS::UPSCoordinates* UPS::convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates )
+{
+/*
+ * The function convertFromGeodetic returns the UPS coordinates
+ * in a new object, owned by the caller.
+ */
+
+  UPSCoordinates upsCoordinates( CoordinateType::universalPolarStereographic );
+
+  convertFromGeodetic( geodeticCoordinates, upsCoordinates );
+
+  return new UPSCoordinates( upsCoordinates );
+}
+
+
+void UPS::convertToGeodetic( MSP::CCS::UPSCoordinates* upsCoordinates,
+   MSP::CCS::GeodeticCoordinates& geodeticCoordinates )
 {
 /*
  * The function convertToGeodetic converts UPS (hemisphere, easting, 
@@ -299,23 +316,29 @@ MSP::CCS::GeodeticCoordinates* UPS::convertToGeodetic( MSP::CCS::UPSCoordinates*
   MapProjectionCoordinates polarStereographicCoordinates(
      CoordinateType::polarStereographicStandardParallel, easting, northing );
   PolarStereographic polarStereographic    = *polarStereographicMap[hemisphere];
-  GeodeticCoordinates* geodeticCoordinates = 
-     polarStereographic.convertToGeodetic( &polarStereographicCoordinates ); 
+  polarStereographic.convertToGeodetic( &polarStereographicCoordinates, geodeticCoordinates ); 
 
-  double latitude = geodeticCoordinates->latitude();
+  double latitude = geodeticCoordinates.latitude();
 
   if ((latitude < 0) && (latitude >= (MAX_SOUTH_LAT + EPSILON)))
-  {
-    delete geodeticCoordinates;
     throw CoordinateConversionException( ErrorMessages::latitude );
-  }
   if ((latitude >= 0) && (latitude < (MIN_NORTH_LAT - EPSILON)))
-  {
-    delete geodeticCoordinates;
     throw CoordinateConversionException( ErrorMessages::latitude );
-  }
+}
+
+
+MSP::CCS::GeodeticCoordinates* UPS::convertToGeodetic( MSP::CCS::UPSCoordinates* upsCoordinates )
+{
+/*
+ * The function convertToGeodetic returns the geodetic coordinates
+ * in a new object, owned by the caller.
+ */
+
+  GeodeticCoordinates geodeticCoordinates( CoordinateType::geodetic );
+
+  convertToGeodetic( upsCoordinates, geodeticCoordinates );
 
-  return geodeticCoordinates;
+  return new GeodeticCoordinates( geodeticCoordinates );
 }
 
 // CLASSIFICATION: UNCLASSIFIED
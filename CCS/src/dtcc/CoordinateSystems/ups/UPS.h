@@ -77,6 +77,7 @@
  *    Date              Description
  *    ----              -----------
  *    2-27-07          Original Code
+ *    10-17-26         Added conversions into caller-supplied coordinates
  *
  *
  */
@@ -141,6 +142,15 @@ namespace MSP
       MSP::CCS::UPSCoordinates* convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates );
 
 
+      /*
+       * This version of convertFromGeodetic stores the UPS
+       * coordinates in upsCoordinates, supplied by the caller,
+       * instead of allocating them.
+       */
+
+      void convertFromGeodetic( MSP::CCS::GeodeticCoordinates* geodeticCoordinates, MSP::CCS::UPSCoordinates& upsCoordinates );
+
+
       /*
        * The function convertToGeodetic converts UPS (hemisphere, easting, 
        * and northing) coordinates to geodetic (latitude and longitude) coordinates
@@ -156,6 +166,15 @@ namespace MSP
 
       MSP::CCS::GeodeticCoordinates* convertToGeodetic( MSP::CCS::UPSCoordinates* upsCoordinates );
 
+
+      /*
+       * This version of convertToGeodetic stores the geodetic
+       * coordinates in geodeticCoordinates, supplied by the caller,
+       * instead of allocating them.
+       */
+
+      void convertToGeodetic( MSP::CCS::UPSCoordinates* upsCoordinates, MSP::CCS::GeodeticCoordinates& geodeticCoordinates );
+
     private:
 
       std::map< char, PolarStereographic* > polarStereographicMap;
@@ -75,6 +75,8 @@
  *						and passes ellipsoid code to TransMercator
  *	  1-21-16	  KC	BAE_MSP00030211, removed the shift from longitude.
  *						Shift is applied when determining the zone. 
+ *    10-17-26          Added conversions into caller-supplied coordinates
+ *                      and batch conversions of coordinate arrays.
  *
  */
 
@@ -122,6 +124,8 @@ using namespace MSP::CCS;
 
 #define EPSILON       1.75e-7   /* approx 1.0e-5 deg (~1 meter) in radians */
 
+#define BATCH_SIZE    256       /* points converted together in batches    */
+
 /************************************************************************/
 /*                              FUNCTIONS
  *
@@ -291,8 +295,9 @@ UTMParameters* UTM::getParameters() const
 }
 
 
-MSP::CCS::UTMCoordinates* UTM::convertFromGeodetic(
+void UTM::convertFromGeodetic(
    MSP::CCS::GeodeticCoordinates* geodeticCoordinates,
+   MSP::CCS::UTMCoordinates&      utmCoordinates,
    int                            utmZoneOverride )
 {
 /*
@@ -310,8 +315,6 @@ MSP::CCS::UTMCoordinates* UTM::convertFromGeodetic(
  *    northing          : Northing (Y) in meters              (output)
  */
 
-  long Lat_Degrees;
-  long Long_Degrees;
   long temp_zone;
   char hemisphere;
   double False_Northing = 0;
@@ -319,13 +322,323 @@ MSP::CCS::UTMCoordinates* UTM::convertFromGeodetic(
   double longitude = geodeticCoordinates->longitude();
   double latitude  = geodeticCoordinates->latitude();
 
+  const char* errorMessage = findZone(
+     longitude, latitude, utmZoneOverride, temp_zone, hemisphere );
+  if( errorMessage )
+    throw CoordinateConversionException( errorMessage );
+
+  TransverseMercator *transverseMercator = transverseMercatorMap[temp_zone];
+
+  if (hemisphere == 'S')
+    False_Northing = 10000000;
+
+  GeodeticCoordinates tempGeodeticCoordinates(
+     CoordinateType::geodetic, longitude, latitude );
+  MapProjectionCoordinates transverseMercatorCoordinates(
+     CoordinateType::transverseMercator );
+  transverseMercator->convertFromGeodetic(
+     &tempGeodeticCoordinates, transverseMercatorCoordinates );
+  double easting = transverseMercatorCoordinates.easting();
+  double northing = transverseMercatorCoordinates.northing() + False_Northing;
+
+  if ((easting < MIN_EASTING) || (easting > MAX_EASTING))
+    throw CoordinateConversionException( ErrorMessages::easting );
+
+  if ((northing < MIN_NORTHING) || (northing > MAX_NORTHING))
+    throw CoordinateConversionException( ErrorMessages::northing );
+
+  utmCoordinates = UTMCoordinates(
+     CoordinateType::universalTransverseMercator,
+     temp_zone, hemisphere, easting, northing );
+}
+
+
+MSP::CCS::UTMCoordinates* UTM::convertFromGeodetic(
+   MSP::CCS::GeodeticCoordinates* geodeticCoordinates,
+   int                            utmZoneOverride )
+{
+/*
+ * The function convertFromGeodetic returns the UTM coordinates
+ * in a new object, owned by the caller.
+ */
+
+  UTMCoordinates utmCoordinates(
+     CoordinateType::universalTransverseMercator );
+
+  convertFromGeodetic( geodeticCoordinates, utmCoordinates, utmZoneOverride );
+
+  return new UTMCoordinates( utmCoordinates );
+}
+
+
+void UTM::convertToGeodetic(
+   MSP::CCS::UTMCoordinates*      utmCoordinates,
+   MSP::CCS::GeodeticCoordinates& geodeticCoordinates )
+{
+/*
+ * The function convertToGeodetic converts UTM projection (zone,
+ * hemisphere, easting and northing) coordinates to geodetic(latitude
+ * and  longitude) coordinates, according to the current ellipsoid
+ * parameters.  If any errors occur, an exception is thrown with a description 
+ * of the error.
+ *
+ *    zone              : UTM zone                               (input)
+ *    hemisphere        : North or South hemisphere              (input)
+ *    easting           : Easting (X) in meters                  (input)
+ *    northing          : Northing (Y) in meters                 (input)
+ *    longitude         : Longitude in radians                   (output)
+ *    latitude          : Latitude in radians                    (output)
+ */
+
+  double False_Northing = 0;
+
+  long zone       = utmCoordinates->zone();
+  char hemisphere = utmCoordinates->hemisphere();
+  double easting  = utmCoordinates->easting();
+  double northing = utmCoordinates->northing();
+
+  const char* errorMessage = checkUTMCoordinates(
+     zone, hemisphere, easting, northing );
+  if( errorMessage )
+    throw CoordinateConversionException( errorMessage );
+
+  TransverseMercator *transverseMercator = transverseMercatorMap[zone];
+
+  if (hemisphere == 'S')
+    False_Northing = 10000000;
+
+  MapProjectionCoordinates transverseMercatorCoordinates(
+     CoordinateType::transverseMercator, easting, northing - False_Northing );
+  transverseMercator->convertToGeodetic(
+     &transverseMercatorCoordinates, geodeticCoordinates );
+  geodeticCoordinates.setWarningMessage("");  
+
+  double latitude = geodeticCoordinates.latitude();
+
+  if ((latitude < (MIN_LAT - EPSILON)) || (latitude >= (MAX_LAT + EPSILON)))
+  { /* latitude out of range */
+    throw CoordinateConversionException( ErrorMessages::northing );
+  }
+}
+
+
+MSP::CCS::GeodeticCoordinates* UTM::convertToGeodetic(
+   MSP::CCS::UTMCoordinates* utmCoordinates )
+{
+/*
+ * The function convertToGeodetic returns the geodetic coordinates
+ * in a new object, owned by the caller.
+ */
+
+  GeodeticCoordinates geodeticCoordinates( CoordinateType::geodetic );
+
+  convertToGeodetic( utmCoordinates, geodeticCoordinates );
+
+  return new GeodeticCoordinates( geodeticCoordinates );
+}
+
+
+void UTM::convertFromGeodetic(
+   long         count,
+   const double longitude[],
+   const double latitude[],
+   long         zone[],
+   char         hemisphere[],
+   double       easting[],
+   double       northing[],
+   const char*  errorMessages[],
+   int          utmZoneOverride )
+{
+/*
+ * This version of convertFromGeodetic converts count points a block at a
+ * time.  The zone of each point in the block is found first, then each
+ * run of consecutive points in the same zone is projected by a single
+ * call to the zone's Transverse Mercator batch conversion.  Points which
+ * cannot be converted are given zone 0 and zero easting and northing.
+ *
+ *    count           : Number of points                  (input)
+ *    longitude       : Longitudes in radians             (input)
+ *    latitude        : Latitudes in radians              (input)
+ *    zone            : UTM zones                         (output)
+ *    hemisphere      : North or South hemispheres        (output)
+ *    easting         : Eastings (X) in meters            (output)
+ *    northing        : Northings (Y) in meters           (output)
+ *    errorMessages   : Error descriptions, or 0          (output)
+ *    utmZoneOverride : zone override                     (input)
+ */
+
+  double blockLongitude[BATCH_SIZE];
+  double blockLatitude[BATCH_SIZE];
+
+  for( long start = 0; start < count; start += BATCH_SIZE )
+  {
+    long end = start + BATCH_SIZE;
+    if( end > count )
+      end = count;
+
+    for( long i = start; i < end; i++ )
+    {
+      double lon = longitude[i];
+      double lat = latitude[i];
+
+      errorMessages[i] = findZone(
+         lon, lat, utmZoneOverride, zone[i], hemisphere[i] );
+      if( errorMessages[i] )
+        zone[i] = 0;
+
+      blockLongitude[i - start] = lon;
+      blockLatitude[i - start]  = lat;
+    }
+
+    long runStart = start;
+    while( runStart < end )
+    {
+      long runEnd = runStart + 1;
+      while( (runEnd < end) && (zone[runEnd] == zone[runStart]) )
+        runEnd++;
+
+      if( zone[runStart] )
+      {
+        transverseMercatorMap[zone[runStart]]->convertFromGeodetic(
+           runEnd - runStart,
+           &blockLongitude[runStart - start], &blockLatitude[runStart - start],
+           &easting[runStart], &northing[runStart], &errorMessages[runStart] );
+      }
+
+      runStart = runEnd;
+    }
+
+    for( long i = start; i < end; i++ )
+    {
+      if( !errorMessages[i] )
+      {
+        double False_Northing = 0;
+        if (hemisphere[i] == 'S')
+          False_Northing = 10000000;
+
+        northing[i] = northing[i] + False_Northing;
+
+        if ((easting[i] < MIN_EASTING) || (easting[i] > MAX_EASTING))
+          errorMessages[i] = ErrorMessages::easting;
+        else if ((northing[i] < MIN_NORTHING) || (northing[i] > MAX_NORTHING))
+          errorMessages[i] = ErrorMessages::northing;
+      }
+
+      if( errorMessages[i] )
+      {
+        zone[i]     = 0;
+        easting[i]  = 0;
+        northing[i] = 0;
+      }
+    }
+  }
+}
+
+
+void UTM::convertToGeodetic(
+   long         count,
+   const long   zone[],
+   const char   hemisphere[],
+   const double easting[],
+   const double northing[],
+   double       longitude[],
+   double       latitude[],
+   const char*  errorMessages[] )
+{
+/*
+ * This version of convertToGeodetic converts count points a block at a
+ * time, each run of consecutive points in the same zone by a single call
+ * to the zone's Transverse Mercator batch conversion.  Points which
+ * cannot be converted are given zero longitude and latitude.
+ *
+ *    count         : Number of points                     (input)
+ *    zone          : UTM zones                            (input)
+ *    hemisphere    : North or South hemispheres           (input)
+ *    easting       : Eastings (X) in meters               (input)
+ *    northing      : Northings (Y) in meters              (input)
+ *    longitude     : Longitudes in radians                (output)
+ *    latitude      : Latitudes in radians                 (output)
+ *    errorMessages : Error descriptions, or 0             (output)
+ */
+
+  double blockNorthing[BATCH_SIZE];
+
+  for( long start = 0; start < count; start += BATCH_SIZE )
+  {
+    long end = start + BATCH_SIZE;
+    if( end > count )
+      end = count;
+
+    for( long i = start; i < end; i++ )
+    {
+      double False_Northing = 0;
+      if (hemisphere[i] == 'S')
+        False_Northing = 10000000;
+
+      errorMessages[i] = checkUTMCoordinates(
+         zone[i], hemisphere[i], easting[i], northing[i] );
+
+      blockNorthing[i - start] = northing[i] - False_Northing;
+    }
+
+    long runStart = start;
+    while( runStart < end )
+    {
+      long runEnd = runStart + 1;
+      while( (runEnd < end) && (zone[runEnd] == zone[runStart]) &&
+             ((errorMessages[runEnd] == 0) == (errorMessages[runStart] == 0)) )
+        runEnd++;
+
+      if( !errorMessages[runStart] )
+      {
+        transverseMercatorMap[zone[runStart]]->convertToGeodetic(
+           runEnd - runStart,
+           &easting[runStart], &blockNorthing[runStart - start],
+           &longitude[runStart], &latitude[runStart], &errorMessages[runStart] );
+      }
+
+      runStart = runEnd;
+    }
+
+    for( long i = start; i < end; i++ )
+    {
+      if( !errorMessages[i] )
+      {
+        if ((latitude[i] < (MIN_LAT - EPSILON)) ||
+            (latitude[i] >= (MAX_LAT + EPSILON)))
+        { /* latitude out of range */
+          errorMessages[i] = ErrorMessages::northing;
+        }
+      }
+
+      if( errorMessages[i] )
+      {
+        longitude[i] = 0;
+        latitude[i]  = 0;
+      }
+    }
+  }
+}
+
+
+const char* UTM::findZone(
+   double& longitude,
+   double& latitude,
+   int     utmZoneOverride,
+   long&   zone,
+   char&   hemisphere ) const
+{
+  long Lat_Degrees;
+  long Long_Degrees;
+  long temp_zone;
+
   if ((latitude < (MIN_LAT - EPSILON)) || (latitude >= (MAX_LAT + EPSILON)))
   { /* latitude out of range */
-    throw CoordinateConversionException( ErrorMessages::latitude );
+    return ErrorMessages::latitude;
   }
   if ((longitude < (-PI - EPSILON)) || (longitude > (2*PI + EPSILON)))
   { /* longitude out of range */
-    throw CoordinateConversionException( ErrorMessages::longitude );
+    return ErrorMessages::longitude;
   }
 
   if((latitude > -1.0e-9) && (latitude < 0))
@@ -356,7 +669,7 @@ MSP::CCS::UTMCoordinates* UTM::convertFromGeodetic(
               (utmZoneOverride <= (temp_zone+1)))
       temp_zone = utmZoneOverride;
     else
-      throw CoordinateConversionException( ErrorMessages::zoneOverride );
+      return ErrorMessages::zoneOverride;
   }
   else if( UTM_Override )
   {
@@ -368,7 +681,7 @@ MSP::CCS::UTMCoordinates* UTM::convertFromGeodetic(
               (UTM_Override <= (temp_zone+1)))
       temp_zone = UTM_Override;
     else
-      throw CoordinateConversionException( ErrorMessages::zoneOverride );
+      return ErrorMessages::zoneOverride;
   }
   else /* not UTM zone override */
   {
@@ -388,98 +701,34 @@ MSP::CCS::UTMCoordinates* UTM::convertFromGeodetic(
     if ((Lat_Degrees > 71) && (Long_Degrees > 32) && (Long_Degrees < 42))
       temp_zone = 37;
   }
- 
-  TransverseMercator *transverseMercator = transverseMercatorMap[temp_zone];
+
+  zone = temp_zone;
 
   if (latitude < 0)
-  {
-    False_Northing = 10000000;
     hemisphere = 'S';
-  }
   else
     hemisphere = 'N';
 
-  GeodeticCoordinates tempGeodeticCoordinates(
-     CoordinateType::geodetic, longitude, latitude );
-  MapProjectionCoordinates* transverseMercatorCoordinates =
-     transverseMercator->convertFromGeodetic( &tempGeodeticCoordinates );
-  double easting = transverseMercatorCoordinates->easting();
-  double northing = transverseMercatorCoordinates->northing() + False_Northing;
-
-  if ((easting < MIN_EASTING) || (easting > MAX_EASTING))
-  {
-    delete transverseMercatorCoordinates;
-    throw CoordinateConversionException( ErrorMessages::easting );
-  }
-
-  if ((northing < MIN_NORTHING) || (northing > MAX_NORTHING))
-  {
-    delete transverseMercatorCoordinates;
-    throw CoordinateConversionException( ErrorMessages::northing );
-  }
-
-  delete transverseMercatorCoordinates;
-
-  return new UTMCoordinates(
-     CoordinateType::universalTransverseMercator,
-     temp_zone, hemisphere, easting, northing );
+  return 0;
 }
 
 
-MSP::CCS::GeodeticCoordinates* UTM::convertToGeodetic(
-   MSP::CCS::UTMCoordinates* utmCoordinates )
+const char* UTM::checkUTMCoordinates(
+   long   zone,
+   char   hemisphere,
+   double easting,
+   double northing )
 {
-/*
- * The function convertToGeodetic converts UTM projection (zone,
- * hemisphere, easting and northing) coordinates to geodetic(latitude
- * and  longitude) coordinates, according to the current ellipsoid
- * parameters.  If any errors occur, an exception is thrown with a description 
- * of the error.
- *
- *    zone              : UTM zone                               (input)
- *    hemisphere        : North or South hemisphere              (input)
- *    easting           : Easting (X) in meters                  (input)
- *    northing          : Northing (Y) in meters                 (input)
- *    longitude         : Longitude in radians                   (output)
- *    latitude          : Latitude in radians                    (output)
- */
-
-  double False_Northing = 0;
-
-  long zone       = utmCoordinates->zone();
-  char hemisphere = utmCoordinates->hemisphere();
-  double easting  = utmCoordinates->easting();
-  double northing = utmCoordinates->northing();
-
   if ((zone < 1) || (zone > 60))
-    throw CoordinateConversionException( ErrorMessages::zone );
+    return ErrorMessages::zone;
   if ((hemisphere != 'S') && (hemisphere != 'N'))
-    throw CoordinateConversionException( ErrorMessages::hemisphere );
+    return ErrorMessages::hemisphere;
   if ((easting < MIN_EASTING) || (easting > MAX_EASTING))
-    throw CoordinateConversionException( ErrorMessages::easting );
+    return ErrorMessages::easting;
   if ((northing < MIN_NORTHING) || (northing > MAX_NORTHING))
-    throw CoordinateConversionException( ErrorMessages::northing );
-
-  TransverseMercator *transverseMercator = transverseMercatorMap[zone];
-
-  if (hemisphere == 'S')
-    False_Northing = 10000000;
-
-  MapProjectionCoordinates transverseMercatorCoordinates(
-     CoordinateType::transverseMercator, easting, northing - False_Northing );
-  GeodeticCoordinates* geodeticCoordinates =
-     transverseMercator->convertToGeodetic( &transverseMercatorCoordinates );
-  geodeticCoordinates->setWarningMessage("");  
-
-  double latitude = geodeticCoordinates->latitude();
-
-  if ((latitude < (MIN_LAT - EPSILON)) || (latitude >= (MAX_LAT + EPSILON)))
-  { /* latitude out of range */
-    delete geodeticCoordinates;
-    throw CoordinateConversionException( ErrorMessages::northing );
-  }
+    return ErrorMessages::northing;
 
-  return geodeticCoordinates;
+  return 0;
 }
 
 // CLASSIFICATION: UNCLASSIFIED
@@ -77,6 +77,8 @@
  * 
  *    1/16/2016   A. Layne MSP_DR30125 Updated constructor to receive ellipsoid 
  *				  code from callers
+ *    10/17/2026  Added conversions into caller-supplied coordinates
+ *    10/17/2026  Added batch conversions of coordinate arrays
  */
 
 
@@ -166,6 +168,18 @@ namespace MSP
                int                            utmZoneOverride = 0 );
 
 
+            /*
+             * This version of convertFromGeodetic stores the UTM
+             * coordinates in utmCoordinates, supplied by the caller,
+             * instead of allocating them.
+             */
+
+            void convertFromGeodetic(
+               MSP::CCS::GeodeticCoordinates* geodeticCoordinates,
+               MSP::CCS::UTMCoordinates&      utmCoordinates,
+               int                            utmZoneOverride = 0 );
+
+
             /*
              * The function convertToGeodetic converts UTM projection (zone, 
              * hemisphere, easting and northing) coordinates to geodetic
@@ -184,12 +198,111 @@ namespace MSP
             MSP::CCS::GeodeticCoordinates* convertToGeodetic(
                MSP::CCS::UTMCoordinates* utmCoordinates );
 
+
+            /*
+             * This version of convertToGeodetic stores the geodetic
+             * coordinates in geodeticCoordinates, supplied by the caller,
+             * instead of allocating them.
+             */
+
+            void convertToGeodetic(
+               MSP::CCS::UTMCoordinates*      utmCoordinates,
+               MSP::CCS::GeodeticCoordinates& geodeticCoordinates );
+
+
+            /*
+             * This version of convertFromGeodetic converts count points,
+             * held in separate longitude and latitude arrays, to UTM
+             * coordinates held in separate arrays.  Consecutive points in
+             * the same zone are projected together by the Transverse
+             * Mercator batch conversion.  The results are identical to
+             * those of the single point version.  Instead of throwing an
+             * exception, errorMessages[i] is set to a description of the
+             * error for each point that cannot be converted, and to 0
+             * otherwise.
+             *
+             *    count           : Number of points                  (input)
+             *    longitude       : Longitudes in radians             (input)
+             *    latitude        : Latitudes in radians              (input)
+             *    zone            : UTM zones                         (output)
+             *    hemisphere      : North or South hemispheres        (output)
+             *    easting         : Eastings (X) in meters            (output)
+             *    northing        : Northings (Y) in meters           (output)
+             *    errorMessages   : Error descriptions, or 0          (output)
+             *    utmZoneOverride : zone override                     (input)
+             */
+
+            void convertFromGeodetic(
+               long         count,
+               const double longitude[],
+               const double latitude[],
+               long         zone[],
+               char         hemisphere[],
+               double       easting[],
+               double       northing[],
+               const char*  errorMessages[],
+               int          utmZoneOverride = 0 );
+
+
+            /*
+             * This version of convertToGeodetic converts count points, held
+             * in separate zone, hemisphere, easting and northing arrays, to
+             * longitudes and latitudes, in the same way as the array
+             * version of convertFromGeodetic.
+             *
+             *    count         : Number of points                     (input)
+             *    zone          : UTM zones                            (input)
+             *    hemisphere    : North or South hemispheres           (input)
+             *    easting       : Eastings (X) in meters               (input)
+             *    northing      : Northings (Y) in meters              (input)
+             *    longitude     : Longitudes in radians                (output)
+             *    latitude      : Latitudes in radians                 (output)
+             *    errorMessages : Error descriptions, or 0             (output)
+             */
+
+            void convertToGeodetic(
+               long         count,
+               const long   zone[],
+               const char   hemisphere[],
+               const double easting[],
+               const double northing[],
+               double       longitude[],
+               double       latitude[],
+               const char*  errorMessages[] );
+
          private:
             char   ellipsCode[3];
 
             std::map< int, TransverseMercator* > transverseMercatorMap;
 
             long UTM_Override;          /* Zone override flag */
+
+
+            /*
+             * The function findZone checks geodetic coordinates and finds
+             * their UTM zone and hemisphere, adjusting the longitude to
+             * [0, 2*PI) and rounding latitudes just below the equator to 0.
+             * It returns a description of the error, or 0 if there is none.
+             */
+
+            const char* findZone(
+               double& longitude,
+               double& latitude,
+               int     utmZoneOverride,
+               long&   zone,
+               char&   hemisphere ) const;
+
+
+            /*
+             * The function checkUTMCoordinates returns a description of
+             * the error in UTM coordinates, or 0 if they are valid.
+             */
+
+            static const char* checkUTMCoordinates(
+               long   zone,
+               char   hemisphere,
+               double easting,
+               double northing );
       };
    }
 }
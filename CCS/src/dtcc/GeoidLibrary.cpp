@@ -29,8 +29,8 @@
  *    GeoidLibrary is intended for reuse by any application that requires conversion
  *    between WGS84 ellipsoid heights and WGS84, EGM96, or EGM2008 orthometric heights.
  *
- *    Environment variable EGM2008_GRID_USAGE should be set to either
- *    "FULL" or "AOI" before using this software to compute EGM2008 geoid
+ *    Environment variable EGM2008_GRID_USAGE should be set to
+ *    "FULL", "AOI" or "TILED" before using this software to compute EGM2008 geoid
  *    separations.  If the environment variable is set to "FULL", then the
  *    EGM2008 geoid separation interpolator uses its FULL-GRID software, which 
  *    first loads NGA's worldwide EGM2008 grid before beginning any interpolations: 
@@ -48,8 +48,20 @@
  *    support grids when users' Areas of Interest shift from the 125 nm -by- 125 nm region 
  *    currently loaded into their computer system's high speed memory.
  *
+ *    If the environment variable is set to "TILED", then the EGM2008 geoid
+ *    separation interpolator uses its TILED-GRID software, which maps NGA's worldwide
+ *    EGM2008 grid file into memory without reading it, and draws local interpolation
+ *    windows' post points from 64 -by- 64 post tiles of the worldwide grid.  Tiles are
+ *    decoded from the mapped file as they are first needed and are kept in a
+ *    least-recently-used cache of 1024 tiles (16 MB), or of the number of tiles given by
+ *    environment variable EGM2008_TILE_CACHE_SIZE.  The cache is divided into shards by
+ *    tile index, each with its own lock, so threads interpolating in different areas do
+ *    not wait for one another.  The TILED-GRID algorithm is intended for users computing
+ *    many geoid separations at widely dispersed horizontal locations without holding the
+ *    whole worldwide grid in memory.
+ *
  *    If environment variable EGM2008_GRID_USAGE is not set, or if it 
- *    is set to something other that "FULL" or "AOI", then GeoidLibrary will 
+ *    is set to something other that "FULL", "AOI" or "TILED", then GeoidLibrary will 
  *    interpolate EGM2008 geoid separations using its Area of Interest algorithm.  
  *    This algorithm may not be fast enough for users needing to quickly compute 
  *    very large numbers of geoid separations at widely dispersed horizontal locations.
@@ -102,6 +114,12 @@
  *                      to handle the EGM2008 geoid (BAEts26267).
  *    05-17-11          T. Thompson, BAEts27393, inform user if problem is
  *                      due to undefined MSPCCS_DATA
+ *    10-17-26          Added the TILED EGM2008 grid usage, which interpolates
+ *                      from a memory-mapped grid through a sharded tile cache
+ *    10-17-26          Added batch conversions of arrays of heights, which
+ *                      interpolate EGM2008 points in grid cell order
+ *    10-17-26          Replaced loadGeoids() by loadGeoid(), which loads
+ *                      each geoid model on its first use; added preload()
  *                      
  */
 
@@ -114,6 +132,7 @@
 #include <string.h>   
 #include <stdlib.h>  
 #include <stdio.h>
+#include <math.h>
 #include "GeoidLibrary.h"
 #include "CoordinateConversionException.h"
 #include "ErrorMessages.h"
@@ -123,13 +142,17 @@
 #include "egm2008_geoid_grid.h"
 #include "egm2008_aoi_grid_package.h"
 #include "egm2008_full_grid_package.h"
+#include "egm2008_tiled_grid_package.h"
 
+#include <algorithm>
+#include <utility>
 #include <vector>
 
 /*
  *    string.h   - standard C string handling library
  *    stdio.h    - standard C input/output library
  *    stdlib.h   - standard C general utilities library
+ *    math.h     - standard C math library
  *    GeoidLibrary.h  - prototype error checking and error codes
  *    threads.h  - used for thread safety
  *    CoordinateConversionException.h - Exception handler
@@ -167,6 +190,9 @@ const int EGM96_ELEVATIONS = EGM96_COLS * EGM96_ROWS;
 const int EGM84_ELEVATIONS = EGM84_COLS * EGM84_ROWS;
 const int EGM84_30_MIN_ELEVATIONS = EGM84_30_MIN_COLS * EGM84_30_MIN_ROWS; 
 const int EGM96_INSET_AREAS = 53;
+const long BATCH_SIZE = 65536;                 /* EGM2008 points sorted into grid cell order at a time */
+const int EGM2008_WSIZE = 6;                   /* EGM2008 local interpolation window size */
+const double EGM2008_CELL_DEGREES = 2.5 / 60.0; /* EGM2008 grid spacing, 2.5 minutes */
 
 
 /* defines the egm96 variable grid */
@@ -281,6 +307,90 @@ size_t readBinary(
    return actual_count;
 }
 
+
+void selectEGM96VariableGrid(
+   double  latitude_degrees,
+   double  longitude_degrees,
+   double &scale_factor,
+   int    &num_cols,
+   int    &num_rows )
+{
+/*
+ * The function selectEGM96VariableGrid selects the EGM96 variable grid
+ * spacing at the specified geodetic coordinates: 30 minutes inside the
+ * inset areas, 1 degree between 60 degrees south and north, and 2 degrees
+ * elsewhere.  All the boundaries are multiples of 30 minutes.
+ *
+ *    latitude_degrees    : Geodetic latitude in degrees           (input)
+ *    longitude_degrees   : Geodetic longitude in degrees, 0 to 360 (input)
+ *    scale_factor        : Grid scale factor                      (output)
+ *    num_cols            : Number of columns in grid              (output)
+ *    num_rows            : Number of rows in grid                 (output)
+ */
+
+  for( int i = 0; i < EGM96_INSET_AREAS; i++ )
+  {
+    if(( latitude_degrees  >= EGM96_Variable_Grid_Table[i].min_lat ) &&
+       ( longitude_degrees >= EGM96_Variable_Grid_Table[i].min_lon ) &&
+       ( latitude_degrees   < EGM96_Variable_Grid_Table[i].max_lat ) &&
+       ( longitude_degrees  < EGM96_Variable_Grid_Table[i].max_lon ) )
+    {
+      scale_factor = SCALE_FACTOR_30_MINUTES; // use 30 minute by 30 minute grid
+      num_cols = 721;
+      num_rows = 361;
+      return;
+    }
+  }
+
+  if( latitude_degrees >= -60.0 && latitude_degrees < 60.0 )
+  {
+    scale_factor = SCALE_FACTOR_1_DEGREE; // use 1 degree by 1 degree grid
+    num_cols = 361;
+    num_rows = 181;
+  }
+  else
+  {
+    scale_factor = SCALE_FACTOR_2_DEGREES; // use 2 degree by 2 degree grid
+    num_cols = 181;
+    num_rows = 91;
+  }
+}
+
+
+unsigned long long spreadBits( unsigned int value )
+{
+/*
+ * The function spreadBits moves bit i of value to bit 2i of the result.
+ *
+ *    value   : Value whose bits are spread                      (input)
+ */
+
+  unsigned long long bits = value;
+
+  bits = ( bits | ( bits << 16 ) ) & 0x0000FFFF0000FFFFULL;
+  bits = ( bits | ( bits <<  8 ) ) & 0x00FF00FF00FF00FFULL;
+  bits = ( bits | ( bits <<  4 ) ) & 0x0F0F0F0F0F0F0F0FULL;
+  bits = ( bits | ( bits <<  2 ) ) & 0x3333333333333333ULL;
+  bits = ( bits | ( bits <<  1 ) ) & 0x5555555555555555ULL;
+
+  return bits;
+}
+
+
+unsigned long long cellKey( unsigned int row, unsigned int col )
+{
+/*
+ * The function cellKey interleaves the bits of a grid cell's row and
+ * column indices (Morton order), so that sorting points by key groups the
+ * points of each cell together and keeps nearby cells close together.
+ *
+ *    row     : Grid cell row index                              (input)
+ *    col     : Grid cell column index                           (input)
+ */
+
+  return ( spreadBits( row ) << 1 ) | spreadBits( col );
+}
+
 /************************************************************************/
 /*                              FUNCTIONS     
  *
@@ -356,7 +466,13 @@ void GeoidLibrary::deleteInstance()
 
 GeoidLibrary::GeoidLibrary()
 {
-   loadGeoids();
+   egm96GeoidList          = NULL;
+   egm84GeoidList          = NULL;
+   egm84ThirtyMinGeoidList = NULL;
+   egm2008Geoid            = NULL;
+
+   for( int model = 0; model < geoidModelCount; model++ )
+      geoidLoaded[model] = false;
 }
 
 
@@ -381,102 +497,208 @@ GeoidLibrary& GeoidLibrary::operator=( const GeoidLibrary &gl )
   if ( &gl == this )
      return *this;
 
-  egm96GeoidList = new float[EGM96_ELEVATIONS]; 
-  egm84GeoidList = new float[EGM84_ELEVATIONS];
-  egm84ThirtyMinGeoidList = new double[EGM84_30_MIN_ELEVATIONS];
+  // Models not yet loaded by gl are left to be loaded on first use
+  egm96GeoidList = NULL;
+  egm84GeoidList = NULL;
+  egm84ThirtyMinGeoidList = NULL;
 
-  for( int i = 0; i < EGM96_ELEVATIONS; i++ )
+  if( gl.egm96GeoidList != NULL )
   {
-     egm96GeoidList[i] = gl.egm96GeoidList[i];
+     egm96GeoidList = new float[EGM96_ELEVATIONS]; 
+     for( int i = 0; i < EGM96_ELEVATIONS; i++ )
+     {
+        egm96GeoidList[i] = gl.egm96GeoidList[i];
+     }
   }
 
-  for( int j = 0; j < EGM84_ELEVATIONS; j++ )
+  if( gl.egm84GeoidList != NULL )
   {
-     egm84GeoidList[j] = gl.egm84GeoidList[j];
+     egm84GeoidList = new float[EGM84_ELEVATIONS];
+     for( int j = 0; j < EGM84_ELEVATIONS; j++ )
+     {
+        egm84GeoidList[j] = gl.egm84GeoidList[j];
+     }
   }
 
-  for( int k = 0; k < EGM84_30_MIN_ELEVATIONS; k++ )
+  if( gl.egm84ThirtyMinGeoidList != NULL )
   {
-     egm84ThirtyMinGeoidList[k] = gl.egm84ThirtyMinGeoidList[k];
+     egm84ThirtyMinGeoidList = new double[EGM84_30_MIN_ELEVATIONS];
+     for( int k = 0; k < EGM84_30_MIN_ELEVATIONS; k++ )
+     {
+        egm84ThirtyMinGeoidList[k] = gl.egm84ThirtyMinGeoidList[k];
+     }
   }
 
-  *( this->egm2008Geoid ) = *( gl.egm2008Geoid );  // Assign EGM 2008 object
+  if( gl.egm2008Geoid != NULL )
+     *( this->egm2008Geoid ) = *( gl.egm2008Geoid );  // Assign EGM 2008 object
+
+  geoidLoaded[egm96Model] = ( egm96GeoidList != NULL );
+  geoidLoaded[egm84Model] = ( egm84GeoidList != NULL );
+  geoidLoaded[egm84ThirtyMinModel] = ( egm84ThirtyMinGeoidList != NULL );
+  geoidLoaded[egm2008Model] = gl.geoidLoaded[egm2008Model].load();
 
   return *this;
 }
 
 
-void GeoidLibrary::loadGeoids()
+void GeoidLibrary::loadGeoid( GeoidModel model, bool throwErrors )
 {
 /*
- * The function loadGeoids reads geoid separation data from a file in
- * the current directory and builds the geoid separation table from it.
- * If the separation file can not be found or accessed, an error code of
- * GEOID_FILE_OPEN_ERROR is returned, If the separation file is incomplete
- * or improperly formatted, an error code of GEOID_INITIALIZE_ERROR is returned,
- * otherwise GEOID_NO_ERROR is returned. This function must be called before 
- * any of the other functions in this component.
+ * The function loadGeoid reads the geoid separation data of a model the
+ * first time it is called for that model.  A model whose data cannot be
+ * read is left NULL, and is not read again: conversions using it fail.
+ * The loaded flag is set after the data, so a thread which sees it set
+ * also sees the data.
  *
- * If one or more geoids can be initialized, the function returns successfully.
+ *    model               : Geoid model to be loaded               (input)
+ *    throwErrors         : Throw the loading error, if any        (input)
  */
 
-   egm96GeoidList          = NULL;
-   egm84GeoidList          = NULL;
-   egm84ThirtyMinGeoidList = NULL;
-   egm2008Geoid            = NULL;
+   if( geoidLoaded[model].load( std::memory_order_acquire ) )
+      return;
 
-   // Legacy geoids .....
+   CCSThreadLock lock(&mutex);
+
+   if( geoidLoaded[model].load( std::memory_order_relaxed ) )
+      return;
 
    try
    {
-      initializeEGM96Geoid();
-   }
-   catch (MSP::CCS::CoordinateConversionException& cce)
-   {
-      delete egm96GeoidList;
-      egm96GeoidList = NULL;
-   }
-   try
-   {
-      initializeEGM84Geoid();
-   }
-   catch (MSP::CCS::CoordinateConversionException& cce)
-   {
-      delete egm84GeoidList;
-      egm84GeoidList = NULL;
-   }
-   try
-   {
-      initializeEGM84ThirtyMinGeoid();
+      switch( model )
+      {
+         case egm96Model:
+            initializeEGM96Geoid();
+            break;
+         case egm84Model:
+            initializeEGM84Geoid();
+            break;
+         case egm84ThirtyMinModel:
+            initializeEGM84ThirtyMinGeoid();
+            break;
+         case egm2008Model:
+            initializeEGM2008Geoid();
+            break;
+         default:
+            break;
+      }
+      geoidLoaded[model].store( true, std::memory_order_release );
    }
    catch (MSP::CCS::CoordinateConversionException& cce)
    {
-      delete egm84ThirtyMinGeoidList;
-      egm84ThirtyMinGeoidList = NULL;
+      switch( model )
+      {
+         case egm96Model:
+            delete [] egm96GeoidList;
+            egm96GeoidList = NULL;
+            break;
+         case egm84Model:
+            delete [] egm84GeoidList;
+            egm84GeoidList = NULL;
+            break;
+         case egm84ThirtyMinModel:
+            delete [] egm84ThirtyMinGeoidList;
+            egm84ThirtyMinGeoidList = NULL;
+            break;
+         case egm2008Model:
+            delete egm2008Geoid;
+            egm2008Geoid = NULL;
+            break;
+         default:
+            break;
+      }
+      geoidLoaded[model].store( true, std::memory_order_release );
+
+      if( throwErrors )
+         throw;
    }
 
-   // EGM2008 geoid .....
+}  // End of function loadGeoid()
 
-   try
+
+GeoidLibrary::GeoidModel GeoidLibrary::geoidModel( HeightType::Enum heightType )
+{
+/*
+ * The function geoidModel returns the geoid model used by a height type,
+ * or geoidModelCount if it uses none.
+ *
+ *    heightType          : Height type                            (input)
+ */
+
+   switch( heightType )
    {
-      initializeEGM2008Geoid();
+      case HeightType::EGM96FifteenMinBilinear:
+      case HeightType::EGM96VariableNaturalSpline:
+         return egm96Model;
+      case HeightType::EGM84TenDegBilinear:
+      case HeightType::EGM84TenDegNaturalSpline:
+         return egm84Model;
+      case HeightType::EGM84ThirtyMinBiLinear:
+         return egm84ThirtyMinModel;
+      case HeightType::EGM2008TwoPtFiveMinBicubicSpline:
+         return egm2008Model;
+      default:
+         return geoidModelCount;
    }
-   catch (MSP::CCS::CoordinateConversionException& cce)
+}
+
+
+void GeoidLibrary::preload(
+   long                   count,
+   const HeightType::Enum heightTypes[] )
+{
+/*
+ * The function preload loads the geoid models used by the given height
+ * types, instead of leaving them to be loaded by their first conversion.
+ * Height types without a geoid model are ignored.
+ *
+ *    count               : Number of height types                 (input)
+ *    heightTypes         : Height types to be preloaded           (input)
+ */
+
+   for( long i = 0; i < count; i++ )
    {
-      delete egm2008Geoid;
-      egm2008Geoid = NULL;
+      GeoidModel model = geoidModel( heightTypes[i] );
+      if( model == geoidModelCount )
+         continue;
+
+      // A model which failed to load earlier has no error left to throw
+      bool attempted = geoidLoaded[model].load( std::memory_order_acquire );
 
-      // if nothing worked, throw an exception
-      if (egm96GeoidList          == NULL &&
-          egm84GeoidList          == NULL &&
-          egm84ThirtyMinGeoidList == NULL)
+      loadGeoid( model, true );
+
+      bool available;
+      const char* fileName;
+      switch( model )
       {
-         throw CoordinateConversionException(
-            "Error: GeoidLibrary::LoadGeoids: All geoid height buffer initialization failed.");
+         case egm96Model:
+            available = ( egm96GeoidList != NULL );
+            fileName = "egm96.grd";
+            break;
+         case egm84Model:
+            available = ( egm84GeoidList != NULL );
+            fileName = "egm84.grd";
+            break;
+         case egm84ThirtyMinModel:
+            available = ( egm84ThirtyMinGeoidList != NULL );
+            fileName = "wwgrid.bin";
+            break;
+         default:
+            available = ( egm2008Geoid != NULL );
+            fileName = "Und_min2.5x2.5_egm2008_WGS84_TideFree_reformatted";
+            break;
       }
-   }
 
-}  // End of function loadGeoids()
+      if( attempted && !available )
+      {
+         char message[256] = "";
+         strcpy( message, ErrorMessages::geoidFileOpenError );
+         strcat( message, ": " );
+         strcat( message, fileName );
+         strcat( message, "\n" );
+         throw CoordinateConversionException( message );
+      }
+   }
+}
 
 
 void GeoidLibrary::convertEllipsoidToEGM96FifteenMinBilinearGeoidHeight(
@@ -497,6 +719,8 @@ void GeoidLibrary::convertEllipsoidToEGM96FifteenMinBilinearGeoidHeight(
  *
  */
 
+  loadGeoid( egm96Model );
+
   if (egm96GeoidList == NULL)
   {
     throw CoordinateConversionException(
@@ -532,55 +756,26 @@ void GeoidLibrary::convertEllipsoidToEGM96VariableNaturalSplineHeight(
  *
  */
 
+  loadGeoid( egm96Model );
+
   if (egm96GeoidList == NULL)
   {
     throw CoordinateConversionException(
       "Error: EGM96 Geoid height buffer is NULL");
   }
 
-  int i = 0;
-  int num_cols = EGM96_COLS;
-  int num_rows = EGM96_ROWS;
+  int num_cols;
+  int num_rows;
   double latitude_degrees = latitude * _180_OVER_PI;
   double longitude_degrees = longitude * _180_OVER_PI;
-  double scale_factor = SCALE_FACTOR_15_MINUTES;
+  double scale_factor;
   double delta_height;
-  long found = 0;
 
   if( longitude_degrees < 0.0 )
     longitude_degrees += 360.0;
 
-  while( !found && i < EGM96_INSET_AREAS )
-  {
-    if(( latitude_degrees  >= EGM96_Variable_Grid_Table[i].min_lat ) &&
-       ( longitude_degrees >= EGM96_Variable_Grid_Table[i].min_lon ) &&
-       ( latitude_degrees   < EGM96_Variable_Grid_Table[i].max_lat ) &&
-       ( longitude_degrees  < EGM96_Variable_Grid_Table[i].max_lon ) )
-    {
-      scale_factor = SCALE_FACTOR_30_MINUTES; // use 30 minute by 30 minute grid
-      num_cols = 721;
-      num_rows = 361;
-      found = 1;
-    }
-
-    i++;
-  }
-
-  if( !found )
-  {
-    if( latitude_degrees >= -60.0 && latitude_degrees < 60.0 )
-    {
-      scale_factor = SCALE_FACTOR_1_DEGREE; // use 1 degree by 1 degree grid
-      num_cols = 361;
-      num_rows = 181;
-    }
-    else
-    {
-      scale_factor = SCALE_FACTOR_2_DEGREES; // use 2 degree by 2 degree grid
-      num_cols = 181;
-      num_rows = 91;
-    }
-  }
+  selectEGM96VariableGrid(
+     latitude_degrees, longitude_degrees, scale_factor, num_cols, num_rows );
 
   naturalSplineInterpolate(
      longitude, latitude,
@@ -609,6 +804,8 @@ void GeoidLibrary::convertEllipsoidToEGM84TenDegBilinearHeight(
  *
  */
 
+   loadGeoid( egm84Model );
+
    if (egm84GeoidList == NULL)
    {
       throw CoordinateConversionException(
@@ -644,6 +841,8 @@ void GeoidLibrary::convertEllipsoidToEGM84TenDegNaturalSplineHeight(
  *
  */
 
+  loadGeoid( egm84Model );
+
   if (egm84GeoidList == NULL)
   {
     throw CoordinateConversionException(
@@ -678,7 +877,9 @@ void GeoidLibrary::convertEllipsoidToEGM84ThirtyMinBiLinearHeight(
  *
  */
 
-  if (egm84GeoidList == NULL)
+  loadGeoid( egm84ThirtyMinModel );
+
+  if (egm84ThirtyMinGeoidList == NULL)
   {
     throw CoordinateConversionException(
       "Error: EGM84 Geoid height buffer is NULL");
@@ -719,6 +920,8 @@ void GeoidLibrary::convertEllipsoidHeightToEGM2008GeoidHeight(
    // These two functions have identical software signatures, so there is no need
    // for two EGM2008 GeoidLibrary ellisoid-height -to- height-above-geoid functions.
 
+   loadGeoid( egm2008Model );
+
    if (this->egm2008Geoid == NULL)
    {
       throw CoordinateConversionException(
@@ -737,7 +940,7 @@ void GeoidLibrary::convertEllipsoidHeightToEGM2008GeoidHeight(
          this->egm2008Geoid->geoidHeight
             ( WSIZE, latitude, longitude, geoidSeparation );
 
-      if ( error != 0 )                                    throw;
+      if ( error != 0 )                              throw error;
 
       *geoidHeight = ellipsoidHeight - geoidSeparation;
 
@@ -766,6 +969,8 @@ void GeoidLibrary::convertEGM96FifteenMinBilinearGeoidToEllipsoidHeight( double
  *
  */
 
+  loadGeoid( egm96Model );
+
   if (egm96GeoidList == NULL)
   {
     throw CoordinateConversionException(
@@ -801,55 +1006,26 @@ void GeoidLibrary::convertEGM96VariableNaturalSplineToEllipsoidHeight(
  *
  */
 
+  loadGeoid( egm96Model );
+
   if (egm96GeoidList == NULL)
   {
     throw CoordinateConversionException(
       "Error: EGM96 Geoid height buffer is NULL");
   }
 
-  int i = 0;
-  int num_cols = EGM96_COLS;
-  int num_rows = EGM96_ROWS;
+  int num_cols;
+  int num_rows;
   double latitude_degrees = latitude * _180_OVER_PI;
   double longitude_degrees = longitude * _180_OVER_PI;
-  double scale_factor = SCALE_FACTOR_15_MINUTES;
+  double scale_factor;
   double delta_height;
-  long found = 0;
 
   if( longitude_degrees < 0.0 )
     longitude_degrees += 360.0;
 
-  while( !found && i < EGM96_INSET_AREAS )
-  {
-    if(( latitude_degrees  >= EGM96_Variable_Grid_Table[i].min_lat ) &&
-       ( longitude_degrees >= EGM96_Variable_Grid_Table[i].min_lon ) &&
-       ( latitude_degrees   < EGM96_Variable_Grid_Table[i].max_lat ) &&
-       ( longitude_degrees  < EGM96_Variable_Grid_Table[i].max_lon ) )
-    {
-      scale_factor = SCALE_FACTOR_30_MINUTES; // use 30 minute by 30 minute grid
-      num_cols = 721;
-      num_rows = 361;
-      found = 1;
-    }
-
-    i++;
-  }
-
-  if( !found )
-  {
-    if( latitude_degrees >= -60.0 && latitude_degrees < 60.0 )
-    {
-      scale_factor = SCALE_FACTOR_1_DEGREE; // use 1 degree by 1 degree grid
-      num_cols = 361;
-      num_rows = 181;
-    }
-    else
-    {
-      scale_factor = SCALE_FACTOR_2_DEGREES; // use 2 degree by 2 degree grid
-      num_cols = 181;
-      num_rows = 91;
-    }
-  }
+  selectEGM96VariableGrid(
+     latitude_degrees, longitude_degrees, scale_factor, num_cols, num_rows );
 
   naturalSplineInterpolate(
      longitude, latitude,
@@ -874,6 +1050,8 @@ void GeoidLibrary::convertEGM84TenDegBilinearToEllipsoidHeight( double longitude
  *
  */
 
+  loadGeoid( egm84Model );
+
   if (egm84GeoidList == NULL)
   {
     throw CoordinateConversionException(
@@ -909,6 +1087,8 @@ void GeoidLibrary::convertEGM84TenDegNaturalSplineToEllipsoidHeight(
  *
  */
 
+  loadGeoid( egm84Model );
+
   if (egm84GeoidList == NULL)
   {
     throw CoordinateConversionException(
@@ -943,7 +1123,9 @@ void GeoidLibrary::convertEGM84ThirtyMinBiLinearToEllipsoidHeight(
  *
  */
 
-  if (egm84GeoidList == NULL)
+  loadGeoid( egm84ThirtyMinModel );
+
+  if (egm84ThirtyMinGeoidList == NULL)
   {
     throw CoordinateConversionException(
       "Error: EGM84 Geoid height buffer is NULL");
@@ -982,6 +1164,8 @@ void GeoidLibrary::convertEGM2008GeoidHeightToEllipsoidHeight (
    // These two functions have identical software signatures, so there is no need
    // for two EGM2008 GeoidLibrary height-above-geoid -to- ellipsoid_height functions.
 
+   loadGeoid( egm2008Model );
+
    if (this->egm2008Geoid == NULL)
    {
       throw CoordinateConversionException(
@@ -1000,7 +1184,7 @@ void GeoidLibrary::convertEGM2008GeoidHeightToEllipsoidHeight (
          this->egm2008Geoid->geoidHeight
             ( WSIZE, latitude, longitude, geoidSeparation );
 
-      if ( error != 0 )                                    throw;
+      if ( error != 0 )                              throw error;
 
       *ellipsoidHeight = geoidHeight + geoidSeparation;
 
@@ -1015,11 +1199,347 @@ void GeoidLibrary::convertEGM2008GeoidHeightToEllipsoidHeight (
 }  // End of function convertEGM2008GeoidHeightToEllipsoidHeight()
 
 
+void GeoidLibrary::convertEllipsoidToGeoidHeights(
+   HeightType::Enum heightType,
+   long             count,
+   const double     longitude[],
+   const double     latitude[],
+   const double     ellipsoidHeight[],
+   double           geoidHeight[],
+   const char*      errorMessages[] )
+{
+/*
+ * The function convertEllipsoidToGeoidHeights converts count WGS84
+ * ellipsoid heights to the equivalent geoid heights, using the gravity
+ * model and interpolation method of heightType.
+ *
+ *    heightType          : Geoid model and interpolation method   (input)
+ *    count               : Number of points                       (input)
+ *    longitude           : Geodetic longitudes in radians         (input)
+ *    latitude            : Geodetic latitudes in radians          (input)
+ *    ellipsoidHeight     : Ellipsoid heights, in meters           (input)
+ *    geoidHeight         : Geoid heights, in meters               (output)
+ *    errorMessages       : Error descriptions, or 0               (output)
+ *
+ */
+
+  convertHeights(
+     heightType, false, count, longitude, latitude,
+     ellipsoidHeight, geoidHeight, errorMessages );
+}
+
+
+void GeoidLibrary::convertGeoidToEllipsoidHeights(
+   HeightType::Enum heightType,
+   long             count,
+   const double     longitude[],
+   const double     latitude[],
+   const double     geoidHeight[],
+   double           ellipsoidHeight[],
+   const char*      errorMessages[] )
+{
+/*
+ * The function convertGeoidToEllipsoidHeights converts count geoid
+ * heights to the equivalent WGS84 ellipsoid heights, using the gravity
+ * model and interpolation method of heightType.
+ *
+ *    heightType          : Geoid model and interpolation method   (input)
+ *    count               : Number of points                       (input)
+ *    longitude           : Geodetic longitudes in radians         (input)
+ *    latitude            : Geodetic latitudes in radians          (input)
+ *    geoidHeight         : Geoid heights, in meters               (input)
+ *    ellipsoidHeight     : Ellipsoid heights, in meters           (output)
+ *    errorMessages       : Error descriptions, or 0               (output)
+ *
+ */
+
+  convertHeights(
+     heightType, true, count, longitude, latitude,
+     geoidHeight, ellipsoidHeight, errorMessages );
+}
+
+
 /************************************************************************/
 /*                              PRIVATE FUNCTIONS     
  *
  */
 
+void GeoidLibrary::convertHeights(
+   HeightType::Enum heightType,
+   bool             toEllipsoid,
+   long             count,
+   const double     longitude[],
+   const double     latitude[],
+   const double     inputHeight[],
+   double           outputHeight[],
+   const char*      errorMessages[] )
+{
+/*
+ * The private function convertHeights converts count heights.  The EGM84
+ * and EGM96 grids are small and each point reads only four posts, so
+ * their points are interpolated in the order given; the EGM96 variable
+ * grid spacing is selected once per 30 minute cell.  The EGM2008 points
+ * are converted a block at a time: the points of each block are sorted
+ * by the grid cell that contains them and interpolated together, so that
+ * points sharing an interpolation window share its posts and row moments,
+ * and an Area of Interest grid is reloaded at most once per area.  Each
+ * point's height adjustment is computed exactly as by the single point
+ * functions.
+ *
+ *    heightType          : Geoid model and interpolation method   (input)
+ *    toEllipsoid         : Convert geoid heights to ellipsoid
+ *                          heights instead of the reverse         (input)
+ *    count               : Number of points                       (input)
+ *    longitude           : Geodetic longitudes in radians         (input)
+ *    latitude            : Geodetic latitudes in radians          (input)
+ *    inputHeight         : Heights to be converted, in meters     (input)
+ *    outputHeight        : Converted heights, in meters           (output)
+ *    errorMessages       : Error descriptions, or 0               (output)
+ *
+ */
+
+  switch( heightType )
+  {
+    case HeightType::EGM96FifteenMinBilinear:
+    case HeightType::EGM96VariableNaturalSpline:
+      loadGeoid( egm96Model );
+      if( egm96GeoidList == NULL )
+        throw CoordinateConversionException(
+           "Error: EGM96 Geoid height buffer is NULL" );
+      break;
+    case HeightType::EGM84TenDegBilinear:
+    case HeightType::EGM84TenDegNaturalSpline:
+      loadGeoid( egm84Model );
+      if( egm84GeoidList == NULL )
+        throw CoordinateConversionException(
+           "Error: EGM84 Geoid height buffer is NULL" );
+      break;
+    case HeightType::EGM84ThirtyMinBiLinear:
+      loadGeoid( egm84ThirtyMinModel );
+      if( egm84ThirtyMinGeoidList == NULL )
+        throw CoordinateConversionException(
+           "Error: EGM84 Geoid height buffer is NULL" );
+      break;
+    case HeightType::EGM2008TwoPtFiveMinBicubicSpline:
+      loadGeoid( egm2008Model );
+      if( egm2008Geoid == NULL )
+        throw CoordinateConversionException(
+           "Error: EGM2008 geoid buffer is NULL" );
+      convertEGM2008Heights(
+         toEllipsoid, count, longitude, latitude,
+         inputHeight, outputHeight, errorMessages );
+      return;
+    default:
+      throw CoordinateConversionException( "Error: Invalid geoid height type" );
+  }
+
+  double lastCell[2] = { HUGE_VAL, HUGE_VAL };
+  double scale_factor = SCALE_FACTOR_1_DEGREE;
+  int num_cols = 0;
+  int num_rows = 0;
+
+  for( long i = 0; i < count; i++ )
+  {
+    double lat = latitude[i];
+    double lon = longitude[i];
+    double delta_height;
+
+    /* Also rejects NaNs, which the interpolators do not */
+    if( !( lat >= -PI_OVER_2 && lat <= PI_OVER_2 ) )
+    {
+      errorMessages[i] = ErrorMessages::latitude;
+      outputHeight[i] = 0.0;
+      continue;
+    }
+    if( !( lon >= -PI && lon <= TWO_PI ) )
+    {
+      errorMessages[i] = ErrorMessages::longitude;
+      outputHeight[i] = 0.0;
+      continue;
+    }
+
+    switch( heightType )
+    {
+      case HeightType::EGM96FifteenMinBilinear:
+        bilinearInterpolate(
+           lon, lat,
+           SCALE_FACTOR_15_MINUTES, EGM96_COLS, EGM96_ROWS, egm96GeoidList,
+           &delta_height );
+        break;
+      case HeightType::EGM96VariableNaturalSpline:
+      {
+        double latitude_degrees = lat * _180_OVER_PI;
+        double longitude_degrees = lon * _180_OVER_PI;
+
+        if( longitude_degrees < 0.0 )
+          longitude_degrees += 360.0;
+
+        /* Doubling is exact, so the 30 minute cell determines the grid */
+        double cell[2] = { floor( latitude_degrees * 2.0 ), floor( longitude_degrees * 2.0 ) };
+        if( cell[0] != lastCell[0] || cell[1] != lastCell[1] )
+        {
+          selectEGM96VariableGrid(
+             latitude_degrees, longitude_degrees, scale_factor, num_cols, num_rows );
+          lastCell[0] = cell[0];
+          lastCell[1] = cell[1];
+        }
+
+        naturalSplineInterpolate(
+           lon, lat,
+           scale_factor, num_cols, num_rows, EGM96_ELEVATIONS-1, egm96GeoidList,
+           &delta_height );
+        break;
+      }
+      case HeightType::EGM84TenDegBilinear:
+        bilinearInterpolate(
+           lon, lat,
+           SCALE_FACTOR_10_DEGREES, EGM84_COLS, EGM84_ROWS, egm84GeoidList,
+           &delta_height );
+        break;
+      case HeightType::EGM84TenDegNaturalSpline:
+        naturalSplineInterpolate(
+           lon, lat,
+           SCALE_FACTOR_10_DEGREES, EGM84_COLS, EGM84_ROWS, EGM84_ELEVATIONS-1,
+           egm84GeoidList, &delta_height );
+        break;
+      case HeightType::EGM84ThirtyMinBiLinear:
+      default:
+        bilinearInterpolateDoubleHeights(
+           lon, lat,
+           SCALE_FACTOR_30_MINUTES, EGM84_30_MIN_COLS, EGM84_30_MIN_ROWS,
+           egm84ThirtyMinGeoidList, &delta_height );
+        break;
+    }
+
+    errorMessages[i] = 0;
+
+    if( toEllipsoid )
+      outputHeight[i] = inputHeight[i] + delta_height;
+    else
+      outputHeight[i] = inputHeight[i] - delta_height;
+  }
+}
+
+
+void GeoidLibrary::convertEGM2008Heights(
+   bool             toEllipsoid,
+   long             count,
+   const double     longitude[],
+   const double     latitude[],
+   const double     inputHeight[],
+   double           outputHeight[],
+   const char*      errorMessages[] )
+{
+/*
+ * The private function convertEGM2008Heights converts count heights using
+ * the EGM2008 geoid, a block of points at a time.  Each point of a block
+ * is given a key holding its grid cell, in Morton order, above its index
+ * in the block; sorting the keys groups the points of each cell together
+ * and keeps nearby cells close together.
+ *
+ *    toEllipsoid         : Convert geoid heights to ellipsoid
+ *                          heights instead of the reverse         (input)
+ *    count               : Number of points                       (input)
+ *    longitude           : Geodetic longitudes in radians         (input)
+ *    latitude            : Geodetic latitudes in radians          (input)
+ *    inputHeight         : Heights to be converted, in meters     (input)
+ *    outputHeight        : Converted heights, in meters           (output)
+ *    errorMessages       : Error descriptions, or 0               (output)
+ *
+ */
+
+  static const char* egm2008Error[2] = {
+     "Error: Could not convert ellipsoid height to EGM2008 geoid height",
+     "Error: Could not convert EGM2008 geoid height to ellipsoid height" };
+
+  long blockCapacity = ( count < BATCH_SIZE ) ? count : BATCH_SIZE;
+
+  std::vector< unsigned long long > order;
+  std::vector< double > blockLatitude( blockCapacity );
+  std::vector< double > blockLongitude( blockCapacity );
+  std::vector< double > blockSeparation( blockCapacity );
+  std::vector< int > blockErrors( blockCapacity );
+
+  order.reserve( blockCapacity );
+
+  for( long start = 0; start < count; start += BATCH_SIZE )
+  {
+    long end = ( count - start < BATCH_SIZE ) ? count : start + BATCH_SIZE;
+
+    /*  Check the coordinates, and sort the points by grid cell:      */
+
+    order.clear();
+
+    for( long i = start; i < end; i++ )
+    {
+      double lat = latitude[i];
+      double lon = longitude[i];
+
+      /* The interpolator accepts any finite longitude */
+      if( !( lat >= -PI_OVER_2 && lat <= PI_OVER_2 ) ||
+          !( lon > -HUGE_VAL && lon < HUGE_VAL ) )
+      {
+        errorMessages[i] = egm2008Error[toEllipsoid];
+        outputHeight[i] = 0.0;
+        continue;
+      }
+
+      double longitude_dd = lon * _180_OVER_PI;
+      if( longitude_dd < 0.0 || longitude_dd >= 360.0 )
+      {
+        longitude_dd = fmod( longitude_dd, 360.0 );
+        if( longitude_dd < 0.0 )
+          longitude_dd += 360.0;
+      }
+
+      unsigned long long cell = cellKey(
+         ( unsigned int )( ( lat * _180_OVER_PI + 90.0 ) / EGM2008_CELL_DEGREES ),
+         ( unsigned int )( longitude_dd / EGM2008_CELL_DEGREES ) );
+
+      order.push_back( ( cell << 16 ) | ( unsigned long long )( i - start ) );
+    }
+
+    std::sort( order.begin(), order.end() );
+
+    long n = ( long )order.size();
+
+    /*  Interpolate the geoid separations in grid cell order:         */
+
+    for( long k = 0; k < n; k++ )
+    {
+      long i = start + ( long )( order[k] & 0xFFFF );
+
+      blockLatitude[k] = latitude[i];
+      blockLongitude[k] = longitude[i];
+    }
+
+    if( n > 0 )
+      egm2008Geoid->geoidHeights(
+         EGM2008_WSIZE, n, &blockLatitude[0], &blockLongitude[0],
+         &blockSeparation[0], &blockErrors[0] );
+
+    for( long k = 0; k < n; k++ )
+    {
+      long i = start + ( long )( order[k] & 0xFFFF );
+
+      if( blockErrors[k] != 0 )
+      {
+        errorMessages[i] = egm2008Error[toEllipsoid];
+        outputHeight[i] = 0.0;
+      }
+      else
+      {
+        errorMessages[i] = 0;
+        if( toEllipsoid )
+          outputHeight[i] = inputHeight[i] + blockSeparation[k];
+        else
+          outputHeight[i] = inputHeight[i] - blockSeparation[k];
+      }
+    }
+  }
+}
+
+
 void GeoidLibrary::initializeEGM96Geoid()
 {
 /*
@@ -1282,7 +1802,7 @@ void GeoidLibrary::initializeEGM2008Geoid( void )
 {
    // December 17, 2010
 
-   // This function initializes one of two
+   // This function initializes one of three
    // EGM2008 geoid separation interpolators.
 
    // The FULL_GRID interpolator reads the entire EGM2008
@@ -1290,9 +1810,11 @@ void GeoidLibrary::initializeEGM2008Geoid( void )
    // The AOI_GRID interpolator only reads the grid file's
    // header into memory upon instantiation.  Area of Interest
    // grids are read into memory later as needed for interpolation.
+   // The TILED_GRID interpolator maps the grid file into memory
+   // upon instantiation and decodes tiles of it as needed.
 
    // Most EGM2008 initialization functionality resides
-   // in the Egm2008FullGrid and Egm2008AoiGrid classes. 
+   // in the Egm2008FullGrid, Egm2008AoiGrid and Egm2008TiledGrid classes. 
    // Based on an environment variable, the following
    // logic instantiates the appropriate grid interpolator)
 
@@ -1321,9 +1843,26 @@ void GeoidLibrary::initializeEGM2008Geoid( void )
 
          this->egm2008Geoid = new Egm2008FullGrid;
       }
+      else if ( strcmp( gridUsage, "TILED" ) == 0 )
+      {
+         // Environment variable set to "TILED", so
+         // instantiate the Egm2008TiledGrid interpolator;
+         // object's constructor only maps the grid file here .....
+
+         char*  cacheSize = getenv( "EGM2008_TILE_CACHE_SIZE" );
+
+         if (( NULL != cacheSize ) && ( atoi( cacheSize ) > 0 ))
+         {
+            this->egm2008Geoid = new Egm2008TiledGrid( atoi( cacheSize ) );
+         }
+         else
+         {
+            this->egm2008Geoid = new Egm2008TiledGrid;
+         }
+      }
       else
       {
-         // Environment variable set, but not to "FULL",
+         // Environment variable set, but not to "FULL" or "TILED",
          // so instantiate the Egm2008AoiGrid interpolator;
          // object's constructor only reads grid file header here .....
 
@@ -67,11 +67,16 @@
  *    05-12-10          S. Gillis, BAEts26542, MSL-HAE for 30 minute grid added
  *    07-21-10          Read in full file at once instead of one post at a time 
  *    12-17-10          RD Craig added pointer to EGM2008 interpolator (BAEts26267).
+ *    10-17-26          Added batch conversions of arrays of heights
+ *    10-17-26          Load each geoid model on first use, added preload
  *
  */
 
+#include <atomic>
+
 #include "egm2008_geoid_grid.h"
 
+#include "HeightType.h"
 #include "DtccApi.h"
 
 namespace MSP
@@ -391,15 +396,91 @@ namespace MSP
                double geoidHeight,
                double *ellipsoidHeight ); 
 
+            /**
+             * The function convertEllipsoidToGeoidHeights converts count
+             * WGS84 ellipsoid heights, at the geodetic coordinates held in
+             * the longitude and latitude arrays, to the equivalent geoid
+             * heights, using the gravity model and interpolation method
+             * of heightType.  The points are interpolated in grid cell
+             * order, so that neighbouring points share the cached grid
+             * posts and, for EGM2008, the spline interpolation window.
+             * The results are identical to those of the single point
+             * functions.  Instead of throwing an exception, errorMessages[i]
+             * is set to a description of the error for each point that
+             * cannot be converted, and to 0 otherwise; the geoid heights of
+             * such points are set to 0.
+             *
+             * @param[in]   heightType         : Geoid model and interpolation method
+             * @param[in]   count              : Number of points
+             * @param[in]   longitude          : Geodetic longitudes in radians
+             * @param[in]   latitude           : Geodetic latitudes in radians
+             * @param[in]   ellipsoidHeight    : Ellipsoid heights, in meters
+             * @param[out]  geoidHeight        : Geoid heights, in meters
+             * @param[out]  errorMessages      : Error descriptions, or 0
+             *
+             */
+
+            void convertEllipsoidToGeoidHeights(
+               HeightType::Enum heightType,
+               long             count,
+               const double     longitude[],
+               const double     latitude[],
+               const double     ellipsoidHeight[],
+               double           geoidHeight[],
+               const char*      errorMessages[] );
+
+            /**
+             * The function convertGeoidToEllipsoidHeights converts count
+             * geoid heights, at the geodetic coordinates held in the
+             * longitude and latitude arrays, to the equivalent WGS84
+             * ellipsoid heights, in the same way as
+             * convertEllipsoidToGeoidHeights.
+             *
+             * @param[in]   heightType         : Geoid model and interpolation method
+             * @param[in]   count              : Number of points
+             * @param[in]   longitude          : Geodetic longitudes in radians
+             * @param[in]   latitude           : Geodetic latitudes in radians
+             * @param[in]   geoidHeight        : Geoid heights, in meters
+             * @param[out]  ellipsoidHeight    : Ellipsoid heights, in meters
+             * @param[out]  errorMessages      : Error descriptions, or 0
+             *
+             */
+
+            void convertGeoidToEllipsoidHeights(
+               HeightType::Enum heightType,
+               long             count,
+               const double     longitude[],
+               const double     latitude[],
+               const double     geoidHeight[],
+               double           ellipsoidHeight[],
+               const char*      errorMessages[] );
+
+            /**
+             * The function preload loads the geoid models used by the
+             * given height types.  Each model is otherwise loaded by the
+             * first conversion that uses it; preload lets an application
+             * pay that cost up front, for example before timing
+             * conversions.  Height types without a geoid model are
+             * ignored.  A model that cannot be loaded raises an
+             * exception; later conversions using it also fail.
+             *
+             * @param[in]   count              : Number of height types
+             * @param[in]   heightTypes        : Height types to be preloaded
+             *
+             */
+
+            void preload(
+               long                   count,
+               const HeightType::Enum heightTypes[] );
+
          protected:
 
             /**
              * The constructor creates empty lists which are used 
              * to store the geoid separation data
              * contained in the data files egm84.grd and egm96.grd.
-             *
-             * The constructor now also instantiates the 
-             * appropriate EGM2008 geoid separation interpolator.
+             * No data file is read: each list, and the EGM2008
+             * interpolator, is created when its model is first used.
              */
             
 	    GeoidLibrary();
@@ -413,10 +494,23 @@ namespace MSP
 
          private:
 
+            /* Geoid models, each loaded on first use */
+            enum GeoidModel
+            {
+               egm96Model,
+               egm84Model,
+               egm84ThirtyMinModel,
+               egm2008Model,
+               geoidModelCount
+            };
+
             static CCSThreadMutex mutex;
             static GeoidLibrary* instance;
             static int instanceCount;
 
+            /* Set once loading of each model has been attempted */
+            std::atomic<bool> geoidLoaded[geoidModelCount];
+
             /* List of EGM96 elevations */
             float *egm96GeoidList;
 
@@ -431,19 +525,30 @@ namespace MSP
             Egm2008GeoidGrid*  egm2008Geoid;
 
             /**
-             * The function loadGeoids reads geoid separation data from a file
-             * in the current directory and builds the geoid separation table
-             * from it.
-             * If the separation file can not be found or accessed, an 
-             * error code of GEOID_FILE_OPEN_ERROR is returned,
-             * If the separation file is incomplete or improperly formatted,
-             * an error code of GEOID_INITIALIZE_ERROR is returned,
-             * otherwise GEOID_NO_ERROR is returned.
-             * This function must be called before 
-             * any of the other functions in this component.
+             * The function loadGeoid reads the geoid separation data of
+             * a model the first time it is called for that model, and
+             * does nothing after that.  If the data cannot be read, the
+             * model's list (or interpolator) is left NULL and, when
+             * throwErrors is true, the error is thrown.  Loading is
+             * serialized by the mutex; once a model has been loaded it
+             * is checked without locking.
+             *
+             * @param[in]   model          : Geoid model to be loaded
+             * @param[in]   throwErrors    : Throw the loading error, if any
+             *
              */
             
-            void loadGeoids();
+            void loadGeoid( GeoidModel model, bool throwErrors = false );
+
+            /**
+             * The function geoidModel returns the geoid model used by a
+             * height type, or geoidModelCount if it uses none.
+             *
+             * @param[in]   heightType     : Height type
+             *
+             */
+
+            static GeoidModel geoidModel( HeightType::Enum heightType );
 
             /**
              * The function initializeEGM96Geoid reads geoid separation data
@@ -583,6 +688,54 @@ namespace MSP
                float  *height_buffer,
                double *delta_height );
       
+            /**
+             * The private function convertHeights implements
+             * convertEllipsoidToGeoidHeights and convertGeoidToEllipsoidHeights.
+             *
+             * @param[in]   heightType     : Geoid model and interpolation method
+             * @param[in]   toEllipsoid    : Convert geoid heights to ellipsoid heights
+             * @param[in]   count          : Number of points
+             * @param[in]   longitude      : Geodetic longitudes in radians
+             * @param[in]   latitude       : Geodetic latitudes in radians
+             * @param[in]   inputHeight    : Heights to be converted, in meters
+             * @param[out]  outputHeight   : Converted heights, in meters
+             * @param[out]  errorMessages  : Error descriptions, or 0
+             *
+             */
+
+            void convertHeights(
+               HeightType::Enum heightType,
+               bool             toEllipsoid,
+               long             count,
+               const double     longitude[],
+               const double     latitude[],
+               const double     inputHeight[],
+               double           outputHeight[],
+               const char*      errorMessages[] );
+
+            /**
+             * The private function convertEGM2008Heights implements
+             * convertHeights for the EGM2008 geoid.
+             *
+             * @param[in]   toEllipsoid    : Convert geoid heights to ellipsoid heights
+             * @param[in]   count          : Number of points
+             * @param[in]   longitude      : Geodetic longitudes in radians
+             * @param[in]   latitude       : Geodetic latitudes in radians
+             * @param[in]   inputHeight    : Heights to be converted, in meters
+             * @param[out]  outputHeight   : Converted heights, in meters
+             * @param[out]  errorMessages  : Error descriptions, or 0
+             *
+             */
+
+            void convertEGM2008Heights(
+               bool             toEllipsoid,
+               long             count,
+               const double     longitude[],
+               const double     latitude[],
+               const double     inputHeight[],
+               double           outputHeight[],
+               const char*      errorMessages[] );
+
             /**
              * Delete the singleton.
              */
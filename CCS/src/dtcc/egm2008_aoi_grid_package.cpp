@@ -34,6 +34,9 @@
 //                              Added second constructor to                   //
 //                              permit multiple geoid-height grids            //
 //                              when assessing relative interpolation errors. //
+//   17 Oct 2026                Added windowPosts, which supplies the         //
+//                              interpolation windows of geoidHeights, and    //
+//                              geoidHeights, which locks the AOI grid.       //
 //                                                                            //
 ////////////////////////////////////////////////////////////////////////////////
   
@@ -605,6 +608,42 @@ Egm2008AoiGrid::geoidHeight(
 }  // End of function Egm2008AoiGrid::geoidHeight
 
 
+// *******************************************************
+// * Find many geoid heights via 2D spline interpolation *
+// *******************************************************
+
+long
+Egm2008AoiGrid::geoidHeights(
+   int           wSize,                     // input
+   long          count,                     // input
+   const double  latitude[],                // input
+   const double  longitude[],               // input
+   double        gHeight[],                 // output
+   int           errors[] )                 // output
+{
+   // October 17, 2026: Version 1.00
+
+   // The AOI grid may be reloaded by windowPosts, so
+   // the lock is held for the whole batch.  Windows too small
+   // for bicubic spline interpolation are interpolated by
+   // geoidHeight, which takes the lock itself.
+
+   if ( wSize < 3 )
+   {
+      return( 
+         Egm2008GeoidGrid::geoidHeights( 
+            wSize, count, latitude, longitude, gHeight, errors ) );
+   }
+
+   MSP::CCSThreadLock  aLock( &_mutex );
+
+   return( 
+      Egm2008GeoidGrid::geoidHeights( 
+         wSize, count, latitude, longitude, gHeight, errors ) );
+
+}  // End of function Egm2008AoiGrid::geoidHeights
+
+
 // **********************
 // ** Hidden functions **
 // **********************
@@ -768,6 +807,69 @@ Egm2008AoiGrid::geoidHeight(
 } //  End of function Egm2008AoiGrid::geoidHeight 
 
 
+// ****************************************
+// * Copy an interpolation window's posts *
+// ****************************************
+
+int
+Egm2008AoiGrid::windowPosts(
+   int     wSize,                           // input
+   int     i0,                              // input
+   int     j0,                              // input
+   int     iMin,                            // input
+   int     jMin,                            // input
+   double  window[] )                       // output
+{
+   // October 17, 2026: Version 1.00
+
+   // This function reloads the AOI grid
+   // exactly when geoidHeight would, then
+   // copies the posts that geoidHeight loads.
+
+   // Thread locks are not needed here, because this function
+   // can only be invoked by the geoidHeights function;
+   // the thread locks reside in the geoidHeights function.
+
+   int  i;
+   int  iIndex;
+   int  j;
+   int  jIndex;
+   int  offset;
+   int  status;
+
+   if (( iMin < _minAoiRowIndex ) ||
+       ( iMin + wSize - 1 > _maxAoiRowIndex ) ||
+       ( jMin < _minAoiColIndex ) ||
+       ( jMin + wSize - 1 > _maxAoiColIndex ))
+   {
+      status = this->loadAoiParms( i0, j0 );
+
+      if ( status != 0 )                                   return( 1 ); 
+
+      status = this->loadGrid();
+
+      if ( status != 0 )                                   return( 1 );
+   }
+
+   for ( i = 0; i < wSize; i++ ) 
+   {
+      iIndex = iMin + i - _minAoiRowIndex;                // AOI referenced
+
+      offset = ( _nAoiRows - iIndex - 1 ) * _nAoiCols;
+
+      for ( j = 0; j < wSize; j++ ) 
+      {
+         jIndex                  = jMin + j - _minAoiColIndex;  // AOI referenced
+
+         window[ i * wSize + j ] = _heightGrid[ jIndex + offset ];
+      }
+   }
+
+   return( 0 );  // Normal-return flag
+
+} //  End of function Egm2008AoiGrid::windowPosts
+
+
 // ************************************
 // * Compute new AOI's new parameters *
 // ************************************
@@ -33,6 +33,9 @@
 //                              Added second constructor to                   //
 //                              permit multiple geoid-height grids            //
 //                              when assessing relative interpolation errors. //
+//   17 Oct 2026                Added windowPosts, which supplies the         //
+//                              interpolation windows of geoidHeights, and    //
+//                              geoidHeights, which locks the AOI grid.       //
 //                                                                            //
 ////////////////////////////////////////////////////////////////////////////////
 
@@ -125,6 +128,20 @@ namespace MSP
          double  longitude,                 // input
          double& gHeight );                 // output
 
+      // geoidHeights:       A function that interpolates
+      //                     local geoid heights (meters) at many
+      //                     points, holding the AOI grid's lock
+      //                     for the whole batch.
+
+      virtual long
+      geoidHeights(
+         int           wSize,               // input
+         long          count,               // input
+         const double  latitude[],          // input
+         const double  longitude[],         // input
+         double        gHeight[],           // output
+         int           errors[] );          // output
+
       protected:
  
       // geoidHeight:        A function that interpolates
@@ -138,6 +155,20 @@ namespace MSP
          double  longitude,                 // input
          double& gHeight );                 // output
 
+      // windowPosts:        A function that copies a local
+      //                     interpolation window's geoid height posts
+      //                     from the AOI grid, reloading
+      //                     the AOI grid if the window lies outside it.
+
+      virtual int
+      windowPosts(
+         int     wSize,                     // input
+         int     i0,                        // input
+         int     j0,                        // input
+         int     iMin,                      // input
+         int     jMin,                      // input
+         double  window[] );                // output
+
       // loadAoiParms:       A function that loads an AOI grid's
       //                     parameters relative to an input worldwide grid.
 
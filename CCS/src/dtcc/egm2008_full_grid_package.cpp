@@ -27,6 +27,8 @@
 //                              Added second constructor to                   //
 //                              permit multiple geoid-height grids            //
 //                              when assessing relative interpolation errors. //
+//   17 Oct 2026                Added windowPosts, which supplies the         //
+//                              interpolation windows of geoidHeights.        //
 //                                                                            //
 ////////////////////////////////////////////////////////////////////////////////
   
@@ -648,6 +650,45 @@ Egm2008FullGrid::geoidHeight(
 } //  End of function Egm2008FullGrid::geoidHeight 
 
 
+// ****************************************
+// * Copy an interpolation window's posts *
+// ****************************************
+
+int
+Egm2008FullGrid::windowPosts(
+   int     wSize,                           // input
+   int     i0,                              // input
+   int     j0,                              // input
+   int     iMin,                            // input
+   int     jMin,                            // input
+   double  window[] )                       // output
+{
+   // October 17, 2026: Version 1.00
+
+   // This function copies the posts
+   // that geoidHeight loads row by row,
+   // in the same order, for geoidHeights.
+
+   int  i;
+   int  j;
+   int  offset;
+
+   for ( i = 0; i < wSize; i++ ) 
+   {
+      offset = 
+         ( _nGridRows - ( iMin + i ) - 1 ) * _nGridCols;
+
+      for ( j = 0; j < wSize; j++ ) 
+      {
+         window[ i * wSize + j ] = _heightGrid[ ( jMin + j ) + offset ];
+      }
+   }
+
+   return( 0 );  // Normal-return flag
+
+} //  End of function Egm2008FullGrid::windowPosts
+
+
 // ******************************
 // *  Read reformatted version  * 
 // * of NGA's geoid-height grid *
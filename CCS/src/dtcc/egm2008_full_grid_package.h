@@ -27,6 +27,8 @@
 //                              Added second constructor to                   //
 //                              permit multiple geoid-height grids            //
 //                              when assessing relative interpolation errors. //
+//   17 Oct 2026                Added windowPosts, which supplies the         //
+//                              interpolation windows of geoidHeights.        //
 //                                                                            //
 ////////////////////////////////////////////////////////////////////////////////
 
@@ -97,6 +99,19 @@ namespace MSP
          double  longitude,                 // input
          double& gHeight );                 // output
 
+      // windowPosts:        A function that copies a local
+      //                     interpolation window's geoid height posts
+      //                     from the worldwide grid.
+
+      virtual int
+      windowPosts(
+         int     wSize,                     // input
+         int     i0,                        // input
+         int     j0,                        // input
+         int     iMin,                      // input
+         int     jMin,                      // input
+         double  window[] );                // output
+
       // loadGrid:           A function that 
       //                     retrieves a reformatted
       //                     EGM 2008 worldwide geoid height grid.
@@ -30,6 +30,9 @@
 //                              Added second constructor to                   //
 //                              permit multiple geoid-height grids            //
 //                              when assessing relative interpolation errors. //
+//   17 Oct 2026                Added geoidHeights, which interpolates many   //
+//                              points, reusing each interpolation window     //
+//                              for consecutive points that share it.         //
 //                                                                            //
 ////////////////////////////////////////////////////////////////////////////////
 
@@ -168,6 +171,39 @@ namespace MSP
          double  longitude,                 // input
          double& gHeight ) = 0;             // output
 
+      /*
+       * Public function geoidHeights interpolates
+       * geoid heights at count points with the bicubic
+       * spline interpolator.  When consecutive points share
+       * an interpolation window, the window's posts and row
+       * moments are computed only once, so callers should
+       * order the points by grid cell.  The results are
+       * identical to those of geoidHeight.
+       *
+       *    wSize              : Number of rows (= # columns)      ( input )
+       *                         in the local interpolation window.
+       *    count              : Number of points                  ( input )
+       *    latitude[]         : Geodetic latitudes                ( input  - radians )
+       *    longitude[]        : Geodetic longitudes               ( input  - radians )
+       *    gHeight[]          : Geoid heights                     ( output - meters  )
+       *    errors[]           : Per-point error flags;            ( output )
+       *                         errors[k] = 0 ..... no errors encountered,
+       *                         errors[k] = 1 ..... the geoid height
+       *                                             could not be interpolated.
+       *
+       *    return value       : The number of points
+       *                         that could not be interpolated.
+       */
+
+      virtual long
+      geoidHeights(
+         int           wSize,               // input
+         long          count,               // input
+         const double  latitude[],          // input
+         const double  longitude[],         // input
+         double        gHeight[],           // output
+         int           errors[] );          // output
+
       protected:
  
       /*
@@ -191,6 +227,37 @@ namespace MSP
          double  longitude,                 // input
          double& gHeight ) = 0;             // output
  
+      /*
+       * Protected function windowPosts copies the
+       * geoid height posts of a local interpolation window,
+       * row by row from the window's southernmost row,
+       * into a caller-supplied array.  The indices refer
+       * to the worldwide geoid height grid.
+       *
+       *    wSize              : Number of rows (= # columns)      ( input )
+       *                         in the local interpolation window.
+       *    i0                 : Row index of the grid             ( input )
+       *                         intersection nearest the point.
+       *    j0                 : Column index of the grid          ( input )
+       *                         intersection nearest the point.
+       *    iMin               : Window's first row index          ( input )
+       *    jMin               : Window's first column index       ( input )
+       *    window[]           : wSize * wSize geoid height posts  ( output )
+       *
+       *    return value       : The function's error flag;
+       *                         errors = 0 ..... no errors encountered,
+       *                         errors = 1 ..... at least one error encountered.
+       */
+
+      virtual int
+      windowPosts(
+         int     wSize,                     // input
+         int     i0,                        // input
+         int     j0,                        // input
+         int     iMin,                      // input
+         int     jMin,                      // input
+         double  window[] ) = 0;            // output
+
       /*
        * Protected function loadGridCoords finds
        * horizontal coordinates corresponding to
@@ -0,0 +1,1090 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+////////////////////////////////////////////////////////////////////////////////
+//                                                                            //
+//   File name: egm2008_tiled_grid_package.cpp                                //
+//                                                                            //
+//   Description of this module:                                              //
+//      Utility software that interpolates EGM 2008                           //
+//      geoid heights from one of NGA's geoid height grids.                   //
+//                                                                            //
+//      This interpolator maps the reformatted worldwide EGM 2008 grid        //
+//      file into memory upon instantiation, and it draws interpolation       //
+//      windows from fixed-size tiles of the grid.  Tiles are decoded         //
+//      from the mapped file when first needed and are kept in a              //
+//      least-recently-used cache; the cache is split into shards by          //
+//      tile index, each with its own lock, so that interpolations in         //
+//      different areas do not wait for one another.                          //
+//                                                                            //
+//      This interpolator gives exactly the same results as                   //
+//      the companion egm2008_full_grid_package's interpolator.               //
+//                                                                            //
+//   Revision History:                                                        //
+//   Date         Name          Description                                   //
+//   -----------  ------------  ----------------------------------------------//
+//   17 Oct 2026                Release                                       //
+//   17 Oct 2026                Added windowPosts, which supplies the         //
+//                              interpolation windows of geoidHeights.        //
+//                                                                            //
+////////////////////////////////////////////////////////////////////////////////
+
+// This file contains definitions
+// for functions in the Egm2008TiledGrid class.
+
+#include <cstring>
+#include <list>
+#include <unordered_map>
+
+#ifdef IRIXN32
+#include <math.h>
+#else
+#include <cmath>
+#endif
+
+#ifdef WIN32
+#include <windows.h>
+#else
+#include <fcntl.h>
+#include <unistd.h>
+#include <sys/mman.h>
+#include <sys/stat.h>
+#endif
+
+#include "CCSThreadLock.h"
+#include "CoordinateConversionException.h"
+
+#include "egm2008_tiled_grid_package.h"
+
+using namespace MSP;
+
+namespace
+{
+   const int    BYTES_PER_DOUBLE = sizeof( double );
+   const int    BYTES_PER_FLOAT  = sizeof( float );
+   const int    BYTES_PER_INT    = sizeof( int );
+
+   // The grid file's header holds three
+   // integers followed by two doubles .....
+
+   const int    HEADER_SIZE      = 3 * BYTES_PER_INT + 2 * BYTES_PER_DOUBLE;
+
+   const double PI               = 3.14159265358979323;
+
+   const double PIDIV2           = PI / 2.0;
+   const double TWOPI            = 2.0 * PI;
+
+   const double RAD_PER_DEG      = PI / 180.0;
+}
+
+
+// *************************************
+// * Egm2008TiledGrid tile cache shard *
+// *************************************
+
+struct Egm2008TiledGrid::TileShard
+{
+   // mutex:                 Guards this shard's tiles.
+   // tiles:                 Cached tiles, most recently used first.
+   // index:                 Position of each cached tile in the list,
+   //                        keyed by tile index.
+
+   typedef std::list< std::pair< int, TilePtr > >    TileList;
+
+   MSP::CCSThreadMutex                               mutex;
+   TileList                                          tiles;
+   std::unordered_map< int, TileList::iterator >     index;
+};
+
+
+// ***************************
+// ** Public user functions **
+// ***************************
+
+// ****************************************
+// * Default Egm2008TiledGrid constructor *
+// ****************************************
+
+Egm2008TiledGrid::Egm2008TiledGrid( void )
+
+// : Egm2008GeoidGrid()                            // base class initializer
+{
+   // October 17, 2026: Version 1.00
+
+   // This function implements the
+   // default Egm2008TiledGrid constructor.
+
+   int     status;
+
+   // The base class constructor
+   // initialized most data members.
+
+   _gridData       = NULL;
+   _gridDataSize   = 0;
+   _fileHandle     = NULL;
+   _mappingHandle  = NULL;
+   _nTileRows      = 0;
+   _nTileCols      = 0;
+   _shardCapacity  = 0;
+   _shards         = NULL;
+
+   // Map the worldwide EGM 2008 grid here;
+   // tiles are decoded later as needed .....
+
+   status          = this->mapGrid();
+
+   if ( status != 0 )
+   {
+      throw MSP::CCS::CoordinateConversionException(
+         "Error: Egm2008GeoidGrid: constructor failed.");
+   }
+
+   this->createCache( DEFAULT_CACHE_TILES );
+
+}  // End of default Egm2008TiledGrid constuctor
+
+
+// ********************************************
+// * Non-default Egm2008TiledGrid constructor *
+// ********************************************
+
+Egm2008TiledGrid::Egm2008TiledGrid(
+   const std::string  &gridFname )              // input
+
+: Egm2008GeoidGrid( gridFname )                 // base class initializer
+{
+   // October 17, 2026: Version 1.00
+
+   // This function implements a
+   // non-default Egm2008TiledGrid constructor.
+
+   // Definition:
+
+   // gridFname:             The support geoid-height grid's file name; this
+   //                        file name should not contain the directory path;
+   //                        the base-class constructor will prepend the
+   //                        path specified by environment variable MSPCCS_DATA.
+
+   int     status;
+
+   _gridData       = NULL;
+   _gridDataSize   = 0;
+   _fileHandle     = NULL;
+   _mappingHandle  = NULL;
+   _nTileRows      = 0;
+   _nTileCols      = 0;
+   _shardCapacity  = 0;
+   _shards         = NULL;
+
+   status          = this->mapGrid();
+
+   if ( status != 0 )
+   {
+      throw MSP::CCS::CoordinateConversionException(
+         "Error: Egm2008GeoidGrid: constructor failed.");
+   }
+
+   this->createCache( DEFAULT_CACHE_TILES );
+
+}  // End of non-default Egm2008TiledGrid constuctor
+
+
+// ********************************************
+// * Non-default Egm2008TiledGrid constructor *
+// ********************************************
+
+Egm2008TiledGrid::Egm2008TiledGrid(
+   int                 cacheTiles )             // input
+
+// : Egm2008GeoidGrid()                            // base class initializer
+{
+   // October 17, 2026: Version 1.00
+
+   // This function implements a non-default
+   // Egm2008TiledGrid constructor that sets the cache size.
+
+   // Definition:
+
+   // cacheTiles:            The maximum number of tiles held in the
+   //                        cache; it is rounded up to a multiple of the
+   //                        number of shards.
+
+   int     status;
+
+   _gridData       = NULL;
+   _gridDataSize   = 0;
+   _fileHandle     = NULL;
+   _mappingHandle  = NULL;
+   _nTileRows      = 0;
+   _nTileCols      = 0;
+   _shardCapacity  = 0;
+   _shards         = NULL;
+
+   status          = this->mapGrid();
+
+   if ( status != 0 )
+   {
+      throw MSP::CCS::CoordinateConversionException(
+         "Error: Egm2008GeoidGrid: constructor failed.");
+   }
+
+   this->createCache( cacheTiles );
+
+}  // End of non-default Egm2008TiledGrid constuctor
+
+
+// *************************************
+// * Egm2008TiledGrid copy constructor *
+// *************************************
+
+Egm2008TiledGrid::Egm2008TiledGrid
+   ( const Egm2008TiledGrid&  oldGrid )         // input
+
+: Egm2008GeoidGrid( oldGrid )                   // base class initializer
+
+{
+   // October 17, 2026: Version 1.00
+
+   // This function implements the
+   // Egm2008TiledGrid copy constructor.
+
+   // The copy maps the grid file again
+   // and starts with an empty tile cache.
+
+   // Definition:
+
+   // oldGrid:            The Egm2008TiledGrid object being copied.
+
+   int     status;
+
+   _gridData       = NULL;
+   _gridDataSize   = 0;
+   _fileHandle     = NULL;
+   _mappingHandle  = NULL;
+   _nTileRows      = 0;
+   _nTileCols      = 0;
+   _shardCapacity  = 0;
+   _shards         = NULL;
+
+   try
+   {
+      status       = this->mapGrid();
+
+      if ( status == 0 )
+      {
+         this->createCache( oldGrid._shardCapacity * NUM_SHARDS );
+      }
+   }
+   catch (...)
+   {
+      status       = 1;
+   }
+
+   oldGrid._mutex.unlock();  // Use CCSThreadMutex function in copy constructors
+
+   if ( status != 0 )
+   {
+      this->unmapGrid();
+
+      throw MSP::CCS::CoordinateConversionException(
+         "Error: Egm2008GeoidGrid: copy contructor failed");
+   }
+
+}  // End of Egm2008TiledGrid copy constuctor
+
+
+// *******************************
+// * Egm2008TiledGrid destructor *
+// *******************************
+
+Egm2008TiledGrid::~Egm2008TiledGrid (void)
+{
+   // October 17, 2026: Version 1.00
+
+   // This function implements
+   // the Egm2008TiledGrid destructor.
+
+   this->unmapGrid();
+
+}  // End of Egm2008TiledGrid destructor
+
+
+// ****************************************
+// * Egm2008TiledGrid assignment operator *
+// ****************************************
+
+Egm2008TiledGrid&
+Egm2008TiledGrid::operator= ( const Egm2008TiledGrid&  oldGrid )
+{
+   // October 17, 2026: Version 1.00
+
+   // This function implements the
+   // Egm2008TiledGrid assignment operator.
+
+   // Definition:
+
+   // oldGrid:            The Egm2008TiledGrid object being assigned.
+
+   int     status;
+
+   if ( this == & oldGrid )                                return ( *this );
+
+   // Assign base class data members .....
+
+   Egm2008GeoidGrid::operator= ( oldGrid );
+
+   // Map the assigned grid file
+   // and start with an empty tile cache .....
+
+   try
+   {
+      this->unmapGrid();
+
+      status       = this->mapGrid();
+
+      if ( status == 0 )
+      {
+         this->createCache( oldGrid._shardCapacity * NUM_SHARDS );
+      }
+   }
+   catch (...)
+   {
+      status       = 1;
+   }
+
+   _mutex.unlock();  // Use CCSThreadMutex function in assignment operations
+   oldGrid._mutex.unlock();
+
+   if ( status != 0 )
+   {
+      this->unmapGrid();
+
+      throw MSP::CCS::CoordinateConversionException(
+         "Error: Egm2008GeoidGrid: assignment operator failed");
+   }
+
+   return( *this );
+
+}  // End of Egm2008TiledGrid assignment operator
+
+
+// *************************************************
+// * Find geoid height via 2D spline interpolation *
+// *************************************************
+
+int
+Egm2008TiledGrid::geoidHeight(
+   int     wSize,                           // input
+   double  latitude,                        // input
+   double  longitude,                       // input
+   double& gHeight )                        // output
+{
+   // October 17, 2026: Version 1.00
+
+   // This function computes
+   // geoid heights from a reformatted
+   // version of NGA's worldwide geoid-height grid.
+   // It primarily uses BICUBIC-SPLINE INTERPOLATION,
+   // but it uses bilinear interpolation for small windows.
+
+   // The interpolation window is selected exactly as
+   // in Egm2008FullGrid::geoidHeight; see that function
+   // for a description of the window indexing logic.
+
+   // Definitions:
+
+   // gHeight:               Interpolated geoid height (meters).
+   // latitude:              Geodetic latitude (radians) at
+   //                        which geoid height is to be interpolated.
+   // longitude:             Geodetic longitude (radians) at
+   //                        which geoid height is to be interpolated.
+   // wSize:                 The number of grid points
+   //                        along each edge of the interpolation
+   //                        window that surrounds the point of interest;
+   //                        if wSize < 3, then the geoid height
+   //                        is computed using bilinear interpolation.
+
+   // No object-wide thread lock is needed: the mapped grid
+   // is read-only, and each cache shard has its own lock.
+
+   try {
+
+      const int           TWENTY = 20;
+
+      bool                oddSize;
+
+      int                 i;
+      int                 i0;
+      int                 iMin;
+      int                 j;
+      int                 j0;
+      int                 jMin;
+      int                 status;
+
+      double              latIndex;
+      double              lonIndex;
+      double              temp;
+
+      double              latSupport[ TWENTY ];
+      double              lonSupport[ TWENTY ];
+      double              moments   [ TWENTY ];
+      double              window    [ TWENTY * TWENTY ];
+
+      // EDIT THE INPUT AND INITIALIZE .....
+
+      gHeight = 0.0;
+
+      if ( TWENTY != MAX_WSIZE )                           return( 1 );
+
+      if ( wSize > MAX_WSIZE ) wSize = MAX_WSIZE;
+
+      if (( latitude < -PIDIV2 ) || ( latitude > PIDIV2 )) return( 1 );
+
+      // Rationalize the longitude .....
+
+      while ( longitude <   0.0 ) longitude += TWOPI;
+      while ( longitude > TWOPI ) longitude -= TWOPI;
+
+      for (i = 0; i < TWENTY; i++)
+      {
+         latSupport[ i ] = lonSupport[ i ] = moments[ i ] = 0.0;
+      }
+
+      // If window size is less than three, compute
+      // the geoid height using bilinear interpolation .....
+
+      if ( wSize < 3 )
+      {
+         status =
+            this->geoidHeight( latitude, longitude, gHeight );
+
+         if ( status != 0 )                                return( 1 );
+
+         ;   /* Normal bilinear interpolation return */    return( 0 );
+      }
+
+      // Compute indices to the window's grid points .....
+
+      latIndex =
+         double( _nGridPad ) + ( latitude  + PIDIV2 ) / _dLat;
+      lonIndex =
+         double( _nGridPad ) + ( longitude -    0.0 ) / _dLon;
+
+      oddSize  = ( wSize != (( wSize / 2 ) * 2 ));
+
+      if ( oddSize ) {
+         i0   = int( latIndex + 0.5 );
+         j0   = int( lonIndex + 0.5 );
+
+         iMin = i0 - ( wSize / 2 );
+         jMin = j0 - ( wSize / 2 );
+      }
+      else {
+         i0   = int( latIndex );
+         j0   = int( lonIndex );
+
+         iMin = i0 - ( wSize / 2 ) + 1;
+         jMin = j0 - ( wSize / 2 ) + 1;
+      }
+
+      // Copy the whole window's posts from the
+      // tiles before interpolating, so that each
+      // tile is looked up in the cache only once .....
+
+      status  =
+         this->getPosts( iMin, jMin, wSize, wSize, window );
+
+      if ( status != 0 )                                   return( 1 );
+
+      // COMPUTE BI-CUBIC SPLINE INTERPOLATION .....
+
+      temp    =
+         lonIndex - double( jMin ); // 0 <= temp <= (wSize - 1)
+
+      // Interpolate a synthetic geoid height
+      // for each row within the interpolation window .....
+
+      for ( i = 0; i < wSize; i++ )
+      {
+         for ( j = 0; j < wSize; j++ )
+         {
+            lonSupport[j] = window[ i * wSize + j ];
+         }
+
+         status        =
+            this->initSpline( wSize, lonSupport, moments );
+
+         if ( status != 0 )                                return( 1 );
+
+         latSupport[i] =
+            this->spline( wSize, temp, lonSupport, moments );
+      }
+
+      // Interpolate final geoid
+      // height at the latitude of interest .....
+
+      temp    =
+         latIndex - double( iMin );  // 0 <= temp <= (wSize - 1)
+
+      status  =
+         this->initSpline( wSize, latSupport, moments );
+
+      if ( status != 0 )                                   return( 1 );
+
+      gHeight =
+         this->spline( wSize, temp, latSupport, moments );
+
+   }  // End of exceptions' try block
+
+   catch ( ... ) { gHeight = 0.0;                          return( 1 ); }
+
+   return( 0 );  // Normal-return flag
+
+}  // End of function Egm2008TiledGrid::geoidHeight
+
+
+// **********************
+// ** Hidden functions **
+// **********************
+
+// **************************************
+// * Interpolate EGM 2008 geoid heights *
+// **************************************
+
+int
+Egm2008TiledGrid::geoidHeight(
+   double  latitude,                        // input
+   double  longitude,                       // input
+   double& gHeight )                        // output
+{
+   // October 17, 2026: Version 1.00
+
+   // This function, which is
+   // exercised only when wSize < 3, uses
+   // bilinear interpolation to find geoid heights.
+
+   // Definitions:
+
+   // gHeight:               Interpolated geoid height (meters).
+   // latitude:              GEODETIC latitude at which nominal
+   //                        geoid height is to be computed (radians).
+   // longitude:             GEODETIC longitude at which nominal
+   //                        geoid height is to be computed (radians).
+
+   try {
+
+      int           i1;
+      int           j1;
+      int           status;
+
+      double        a0;
+      double        a1;
+      double        a2;
+      double        a3;
+      double        lat1;
+      double        lon1;
+      double        n1;
+      double        n2;
+      double        n3;
+      double        n4;
+      double        posts[ 4 ];
+      double        x;
+      double        y;
+
+      // EDIT THE INPUT AND INITIALIZE .....
+
+      gHeight = 0.0;
+
+      if (( latitude < -PIDIV2 ) || ( latitude > PIDIV2 )) return( 1 );
+
+      while ( longitude <   0.0 ) longitude += TWOPI;
+      while ( longitude > TWOPI ) longitude -= TWOPI;
+
+      // COMPUTE THE SURROUNDING GRID POINTS' INDICES .....
+
+      status  =
+         this->swGridIndices
+            ( latitude, longitude, i1, j1 );
+
+      if ( status != 0 )                                   return( 1 );
+
+      // GET THE SURROUNDING GRID POINTS' GEOID HEIGHTS .....
+
+      // (posts holds the S/W, S/E, N/W, N/E posts in that order)
+
+      status  =
+         this->getPosts( i1, j1, 2, 2, posts );
+
+      if ( status != 0 )                                   return( 1 );
+
+      n1      = posts[ 0 ];
+      n2      = posts[ 1 ];
+      n3      = posts[ 3 ];
+      n4      = posts[ 2 ];
+
+      // INTERPOLATE GEOID HEIGHT AT THE POINT OF INTEREST .....
+
+      a0      = n1;
+      a1      = n2 - n1;
+      a2      = n4 - n1;
+      a3      = n1 + n3 - n2 - n4;
+
+      lat1    =
+         _baseLatitude  + _dLat * double( i1 ); // radians
+      lon1    =
+         _baseLongitude + _dLon * double( j1 ); // radians
+
+      // 0 <= x <= 1;             0 <= y <= 1.
+
+      x       = ( longitude  - lon1 ) / _dLon;
+      y       = ( latitude   - lat1 ) / _dLat;
+
+      gHeight = a0 + a1 * x + a2 * y + a3 * x * y;   // meters
+
+   }  // End of exceptions' try block
+
+   catch ( ... ) { gHeight = 0.0;                          return( 1 ); }
+
+   return( 0 );  // Normal-return flag
+
+} //  End of function Egm2008TiledGrid::geoidHeight
+
+
+// ****************************************
+// * Copy an interpolation window's posts *
+// ****************************************
+
+int
+Egm2008TiledGrid::windowPosts(
+   int     wSize,                           // input
+   int     i0,                              // input
+   int     j0,                              // input
+   int     iMin,                            // input
+   int     jMin,                            // input
+   double  window[] )                       // output
+{
+   // October 17, 2026: Version 1.00
+
+   return( this->getPosts( iMin, jMin, wSize, wSize, window ) );
+
+} //  End of function Egm2008TiledGrid::windowPosts
+
+
+// ****************************************
+// * Copy a block of posts from the tiles *
+// ****************************************
+
+int
+Egm2008TiledGrid::getPosts(
+   int     iMin,                            // input
+   int     jMin,                            // input
+   int     nRows,                           // input
+   int     nCols,                           // input
+   double* posts )                          // output
+{
+   // October 17, 2026: Version 1.00
+
+   // This function copies the posts in grid rows
+   // iMin to iMin + nRows - 1 and grid columns jMin to
+   // jMin + nCols - 1 into posts, row by row from the south.
+   // The block is copied one tile at a time, so each
+   // tile it overlaps is looked up in the cache only once.
+
+   // Definitions:
+
+   // iMin, jMin:            Worldwide grid indices of the
+   //                        block's southwest post.
+   // nRows, nCols:          The block's size.
+   // posts:                 The block's geoid heights (meters).
+
+   int           i;
+   int           iEnd;
+   int           iStart;
+   int           j;
+   int           jEnd;
+   int           jStart;
+   int           tileCol;
+   int           tileRow;
+
+   TilePtr       tile;
+
+   if (( iMin < 0 ) || ( iMin + nRows > _nGridRows ) ||
+       ( jMin < 0 ) || ( jMin + nCols > _nGridCols ))      return( 1 );
+
+   for ( tileRow = iMin / TILE_SIZE;
+         tileRow <= ( iMin + nRows - 1 ) / TILE_SIZE; tileRow++ )
+   {
+      iStart = tileRow * TILE_SIZE;
+      iEnd   = iStart + TILE_SIZE;
+
+      if ( iStart < iMin )         iStart = iMin;
+      if ( iEnd > iMin + nRows )   iEnd   = iMin + nRows;
+
+      for ( tileCol = jMin / TILE_SIZE;
+            tileCol <= ( jMin + nCols - 1 ) / TILE_SIZE; tileCol++ )
+      {
+         jStart = tileCol * TILE_SIZE;
+         jEnd   = jStart + TILE_SIZE;
+
+         if ( jStart < jMin )         jStart = jMin;
+         if ( jEnd > jMin + nCols )   jEnd   = jMin + nCols;
+
+         tile   = this->getTile( tileRow * _nTileCols + tileCol );
+
+         if ( !tile )                                      return( 1 );
+
+         for ( i = iStart; i < iEnd; i++ )
+         {
+            const float* row =
+               &( *tile )[ ( i % TILE_SIZE ) * TILE_SIZE ];
+
+            for ( j = jStart; j < jEnd; j++ )
+            {
+               posts[ ( i - iMin ) * nCols + ( j - jMin ) ] =
+                  row[ j % TILE_SIZE ];
+            }
+         }
+      }
+   }
+
+   return( 0 );  // Normal-return flag
+
+}  // End of function Egm2008TiledGrid::getPosts
+
+
+// ****************************
+// * Find a tile in the cache *
+// ****************************
+
+Egm2008TiledGrid::TilePtr
+Egm2008TiledGrid::getTile( int tileIndex )
+{
+   // October 17, 2026: Version 1.00
+
+   // This function returns the tile with the given
+   // index, decoding it and adding it to the cache if
+   // it is not already cached.  Only the tile's shard is
+   // locked, and it is not locked while the tile is decoded.
+   // The least recently used tile is evicted from a full shard;
+   // callers still holding an evicted tile keep it until they are done.
+
+   TileShard&  shard = _shards[ tileIndex % NUM_SHARDS ];
+
+   {
+      MSP::CCSThreadLock  aLock( &shard.mutex );
+
+      std::unordered_map< int, TileShard::TileList::iterator >::iterator
+         found = shard.index.find( tileIndex );
+
+      if ( found != shard.index.end() )
+      {
+         // Move the tile to the front of the list .....
+
+         shard.tiles.splice(
+            shard.tiles.begin(), shard.tiles, found->second );
+
+         return( found->second->second );
+      }
+   }
+
+   TilePtr     tile  = this->loadTile( tileIndex );
+
+   if ( !tile )                                            return( tile );
+
+   MSP::CCSThreadLock  aLock( &shard.mutex );
+
+   // Another thread may have cached
+   // the same tile while it was decoded .....
+
+   std::unordered_map< int, TileShard::TileList::iterator >::iterator
+      found = shard.index.find( tileIndex );
+
+   if ( found != shard.index.end() )
+   {
+      return( found->second->second );
+   }
+
+   shard.tiles.push_front( std::make_pair( tileIndex, tile ) );
+   shard.index[ tileIndex ] = shard.tiles.begin();
+
+   if ( int( shard.index.size() ) > _shardCapacity )
+   {
+      shard.index.erase( shard.tiles.back().first );
+      shard.tiles.pop_back();
+   }
+
+   return( tile );
+
+}  // End of function Egm2008TiledGrid::getTile
+
+
+// ************************************
+// * Decode a tile from the grid file *
+// ************************************
+
+Egm2008TiledGrid::TilePtr
+Egm2008TiledGrid::loadTile( int tileIndex )
+{
+   // October 17, 2026: Version 1.00
+
+   // This function decodes one tile from the mapped
+   // grid file.  Recall that the file stores the northernmost
+   // row first, with big-endian geoid heights arranged
+   // west-to-east within each row; the tile stores its rows
+   // from the south, converted to native representation.
+   // Posts of edge tiles lying beyond the grid are set to zero.
+
+   int           i;
+   int           iEnd;
+   int           iStart;
+   int           jCount;
+   int           jStart;
+
+   size_t        offset;
+
+   std::shared_ptr< Tile >  tile;
+
+   try
+   {
+      tile.reset( new Tile( TILE_SIZE * TILE_SIZE, 0.0f ) );
+   }
+   catch ( ... ) {                                         return( TilePtr() ); }
+
+   iStart = ( tileIndex / _nTileCols ) * TILE_SIZE;
+   jStart = ( tileIndex % _nTileCols ) * TILE_SIZE;
+
+   iEnd   = iStart + TILE_SIZE;
+   jCount = TILE_SIZE;
+
+   if ( iEnd > _nGridRows )                 iEnd   = _nGridRows;
+   if ( jStart + jCount > _nGridCols )      jCount = _nGridCols - jStart;
+
+   for ( i = iStart; i < iEnd; i++ )
+   {
+      float*   row = &( *tile )[ ( i - iStart ) * TILE_SIZE ];
+
+      offset = HEADER_SIZE +
+         ( size_t( _nGridRows - i - 1 ) * _nGridCols + jStart ) * BYTES_PER_FLOAT;
+
+      memcpy( row, _gridData + offset, jCount * BYTES_PER_FLOAT );
+
+      // If needed, convert to LITTLE-ENDIAN representation .....
+
+      #if LITTLE_ENDIAN
+
+         this->swapBytes( row, BYTES_PER_FLOAT, jCount );
+
+      #endif
+   }
+
+   return( tile );
+
+}  // End of function Egm2008TiledGrid::loadTile
+
+
+// ******************************
+// * Map reformatted version of *
+// * NGA's geoid-height grid    *
+// ******************************
+
+int
+Egm2008TiledGrid::mapGrid( void )
+{
+   // October 17, 2026: Version 1.00
+
+   // This function maps a reformatted version
+   // of NGA's EGM 2008 worldwide geoid-height grid into
+   // memory, read-only, and reads the grid's header.  The
+   // operating system pages the grid in as tiles are decoded.
+
+   // Thread locks are not needed here, because this
+   // function is only invoked from the constructors
+   // and the assignment operator.
+
+   size_t         size = 0;
+   void*          data = NULL;
+
+#ifdef WIN32
+
+   HANDLE         file;
+   HANDLE         mapping;
+   LARGE_INTEGER  fileSize;
+
+   file    = CreateFileA(
+      _gridFname.c_str(), GENERIC_READ, FILE_SHARE_READ, NULL,
+         OPEN_EXISTING, FILE_FLAG_RANDOM_ACCESS, NULL );
+
+   if ( file == INVALID_HANDLE_VALUE )                     return( 1 );
+
+   if (( !GetFileSizeEx( file, &fileSize )) ||
+       ( fileSize.QuadPart < HEADER_SIZE ))
+   {
+      CloseHandle( file );                                 return( 1 );
+   }
+
+   mapping = CreateFileMappingA( file, NULL, PAGE_READONLY, 0, 0, NULL );
+
+   if ( mapping == NULL )
+   {
+      CloseHandle( file );                                 return( 1 );
+   }
+
+   data    = MapViewOfFile( mapping, FILE_MAP_READ, 0, 0, 0 );
+
+   if ( data == NULL )
+   {
+      CloseHandle( mapping );
+      CloseHandle( file );                                 return( 1 );
+   }
+
+   size            = size_t( fileSize.QuadPart );
+
+   _fileHandle     = file;
+   _mappingHandle  = mapping;
+
+#else
+
+   int            descriptor;
+
+   struct stat    status;
+
+   descriptor = open( _gridFname.c_str(), O_RDONLY );
+
+   if ( descriptor < 0 )                                   return( 1 );
+
+   if (( fstat( descriptor, &status ) != 0 ) ||
+       ( status.st_size < HEADER_SIZE ))
+   {
+      close( descriptor );                                 return( 1 );
+   }
+
+   size       = size_t( status.st_size );
+
+   data       = mmap( NULL, size, PROT_READ, MAP_PRIVATE, descriptor, 0 );
+
+   close( descriptor );
+
+   if ( data == MAP_FAILED )                               return( 1 );
+
+   // Tiles are read from scattered places in the file .....
+
+   madvise( data, size, MADV_RANDOM );
+
+#endif
+
+   _gridData       = ( const unsigned char* ) data;
+   _gridDataSize   = size;
+
+   // READ THE HEADER .....
+
+   memcpy( &_nGridPad,  _gridData,                     BYTES_PER_INT );
+   memcpy( &_nOrigRows, _gridData +     BYTES_PER_INT, BYTES_PER_INT );
+   memcpy( &_nOrigCols, _gridData + 2 * BYTES_PER_INT, BYTES_PER_INT );
+   memcpy( &_dLat,      _gridData + 3 * BYTES_PER_INT, BYTES_PER_DOUBLE );
+   memcpy( &_dLon,
+      _gridData + 3 * BYTES_PER_INT + BYTES_PER_DOUBLE, BYTES_PER_DOUBLE );
+
+   // If needed, convert to LITTLE-ENDIAN representation .....
+
+   #if LITTLE_ENDIAN
+
+      this->swapBytes( &_nGridPad,  BYTES_PER_INT,    1 );
+      this->swapBytes( &_nOrigRows, BYTES_PER_INT,    1 );
+      this->swapBytes( &_nOrigCols, BYTES_PER_INT,    1 );
+      this->swapBytes( &_dLat,      BYTES_PER_DOUBLE, 1 );
+      this->swapBytes( &_dLon,      BYTES_PER_DOUBLE, 1 );
+
+   #endif
+
+   _dLat         *= RAD_PER_DEG;  // grid file stores these in degrees
+   _dLon         *= RAD_PER_DEG;  // grid file stores these in degrees
+
+   // Set derived parameters .....
+
+   _nGridRows     = _nOrigRows + ( 2 * _nGridPad );
+   _nGridCols     = _nOrigCols + ( 2 * _nGridPad ) + 1;
+
+   _baseLatitude  =
+      -PIDIV2 - _dLat * double( _nGridPad );     // radians
+   _baseLongitude =
+          0.0 - _dLon * double( _nGridPad );     // radians
+
+   // The file must hold the whole padded grid .....
+
+   if (( _nGridPad < 0 ) || ( _nGridRows <= 0 ) || ( _nGridCols <= 0 ) ||
+       ( size_t( _nGridRows ) * size_t( _nGridCols ) * BYTES_PER_FLOAT >
+            _gridDataSize - HEADER_SIZE ))
+   {
+      this->unmapGrid();                                   return( 1 );
+   }
+
+   _nTileRows     = ( _nGridRows + TILE_SIZE - 1 ) / TILE_SIZE;
+   _nTileCols     = ( _nGridCols + TILE_SIZE - 1 ) / TILE_SIZE;
+
+   return ( 0 );  // Normal-return flag
+
+}  // End of function Egm2008TiledGrid::mapGrid
+
+
+// *****************************************
+// * Release the mapped grid and the cache *
+// *****************************************
+
+void
+Egm2008TiledGrid::unmapGrid( void )
+{
+   // October 17, 2026: Version 1.00
+
+   delete[] _shards;
+
+   _shards         = NULL;
+   _shardCapacity  = 0;
+
+#ifdef WIN32
+
+   if ( _gridData != NULL )        UnmapViewOfFile( _gridData );
+   if ( _mappingHandle != NULL )   CloseHandle( ( HANDLE ) _mappingHandle );
+   if ( _fileHandle != NULL )      CloseHandle( ( HANDLE ) _fileHandle );
+
+#else
+
+   if ( _gridData != NULL )
+   {
+      munmap( ( void* ) _gridData, _gridDataSize );
+   }
+
+#endif
+
+   _gridData       = NULL;
+   _gridDataSize   = 0;
+   _fileHandle     = NULL;
+   _mappingHandle  = NULL;
+
+}  // End of function Egm2008TiledGrid::unmapGrid
+
+
+// *************************
+// * Create the tile cache *
+// *************************
+
+void
+Egm2008TiledGrid::createCache( int cacheTiles )
+{
+   // October 17, 2026: Version 1.00
+
+   // This function creates an empty tile cache
+   // holding at most cacheTiles tiles, spread evenly
+   // over the shards.  Neighbouring tiles fall in
+   // different shards.
+
+   if ( cacheTiles < NUM_SHARDS )  cacheTiles = NUM_SHARDS;
+
+   delete[] _shards;
+
+   _shards         = NULL;
+   _shards         = new TileShard[ NUM_SHARDS ];
+   _shardCapacity  = ( cacheTiles + NUM_SHARDS - 1 ) / NUM_SHARDS;
+
+}  // End of function Egm2008TiledGrid::createCache
+
+// CLASSIFICATION: UNCLASSIFIED
+
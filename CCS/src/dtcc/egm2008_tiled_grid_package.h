@@ -0,0 +1,222 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+////////////////////////////////////////////////////////////////////////////////
+//                                                                            //
+//   File name: egm2008_tiled_grid_package.h                                  //
+//                                                                            //
+//   Description of this module:                                              //
+//      Utility software that interpolates EGM 2008                           //
+//      geoid heights from one of NGA's geoid height grids.                   //
+//                                                                            //
+//      This interpolator maps the reformatted worldwide EGM 2008 grid        //
+//      file into memory upon instantiation, and it draws interpolation       //
+//      windows from fixed-size tiles of the grid.  Tiles are decoded         //
+//      from the mapped file when first needed and are kept in a              //
+//      least-recently-used cache; the cache is split into shards by          //
+//      tile index, each with its own lock, so that interpolations in         //
+//      different areas do not wait for one another.                          //
+//                                                                            //
+//      This interpolator gives exactly the same results as                   //
+//      the companion egm2008_full_grid_package's interpolator.               //
+//      It suits users requesting many geoid heights at widely                //
+//      dispersed horizontal locations, from several threads,                 //
+//      without holding the whole worldwide grid in memory.                   //
+//                                                                            //
+//   Revision History:                                                        //
+//   Date         Name          Description                                   //
+//   -----------  ------------  ----------------------------------------------//
+//   17 Oct 2026                Release                                       //
+//   17 Oct 2026                Added windowPosts, which supplies the         //
+//                              interpolation windows of geoidHeights.        //
+//                                                                            //
+////////////////////////////////////////////////////////////////////////////////
+
+#ifndef EGM2008_TILED_GRID_PACKAGE_H
+#define EGM2008_TILED_GRID_PACKAGE_H
+
+// This file declares a C++ class
+// that interpolates EGM 2008 geoid heights from a
+// memory-mapped, reformatted version of NGA's geoid-height grid.
+
+// THIS DERIVED CLASS IMPLEMENTS COMPUTATIONAL
+// DETAILS SPECIFIC TO THE EGM 2008 TILED-GRID ALGORITHM.
+
+#include <cstddef>
+#include <memory>
+#include <vector>
+
+#include "DtccApi.h"
+#include "egm2008_geoid_grid.h"
+
+namespace MSP
+{
+   class MSP_DTCC_API Egm2008TiledGrid : public Egm2008GeoidGrid {
+
+      protected:
+
+      // TILE_SIZE:          The number of rows and columns
+      //                     of geoid height posts in each tile.
+
+      static const int       TILE_SIZE  = 64;
+
+      // NUM_SHARDS:         The number of independently
+      //                     locked parts of the tile cache.
+
+      static const int       NUM_SHARDS = 16;
+
+      // Tile:               The geoid heights of one tile,
+      //                     stored row by row from the south.
+
+      typedef std::vector< float >         Tile;
+      typedef std::shared_ptr< const Tile > TilePtr;
+
+      // TileShard:          One part of the tile cache (defined
+      //                     in the implementation file).
+
+      struct TileShard;
+
+      // gridData:           The start of the mapped grid file.
+
+      const unsigned char*   _gridData;
+
+      // gridDataSize:       The size of the mapped grid file (bytes).
+
+      size_t                 _gridDataSize;
+
+      // fileHandle,
+      // mappingHandle:      Operating system handles of the mapped
+      //                     grid file (used on Windows only).
+
+      void*                  _fileHandle;
+      void*                  _mappingHandle;
+
+      // nTileRows,
+      // nTileCols:          The number of rows and columns of tiles
+      //                     covering the padded worldwide grid.
+
+      int                    _nTileRows;
+      int                    _nTileCols;
+
+      // shardCapacity:      The maximum number of
+      //                     tiles cached by each shard.
+
+      int                    _shardCapacity;
+
+      // shards:             The tile cache.
+
+      TileShard*             _shards;
+
+      public:
+
+      // DEFAULT_CACHE_TILES: The default maximum number of cached
+      //                      tiles (each tile holds 16 kilobytes).
+
+      static const int       DEFAULT_CACHE_TILES = 1024;
+
+      // Basic functions .....
+
+      Egm2008TiledGrid( void );
+
+      Egm2008TiledGrid( const std::string  &gridFname );
+
+      Egm2008TiledGrid( int  cacheTiles );
+
+      Egm2008TiledGrid( const Egm2008TiledGrid& oldGrid );
+
+      ~Egm2008TiledGrid( void );
+
+      Egm2008TiledGrid&
+      operator = ( const Egm2008TiledGrid& oldGrid );
+
+      // User functions .....
+
+      // geoidHeight:        A function that interpolates
+      //                     local geoid height (meters) from
+      //                     a reformatted geoid height grid;
+      //                     it uses bi-cubic spline interpolation.
+
+      virtual int
+      geoidHeight(
+         int     wSize,                     // input
+         double  latitude,                  // input
+         double  longitude,                 // input
+         double& gHeight );                 // output
+
+      protected:
+
+      // geoidHeight:        A function that interpolates
+      //                     local geoid height (meters) from
+      //                     a reformatted geoid height grid;
+      //                     it uses bilinear interpolation.
+
+      virtual int
+      geoidHeight(
+         double  latitude,                  // input
+         double  longitude,                 // input
+         double& gHeight );                 // output
+
+      // windowPosts:        A function that copies a local
+      //                     interpolation window's geoid height posts
+      //                     from the cached tiles.
+
+      virtual int
+      windowPosts(
+         int     wSize,                     // input
+         int     i0,                        // input
+         int     j0,                        // input
+         int     iMin,                      // input
+         int     jMin,                      // input
+         double  window[] );                // output
+
+      // getPosts:           A function that copies a block
+      //                     of geoid height posts, referenced to the
+      //                     worldwide grid, from the cached tiles.
+
+      int
+      getPosts(
+         int     iMin,                      // input
+         int     jMin,                      // input
+         int     nRows,                     // input
+         int     nCols,                     // input
+         double* posts );                   // output
+
+      // getTile:            A function that returns a tile
+      //                     from the cache, decoding it from the
+      //                     mapped grid file if it is not cached.
+
+      TilePtr
+      getTile( int tileIndex );             // input
+
+      // loadTile:           A function that decodes
+      //                     one tile from the mapped grid file.
+
+      TilePtr
+      loadTile( int tileIndex );            // input
+
+      // mapGrid:            A function that maps the
+      //                     reformatted EGM 2008 worldwide geoid
+      //                     height grid and reads its header.
+
+      int
+      mapGrid( void );
+
+      // unmapGrid:          A function that releases the
+      //                     mapped grid file and the tile cache.
+
+      void
+      unmapGrid( void );
+
+      // createCache:        A function that creates
+      //                     an empty tile cache.
+
+      void
+      createCache( int cacheTiles );        // input
+
+   }; // End of Egm2008TiledGrid class declaration
+
+}  // End of namespace block
+
+#endif
+
+// CLASSIFICATION: UNCLASSIFIED
+
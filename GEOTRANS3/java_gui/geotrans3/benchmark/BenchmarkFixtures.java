@@ -0,0 +1,280 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * BenchmarkFixtures.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import geotrans3.coordinates.BNGCoordinates;
+import geotrans3.coordinates.CartesianCoordinates;
+import geotrans3.coordinates.CoordinateTuple;
+import geotrans3.coordinates.GARSCoordinates;
+import geotrans3.coordinates.GEOREFCoordinates;
+import geotrans3.coordinates.GeodeticCoordinates;
+import geotrans3.coordinates.MGRSorUSNGCoordinates;
+import geotrans3.coordinates.MapProjectionCoordinates;
+import geotrans3.coordinates.SphericalCoordinates;
+import geotrans3.coordinates.UPSCoordinates;
+import geotrans3.coordinates.UTMCoordinates;
+import geotrans3.enumerations.CoordinateType;
+import geotrans3.enumerations.HeightType;
+import geotrans3.enumerations.Precision;
+import geotrans3.exception.CoordinateConversionException;
+import geotrans3.parameters.CoordinateSystemParameters;
+import geotrans3.parameters.EquidistantCylindricalParameters;
+import geotrans3.parameters.GeodeticParameters;
+import geotrans3.parameters.LocalCartesianParameters;
+import geotrans3.parameters.MapProjection3Parameters;
+import geotrans3.parameters.MapProjection4Parameters;
+import geotrans3.parameters.MapProjection5Parameters;
+import geotrans3.parameters.MapProjection6Parameters;
+import geotrans3.parameters.MercatorScaleFactorParameters;
+import geotrans3.parameters.MercatorStandardParallelParameters;
+import geotrans3.parameters.NeysParameters;
+import geotrans3.parameters.ObliqueMercatorParameters;
+import geotrans3.parameters.PolarStereographicScaleFactorParameters;
+import geotrans3.parameters.PolarStereographicStandardParallelParameters;
+import geotrans3.parameters.UTMParameters;
+import geotrans3.utility.Constants;
+
+
+/**
+ * Fixture data for the conversion benchmarks: geodetic points read from the
+ * example files, and parameters and empty coordinates for each coordinate
+ * system.
+ */
+public class BenchmarkFixtures extends Object
+{
+  private BenchmarkFixtures()
+  {
+  }
+
+
+  /**
+   * Reads the points of the geodetic example files (those whose header
+   * holds "COORDINATES: Geodetic") in a directory.  Each point is returned
+   * as longitude and latitude in radians and height in meters.
+   */
+  public static List<double[]> readGeodeticPoints(File examplesDirectory) throws IOException
+  {
+    List<double[]> points = new ArrayList<double[]>();
+
+    File[] files = examplesDirectory.listFiles();
+    if(files == null)
+      throw new IOException("Examples directory " + examplesDirectory + " not found");
+
+    // Read the files in a fixed order so that runs use the same points
+    Arrays.sort(files);
+
+    for(int i = 0; i < files.length; i++)
+    {
+      if(files[i].getName().toLowerCase().endsWith(".csv"))
+        readGeodeticFile(files[i], points);
+    }
+
+    return points;
+  }
+
+
+  private static void readGeodeticFile(File file, List<double[]> points) throws IOException
+  {
+    BufferedReader reader = new BufferedReader(new FileReader(file));
+    try
+    {
+      boolean geodetic = false;
+      boolean longitudeFirst = false;
+      String line;
+
+      // Header
+      while((line = reader.readLine()) != null)
+      {
+        line = line.trim().toUpperCase();
+        if(line.startsWith("END OF HEADER"))
+          break;
+        else if(line.startsWith("COORDINATES:"))
+          geodetic = line.substring(12).trim().equals("GEODETIC");
+        else if(line.startsWith("COORDINATE ORDER:"))
+          longitudeFirst = line.indexOf("LONGITUDE-LATITUDE") >= 0;
+        else if(line.startsWith("PROJECTION:"))
+          geodetic = false;
+      }
+
+      if(!geodetic)
+        return;
+
+      // Points: latitude, longitude and optional height in degrees and meters
+      while((line = reader.readLine()) != null)
+      {
+        line = line.trim();
+        if(line.length() == 0 || line.startsWith("#"))
+          continue;
+
+        String[] fields = line.split("[,\\s]+");
+        if(fields.length < 2)
+          continue;
+
+        try
+        {
+          double latitude = Double.parseDouble(fields[longitudeFirst ? 1 : 0]);
+          double longitude = Double.parseDouble(fields[longitudeFirst ? 0 : 1]);
+          double height = (fields.length > 2) ? Double.parseDouble(fields[2]) : 0.0;
+
+          if(longitude > 180.0)
+            longitude -= 360.0;
+
+          points.add(new double[] { longitude * Constants.PI_OVER_180, latitude * Constants.PI_OVER_180, height });
+        }
+        catch(NumberFormatException e)
+        {
+          // Not a point
+        }
+      }
+    }
+    finally
+    {
+      reader.close();
+    }
+  }
+
+
+  /**
+   * Returns parameters for a coordinate system, with the origins of the
+   * example files where there are any.  F-16 Grid Reference System
+   * coordinates are converted as MGRS coordinates, as in the application.
+   */
+  public static CoordinateSystemParameters parameters(int coordinateType) throws CoordinateConversionException
+  {
+    final double d = Constants.PI_OVER_180;
+
+    switch(coordinateType)
+    {
+      case CoordinateType.ECKERT4:
+      case CoordinateType.ECKERT6:
+      case CoordinateType.MILLER:
+      case CoordinateType.MOLLWEIDE:
+      case CoordinateType.SINUSOIDAL:
+      case CoordinateType.GRINTEN:
+        return new MapProjection3Parameters(coordinateType, 0.0, 0.0, 0.0);
+      case CoordinateType.AZIMUTHAL:
+      case CoordinateType.BONNE:
+      case CoordinateType.CASSINI:
+      case CoordinateType.CYLEQA:
+      case CoordinateType.GNOMONIC:
+      case CoordinateType.ORTHOGRAPHIC:
+      case CoordinateType.POLYCONIC:
+      case CoordinateType.STEREOGRAPHIC:
+        return new MapProjection4Parameters(coordinateType, 0.0, 45.0 * d, 0.0, 0.0);
+      case CoordinateType.LAMBERT_1:
+        return new MapProjection5Parameters(coordinateType, 0.0, 45.0 * d, 1.0, 0.0, 0.0);
+      case CoordinateType.TRCYLEQA:
+      case CoordinateType.TRANMERC:
+        return new MapProjection5Parameters(coordinateType, 0.0, 0.0, 1.0, 0.0, 0.0);
+      case CoordinateType.ALBERS:
+      case CoordinateType.LAMBERT_2:
+        return new MapProjection6Parameters(coordinateType, 0.0, 45.0 * d, 40.0 * d, 50.0 * d, 0.0, 0.0);
+      case CoordinateType.EQDCYL:
+        return new EquidistantCylindricalParameters(coordinateType, 0.0, 0.0, 0.0, 0.0);
+      case CoordinateType.GEODETIC:
+        return new GeodeticParameters(coordinateType, HeightType.ELLIPSOID_HEIGHT);
+      case CoordinateType.LOCCART:
+      case CoordinateType.LOCSPHER:
+        return new LocalCartesianParameters(coordinateType, 0.0, 45.0 * d, 0.0, 0.0);
+      case CoordinateType.MERCATOR_SP:
+        return new MercatorStandardParallelParameters(coordinateType, 0.0, 0.0, 1.0, 0.0, 0.0);
+      case CoordinateType.MERCATOR_SF:
+        return new MercatorScaleFactorParameters(coordinateType, 0.0, 1.0, 0.0, 0.0);
+      case CoordinateType.NEYS:
+        return new NeysParameters(coordinateType, 0.0, 80.0 * d, 71.0 * d, 0.0, 0.0);
+      case CoordinateType.OMERC:
+        return new ObliqueMercatorParameters(coordinateType, 45.0 * d, -5.0 * d, 40.0 * d, 5.0 * d, 50.0 * d, 0.0, 0.0, 1.0);
+      case CoordinateType.POLARSTEREO_SP:
+        return new PolarStereographicStandardParallelParameters(coordinateType, 0.0, 90.0 * d, 0.0, 0.0);
+      case CoordinateType.POLARSTEREO_SF:
+        return new PolarStereographicScaleFactorParameters(coordinateType, 0.0, 1.0, 'N', 0.0, 0.0);
+      case CoordinateType.UTM:
+        return new UTMParameters(coordinateType, 0, 0);
+      case CoordinateType.F16GRS:
+        return new CoordinateSystemParameters(CoordinateType.MGRS);
+      case CoordinateType.BNG:
+      case CoordinateType.GARS:
+      case CoordinateType.GEOCENTRIC:
+      case CoordinateType.GEOREF:
+      case CoordinateType.MGRS:
+      case CoordinateType.NZMG:
+      case CoordinateType.UPS:
+      case CoordinateType.USNG:
+      case CoordinateType.WEBMERCATOR:
+      case CoordinateType.SPHERICAL:
+        return new CoordinateSystemParameters(coordinateType);
+      default:
+        throw new CoordinateConversionException("Invalid coordinate type");
+    }
+  }
+
+
+  /**
+   * Returns the datum to convert to a coordinate system on: the datum of
+   * its ellipsoid for British National Grid and New Zealand Map Grid, which
+   * are defined on one ellipsoid, and WGS 84 otherwise.
+   */
+  public static String datumCode(int coordinateType)
+  {
+    switch(coordinateType)
+    {
+      case CoordinateType.BNG:
+        return "OGB-M";
+      case CoordinateType.NZMG:
+        return "GEO";
+      default:
+        return "WGE";
+    }
+  }
+
+
+  /** Returns empty coordinates of a coordinate system */
+  public static CoordinateTuple coordinates(int coordinateType) throws CoordinateConversionException
+  {
+    switch(coordinateType)
+    {
+      case CoordinateType.GEODETIC:
+        return new GeodeticCoordinates(coordinateType);
+      case CoordinateType.GEOCENTRIC:
+      case CoordinateType.LOCCART:
+        return new CartesianCoordinates(coordinateType);
+      case CoordinateType.SPHERICAL:
+      case CoordinateType.LOCSPHER:
+        return new SphericalCoordinates(coordinateType);
+      case CoordinateType.BNG:
+        return new BNGCoordinates(coordinateType, Precision.TENTH_OF_SECOND);
+      case CoordinateType.GARS:
+        return new GARSCoordinates(coordinateType, Precision.TENTH_OF_SECOND);
+      case CoordinateType.GEOREF:
+        return new GEOREFCoordinates(coordinateType, Precision.TENTH_OF_SECOND);
+      case CoordinateType.F16GRS:
+      case CoordinateType.MGRS:
+        return new MGRSorUSNGCoordinates(CoordinateType.MGRS, Precision.TENTH_OF_SECOND);
+      case CoordinateType.USNG:
+        return new MGRSorUSNGCoordinates(coordinateType, Precision.TENTH_OF_SECOND);
+      case CoordinateType.UPS:
+        return new UPSCoordinates(coordinateType);
+      case CoordinateType.UTM:
+        return new UTMCoordinates(coordinateType);
+      default:
+        if(coordinateType < 0 || coordinateType > CoordinateType.F16GRS)
+          throw new CoordinateConversionException("Invalid coordinate type");
+        return new MapProjectionCoordinates(coordinateType);
+    }
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,611 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * ConversionBenchmark.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.benchmark;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Vector;
+import geotrans3.coordinates.Accuracy;
+import geotrans3.coordinates.ConvertCollectionResults;
+import geotrans3.coordinates.ConvertResults;
+import geotrans3.coordinates.CoordinateTuple;
+import geotrans3.coordinates.GeodeticCoordinates;
+import geotrans3.enumerations.CoordinateType;
+import geotrans3.enumerations.HeightType;
+import geotrans3.exception.CoordinateConversionException;
+import geotrans3.jni.JNICoordinateConversionService;
+import geotrans3.misc.StringToVal;
+import geotrans3.parameters.CoordinateSystemParameters;
+import geotrans3.parameters.GeodeticParameters;
+import geotrans3.utility.Constants;
+
+
+/**
+ * Measures the throughput of the Java conversion layer and writes the
+ * results as JSON, in the result format of the JMH benchmark harness so
+ * that results of different releases can be compared with the same tools.
+ *
+ * Benchmarks convert the geodetic points of the example files:
+ * <pre>
+ * roundTrip   WGE geodetic to each coordinate type and back
+ * datumShift  WGE geodetic to geodetic on a 3 or 7 parameter datum and back
+ * geoidHeight WGE ellipsoid heights to and from an EGM84, EGM96 or EGM2008
+ *             geoid height
+ * format      StringToVal latitude and longitude formatting and parsing, as
+ *             strings and with one reused buffer
+ * </pre>
+ * Conversions are measured one point at a time ("single") and as one
+ * collection of all points ("collection").  Points a conversion cannot
+ * convert both ways are left out of its benchmark, and a benchmark with
+ * no points left, or whose service cannot be created, is reported as
+ * skipped.  The score is points per second.
+ *
+ * Usage: java geotrans3.benchmark.ConversionBenchmark [options]
+ * <pre>
+ * -examples dir    directory of the example files (Examples)
+ * -output file     JSON result file (standard output)
+ * -warmup n        warmup iterations (3)
+ * -iterations n    measurement iterations (5)
+ * -time ms         duration of each iteration (1000)
+ * -include text    run only benchmarks whose names and parameters, separated
+ *                  by spaces, contain text
+ * </pre>
+ * The MSPCCS_DATA environment variable must name the data directory.
+ */
+public class ConversionBenchmark extends Object
+{
+  // Two sided 99.9% Student t quantiles for 1 to 30 degrees of freedom
+  private static final double[] STUDENT_T_999 = {
+    636.619, 31.599, 12.924, 8.610, 6.869, 5.959, 5.408, 5.041, 4.781, 4.587,
+    4.437, 4.318, 4.221, 4.140, 4.073, 4.015, 3.965, 3.922, 3.883, 3.850,
+    3.819, 3.792, 3.768, 3.745, 3.725, 3.707, 3.690, 3.674, 3.659, 3.646 };
+
+  private static final String WGE = "WGE";
+
+  private int warmupIterations = 3;
+  private int measurementIterations = 5;
+  private long iterationTime = 1000;
+
+  // Keeps conversion results reachable so they are not optimized away
+  private static volatile double sink;
+
+
+  /** One benchmark: a conversion of the fixture points */
+  private static abstract class Benchmark
+  {
+    String name;
+    String mode;
+    Map<String, String> params = new LinkedHashMap<String, String>();
+    int numPoints;
+
+    Benchmark(String _name, String _mode)
+    {
+      name = _name;
+      mode = _mode;
+      params.put("mode", _mode);
+    }
+
+    /**
+     * Prepares the benchmark and returns the number of points of a pass, or
+     * throws an exception if the benchmark cannot be run.
+     */
+    abstract int setUp(List<double[]> points) throws Exception;
+
+    /** Converts all points once */
+    abstract void run() throws Exception;
+
+    void tearDown()
+    {
+    }
+  }
+
+
+  /**
+   * Converts WGE geodetic points to a coordinate system and datum and back,
+   * one point at a time or as collections.
+   */
+  private static class RoundTripBenchmark extends Benchmark
+  {
+    private String targetDatumCode;
+    private CoordinateSystemParameters sourceParameters;
+    private CoordinateSystemParameters targetParameters;
+    private int targetType;
+
+    private JNICoordinateConversionService service;
+    private Vector<CoordinateTuple> sourceCoordinates = new Vector<CoordinateTuple>();
+    private Vector<Accuracy> sourceAccuracy = new Vector<Accuracy>();
+
+    RoundTripBenchmark(String _name, String _mode, CoordinateSystemParameters _sourceParameters, String _targetDatumCode, CoordinateSystemParameters _targetParameters, int _targetType)
+    {
+      super(_name, _mode);
+      sourceParameters = _sourceParameters;
+      targetDatumCode = _targetDatumCode;
+      targetParameters = _targetParameters;
+      targetType = _targetType;
+      params.put("coordinateType", CoordinateType.name(_targetType));
+      params.put("datum", _targetDatumCode);
+    }
+
+    int setUp(List<double[]> points) throws Exception
+    {
+      service = new JNICoordinateConversionService(WGE, sourceParameters, targetDatumCode, targetParameters);
+
+      // Keep the points which convert both ways
+      String errorMessage = null;
+      for(int i = 0; i < points.size(); i++)
+      {
+        double[] point = points.get(i);
+        GeodeticCoordinates coordinates = new GeodeticCoordinates(CoordinateType.GEODETIC, point[0], point[1], point[2]);
+        Accuracy accuracy = new Accuracy();
+
+        try
+        {
+          ConvertResults results = service.convertSourceToTarget(coordinates, accuracy, BenchmarkFixtures.coordinates(targetType), new Accuracy());
+          CoordinateTuple targetCoordinates = results.getCoordinateTuple();
+          if(hasError(targetCoordinates))
+          {
+            errorMessage = targetCoordinates.getErrorMessage();
+            continue;
+          }
+
+          results = service.convertTargetToSource(targetCoordinates, results.getAccuracy(), new GeodeticCoordinates(CoordinateType.GEODETIC), new Accuracy());
+          if(hasError(results.getCoordinateTuple()))
+          {
+            errorMessage = results.getCoordinateTuple().getErrorMessage();
+            continue;
+          }
+        }
+        catch(CoordinateConversionException e)
+        {
+          errorMessage = e.getMessage();
+          continue;
+        }
+
+        sourceCoordinates.add(coordinates);
+        sourceAccuracy.add(accuracy);
+      }
+
+      if(sourceCoordinates.size() == 0)
+        throw new CoordinateConversionException("No example point converts both ways: " + errorMessage);
+
+      return sourceCoordinates.size();
+    }
+
+    void run() throws Exception
+    {
+      if(mode.equals("single"))
+      {
+        int num = sourceCoordinates.size();
+        for(int i = 0; i < num; i++)
+        {
+          ConvertResults results = service.convertSourceToTarget(sourceCoordinates.get(i), sourceAccuracy.get(i), BenchmarkFixtures.coordinates(targetType), new Accuracy());
+          results = service.convertTargetToSource(results.getCoordinateTuple(), results.getAccuracy(), new GeodeticCoordinates(CoordinateType.GEODETIC), new Accuracy());
+          sink += results.getAccuracy().getCE90();
+        }
+      }
+      else
+      {
+        ConvertCollectionResults results = service.convertSourceToTargetCollection(sourceCoordinates, sourceAccuracy);
+        results = service.convertTargetToSourceCollection(results.getCoordinateTuple(), results.getAccuracy());
+        sink += results.getCoordinateTuple().size();
+      }
+    }
+
+    void tearDown()
+    {
+      if(service != null)
+        service.destroy();
+      service = null;
+    }
+  }
+
+
+  /**
+   * Formats and parses latitudes and longitudes with StringToVal, either
+   * as strings ("string") or into and out of one reused buffer ("buffer")
+   */
+  private static class FormatBenchmark extends Benchmark
+  {
+    private boolean useMinutes;
+    private boolean useSeconds;
+    private boolean parse;
+    private boolean buffer;
+
+    private StringToVal stringToVal = new StringToVal();
+    private double[] latitudes;
+    private double[] longitudes;
+    private String[] latitudeStrings;
+    private String[] longitudeStrings;
+    private StringBuilder text;
+    private int[] offsets;
+
+    FormatBenchmark(String _name, String _format, boolean _parse, String _api)
+    {
+      super(_name, "single");
+      useMinutes = !_format.equals("D");
+      useSeconds = _format.equals("DMS");
+      parse = _parse;
+      buffer = _api.equals("buffer");
+      params.put("format", _format);
+      params.put("api", _api);
+    }
+
+    int setUp(List<double[]> points) throws Exception
+    {
+      int num = points.size();
+      latitudes = new double[num];
+      longitudes = new double[num];
+      latitudeStrings = new String[num];
+      longitudeStrings = new String[num];
+      text = new StringBuilder();
+      offsets = new int[2 * num + 1];
+
+      for(int i = 0; i < num; i++)
+      {
+        double[] point = points.get(i);
+        longitudes[i] = point[0] / Constants.PI_OVER_180;
+        latitudes[i] = point[1] / Constants.PI_OVER_180;
+        longitudeStrings[i] = stringToVal.longitudeToString(longitudes[i], true, useMinutes, useSeconds);
+        latitudeStrings[i] = stringToVal.latitudeToString(latitudes[i], true, useMinutes, useSeconds);
+
+        // Rows of the buffer hold the latitude followed by the longitude
+        offsets[2 * i] = text.length();
+        text.append(latitudeStrings[i]);
+        offsets[2 * i + 1] = text.length();
+        text.append(longitudeStrings[i]);
+      }
+      offsets[2 * num] = text.length();
+
+      return num;
+    }
+
+    void run() throws Exception
+    {
+      int num = latitudes.length;
+      if(parse && buffer)
+      {
+        for(int i = 0; i < num; i++)
+          sink += stringToVal.parseLatitude(text, offsets[2 * i], offsets[2 * i + 1]) +
+                  stringToVal.parseLongitude(text, offsets[2 * i + 1], offsets[2 * i + 2]);
+      }
+      else if(parse)
+      {
+        for(int i = 0; i < num; i++)
+          sink += stringToVal.stringToLatitude(latitudeStrings[i]) + stringToVal.stringToLongitude(longitudeStrings[i]);
+      }
+      else if(buffer)
+      {
+        text.setLength(0);
+        for(int i = 0; i < num; i++)
+        {
+          stringToVal.appendLatitude(text, latitudes[i], true, useMinutes, useSeconds);
+          stringToVal.appendLongitude(text, longitudes[i], true, useMinutes, useSeconds);
+        }
+        sink += text.length();
+      }
+      else
+      {
+        for(int i = 0; i < num; i++)
+          sink += stringToVal.latitudeToString(latitudes[i], true, useMinutes, useSeconds).length() +
+                  stringToVal.longitudeToString(longitudes[i], true, useMinutes, useSeconds).length();
+      }
+    }
+  }
+
+
+  private static boolean hasError(CoordinateTuple coordinates)
+  {
+    String errorMessage = coordinates.getErrorMessage();
+    return errorMessage != null && errorMessage.length() > 0;
+  }
+
+
+  private static List<Benchmark> createBenchmarks() throws CoordinateConversionException
+  {
+    List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+    String[] modes = { "single", "collection" };
+
+    for(int m = 0; m < modes.length; m++)
+    {
+      String mode = modes[m];
+
+      for(int type = 0; type <= CoordinateType.F16GRS; type++)
+      {
+        benchmarks.add(new RoundTripBenchmark("roundTrip", mode, new GeodeticParameters(CoordinateType.GEODETIC, HeightType.ELLIPSOID_HEIGHT),
+                                              BenchmarkFixtures.datumCode(type), BenchmarkFixtures.parameters(type), type));
+      }
+
+      // NAS-C is a 3 parameter datum, EUR-7 and OGB-7 are 7 parameter datums
+      String[] datumCodes = { "NAS-C", "EUR-7", "OGB-7" };
+      for(int i = 0; i < datumCodes.length; i++)
+      {
+        benchmarks.add(new RoundTripBenchmark("datumShift", mode, new GeodeticParameters(CoordinateType.GEODETIC, HeightType.ELLIPSOID_HEIGHT),
+                                              datumCodes[i], new GeodeticParameters(CoordinateType.GEODETIC, HeightType.ELLIPSOID_HEIGHT), CoordinateType.GEODETIC));
+      }
+
+      String[] geoidModels = { "EGM84", "EGM96", "EGM2008" };
+      int[] heightTypes = { HeightType.MSL_EGM84_10D_BL_HEIGHT, HeightType.MSL_EGM96_15M_BL_HEIGHT, HeightType.MSL_EGM2008_TWOPOINTFIVEM_BCS_HEIGHT };
+      for(int i = 0; i < geoidModels.length; i++)
+      {
+        Benchmark benchmark = new RoundTripBenchmark("geoidHeight", mode, new GeodeticParameters(CoordinateType.GEODETIC, HeightType.ELLIPSOID_HEIGHT),
+                                                     WGE, new GeodeticParameters(CoordinateType.GEODETIC, heightTypes[i]), CoordinateType.GEODETIC);
+        benchmark.params.put("geoid", geoidModels[i]);
+        benchmarks.add(benchmark);
+      }
+    }
+
+    String[] formats = { "DMS", "DM", "D" };
+    String[] apis = { "string", "buffer" };
+    for(int a = 0; a < apis.length; a++)
+    {
+      for(int i = 0; i < formats.length; i++)
+      {
+        benchmarks.add(new FormatBenchmark("formatLatLon", formats[i], false, apis[a]));
+        benchmarks.add(new FormatBenchmark("parseLatLon", formats[i], true, apis[a]));
+      }
+    }
+
+    return benchmarks;
+  }
+
+
+  /** Returns the benchmark name followed by its parameters, for messages */
+  private static String displayName(Benchmark benchmark)
+  {
+    StringBuilder name = new StringBuilder(benchmark.name);
+
+    Iterator<Map.Entry<String, String>> iterator = benchmark.params.entrySet().iterator();
+    while(iterator.hasNext())
+      name.append(' ').append(iterator.next().getValue());
+
+    return name.toString();
+  }
+
+
+  /*
+   * Runs the warmup and measurement iterations of a benchmark and returns
+   * the points per second of each measurement iteration, or null if the
+   * benchmark is skipped.
+   */
+  private double[] measure(Benchmark benchmark, List<double[]> points) throws Exception
+  {
+    try
+    {
+      benchmark.numPoints = benchmark.setUp(points);
+    }
+    catch(Exception e)
+    {
+      benchmark.tearDown();
+      System.err.println("Skipped " + displayName(benchmark) + ": " + e.getMessage());
+      return null;
+    }
+
+    try
+    {
+      for(int i = 0; i < warmupIterations; i++)
+        iteration(benchmark);
+
+      double[] scores = new double[measurementIterations];
+      for(int i = 0; i < measurementIterations; i++)
+        scores[i] = iteration(benchmark);
+
+      return scores;
+    }
+    finally
+    {
+      benchmark.tearDown();
+    }
+  }
+
+
+  private double iteration(Benchmark benchmark) throws Exception
+  {
+    long passes = 0;
+    long start = System.nanoTime();
+    long end = start + iterationTime * 1000000L;
+    long now;
+
+    do
+    {
+      benchmark.run();
+      passes++;
+      now = System.nanoTime();
+    }
+    while(now < end);
+
+    return (double)passes * benchmark.numPoints * 1.0e9 / (now - start);
+  }
+
+
+  private void writeResult(PrintWriter writer, Benchmark benchmark, double[] scores, boolean first)
+  {
+    double mean = 0.0;
+    for(int i = 0; i < scores.length; i++)
+      mean += scores[i];
+    mean /= scores.length;
+
+    double scoreError = Double.NaN;
+    if(scores.length > 1)
+    {
+      double variance = 0.0;
+      for(int i = 0; i < scores.length; i++)
+        variance += (scores[i] - mean) * (scores[i] - mean);
+      variance /= scores.length - 1;
+
+      int degreesOfFreedom = scores.length - 1;
+      double t = (degreesOfFreedom <= STUDENT_T_999.length) ? STUDENT_T_999[degreesOfFreedom - 1] : 3.291;
+      scoreError = t * Math.sqrt(variance / scores.length);
+    }
+
+    writer.println(first ? "    {" : "    ,{");
+    writer.println("        \"benchmark\" : " + quote(ConversionBenchmark.class.getName() + "." + benchmark.name) + ",");
+    writer.println("        \"mode\" : \"thrpt\",");
+    writer.println("        \"threads\" : 1,");
+    writer.println("        \"forks\" : 1,");
+    writer.println("        \"warmupIterations\" : " + warmupIterations + ",");
+    writer.println("        \"measurementIterations\" : " + scores.length + ",");
+    writer.println("        \"params\" : {");
+    Iterator<Map.Entry<String, String>> iterator = benchmark.params.entrySet().iterator();
+    while(iterator.hasNext())
+    {
+      Map.Entry<String, String> entry = iterator.next();
+      writer.println("            " + quote(entry.getKey()) + " : " + quote(entry.getValue()) + (iterator.hasNext() ? "," : ""));
+    }
+    writer.println("        },");
+    writer.println("        \"points\" : " + benchmark.numPoints + ",");
+    writer.println("        \"primaryMetric\" : {");
+    writer.println("            \"score\" : " + number(mean) + ",");
+    writer.println("            \"scoreError\" : " + number(scoreError) + ",");
+    writer.println("            \"scoreUnit\" : \"points/s\",");
+    StringBuilder rawData = new StringBuilder();
+    for(int i = 0; i < scores.length; i++)
+    {
+      if(i > 0)
+        rawData.append(", ");
+      rawData.append(number(scores[i]));
+    }
+    writer.println("            \"rawData\" : [ [ " + rawData + " ] ]");
+    writer.println("        }");
+    writer.println("    }");
+  }
+
+
+  private static String quote(String value)
+  {
+    StringBuilder quoted = new StringBuilder(value.length() + 2);
+    quoted.append('"');
+    for(int i = 0; i < value.length(); i++)
+    {
+      char c = value.charAt(i);
+      if(c == '"' || c == '\\')
+        quoted.append('\\').append(c);
+      else if(c < ' ')
+        quoted.append(String.format("\\u%04x", (int)c));
+      else
+        quoted.append(c);
+    }
+    quoted.append('"');
+    return quoted.toString();
+  }
+
+
+  private static String number(double value)
+  {
+    // JSON has no NaN
+    if(Double.isNaN(value) || Double.isInfinite(value))
+      return "\"NaN\"";
+    return Double.toString(value);
+  }
+
+
+  private static int intArgument(String[] args, int i) throws CoordinateConversionException
+  {
+    if(i >= args.length)
+      throw new CoordinateConversionException("Missing value for " + args[i - 1]);
+
+    try
+    {
+      int value = Integer.parseInt(args[i]);
+      if(value >= 0)
+        return value;
+    }
+    catch(NumberFormatException e)
+    {
+    }
+
+    throw new CoordinateConversionException("Invalid value for " + args[i - 1] + ": " + args[i]);
+  }
+
+
+  private static String stringArgument(String[] args, int i) throws CoordinateConversionException
+  {
+    if(i >= args.length)
+      throw new CoordinateConversionException("Missing value for " + args[i - 1]);
+    return args[i];
+  }
+
+
+  public static void main(String args[])
+  {
+    try
+    {
+      ConversionBenchmark conversionBenchmark = new ConversionBenchmark();
+      String examplesDirectory = "Examples";
+      String outputFile = null;
+      String include = null;
+
+      for(int i = 0; i < args.length; i++)
+      {
+        if(args[i].equals("-examples"))
+          examplesDirectory = stringArgument(args, ++i);
+        else if(args[i].equals("-output"))
+          outputFile = stringArgument(args, ++i);
+        else if(args[i].equals("-warmup"))
+          conversionBenchmark.warmupIterations = intArgument(args, ++i);
+        else if(args[i].equals("-iterations"))
+          conversionBenchmark.measurementIterations = Math.max(1, intArgument(args, ++i));
+        else if(args[i].equals("-time"))
+          conversionBenchmark.iterationTime = Math.max(1, intArgument(args, ++i));
+        else if(args[i].equals("-include"))
+          include = stringArgument(args, ++i);
+        else
+          throw new CoordinateConversionException("Unknown option " + args[i]);
+      }
+
+      System.loadLibrary("jnimsp_ccs");
+
+      List<double[]> points = BenchmarkFixtures.readGeodeticPoints(new File(examplesDirectory));
+      if(points.size() == 0)
+        throw new CoordinateConversionException("No geodetic example points found in " + examplesDirectory);
+
+      PrintWriter writer;
+      if(outputFile != null)
+        writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(outputFile), "UTF-8"));
+      else
+        writer = new PrintWriter(new OutputStreamWriter(System.out, "UTF-8"));
+
+      List<Benchmark> benchmarks = createBenchmarks();
+      boolean first = true;
+
+      writer.println("[");
+      for(int i = 0; i < benchmarks.size(); i++)
+      {
+        Benchmark benchmark = benchmarks.get(i);
+        String name = displayName(benchmark);
+        if(include != null && name.indexOf(include) < 0)
+          continue;
+
+        System.err.println("Running " + name);
+
+        double[] scores = conversionBenchmark.measure(benchmark, points);
+        if(scores != null)
+        {
+          conversionBenchmark.writeResult(writer, benchmark, scores, first);
+          first = false;
+        }
+      }
+      writer.println("]");
+      writer.close();
+    }
+    catch(Exception e)
+    {
+      System.err.println("ConversionBenchmark: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -35,8 +35,8 @@ public class CreateDatumDlg extends javax.swing.JDialog
     {
       super (parent, modal);
       
-      JNIDatumLibrary jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService.getDatumLibrary());
-      JNIEllipsoidLibrary jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService.getEllipsoidLibrary());
+      JNIDatumLibrary jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService);
+      JNIEllipsoidLibrary jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService);
       __3ParamDatumPanel = new _3ParamDatumPanel(jniDatumLibrary, jniEllipsoidLibrary);
       __7ParamDatumPanel = new _7ParamDatumPanel(jniDatumLibrary, jniEllipsoidLibrary);
       
@@ -34,7 +34,7 @@ public class CreateEllipsoidDlg extends javax.swing.JDialog
   {
     super(parent, modal);
 
-    jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService.getEllipsoidLibrary());
+    jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService);
 
     initComponents();
     pack();
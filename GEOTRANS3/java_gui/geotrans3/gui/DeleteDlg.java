@@ -42,8 +42,8 @@ public class DeleteDlg extends javax.swing.JDialog {
     super(parent, modal);
 
     jniCoordinateConversionService = _jniCoordinateConversionService;
-    jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService.getDatumLibrary());
-    jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService.getEllipsoidLibrary());
+    jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService);
+    jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService);
     listType = _listType;
     initComponents();
 
@@ -55,6 +55,8 @@ import geotrans3.utility.color.*;
 public class MSP_GEOTRANS3 extends javax.swing.JFrame 
 { 
   private JNICoordinateConversionService jniCoordinateConversionService;
+  private ConversionServiceCache conversionServiceCache = new ConversionServiceCache();
+  private boolean            librariesChanged;
   private Directory          currentDir;
   private StringHandler      stringHandler;
   private java.awt.Color     defaultSelectedColor;
@@ -777,14 +779,16 @@ public class MSP_GEOTRANS3 extends javax.swing.JFrame
   }//GEN-LAST:event_lookAndFeelActionPerformed
 
   private void formWindowClosing(java.awt.event.WindowEvent evt) {//GEN-FIRST:event_formWindowClosing
-    jniCoordinateConversionService.destroy();
+    releaseCoordinateConversionService();
+    conversionServiceCache.clear();
     dispose();
     System.exit(0);
   }//GEN-LAST:event_formWindowClosing
 
   /** Exit the Application in response to File menu - "exit" event.*/
   private void exitActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_exitActionPerformed
-    jniCoordinateConversionService.destroy();
+    releaseCoordinateConversionService();
+    conversionServiceCache.clear();
     dispose();
     System.exit(0);
   }//GEN-LAST:event_exitActionPerformed
@@ -932,7 +936,10 @@ public class MSP_GEOTRANS3 extends javax.swing.JFrame
     try
     {
       // The DeleteDlg class is used for both Delete Ellipsoid and Delete Datum commands.
-      new DeleteDlg(jniCoordinateConversionService, this, true, ListType.ELLIPSOID).show();
+      DeleteDlg deleteDlg = new DeleteDlg(jniCoordinateConversionService, this, true, ListType.ELLIPSOID);
+      deleteDlg.show();
+      if(deleteDlg.getDeleted())
+        setLibrariesChanged();
     }
     catch(CoordinateConversionException e)
     {
@@ -944,6 +951,8 @@ public class MSP_GEOTRANS3 extends javax.swing.JFrame
     try
     {
       new CreateEllipsoidDlg(jniCoordinateConversionService, this, true).show();
+      // The dialog does not report whether an ellipsoid was created
+      setLibrariesChanged();
     }
     catch(CoordinateConversionException e)
     {
@@ -959,6 +968,8 @@ public class MSP_GEOTRANS3 extends javax.swing.JFrame
       deleteDlg.show();
       if(deleteDlg.getDeleted())
       {
+        setLibrariesChanged();
+
         int indexOfDeletedDatum = deleteDlg.getIndex();
         // Update the index of the current datum in case it is the one being deleted
         // Then delete the datum from each panels list to prevent checkValidConversion
@@ -983,6 +994,8 @@ public class MSP_GEOTRANS3 extends javax.swing.JFrame
       createDatumDlg.show();
       if(createDatumDlg.getDatumCreated())
       {
+        setLibrariesChanged();
+
         upperMasterPanel.addDatumToList();
         lowerMasterPanel.addDatumToList();
       }
@@ -1118,7 +1131,7 @@ public class MSP_GEOTRANS3 extends javax.swing.JFrame
   {
     try
     {
-      JNIDatumLibrary jniDatumLibrary = new JNIDatumLibrary(jniCoordinateConversionService.getDatumLibrary());
+      JNIDatumLibrary jniDatumLibrary = new JNIDatumLibrary(jniCoordinateConversionService);
       long sourceDatumIndex = upperMasterPanel.getDatumIndex();
       long targetDatumIndex = lowerMasterPanel.getDatumIndex();
       
@@ -1232,7 +1245,7 @@ public class MSP_GEOTRANS3 extends javax.swing.JFrame
 
   ///    if(jniCoordinateConversionService != null)
   ///      jniCoordinateConversionService.destroy();
-      jniCoordinateConversionService = new JNICoordinateConversionService(currentDatum[SourceOrTarget.SOURCE], currentParameters[SourceOrTarget.SOURCE], currentDatum[SourceOrTarget.TARGET], currentParameters[SourceOrTarget.TARGET]);
+      jniCoordinateConversionService = conversionServiceCache.acquire(currentDatum[SourceOrTarget.SOURCE], currentParameters[SourceOrTarget.SOURCE], currentDatum[SourceOrTarget.TARGET], currentParameters[SourceOrTarget.TARGET]);
 
       upperMasterPanel = new MasterPanel(jniCoordinateConversionService, ConversionState.INTERACTIVE, SourceOrTarget.SOURCE, formatOptions, stringHandler, epsgData);
       upperMasterPanel.setDefaults(SourceOrTarget.SOURCE, jniCoordinateConversionService, formatOptions, stringHandler);
@@ -1355,12 +1368,15 @@ public class MSP_GEOTRANS3 extends javax.swing.JFrame
           }
         }
 
+        // The service was created before a datum or ellipsoid change
+        if(librariesChanged)
+          parametersChanged = true;
+
         if(parametersChanged)
         {
           
-          JNICoordinateConversionService tempJNICoordinateConversionService = new JNICoordinateConversionService(sourceDatum, sourceParameters, targetDatum, targetParameters);
-          if(jniCoordinateConversionService != null)
-            jniCoordinateConversionService.destroy();
+          JNICoordinateConversionService tempJNICoordinateConversionService = conversionServiceCache.acquire(sourceDatum, sourceParameters, targetDatum, targetParameters);
+          releaseCoordinateConversionService();
           jniCoordinateConversionService = tempJNICoordinateConversionService;
 
           currentDatum[SourceOrTarget.SOURCE] = sourceDatum;
@@ -1370,6 +1386,8 @@ public class MSP_GEOTRANS3 extends javax.swing.JFrame
 
           upperMasterPanel.setCoordinateConversionService(jniCoordinateConversionService);
           lowerMasterPanel.setCoordinateConversionService(jniCoordinateConversionService);
+
+          librariesChanged = false;
         }
         
         return true;
@@ -1537,9 +1555,8 @@ public class MSP_GEOTRANS3 extends javax.swing.JFrame
 
       stringHandler = new StringHandler(formatOptions.getStringToVal());
 
-      JNICoordinateConversionService tempJNICoordinateConversionService = new JNICoordinateConversionService(currentDatum[SourceOrTarget.SOURCE], currentParameters[SourceOrTarget.SOURCE], currentDatum[SourceOrTarget.TARGET], currentParameters[SourceOrTarget.TARGET]);
-      if(jniCoordinateConversionService != null)
-        jniCoordinateConversionService.destroy();
+      JNICoordinateConversionService tempJNICoordinateConversionService = conversionServiceCache.acquire(currentDatum[SourceOrTarget.SOURCE], currentParameters[SourceOrTarget.SOURCE], currentDatum[SourceOrTarget.TARGET], currentParameters[SourceOrTarget.TARGET]);
+      releaseCoordinateConversionService();
       jniCoordinateConversionService = tempJNICoordinateConversionService;
 
       upperMasterPanel.setDefaults(SourceOrTarget.SOURCE, jniCoordinateConversionService, formatOptions, stringHandler);
@@ -1552,6 +1569,36 @@ public class MSP_GEOTRANS3 extends javax.swing.JFrame
     }
   }
 
+  /** Called after a datum or ellipsoid has been created or deleted.  The
+   *  cached services hold the datum and ellipsoid parameters, and datum
+   *  indexes, of the libraries they were created with, so they are
+   *  discarded, and the current service is replaced before the next
+   *  conversion. */
+  private void setLibrariesChanged()
+  {
+    conversionServiceCache.clear();
+    librariesChanged = true;
+  }
+
+  /** Hands the current conversion service back to the service cache, which
+   *  keeps it for reuse when the user returns to the same conversion. */
+  private void releaseCoordinateConversionService()
+  {
+    if(jniCoordinateConversionService != null)
+    {
+      try
+      {
+        conversionServiceCache.release(jniCoordinateConversionService);
+      }
+      catch(CoordinateConversionException e)
+      {
+        jniCoordinateConversionService.destroy();
+      }
+      jniCoordinateConversionService = null;
+    }
+  }
+
+
   void setIcons()
   {
     cutButton.setIcon(new javax.swing.ImageIcon(getClass().getResource("/geotrans3/gui/icons/Cut16.gif"))); // NOI18N
@@ -123,8 +123,8 @@ public class MasterPanel extends javax.swing.JPanel {
 
     try {
       jniCoordinateConversionService = _jniCoordinateConversionService;
-      jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService.getDatumLibrary());
-      jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService.getEllipsoidLibrary());
+      jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService);
+      jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService);
       stringHandler = _stringHandler;
       projectionType = CoordinateType.GEODETIC;
       inputFileType = projectionType;
@@ -172,8 +172,8 @@ public class MasterPanel extends javax.swing.JPanel {
     try
     {
       jniCoordinateConversionService = _jniCoordinateConversionService;
-      jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService.getDatumLibrary());
-      jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService.getEllipsoidLibrary());
+      jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService);
+      jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService);
       stringHandler = _stringHandler;
       projectionType = CoordinateType.GEODETIC;
       inputFileType = _inputFileType;
@@ -201,9 +201,9 @@ public class MasterPanel extends javax.swing.JPanel {
       datumCode = _datumCode;
       coordinateSystemParameters = _coordinateSystemParameters;
       jniCoordinateConversionService = _jniCoordinateConversionService;
-      jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService.getDatumLibrary());
+      jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService);
       jniEllipsoidLibrary = new JNIEllipsoidLibrary(
-          _jniCoordinateConversionService.getEllipsoidLibrary());
+          _jniCoordinateConversionService);
       stringHandler = _stringHandler;
       projectionType = _coordinateSystemParameters.getCoordinateType();
       inputFileType = projectionType;
@@ -2457,8 +2457,8 @@ public class MasterPanel extends javax.swing.JPanel {
     try
     {
       jniCoordinateConversionService = _jniCoordinateConversionService;
-      jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService.getDatumLibrary());
-      jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService.getEllipsoidLibrary());
+      jniDatumLibrary = new JNIDatumLibrary(_jniCoordinateConversionService);
+      jniEllipsoidLibrary = new JNIEllipsoidLibrary(_jniCoordinateConversionService);
     }
     catch(CoordinateConversionException e)
     {
@@ -3439,8 +3439,8 @@ public class MasterPanel extends javax.swing.JPanel {
     try
     {
       jniCoordinateConversionService = _jniCoordinateConversionService;
-      jniDatumLibrary = new JNIDatumLibrary(jniCoordinateConversionService.getDatumLibrary());
-      jniEllipsoidLibrary = new JNIEllipsoidLibrary(jniCoordinateConversionService.getEllipsoidLibrary());
+      jniDatumLibrary = new JNIDatumLibrary(jniCoordinateConversionService);
+      jniEllipsoidLibrary = new JNIEllipsoidLibrary(jniCoordinateConversionService);
       formatOptions = _formatOptions;
       stringHandler = _stringHandler;
 
@@ -11,6 +11,8 @@ package geotrans3.gui;
 
 
 import geotrans3.exception.CoordinateConversionException;
+import geotrans3.jni.FileConversionListener;
+import geotrans3.jni.FileConversionProgress;
 import geotrans3.jni.JNIFiomeths;
 import geotrans3.misc.StringHandler;
 import geotrans3.utility.Utility;
@@ -25,6 +27,11 @@ public class ProgressDlg extends javax.swing.JDialog
 {
   JNIFiomeths jniFiomeths;
 
+  // Refreshes the progress while the file is converted in the background
+  private javax.swing.Timer progressTimer;
+  private boolean started = false;
+  private boolean cancelled = false;
+
   /** Creates new form ProgressDlg */
   public ProgressDlg(javax.swing.JDialog parent, boolean modal, JNIFiomeths _jniFiomeths)
   {
@@ -35,9 +42,17 @@ public class ProgressDlg extends javax.swing.JDialog
     numWarningsLabel.setVisible(false);
     numErrorsLabel.setVisible(false);
     elapsedTimeLabel.setVisible(false);
+    rateLabel.setVisible(false);
+    remainingLabel.setVisible(false);
     
     getRootPane().setDefaultButton(startButton);
 
+    progressTimer = new javax.swing.Timer(250, new java.awt.event.ActionListener() {
+      public void actionPerformed(java.awt.event.ActionEvent evt) {
+        updateProgress();
+      }
+    });
+
     pack();
     Utility.center(parent, this);
   }
@@ -61,6 +76,8 @@ public class ProgressDlg extends javax.swing.JDialog
     numWarningsLabel = new javax.swing.JLabel();
     numErrorsLabel = new javax.swing.JLabel();
     elapsedTimeLabel = new javax.swing.JLabel();
+    rateLabel = new javax.swing.JLabel();
+    remainingLabel = new javax.swing.JLabel();
 
     setTitle("File Processing");
     setResizable(false);
@@ -182,6 +199,22 @@ public class ProgressDlg extends javax.swing.JDialog
     gridBagConstraints.fill = java.awt.GridBagConstraints.BOTH;
     resultsPanel.add(elapsedTimeLabel, gridBagConstraints);
 
+    rateLabel.setHorizontalAlignment(javax.swing.SwingConstants.CENTER);
+    rateLabel.setText("Coordinates per Second:");
+    gridBagConstraints = new java.awt.GridBagConstraints();
+    gridBagConstraints.gridx = 0;
+    gridBagConstraints.gridy = 4;
+    gridBagConstraints.fill = java.awt.GridBagConstraints.BOTH;
+    resultsPanel.add(rateLabel, gridBagConstraints);
+
+    remainingLabel.setHorizontalAlignment(javax.swing.SwingConstants.CENTER);
+    remainingLabel.setText("Time Remaining:");
+    gridBagConstraints = new java.awt.GridBagConstraints();
+    gridBagConstraints.gridx = 0;
+    gridBagConstraints.gridy = 5;
+    gridBagConstraints.fill = java.awt.GridBagConstraints.BOTH;
+    resultsPanel.add(remainingLabel, gridBagConstraints);
+
     getContentPane().add(resultsPanel, java.awt.BorderLayout.CENTER);
   }// </editor-fold>//GEN-END:initComponents
 
@@ -199,10 +232,13 @@ public class ProgressDlg extends javax.swing.JDialog
   }//GEN-LAST:event_okButtonActionPerformed
 
   private void cancelButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_cancelButtonActionPerformed
+    cancelled = true;
+    progressTimer.stop();
     setVisible( false );
     dispose();      
     try
     {
+      // Closing the files cancels a running conversion and waits for it
       jniFiomeths.closeInputFile();
       jniFiomeths.closeOutputFile();
     }
@@ -214,6 +250,8 @@ public class ProgressDlg extends javax.swing.JDialog
 
     /** Closes the dialog */
     private void closeDialog(java.awt.event.WindowEvent evt) {//GEN-FIRST:event_closeDialog
+      cancelled = true;
+      progressTimer.stop();
       setVisible(false);
       dispose();
       try
@@ -243,15 +281,94 @@ void startButtonPressed()
 
 void startButtonReleased()
 {
+    if (started)
+      return;
+    started = true;
+
     try
     {
     /*  if(convertCollection)
         fiomeths.convertCollectionFile();
       else*/
-       jniFiomeths.convertFile();
-      
+      jniFiomeths.startConvertFile(new FileConversionListener()
+      {
+        public void conversionFinished(final CoordinateConversionException exception)
+        {
+          javax.swing.SwingUtilities.invokeLater(new Runnable()
+          {
+            public void run()
+            {
+              convertFileFinished(exception);
+            }
+          });
+        }
+      });
+
+      cancelButton.setEnabled(true);
+      progressTimer.start();
+    }
+    catch(CoordinateConversionException e)
+    {
+      convertFileFinished(e);
+    }
+}
+
+
+void updateProgress()
+{
+    try
+    {
+      FileConversionProgress progress = jniFiomeths.getProgress();
+      if (progress.isFinished())
+        return;
+
+      statusLabel.setText("In Progress - " + (int)(100 * progress.getFractionComplete()) + "%");
+
+      numProcessedLabel.setVisible(true);
+      numProcessedLabel.setText("Number of coordinates processed = " + progress.getNumConverted());
+
+      java.text.NumberFormat nf = java.text.NumberFormat.getNumberInstance();
+      nf.setMaximumFractionDigits(0);
+      rateLabel.setVisible(true);
+      rateLabel.setText("Coordinates per second = " + nf.format(progress.getPointsPerSecond()));
+
+      double remaining = progress.getEstimatedTimeRemaining();
+      remainingLabel.setVisible(true);
+      if (remaining < 0)
+        remainingLabel.setText("Estimated time remaining = unknown");
+      else
+        remainingLabel.setText("Estimated time remaining = " + nf.format(Math.ceil(remaining)) + " s");
+
+      nf.setMaximumFractionDigits(1);
+      nf.setMinimumFractionDigits(1);
+      elapsedTimeLabel.setVisible(true);
+      elapsedTimeLabel.setText("Elapsed Time = " + nf.format(progress.getElapsedTime()) + " s");
+    }
+    catch(CoordinateConversionException e)
+    {
+      progressTimer.stop();
+    }
+}
+
+
+void convertFileFinished(CoordinateConversionException exception)
+{
+    progressTimer.stop();
+    this.setCursor(new java.awt.Cursor(java.awt.Cursor.DEFAULT_CURSOR));
+
+    // The dialog has already been closed
+    if (cancelled)
+      return;
+
+    try
+    {
+      if (exception != null)
+        throw exception;
+
       statusLabel.setText("Completed");
-      this.setCursor(new java.awt.Cursor(java.awt.Cursor.DEFAULT_CURSOR));
+      cancelButton.setEnabled(false);
+      remainingLabel.setVisible(false);
+
       long numProcessed = jniFiomeths.getNumProcessed();
       numProcessedLabel.setVisible(true);
       numProcessedLabel.setText("Number of coordinates processed = " + numProcessed);
@@ -271,6 +388,11 @@ void startButtonReleased()
       nf.setMinimumFractionDigits(5);
       elapsedTimeLabel.setText("Elapsed Time = " + nf.format(elapsedTime) + " s");
 
+      nf.setMaximumFractionDigits(0);
+      nf.setMinimumFractionDigits(0);
+      rateLabel.setVisible(elapsedTime > 0);
+      rateLabel.setText("Coordinates per second = " + nf.format(numProcessed / Math.max(elapsedTime, 1.0e-9)));
+
       okButton.setEnabled(true);
       getRootPane().setDefaultButton(okButton);    
     }
@@ -307,6 +429,8 @@ void startButtonReleased()
   private javax.swing.JLabel numProcessedLabel;
   private javax.swing.JLabel numWarningsLabel;
   private javax.swing.JButton okButton;
+  private javax.swing.JLabel rateLabel;
+  private javax.swing.JLabel remainingLabel;
   private javax.swing.JPanel resultsPanel;
   private javax.swing.JButton startButton;
   private javax.swing.JLabel statusLabel;
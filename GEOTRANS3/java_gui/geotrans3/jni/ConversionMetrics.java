@@ -0,0 +1,390 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * ConversionMetrics.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.jni;
+
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import geotrans3.enumerations.CoordinateType;
+
+
+/**
+ * Counts, errors, warnings and latencies of the conversions made through
+ * JNICoordinateConversionService and JNIFiomeths, kept for each pair of
+ * source and target coordinate types.  Measuring is cheap enough to be left
+ * on: counters are LongAdders, which contending threads update without
+ * locking, and the only other cost of a conversion call is reading the
+ * clock twice.
+ *
+ * The metrics are registered with the platform MBean server, shortly
+ * after the class is loaded, as geotrans3:type=ConversionMetrics.
+ */
+public final class ConversionMetrics implements ConversionMetricsMXBean
+{
+  public static final String OBJECT_NAME = "geotrans3:type=ConversionMetrics";
+
+  // Coordinate types run from 0 to CoordinateType.F16GRS
+  private static final int TYPE_COUNT = CoordinateType.F16GRS + 1;
+
+  private static final double[] PERCENTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+  private static final ConversionMetrics instance = new ConversionMetrics();
+
+  private static volatile boolean enabled = true;
+
+  private final AtomicReferenceArray<Pair> pairs = new AtomicReferenceArray<Pair>(TYPE_COUNT * TYPE_COUNT);
+
+  // Starting the platform MBean server takes a good part of a second, so
+  // the metrics are registered on a thread of their own rather than by
+  // the first conversion
+  static
+  {
+    Thread registration = new Thread(new Runnable()
+    {
+      public void run()
+      {
+        try
+        {
+          ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+        }
+        catch(JMException e)
+        {
+          // Already registered by another class loader; the metrics are
+          // still available through getInstance()
+        }
+        catch(SecurityException e)
+        {
+        }
+      }
+    }, "Conversion Metrics Registration");
+    registration.setDaemon(true);
+    registration.start();
+  }
+
+
+  private ConversionMetrics()
+  {
+  }
+
+
+  public static ConversionMetrics getInstance()
+  {
+    return instance;
+  }
+
+
+  /**
+   * Returns true if conversions are being measured.  The wrappers check
+   * this before reading the clock.
+   */
+  static boolean enabled()
+  {
+    return enabled;
+  }
+
+
+  public boolean isEnabled()
+  {
+    return enabled;
+  }
+
+
+  public void setEnabled(boolean _enabled)
+  {
+    enabled = _enabled;
+  }
+
+
+  /**
+   * Returns the metrics of the given pair of coordinate types, creating
+   * them on first use, or null if either type is not a coordinate type.
+   */
+  Pair getPair(int sourceType, int targetType)
+  {
+    if(sourceType < 0 || sourceType >= TYPE_COUNT || targetType < 0 || targetType >= TYPE_COUNT)
+      return null;
+
+    int index = sourceType * TYPE_COUNT + targetType;
+    Pair pair = pairs.get(index);
+    if(pair == null)
+    {
+      pairs.compareAndSet(index, null, new Pair(sourceType, targetType));
+      pair = pairs.get(index);
+    }
+
+    return pair;
+  }
+
+
+  public long getCalls()
+  {
+    long total = 0;
+    for(int i = 0; i < pairs.length(); i++)
+    {
+      Pair pair = pairs.get(i);
+      if(pair != null)
+        total += pair.calls.sum();
+    }
+
+    return total;
+  }
+
+
+  public long getPoints()
+  {
+    long total = 0;
+    for(int i = 0; i < pairs.length(); i++)
+    {
+      Pair pair = pairs.get(i);
+      if(pair != null)
+        total += pair.points.sum();
+    }
+
+    return total;
+  }
+
+
+  public long getErrors()
+  {
+    long total = 0;
+    for(int i = 0; i < pairs.length(); i++)
+    {
+      Pair pair = pairs.get(i);
+      if(pair != null)
+        total += pair.errors.sum();
+    }
+
+    return total;
+  }
+
+
+  public long getWarnings()
+  {
+    long total = 0;
+    for(int i = 0; i < pairs.length(); i++)
+    {
+      Pair pair = pairs.get(i);
+      if(pair != null)
+        total += pair.warnings.sum();
+    }
+
+    return total;
+  }
+
+
+  public long getFileRuns()
+  {
+    long total = 0;
+    for(int i = 0; i < pairs.length(); i++)
+    {
+      Pair pair = pairs.get(i);
+      if(pair != null)
+        total += pair.fileRuns.sum();
+    }
+
+    return total;
+  }
+
+
+  public long getFilePoints()
+  {
+    long total = 0;
+    for(int i = 0; i < pairs.length(); i++)
+    {
+      Pair pair = pairs.get(i);
+      if(pair != null)
+        total += pair.filePoints.sum();
+    }
+
+    return total;
+  }
+
+
+  public long getFileErrors()
+  {
+    long total = 0;
+    for(int i = 0; i < pairs.length(); i++)
+    {
+      Pair pair = pairs.get(i);
+      if(pair != null)
+        total += pair.fileErrors.sum();
+    }
+
+    return total;
+  }
+
+
+  public long getFileWarnings()
+  {
+    long total = 0;
+    for(int i = 0; i < pairs.length(); i++)
+    {
+      Pair pair = pairs.get(i);
+      if(pair != null)
+        total += pair.fileWarnings.sum();
+    }
+
+    return total;
+  }
+
+
+  public double getFilePointsPerSecond()
+  {
+    long points = 0;
+    long nanos = 0;
+    for(int i = 0; i < pairs.length(); i++)
+    {
+      Pair pair = pairs.get(i);
+      if(pair != null)
+      {
+        points += pair.filePoints.sum();
+        nanos += pair.fileNanos.sum();
+      }
+    }
+
+    return pointsPerSecond(points, nanos);
+  }
+
+
+  public ConversionPairStatistics[] getPairStatistics()
+  {
+    ArrayList<ConversionPairStatistics> statistics = new ArrayList<ConversionPairStatistics>();
+    for(int i = 0; i < pairs.length(); i++)
+    {
+      Pair pair = pairs.get(i);
+      if(pair != null)
+        statistics.add(pair.getStatistics());
+    }
+
+    return statistics.toArray(new ConversionPairStatistics[statistics.size()]);
+  }
+
+
+  public void reset()
+  {
+    for(int i = 0; i < pairs.length(); i++)
+    {
+      Pair pair = pairs.get(i);
+      if(pair != null)
+        pair.reset();
+    }
+  }
+
+
+  private static double pointsPerSecond(long points, long nanos)
+  {
+    return nanos > 0 ? points * 1.0e9 / nanos : 0;
+  }
+
+
+  /*
+   * Metrics of one pair of source and target coordinate types.  Wrappers
+   * look their pair up once and keep it; reset() clears the pair in place.
+   */
+  static final class Pair
+  {
+    private final int sourceType;
+    private final int targetType;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder points = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder warnings = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder nativeNanos = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    private final LongAdder fileRuns = new LongAdder();
+    private final LongAdder filePoints = new LongAdder();
+    private final LongAdder fileNanos = new LongAdder();
+    private final LongAdder fileErrors = new LongAdder();
+    private final LongAdder fileWarnings = new LongAdder();
+    private volatile double lastFilePointsPerSecond;
+
+    Pair(int _sourceType, int _targetType)
+    {
+      sourceType = _sourceType;
+      targetType = _targetType;
+    }
+
+
+    /**
+     * Records a conversion call of count points, of which errorCount failed
+     * and warningCount converted with a warning.  totalNanos is the time of
+     * the whole call, nativeNanos that of its native call.
+     */
+    void recordCall(long count, long errorCount, long warningCount, long _totalNanos, long _nativeNanos)
+    {
+      calls.increment();
+      points.add(count);
+      if(errorCount != 0)
+        errors.add(errorCount);
+      if(warningCount != 0)
+        warnings.add(warningCount);
+      totalNanos.add(_totalNanos);
+      nativeNanos.add(_nativeNanos);
+      latency.record(_totalNanos);
+    }
+
+
+    /**
+     * Records a file conversion which processed count points in nanos
+     * nanoseconds.
+     */
+    void recordFileRun(long count, long errorCount, long warningCount, long nanos)
+    {
+      fileRuns.increment();
+      filePoints.add(count);
+      fileNanos.add(nanos);
+      if(errorCount != 0)
+        fileErrors.add(errorCount);
+      if(warningCount != 0)
+        fileWarnings.add(warningCount);
+      lastFilePointsPerSecond = pointsPerSecond(count, nanos);
+    }
+
+
+    ConversionPairStatistics getStatistics()
+    {
+      double[] percentiles = latency.getPercentiles(PERCENTILES);
+
+      return new ConversionPairStatistics(CoordinateType.name(sourceType), CoordinateType.name(targetType),
+                                          calls.sum(), points.sum(), errors.sum(), warnings.sum(),
+                                          totalNanos.sum(), nativeNanos.sum(),
+                                          percentiles[0] / 1000.0, percentiles[1] / 1000.0, percentiles[2] / 1000.0,
+                                          percentiles[3] / 1000.0, latency.getMax() / 1000.0,
+                                          fileRuns.sum(), filePoints.sum(), fileErrors.sum(), fileWarnings.sum(), pointsPerSecond(filePoints.sum(), fileNanos.sum()),
+                                          lastFilePointsPerSecond);
+    }
+
+
+    void reset()
+    {
+      calls.reset();
+      points.reset();
+      errors.reset();
+      warnings.reset();
+      totalNanos.reset();
+      nativeNanos.reset();
+      latency.reset();
+      fileRuns.reset();
+      filePoints.reset();
+      fileNanos.reset();
+      fileErrors.reset();
+      fileWarnings.reset();
+      lastFilePointsPerSecond = 0;
+    }
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,104 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * ConversionMetricsMXBean.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.jni;
+
+
+/**
+ * Management interface of the conversion metrics, registered with the
+ * platform MBean server as geotrans3:type=ConversionMetrics.  The totals
+ * are summed over all pairs of source and target coordinate types.
+ */
+public interface ConversionMetricsMXBean
+{
+  /**
+   * Returns true if conversions are being measured.
+   */
+  public boolean isEnabled();
+
+
+  /**
+   * Starts or stops measuring conversions.  Counts already recorded are
+   * kept.
+   */
+  public void setEnabled(boolean enabled);
+
+
+  /**
+   * Returns the number of conversion calls: a single point, collection,
+   * array or buffer conversion is one call.
+   */
+  public long getCalls();
+
+
+  /**
+   * Returns the number of points converted by conversion calls.
+   */
+  public long getPoints();
+
+
+  /**
+   * Returns the number of points of conversion calls which failed.
+   */
+  public long getErrors();
+
+
+  /**
+   * Returns the number of points of conversion calls converted with a
+   * warning.
+   */
+  public long getWarnings();
+
+
+  /**
+   * Returns the number of file conversions.
+   */
+  public long getFileRuns();
+
+
+  /**
+   * Returns the number of points processed by file conversions.
+   */
+  public long getFilePoints();
+
+
+  /**
+   * Returns the number of points of file conversions which could not be
+   * converted.
+   */
+  public long getFileErrors();
+
+
+  /**
+   * Returns the number of points of file conversions converted with a
+   * warning.
+   */
+  public long getFileWarnings();
+
+
+  /**
+   * Returns the points processed per second by the file conversions,
+   * over all of them.
+   */
+  public double getFilePointsPerSecond();
+
+
+  /**
+   * Returns the measurements of each pair of source and target coordinate
+   * types which has been converted.
+   */
+  public ConversionPairStatistics[] getPairStatistics();
+
+
+  /**
+   * Clears all counts and latencies.
+   */
+  public void reset();
+}
+
+// CLASSIFICATION: UNCLASSIFIED
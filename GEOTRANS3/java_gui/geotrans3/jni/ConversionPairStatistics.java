@@ -0,0 +1,235 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * ConversionPairStatistics.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.jni;
+
+
+import java.beans.ConstructorProperties;
+
+
+/**
+ * Measurements of the conversions between one source and one target
+ * coordinate type, taken when the statistics were requested.
+ *
+ * Conversion call times are split into the time spent in the native call,
+ * which includes the translation of Java coordinate objects done by the JNI
+ * code, and the time spent in Java checking the arguments and counting the
+ * results.  Latencies are those of whole calls, in microseconds: for the
+ * collection, array and buffer conversions a call converts many points.
+ */
+public class ConversionPairStatistics
+{
+  private String sourceCoordinateType;
+  private String targetCoordinateType;
+  private long calls;
+  private long points;
+  private long errors;
+  private long warnings;
+  private long totalNanos;
+  private long nativeNanos;
+  private double latencyP50;
+  private double latencyP90;
+  private double latencyP99;
+  private double latencyP999;
+  private double latencyMax;
+  private long fileRuns;
+  private long filePoints;
+  private long fileErrors;
+  private long fileWarnings;
+  private double filePointsPerSecond;
+  private double lastFilePointsPerSecond;
+
+
+  @ConstructorProperties({"sourceCoordinateType", "targetCoordinateType", "calls", "points", "errors", "warnings",
+                          "totalNanos", "nativeNanos", "latencyP50", "latencyP90", "latencyP99", "latencyP999", "latencyMax",
+                          "fileRuns", "filePoints", "fileErrors", "fileWarnings", "filePointsPerSecond", "lastFilePointsPerSecond"})
+  public ConversionPairStatistics(String _sourceCoordinateType, String _targetCoordinateType, long _calls, long _points,
+                                  long _errors, long _warnings, long _totalNanos, long _nativeNanos,
+                                  double _latencyP50, double _latencyP90, double _latencyP99, double _latencyP999, double _latencyMax,
+                                  long _fileRuns, long _filePoints, long _fileErrors, long _fileWarnings, double _filePointsPerSecond, double _lastFilePointsPerSecond)
+  {
+    sourceCoordinateType = _sourceCoordinateType;
+    targetCoordinateType = _targetCoordinateType;
+    calls = _calls;
+    points = _points;
+    errors = _errors;
+    warnings = _warnings;
+    totalNanos = _totalNanos;
+    nativeNanos = _nativeNanos;
+    latencyP50 = _latencyP50;
+    latencyP90 = _latencyP90;
+    latencyP99 = _latencyP99;
+    latencyP999 = _latencyP999;
+    latencyMax = _latencyMax;
+    fileRuns = _fileRuns;
+    filePoints = _filePoints;
+    fileErrors = _fileErrors;
+    fileWarnings = _fileWarnings;
+    filePointsPerSecond = _filePointsPerSecond;
+    lastFilePointsPerSecond = _lastFilePointsPerSecond;
+  }
+
+
+  public String getSourceCoordinateType()
+  {
+    return sourceCoordinateType;
+  }
+
+
+  public String getTargetCoordinateType()
+  {
+    return targetCoordinateType;
+  }
+
+
+  public long getCalls()
+  {
+    return calls;
+  }
+
+
+  public long getPoints()
+  {
+    return points;
+  }
+
+
+  public long getErrors()
+  {
+    return errors;
+  }
+
+
+  public long getWarnings()
+  {
+    return warnings;
+  }
+
+
+  /**
+   * Returns the time spent in conversion calls, in nanoseconds.
+   */
+  public long getTotalNanos()
+  {
+    return totalNanos;
+  }
+
+
+  /**
+   * Returns the time spent in the native calls of conversion calls, in
+   * nanoseconds.
+   */
+  public long getNativeNanos()
+  {
+    return nativeNanos;
+  }
+
+
+  /**
+   * Returns the time spent in Java by conversion calls, in nanoseconds.
+   */
+  public long getJavaNanos()
+  {
+    return totalNanos - nativeNanos;
+  }
+
+
+  public double getLatencyP50()
+  {
+    return latencyP50;
+  }
+
+
+  public double getLatencyP90()
+  {
+    return latencyP90;
+  }
+
+
+  public double getLatencyP99()
+  {
+    return latencyP99;
+  }
+
+
+  public double getLatencyP999()
+  {
+    return latencyP999;
+  }
+
+
+  public double getLatencyMax()
+  {
+    return latencyMax;
+  }
+
+
+  public long getFileRuns()
+  {
+    return fileRuns;
+  }
+
+
+  public long getFilePoints()
+  {
+    return filePoints;
+  }
+
+
+  public long getFileErrors()
+  {
+    return fileErrors;
+  }
+
+
+  public long getFileWarnings()
+  {
+    return fileWarnings;
+  }
+
+
+  /**
+   * Returns the points processed per second by the file conversions,
+   * over all of them.
+   */
+  public double getFilePointsPerSecond()
+  {
+    return filePointsPerSecond;
+  }
+
+
+  /**
+   * Returns the points processed per second by the last file conversion.
+   */
+  public double getLastFilePointsPerSecond()
+  {
+    return lastFilePointsPerSecond;
+  }
+
+
+  public String toString()
+  {
+    StringBuilder string = new StringBuilder();
+    string.append(sourceCoordinateType).append(" -> ").append(targetCoordinateType).append(": ");
+    string.append(calls).append(" calls, ").append(points).append(" points, ");
+    string.append(errors).append(" errors, ").append(warnings).append(" warnings");
+    if(calls > 0)
+    {
+      string.append(", latency p50/p90/p99/p99.9/max ");
+      string.append(String.format("%.1f/%.1f/%.1f/%.1f/%.1f us", latencyP50, latencyP90, latencyP99, latencyP999, latencyMax));
+      string.append(String.format(", %.1f%% native", totalNanos > 0 ? 100.0 * nativeNanos / totalNanos : 0.0));
+    }
+    if(fileRuns > 0)
+      string.append(String.format(", %d file runs, %d file points, %d file errors, %d file warnings, %.0f points/s",
+                                  fileRuns, filePoints, fileErrors, fileWarnings, filePointsPerSecond));
+
+    return string.toString();
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
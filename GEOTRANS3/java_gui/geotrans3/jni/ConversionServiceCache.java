@@ -0,0 +1,417 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * ConversionServiceCache.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.jni;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import geotrans3.exception.CoordinateConversionException;
+import geotrans3.parameters.CoordinateSystemParameters;
+
+
+/**
+ * Keeps coordinate conversion services for reuse, keyed by source datum,
+ * source coordinate system parameters, target datum and target coordinate
+ * system parameters.  Creating a native conversion service takes
+ * milliseconds, so an application switching between a set of conversions
+ * should get its services from a cache rather than creating and destroying
+ * one for each change.
+ *
+ * A service is leased with acquire() and handed back with release().  The
+ * cache holds at most getCapacity() services; when it is full the least
+ * recently used service is removed and destroyed, or, if it is still
+ * leased, destroyed when its last lease is released.  A leased service is
+ * therefore never destroyed while in use.
+ *
+ * A service holds the datum and ellipsoid parameters, and the datum table
+ * indexes, current when it was created.  Each define or remove made
+ * through JNIDatumLibrary or JNIEllipsoidLibrary therefore starts a new
+ * library generation, which is part of the cache key: services created
+ * before the change are never handed out again, and the next call to
+ * acquire() removes them.  An application changing the datum or ellipsoid
+ * libraries any other way must call clear() after the change.  A service
+ * already leased is not replaced; callers re-acquire their services after
+ * changing the libraries.
+ *
+ * All methods may be called from any thread.  Services are created outside
+ * the cache's lock, so threads finding their service cached do not wait
+ * for another thread's creation.
+ */
+public class ConversionServiceCache extends Object
+{
+  public static final int DEFAULT_CAPACITY = 64;
+
+  // Incremented by each change to the datum or ellipsoid libraries
+  private static final AtomicLong libraryGeneration = new AtomicLong();
+
+  private int capacity;
+
+  // Cached services, least recently used first
+  private LinkedHashMap<Key, Entry> entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true);
+
+  // Cached and evicted services which are still leased
+  private IdentityHashMap<JNICoordinateConversionService, Entry> leased = new IdentityHashMap<JNICoordinateConversionService, Entry>();
+
+  private long numHits;
+  private long numMisses;
+  private long numEvictions;
+
+  // Library generation of the services cached
+  private long generation;
+
+
+  private static class Key
+  {
+    private long generation;
+    private String sourceDatumCode;
+    private CoordinateSystemParameters sourceParameters;
+    private String targetDatumCode;
+    private CoordinateSystemParameters targetParameters;
+    private int hash;
+
+
+    Key(long _generation, String _sourceDatumCode, CoordinateSystemParameters _sourceParameters, String _targetDatumCode, CoordinateSystemParameters _targetParameters)
+    {
+      generation = _generation;
+
+      // Datum codes are not case sensitive
+      sourceDatumCode = _sourceDatumCode.toUpperCase();
+      sourceParameters = _sourceParameters;
+      targetDatumCode = _targetDatumCode.toUpperCase();
+      targetParameters = _targetParameters;
+
+      hash = (int)generation;
+      hash = 31 * hash + sourceDatumCode.hashCode();
+      hash = 31 * hash + sourceParameters.hashCode();
+      hash = 31 * hash + targetDatumCode.hashCode();
+      hash = 31 * hash + targetParameters.hashCode();
+    }
+
+
+    public boolean equals(Object object)
+    {
+      if(!(object instanceof Key))
+        return false;
+
+      Key key = (Key)object;
+      return hash == key.hash && generation == key.generation && sourceDatumCode.equals(key.sourceDatumCode) && sourceParameters.equals(key.sourceParameters) &&
+             targetDatumCode.equals(key.targetDatumCode) && targetParameters.equals(key.targetParameters);
+    }
+
+
+    public int hashCode()
+    {
+      return hash;
+    }
+  }
+
+
+  private static class Entry
+  {
+    private JNICoordinateConversionService service;
+    private int numLeases;
+    private boolean evicted;
+
+
+    Entry(JNICoordinateConversionService _service)
+    {
+      service = _service;
+    }
+  }
+
+
+  /** Creates a cache holding up to DEFAULT_CAPACITY services */
+  public ConversionServiceCache()
+  {
+    capacity = DEFAULT_CAPACITY;
+  }
+
+
+  public ConversionServiceCache(int _capacity) throws CoordinateConversionException
+  {
+    if (_capacity < 1)
+    {
+        throw new CoordinateConversionException("ConversionServiceCache called with invalid capacity");
+    }
+
+    capacity = _capacity;
+  }
+
+
+  /**
+   * Returns a service converting between the given datums and coordinate
+   * systems, creating it if it is not cached.  The service must be handed
+   * back with release() and must not be destroyed by the caller.  The
+   * parameters objects become part of the cache key and must not be
+   * changed afterwards.
+   */
+  public JNICoordinateConversionService acquire(String sourceDatumCode, CoordinateSystemParameters sourceParameters, String targetDatumCode, CoordinateSystemParameters targetParameters) throws Exception
+  {
+    if (sourceDatumCode == null || sourceParameters == null || targetDatumCode == null || targetParameters == null)
+    {
+        throw new CoordinateConversionException("acquire called with null object");
+    }
+
+    // The generation is read before the service is created, so a service
+    // which may predate a library change is keyed as stale
+    long currentGeneration = libraryGeneration.get();
+    Key key = new Key(currentGeneration, sourceDatumCode, sourceParameters, targetDatumCode, targetParameters);
+    List<JNICoordinateConversionService> staleServices = null;
+
+    synchronized(this)
+    {
+      // A thread which read the generation before a change finds nothing
+      // under its stale key, and does not cache the service it creates
+      if (currentGeneration > generation)
+      {
+        staleServices = removeAll();
+        generation = currentGeneration;
+      }
+
+      Entry entry = entries.get(key);
+      if (entry != null)
+      {
+        numHits++;
+        lease(entry);
+        return entry.service;
+      }
+
+      numMisses++;
+    }
+
+    if (staleServices != null)
+      destroy(staleServices);
+
+    JNICoordinateConversionService service = new JNICoordinateConversionService(sourceDatumCode, sourceParameters, targetDatumCode, targetParameters);
+    JNICoordinateConversionService duplicate = null;
+    List<JNICoordinateConversionService> evictedServices;
+
+    synchronized(this)
+    {
+      // Another thread may have created the same service meanwhile
+      Entry entry = entries.get(key);
+      if (entry == null)
+      {
+        entry = new Entry(service);
+
+        // A service which may predate a library change is leased but not
+        // cached, and destroyed when released
+        if (key.generation == generation)
+          entries.put(key, entry);
+        else
+          entry.evicted = true;
+      }
+      else
+        duplicate = service;
+
+      lease(entry);
+      service = entry.service;
+
+      evictedServices = evict(capacity);
+    }
+
+    if (duplicate != null)
+      duplicate.destroy();
+    destroy(evictedServices);
+
+    return service;
+  }
+
+
+  /**
+   * Hands back a service returned by acquire().  The service must not be
+   * used by the caller afterwards.
+   */
+  public void release(JNICoordinateConversionService service) throws CoordinateConversionException
+  {
+    synchronized(this)
+    {
+      Entry entry = leased.get(service);
+      if (entry == null)
+      {
+          throw new CoordinateConversionException("release called with service not leased from this cache");
+      }
+
+      entry.numLeases--;
+      if (entry.numLeases > 0)
+        return;
+
+      leased.remove(service);
+      if (!entry.evicted)
+        return;
+    }
+
+    service.destroy();
+  }
+
+
+  /**
+   * Removes all services from the cache, destroying those not leased.
+   * Leased services are destroyed when released.
+   */
+  public void clear()
+  {
+    List<JNICoordinateConversionService> evictedServices;
+
+    synchronized(this)
+    {
+      evictedServices = removeAll();
+    }
+
+    destroy(evictedServices);
+  }
+
+
+  /*
+   * Starts a new library generation; called after each change to the datum
+   * or ellipsoid libraries.
+   */
+  static void libraryChanged()
+  {
+    libraryGeneration.incrementAndGet();
+  }
+
+
+  public synchronized void setCapacity(int _capacity) throws CoordinateConversionException
+  {
+    if (_capacity < 1)
+    {
+        throw new CoordinateConversionException("setCapacity called with invalid capacity");
+    }
+
+    capacity = _capacity;
+
+    // Services evicted here are destroyed under the cache's lock, which
+    // only delays other threads when the capacity is reduced
+    destroy(evict(capacity));
+  }
+
+
+  public synchronized int getCapacity()
+  {
+    return capacity;
+  }
+
+
+  /** Number of services cached, leased or not */
+  public synchronized int getSize()
+  {
+    return entries.size();
+  }
+
+
+  /** Number of calls to acquire() which found their service cached */
+  public synchronized long getNumHits()
+  {
+    return numHits;
+  }
+
+
+  /** Number of calls to acquire() which created their service */
+  public synchronized long getNumMisses()
+  {
+    return numMisses;
+  }
+
+
+  /** Number of services removed to keep the cache within its capacity */
+  public synchronized long getNumEvictions()
+  {
+    return numEvictions;
+  }
+
+
+  /** Fraction of calls to acquire() which found their service cached */
+  public synchronized double getHitRatio()
+  {
+    long numRequests = numHits + numMisses;
+    if(numRequests == 0)
+      return 0.0;
+    return (double)numHits / numRequests;
+  }
+
+
+  public synchronized void resetStatistics()
+  {
+    numHits = 0;
+    numMisses = 0;
+    numEvictions = 0;
+  }
+
+
+  public synchronized String toString()
+  {
+    return "ConversionServiceCache: Size = " + entries.size() +
+    " Capacity = " + capacity +
+    " Hits = " + numHits +
+    " Misses = " + numMisses +
+    " Evictions = " + numEvictions;
+  }
+
+
+  private void lease(Entry entry)
+  {
+    if (entry.numLeases == 0)
+      leased.put(entry.service, entry);
+    entry.numLeases++;
+  }
+
+
+  /*
+   * Removes least recently used services until at most size remain, and
+   * returns those which are not leased, to be destroyed by the caller
+   * without holding the cache's lock.
+   */
+  private List<JNICoordinateConversionService> evict(int size)
+  {
+    List<JNICoordinateConversionService> evictedServices = new ArrayList<JNICoordinateConversionService>();
+
+    Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while (entries.size() > size && iterator.hasNext())
+    {
+      Entry entry = iterator.next().getValue();
+      iterator.remove();
+      numEvictions++;
+
+      entry.evicted = true;
+      if (entry.numLeases == 0)
+        evictedServices.add(entry.service);
+    }
+
+    return evictedServices;
+  }
+
+
+  /*
+   * Removes all services, which are not counted as evictions, and returns
+   * those which are not leased, to be destroyed by the caller without
+   * holding the cache's lock.
+   */
+  private List<JNICoordinateConversionService> removeAll()
+  {
+    int evictions = entries.size();
+    List<JNICoordinateConversionService> evictedServices = evict(0);
+    numEvictions -= evictions;
+
+    return evictedServices;
+  }
+
+
+  private static void destroy(List<JNICoordinateConversionService> services)
+  {
+    for (int i = 0; i < services.size(); i++)
+      services.get(i).destroy();
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
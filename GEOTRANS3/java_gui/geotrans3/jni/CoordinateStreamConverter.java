@@ -0,0 +1,435 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * CoordinateStreamConverter.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.jni;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import geotrans3.enumerations.CoordinateType;
+import geotrans3.exception.CoordinateConversionException;
+import geotrans3.parameters.CoordinateSystemParameters;
+
+
+/**
+ * Converts delimited coordinate records read from a stream and writes the
+ * converted records to another stream, without staging files on disk.
+ *
+ * Each input line holds one point: latitude, longitude and optional height
+ * in decimal degrees and meters for geodetic coordinates, x, y, z for
+ * geocentric and local cartesian coordinates, or easting, northing for map
+ * projection coordinates.  Fields after the coordinates are copied to the
+ * output record unchanged.  Blank lines and lines starting with '#' are
+ * copied through.  A record which cannot be read or converted is written
+ * as "# Error: " followed by the input line.
+ *
+ * Records are converted in batches with one native call per batch, and
+ * each batch is written and flushed before the next is read, so memory use
+ * is bounded by the batch size whatever the length of the stream.
+ */
+public class CoordinateStreamConverter extends Object
+{
+  private static final String ERROR_PREFIX = "# Error: ";
+
+  private JNICoordinateConversionService coordinateConversionService;
+  private int sourceType;
+  private int targetType;
+  private int sourceDimension;
+  private int targetDimension;
+  private int stride;
+
+  private char delimiter = ',';
+  private boolean latitudeLongitudeOrder = true;
+  private int angularDecimalPlaces = 9;
+  private int linearDecimalPlaces = 3;
+  private int batchSize = 4096;
+
+  private long numProcessed;
+  private long numWarnings;
+  private long numErrors;
+
+  // One batch: each entry is either a point or a line copied through
+  private double[] coordinates;
+  private int[] status;
+  private String[] lines;
+  private String[] trailers;
+  private int[] pointIndex;
+  private int numEntries;
+  private int numPoints;
+  private StringBuilder record = new StringBuilder(128);
+
+
+  /**
+   * Creates a converter between two coordinate systems.  Only geodetic,
+   * geocentric, local cartesian and map projection coordinates, which are
+   * converted as numbers, are supported.
+   */
+  public CoordinateStreamConverter(String sourceDatumCode, CoordinateSystemParameters sourceParameters, String targetDatumCode, CoordinateSystemParameters targetParameters) throws Exception
+  {
+    sourceType = sourceParameters.getCoordinateType();
+    targetType = targetParameters.getCoordinateType();
+    sourceDimension = dimension(sourceType);
+    targetDimension = dimension(targetType);
+    stride = Math.max(sourceDimension, targetDimension);
+
+    coordinateConversionService = new JNICoordinateConversionService(sourceDatumCode, sourceParameters, targetDatumCode, targetParameters);
+
+    // An empty conversion checks that both coordinate systems are numeric
+    try
+    {
+      coordinateConversionService.convertSourceToTarget(new double[stride], new double[stride], 0, stride, new int[0]);
+    }
+    catch(CoordinateConversionException e)
+    {
+      coordinateConversionService.destroy();
+      coordinateConversionService = null;
+      throw e;
+    }
+
+    allocateBatch();
+  }
+
+
+  public synchronized void destroy()
+  {
+    if (coordinateConversionService != null)
+    {
+      coordinateConversionService.destroy();
+      coordinateConversionService = null;
+    }
+  }
+
+
+  /** Sets the field delimiter, ',' by default */
+  public synchronized void setDelimiter(char _delimiter)
+  {
+    delimiter = _delimiter;
+  }
+
+
+  /**
+   * Sets the order of geodetic coordinates in input and output records,
+   * latitude first (the default) or longitude first.
+   */
+  public synchronized void setGeodeticCoordinateOrder(boolean _latitudeLongitudeOrder)
+  {
+    latitudeLongitudeOrder = _latitudeLongitudeOrder;
+  }
+
+
+  /**
+   * Sets the number of decimal places written for angles in degrees and
+   * for lengths in meters.
+   */
+  public synchronized void setDecimalPlaces(int angular, int linear) throws CoordinateConversionException
+  {
+    if (angular < 0 || angular > 15 || linear < 0 || linear > 15)
+    {
+        throw new CoordinateConversionException("setDecimalPlaces called with invalid number of decimal places");
+    }
+
+    angularDecimalPlaces = angular;
+    linearDecimalPlaces = linear;
+  }
+
+
+  /** Sets the number of records converted with each native call */
+  public synchronized void setBatchSize(int _batchSize) throws CoordinateConversionException
+  {
+    if (_batchSize < 1)
+    {
+        throw new CoordinateConversionException("setBatchSize called with invalid batch size");
+    }
+
+    batchSize = _batchSize;
+    allocateBatch();
+  }
+
+
+  public synchronized long getNumProcessed()
+  {
+    return numProcessed;
+  }
+
+
+  public synchronized long getNumWarnings()
+  {
+    return numWarnings;
+  }
+
+
+  public synchronized long getNumErrors()
+  {
+    return numErrors;
+  }
+
+
+  /**
+   * Converts every record of in and writes the results to out.  Neither
+   * stream is closed.
+   *
+   * @return    number of records converted
+   */
+  public synchronized long convert(Reader in, Writer out) throws IOException, CoordinateConversionException
+  {
+    if (coordinateConversionService == null)
+    {
+        throw new CoordinateConversionException("convert called with null object");
+    }
+
+    BufferedReader reader = (in instanceof BufferedReader) ? (BufferedReader)in : new BufferedReader(in, 64 * 1024);
+    long processedBefore = numProcessed;
+
+    numEntries = 0;
+    numPoints = 0;
+
+    String line;
+    while ((line = reader.readLine()) != null)
+    {
+      addLine(line);
+
+      if (numEntries == batchSize)
+        flush(out);
+    }
+
+    flush(out);
+
+    return numProcessed - processedBefore;
+  }
+
+
+  /**
+   * Converts records read from in, using the given character set, and
+   * writes the results to out.  Neither stream is closed.
+   */
+  public long convert(InputStream in, OutputStream out, Charset charset) throws IOException, CoordinateConversionException
+  {
+    Writer writer = new OutputStreamWriter(out, charset);
+    long count = convert(new InputStreamReader(in, charset), writer);
+    writer.flush();
+    return count;
+  }
+
+
+  public long convert(InputStream in, OutputStream out) throws IOException, CoordinateConversionException
+  {
+    return convert(in, out, Charset.forName("UTF-8"));
+  }
+
+
+  private static int dimension(int coordinateType)
+  {
+    switch (coordinateType)
+    {
+      case CoordinateType.GEODETIC:
+      case CoordinateType.GEOCENTRIC:
+      case CoordinateType.LOCCART:
+        return 3;
+      default:
+        return 2;
+    }
+  }
+
+
+  private void allocateBatch()
+  {
+    coordinates = new double[batchSize * stride];
+    status = new int[batchSize];
+    lines = new String[batchSize];
+    trailers = new String[batchSize];
+    pointIndex = new int[batchSize];
+  }
+
+
+  /*
+   * Adds a line to the batch, as a point if it holds a readable record,
+   * otherwise as a line to be copied through or reported.
+   */
+  private void addLine(String line)
+  {
+    int entry = numEntries++;
+    lines[entry] = line;
+    trailers[entry] = null;
+    pointIndex[entry] = -1;
+
+    String trimmed = line.trim();
+    if (trimmed.length() == 0 || trimmed.charAt(0) == '#')
+      return;
+
+    numProcessed++;
+
+    int offset = numPoints * stride;
+    int start = 0;
+    int field = 0;
+    try
+    {
+      while (field < sourceDimension && start <= line.length())
+      {
+        int end = line.indexOf(delimiter, start);
+        if (end < 0)
+          end = line.length();
+
+        String value = line.substring(start, end).trim();
+        start = end + 1;
+
+        // Geodetic height is optional
+        if (value.length() == 0 && sourceType == CoordinateType.GEODETIC && field == 2)
+          break;
+
+        coordinates[offset + field] = Double.parseDouble(value);
+        field++;
+      }
+    }
+    catch(NumberFormatException e)
+    {
+      numErrors++;
+      trailers[entry] = ERROR_PREFIX;
+      return;
+    }
+
+    if (field < sourceDimension)
+    {
+      if (sourceType == CoordinateType.GEODETIC && field == 2)
+        coordinates[offset + 2] = 0.0;
+      else
+      {
+        numErrors++;
+        trailers[entry] = ERROR_PREFIX;
+        return;
+      }
+    }
+
+    if (sourceType == CoordinateType.GEODETIC)
+    {
+      double first = Math.toRadians(coordinates[offset]);
+      double second = Math.toRadians(coordinates[offset + 1]);
+
+      // Native points are (longitude, latitude, height)
+      coordinates[offset] = latitudeLongitudeOrder ? second : first;
+      coordinates[offset + 1] = latitudeLongitudeOrder ? first : second;
+    }
+
+    trailers[entry] = (start <= line.length()) ? line.substring(start - 1) : "";
+    pointIndex[entry] = numPoints++;
+  }
+
+
+  /*
+   * Converts the points of the batch with one native call and writes the
+   * batch in its original order.
+   */
+  private void flush(Writer out) throws IOException, CoordinateConversionException
+  {
+    if (numPoints > 0)
+      coordinateConversionService.convertSourceToTarget(coordinates, coordinates, numPoints, stride, status);
+
+    for (int entry = 0; entry < numEntries; entry++)
+    {
+      int point = pointIndex[entry];
+      record.setLength(0);
+
+      if (point < 0)
+      {
+        if (trailers[entry] != null)
+          record.append(trailers[entry]);
+        record.append(lines[entry]);
+      }
+      else if (status[point] == JNICoordinateConversionService.CONVERT_ERROR)
+      {
+        numErrors++;
+        record.append(ERROR_PREFIX).append(lines[entry]);
+      }
+      else
+      {
+        if (status[point] == JNICoordinateConversionService.CONVERT_WARNING)
+          numWarnings++;
+        appendPoint(point * stride);
+        record.append(trailers[entry]);
+      }
+
+      record.append('\n');
+      out.append(record);
+
+      lines[entry] = null;
+      trailers[entry] = null;
+    }
+
+    out.flush();
+
+    numEntries = 0;
+    numPoints = 0;
+  }
+
+
+  private void appendPoint(int offset)
+  {
+    if (targetType == CoordinateType.GEODETIC)
+    {
+      double longitude = Math.toDegrees(coordinates[offset]);
+      double latitude = Math.toDegrees(coordinates[offset + 1]);
+
+      appendValue(latitudeLongitudeOrder ? latitude : longitude, angularDecimalPlaces);
+      record.append(delimiter);
+      appendValue(latitudeLongitudeOrder ? longitude : latitude, angularDecimalPlaces);
+      record.append(delimiter);
+      appendValue(coordinates[offset + 2], linearDecimalPlaces);
+    }
+    else
+    {
+      for (int i = 0; i < targetDimension; i++)
+      {
+        if (i > 0)
+          record.append(delimiter);
+        appendValue(coordinates[offset + i], linearDecimalPlaces);
+      }
+    }
+  }
+
+
+  /*
+   * Appends value rounded to the given number of decimal places, without
+   * an exponent.
+   */
+  private void appendValue(double value, int decimalPlaces)
+  {
+    long scale = 1;
+    for (int i = 0; i < decimalPlaces; i++)
+      scale *= 10;
+
+    double scaled = Math.abs(value) * scale;
+    if (Double.isNaN(value) || Double.isInfinite(value) || scaled >= 9.0e18)
+    {
+      record.append(value);
+      return;
+    }
+
+    long units = Math.round(scaled);
+    long whole = units / scale;
+    long fraction = units % scale;
+    if (value < 0 && units != 0)
+      record.append('-');
+    record.append(whole);
+
+    if (decimalPlaces > 0)
+    {
+      record.append('.');
+      int start = record.length();
+      record.append(fraction);
+      while (record.length() - start < decimalPlaces)
+        record.insert(start, '0');
+    }
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,28 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * FileConversionListener.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.jni;
+
+
+import geotrans3.exception.CoordinateConversionException;
+
+
+/**
+ * Notified when a conversion started with JNIFiomeths.startConvertFile()
+ * finishes.  The notification is made on the conversion thread.
+ */
+public interface FileConversionListener
+{
+  /**
+   * @param exception   null if the file was converted, otherwise the error
+   *                    which stopped the conversion (including cancellation)
+   */
+  public void conversionFinished(CoordinateConversionException exception);
+}
+
+// CLASSIFICATION: UNCLASSIFIED
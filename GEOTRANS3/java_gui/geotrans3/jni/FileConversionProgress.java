@@ -0,0 +1,102 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * FileConversionProgress.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.jni;
+
+
+/**
+ * Snapshot of the progress of a file conversion, as returned by
+ * JNIFiomeths.getProgress().
+ */
+public class FileConversionProgress extends Object
+{
+  private long fileSize;
+  private long bytesRead;
+  private long numConverted;
+  private double elapsedTime;
+  private boolean finished;
+
+
+  public FileConversionProgress(long _fileSize, long _bytesRead, long _numConverted, double _elapsedTime, boolean _finished)
+  {
+    fileSize = _fileSize;
+    bytesRead = _bytesRead;
+    numConverted = _numConverted;
+    elapsedTime = _elapsedTime;
+    finished = _finished;
+  }
+
+
+  /** Size of the input file in bytes */
+  public long getFileSize()
+  {
+    return fileSize;
+  }
+
+
+  /** Number of bytes of the input file read so far */
+  public long getBytesRead()
+  {
+    return bytesRead;
+  }
+
+
+  /** Number of coordinates converted and written so far */
+  public long getNumConverted()
+  {
+    return numConverted;
+  }
+
+
+  /** Seconds since the conversion started */
+  public double getElapsedTime()
+  {
+    return elapsedTime;
+  }
+
+
+  public boolean isFinished()
+  {
+    return finished;
+  }
+
+
+  /** Fraction of the input file read, from 0 to 1 */
+  public double getFractionComplete()
+  {
+    if(finished)
+      return 1.0;
+    if(fileSize <= 0)
+      return 0.0;
+    return Math.min(1.0, (double)bytesRead / fileSize);
+  }
+
+
+  public double getPointsPerSecond()
+  {
+    if(elapsedTime <= 0)
+      return 0.0;
+    return numConverted / elapsedTime;
+  }
+
+
+  /**
+   * Estimated seconds until the conversion finishes, from the rate at which
+   * the input file has been read so far, or -1 if it cannot be estimated yet.
+   */
+  public double getEstimatedTimeRemaining()
+  {
+    if(finished)
+      return 0.0;
+    if(bytesRead <= 0 || fileSize <= 0 || elapsedTime <= 0)
+      return -1.0;
+    return elapsedTime * (fileSize - bytesRead) / bytesRead;
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
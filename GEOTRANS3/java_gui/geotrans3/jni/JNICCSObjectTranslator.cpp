@@ -30,6 +30,7 @@
 #include "UTMCoordinates.h"
 #include "CoordinateSystemParameters.h"
 #include "ThrowException.h"
+#include "JNIRegistry.h"
 
 
 using namespace MSP::CCS;
@@ -41,13 +42,11 @@ extern "C" {
 
 CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject parameters )
 {
-    jclass geodeticParametersClazz = env->FindClass( "geotrans3/parameters/GeodeticParameters" );
+    jclass geodeticParametersClazz = jniClass( JNIClass::geodeticParameters );
 
     if( env->IsInstanceOf( parameters, geodeticParametersClazz ) )
     {
-      jclass clazz = env->GetObjectClass( parameters );
-
-      jfieldID fid = env->GetFieldID( clazz, "heightType", "I");
+      jfieldID fid = jniFieldID( JNIField::geodeticParametersHeightType );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Height type field ID error." );
@@ -58,14 +57,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
     }
     else
     {
-      jclass equidistantCylindricalParametersClazz = env->FindClass( "geotrans3/parameters/EquidistantCylindricalParameters" );
+      jclass equidistantCylindricalParametersClazz = jniClass( JNIClass::equidistantCylindricalParameters );
 
       if( env->IsInstanceOf( parameters, equidistantCylindricalParametersClazz ) )
       {
-        jclass clazz = env->GetObjectClass( parameters );
-
         // Central Meridian
-        jfieldID fid = env->GetFieldID( clazz, "centralMeridian", "D");
+        jfieldID fid = jniFieldID( JNIField::equidistantCylindricalParametersCentralMeridian );
         if (fid == NULL)
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: centralMeridian field ID error." );
@@ -74,7 +71,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
         double centralMeridian = env->GetDoubleField( parameters, fid );
 
         // Standard Parallel
-        fid = env->GetFieldID( clazz, "standardParallel", "D");
+        fid = jniFieldID( JNIField::equidistantCylindricalParametersStandardParallel );
         if (fid == NULL)
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: standardParallel field ID error." );
@@ -83,7 +80,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
         double standardParallel = env->GetDoubleField( parameters, fid );
 
         // False Easting
-        fid = env->GetFieldID( clazz, "falseEasting", "D");
+        fid = jniFieldID( JNIField::equidistantCylindricalParametersFalseEasting );
         if (fid == NULL)
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseEasting field ID error." );
@@ -92,7 +89,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
         double falseEasting = env->GetDoubleField( parameters, fid );
 
         // False Northing
-        fid = env->GetFieldID( clazz, "falseNorthing", "D");
+        fid = jniFieldID( JNIField::equidistantCylindricalParametersFalseNorthing );
         if (fid == NULL)
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseNorthing field ID error." );
@@ -104,14 +101,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
       }
       else
       {
-        jclass localCartesianParametersClazz = env->FindClass( "geotrans3/parameters/LocalCartesianParameters" );
+        jclass localCartesianParametersClazz = jniClass( JNIClass::localCartesianParameters );
 
         if( env->IsInstanceOf( parameters, localCartesianParametersClazz ) )
         {
-          jclass clazz = env->GetObjectClass( parameters );
-
 		  // Coordinate Type
-		  jfieldID fid = env->GetFieldID(clazz, "coordinateType", "I");
+		  jfieldID fid = jniFieldID( JNIField::localCartesianParametersCoordinateType );
 		  if (fid == NULL)
 		  {
 			  throwException(env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error.");
@@ -120,7 +115,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
 		  CoordinateType::Enum coordinateType = (CoordinateType::Enum)env->GetIntField(parameters, fid);
 
           // Longitude
-          fid = env->GetFieldID( clazz, "longitude", "D");
+          fid = jniFieldID( JNIField::localCartesianParametersLongitude );
           if (fid == NULL)
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: longitude field ID error." );
@@ -129,7 +124,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
           double longitude = env->GetDoubleField( parameters, fid );
 
           // Latitude
-          fid = env->GetFieldID( clazz, "latitude", "D");
+          fid = jniFieldID( JNIField::localCartesianParametersLatitude );
           if (fid == NULL)
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: latitude field ID error." );
@@ -138,7 +133,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
           double latitude = env->GetDoubleField( parameters, fid );
 
           // Height
-          fid = env->GetFieldID( clazz, "height", "D");
+          fid = jniFieldID( JNIField::localCartesianParametersHeight );
           if (fid == NULL)
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: height field ID error." );
@@ -147,7 +142,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
           double height = env->GetDoubleField( parameters, fid );
 
           // Orientation
-          fid = env->GetFieldID( clazz, "orientation", "D");
+          fid = jniFieldID( JNIField::localCartesianParametersOrientation );
           if (fid == NULL)
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: orientation field ID error." );
@@ -159,14 +154,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
         }
         else
         {
-          jclass mapProjection3ParametersClazz = env->FindClass( "geotrans3/parameters/MapProjection3Parameters" );
+          jclass mapProjection3ParametersClazz = jniClass( JNIClass::mapProjection3Parameters );
 
           if( env->IsInstanceOf( parameters, mapProjection3ParametersClazz ) )
           {
-            jclass clazz = env->GetObjectClass( parameters );
-
             // Coordinate Type
-            jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+            jfieldID fid = jniFieldID( JNIField::mapProjection3ParametersCoordinateType );
             if (fid == NULL)
             {
                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -175,7 +168,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
             CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( parameters, fid );
 
             // Central Meridian
-            fid = env->GetFieldID( clazz, "centralMeridian", "D");
+            fid = jniFieldID( JNIField::mapProjection3ParametersCentralMeridian );
             if (fid == NULL)
             {
                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: centralMeridian field ID error." );
@@ -184,7 +177,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
             double centralMeridian = env->GetDoubleField( parameters, fid );
 
             // False Easting
-            fid = env->GetFieldID( clazz, "falseEasting", "D");
+            fid = jniFieldID( JNIField::mapProjection3ParametersFalseEasting );
             if (fid == NULL)
             {
                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseEasting field ID error." );
@@ -193,7 +186,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
             double falseEasting = env->GetDoubleField( parameters, fid );
 
             // False Northing
-            fid = env->GetFieldID( clazz, "falseNorthing", "D");
+            fid = jniFieldID( JNIField::mapProjection3ParametersFalseNorthing );
             if (fid == NULL)
             {
                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseNorthing field ID error." );
@@ -205,14 +198,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
           }
           else
           {
-            jclass mapProjection4ParametersClazz = env->FindClass( "geotrans3/parameters/MapProjection4Parameters" );
+            jclass mapProjection4ParametersClazz = jniClass( JNIClass::mapProjection4Parameters );
 
             if( env->IsInstanceOf( parameters, mapProjection4ParametersClazz ) )
             {
-              jclass clazz = env->GetObjectClass( parameters );
-
               // Coordinate Type
-              jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+              jfieldID fid = jniFieldID( JNIField::mapProjection4ParametersCoordinateType );
               if (fid == NULL)
               {
                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -221,7 +212,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
               CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( parameters, fid );
 
               // Central Meridian
-              fid = env->GetFieldID( clazz, "centralMeridian", "D");
+              fid = jniFieldID( JNIField::mapProjection4ParametersCentralMeridian );
               if (fid == NULL)
               {
                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: centralMeridian field ID error." );
@@ -230,7 +221,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
               double centralMeridian = env->GetDoubleField( parameters, fid );
 
               // Origin Latitude
-              fid = env->GetFieldID( clazz, "originLatitude", "D");
+              fid = jniFieldID( JNIField::mapProjection4ParametersOriginLatitude );
               if (fid == NULL)
               {
                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: originLatitude field ID error." );
@@ -239,7 +230,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
               double originLatitude = env->GetDoubleField( parameters, fid );
 
               // False Easting
-              fid = env->GetFieldID( clazz, "falseEasting", "D");
+              fid = jniFieldID( JNIField::mapProjection4ParametersFalseEasting );
               if (fid == NULL)
               {
                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseEasting field ID error." );
@@ -248,7 +239,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
               double falseEasting = env->GetDoubleField( parameters, fid );
 
               // False Northing
-              fid = env->GetFieldID( clazz, "falseNorthing", "D");
+              fid = jniFieldID( JNIField::mapProjection4ParametersFalseNorthing );
               if (fid == NULL)
               {
                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseNorthing field ID error." );
@@ -260,14 +251,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
             }
             else
             {
-              jclass mapProjection5ParametersClazz = env->FindClass( "geotrans3/parameters/MapProjection5Parameters" );
+              jclass mapProjection5ParametersClazz = jniClass( JNIClass::mapProjection5Parameters );
 
               if( env->IsInstanceOf( parameters, mapProjection5ParametersClazz ) )
               {
-                jclass clazz = env->GetObjectClass( parameters );
-
                 // Coordinate Type
-                jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+                jfieldID fid = jniFieldID( JNIField::mapProjection5ParametersCoordinateType );
                 if (fid == NULL)
                 {
                     throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -276,7 +265,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                 CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( parameters, fid );
 
                 // Central Meridian
-                fid = env->GetFieldID( clazz, "centralMeridian", "D");
+                fid = jniFieldID( JNIField::mapProjection5ParametersCentralMeridian );
                 if (fid == NULL)
                 {
                     throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: centralMeridian field ID error." );
@@ -285,7 +274,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                 double centralMeridian = env->GetDoubleField( parameters, fid );
 
                 // Origin Latitude
-                fid = env->GetFieldID( clazz, "originLatitude", "D");
+                fid = jniFieldID( JNIField::mapProjection5ParametersOriginLatitude );
                 if (fid == NULL)
                 {
                     throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: originLatitude field ID error." );
@@ -294,7 +283,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                 double originLatitude = env->GetDoubleField( parameters, fid );
 
                 // Scale Factor
-                fid = env->GetFieldID( clazz, "scaleFactor", "D");
+                fid = jniFieldID( JNIField::mapProjection5ParametersScaleFactor );
                 if (fid == NULL)
                 {
                     throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: scaleFactor field ID error." );
@@ -303,7 +292,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                 double scaleFactor = env->GetDoubleField( parameters, fid );
 
                 // False Easting
-                fid = env->GetFieldID( clazz, "falseEasting", "D");
+                fid = jniFieldID( JNIField::mapProjection5ParametersFalseEasting );
                 if (fid == NULL)
                 {
                     throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseEasting field ID error." );
@@ -312,7 +301,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                 double falseEasting = env->GetDoubleField( parameters, fid );
 
                 // False Northing
-                fid = env->GetFieldID( clazz, "falseNorthing", "D");
+                fid = jniFieldID( JNIField::mapProjection5ParametersFalseNorthing );
                 if (fid == NULL)
                 {
                     throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseNorthing field ID error." );
@@ -324,14 +313,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
               }
               else
               {
-                jclass mapProjection6ParametersClazz = env->FindClass( "geotrans3/parameters/MapProjection6Parameters" );
+                jclass mapProjection6ParametersClazz = jniClass( JNIClass::mapProjection6Parameters );
 
                 if( env->IsInstanceOf( parameters, mapProjection6ParametersClazz ) )
                 {
-                  jclass clazz = env->GetObjectClass( parameters );
-
                   // Coordinate Type
-                  jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+                  jfieldID fid = jniFieldID( JNIField::mapProjection6ParametersCoordinateType );
                   if (fid == NULL)
                   {
                       throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -340,7 +327,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                   CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( parameters, fid );
 
                   // Central Meridian
-                  fid = env->GetFieldID( clazz, "centralMeridian", "D");
+                  fid = jniFieldID( JNIField::mapProjection6ParametersCentralMeridian );
                   if (fid == NULL)
                   {
                       throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: centralMeridian field ID error." );
@@ -349,7 +336,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                   double centralMeridian = env->GetDoubleField( parameters, fid );
 
                   // Origin Latitude
-                  fid = env->GetFieldID( clazz, "originLatitude", "D");
+                  fid = jniFieldID( JNIField::mapProjection6ParametersOriginLatitude );
                   if (fid == NULL)
                   {
                       throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: originLatitude field ID error." );
@@ -358,7 +345,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                   double originLatitude = env->GetDoubleField( parameters, fid );
 
                   // Standard Parallel 1
-                  fid = env->GetFieldID( clazz, "standardParallel1", "D");
+                  fid = jniFieldID( JNIField::mapProjection6ParametersStandardParallel1 );
                   if (fid == NULL)
                   {
                       throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: standardParallel1 field ID error." );
@@ -367,7 +354,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                   double standardParallel1 = env->GetDoubleField( parameters, fid );
 
                   // Standard Parallel 2
-                  fid = env->GetFieldID( clazz, "standardParallel2", "D");
+                  fid = jniFieldID( JNIField::mapProjection6ParametersStandardParallel2 );
                   if (fid == NULL)
                   {
                       throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: standardParallel2 field ID error." );
@@ -376,7 +363,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                   double standardParallel2 = env->GetDoubleField( parameters, fid );
 
                   // False Easting
-                  fid = env->GetFieldID( clazz, "falseEasting", "D");
+                  fid = jniFieldID( JNIField::mapProjection6ParametersFalseEasting );
                   if (fid == NULL)
                   {
                       throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseEasting field ID error." );
@@ -385,7 +372,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                   double falseEasting = env->GetDoubleField( parameters, fid );
 
                   // False Northing
-                  fid = env->GetFieldID( clazz, "falseNorthing", "D");
+                  fid = jniFieldID( JNIField::mapProjection6ParametersFalseNorthing );
                   if (fid == NULL)
                   {
                       throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseNorthing field ID error." );
@@ -397,14 +384,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                 }
                 else
                 {
-                  jclass mercatorStandardParallelParametersClazz = env->FindClass( "geotrans3/parameters/MercatorStandardParallelParameters" );
+                  jclass mercatorStandardParallelParametersClazz = jniClass( JNIClass::mercatorStandardParallelParameters );
 
                   if( env->IsInstanceOf( parameters, mercatorStandardParallelParametersClazz ) )
                   {
-                    jclass clazz = env->GetObjectClass( parameters );
-
                     // Coordinate Type
-                    jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+                    jfieldID fid = jniFieldID( JNIField::mercatorStandardParallelParametersCoordinateType );
                     if (fid == NULL)
                     {
                         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -413,7 +398,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                     CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( parameters, fid );
 
                     // Central Meridian
-                    fid = env->GetFieldID( clazz, "centralMeridian", "D");
+                    fid = jniFieldID( JNIField::mercatorStandardParallelParametersCentralMeridian );
                     if (fid == NULL)
                     {
                         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: centralMeridian field ID error." );
@@ -422,7 +407,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                     double centralMeridian = env->GetDoubleField( parameters, fid );
 
                     // Latitude Of True Scale
-                    fid = env->GetFieldID( clazz, "standardParallel", "D");
+                    fid = jniFieldID( JNIField::mercatorStandardParallelParametersStandardParallel );
                     if (fid == NULL)
                     {
                         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: standardParallel field ID error." );
@@ -431,7 +416,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                     double standardParallel = env->GetDoubleField( parameters, fid );
 
                     // Scale Factor
-                    fid = env->GetFieldID( clazz, "scaleFactor", "D");
+                    fid = jniFieldID( JNIField::mercatorStandardParallelParametersScaleFactor );
                     if (fid == NULL)
                     {
                         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: scaleFactor field ID error." );
@@ -440,7 +425,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                     double scaleFactor = env->GetDoubleField( parameters, fid );
 
                     // False Easting
-                    fid = env->GetFieldID( clazz, "falseEasting", "D");
+                    fid = jniFieldID( JNIField::mercatorStandardParallelParametersFalseEasting );
                     if (fid == NULL)
                     {
                         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseEasting field ID error." );
@@ -449,7 +434,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                     double falseEasting = env->GetDoubleField( parameters, fid );
 
                     // False Northing
-                    fid = env->GetFieldID( clazz, "falseNorthing", "D");
+                    fid = jniFieldID( JNIField::mercatorStandardParallelParametersFalseNorthing );
                     if (fid == NULL)
                     {
                         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseNorthing field ID error." );
@@ -461,14 +446,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                   }
                   else
                   {
-                    jclass mercatorScaleFactorParametersClazz = env->FindClass( "geotrans3/parameters/MercatorScaleFactorParameters" );
+                    jclass mercatorScaleFactorParametersClazz = jniClass( JNIClass::mercatorScaleFactorParameters );
 
                     if( env->IsInstanceOf( parameters, mercatorScaleFactorParametersClazz ) )
                     {
-                      jclass clazz = env->GetObjectClass( parameters );
-
                       // Coordinate Type
-                      jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+                      jfieldID fid = jniFieldID( JNIField::mercatorScaleFactorParametersCoordinateType );
                       if (fid == NULL)
                       {
                           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -477,7 +460,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                       CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( parameters, fid );
 
                       // Central Meridian
-                      fid = env->GetFieldID( clazz, "centralMeridian", "D");
+                      fid = jniFieldID( JNIField::mercatorScaleFactorParametersCentralMeridian );
                       if (fid == NULL)
                       {
                           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: centralMeridian field ID error." );
@@ -486,7 +469,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                       double centralMeridian = env->GetDoubleField( parameters, fid );
 
                       // Scale Factor
-                      fid = env->GetFieldID( clazz, "scaleFactor", "D");
+                      fid = jniFieldID( JNIField::mercatorScaleFactorParametersScaleFactor );
                       if (fid == NULL)
                       {
                           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: scaleFactor field ID error." );
@@ -495,7 +478,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                       double scaleFactor = env->GetDoubleField( parameters, fid );
 
                       // False Easting
-                      fid = env->GetFieldID( clazz, "falseEasting", "D");
+                      fid = jniFieldID( JNIField::mercatorScaleFactorParametersFalseEasting );
                       if (fid == NULL)
                       {
                           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseEasting field ID error." );
@@ -504,7 +487,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                       double falseEasting = env->GetDoubleField( parameters, fid );
 
                       // False Northing
-                      fid = env->GetFieldID( clazz, "falseNorthing", "D");
+                      fid = jniFieldID( JNIField::mercatorScaleFactorParametersFalseNorthing );
                       if (fid == NULL)
                       {
                           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseNorthing field ID error." );
@@ -516,14 +499,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                     }
                     else
                     {
-                      jclass neysParametersClazz = env->FindClass( "geotrans3/parameters/NeysParameters" );
+                      jclass neysParametersClazz = jniClass( JNIClass::neysParameters );
 
                       if( env->IsInstanceOf( parameters, neysParametersClazz ) )
                       {
-                        jclass clazz = env->GetObjectClass( parameters );
-
                         // Coordinate Type
-                        jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+                        jfieldID fid = jniFieldID( JNIField::neysParametersCoordinateType );
                         if (fid == NULL)
                         {
                             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -532,7 +513,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                         CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( parameters, fid );
 
                         // Central Meridian
-                        fid = env->GetFieldID( clazz, "centralMeridian", "D");
+                        fid = jniFieldID( JNIField::neysParametersCentralMeridian );
                         if (fid == NULL)
                         {
                             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: centralMeridian field ID error." );
@@ -541,7 +522,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                         double centralMeridian = env->GetDoubleField( parameters, fid );
 
                         // Origin Latitude
-                        fid = env->GetFieldID( clazz, "originLatitude", "D");
+                        fid = jniFieldID( JNIField::neysParametersOriginLatitude );
                         if (fid == NULL)
                         {
                             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: originLatitude field ID error." );
@@ -550,7 +531,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                         double originLatitude = env->GetDoubleField( parameters, fid );
 
                         // Standard Parallel 1
-                        fid = env->GetFieldID( clazz, "standardParallel1", "D");
+                        fid = jniFieldID( JNIField::neysParametersStandardParallel1 );
                         if (fid == NULL)
                         {
                             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: standardParallel1 field ID error." );
@@ -559,7 +540,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                         double standardParallel1 = env->GetDoubleField( parameters, fid );
 
                         // False Easting
-                        fid = env->GetFieldID( clazz, "falseEasting", "D");
+                        fid = jniFieldID( JNIField::neysParametersFalseEasting );
                         if (fid == NULL)
                         {
                             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseEasting field ID error." );
@@ -568,7 +549,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                         double falseEasting = env->GetDoubleField( parameters, fid );
 
                         // False Northing
-                        fid = env->GetFieldID( clazz, "falseNorthing", "D");
+                        fid = jniFieldID( JNIField::neysParametersFalseNorthing );
                         if (fid == NULL)
                         {
                             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseNorthing field ID error." );
@@ -580,14 +561,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                       }
                       else
                       {
-                        jclass obliqueMercatorParametersClazz = env->FindClass( "geotrans3/parameters/ObliqueMercatorParameters" );
+                        jclass obliqueMercatorParametersClazz = jniClass( JNIClass::obliqueMercatorParameters );
 
                         if( env->IsInstanceOf( parameters, obliqueMercatorParametersClazz ) )
                         {
-                          jclass clazz = env->GetObjectClass( parameters );
-
                           // Coordinate Type
-                          jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+                          jfieldID fid = jniFieldID( JNIField::obliqueMercatorParametersCoordinateType );
                           if (fid == NULL)
                           {
                               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -596,7 +575,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                           CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( parameters, fid );
 
                           // Origin Latitude
-                          fid = env->GetFieldID( clazz, "originLatitude", "D");
+                          fid = jniFieldID( JNIField::obliqueMercatorParametersOriginLatitude );
                           if (fid == NULL)
                           {
                               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: originLatitude field ID error." );
@@ -605,7 +584,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                           double originLatitude = env->GetDoubleField( parameters, fid );
 
                           // Longitude 1
-                          fid = env->GetFieldID( clazz, "longitude1", "D");
+                          fid = jniFieldID( JNIField::obliqueMercatorParametersLongitude1 );
                           if (fid == NULL)
                           {
                               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: longitude1 field ID error." );
@@ -614,7 +593,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                           double longitude1 = env->GetDoubleField( parameters, fid );
 
                           // Latitude 1
-                          fid = env->GetFieldID( clazz, "latitude1", "D");
+                          fid = jniFieldID( JNIField::obliqueMercatorParametersLatitude1 );
                           if (fid == NULL)
                           {
                               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: latitude1 field ID error." );
@@ -623,7 +602,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                           double latitude1 = env->GetDoubleField( parameters, fid );
 
                           // Longitude 2
-                          fid = env->GetFieldID( clazz, "longitude2", "D");
+                          fid = jniFieldID( JNIField::obliqueMercatorParametersLongitude2 );
                           if (fid == NULL)
                           {
                               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: longitude2 field ID error." );
@@ -632,7 +611,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                           double longitude2 = env->GetDoubleField( parameters, fid );
 
                           // Latitude 2
-                          fid = env->GetFieldID( clazz, "latitude2", "D");
+                          fid = jniFieldID( JNIField::obliqueMercatorParametersLatitude2 );
                           if (fid == NULL)
                           {
                               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: latitude2 field ID error." );
@@ -641,7 +620,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                           double latitude2 = env->GetDoubleField( parameters, fid );
 
                           // False Easting
-                          fid = env->GetFieldID( clazz, "falseEasting", "D");
+                          fid = jniFieldID( JNIField::obliqueMercatorParametersFalseEasting );
                           if (fid == NULL)
                           {
                               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseEasting field ID error." );
@@ -650,7 +629,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                           double falseEasting = env->GetDoubleField( parameters, fid );
 
                           // False Northing
-                          fid = env->GetFieldID( clazz, "falseNorthing", "D");
+                          fid = jniFieldID( JNIField::obliqueMercatorParametersFalseNorthing );
                           if (fid == NULL)
                           {
                               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseNorthing field ID error." );
@@ -659,7 +638,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                           double falseNorthing = env->GetDoubleField( parameters, fid );
 
                           // Scale Factor
-                          fid = env->GetFieldID( clazz, "scaleFactor", "D");
+                          fid = jniFieldID( JNIField::obliqueMercatorParametersScaleFactor );
                           if (fid == NULL)
                           {
                               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: scaleFactor field ID error." );
@@ -671,14 +650,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                         }
                         else
                         {
-                          jclass polarStereographicStandardParallelParametersClazz = env->FindClass( "geotrans3/parameters/PolarStereographicStandardParallelParameters" );
+                          jclass polarStereographicStandardParallelParametersClazz = jniClass( JNIClass::polarStereographicStandardParallelParameters );
 
                           if( env->IsInstanceOf( parameters, polarStereographicStandardParallelParametersClazz ) )
                           {
-                            jclass clazz = env->GetObjectClass( parameters );
-
                             // Coordinate Type
-                            jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+                            jfieldID fid = jniFieldID( JNIField::polarStereographicStandardParallelParametersCoordinateType );
                             if (fid == NULL)
                             {
                                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -687,7 +664,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                             CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( parameters, fid );
 
                             // Central Meridian
-                            fid = env->GetFieldID( clazz, "centralMeridian", "D");
+                            fid = jniFieldID( JNIField::polarStereographicStandardParallelParametersCentralMeridian );
                             if (fid == NULL)
                             {
                                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: centralMeridian field ID error." );
@@ -696,7 +673,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                             double centralMeridian = env->GetDoubleField( parameters, fid );
 
                             // Standard Parallel
-                            fid = env->GetFieldID( clazz, "standardParallel", "D");
+                            fid = jniFieldID( JNIField::polarStereographicStandardParallelParametersStandardParallel );
                             if (fid == NULL)
                             {
                                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: standardParallel field ID error." );
@@ -705,7 +682,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                             double standardParallel = env->GetDoubleField( parameters, fid );
 
                             // False Easting
-                            fid = env->GetFieldID( clazz, "falseEasting", "D");
+                            fid = jniFieldID( JNIField::polarStereographicStandardParallelParametersFalseEasting );
                             if (fid == NULL)
                             {
                                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseEasting field ID error." );
@@ -714,7 +691,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                             double falseEasting = env->GetDoubleField( parameters, fid );
 
                             // False Northing
-                            fid = env->GetFieldID( clazz, "falseNorthing", "D");
+                            fid = jniFieldID( JNIField::polarStereographicStandardParallelParametersFalseNorthing );
                             if (fid == NULL)
                             {
                                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseNorthing field ID error." );
@@ -726,14 +703,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                           }
                           else
                           {
-                            jclass polarStereographicScaleFactorParametersClazz = env->FindClass( "geotrans3/parameters/PolarStereographicScaleFactorParameters" );
+                            jclass polarStereographicScaleFactorParametersClazz = jniClass( JNIClass::polarStereographicScaleFactorParameters );
 
                             if( env->IsInstanceOf( parameters, polarStereographicScaleFactorParametersClazz ) )
                             {
-                              jclass clazz = env->GetObjectClass( parameters );
-
                               // Coordinate Type
-                              jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+                              jfieldID fid = jniFieldID( JNIField::polarStereographicScaleFactorParametersCoordinateType );
                               if (fid == NULL)
                               {
                                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -742,7 +717,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                               CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( parameters, fid );
 
                               // Central Meridian
-                              fid = env->GetFieldID( clazz, "centralMeridian", "D");
+                              fid = jniFieldID( JNIField::polarStereographicScaleFactorParametersCentralMeridian );
                               if (fid == NULL)
                               {
                                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: centralMeridian field ID error." );
@@ -751,7 +726,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                               double centralMeridian = env->GetDoubleField( parameters, fid );
 
                               // Scale Factor
-                              fid = env->GetFieldID( clazz, "scaleFactor", "D");
+                              fid = jniFieldID( JNIField::polarStereographicScaleFactorParametersScaleFactor );
                               if (fid == NULL)
                               {
                                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: scaleFactor field ID error." );
@@ -760,7 +735,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                               double scaleFactor = env->GetDoubleField( parameters, fid );
 
                               // Hemisphere
-                              fid = env->GetFieldID( clazz, "hemisphere", "C");
+                              fid = jniFieldID( JNIField::polarStereographicScaleFactorParametersHemisphere );
                               if (fid == NULL)
                               {
                                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: hemisphere field ID error." );
@@ -769,7 +744,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                               char hemisphere = (char)env->GetCharField( parameters, fid );
 
                               // False Easting
-                              fid = env->GetFieldID( clazz, "falseEasting", "D");
+                              fid = jniFieldID( JNIField::polarStereographicScaleFactorParametersFalseEasting );
                               if (fid == NULL)
                               {
                                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseEasting field ID error." );
@@ -778,7 +753,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                               double falseEasting = env->GetDoubleField( parameters, fid );
 
                               // False Northing
-                              fid = env->GetFieldID( clazz, "falseNorthing", "D");
+                              fid = jniFieldID( JNIField::polarStereographicScaleFactorParametersFalseNorthing );
                               if (fid == NULL)
                               {
                                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: falseNorthing field ID error." );
@@ -790,14 +765,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                             }
                             else
                             {
-                              jclass utmParametersClazz = env->FindClass( "geotrans3/parameters/UTMParameters" );
+                              jclass utmParametersClazz = jniClass( JNIClass::utmParameters );
 
                               if( env->IsInstanceOf( parameters, utmParametersClazz ) )
                               {
-                                jclass clazz = env->GetObjectClass( parameters );
-
                                 // Coordinate Type
-                                jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+                                jfieldID fid = jniFieldID( JNIField::utmParametersCoordinateType );
                                 if (fid == NULL)
                                 {
                                     throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -806,7 +779,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                                 CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( parameters, fid );
 
                                 // Zone
-                                fid = env->GetFieldID( clazz, "zone", "J");
+                                fid = jniFieldID( JNIField::utmParametersZone );
                                 if (fid == NULL)
                                 {
                                     throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: zone field ID error." );
@@ -815,7 +788,7 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                                 long zone = env->GetLongField( parameters, fid );
 
                                 // Override
-                                fid = env->GetFieldID( clazz, "override", "J");
+                                fid = jniFieldID( JNIField::utmParametersOverride );
                                 if (fid == NULL)
                                 {
                                     throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: override field ID error." );
@@ -827,10 +800,8 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
                               }
                               else
                               {
-                                jclass clazz = env->GetObjectClass( parameters );
-
                                 // Coordinate Type
-                                jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+                                jfieldID fid = jniFieldID( JNIField::coordinateSystemParametersCoordinateType );
                                 if (fid == NULL)
                                 {
                                     throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -857,14 +828,12 @@ CoordinateSystemParameters* translateFromJNIParameters( JNIEnv *env, jobject par
 
 CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
 {
-  jclass geodeticCoordinatesClazz = env->FindClass( "geotrans3/coordinates/GeodeticCoordinates" );
+  jclass geodeticCoordinatesClazz = jniClass( JNIClass::geodeticCoordinates );
 
   if( env->IsInstanceOf( coordinates, geodeticCoordinatesClazz ) )
   { 
-    jclass clazz = env->GetObjectClass( coordinates );
-
     // Longitude
-    jfieldID fid = env->GetFieldID( clazz, "longitude", "D");
+    jfieldID fid = jniFieldID( JNIField::geodeticCoordinatesLongitude );
     if (fid == NULL)
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Longitude field ID error." );
@@ -873,7 +842,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
     double longitude = env->GetDoubleField( coordinates, fid );
 
     // Latitude
-    fid = env->GetFieldID( clazz, "latitude", "D");
+    fid = jniFieldID( JNIField::geodeticCoordinatesLatitude );
     if (fid == NULL)
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Latitude field ID error." );
@@ -882,7 +851,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
     double latitude = env->GetDoubleField( coordinates, fid );
 
     // Height
-    fid = env->GetFieldID( clazz, "height", "D");
+    fid = jniFieldID( JNIField::geodeticCoordinatesHeight );
     if (fid == NULL)
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Height field ID error." );
@@ -894,15 +863,13 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
   }
   else
   {
-    jclass cartesianCoordinatesClazz = env->FindClass( "geotrans3/coordinates/CartesianCoordinates" );
-    jclass sphericalCoordinatesClazz = env->FindClass( "geotrans3/coordinates/SphericalCoordinates" );
+    jclass cartesianCoordinatesClazz = jniClass( JNIClass::cartesianCoordinates );
+    jclass sphericalCoordinatesClazz = jniClass( JNIClass::sphericalCoordinates );
 
     if( env->IsInstanceOf( coordinates, cartesianCoordinatesClazz ) )
     {
-      jclass clazz = env->GetObjectClass( coordinates );
-
       // Coordinate Type
-      jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+      jfieldID fid = jniFieldID( JNIField::cartesianCoordinatesCoordinateType );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -911,7 +878,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
       CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( coordinates, fid );
 
       // X
-      fid = env->GetFieldID( clazz, "x", "D");
+      fid = jniFieldID( JNIField::cartesianCoordinatesX );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: x field ID error." );
@@ -920,7 +887,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
       double x = env->GetDoubleField( coordinates, fid );
 
       // Y
-      fid = env->GetFieldID( clazz, "y", "D");
+      fid = jniFieldID( JNIField::cartesianCoordinatesY );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: y field ID error." );
@@ -929,7 +896,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
       double y = env->GetDoubleField( coordinates, fid );
 
       // Z
-      fid = env->GetFieldID( clazz, "z", "D");
+      fid = jniFieldID( JNIField::cartesianCoordinatesZ );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: z field ID error." );
@@ -941,10 +908,8 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
     }
     else if( env->IsInstanceOf( coordinates, sphericalCoordinatesClazz ) )
     {
-      jclass clazz = env->GetObjectClass( coordinates );
-
       // Coordinate Type
-      jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+      jfieldID fid = jniFieldID( JNIField::sphericalCoordinatesCoordinateType );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -953,7 +918,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
       CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( coordinates, fid );
 
       // azimuth
-      fid = env->GetFieldID( clazz, "azimuth", "D");
+      fid = jniFieldID( JNIField::sphericalCoordinatesAzimuth );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: azimuth field ID error." );
@@ -962,7 +927,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
       double azimuth = env->GetDoubleField( coordinates, fid );
 
       // elevationAngle
-      fid = env->GetFieldID( clazz, "elevAngle", "D");
+      fid = jniFieldID( JNIField::sphericalCoordinatesElevAngle );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: elevAngle field ID error." );
@@ -971,7 +936,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
       double elevAngle = env->GetDoubleField( coordinates, fid );
 
       // radius
-      fid = env->GetFieldID( clazz, "radius", "D");
+      fid = jniFieldID( JNIField::sphericalCoordinatesRadius );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: radius field ID error." );
@@ -983,14 +948,12 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
     }
     else
     {
-      jclass mapProjectionCoordinatesClazz = env->FindClass( "geotrans3/coordinates/MapProjectionCoordinates" );
+      jclass mapProjectionCoordinatesClazz = jniClass( JNIClass::mapProjectionCoordinates );
 
       if( env->IsInstanceOf( coordinates, mapProjectionCoordinatesClazz ) )
       {
-        jclass clazz = env->GetObjectClass( coordinates );
-
         // Coordinate Type
-        jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+        jfieldID fid = jniFieldID( JNIField::mapProjectionCoordinatesCoordinateType );
         if (fid == NULL)
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -999,7 +962,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
         CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( coordinates, fid );
         
         // Easting
-        fid = env->GetFieldID( clazz, "easting", "D");
+        fid = jniFieldID( JNIField::mapProjectionCoordinatesEasting );
         if (fid == NULL)
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: easting field ID error." );
@@ -1008,7 +971,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
         double easting = env->GetDoubleField( coordinates, fid );
 
         // Northing
-        fid = env->GetFieldID( clazz, "northing", "D");
+        fid = jniFieldID( JNIField::mapProjectionCoordinatesNorthing );
         if (fid == NULL)
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: northing field ID error." );
@@ -1020,14 +983,12 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
       }
       else
       {
-        jclass stringCoordinatesClazz = env->FindClass( "geotrans3/coordinates/StringCoordinates" );
+        jclass stringCoordinatesClazz = jniClass( JNIClass::stringCoordinates );
 
         if( env->IsInstanceOf( coordinates, stringCoordinatesClazz ) )
         {
-          jclass clazz = env->GetObjectClass( coordinates );
-
           // Coordinate Type
-          jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+          jfieldID fid = jniFieldID( JNIField::stringCoordinatesCoordinateType );
           if (fid == NULL)
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -1036,7 +997,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
           CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( coordinates, fid );
 
           // Coordinate String
-          fid = env->GetFieldID( clazz, "coordinateString", "Ljava/lang/String;");
+          fid = jniFieldID( JNIField::stringCoordinatesCoordinateString );
           if (fid == NULL)
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateString field ID error." );
@@ -1051,7 +1012,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
           }
 
           // Precision
-          fid = env->GetFieldID( clazz, "precision", "I");
+          fid = jniFieldID( JNIField::stringCoordinatesPrecision );
           if (fid == NULL)
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: precision field ID error." );
@@ -1090,14 +1051,12 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
         }
         else
         {
-          jclass upsCoordinatesClazz = env->FindClass( "geotrans3/coordinates/UPSCoordinates" );
+          jclass upsCoordinatesClazz = jniClass( JNIClass::upsCoordinates );
 
           if( env->IsInstanceOf( coordinates, upsCoordinatesClazz ) )
           {
-            jclass clazz = env->GetObjectClass( coordinates );
-
             // Coordinate Type
-            jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+            jfieldID fid = jniFieldID( JNIField::upsCoordinatesCoordinateType );
             if (fid == NULL)
             {
                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -1106,7 +1065,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
             CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( coordinates, fid );
 
             // Hemisphere
-            fid = env->GetFieldID( clazz, "hemisphere", "C");
+            fid = jniFieldID( JNIField::upsCoordinatesHemisphere );
             if (fid == NULL)
             {
                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: hemisphere field ID error." );
@@ -1115,7 +1074,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
             char hemisphere = (char)env->GetCharField( coordinates, fid );
 
             // Easting
-            fid = env->GetFieldID( clazz, "easting", "D");
+            fid = jniFieldID( JNIField::upsCoordinatesEasting );
             if (fid == NULL)
             {
                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: easting field ID error." );
@@ -1124,7 +1083,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
             double easting = env->GetDoubleField( coordinates, fid );
 
             // Northing
-            fid = env->GetFieldID( clazz, "northing", "D");
+            fid = jniFieldID( JNIField::upsCoordinatesNorthing );
             if (fid == NULL)
             {
                 throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: northing field ID error." );
@@ -1136,14 +1095,12 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
           }
           else
           {
-            jclass utmCoordinatesClazz = env->FindClass( "geotrans3/coordinates/UTMCoordinates" );
+            jclass utmCoordinatesClazz = jniClass( JNIClass::utmCoordinates );
 
             if( env->IsInstanceOf( coordinates, utmCoordinatesClazz ) )
             {
-              jclass clazz = env->GetObjectClass( coordinates );
-
               // Coordinate Type
-              jfieldID fid = env->GetFieldID( clazz, "coordinateType", "I");
+              jfieldID fid = jniFieldID( JNIField::utmCoordinatesCoordinateType );
               if (fid == NULL)
               {
                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: coordinateType field ID error." );
@@ -1152,7 +1109,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
               CoordinateType::Enum coordinateType = ( CoordinateType::Enum )env->GetIntField( coordinates, fid );
 
               // Zone
-              fid = env->GetFieldID( clazz, "zone", "J");
+              fid = jniFieldID( JNIField::utmCoordinatesZone );
               if (fid == NULL)
               {
                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: zone field ID error." );
@@ -1161,7 +1118,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
               long zone = env->GetLongField( coordinates, fid );
 
               // Hemisphere
-              fid = env->GetFieldID( clazz, "hemisphere", "C");
+              fid = jniFieldID( JNIField::utmCoordinatesHemisphere );
               if (fid == NULL)
               {
                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: hemisphere field ID error." );
@@ -1170,7 +1127,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
               char hemisphere = (char)env->GetCharField( coordinates, fid );
 
               // Easting
-              fid = env->GetFieldID( clazz, "easting", "D");
+              fid = jniFieldID( JNIField::utmCoordinatesEasting );
               if (fid == NULL)
               {
                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: easting field ID error." );
@@ -1179,7 +1136,7 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
               double easting = env->GetDoubleField( coordinates, fid );
 
               // Northing
-              fid = env->GetFieldID( clazz, "northing", "D");
+              fid = jniFieldID( JNIField::utmCoordinatesNorthing );
               if (fid == NULL)
               {
                   throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: northing field ID error." );
@@ -1201,10 +1158,8 @@ CoordinateTuple* translateFromJNICoordinates( JNIEnv *env, jobject coordinates )
 
 Accuracy* translateFromJNIAccuracy( JNIEnv *env, jobject _accuracy )
 {
-    jclass clazz = env->GetObjectClass( _accuracy );
-
     // CE90
-    jfieldID fid = env->GetFieldID( clazz, "ce90", "D" );
+    jfieldID fid = jniFieldID( JNIField::accuracyCe90 );
     if (fid == NULL)
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: CE90 field ID error." );
@@ -1213,7 +1168,7 @@ Accuracy* translateFromJNIAccuracy( JNIEnv *env, jobject _accuracy )
     double ce90 = env->GetDoubleField( _accuracy, fid );
 
     // LE90
-    fid = env->GetFieldID( clazz, "le90", "D" );
+    fid = jniFieldID( JNIField::accuracyLe90 );
     if (fid == NULL)
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: LE90 field ID error." );
@@ -1222,7 +1177,7 @@ Accuracy* translateFromJNIAccuracy( JNIEnv *env, jobject _accuracy )
     double le90 = env->GetDoubleField( _accuracy, fid );
 
     // SE90
-    fid = env->GetFieldID(  clazz, "se90", "D");
+    fid = jniFieldID( JNIField::accuracySe90 );
     if (fid == NULL)
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: SE90 field ID error." );
@@ -1236,14 +1191,14 @@ Accuracy* translateFromJNIAccuracy( JNIEnv *env, jobject _accuracy )
 
 jobject translateToJNIAccuracy( JNIEnv *env, Accuracy* _accuracy )
 {
-  jclass cls = env->FindClass( "geotrans3/coordinates/Accuracy" );
+  jclass cls = jniClass( JNIClass::accuracy );
   if( cls == NULL )
   {
       throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Accuracy class not found." );
       return NULL;
   }
 
-  jmethodID cid = env->GetMethodID( cls, "<init>", "(DDD)V" );
+  jmethodID cid = jniMethodID( JNIMethod::accuracyInit );
   if( cid == NULL )
   {
       throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Accuracy method id not found." );
@@ -1298,14 +1253,14 @@ jobject translateToJNICoordinates( JNIEnv *env, CoordinateTuple* coordinates )
         MapProjectionCoordinates _coordinates = ( *dynamic_cast< MapProjectionCoordinates* >( coordinates ) );
         jstring jWarningStr = env->NewStringUTF( _coordinates.warningMessage() );
 
-        cls = env->FindClass( "geotrans3/coordinates/MapProjectionCoordinates" );
+        cls = jniClass( JNIClass::mapProjectionCoordinates );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjectionCoordinates class not found." );
             return NULL;
         }
 
-        cid = env->GetMethodID( cls, "<init>", "(ILjava/lang/String;DD)V" );
+        cid = jniMethodID( JNIMethod::mapProjectionCoordinatesInit );
         if( cid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjectionCoordinates method id not found." );
@@ -1323,14 +1278,14 @@ jobject translateToJNICoordinates( JNIEnv *env, CoordinateTuple* coordinates )
         jstring jStr = env->NewStringUTF( _coordinates.BNGString() );
         jstring jWarningStr = env->NewStringUTF( _coordinates.warningMessage() );
 
-        cls = env->FindClass( "geotrans3/coordinates/BNGCoordinates" );
+        cls = jniClass( JNIClass::bngCoordinates );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: BNGCoordinates class not found." );
             return NULL;
         }
 
-        cid = env->GetMethodID( cls, "<init>", "(ILjava/lang/String;Ljava/lang/String;I)V" );
+        cid = jniMethodID( JNIMethod::bngCoordinatesInit );
         if( cid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: BNGCoordinates method id not found." );
@@ -1349,14 +1304,14 @@ jobject translateToJNICoordinates( JNIEnv *env, CoordinateTuple* coordinates )
         jstring jStr = env->NewStringUTF( _coordinates.GEOREFString() );
         jstring jWarningStr = env->NewStringUTF( _coordinates.warningMessage() );
 
-        cls = env->FindClass( "geotrans3/coordinates/GEOREFCoordinates" );
+        cls = jniClass( JNIClass::georefCoordinates );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: GEOREFCoordinates class not found." );
             return NULL;
         }
 
-        cid = env->GetMethodID( cls, "<init>", "(ILjava/lang/String;Ljava/lang/String;I)V" );
+        cid = jniMethodID( JNIMethod::georefCoordinatesInit );
         if( cid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: GEOREFCoordinates method id not found." );
@@ -1375,14 +1330,14 @@ jobject translateToJNICoordinates( JNIEnv *env, CoordinateTuple* coordinates )
         jstring jStr = env->NewStringUTF( _coordinates.GARSString() );
         jstring jWarningStr = env->NewStringUTF( _coordinates.warningMessage() );
 
-        cls = env->FindClass( "geotrans3/coordinates/GARSCoordinates" );
+        cls = jniClass( JNIClass::garsCoordinates );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: GARSCoordinates class not found." );
             return NULL;
         }
 
-        cid = env->GetMethodID( cls, "<init>", "(ILjava/lang/String;Ljava/lang/String;I)V" );
+        cid = jniMethodID( JNIMethod::garsCoordinatesInit );
         if( cid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: GARSCoordinates method id not found." );
@@ -1402,14 +1357,14 @@ jobject translateToJNICoordinates( JNIEnv *env, CoordinateTuple* coordinates )
         jstring jStr = env->NewStringUTF( _coordinates.MGRSString() );
         jstring jWarningStr = env->NewStringUTF( _coordinates.warningMessage() );
 
-        cls = env->FindClass( "geotrans3/coordinates/MGRSorUSNGCoordinates" );
+        cls = jniClass( JNIClass::mgrsOrUSNGCoordinates );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MGRSorUSNGCoordinates class not found." );
             return NULL;
         }
 
-        cid = env->GetMethodID( cls, "<init>", "(ILjava/lang/String;Ljava/lang/String;I)V" );
+        cid = jniMethodID( JNIMethod::mgrsOrUSNGCoordinatesInit );
         if( cid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MGRSorUSNGCoordinates method id not found." );
@@ -1428,14 +1383,14 @@ jobject translateToJNICoordinates( JNIEnv *env, CoordinateTuple* coordinates )
         CartesianCoordinates _coordinates = ( *dynamic_cast< CartesianCoordinates* >( coordinates ) );
         jstring jWarningStr = env->NewStringUTF( _coordinates.warningMessage() );
 
-        cls = env->FindClass( "geotrans3/coordinates/CartesianCoordinates" );
+        cls = jniClass( JNIClass::cartesianCoordinates );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: CartesianCoordinates class not found." );
             return NULL;
         }
 
-        cid = env->GetMethodID( cls, "<init>", "(ILjava/lang/String;DDD)V" );
+        cid = jniMethodID( JNIMethod::cartesianCoordinatesInit );
         if( cid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: CartesianCoordinates method id not found." );
@@ -1453,14 +1408,14 @@ jobject translateToJNICoordinates( JNIEnv *env, CoordinateTuple* coordinates )
         SphericalCoordinates _coordinates = ( *dynamic_cast< SphericalCoordinates* >( coordinates ) );
         jstring jWarningStr = env->NewStringUTF( _coordinates.warningMessage() );
 
-        cls = env->FindClass( "geotrans3/coordinates/SphericalCoordinates" );
+        cls = jniClass( JNIClass::sphericalCoordinates );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: SphericalCoordinates class not found." );
             return NULL;
         }
 
-        cid = env->GetMethodID( cls, "<init>", "(ILjava/lang/String;DDD)V" );
+        cid = jniMethodID( JNIMethod::sphericalCoordinatesInit );
         if( cid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: SphericalCoordinates method id not found." );
@@ -1478,14 +1433,14 @@ jobject translateToJNICoordinates( JNIEnv *env, CoordinateTuple* coordinates )
         SphericalCoordinates _coordinates = ( *dynamic_cast< SphericalCoordinates* >( coordinates ) );
         jstring jWarningStr = env->NewStringUTF( _coordinates.warningMessage() );
 
-        cls = env->FindClass( "geotrans3/coordinates/SphericalCoordinates" );
+        cls = jniClass( JNIClass::sphericalCoordinates );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: SphericalCoordinates class not found." );
             return NULL;
         }
 
-        cid = env->GetMethodID( cls, "<init>", "(ILjava/lang/String;DDD)V" );
+        cid = jniMethodID( JNIMethod::sphericalCoordinatesInit );
         if( cid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: SphericalCoordinates method id not found." );
@@ -1503,14 +1458,14 @@ jobject translateToJNICoordinates( JNIEnv *env, CoordinateTuple* coordinates )
         GeodeticCoordinates _coordinates = ( *dynamic_cast< GeodeticCoordinates* >( coordinates ) );
         jstring jWarningStr = env->NewStringUTF( _coordinates.warningMessage() );
 
-        cls = env->FindClass( "geotrans3/coordinates/GeodeticCoordinates" );
+        cls = jniClass( JNIClass::geodeticCoordinates );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: GeodeticCoordinates class not found." );
             return NULL;
         }
 
-        cid = env->GetMethodID( cls, "<init>", "(ILjava/lang/String;DDD)V" );
+        cid = jniMethodID( JNIMethod::geodeticCoordinatesInit );
         if( cid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: GeodeticCoordinates method id not found." );
@@ -1528,14 +1483,14 @@ jobject translateToJNICoordinates( JNIEnv *env, CoordinateTuple* coordinates )
         UPSCoordinates _coordinates = ( *dynamic_cast< UPSCoordinates* >( coordinates ) );
         jstring jWarningStr = env->NewStringUTF( _coordinates.warningMessage() );
 
-        cls = env->FindClass( "geotrans3/coordinates/UPSCoordinates" );
+        cls = jniClass( JNIClass::upsCoordinates );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: UPSCoordinates class not found." );
             return NULL;
         }
 
-        cid = env->GetMethodID( cls, "<init>", "(ILjava/lang/String;CDD)V" );
+        cid = jniMethodID( JNIMethod::upsCoordinatesInit );
         if( cid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: UPSCoordinates method id not found." );
@@ -1553,14 +1508,14 @@ jobject translateToJNICoordinates( JNIEnv *env, CoordinateTuple* coordinates )
         UTMCoordinates _coordinates = ( *dynamic_cast< UTMCoordinates* >( coordinates ) );
         jstring jWarningStr = env->NewStringUTF( _coordinates.warningMessage() );
 
-        cls = env->FindClass( "geotrans3/coordinates/UTMCoordinates" );
+        cls = jniClass( JNIClass::utmCoordinates );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: UTMCoordinates class not found." );
             return NULL;
         }
 
-        cid = env->GetMethodID( cls, "<init>", "(ILjava/lang/String;JCDD)V" );
+        cid = jniMethodID( JNIMethod::utmCoordinatesInit );
         if( cid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: UTMCoordinates method id not found." );
@@ -2,7 +2,11 @@
 
 #include <jni.h>
 #include "string.h"
+#include <limits>
+#include <exception>
+#include <string>
 #include "CoordinateConversionService.h"
+#include "NativeAllocations.h"
 #include "Accuracy.h"
 #include "DatumType.h"
 #include "EquidistantCylindricalParameters.h"
@@ -31,9 +35,12 @@
 #include "UTMCoordinates.h"
 #include "DatumLibrary.h"
 #include "EllipsoidLibrary.h"
+#include "GeoidLibrary.h"
+#include "HeightType.h"
 #include "CoordinateSystemParameters.h"
 #include "CoordinateConversionException.h"
 #include "ThrowException.h"
+#include "JNIRegistry.h"
 #include "JNICCSObjectTranslator.h"
 
 
@@ -79,6 +86,8 @@ JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniCre
     //The constructor can throw an exception, need to cleanup in exception handler
 	CoordinateConversionService* coordinateConversionService = new CoordinateConversionService(sourceDatumCode, sourceCoordinateSystemParameters, targetDatumCode, targetCoordinateSystemParameters);
 
+	nativeAllocated( NativeAllocation::coordinateConversionService, sizeof( CoordinateConversionService ) );
+
 	return_val = (jlong)coordinateConversionService;
 
   }
@@ -100,13 +109,15 @@ JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniCre
 }
 
 
-JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniDestroy(JNIEnv *env, jobject jobj, jlong coordinateConversionPtr)
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniDestroy(JNIEnv *env, jclass cls, jlong coordinateConversionPtr)
 {
   CoordinateConversionService* coordinateConversionService = ( CoordinateConversionService* )coordinateConversionPtr;
 
   if( coordinateConversionService )
   {
     delete coordinateConversionService;
+
+    nativeReleased( NativeAllocation::coordinateConversionService, sizeof( CoordinateConversionService ) );
   }
 }
 
@@ -142,14 +153,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
        jobject jniTargetAccuracy = translateToJNIAccuracy( env, targetAccuracy );
 
         // Create ConvertResults
-        jclass cls = env->FindClass( "geotrans3/coordinates/ConvertResults" );
+        jclass cls = jniClass( JNIClass::convertResults );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ConvertResults class not found." );
             return NULL;
         }
 
-        jmethodID mid = env->GetMethodID( cls, "<init>", "(Lgeotrans3/coordinates/CoordinateTuple;Lgeotrans3/coordinates/Accuracy;)V" );
+        jmethodID mid = jniMethodID( JNIMethod::convertResultsInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ConvertResults method id not found." );
@@ -211,14 +222,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
 
 
         // Create ConvertResults
-        jclass cls = env->FindClass( "geotrans3/coordinates/ConvertResults" );
+        jclass cls = jniClass( JNIClass::convertResults );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ConvertResults class not found." );
             return NULL;
         }
 
-        jmethodID mid = env->GetMethodID( cls, "<init>", "(Lgeotrans3/coordinates/CoordinateTuple;Lgeotrans3/coordinates/Accuracy;)V" );
+        jmethodID mid = jniMethodID( JNIMethod::convertResultsInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ConvertResults method id not found." );
@@ -323,14 +334,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         MapProjection3Parameters* parameters = ( dynamic_cast< MapProjection3Parameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/MapProjection3Parameters" );
+        cls = jniClass( JNIClass::mapProjection3Parameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection3Parameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDD)V" );
+        mid = jniMethodID( JNIMethod::mapProjection3ParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection3Parameters method id not found." );
@@ -353,14 +364,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         MapProjection4Parameters* parameters = ( dynamic_cast< MapProjection4Parameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/MapProjection4Parameters" );
+        cls = jniClass( JNIClass::mapProjection4Parameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection4Parameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDDD)V" );
+        mid = jniMethodID( JNIMethod::mapProjection4ParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection4Parameters method id not found." );
@@ -378,14 +389,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         MapProjection5Parameters* parameters = ( dynamic_cast< MapProjection5Parameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/MapProjection5Parameters" );
+        cls = jniClass( JNIClass::mapProjection5Parameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection5Parameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDDDD)V" );
+        mid = jniMethodID( JNIMethod::mapProjection5ParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection5Parameters method id not found." );
@@ -403,14 +414,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         MapProjection6Parameters* parameters = ( dynamic_cast< MapProjection6Parameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/MapProjection6Parameters" );
+        cls = jniClass( JNIClass::mapProjection6Parameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection6Parameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDDDDD)V" );
+        mid = jniMethodID( JNIMethod::mapProjection6ParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection6Parameters method id not found." );
@@ -427,14 +438,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         EquidistantCylindricalParameters* parameters = ( dynamic_cast< EquidistantCylindricalParameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/EquidistantCylindricalParameters" );
+        cls = jniClass( JNIClass::equidistantCylindricalParameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: EquidistantCylindricalParameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDDD)V" );
+        mid = jniMethodID( JNIMethod::equidistantCylindricalParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: EquidistantCylindricalParameters method id not found." );
@@ -450,14 +461,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         GeodeticParameters* parameters = ( dynamic_cast< GeodeticParameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/GeodeticParameters" );
+        cls = jniClass( JNIClass::geodeticParameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: GeodeticParameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(II)V" );
+        mid = jniMethodID( JNIMethod::geodeticParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: GeodeticParameters method id not found." );
@@ -474,14 +485,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         LocalCartesianParameters* parameters = ( dynamic_cast< LocalCartesianParameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/LocalCartesianParameters" );
+        cls = jniClass( JNIClass::localCartesianParameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: LocalCartesianParameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDDD)V" );
+        mid = jniMethodID( JNIMethod::localCartesianParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: LocalCartesianParameters method id not found." );
@@ -497,14 +508,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         MercatorStandardParallelParameters* parameters = ( dynamic_cast< MercatorStandardParallelParameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/MercatorStandardParallelParameters" );
+        cls = jniClass( JNIClass::mercatorStandardParallelParameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MercatorStandardParallelParameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDDDD)V" );
+        mid = jniMethodID( JNIMethod::mercatorStandardParallelParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MercatorStandardParallelParameters method id not found." );
@@ -521,14 +532,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         MercatorScaleFactorParameters* parameters = ( dynamic_cast< MercatorScaleFactorParameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/MercatorScaleFactorParameters" );
+        cls = jniClass( JNIClass::mercatorScaleFactorParameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MercatorScaleFactorParameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDDD)V" );
+        mid = jniMethodID( JNIMethod::mercatorScaleFactorParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MercatorScaleFactorParameters method id not found." );
@@ -545,14 +556,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         NeysParameters* parameters = ( dynamic_cast< NeysParameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/NeysParameters" );
+        cls = jniClass( JNIClass::neysParameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: NeysParameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDDDD)V" );
+        mid = jniMethodID( JNIMethod::neysParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: NeysParameters method id not found." );
@@ -569,14 +580,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         ObliqueMercatorParameters* parameters = ( dynamic_cast< ObliqueMercatorParameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/ObliqueMercatorParameters" );
+        cls = jniClass( JNIClass::obliqueMercatorParameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ObliqueMercatorParameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDDDDDDD)V" );
+        mid = jniMethodID( JNIMethod::obliqueMercatorParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ObliqueMercatorParameters method id not found." );
@@ -593,14 +604,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         PolarStereographicStandardParallelParameters* parameters = ( dynamic_cast< PolarStereographicStandardParallelParameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/PolarStereographicStandardParallelParameters" );
+        cls = jniClass( JNIClass::polarStereographicStandardParallelParameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: PolarStereographicStandardParallelParameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDDD)V" );
+        mid = jniMethodID( JNIMethod::polarStereographicStandardParallelParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: PolarStereographicStandardParallelParameters method id not found." );
@@ -616,14 +627,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         PolarStereographicScaleFactorParameters* parameters = ( dynamic_cast< PolarStereographicScaleFactorParameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/PolarStereographicScaleFactorParameters" );
+        cls = jniClass( JNIClass::polarStereographicScaleFactorParameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: PolarStereographicScaleFactorParameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IDDCDD)V" );
+        mid = jniMethodID( JNIMethod::polarStereographicScaleFactorParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: PolarStereographicScaleFactorParameters method id not found." );
@@ -639,14 +650,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       {
         UTMParameters* parameters = ( dynamic_cast< UTMParameters* >( coordinateSystemParameters ) );
 
-        cls = env->FindClass( "geotrans3/parameters/UTMParameters" );
+        cls = jniClass( JNIClass::utmParameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: UTMParameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(IJJ)V" );
+        mid = jniMethodID( JNIMethod::utmParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: UTMParameters method id not found." );
@@ -660,14 +671,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniG
       }
       default:
 
-        cls = env->FindClass( "geotrans3/parameters/CoordinateSystemParameters" );
+        cls = jniClass( JNIClass::coordinateSystemParameters );
         if( cls == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: CoordinateSystemParameters class not found." );
             return NULL;
         }
 
-        mid = env->GetMethodID( cls, "<init>", "(I)V" );
+        mid = jniMethodID( JNIMethod::coordinateSystemParametersInit );
         if( mid == NULL )
         {
             throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: CoordinateSystemParameters method id not found." );
@@ -695,16 +706,16 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
 
   if( coordinateConversionService )
   {
-    jclass jVectorClass = env->FindClass( "java/util/Vector" );
+    jclass jVectorClass = jniClass( JNIClass::vector );
 
-    jmethodID sizeMid = env->GetMethodID( jVectorClass, "size", "()I" );
+    jmethodID sizeMid = jniMethodID( JNIMethod::vectorSize );
     if( sizeMid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: size method id not found." );
         return NULL;
     }
 
-    jmethodID getMid = env->GetMethodID( jVectorClass, "get", "(I)Ljava/lang/Object;" );
+    jmethodID getMid = jniMethodID( JNIMethod::vectorGet );
     if( getMid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: get method id not found." );
@@ -738,10 +749,9 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
       jobject accuracy = env->CallObjectMethod( _sourceAccuracy, getMid, i );
 
       Accuracy* sourceAccuracy = new Accuracy();
-      jclass clazz = env->GetObjectClass( accuracy );
 
       // CE90
-      jfieldID fid = env->GetFieldID( clazz, "ce90", "D");
+      jfieldID fid = jniFieldID( JNIField::accuracyCe90 );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ce90 field ID error." );
@@ -750,7 +760,7 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
       sourceAccuracy->setCircularError90( env->GetDoubleField( accuracy, fid ) );
 
       // LE90
-      fid = env->GetFieldID( clazz, "le90", "D");
+      fid = jniFieldID( JNIField::accuracyLe90 );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: le90 field ID error." );
@@ -759,7 +769,7 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
       sourceAccuracy->setLinearError90( env->GetDoubleField( accuracy, fid ) );
 
       // SE90
-      fid = env->GetFieldID( clazz, "se90", "D");
+      fid = jniFieldID( JNIField::accuracySe90 );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: se90 field ID error." );
@@ -781,14 +791,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
                                                                   targetCoordinateVector, targetAccuracyVector );
 
 
-    jmethodID initMid = env->GetMethodID( jVectorClass, "<init>", "()V" );
+    jmethodID initMid = jniMethodID( JNIMethod::vectorInit );
     if( initMid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: init method id not found." );
         return NULL;
     }
 
-    jmethodID addElementMid = env->GetMethodID( jVectorClass, "addElement", "(Ljava/lang/Object;)V" );
+    jmethodID addElementMid = jniMethodID( JNIMethod::vectorAddElement );
     if( addElementMid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: addElement method id not found." );
@@ -818,14 +828,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
     for( i = 0; i < num; i++ )
     {
       // Create Accuracy parameter
-      jclass acls = env->FindClass( "geotrans3/coordinates/Accuracy" );
+      jclass acls = jniClass( JNIClass::accuracy );
       if( acls == NULL )
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Accuracy class not found." );
           return NULL;
       }
 
-      jmethodID cid = env->GetMethodID( acls, "<init>", "(DDD)V" );
+      jmethodID cid = jniMethodID( JNIMethod::accuracyInit );
       if( cid == NULL )
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Accuracy method id not found." );
@@ -845,14 +855,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
 
 
     // Create ConvertCollectionResults
-    jclass cls = env->FindClass( "geotrans3/coordinates/ConvertCollectionResults" );
+    jclass cls = jniClass( JNIClass::convertCollectionResults );
     if( cls == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ConvertCollectionResults class not found." );
         return NULL;
     }
 
-    jmethodID mid = env->GetMethodID( cls, "<init>", "(Ljava/util/Vector;Ljava/util/Vector;)V" );
+    jmethodID mid = jniMethodID( JNIMethod::convertCollectionResultsInit );
     if( mid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ConvertCollectionResults method id not found." );
@@ -885,6 +895,12 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
       delete targetCoordinateVector[i];
     }
     targetCoordinateVector.clear();
+
+    for( i = 0; i < numSourceCoordinates; i++ )
+    {
+      delete targetAccuracyVector[i];
+    }
+    targetAccuracyVector.clear();
   }
 
   return convertCollectionResults;
@@ -901,16 +917,16 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
 
   if( coordinateConversionService )
   {
-    jclass jVectorClass = env->FindClass( "java/util/Vector" );
+    jclass jVectorClass = jniClass( JNIClass::vector );
 
-    jmethodID sizeMid = env->GetMethodID( jVectorClass, "size", "()I" );
+    jmethodID sizeMid = jniMethodID( JNIMethod::vectorSize );
     if( sizeMid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: size method id not found." );
         return NULL;
     }
 
-    jmethodID getMid = env->GetMethodID( jVectorClass, "get", "(I)Ljava/lang/Object;" );
+    jmethodID getMid = jniMethodID( JNIMethod::vectorGet );
     if( getMid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: get method id not found." );
@@ -944,10 +960,9 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
       jobject accuracy = env->CallObjectMethod( _targetAccuracy, getMid, i );
 
       Accuracy* targetAccuracy = new Accuracy();
-      jclass clazz = env->GetObjectClass( accuracy );
 
       // CE90
-      jfieldID fid = env->GetFieldID( clazz, "ce90", "D");
+      jfieldID fid = jniFieldID( JNIField::accuracyCe90 );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ce90 field ID error." );
@@ -956,7 +971,7 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
       targetAccuracy->setCircularError90( env->GetDoubleField( accuracy, fid ) );
 
       // LE90
-      fid = env->GetFieldID( clazz, "le90", "D");
+      fid = jniFieldID( JNIField::accuracyLe90 );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: le90 field ID error." );
@@ -965,7 +980,7 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
       targetAccuracy->setLinearError90( env->GetDoubleField( accuracy, fid ) );
 
       // SE90
-      fid = env->GetFieldID( clazz, "se90", "D");
+      fid = jniFieldID( JNIField::accuracySe90 );
       if (fid == NULL)
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: se90 field ID error." );
@@ -987,14 +1002,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
                                                                   sourceCoordinateVector, sourceAccuracyVector );
 
 
-    jmethodID initMid = env->GetMethodID( jVectorClass, "<init>", "()V" );
+    jmethodID initMid = jniMethodID( JNIMethod::vectorInit );
     if( initMid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: init method id not found." );
         return NULL;
     }
 
-    jmethodID addElementMid = env->GetMethodID( jVectorClass, "addElement", "(Ljava/lang/Object;)V" );
+    jmethodID addElementMid = jniMethodID( JNIMethod::vectorAddElement );
     if( addElementMid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: addElement method id not found." );
@@ -1024,14 +1039,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
     for( i = 0; i < num; i++ )
     {
       // Create Accuracy parameter
-      jclass acls = env->FindClass( "geotrans3/coordinates/Accuracy" );
+      jclass acls = jniClass( JNIClass::accuracy );
       if( acls == NULL )
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Accuracy class not found." );
           return NULL;
       }
 
-      jmethodID cid = env->GetMethodID( acls, "<init>", "(DDD)V" );
+      jmethodID cid = jniMethodID( JNIMethod::accuracyInit );
       if( cid == NULL )
       {
           throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Accuracy method id not found." );
@@ -1051,14 +1066,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
 
 
     // Create ConvertCollectionResults
-    jclass cls = env->FindClass( "geotrans3/coordinates/ConvertCollectionResults" );
+    jclass cls = jniClass( JNIClass::convertCollectionResults );
     if( cls == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ConvertCollectionResults class not found." );
         return NULL;
     }
 
-    jmethodID mid = env->GetMethodID( cls, "<init>", "(Ljava/util/Vector;Ljava/util/Vector;)V" );
+    jmethodID mid = jniMethodID( JNIMethod::convertCollectionResultsInit );
     if( mid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ConvertCollectionResults method id not found." );
@@ -1091,6 +1106,12 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
       delete sourceCoordinateVector[i];
     }
     sourceCoordinateVector.clear();
+
+    for( i = 0; i < numTargetCoordinates; i++ )
+    {
+      delete sourceAccuracyVector[i];
+    }
+    sourceAccuracyVector.clear();
   }
 
   return convertCollectionResults;
@@ -1342,6 +1363,511 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniC
   return convertVectorResults;
 }*/
 
+/*
+ * Per-point status codes written by the array conversions.  These must
+ * match the CONVERT_* constants in JNICoordinateConversionService.java.
+ */
+static const jint ARRAY_CONVERT_OK      = 0;
+static const jint ARRAY_CONVERT_WARNING = 1;
+static const jint ARRAY_CONVERT_ERROR   = 2;
+
+/* Points converted per pinning of the arrays by convertArray */
+static const jint ARRAY_CHUNK_POINTS = 4096;
+
+
+static int numericCoordinateDimension( CoordinateType::Enum coordinateType )
+{
+/*
+ *  The function numericCoordinateDimension returns the number of doubles
+ *  used to hold one point of the given coordinate type in a primitive
+ *  array, or 0 if the coordinate type is not purely numeric.
+ *
+ *  coordinateType : Coordinate type of the point    (input)
+ */
+
+  switch( coordinateType )
+  {
+    case CoordinateType::geodetic:
+    case CoordinateType::geocentric:
+    case CoordinateType::localCartesian:
+      return 3;
+    case CoordinateType::albersEqualAreaConic:
+    case CoordinateType::azimuthalEquidistant:
+    case CoordinateType::bonne:
+    case CoordinateType::cassini:
+    case CoordinateType::cylindricalEqualArea:
+    case CoordinateType::eckert4:
+    case CoordinateType::eckert6:
+    case CoordinateType::equidistantCylindrical:
+    case CoordinateType::gnomonic:
+    case CoordinateType::lambertConformalConic1Parallel:
+    case CoordinateType::lambertConformalConic2Parallels:
+    case CoordinateType::mercatorStandardParallel:
+    case CoordinateType::mercatorScaleFactor:
+    case CoordinateType::millerCylindrical:
+    case CoordinateType::mollweide:
+    case CoordinateType::newZealandMapGrid:
+    case CoordinateType::neys:
+    case CoordinateType::obliqueMercator:
+    case CoordinateType::orthographic:
+    case CoordinateType::polarStereographicStandardParallel:
+    case CoordinateType::polarStereographicScaleFactor:
+    case CoordinateType::polyconic:
+    case CoordinateType::sinusoidal:
+    case CoordinateType::stereographic:
+    case CoordinateType::transverseCylindricalEqualArea:
+    case CoordinateType::transverseMercator:
+    case CoordinateType::vanDerGrinten:
+    case CoordinateType::webMercator:
+      return 2;
+    default:
+      return 0;
+  }
+}
+
+
+static CoordinateTuple* createNumericCoordinates( CoordinateType::Enum coordinateType )
+{
+/*
+ *  The function createNumericCoordinates creates an empty coordinate tuple
+ *  of the given numeric coordinate type.  The caller owns the tuple.
+ *
+ *  coordinateType : Coordinate type of the tuple    (input)
+ */
+
+  switch( coordinateType )
+  {
+    case CoordinateType::geodetic:
+      return new GeodeticCoordinates( coordinateType );
+    case CoordinateType::geocentric:
+    case CoordinateType::localCartesian:
+      return new CartesianCoordinates( coordinateType );
+    default:
+      return new MapProjectionCoordinates( coordinateType );
+  }
+}
+
+
+static void setNumericCoordinates( CoordinateTuple* coordinates, const double* values )
+{
+  switch( coordinates->coordinateType() )
+  {
+    case CoordinateType::geodetic:
+      ( ( GeodeticCoordinates* )coordinates )->set( values[0], values[1], values[2] );
+      break;
+    case CoordinateType::geocentric:
+    case CoordinateType::localCartesian:
+      ( ( CartesianCoordinates* )coordinates )->set( values[0], values[1], values[2] );
+      break;
+    default:
+      ( ( MapProjectionCoordinates* )coordinates )->set( values[0], values[1] );
+      break;
+  }
+}
+
+
+static void getNumericCoordinates( CoordinateTuple* coordinates, double* values )
+{
+  switch( coordinates->coordinateType() )
+  {
+    case CoordinateType::geodetic:
+    {
+      GeodeticCoordinates* geodeticCoordinates = ( GeodeticCoordinates* )coordinates;
+      values[0] = geodeticCoordinates->longitude();
+      values[1] = geodeticCoordinates->latitude();
+      values[2] = geodeticCoordinates->height();
+      break;
+    }
+    case CoordinateType::geocentric:
+    case CoordinateType::localCartesian:
+    {
+      CartesianCoordinates* cartesianCoordinates = ( CartesianCoordinates* )coordinates;
+      values[0] = cartesianCoordinates->x();
+      values[1] = cartesianCoordinates->y();
+      values[2] = cartesianCoordinates->z();
+      break;
+    }
+    default:
+    {
+      MapProjectionCoordinates* mapProjectionCoordinates = ( MapProjectionCoordinates* )coordinates;
+      values[0] = mapProjectionCoordinates->easting();
+      values[1] = mapProjectionCoordinates->northing();
+      break;
+    }
+  }
+}
+
+
+static bool getNumericDimensions( JNIEnv *env, CoordinateConversionService* coordinateConversionService, bool sourceToTarget, jint stride,
+                                  CoordinateType::Enum& inputType, int& inputDimension, CoordinateType::Enum& outputType, int& outputDimension )
+{
+/*
+ *  The function getNumericDimensions looks up the input and output
+ *  coordinate types of a numeric batch conversion and checks them, and
+ *  the stride, against the packed point layout.  A Java exception is
+ *  raised and false returned if the layout cannot be used.
+ *
+ *  coordinateConversionService : Service used for the conversion            (input)
+ *  sourceToTarget              : Conversion direction                        (input)
+ *  stride                      : Number of doubles between successive points (input)
+ *  inputType                   : Coordinate type of the input points         (output)
+ *  inputDimension              : Number of doubles in an input point         (output)
+ *  outputType                  : Coordinate type of the output points        (output)
+ *  outputDimension             : Number of doubles in an output point        (output)
+ */
+
+  SourceOrTarget::Enum inputDirection = sourceToTarget ? SourceOrTarget::source : SourceOrTarget::target;
+  SourceOrTarget::Enum outputDirection = sourceToTarget ? SourceOrTarget::target : SourceOrTarget::source;
+
+  inputType = coordinateConversionService->getCoordinateSystem( inputDirection )->coordinateType();
+  outputType = coordinateConversionService->getCoordinateSystem( outputDirection )->coordinateType();
+
+  inputDimension = numericCoordinateDimension( inputType );
+  outputDimension = numericCoordinateDimension( outputType );
+  if( inputDimension == 0 || outputDimension == 0 )
+  {
+    throwException( env, "geotrans3/exception/CoordinateConversionException", "Array conversion requires geodetic, cartesian or map projection coordinates\n" );
+    return false;
+  }
+
+  if( stride < inputDimension || stride < outputDimension )
+  {
+    throwException( env, "geotrans3/exception/CoordinateConversionException", "Array conversion stride is smaller than the coordinate dimension\n" );
+    return false;
+  }
+
+  return true;
+}
+
+
+static void convertNumericPoints( CoordinateConversionService* coordinateConversionService, bool sourceToTarget,
+                                  CoordinateType::Enum inputType, CoordinateType::Enum outputType, int outputDimension,
+                                  const double* input, double* output, jint count, jint stride, double* accuracy, jint* status )
+{
+/*
+ *  The function convertNumericPoints converts 'count' packed numeric
+ *  points, 'stride' doubles apart, writing the results at the same
+ *  offsets of the output.  It makes no JNI calls, so it may run while
+ *  arrays are held critical.  A point which fails to convert gets an
+ *  error status and NaN outputs; the rest of the batch is still converted.
+ *
+ *  input          : Points to be converted                                   (input)
+ *  output         : Converted points                                         (output)
+ *  accuracy       : Optional (ce90, le90, se90) triples, one per point;
+ *                   input accuracy on entry, output accuracy on return       (input/output)
+ *  status         : Optional per-point conversion status                     (output)
+ */
+
+  CoordinateTuple* inputCoordinates = createNumericCoordinates( inputType );
+  CoordinateTuple* outputCoordinates = createNumericCoordinates( outputType );
+  Accuracy inputAccuracy;
+  Accuracy outputAccuracy;
+
+  for( jint i = 0; i < count; i++ )
+  {
+    const double* inputValues = input + ( jlong )i * stride;
+    double* outputValues = output + ( jlong )i * stride;
+    double* accuracyValues = accuracy ? accuracy + ( jlong )i * 3 : 0;
+    jint pointStatus;
+
+    try
+    {
+      setNumericCoordinates( inputCoordinates, inputValues );
+      outputCoordinates->setWarningMessage( "" );
+      if( accuracyValues )
+        inputAccuracy.set( accuracyValues[0], accuracyValues[1], accuracyValues[2] );
+
+      if( sourceToTarget )
+        coordinateConversionService->convertSourceToTarget( inputCoordinates, &inputAccuracy, *outputCoordinates, outputAccuracy );
+      else
+        coordinateConversionService->convertTargetToSource( inputCoordinates, &inputAccuracy, *outputCoordinates, outputAccuracy );
+
+      getNumericCoordinates( outputCoordinates, outputValues );
+
+      if( accuracyValues )
+      {
+        accuracyValues[0] = outputAccuracy.circularError90();
+        accuracyValues[1] = outputAccuracy.linearError90();
+        accuracyValues[2] = outputAccuracy.sphericalError90();
+      }
+
+      if( strlen( outputCoordinates->warningMessage() ) > 0 )
+        pointStatus = ARRAY_CONVERT_WARNING;
+      else
+        pointStatus = ARRAY_CONVERT_OK;
+    }
+    catch( CoordinateConversionException e )
+    {
+      for( int j = 0; j < outputDimension; j++ )
+        outputValues[j] = std::numeric_limits< double >::quiet_NaN();
+      if( accuracyValues )
+        accuracyValues[0] = accuracyValues[1] = accuracyValues[2] = -1.0;
+      pointStatus = ARRAY_CONVERT_ERROR;
+    }
+
+    if( status )
+      status[i] = pointStatus;
+  }
+
+  delete inputCoordinates;
+  delete outputCoordinates;
+}
+
+
+static void preloadGeoids( CoordinateConversionService* coordinateConversionService )
+{
+/*
+ *  The function preloadGeoids loads the geoid models used by the height
+ *  types of the service's geodetic coordinate systems, so that the data
+ *  files are not read by the first conversion while arrays are pinned.  A
+ *  model which cannot be loaded fails each point converted with it.
+ *
+ *  coordinateConversionService : Service used for the conversion            (input)
+ */
+
+  HeightType::Enum heightTypes[2];
+  long count = 0;
+
+  for( int direction = SourceOrTarget::source; direction <= SourceOrTarget::target; direction++ )
+  {
+    CoordinateSystemParameters* parameters = coordinateConversionService->getCoordinateSystem( ( SourceOrTarget::Enum )direction );
+    if( parameters->coordinateType() == CoordinateType::geodetic )
+      heightTypes[count++] = ( ( GeodeticParameters* )parameters )->heightType();
+  }
+
+  if( count == 0 )
+    return;
+
+  try
+  {
+    GeoidLibrary* geoidLibrary = GeoidLibrary::getInstance();
+
+    try
+    {
+      geoidLibrary->preload( count, heightTypes );
+    }
+    catch( CoordinateConversionException e )
+    {
+    }
+
+    GeoidLibrary::removeInstance();
+  }
+  catch( CoordinateConversionException e )
+  {
+  }
+}
+
+
+static void convertArray( JNIEnv *env, CoordinateConversionService* coordinateConversionService, bool sourceToTarget,
+                          jdoubleArray _inputCoordinates, jdoubleArray _outputCoordinates, jint count, jint stride, jintArray _status )
+{
+/*
+ *  The function convertArray converts 'count' numeric points held in a
+ *  primitive double array.  The arrays are pinned for at most
+ *  ARRAY_CHUNK_POINTS points at a time, so garbage collection is held off
+ *  for a bounded time whatever the batch size.  Geoid models are loaded
+ *  before the arrays are first pinned.
+ *
+ *  coordinateConversionService : Service used for the conversion            (input)
+ *  sourceToTarget              : Conversion direction                        (input)
+ *  _inputCoordinates           : Points to be converted                      (input)
+ *  _outputCoordinates          : Converted points                            (output)
+ *  count                       : Number of points                            (input)
+ *  stride                      : Number of doubles between successive points (input)
+ *  _status                     : Per-point conversion status                 (output)
+ */
+
+  CoordinateType::Enum inputType;
+  CoordinateType::Enum outputType;
+  int inputDimension;
+  int outputDimension;
+
+  if( !getNumericDimensions( env, coordinateConversionService, sourceToTarget, stride, inputType, inputDimension, outputType, outputDimension ) )
+    return;
+
+  if( count <= 0 )
+    return;
+
+  jlong required = ( jlong )( count - 1 ) * stride;
+  if( env->GetArrayLength( _inputCoordinates ) < required + inputDimension ||
+      env->GetArrayLength( _outputCoordinates ) < required + outputDimension ||
+      env->GetArrayLength( _status ) < count )
+  {
+    throwException( env, "geotrans3/exception/CoordinateConversionException", "Array conversion arrays are too small for the point count\n" );
+    return;
+  }
+
+  preloadGeoids( coordinateConversionService );
+
+  // No JNI calls are allowed while the arrays are pinned, so a C++
+  // exception other than a per-point conversion error is caught, and
+  // thrown as a Java exception after they are released
+  bool accessed = true;
+  bool failed = false;
+  std::string exceptionMessage;
+
+  for( jint first = 0; first < count && accessed && !failed; first += ARRAY_CHUNK_POINTS )
+  {
+    jint chunkCount = count - first < ARRAY_CHUNK_POINTS ? count - first : ARRAY_CHUNK_POINTS;
+
+    jdouble* input = ( jdouble* )env->GetPrimitiveArrayCritical( _inputCoordinates, NULL );
+    jdouble* output = ( jdouble* )env->GetPrimitiveArrayCritical( _outputCoordinates, NULL );
+    jint* status = ( jint* )env->GetPrimitiveArrayCritical( _status, NULL );
+
+    accessed = input && output && status;
+    if( accessed )
+    {
+      try
+      {
+        convertNumericPoints( coordinateConversionService, sourceToTarget, inputType, outputType, outputDimension,
+                              input + ( jlong )first * stride, output + ( jlong )first * stride, chunkCount, stride, 0, status + first );
+      }
+      catch( std::exception& e )
+      {
+        exceptionMessage = e.what();
+        failed = true;
+      }
+      catch( ... )
+      {
+        exceptionMessage = "Unknown error";
+        failed = true;
+      }
+    }
+
+    // Release in reverse order; the input is never written back
+    if( status )
+      env->ReleasePrimitiveArrayCritical( _status, status, 0 );
+    if( output )
+      env->ReleasePrimitiveArrayCritical( _outputCoordinates, output, 0 );
+    if( input )
+      env->ReleasePrimitiveArrayCritical( _inputCoordinates, input, JNI_ABORT );
+  }
+
+  if( !accessed )
+    throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Array elements could not be accessed.\n" );
+  else if( failed )
+  {
+    exceptionMessage = "Array conversion failed: " + exceptionMessage + "\n";
+    throwException( env, "geotrans3/exception/CoordinateConversionException", exceptionMessage.c_str() );
+  }
+}
+
+
+static void convertBuffer( JNIEnv *env, CoordinateConversionService* coordinateConversionService, bool sourceToTarget,
+                           jobject _inputCoordinates, jint inputOffset, jint inputLimit, jobject _outputCoordinates, jint outputOffset, jint outputLimit,
+                           jint count, jint stride, jobject _accuracy, jint accuracyOffset, jint accuracyLimit, jobject _status, jint statusOffset, jint statusLimit )
+{
+/*
+ *  The function convertBuffer converts 'count' numeric points held in
+ *  direct ByteBuffers of packed native order doubles.  The buffers are
+ *  addressed in place; nothing is copied and no Java objects are created.
+ *  The accuracy and status buffers are optional (NULL).  Only the bytes
+ *  from each buffer's offset (position) to its limit are read or written.
+ *
+ *  coordinateConversionService : Service used for the conversion            (input)
+ *  sourceToTarget              : Conversion direction                        (input)
+ *  _inputCoordinates           : Points to be converted                      (input)
+ *  inputOffset                 : Byte offset of the first input point        (input)
+ *  inputLimit                  : Limit of the input buffer, in bytes         (input)
+ *  _outputCoordinates          : Converted points                            (output)
+ *  outputOffset                : Byte offset of the first output point       (input)
+ *  outputLimit                 : Limit of the output buffer, in bytes        (input)
+ *  count                       : Number of points                            (input)
+ *  stride                      : Number of doubles between successive points (input)
+ *  _accuracy                   : (ce90, le90, se90) per point, converted
+ *                                in place                                    (input/output)
+ *  accuracyOffset              : Byte offset of the first accuracy triple    (input)
+ *  accuracyLimit               : Limit of the accuracy buffer, in bytes      (input)
+ *  _status                     : Per-point conversion status (ints)          (output)
+ *  statusOffset                : Byte offset of the first status             (input)
+ *  statusLimit                 : Limit of the status buffer, in bytes        (input)
+ */
+
+  CoordinateType::Enum inputType;
+  CoordinateType::Enum outputType;
+  int inputDimension;
+  int outputDimension;
+
+  if( !getNumericDimensions( env, coordinateConversionService, sourceToTarget, stride, inputType, inputDimension, outputType, outputDimension ) )
+    return;
+
+  if( count <= 0 )
+    return;
+
+  char* input = ( char* )env->GetDirectBufferAddress( _inputCoordinates );
+  char* output = ( char* )env->GetDirectBufferAddress( _outputCoordinates );
+  char* accuracy = _accuracy ? ( char* )env->GetDirectBufferAddress( _accuracy ) : 0;
+  char* status = _status ? ( char* )env->GetDirectBufferAddress( _status ) : 0;
+
+  if( !input || !output || ( _accuracy && !accuracy ) || ( _status && !status ) )
+  {
+    throwException( env, "geotrans3/exception/CoordinateConversionException", "Buffer conversion requires direct buffers\n" );
+    return;
+  }
+
+  // Check against the limits, not the capacities, so that nothing past a
+  // buffer's limit is touched.  A limit is never more than the capacity.
+  jlong required = ( jlong )( count - 1 ) * stride;
+  if( inputLimit < inputOffset + ( required + inputDimension ) * ( jlong )sizeof( double ) ||
+      outputLimit < outputOffset + ( required + outputDimension ) * ( jlong )sizeof( double ) ||
+      ( accuracy && accuracyLimit < accuracyOffset + ( jlong )count * 3 * sizeof( double ) ) ||
+      ( status && statusLimit < statusOffset + ( jlong )count * sizeof( jint ) ) )
+  {
+    throwException( env, "geotrans3/exception/CoordinateConversionException", "Buffer conversion buffers are too small for the point count\n" );
+    return;
+  }
+
+  convertNumericPoints( coordinateConversionService, sourceToTarget, inputType, outputType, outputDimension,
+                        ( const double* )( input + inputOffset ), ( double* )( output + outputOffset ), count, stride,
+                        accuracy ? ( double* )( accuracy + accuracyOffset ) : 0,
+                        status ? ( jint* )( status + statusOffset ) : 0 );
+}
+
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertSourceToTargetArray(JNIEnv *env, jobject jobj, jlong coordinateConversionPtr,
+                                                                                                   jdoubleArray _sourceCoordinates, jdoubleArray _targetCoordinates, jint count, jint stride, jintArray _status)
+{
+  CoordinateConversionService* coordinateConversionService = ( CoordinateConversionService* )coordinateConversionPtr;
+
+  if( coordinateConversionService )
+    convertArray( env, coordinateConversionService, true, _sourceCoordinates, _targetCoordinates, count, stride, _status );
+}
+
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertTargetToSourceArray(JNIEnv *env, jobject jobj, jlong coordinateConversionPtr,
+                                                                                                   jdoubleArray _targetCoordinates, jdoubleArray _sourceCoordinates, jint count, jint stride, jintArray _status)
+{
+  CoordinateConversionService* coordinateConversionService = ( CoordinateConversionService* )coordinateConversionPtr;
+
+  if( coordinateConversionService )
+    convertArray( env, coordinateConversionService, false, _targetCoordinates, _sourceCoordinates, count, stride, _status );
+}
+
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertSourceToTargetBuffer(JNIEnv *env, jobject jobj, jlong coordinateConversionPtr,
+                                                                                                    jobject _sourceCoordinates, jint sourceOffset, jint sourceLimit, jobject _targetCoordinates, jint targetOffset, jint targetLimit,
+                                                                                                    jint count, jint stride, jobject _accuracy, jint accuracyOffset, jint accuracyLimit, jobject _status, jint statusOffset, jint statusLimit)
+{
+  CoordinateConversionService* coordinateConversionService = ( CoordinateConversionService* )coordinateConversionPtr;
+
+  if( coordinateConversionService )
+    convertBuffer( env, coordinateConversionService, true, _sourceCoordinates, sourceOffset, sourceLimit, _targetCoordinates, targetOffset, targetLimit,
+                   count, stride, _accuracy, accuracyOffset, accuracyLimit, _status, statusOffset, statusLimit );
+}
+
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertTargetToSourceBuffer(JNIEnv *env, jobject jobj, jlong coordinateConversionPtr,
+                                                                                                    jobject _targetCoordinates, jint targetOffset, jint targetLimit, jobject _sourceCoordinates, jint sourceOffset, jint sourceLimit,
+                                                                                                    jint count, jint stride, jobject _accuracy, jint accuracyOffset, jint accuracyLimit, jobject _status, jint statusOffset, jint statusLimit)
+{
+  CoordinateConversionService* coordinateConversionService = ( CoordinateConversionService* )coordinateConversionPtr;
+
+  if( coordinateConversionService )
+    convertBuffer( env, coordinateConversionService, false, _targetCoordinates, targetOffset, targetLimit, _sourceCoordinates, sourceOffset, sourceLimit,
+                   count, stride, _accuracy, accuracyOffset, accuracyLimit, _status, statusOffset, statusLimit );
+}
+
+
 #ifdef __cplusplus
 }
 #endif
@@ -23,7 +23,7 @@ JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniCre
  * Signature: (J)V
  */
 JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniDestroy
-  (JNIEnv *, jobject, jlong);
+  (JNIEnv *, jclass, jlong);
 
 /*
  * Class:     geotrans3_jni_JNICoordinateConversionService
@@ -44,19 +44,51 @@ JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConv
 /*
  * Class:     geotrans3_jni_JNICoordinateConversionService
  * Method:    jniConvertSourceToTargetCollection
- * Signature: (JLjava/util/Collection;Ljava/util/Collection;Ljava/util/Collection;Ljava/util/Collection;)V
+ * Signature: (JLjava/util/Collection;Ljava/util/Collection;Ljava/util/Collection;Ljava/util/Collection;)Lgeotrans3/coordinates/ConvertCollectionResults;
  */
-JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertSourceToTargetCollection
+JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertSourceToTargetCollection
   (JNIEnv *, jobject, jlong, jobject, jobject, jobject, jobject);
 
 /*
  * Class:     geotrans3_jni_JNICoordinateConversionService
  * Method:    jniConvertTargetToSourceCollection
- * Signature: (JLjava/util/Collection;Ljava/util/Collection;Ljava/util/Collection;Ljava/util/Collection;)V
+ * Signature: (JLjava/util/Collection;Ljava/util/Collection;Ljava/util/Collection;Ljava/util/Collection;)Lgeotrans3/coordinates/ConvertCollectionResults;
  */
-JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertTargetToSourceCollection
+JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertTargetToSourceCollection
   (JNIEnv *, jobject, jlong, jobject, jobject, jobject, jobject);
 
+/*
+ * Class:     geotrans3_jni_JNICoordinateConversionService
+ * Method:    jniConvertSourceToTargetArray
+ * Signature: (J[D[DII[I)V
+ */
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertSourceToTargetArray
+  (JNIEnv *, jobject, jlong, jdoubleArray, jdoubleArray, jint, jint, jintArray);
+
+/*
+ * Class:     geotrans3_jni_JNICoordinateConversionService
+ * Method:    jniConvertTargetToSourceArray
+ * Signature: (J[D[DII[I)V
+ */
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertTargetToSourceArray
+  (JNIEnv *, jobject, jlong, jdoubleArray, jdoubleArray, jint, jint, jintArray);
+
+/*
+ * Class:     geotrans3_jni_JNICoordinateConversionService
+ * Method:    jniConvertSourceToTargetBuffer
+ * Signature: (JLjava/nio/ByteBuffer;IILjava/nio/ByteBuffer;IIIILjava/nio/ByteBuffer;IILjava/nio/ByteBuffer;II)V
+ */
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertSourceToTargetBuffer
+  (JNIEnv *, jobject, jlong, jobject, jint, jint, jobject, jint, jint, jint, jint, jobject, jint, jint, jobject, jint, jint);
+
+/*
+ * Class:     geotrans3_jni_JNICoordinateConversionService
+ * Method:    jniConvertTargetToSourceBuffer
+ * Signature: (JLjava/nio/ByteBuffer;IILjava/nio/ByteBuffer;IIIILjava/nio/ByteBuffer;IILjava/nio/ByteBuffer;II)V
+ */
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNICoordinateConversionService_jniConvertTargetToSourceBuffer
+  (JNIEnv *, jobject, jlong, jobject, jint, jint, jobject, jint, jint, jint, jint, jobject, jint, jint, jobject, jint, jint);
+
 /*
  * Class:     geotrans3_jni_JNICoordinateConversionService
  * Method:    jniGetDatumLibrary
@@ -8,7 +8,10 @@
 
 package geotrans3.jni;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Collection;
+import java.util.Vector;
 import geotrans3.coordinates.Accuracy;
 import geotrans3.coordinates.ConvertResults;
 import geotrans3.coordinates.ConvertCollectionResults;
@@ -20,20 +23,28 @@ import geotrans3.coordinates.CoordinateTuple;
 import geotrans3.parameters.CoordinateSystemParameters;
 
 /**
+ * The C++ CoordinateConversionService is deleted by destroy() or close(),
+ * or, if neither is called, after the JNICoordinateConversionService
+ * becomes unreachable.
  *
  * @author  amyc
  * @version 
  */
-public class JNICoordinateConversionService extends Object
+public class JNICoordinateConversionService extends Object implements AutoCloseable
 {
   private native long jniCreate(String sourceDatumCode, CoordinateSystemParameters sourceParameters, String targetDatumCode, CoordinateSystemParameters targetParameters) throws CoordinateConversionException;
-  private native void jniDestroy(long _coordinateConversionPtrService);
+  private static native void jniDestroy(long _coordinateConversionPtrService);
 
   private native ConvertResults jniConvertSourceToTarget(long _coordinateConversionPtrService, CoordinateTuple sourceCoordinates, Accuracy sourceAccuracy, CoordinateTuple targetCoordinates, Accuracy targetAccuracy) throws CoordinateConversionException;
   private native ConvertResults jniConvertTargetToSource(long _coordinateConversionPtrService, CoordinateTuple targetCoordinates, Accuracy targetAccuracy, CoordinateTuple sourceCoordinates, Accuracy sourceAccuracy) throws CoordinateConversionException;
 
-  private native void jniConvertSourceToTargetCollection(long _coordinateConversionPtrService, Collection sourceCoordinates, Collection sourceAccuracy, Collection targetCoordinates, Collection targetAccuracy) throws CoordinateConversionException;
-  private native void jniConvertTargetToSourceCollection(long _coordinateConversionPtrService, Collection targetCoordinates, Collection targetAccuracy, Collection sourceCoordinates, Collection sourceAccuracy) throws CoordinateConversionException;
+  private native ConvertCollectionResults jniConvertSourceToTargetCollection(long _coordinateConversionPtrService, Collection<?> sourceCoordinates, Collection<?> sourceAccuracy, Collection<?> targetCoordinates, Collection<?> targetAccuracy) throws CoordinateConversionException;
+  private native ConvertCollectionResults jniConvertTargetToSourceCollection(long _coordinateConversionPtrService, Collection<?> targetCoordinates, Collection<?> targetAccuracy, Collection<?> sourceCoordinates, Collection<?> sourceAccuracy) throws CoordinateConversionException;
+
+  private native void jniConvertSourceToTargetArray(long _coordinateConversionPtrService, double[] sourceCoordinates, double[] targetCoordinates, int count, int stride, int[] status) throws CoordinateConversionException;
+  private native void jniConvertTargetToSourceArray(long _coordinateConversionPtrService, double[] targetCoordinates, double[] sourceCoordinates, int count, int stride, int[] status) throws CoordinateConversionException;
+  private native void jniConvertSourceToTargetBuffer(long _coordinateConversionPtrService, ByteBuffer sourceCoordinates, int sourceOffset, int sourceLimit, ByteBuffer targetCoordinates, int targetOffset, int targetLimit, int count, int stride, ByteBuffer accuracy, int accuracyOffset, int accuracyLimit, ByteBuffer status, int statusOffset, int statusLimit) throws CoordinateConversionException;
+  private native void jniConvertTargetToSourceBuffer(long _coordinateConversionPtrService, ByteBuffer targetCoordinates, int targetOffset, int targetLimit, ByteBuffer sourceCoordinates, int sourceOffset, int sourceLimit, int count, int stride, ByteBuffer accuracy, int accuracyOffset, int accuracyLimit, ByteBuffer status, int statusOffset, int statusLimit) throws CoordinateConversionException;
 
   private native long jniGetDatumLibrary(long _coordinateConversionPtrService);
   private native long jniGetEllipsoidLibrary(long _coordinateConversionPtrService);
@@ -43,8 +54,20 @@ public class JNICoordinateConversionService extends Object
   private native String jniGetDatum(long _coordinateConversionPtrService, int direction) throws CoordinateConversionException;
   private native CoordinateSystemParameters jniGetCoordinateSystem(long _coordinateConversionPtrService, int direction) throws CoordinateConversionException;
  
+  // Per-point status codes returned by the array conversions
+  public static final int CONVERT_OK = 0;
+  public static final int CONVERT_WARNING = 1;
+  public static final int CONVERT_ERROR = 2;
+
   // Holds the C++ CoordinateConversionService object pointer
   private long coordinateConversionServicePtr;
+
+  // Deletes the C++ CoordinateConversionService object, once
+  private final JNINativeAllocations.Cleanable cleanable;
+
+  // Conversion metrics of each direction, null for unknown coordinate types
+  private final ConversionMetrics.Pair sourceToTargetMetrics;
+  private final ConversionMetrics.Pair targetToSourceMetrics;
   
   
   /**
@@ -60,6 +83,13 @@ public class JNICoordinateConversionService extends Object
     {
        throw new Exception(e.getMessage());
     }
+
+    cleanable = JNINativeAllocations.register(this, new Release(coordinateConversionServicePtr));
+
+    int sourceType = sourceParameters.getCoordinateType();
+    int targetType = targetParameters.getCoordinateType();
+    sourceToTargetMetrics = ConversionMetrics.getInstance().getPair(sourceType, targetType);
+    targetToSourceMetrics = ConversionMetrics.getInstance().getPair(targetType, sourceType);
   }
 
   
@@ -67,10 +97,19 @@ public class JNICoordinateConversionService extends Object
   {
     if(coordinateConversionServicePtr != 0)
     {
-      jniDestroy(coordinateConversionServicePtr);
       coordinateConversionServicePtr = 0;
+      cleanable.clean();
     }
   }
+
+
+  /**
+   * Same as destroy().
+   */
+  public void close()
+  {
+    destroy();
+  }
   
   
   public synchronized long getCoordinateConversionServicePtr()
@@ -130,7 +169,27 @@ public class JNICoordinateConversionService extends Object
         throw new CoordinateConversionException("convertSourceToTarget called with null object");
     }
     
-    return jniConvertSourceToTarget(coordinateConversionServicePtr, sourceCoordinates, sourceAccuracy, targetCoordinates, targetAccuracy);
+    ConversionMetrics.Pair metrics = ConversionMetrics.enabled() ? sourceToTargetMetrics : null;
+    long start = metrics != null ? System.nanoTime() : 0;
+    ConvertResults results;
+    try
+    {
+      results = jniConvertSourceToTarget(coordinateConversionServicePtr, sourceCoordinates, sourceAccuracy, targetCoordinates, targetAccuracy);
+    }
+    catch(CoordinateConversionException e)
+    {
+      recordFailure(metrics, 1, start, start);
+      throw e;
+    }
+
+    if (metrics != null)
+    {
+      long nativeEnd = System.nanoTime();
+      String warning = results.getCoordinateTuple().getWarningMessage();
+      recordCall(metrics, 1, 0, (warning != null && warning.length() > 0) ? 1 : 0, start, start, nativeEnd);
+    }
+
+    return results;
   }
 
 
@@ -141,7 +200,437 @@ public class JNICoordinateConversionService extends Object
         throw new CoordinateConversionException("convertTargetToSource called with null object");
     }
     
-    return jniConvertTargetToSource(coordinateConversionServicePtr, targetCoordinates, targetAccuracy, sourceCoordinates, sourceAccuracy);
+    ConversionMetrics.Pair metrics = ConversionMetrics.enabled() ? targetToSourceMetrics : null;
+    long start = metrics != null ? System.nanoTime() : 0;
+    ConvertResults results;
+    try
+    {
+      results = jniConvertTargetToSource(coordinateConversionServicePtr, targetCoordinates, targetAccuracy, sourceCoordinates, sourceAccuracy);
+    }
+    catch(CoordinateConversionException e)
+    {
+      recordFailure(metrics, 1, start, start);
+      throw e;
+    }
+
+    if (metrics != null)
+    {
+      long nativeEnd = System.nanoTime();
+      String warning = results.getCoordinateTuple().getWarningMessage();
+      recordCall(metrics, 1, 0, (warning != null && warning.length() > 0) ? 1 : 0, start, start, nativeEnd);
+    }
+
+    return results;
+  }
+
+
+  /**
+   * Converts a collection of points in a single native call.  The vectors
+   * hold the CoordinateTuple and Accuracy of each point; the results hold
+   * the converted coordinates and accuracies in the same order, with the
+   * error message set in the coordinates of each point which failed.
+   */
+  public synchronized ConvertCollectionResults convertSourceToTargetCollection(Vector<?> sourceCoordinates, Vector<?> sourceAccuracy) throws CoordinateConversionException
+  {
+    if (coordinateConversionServicePtr == 0) 
+    {
+        throw new CoordinateConversionException("convertSourceToTargetCollection called with null object");
+    }
+
+    ConversionMetrics.Pair metrics = ConversionMetrics.enabled() ? sourceToTargetMetrics : null;
+    long start = metrics != null ? System.nanoTime() : 0;
+
+    checkCollectionArguments(sourceCoordinates, sourceAccuracy);
+
+    long nativeStart = metrics != null ? System.nanoTime() : 0;
+    ConvertCollectionResults results;
+    try
+    {
+      results = jniConvertSourceToTargetCollection(coordinateConversionServicePtr, sourceCoordinates, sourceAccuracy, null, null);
+    }
+    catch(CoordinateConversionException e)
+    {
+      recordFailure(metrics, sourceCoordinates.size(), start, nativeStart);
+      throw e;
+    }
+
+    if (metrics != null)
+      recordCall(metrics, results.getCoordinateTuple(), start, nativeStart, System.nanoTime());
+
+    return results;
+  }
+
+
+  /**
+   * Converts a collection of points from the target to the source
+   * coordinate system.  See convertSourceToTargetCollection(Vector, Vector).
+   */
+  public synchronized ConvertCollectionResults convertTargetToSourceCollection(Vector<?> targetCoordinates, Vector<?> targetAccuracy) throws CoordinateConversionException
+  {
+    if (coordinateConversionServicePtr == 0) 
+    {
+        throw new CoordinateConversionException("convertTargetToSourceCollection called with null object");
+    }
+
+    ConversionMetrics.Pair metrics = ConversionMetrics.enabled() ? targetToSourceMetrics : null;
+    long start = metrics != null ? System.nanoTime() : 0;
+
+    checkCollectionArguments(targetCoordinates, targetAccuracy);
+
+    long nativeStart = metrics != null ? System.nanoTime() : 0;
+    ConvertCollectionResults results;
+    try
+    {
+      results = jniConvertTargetToSourceCollection(coordinateConversionServicePtr, targetCoordinates, targetAccuracy, null, null);
+    }
+    catch(CoordinateConversionException e)
+    {
+      recordFailure(metrics, targetCoordinates.size(), start, nativeStart);
+      throw e;
+    }
+
+    if (metrics != null)
+      recordCall(metrics, results.getCoordinateTuple(), start, nativeStart, System.nanoTime());
+
+    return results;
+  }
+
+
+  /**
+   * Converts count numeric points in a single native call.
+   * Geodetic points are (longitude, latitude, height) in radians,
+   * geocentric and local cartesian points are (x, y, z) and map projection
+   * points are (easting, northing).  Point i starts at index i * stride of
+   * both arrays; the arrays may be the same array.  status[i] receives
+   * CONVERT_OK, CONVERT_WARNING or CONVERT_ERROR; failed points are set to NaN.
+   */
+  public synchronized void convertSourceToTarget(double[] sourceCoordinates, double[] targetCoordinates, int count, int stride, int[] status) throws CoordinateConversionException
+  {
+    if (coordinateConversionServicePtr == 0) 
+    {
+        throw new CoordinateConversionException("convertSourceToTarget called with null object");
+    }
+
+    ConversionMetrics.Pair metrics = ConversionMetrics.enabled() ? sourceToTargetMetrics : null;
+    long start = metrics != null ? System.nanoTime() : 0;
+
+    checkArrayArguments(sourceCoordinates, targetCoordinates, count, stride, status);
+
+    long nativeStart = metrics != null ? System.nanoTime() : 0;
+    try
+    {
+      jniConvertSourceToTargetArray(coordinateConversionServicePtr, sourceCoordinates, targetCoordinates, count, stride, status);
+    }
+    catch(CoordinateConversionException e)
+    {
+      recordFailure(metrics, count, start, nativeStart);
+      throw e;
+    }
+
+    if (metrics != null)
+      recordCall(metrics, status, count, start, nativeStart, System.nanoTime());
+  }
+
+
+  public int[] convertSourceToTarget(double[] sourceCoordinates, double[] targetCoordinates, int count, int stride) throws CoordinateConversionException
+  {
+    int[] status = new int[count];
+
+    convertSourceToTarget(sourceCoordinates, targetCoordinates, count, stride, status);
+
+    return status;
+  }
+
+
+  /**
+   * Converts count numeric points from the target to the source coordinate
+   * system.  See convertSourceToTarget(double[], double[], int, int, int[]).
+   */
+  public synchronized void convertTargetToSource(double[] targetCoordinates, double[] sourceCoordinates, int count, int stride, int[] status) throws CoordinateConversionException
+  {
+    if (coordinateConversionServicePtr == 0) 
+    {
+        throw new CoordinateConversionException("convertTargetToSource called with null object");
+    }
+
+    ConversionMetrics.Pair metrics = ConversionMetrics.enabled() ? targetToSourceMetrics : null;
+    long start = metrics != null ? System.nanoTime() : 0;
+
+    checkArrayArguments(targetCoordinates, sourceCoordinates, count, stride, status);
+
+    long nativeStart = metrics != null ? System.nanoTime() : 0;
+    try
+    {
+      jniConvertTargetToSourceArray(coordinateConversionServicePtr, targetCoordinates, sourceCoordinates, count, stride, status);
+    }
+    catch(CoordinateConversionException e)
+    {
+      recordFailure(metrics, count, start, nativeStart);
+      throw e;
+    }
+
+    if (metrics != null)
+      recordCall(metrics, status, count, start, nativeStart, System.nanoTime());
+  }
+
+
+  public int[] convertTargetToSource(double[] targetCoordinates, double[] sourceCoordinates, int count, int stride) throws CoordinateConversionException
+  {
+    int[] status = new int[count];
+
+    convertTargetToSource(targetCoordinates, sourceCoordinates, count, stride, status);
+
+    return status;
+  }
+
+
+  /**
+   * Converts count numeric points held in direct ByteBuffers of packed
+   * native order doubles, laid out as for the double[] conversions.  The
+   * native code works on the buffer memory in place between each buffer's
+   * position and limit, so no data is copied and no objects are created.
+   * A CoordinateConversionException is thrown if the points would run past
+   * the limit of any buffer.
+   * accuracy, if not null, holds a (ce90, le90, se90) triple of doubles
+   * per point: the source accuracy on entry, the target accuracy on return.
+   * status, if not null, receives one native order int per point.
+   * Buffer positions and limits are not changed.
+   */
+  public synchronized void convertSourceToTarget(ByteBuffer sourceCoordinates, ByteBuffer targetCoordinates, int count, int stride, ByteBuffer accuracy, ByteBuffer status) throws CoordinateConversionException
+  {
+    if (coordinateConversionServicePtr == 0) 
+    {
+        throw new CoordinateConversionException("convertSourceToTarget called with null object");
+    }
+
+    ConversionMetrics.Pair metrics = ConversionMetrics.enabled() ? sourceToTargetMetrics : null;
+    long start = metrics != null ? System.nanoTime() : 0;
+
+    checkBufferArguments(sourceCoordinates, targetCoordinates, count, stride, accuracy, status);
+
+    long nativeStart = metrics != null ? System.nanoTime() : 0;
+    try
+    {
+      jniConvertSourceToTargetBuffer(coordinateConversionServicePtr, sourceCoordinates, sourceCoordinates.position(), sourceCoordinates.limit(), 
+                                     targetCoordinates, targetCoordinates.position(), targetCoordinates.limit(), count, stride, 
+                                     accuracy, accuracy == null ? 0 : accuracy.position(), accuracy == null ? 0 : accuracy.limit(), 
+                                     status, status == null ? 0 : status.position(), status == null ? 0 : status.limit());
+    }
+    catch(CoordinateConversionException e)
+    {
+      recordFailure(metrics, count, start, nativeStart);
+      throw e;
+    }
+
+    if (metrics != null)
+      recordCall(metrics, status, count, start, nativeStart, System.nanoTime());
+  }
+
+
+  /**
+   * Converts count numeric points held in direct ByteBuffers from the
+   * target to the source coordinate system.  See
+   * convertSourceToTarget(ByteBuffer, ByteBuffer, int, int, ByteBuffer, ByteBuffer).
+   */
+  public synchronized void convertTargetToSource(ByteBuffer targetCoordinates, ByteBuffer sourceCoordinates, int count, int stride, ByteBuffer accuracy, ByteBuffer status) throws CoordinateConversionException
+  {
+    if (coordinateConversionServicePtr == 0) 
+    {
+        throw new CoordinateConversionException("convertTargetToSource called with null object");
+    }
+
+    ConversionMetrics.Pair metrics = ConversionMetrics.enabled() ? targetToSourceMetrics : null;
+    long start = metrics != null ? System.nanoTime() : 0;
+
+    checkBufferArguments(targetCoordinates, sourceCoordinates, count, stride, accuracy, status);
+
+    long nativeStart = metrics != null ? System.nanoTime() : 0;
+    try
+    {
+      jniConvertTargetToSourceBuffer(coordinateConversionServicePtr, targetCoordinates, targetCoordinates.position(), targetCoordinates.limit(), 
+                                     sourceCoordinates, sourceCoordinates.position(), sourceCoordinates.limit(), count, stride, 
+                                     accuracy, accuracy == null ? 0 : accuracy.position(), accuracy == null ? 0 : accuracy.limit(), 
+                                     status, status == null ? 0 : status.position(), status == null ? 0 : status.limit());
+    }
+    catch(CoordinateConversionException e)
+    {
+      recordFailure(metrics, count, start, nativeStart);
+      throw e;
+    }
+
+    if (metrics != null)
+      recordCall(metrics, status, count, start, nativeStart, System.nanoTime());
+  }
+
+
+  /*
+   * Records a conversion call with the metrics of its direction.  start is
+   * the time the call was entered, nativeStart and nativeEnd those of its
+   * native call; the time spent counting the results is Java time.
+   */
+  private static void recordCall(ConversionMetrics.Pair metrics, long count, long errors, long warnings, long start, long nativeStart, long nativeEnd)
+  {
+    metrics.recordCall(count, errors, warnings, System.nanoTime() - start, nativeEnd - nativeStart);
+  }
+
+
+  private static void recordCall(ConversionMetrics.Pair metrics, Vector<?> coordinates, long start, long nativeStart, long nativeEnd)
+  {
+    long errors = 0;
+    long warnings = 0;
+    int count = coordinates.size();
+    for (int i = 0; i < count; i++)
+    {
+      CoordinateTuple tuple = (CoordinateTuple)coordinates.get(i);
+      String message = tuple.getErrorMessage();
+      if (message != null && message.length() > 0)
+        errors++;
+      else
+      {
+        message = tuple.getWarningMessage();
+        if (message != null && message.length() > 0)
+          warnings++;
+      }
+    }
+
+    recordCall(metrics, count, errors, warnings, start, nativeStart, nativeEnd);
+  }
+
+
+  private static void recordCall(ConversionMetrics.Pair metrics, int[] status, int count, long start, long nativeStart, long nativeEnd)
+  {
+    long errors = 0;
+    long warnings = 0;
+    for (int i = 0; i < count; i++)
+    {
+      if (status[i] == CONVERT_ERROR)
+        errors++;
+      else if (status[i] == CONVERT_WARNING)
+        warnings++;
+    }
+
+    recordCall(metrics, count, errors, warnings, start, nativeStart, nativeEnd);
+  }
+
+
+  /*
+   * Without a status buffer the errors and warnings of the points are not
+   * known, and only the points are counted.
+   */
+  private static void recordCall(ConversionMetrics.Pair metrics, ByteBuffer status, int count, long start, long nativeStart, long nativeEnd)
+  {
+    long errors = 0;
+    long warnings = 0;
+    if (status != null)
+    {
+      int position = status.position();
+      for (int i = 0; i < count; i++)
+      {
+        int pointStatus = status.getInt(position + 4 * i);
+        if (pointStatus == CONVERT_ERROR)
+          errors++;
+        else if (pointStatus == CONVERT_WARNING)
+          warnings++;
+      }
+    }
+
+    recordCall(metrics, count, errors, warnings, start, nativeStart, nativeEnd);
+  }
+
+
+  /*
+   * Records a conversion call which threw, counting all its points as
+   * errors.
+   */
+  private static void recordFailure(ConversionMetrics.Pair metrics, long count, long start, long nativeStart)
+  {
+    if (metrics != null)
+    {
+      long end = System.nanoTime();
+      metrics.recordCall(count, count, 0, end - start, end - nativeStart);
+    }
+  }
+
+
+  private static void checkCollectionArguments(Vector<?> coordinates, Vector<?> accuracy) throws CoordinateConversionException
+  {
+    if (coordinates == null || accuracy == null)
+    {
+        throw new CoordinateConversionException("Collection conversion called with null vector");
+    }
+
+    // The native side pairs each point with its accuracy
+    if (coordinates.size() != accuracy.size())
+    {
+        throw new CoordinateConversionException("Collection conversion coordinate and accuracy vectors differ in size");
+    }
+  }
+
+
+  private static void checkArrayArguments(double[] inputCoordinates, double[] outputCoordinates, int count, int stride, int[] status) throws CoordinateConversionException
+  {
+    if (inputCoordinates == null || outputCoordinates == null || status == null)
+    {
+        throw new CoordinateConversionException("Array conversion called with null array");
+    }
+
+    if (count < 0 || stride <= 0)
+    {
+        throw new CoordinateConversionException("Array conversion called with invalid count or stride");
+    }
+
+    // The native side checks the stride against the coordinate dimensions
+    if (status.length < count)
+    {
+        throw new CoordinateConversionException("Array conversion status array is too small");
+    }
+  }
+
+
+  private static void checkBufferArguments(ByteBuffer inputCoordinates, ByteBuffer outputCoordinates, int count, int stride, ByteBuffer accuracy, ByteBuffer status) throws CoordinateConversionException
+  {
+    if (inputCoordinates == null || outputCoordinates == null)
+    {
+        throw new CoordinateConversionException("Buffer conversion called with null buffer");
+    }
+
+    if (count < 0 || stride <= 0)
+    {
+        throw new CoordinateConversionException("Buffer conversion called with invalid count or stride");
+    }
+
+    // The points are checked against the buffer limits natively, where
+    // the coordinate dimensions are known
+    checkBuffer(inputCoordinates, 8, false);
+    checkBuffer(outputCoordinates, 8, true);
+    if (accuracy != null)
+      checkBuffer(accuracy, 8, true);
+    if (status != null)
+      checkBuffer(status, 4, true);
+  }
+
+
+  private static void checkBuffer(ByteBuffer buffer, int alignment, boolean writable) throws CoordinateConversionException
+  {
+    if (!buffer.isDirect())
+    {
+        throw new CoordinateConversionException("Buffer conversion requires direct buffers");
+    }
+
+    if (writable && buffer.isReadOnly())
+    {
+        throw new CoordinateConversionException("Buffer conversion output buffer is read only");
+    }
+
+    if (buffer.order() != ByteOrder.nativeOrder())
+    {
+        throw new CoordinateConversionException("Buffer conversion requires native byte order buffers");
+    }
+
+    if (buffer.position() % alignment != 0)
+    {
+        throw new CoordinateConversionException("Buffer conversion buffer position is not aligned");
+    }
   }
 
 
@@ -169,6 +658,26 @@ public class JNICoordinateConversionService extends Object
     
     return jniGetServiceVersion(coordinateConversionServicePtr);
   }
+
+
+  /*
+   * Deletes the C++ object when the JNICoordinateConversionService is destroyed or becomes
+   * unreachable.  It must not refer to the JNICoordinateConversionService.
+   */
+  private static class Release implements Runnable
+  {
+    private final long coordinateConversionServicePtr;
+
+    Release(long _coordinateConversionServicePtr)
+    {
+      coordinateConversionServicePtr = _coordinateConversionServicePtr;
+    }
+
+    public void run()
+    {
+      jniDestroy(coordinateConversionServicePtr);
+    }
+  }
 }
 
 // CLASSIFICATION: UNCLASSIFIED
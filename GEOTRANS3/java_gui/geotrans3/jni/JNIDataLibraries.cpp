@@ -0,0 +1,39 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+#include <jni.h>
+#include "JNIDataLibraries.h"
+#include "CoordinateConversionService.h"
+#include "CoordinateConversionException.h"
+#include "ThrowException.h"
+
+
+using namespace MSP::CCS;
+
+
+#ifdef __cplusplus
+extern "C" {
+#endif
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNIDataLibraries_jniPin(JNIEnv *env, jclass cls)
+{
+  try
+  {
+    CoordinateConversionService::pinDataLibraries();
+  }
+  catch( CoordinateConversionException e )
+  {
+    throwException( env, "geotrans3/exception/CoordinateConversionException", e.getMessage() );
+  }
+}
+
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNIDataLibraries_jniUnpin(JNIEnv *env, jclass cls)
+{
+  CoordinateConversionService::unpinDataLibraries();
+}
+
+#ifdef __cplusplus
+}
+#endif
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,57 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * JNIDataLibraries.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.jni;
+
+
+import geotrans3.exception.CoordinateConversionException;
+
+
+/**
+ * Residency of the C++ ellipsoid, datum and geoid libraries.  The libraries
+ * read their data files when the first coordinate conversion service is
+ * created and are deleted with the last one, so an application that closes
+ * every service before creating the next reads the files again each time.
+ * While the libraries are pinned they, and the data they have read, stay in
+ * memory with no service open.
+ *
+ * Setting the environment variable MSPCCS_DATA_RESIDENCY to PINNED pins the
+ * libraries for the life of the process.
+ */
+public final class JNIDataLibraries
+{
+  private static native void jniPin() throws CoordinateConversionException;
+  private static native void jniUnpin();
+
+
+  private JNIDataLibraries()
+  {
+  }
+
+
+  /**
+   * Loads the data libraries, if they are not loaded, and keeps them
+   * resident until unpin() has been called once for each call to pin().
+   */
+  public static void pin() throws CoordinateConversionException
+  {
+    jniPin();
+  }
+
+
+  /**
+   * Removes a pin added by pin().  When the last pin is removed, libraries
+   * not used by any service are deleted.
+   */
+  public static void unpin()
+  {
+    jniUnpin();
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
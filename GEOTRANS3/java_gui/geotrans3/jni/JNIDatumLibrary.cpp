@@ -6,6 +6,7 @@
 #include "DatumLibrary.h"
 #include "CoordinateConversionException.h"
 #include "ThrowException.h"
+#include "JNIRegistry.h"
 
 
 using namespace MSP::CCS;
@@ -161,14 +162,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIDatumLibrary_jniGetDatumInfo(JNI
       throwException( env, "geotrans3/exception/CoordinateConversionException", e.getMessage() );
     }
 
-    cls = env->FindClass( "geotrans3/misc/Info" );
+    cls = jniClass( JNIClass::info );
     if( cls == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Info class not found." );
         return NULL;
     }
 
-    cid = env->GetMethodID( cls, "<init>", "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;)V" );
+    cid = jniMethodID( JNIMethod::infoDatumInit );
     if( cid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Info method id not found." );
@@ -210,14 +211,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIDatumLibrary_jniGetDatumValidRec
       throwException( env, "geotrans3/exception/CoordinateConversionException", e.getMessage() );
     }
 
-    cls = env->FindClass( "geotrans3/misc/AOI" );
+    cls = jniClass( JNIClass::aoi );
     if( cls == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: AOI class not found." );
         return NULL;
     }
 
-    cid = env->GetMethodID( cls, "<init>", "(DDDD)V" );
+    cid = jniMethodID( JNIMethod::aoiInit );
     if( cid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: AOI method id not found." );
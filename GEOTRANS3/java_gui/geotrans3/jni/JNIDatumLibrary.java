@@ -18,7 +18,13 @@ import geotrans3.misc.Info;
 import geotrans3.exception.CoordinateConversionException;
 
 
-public class JNIDatumLibrary
+/**
+ * The C++ DatumLibrary belongs to the JNICoordinateConversionService it was
+ * obtained from, and is deleted with it.  A JNIDatumLibrary created from a
+ * service keeps that service from being garbage collected until close() is
+ * called.
+ */
+public class JNIDatumLibrary implements AutoCloseable
 {
   private native void jniDefineDatum(long _datumLibraryPtr, int datumType, java.lang.String datumCode, java.lang.String datumName,
           java.lang.String ellipsoidCode,
@@ -38,6 +44,9 @@ public class JNIDatumLibrary
   
   // Holds the C++ DatumLibrary object pointer
   private long datumLibraryPtr;
+
+  // Service that owns the C++ DatumLibrary, if known
+  private JNICoordinateConversionService owner;
   
   
   /**
@@ -47,6 +56,28 @@ public class JNIDatumLibrary
   {
     datumLibraryPtr = _datumLibraryPtr;
   }
+
+
+  /**
+   * Assigns the C++ DatumLibrary object of a JNICoordinateConversionService,
+   * which is kept reachable while this object is open.
+   */
+  public JNIDatumLibrary(JNICoordinateConversionService _owner) throws CoordinateConversionException
+  {
+    datumLibraryPtr = _owner.getDatumLibrary();
+    owner = _owner;
+  }
+
+
+  /**
+   * Detaches this object from the C++ DatumLibrary, which is not deleted, and
+   * from its service.
+   */
+  public synchronized void close()
+  {
+    datumLibraryPtr = 0;
+    owner = null;
+  }
   
   
   public synchronized void defineDatum(int datumType, java.lang.String datumCode, java.lang.String datumName,
@@ -62,9 +93,17 @@ public class JNIDatumLibrary
         throw new CoordinateConversionException("defineDatum called with null object");
     }
     
-    jniDefineDatum(datumLibraryPtr, datumType, datumCode, datumName, ellipsoidCode,
-                   deltaX, deltaY, deltaZ, sigmaX, sigmaY, sigmaZ,
-                   westLon, eastLon, southLat, northLat, rotationX, rotationY, rotationZ, scaleFactor);
+    try
+    {
+      jniDefineDatum(datumLibraryPtr, datumType, datumCode, datumName, ellipsoidCode,
+                     deltaX, deltaY, deltaZ, sigmaX, sigmaY, sigmaZ,
+                     westLon, eastLon, southLat, northLat, rotationX, rotationY, rotationZ, scaleFactor);
+    }
+    finally
+    {
+      // Cached services may hold the replaced datum table's indexes
+      ConversionServiceCache.libraryChanged();
+    }
   }
   
   
@@ -75,7 +114,14 @@ public class JNIDatumLibrary
         throw new CoordinateConversionException("removeDatum called with null object");
     }
     
-    jniRemoveDatum(datumLibraryPtr, datumCode);
+    try
+    {
+      jniRemoveDatum(datumLibraryPtr, datumCode);
+    }
+    finally
+    {
+      ConversionServiceCache.libraryChanged();
+    }
   }
 
 
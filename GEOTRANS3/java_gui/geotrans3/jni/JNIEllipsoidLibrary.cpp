@@ -6,6 +6,7 @@
 #include "EllipsoidLibrary.h"
 #include "CoordinateConversionException.h"
 #include "ThrowException.h"
+#include "JNIRegistry.h"
 
 
 using namespace MSP::CCS;
@@ -147,14 +148,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIEllipsoidLibrary_jniGetEllipsoid
       throwException( env, "geotrans3/exception/CoordinateConversionException", e.getMessage() );
     }
 
-    cls = env->FindClass( "geotrans3/misc/Info" );
+    cls = jniClass( JNIClass::info );
     if( cls == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Info class not found." );
         return NULL;
     }
 
-    cid = env->GetMethodID( cls, "<init>", "(Ljava/lang/String;Ljava/lang/String;)V" );
+    cid = jniMethodID( JNIMethod::infoInit );
     if( cid == NULL )
     {
         throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Info method id not found." );
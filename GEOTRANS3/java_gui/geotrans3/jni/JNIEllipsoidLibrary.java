@@ -17,7 +17,13 @@ import geotrans3.misc.Info;
 import geotrans3.exception.CoordinateConversionException;
 
 
-public class JNIEllipsoidLibrary
+/**
+ * The C++ EllipsoidLibrary belongs to the JNICoordinateConversionService it was
+ * obtained from, and is deleted with it.  A JNIEllipsoidLibrary created from a
+ * service keeps that service from being garbage collected until close() is
+ * called.
+ */
+public class JNIEllipsoidLibrary implements AutoCloseable
 {
   private native void jniDefineEllipsoid(long _ellipsoidLibraryPtr, java.lang.String ellipsoidCode, java.lang.String ellipsoidName,
                                         double a, double f)throws CoordinateConversionException;
@@ -29,6 +35,9 @@ public class JNIEllipsoidLibrary
     
   // Holds the C++ EllipsoidLibrary object pointer
   private long ellipsoidLibraryPtr;
+
+  // Service that owns the C++ EllipsoidLibrary, if known
+  private JNICoordinateConversionService owner;
   
   
   /**
@@ -38,6 +47,28 @@ public class JNIEllipsoidLibrary
   {
     ellipsoidLibraryPtr = _ellipsoidLibraryPtr;
   }
+
+
+  /**
+   * Assigns the C++ EllipsoidLibrary object of a JNICoordinateConversionService,
+   * which is kept reachable while this object is open.
+   */
+  public JNIEllipsoidLibrary(JNICoordinateConversionService _owner) throws CoordinateConversionException
+  {
+    ellipsoidLibraryPtr = _owner.getEllipsoidLibrary();
+    owner = _owner;
+  }
+
+
+  /**
+   * Detaches this object from the C++ EllipsoidLibrary, which is not deleted, and
+   * from its service.
+   */
+  public synchronized void close()
+  {
+    ellipsoidLibraryPtr = 0;
+    owner = null;
+  }
   
   
   public synchronized void defineEllipsoid(java.lang.String ellipsoidCode, java.lang.String ellipsoidName,
@@ -48,7 +79,15 @@ public class JNIEllipsoidLibrary
         throw new CoordinateConversionException("defineEllipsoid called with null object");
     }
     
-    jniDefineEllipsoid(ellipsoidLibraryPtr, ellipsoidCode, ellipsoidName, a,  f);
+    try
+    {
+      jniDefineEllipsoid(ellipsoidLibraryPtr, ellipsoidCode, ellipsoidName, a,  f);
+    }
+    finally
+    {
+      // Cached services may hold the replaced ellipsoid's parameters
+      ConversionServiceCache.libraryChanged();
+    }
   }
 
 
@@ -59,7 +98,14 @@ public class JNIEllipsoidLibrary
         throw new CoordinateConversionException("removeEllipsoid called with null object");
     }
     
-    jniRemoveEllipsoid(ellipsoidLibraryPtr, ellipsoidCode);
+    try
+    {
+      jniRemoveEllipsoid(ellipsoidLibraryPtr, ellipsoidCode);
+    }
+    finally
+    {
+      ConversionServiceCache.libraryChanged();
+    }
   }
   
 
@@ -3,6 +3,8 @@
 #include <jni.h>
 #include "fiomeths.h"
 #include "ThrowException.h"
+#include "NativeAllocations.h"
+#include "JNIRegistry.h"
 #include "CoordinateConversionService.h"
 #include "CoordinateConversionException.h"
 #include "CoordinateSystemParameters.h"
@@ -31,7 +33,7 @@ extern "C" {
 #endif
 
 
-JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniFiomethsCreate(JNIEnv *env, jobject obj, jstring _fileName)
+JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniFiomethsCreate(JNIEnv *env, jobject obj, jstring _fileName, jboolean useMemoryMapping)
 {
   // Input file name
   const char* fileName = env->GetStringUTFChars( _fileName, NULL );
@@ -43,7 +45,9 @@ JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniFiomethsCreate(JNIEnv
 
   try
   {
-    Fiomeths* fiomeths = new Fiomeths( fileName );
+    Fiomeths* fiomeths = new Fiomeths( fileName, useMemoryMapping == JNI_TRUE );
+
+    nativeAllocated( NativeAllocation::fiomeths, sizeof( Fiomeths ) );
 
     env->ReleaseStringUTFChars( _fileName, fileName );
 
@@ -64,6 +68,8 @@ JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniFiomethsCreateExampleF
   {
     Fiomeths* fiomeths = new Fiomeths();
 
+    nativeAllocated( NativeAllocation::fiomeths, sizeof( Fiomeths ) );
+
     return (jlong)fiomeths; 
   }
   catch(CoordinateConversionException e)
@@ -75,7 +81,7 @@ JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniFiomethsCreateExampleF
 }
 
 
-JNIEXPORT void JNICALL Java_geotrans3_jni_JNIFiomeths_jniFiomethsDestroy(JNIEnv *env, jobject obj, jlong fiomethsPtr)
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNIFiomeths_jniFiomethsDestroy(JNIEnv *env, jclass cls, jlong fiomethsPtr)
 {
   Fiomeths* fiomeths = ( Fiomeths* )fiomethsPtr;
 
@@ -83,6 +89,8 @@ JNIEXPORT void JNICALL Java_geotrans3_jni_JNIFiomeths_jniFiomethsDestroy(JNIEnv
   {
     delete fiomeths;
     fiomeths = 0;
+
+    nativeReleased( NativeAllocation::fiomeths, sizeof( Fiomeths ) );
   }
 }
 
@@ -195,14 +203,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           MapProjection3Parameters* parameters = ( dynamic_cast< MapProjection3Parameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/MapProjection3Parameters" );
+          cls = jniClass( JNIClass::mapProjection3Parameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection3Parameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDD)V" );
+          mid = jniMethodID( JNIMethod::mapProjection3ParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection3Parameters method id not found." );
@@ -225,14 +233,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           MapProjection4Parameters* parameters = ( dynamic_cast< MapProjection4Parameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/MapProjection4Parameters" );
+          cls = jniClass( JNIClass::mapProjection4Parameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection4Parameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDDD)V" );
+          mid = jniMethodID( JNIMethod::mapProjection4ParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection4Parameters method id not found." );
@@ -250,14 +258,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           MapProjection5Parameters* parameters = ( dynamic_cast< MapProjection5Parameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/MapProjection5Parameters" );
+          cls = jniClass( JNIClass::mapProjection5Parameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection5Parameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDDDD)V" );
+          mid = jniMethodID( JNIMethod::mapProjection5ParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection5Parameters method id not found." );
@@ -275,14 +283,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           MapProjection6Parameters* parameters = ( dynamic_cast< MapProjection6Parameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/MapProjection6Parameters" );
+          cls = jniClass( JNIClass::mapProjection6Parameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection6Parameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDDDDD)V" );
+          mid = jniMethodID( JNIMethod::mapProjection6ParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MapProjection6Parameters method id not found." );
@@ -299,14 +307,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           EquidistantCylindricalParameters* parameters = ( dynamic_cast< EquidistantCylindricalParameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/EquidistantCylindricalParameters" );
+          cls = jniClass( JNIClass::equidistantCylindricalParameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: EquidistantCylindricalParameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDDD)V" );
+          mid = jniMethodID( JNIMethod::equidistantCylindricalParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: EquidistantCylindricalParameters method id not found." );
@@ -322,14 +330,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           GeodeticParameters* parameters = ( dynamic_cast< GeodeticParameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/GeodeticParameters" );
+          cls = jniClass( JNIClass::geodeticParameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: GeodeticParameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(II)V" );
+          mid = jniMethodID( JNIMethod::geodeticParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: GeodeticParameters method id not found." );
@@ -346,14 +354,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           LocalCartesianParameters* parameters = ( dynamic_cast< LocalCartesianParameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/LocalCartesianParameters" );
+          cls = jniClass( JNIClass::localCartesianParameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: LocalCartesianParameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDDD)V" );
+          mid = jniMethodID( JNIMethod::localCartesianParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: LocalCartesianParameters method id not found." );
@@ -369,14 +377,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           MercatorStandardParallelParameters* parameters = ( dynamic_cast< MercatorStandardParallelParameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/MercatorStandardParallelParameters" );
+          cls = jniClass( JNIClass::mercatorStandardParallelParameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MercatorStandardParallelParameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDDDD)V" );
+          mid = jniMethodID( JNIMethod::mercatorStandardParallelParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MercatorStandardParallelParameters method id not found." );
@@ -393,14 +401,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           MercatorScaleFactorParameters* parameters = ( dynamic_cast< MercatorScaleFactorParameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/MercatorScaleFactorParameters" );
+          cls = jniClass( JNIClass::mercatorScaleFactorParameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MercatorScaleFactorParameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDDD)V" );
+          mid = jniMethodID( JNIMethod::mercatorScaleFactorParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: MercatorScaleFactorParameters method id not found." );
@@ -417,14 +425,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           NeysParameters* parameters = ( dynamic_cast< NeysParameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/NeysParameters" );
+          cls = jniClass( JNIClass::neysParameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: NeysParameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDDDD)V" );
+          mid = jniMethodID( JNIMethod::neysParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: NeysParameters method id not found." );
@@ -441,14 +449,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           ObliqueMercatorParameters* parameters = ( dynamic_cast< ObliqueMercatorParameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/ObliqueMercatorParameters" );
+          cls = jniClass( JNIClass::obliqueMercatorParameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ObliqueMercatorParameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDDDDDDD)V" );
+          mid = jniMethodID( JNIMethod::obliqueMercatorParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: ObliqueMercatorParameters method id not found." );
@@ -465,14 +473,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           PolarStereographicStandardParallelParameters* parameters = ( dynamic_cast< PolarStereographicStandardParallelParameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/PolarStereographicStandardParallelParameters" );
+          cls = jniClass( JNIClass::polarStereographicStandardParallelParameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: PolarStereographicStandardParallelParameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDDD)V" );
+          mid = jniMethodID( JNIMethod::polarStereographicStandardParallelParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: PolarStereographicStandardParallelParameters method id not found." );
@@ -488,14 +496,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           PolarStereographicScaleFactorParameters* parameters = ( dynamic_cast< PolarStereographicScaleFactorParameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/PolarStereographicScaleFactorParameters" );
+          cls = jniClass( JNIClass::polarStereographicScaleFactorParameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: PolarStereographicScaleFactorParameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IDDCDD)V" );
+          mid = jniMethodID( JNIMethod::polarStereographicScaleFactorParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: PolarStereographicScaleFactorParameters method id not found." );
@@ -511,14 +519,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         {
           UTMParameters* parameters = ( dynamic_cast< UTMParameters* >( coordinateSystemParameters ) );
 
-          cls = env->FindClass( "geotrans3/parameters/UTMParameters" );
+          cls = jniClass( JNIClass::utmParameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: UTMParameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(IJJ)V" );
+          mid = jniMethodID( JNIMethod::utmParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: UTMParameters method id not found." );
@@ -532,14 +540,14 @@ JNIEXPORT jobject JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetCoordinateSystemP
         }
         default:
 
-          cls = env->FindClass( "geotrans3/parameters/CoordinateSystemParameters" );
+          cls = jniClass( JNIClass::coordinateSystemParameters );
           if( cls == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: CoordinateSystemParameters class not found." );
               return NULL;
           }
 
-          mid = env->GetMethodID( cls, "<init>", "(I)V" );
+          mid = jniMethodID( JNIMethod::coordinateSystemParametersInit );
           if( mid == NULL )
           {
               throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: CoordinateSystemParameters method id not found." );
@@ -731,6 +739,74 @@ JNIEXPORT void JNICALL Java_geotrans3_jni_JNIFiomeths_jniSetGeodeticCoordinateOr
   }
 }
 
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNIFiomeths_jniSetNumThreads(JNIEnv *env, jobject obj, jlong fiomethsPtr, jint numThreads)
+{
+  Fiomeths* fiomeths = ( Fiomeths* )fiomethsPtr;
+  if( fiomeths )
+  {
+    fiomeths->setNumThreads( numThreads );
+  }
+}
+
+
+JNIEXPORT jint JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetNumThreads(JNIEnv *env, jobject obj, jlong fiomethsPtr)
+{
+  Fiomeths* fiomeths = ( Fiomeths* )fiomethsPtr;
+  if( fiomeths )
+  {
+    return fiomeths->getNumThreads();
+  }
+  else
+    return 1;
+}
+
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNIFiomeths_jniCancelConvertFile(JNIEnv *env, jobject obj, jlong fiomethsPtr)
+{
+  Fiomeths* fiomeths = ( Fiomeths* )fiomethsPtr;
+  if( fiomeths )
+  {
+    fiomeths->cancelConversion();
+  }
+}
+
+
+JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetFileSize(JNIEnv *env, jobject obj, jlong fiomethsPtr)
+{
+  Fiomeths* fiomeths = ( Fiomeths* )fiomethsPtr;
+  if( fiomeths )
+  {
+    return fiomeths->getFileSize();
+  }
+  else
+    return 0;
+}
+
+
+JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetBytesRead(JNIEnv *env, jobject obj, jlong fiomethsPtr)
+{
+  Fiomeths* fiomeths = ( Fiomeths* )fiomethsPtr;
+  if( fiomeths )
+  {
+    return fiomeths->getBytesRead();
+  }
+  else
+    return 0;
+}
+
+
+JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetNumConverted(JNIEnv *env, jobject obj, jlong fiomethsPtr)
+{
+  Fiomeths* fiomeths = ( Fiomeths* )fiomethsPtr;
+  if( fiomeths )
+  {
+    return fiomeths->getNumConverted();
+  }
+  else
+    return 0;
+}
+
 #ifdef __cplusplus
 }
 #endif
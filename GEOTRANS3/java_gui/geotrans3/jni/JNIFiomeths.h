@@ -12,10 +12,10 @@ extern "C" {
 /*
  * Class:     geotrans3_jni_JNIFiomeths
  * Method:    jniFiomethsCreate
- * Signature: (Ljava/lang/String;)J
+ * Signature: (Ljava/lang/String;Z)J
  */
 JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniFiomethsCreate
-  (JNIEnv *, jobject, jstring);
+  (JNIEnv *, jobject, jstring, jboolean);
 
 /*
  * Class:     geotrans3_jni_JNIFiomeths
@@ -31,7 +31,7 @@ JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniFiomethsCreateExampleF
  * Signature: (J)V
  */
 JNIEXPORT void JNICALL Java_geotrans3_jni_JNIFiomeths_jniFiomethsDestroy
-  (JNIEnv *, jobject, jlong);
+  (JNIEnv *, jclass, jlong);
 
 /*
  * Class:     geotrans3_jni_JNIFiomeths
@@ -185,6 +185,54 @@ JNIEXPORT void JNICALL Java_geotrans3_jni_JNIFiomeths_jniWriteExampleCoord
 JNIEXPORT void JNICALL Java_geotrans3_jni_JNIFiomeths_jniSetGeodeticCoordinateOrder
   (JNIEnv *, jobject, jlong);
 
+/*
+ * Class:     geotrans3_jni_JNIFiomeths
+ * Method:    jniSetNumThreads
+ * Signature: (JI)V
+ */
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNIFiomeths_jniSetNumThreads
+  (JNIEnv *, jobject, jlong, jint);
+
+/*
+ * Class:     geotrans3_jni_JNIFiomeths
+ * Method:    jniGetNumThreads
+ * Signature: (J)I
+ */
+JNIEXPORT jint JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetNumThreads
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     geotrans3_jni_JNIFiomeths
+ * Method:    jniCancelConvertFile
+ * Signature: (J)V
+ */
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNIFiomeths_jniCancelConvertFile
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     geotrans3_jni_JNIFiomeths
+ * Method:    jniGetFileSize
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetFileSize
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     geotrans3_jni_JNIFiomeths
+ * Method:    jniGetBytesRead
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetBytesRead
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     geotrans3_jni_JNIFiomeths
+ * Method:    jniGetNumConverted
+ * Signature: (J)J
+ */
+JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIFiomeths_jniGetNumConverted
+  (JNIEnv *, jobject, jlong);
+
 #ifdef __cplusplus
 }
 #endif
@@ -14,15 +14,17 @@ import geotrans3.parameters.CoordinateSystemParameters;
 
 
 /**
+ * The C++ Fiomeths object is deleted by destroy() or close(), or, if
+ * neither is called, after the JNIFiomeths becomes unreachable.
  *
  * @author  amyc
  * @version 
  */
-public class JNIFiomeths extends Object
+public class JNIFiomeths extends Object implements AutoCloseable
 {
   private native long jniFiomethsCreateExampleFile() throws CoordinateConversionException;
-  private native long jniFiomethsCreate(String fileName) throws CoordinateConversionException;
-  private native void jniFiomethsDestroy(long _fiomethsPtr);
+  private native long jniFiomethsCreate(String fileName, boolean useMemoryMapping) throws CoordinateConversionException;
+  private static native void jniFiomethsDestroy(long _fiomethsPtr);
   private native void jniCloseInputFile(long _fiomethsPtr);
   private native void jniCloseOutputFile(long _fiomethsPtr);
   private native void jniConvertFile(long _fiomethsPtr) throws CoordinateConversionException;
@@ -44,9 +46,26 @@ public class JNIFiomeths extends Object
   
   private native void jniWriteExampleCoord(long _fiomethsPtr);
   private native void jniSetGeodeticCoordinateOrder(long _fiomethsPtr, boolean outputLatitudeLongitudeOrder);
+  private native void jniSetNumThreads(long _fiomethsPtr, int numThreads);
+  private native int jniGetNumThreads(long _fiomethsPtr);
+  private native void jniCancelConvertFile(long _fiomethsPtr);
+  private native long jniGetFileSize(long _fiomethsPtr);
+  private native long jniGetBytesRead(long _fiomethsPtr);
+  private native long jniGetNumConverted(long _fiomethsPtr);
 
   // Holds the C++ Fiomeths object pointer
   private long fiomethsPtr;
+
+  // Deletes the C++ Fiomeths object, once
+  private final JNINativeAllocations.Cleanable cleanable;
+
+  // Conversion started by startConvertFile, and its start and finish times
+  private Thread conversionThread;
+  private volatile long startTime;
+  private volatile long finishTime;
+
+  // Output coordinate type, for the conversion metrics
+  private int targetCoordinateType = -1;
   
   
   /** Creates new JNIFiomeths */
@@ -60,30 +79,56 @@ public class JNIFiomeths extends Object
     {
        throw new Exception(e.getMessage());
     }
+
+    cleanable = JNINativeAllocations.register(this, new Release(fiomethsPtr));
   }
   
   
   public JNIFiomeths(String fileName) throws Exception
+  {
+    this(fileName, true);
+  }
+  
+  
+  /**
+   * Creates a JNIFiomeths reading fileName.  When useMemoryMapping is true
+   * the input file is mapped into memory where the platform supports it;
+   * otherwise it is read in blocks.
+   */
+  public JNIFiomeths(String fileName, boolean useMemoryMapping) throws Exception
   {
     try
     {
-      fiomethsPtr = jniFiomethsCreate(fileName);
+      fiomethsPtr = jniFiomethsCreate(fileName, useMemoryMapping);
     }
     catch(Exception e)
     {
        throw new Exception(e.getMessage());
     }
+
+    cleanable = JNINativeAllocations.register(this, new Release(fiomethsPtr));
   }
   
   
   public synchronized void destroy()
   {
+    stopConversion();
+
     if(fiomethsPtr != 0)
     {
-      jniFiomethsDestroy(fiomethsPtr);
       fiomethsPtr = 0;
+      cleanable.clean();
     }
   }
+
+
+  /**
+   * Same as destroy().
+   */
+  public void close()
+  {
+    destroy();
+  }
   
   
   public synchronized void closeInputFile() throws CoordinateConversionException
@@ -93,6 +138,7 @@ public class JNIFiomeths extends Object
         throw new CoordinateConversionException("closeInputFile called with null object");
     }
     
+    stopConversion();
     jniCloseInputFile(fiomethsPtr);  
   }
   
@@ -104,6 +150,7 @@ public class JNIFiomeths extends Object
         throw new CoordinateConversionException("closeOutputFile called with null object");
     }
     
+    stopConversion();
     jniCloseOutputFile(fiomethsPtr);  
   }
   
@@ -114,8 +161,204 @@ public class JNIFiomeths extends Object
     {
         throw new CoordinateConversionException("convertFile called with null object");
     }
+    if (conversionThread != null)
+    {
+        throw new CoordinateConversionException("convertFile called after startConvertFile");
+    }
+    
+    ConversionMetrics.Pair metrics = getFileMetrics(fiomethsPtr);
+    startTime = System.nanoTime();
+    finishTime = 0;
+    try
+    {
+      jniConvertFile(fiomethsPtr);  
+    }
+    finally
+    {
+      finishTime = System.nanoTime();
+      recordFileRun(metrics, fiomethsPtr);
+    }
+  }
+  
+  
+  /**
+   * Converts the file on a background thread and returns immediately.
+   * While the conversion runs, its progress can be polled with getProgress()
+   * and it can be stopped with cancelConvertFile(); the other methods should
+   * not be called until it has finished.
+   *
+   * @param listener   notified on the conversion thread when the conversion
+   *                   finishes, may be null
+   */
+  public synchronized void startConvertFile(final FileConversionListener listener) throws CoordinateConversionException
+  {
+    if (fiomethsPtr == 0) 
+    {
+        throw new CoordinateConversionException("startConvertFile called with null object");
+    }
+    if (conversionThread != null)
+    {
+        throw new CoordinateConversionException("startConvertFile called more than once");
+    }
+
+    final long ptr = fiomethsPtr;
+    final ConversionMetrics.Pair metrics = getFileMetrics(ptr);
+    startTime = System.nanoTime();
+    finishTime = 0;
+    conversionThread = new Thread(new Runnable()
+    {
+      public void run()
+      {
+        CoordinateConversionException exception = null;
+        try
+        {
+          jniConvertFile(ptr);
+        }
+        catch(CoordinateConversionException e)
+        {
+          exception = e;
+        }
+        catch(Throwable e)
+        {
+          exception = new CoordinateConversionException("File conversion failed: " + e);
+          throw e;
+        }
+        finally
+        {
+          try
+          {
+            finishTime = System.nanoTime();
+            recordFileRun(metrics, ptr);
+          }
+          finally
+          {
+            if (listener != null)
+              listener.conversionFinished(exception);
+          }
+        }
+      }
+    }, "File Conversion");
+    conversionThread.setDaemon(true);
+    conversionThread.start();
+  }
+  
+  
+  /**
+   * Asks a conversion started by startConvertFile to stop.  The request is
+   * checked between chunks of the input file; the conversion then closes
+   * both files and finishes with a CoordinateConversionException.
+   */
+  public synchronized void cancelConvertFile() throws CoordinateConversionException
+  {
+    if (fiomethsPtr == 0) 
+    {
+        throw new CoordinateConversionException("cancelConvertFile called with null object");
+    }
     
-    jniConvertFile(fiomethsPtr);  
+    jniCancelConvertFile(fiomethsPtr);  
+  }
+  
+  
+  /**
+   * Returns true while a conversion started by startConvertFile is running.
+   */
+  public synchronized boolean isConverting()
+  {
+    return conversionThread != null && finishTime == 0;
+  }
+  
+  
+  /**
+   * Waits for a conversion started by startConvertFile to finish.
+   */
+  public void waitForConvertFile() throws InterruptedException
+  {
+    Thread thread;
+    synchronized (this)
+    {
+      thread = conversionThread;
+    }
+    if (thread != null)
+      thread.join();
+  }
+  
+  
+  /**
+   * Returns the progress of the current or last conversion.
+   */
+  public synchronized FileConversionProgress getProgress() throws CoordinateConversionException
+  {
+    if (fiomethsPtr == 0) 
+    {
+        throw new CoordinateConversionException("getProgress called with null object");
+    }
+
+    long finish = finishTime;
+    double elapsedTime = 0;
+    if (startTime != 0)
+      elapsedTime = ((finish != 0 ? finish : System.nanoTime()) - startTime) / 1.0e9;
+
+    return new FileConversionProgress(jniGetFileSize(fiomethsPtr), jniGetBytesRead(fiomethsPtr),
+                                      jniGetNumConverted(fiomethsPtr), elapsedTime, finish != 0);
+  }
+  
+  
+  /*
+   * Returns the conversion metrics of the input and output coordinate
+   * types, or null if conversions are not being measured.
+   */
+  private ConversionMetrics.Pair getFileMetrics(long ptr)
+  {
+    if (!ConversionMetrics.enabled())
+      return null;
+
+    try
+    {
+      return ConversionMetrics.getInstance().getPair(jniGetCoordinateSystemParameters(ptr).getCoordinateType(), targetCoordinateType);
+    }
+    catch(CoordinateConversionException e)
+    {
+      return null;
+    }
+  }
+
+
+  /*
+   * Records the points processed by the conversion which has just
+   * finished, and its time.
+   */
+  private void recordFileRun(ConversionMetrics.Pair metrics, long ptr)
+  {
+    if (metrics != null)
+      metrics.recordFileRun(jniGetNumProcessed(ptr), jniGetNumErrors(ptr), jniGetNumWarnings(ptr), finishTime - startTime);
+  }
+  
+  
+  /*
+   * Cancels a conversion started by startConvertFile and waits for it to
+   * finish, so the native object can be closed or destroyed.
+   */
+  private void stopConversion()
+  {
+    if (conversionThread == null || fiomethsPtr == 0)
+      return;
+
+    jniCancelConvertFile(fiomethsPtr);
+
+    boolean interrupted = false;
+    while (conversionThread.isAlive())
+    {
+      try
+      {
+        conversionThread.join();
+      }
+      catch(InterruptedException e)
+      {
+        interrupted = true;
+      }
+    }
+    if (interrupted)
+      Thread.currentThread().interrupt();
   }
   
   
@@ -214,7 +457,10 @@ public class JNIFiomeths extends Object
         throw new CoordinateConversionException("setOutputFilename called with null object");
     }
     
-    return jniSetOutputFilename(fiomethsPtr, fileName, targetDatumCode, targetParameters);  
+    long result = jniSetOutputFilename(fiomethsPtr, fileName, targetDatumCode, targetParameters);  
+    targetCoordinateType = targetParameters.getCoordinateType();
+
+    return result;
   }
   
   
@@ -312,6 +558,57 @@ public class JNIFiomeths extends Object
     
     jniSetGeodeticCoordinateOrder(fiomethsPtr, outputLatitudeLongitudeOrder);  
   }
+
+
+  /**
+   * Sets the number of worker threads used by convertFile. With more than
+   * one thread the file is read in line-aligned chunks which are converted
+   * in parallel and written in their original order.
+   *
+   * @param numThreads   number of worker threads; 1 (the default) converts
+   *                     on the calling thread, less than 1 uses one worker
+   *                     per available processor
+   */
+  public synchronized void setNumThreads(int numThreads) throws CoordinateConversionException
+  {
+    if (fiomethsPtr == 0)
+    {
+        throw new CoordinateConversionException("setNumThreads called with null object");
+    }
+
+    jniSetNumThreads(fiomethsPtr, numThreads);
+  }
+
+
+  public synchronized int getNumThreads() throws CoordinateConversionException
+  {
+    if (fiomethsPtr == 0)
+    {
+        throw new CoordinateConversionException("getNumThreads called with null object");
+    }
+
+    return jniGetNumThreads(fiomethsPtr);
+  }
+
+
+  /*
+   * Deletes the C++ object when the JNIFiomeths is destroyed or becomes
+   * unreachable.  It must not refer to the JNIFiomeths.
+   */
+  private static class Release implements Runnable
+  {
+    private final long fiomethsPtr;
+
+    Release(long _fiomethsPtr)
+    {
+      fiomethsPtr = _fiomethsPtr;
+    }
+
+    public void run()
+    {
+      jniFiomethsDestroy(fiomethsPtr);
+    }
+  }
 }
 
 // CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,189 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+#include <jni.h>
+#include <vector>
+#include "JNIGeoidLibrary.h"
+#include "GeoidLibrary.h"
+#include "HeightType.h"
+#include "CoordinateConversionException.h"
+#include "ThrowException.h"
+
+
+using namespace MSP::CCS;
+
+
+/*
+ * Per-point status codes written by the height conversions.  These must
+ * match the CONVERT_* constants in JNIGeoidLibrary.java.
+ */
+static const jint HEIGHT_CONVERT_OK    = 0;
+static const jint HEIGHT_CONVERT_ERROR = 2;
+
+
+static void convertHeights( JNIEnv *env, GeoidLibrary* geoidLibrary, bool toEllipsoid, jint heightType,
+                            jdoubleArray _longitude, jdoubleArray _latitude, jdoubleArray _inputHeight,
+                            jdoubleArray _outputHeight, jint count, jintArray _status )
+{
+/*
+ *  The function convertHeights converts 'count' heights held in primitive
+ *  double arrays.  The arrays are copied to and from native buffers, so
+ *  no array is pinned while the geoid data is read or the heights are
+ *  converted.
+ *
+ *  geoidLibrary  : Library used for the conversion              (input)
+ *  toEllipsoid   : Converts geoid to ellipsoid heights if true  (input)
+ *  heightType    : Geoid model                                  (input)
+ *  _longitude    : Longitudes, in radians                       (input)
+ *  _latitude     : Latitudes, in radians                        (input)
+ *  _inputHeight  : Heights to be converted, in meters           (input)
+ *  _outputHeight : Converted heights, in meters                 (output)
+ *  count         : Number of points                             (input)
+ *  _status       : Per-point conversion status                  (output)
+ */
+
+  if( count <= 0 )
+    return;
+
+  if( env->GetArrayLength( _longitude ) < count || env->GetArrayLength( _latitude ) < count ||
+      env->GetArrayLength( _inputHeight ) < count || env->GetArrayLength( _outputHeight ) < count ||
+      env->GetArrayLength( _status ) < count )
+  {
+    throwException( env, "geotrans3/exception/CoordinateConversionException", "Height conversion arrays are too small for the point count\n" );
+    return;
+  }
+
+  // Load the geoid model, which may read its file, before the conversion.
+  // A model which cannot be loaded fails each point below.
+  try
+  {
+    HeightType::Enum heightTypes[1] = { ( HeightType::Enum )heightType };
+    geoidLibrary->preload( 1, heightTypes );
+  }
+  catch( CoordinateConversionException e )
+  {
+  }
+
+  std::vector< jdouble > longitude( count );
+  std::vector< jdouble > latitude( count );
+  std::vector< jdouble > inputHeight( count );
+  std::vector< jdouble > outputHeight( count );
+  std::vector< jint > status( count );
+  std::vector< const char* > errorMessages( count );
+
+  env->GetDoubleArrayRegion( _longitude, 0, count, &longitude[0] );
+  env->GetDoubleArrayRegion( _latitude, 0, count, &latitude[0] );
+  env->GetDoubleArrayRegion( _inputHeight, 0, count, &inputHeight[0] );
+  if( env->ExceptionCheck() )
+    return;
+
+  try
+  {
+    if( toEllipsoid )
+      geoidLibrary->convertGeoidToEllipsoidHeights( ( HeightType::Enum )heightType, count, &longitude[0], &latitude[0],
+                                                    &inputHeight[0], &outputHeight[0], &errorMessages[0] );
+    else
+      geoidLibrary->convertEllipsoidToGeoidHeights( ( HeightType::Enum )heightType, count, &longitude[0], &latitude[0],
+                                                    &inputHeight[0], &outputHeight[0], &errorMessages[0] );
+  }
+  catch( CoordinateConversionException e )
+  {
+    throwException( env, "geotrans3/exception/CoordinateConversionException", e.getMessage() );
+    return;
+  }
+
+  for( jint i = 0; i < count; i++ )
+    status[i] = errorMessages[i] ? HEIGHT_CONVERT_ERROR : HEIGHT_CONVERT_OK;
+
+  env->SetDoubleArrayRegion( _outputHeight, 0, count, &outputHeight[0] );
+  env->SetIntArrayRegion( _status, 0, count, &status[0] );
+}
+
+
+#ifdef __cplusplus
+extern "C" {
+#endif
+
+JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNIGeoidLibrary_jniCreate(JNIEnv *env, jobject jobj)
+{
+  GeoidLibrary* geoidLibrary = 0;
+
+  try
+  {
+    geoidLibrary = GeoidLibrary::getInstance();
+  }
+  catch( CoordinateConversionException e )
+  {
+    throwException( env, "geotrans3/exception/CoordinateConversionException", e.getMessage() );
+  }
+
+  return ( jlong )geoidLibrary;
+}
+
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNIGeoidLibrary_jniDestroy(JNIEnv *env, jclass cls, jlong geoidLibraryPtr)
+{
+  if( geoidLibraryPtr )
+    GeoidLibrary::removeInstance();
+}
+
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNIGeoidLibrary_jniPreload(JNIEnv *env, jobject jobj, jlong geoidLibraryPtr, jintArray _heightTypes)
+{
+  GeoidLibrary* geoidLibrary = ( GeoidLibrary* )geoidLibraryPtr;
+
+  if( !geoidLibrary )
+    return;
+
+  jsize count = env->GetArrayLength( _heightTypes );
+  jint* values = env->GetIntArrayElements( _heightTypes, NULL );
+  if( !values )
+  {
+    throwException( env, "geotrans3/exception/CoordinateConversionException", "JNI Exception: Array elements could not be accessed.\n" );
+    return;
+  }
+
+  HeightType::Enum* heightTypes = new HeightType::Enum[count > 0 ? count : 1];
+  for( jsize i = 0; i < count; i++ )
+    heightTypes[i] = ( HeightType::Enum )values[i];
+
+  env->ReleaseIntArrayElements( _heightTypes, values, JNI_ABORT );
+
+  try
+  {
+    geoidLibrary->preload( count, heightTypes );
+  }
+  catch( CoordinateConversionException e )
+  {
+    throwException( env, "geotrans3/exception/CoordinateConversionException", e.getMessage() );
+  }
+
+  delete [] heightTypes;
+}
+
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNIGeoidLibrary_jniConvertEllipsoidToGeoidHeights(JNIEnv *env, jobject jobj, jlong geoidLibraryPtr, jint heightType,
+                                                                                            jdoubleArray _longitude, jdoubleArray _latitude, jdoubleArray _ellipsoidHeight,
+                                                                                            jdoubleArray _geoidHeight, jint count, jintArray _status)
+{
+  GeoidLibrary* geoidLibrary = ( GeoidLibrary* )geoidLibraryPtr;
+
+  if( geoidLibrary )
+    convertHeights( env, geoidLibrary, false, heightType, _longitude, _latitude, _ellipsoidHeight, _geoidHeight, count, _status );
+}
+
+
+JNIEXPORT void JNICALL Java_geotrans3_jni_JNIGeoidLibrary_jniConvertGeoidToEllipsoidHeights(JNIEnv *env, jobject jobj, jlong geoidLibraryPtr, jint heightType,
+                                                                                            jdoubleArray _longitude, jdoubleArray _latitude, jdoubleArray _geoidHeight,
+                                                                                            jdoubleArray _ellipsoidHeight, jint count, jintArray _status)
+{
+  GeoidLibrary* geoidLibrary = ( GeoidLibrary* )geoidLibraryPtr;
+
+  if( geoidLibrary )
+    convertHeights( env, geoidLibrary, true, heightType, _longitude, _latitude, _geoidHeight, _ellipsoidHeight, count, _status );
+}
+
+#ifdef __cplusplus
+}
+#endif
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,176 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * JNIGeoidLibrary.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.jni;
+
+
+import geotrans3.exception.CoordinateConversionException;
+
+
+/**
+ * Batch conversions between ellipsoid and geoid (MSL) heights.  Heights are
+ * converted with the geoid models of the C++ GeoidLibrary; the height types
+ * are the constants of geotrans3.enumerations.HeightType.  The reference
+ * is released by destroy() or close(), or, if neither is called, after the
+ * JNIGeoidLibrary becomes unreachable.
+ */
+public class JNIGeoidLibrary implements AutoCloseable
+{
+  private native long jniCreate() throws CoordinateConversionException;
+  private static native void jniDestroy(long _geoidLibraryPtr);
+  private native void jniPreload(long _geoidLibraryPtr, int[] heightTypes) throws CoordinateConversionException;
+  private native void jniConvertEllipsoidToGeoidHeights(long _geoidLibraryPtr, int heightType, double[] longitude, double[] latitude,
+                                                        double[] ellipsoidHeight, double[] geoidHeight, int count, int[] status) throws CoordinateConversionException;
+  private native void jniConvertGeoidToEllipsoidHeights(long _geoidLibraryPtr, int heightType, double[] longitude, double[] latitude,
+                                                        double[] geoidHeight, double[] ellipsoidHeight, int count, int[] status) throws CoordinateConversionException;
+
+  public static final int CONVERT_OK = JNICoordinateConversionService.CONVERT_OK;
+  public static final int CONVERT_ERROR = JNICoordinateConversionService.CONVERT_ERROR;
+
+  // Holds the C++ GeoidLibrary object pointer
+  private long geoidLibraryPtr;
+
+  // Releases the reference to the C++ GeoidLibrary, once
+  private final JNINativeAllocations.Cleanable cleanable;
+
+
+  /**
+   * Creates a reference to the C++ GeoidLibrary.  Each geoid model is
+   * loaded by its first conversion, or by preload.
+   */
+  public JNIGeoidLibrary() throws CoordinateConversionException
+  {
+    geoidLibraryPtr = jniCreate();
+
+    cleanable = JNINativeAllocations.register(this, new Release(geoidLibraryPtr));
+  }
+
+
+  /**
+   * Releases the reference to the C++ GeoidLibrary.
+   */
+  public synchronized void destroy()
+  {
+    if(geoidLibraryPtr != 0)
+    {
+      geoidLibraryPtr = 0;
+      cleanable.clean();
+    }
+  }
+
+
+  /**
+   * Same as destroy().
+   */
+  public void close()
+  {
+    destroy();
+  }
+
+
+  /**
+   * Loads the geoid models used by the given height types now, rather than
+   * at their first conversion.  Height types without a geoid model are
+   * ignored.  Throws if a model cannot be loaded.
+   */
+  public synchronized void preload(int... heightTypes) throws CoordinateConversionException
+  {
+    if (geoidLibraryPtr == 0)
+    {
+        throw new CoordinateConversionException("preload called with null object");
+    }
+
+    if (heightTypes == null)
+    {
+        throw new CoordinateConversionException("preload called with null height types");
+    }
+
+    jniPreload(geoidLibraryPtr, heightTypes);
+  }
+
+
+  /**
+   * Converts count ellipsoid heights to geoid heights in a single native
+   * call.  Longitudes and latitudes are in radians, heights in meters.
+   * status[i] receives CONVERT_OK or CONVERT_ERROR; failed heights are set
+   * to zero.  EGM2008 points are interpolated in grid cell order, so point
+   * clouds need not be sorted by the caller.
+   */
+  public synchronized void convertEllipsoidToGeoidHeights(int heightType, double[] longitude, double[] latitude, double[] ellipsoidHeight,
+                                                          double[] geoidHeight, int count, int[] status) throws CoordinateConversionException
+  {
+    if (geoidLibraryPtr == 0)
+    {
+        throw new CoordinateConversionException("convertEllipsoidToGeoidHeights called with null object");
+    }
+
+    checkArrayArguments(longitude, latitude, ellipsoidHeight, geoidHeight, count, status);
+
+    jniConvertEllipsoidToGeoidHeights(geoidLibraryPtr, heightType, longitude, latitude, ellipsoidHeight, geoidHeight, count, status);
+  }
+
+
+  /**
+   * Converts count geoid heights to ellipsoid heights in a single native
+   * call.  See convertEllipsoidToGeoidHeights.
+   */
+  public synchronized void convertGeoidToEllipsoidHeights(int heightType, double[] longitude, double[] latitude, double[] geoidHeight,
+                                                          double[] ellipsoidHeight, int count, int[] status) throws CoordinateConversionException
+  {
+    if (geoidLibraryPtr == 0)
+    {
+        throw new CoordinateConversionException("convertGeoidToEllipsoidHeights called with null object");
+    }
+
+    checkArrayArguments(longitude, latitude, geoidHeight, ellipsoidHeight, count, status);
+
+    jniConvertGeoidToEllipsoidHeights(geoidLibraryPtr, heightType, longitude, latitude, geoidHeight, ellipsoidHeight, count, status);
+  }
+
+
+  private static void checkArrayArguments(double[] longitude, double[] latitude, double[] inputHeight, double[] outputHeight, int count, int[] status) throws CoordinateConversionException
+  {
+    if (longitude == null || latitude == null || inputHeight == null || outputHeight == null || status == null)
+    {
+        throw new CoordinateConversionException("Height conversion called with null array");
+    }
+
+    if (count < 0)
+    {
+        throw new CoordinateConversionException("Height conversion called with invalid count");
+    }
+
+    if (longitude.length < count || latitude.length < count || inputHeight.length < count ||
+        outputHeight.length < count || status.length < count)
+    {
+        throw new CoordinateConversionException("Height conversion arrays are too small for the point count");
+    }
+  }
+
+
+  /*
+   * Releases the C++ reference when the JNIGeoidLibrary is destroyed or becomes
+   * unreachable.  It must not refer to the JNIGeoidLibrary.
+   */
+  private static class Release implements Runnable
+  {
+    private final long geoidLibraryPtr;
+
+    Release(long _geoidLibraryPtr)
+    {
+      geoidLibraryPtr = _geoidLibraryPtr;
+    }
+
+    public void run()
+    {
+      jniDestroy(geoidLibraryPtr);
+    }
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,53 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+#include <jni.h>
+#include <atomic>
+#include "JNINativeAllocations.h"
+#include "NativeAllocations.h"
+
+
+/* Live objects, and their bytes, of each kind */
+static std::atomic<long long> liveCount[NativeAllocation::count];
+static std::atomic<long long> liveBytes[NativeAllocation::count];
+
+
+void nativeAllocated( NativeAllocation::Enum kind, size_t bytes )
+{
+  liveCount[kind].fetch_add( 1, std::memory_order_relaxed );
+  liveBytes[kind].fetch_add( ( long long )bytes, std::memory_order_relaxed );
+}
+
+
+void nativeReleased( NativeAllocation::Enum kind, size_t bytes )
+{
+  liveCount[kind].fetch_sub( 1, std::memory_order_relaxed );
+  liveBytes[kind].fetch_sub( ( long long )bytes, std::memory_order_relaxed );
+}
+
+
+#ifdef __cplusplus
+extern "C" {
+#endif
+
+JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNINativeAllocations_jniGetLiveCount(JNIEnv *env, jclass cls, jint kind)
+{
+  if( kind < 0 || kind >= NativeAllocation::count )
+    return 0;
+
+  return ( jlong )liveCount[kind].load( std::memory_order_relaxed );
+}
+
+
+JNIEXPORT jlong JNICALL Java_geotrans3_jni_JNINativeAllocations_jniGetLiveBytes(JNIEnv *env, jclass cls, jint kind)
+{
+  if( kind < 0 || kind >= NativeAllocation::count )
+    return 0;
+
+  return ( jlong )liveBytes[kind].load( std::memory_order_relaxed );
+}
+
+#ifdef __cplusplus
+}
+#endif
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,192 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * JNINativeAllocations.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.jni;
+
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+
+/**
+ * Counts of the live C++ objects owned by the JNI wrappers, and of their
+ * bytes.  An object is live from the creation of its wrapper until the
+ * wrapper is destroyed, closed or, failing that, garbage collected; counts
+ * that keep growing point to wrappers that are still referenced.  Bytes are
+ * the sizes of the C++ objects themselves, not of the memory they refer to.
+ */
+public final class JNINativeAllocations
+{
+  private static native long jniGetLiveCount(int kind);
+  private static native long jniGetLiveBytes(int kind);
+
+  // Kinds of objects; these must match NativeAllocation::Enum
+  public static final int COORDINATE_CONVERSION_SERVICE = 0;
+  public static final int FILE_CONVERTER = 1;
+
+  private static final int KIND_COUNT = 2;
+  private static final String[] KIND_NAMES = { "CoordinateConversionService", "Fiomeths" };
+
+  // Wrappers that became unreachable before being destroyed
+  private static final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+  // Registered actions not yet run, kept reachable until they are
+  private static final Set<Cleanable> cleanables = Collections.newSetFromMap(new IdentityHashMap<Cleanable, Boolean>());
+
+  static
+  {
+    Thread thread = new Thread("JNINativeAllocations cleaner")
+    {
+      public void run()
+      {
+        while(true)
+        {
+          try
+          {
+            ((Cleanable)queue.remove()).clean();
+          }
+          catch(Throwable e)
+          {
+            // Keep releasing the C++ objects of other wrappers
+          }
+        }
+      }
+    };
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+
+  /**
+   * Releases the C++ object of a wrapper, by running its action, either
+   * when clean() is called or after the wrapper becomes unreachable,
+   * whichever is first.  The action is run once and must not refer to the
+   * wrapper.
+   */
+  static final class Cleanable extends PhantomReference<Object>
+  {
+    private final Runnable action;
+
+    private Cleanable(Object wrapper, Runnable _action)
+    {
+      super(wrapper, queue);
+      action = _action;
+    }
+
+    public void clean()
+    {
+      boolean registered;
+      synchronized(cleanables)
+      {
+        registered = cleanables.remove(this);
+      }
+
+      if(registered)
+      {
+        clear();
+        action.run();
+      }
+    }
+  }
+
+
+  private JNINativeAllocations()
+  {
+  }
+
+
+  /**
+   * Registers the action releasing the C++ object of wrapper.
+   */
+  static Cleanable register(Object wrapper, Runnable action)
+  {
+    Cleanable cleanable = new Cleanable(wrapper, action);
+    synchronized(cleanables)
+    {
+      cleanables.add(cleanable);
+    }
+
+    return cleanable;
+  }
+
+
+  /**
+   * Returns the number of live C++ objects of the given kind.
+   */
+  public static long getLiveCount(int kind)
+  {
+    checkKind(kind);
+
+    return jniGetLiveCount(kind);
+  }
+
+
+  /**
+   * Returns the bytes held by the live C++ objects of the given kind.
+   */
+  public static long getLiveBytes(int kind)
+  {
+    checkKind(kind);
+
+    return jniGetLiveBytes(kind);
+  }
+
+
+  /**
+   * Returns the number of live C++ objects of all kinds.
+   */
+  public static long getTotalLiveCount()
+  {
+    long total = 0;
+    for(int kind = 0; kind < KIND_COUNT; kind++)
+      total += jniGetLiveCount(kind);
+
+    return total;
+  }
+
+
+  /**
+   * Returns the bytes held by the live C++ objects of all kinds.
+   */
+  public static long getTotalLiveBytes()
+  {
+    long total = 0;
+    for(int kind = 0; kind < KIND_COUNT; kind++)
+      total += jniGetLiveBytes(kind);
+
+    return total;
+  }
+
+
+  /**
+   * Returns one line per kind with its live objects and bytes.
+   */
+  public static String report()
+  {
+    StringBuilder report = new StringBuilder();
+    for(int kind = 0; kind < KIND_COUNT; kind++)
+    {
+      report.append(KIND_NAMES[kind]).append(": ").append(jniGetLiveCount(kind)).append(" live, ");
+      report.append(jniGetLiveBytes(kind)).append(" bytes\n");
+    }
+
+    return report.toString();
+  }
+
+
+  private static void checkKind(int kind)
+  {
+    if(kind < 0 || kind >= KIND_COUNT)
+      throw new IllegalArgumentException("Invalid native allocation kind: " + kind);
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,325 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+#include <jni.h>
+#include "JNIRegistry.h"
+
+
+/*
+ * Descriptor tables.  Entries must be in the same order as the
+ * corresponding enums in JNIRegistry.h.
+ */
+
+struct MemberDescriptor
+{
+  JNIClass::Enum javaClass;
+  const char*    name;
+  const char*    signature;
+};
+
+
+static const char* classNames[] =
+{
+  "geotrans3/coordinates/Accuracy",
+  "geotrans3/misc/AOI",
+  "geotrans3/coordinates/BNGCoordinates",
+  "geotrans3/coordinates/CartesianCoordinates",
+  "geotrans3/coordinates/ConvertCollectionResults",
+  "geotrans3/coordinates/ConvertResults",
+  "geotrans3/exception/CoordinateConversionException",
+  "geotrans3/parameters/CoordinateSystemParameters",
+  "geotrans3/parameters/EquidistantCylindricalParameters",
+  "geotrans3/coordinates/GARSCoordinates",
+  "geotrans3/coordinates/GeodeticCoordinates",
+  "geotrans3/parameters/GeodeticParameters",
+  "geotrans3/coordinates/GEOREFCoordinates",
+  "geotrans3/misc/Info",
+  "geotrans3/parameters/LocalCartesianParameters",
+  "geotrans3/parameters/MapProjection3Parameters",
+  "geotrans3/parameters/MapProjection4Parameters",
+  "geotrans3/parameters/MapProjection5Parameters",
+  "geotrans3/parameters/MapProjection6Parameters",
+  "geotrans3/coordinates/MapProjectionCoordinates",
+  "geotrans3/parameters/MercatorScaleFactorParameters",
+  "geotrans3/parameters/MercatorStandardParallelParameters",
+  "geotrans3/coordinates/MGRSorUSNGCoordinates",
+  "geotrans3/parameters/NeysParameters",
+  "geotrans3/parameters/ObliqueMercatorParameters",
+  "geotrans3/parameters/PolarStereographicScaleFactorParameters",
+  "geotrans3/parameters/PolarStereographicStandardParallelParameters",
+  "geotrans3/coordinates/SphericalCoordinates",
+  "geotrans3/coordinates/StringCoordinates",
+  "geotrans3/coordinates/UPSCoordinates",
+  "geotrans3/coordinates/UTMCoordinates",
+  "geotrans3/parameters/UTMParameters",
+  "java/util/Vector"
+};
+
+static const MemberDescriptor methodDescriptors[] =
+{
+  { JNIClass::accuracy, "<init>", "(DDD)V" },
+  { JNIClass::aoi, "<init>", "(DDDD)V" },
+  { JNIClass::bngCoordinates, "<init>", "(ILjava/lang/String;Ljava/lang/String;I)V" },
+  { JNIClass::cartesianCoordinates, "<init>", "(ILjava/lang/String;DDD)V" },
+  { JNIClass::convertCollectionResults, "<init>", "(Ljava/util/Vector;Ljava/util/Vector;)V" },
+  { JNIClass::convertResults, "<init>", "(Lgeotrans3/coordinates/CoordinateTuple;Lgeotrans3/coordinates/Accuracy;)V" },
+  { JNIClass::coordinateSystemParameters, "<init>", "(I)V" },
+  { JNIClass::equidistantCylindricalParameters, "<init>", "(IDDDD)V" },
+  { JNIClass::garsCoordinates, "<init>", "(ILjava/lang/String;Ljava/lang/String;I)V" },
+  { JNIClass::geodeticCoordinates, "<init>", "(ILjava/lang/String;DDD)V" },
+  { JNIClass::geodeticParameters, "<init>", "(II)V" },
+  { JNIClass::georefCoordinates, "<init>", "(ILjava/lang/String;Ljava/lang/String;I)V" },
+  { JNIClass::info, "<init>", "(Ljava/lang/String;Ljava/lang/String;Ljava/lang/String;)V" },
+  { JNIClass::info, "<init>", "(Ljava/lang/String;Ljava/lang/String;)V" },
+  { JNIClass::localCartesianParameters, "<init>", "(IDDDD)V" },
+  { JNIClass::mapProjection3Parameters, "<init>", "(IDDD)V" },
+  { JNIClass::mapProjection4Parameters, "<init>", "(IDDDD)V" },
+  { JNIClass::mapProjection5Parameters, "<init>", "(IDDDDD)V" },
+  { JNIClass::mapProjection6Parameters, "<init>", "(IDDDDDD)V" },
+  { JNIClass::mapProjectionCoordinates, "<init>", "(ILjava/lang/String;DD)V" },
+  { JNIClass::mercatorScaleFactorParameters, "<init>", "(IDDDD)V" },
+  { JNIClass::mercatorStandardParallelParameters, "<init>", "(IDDDDD)V" },
+  { JNIClass::mgrsOrUSNGCoordinates, "<init>", "(ILjava/lang/String;Ljava/lang/String;I)V" },
+  { JNIClass::neysParameters, "<init>", "(IDDDDD)V" },
+  { JNIClass::obliqueMercatorParameters, "<init>", "(IDDDDDDDD)V" },
+  { JNIClass::polarStereographicScaleFactorParameters, "<init>", "(IDDCDD)V" },
+  { JNIClass::polarStereographicStandardParallelParameters, "<init>", "(IDDDD)V" },
+  { JNIClass::sphericalCoordinates, "<init>", "(ILjava/lang/String;DDD)V" },
+  { JNIClass::upsCoordinates, "<init>", "(ILjava/lang/String;CDD)V" },
+  { JNIClass::utmCoordinates, "<init>", "(ILjava/lang/String;JCDD)V" },
+  { JNIClass::utmParameters, "<init>", "(IJJ)V" },
+  { JNIClass::vector, "addElement", "(Ljava/lang/Object;)V" },
+  { JNIClass::vector, "get", "(I)Ljava/lang/Object;" },
+  { JNIClass::vector, "<init>", "()V" },
+  { JNIClass::vector, "size", "()I" }
+};
+
+static const MemberDescriptor fieldDescriptors[] =
+{
+  { JNIClass::accuracy, "ce90", "D" },
+  { JNIClass::accuracy, "le90", "D" },
+  { JNIClass::accuracy, "se90", "D" },
+  { JNIClass::cartesianCoordinates, "coordinateType", "I" },
+  { JNIClass::cartesianCoordinates, "x", "D" },
+  { JNIClass::cartesianCoordinates, "y", "D" },
+  { JNIClass::cartesianCoordinates, "z", "D" },
+  { JNIClass::coordinateSystemParameters, "coordinateType", "I" },
+  { JNIClass::equidistantCylindricalParameters, "centralMeridian", "D" },
+  { JNIClass::equidistantCylindricalParameters, "falseEasting", "D" },
+  { JNIClass::equidistantCylindricalParameters, "falseNorthing", "D" },
+  { JNIClass::equidistantCylindricalParameters, "standardParallel", "D" },
+  { JNIClass::geodeticCoordinates, "height", "D" },
+  { JNIClass::geodeticCoordinates, "latitude", "D" },
+  { JNIClass::geodeticCoordinates, "longitude", "D" },
+  { JNIClass::geodeticParameters, "heightType", "I" },
+  { JNIClass::localCartesianParameters, "coordinateType", "I" },
+  { JNIClass::localCartesianParameters, "height", "D" },
+  { JNIClass::localCartesianParameters, "latitude", "D" },
+  { JNIClass::localCartesianParameters, "longitude", "D" },
+  { JNIClass::localCartesianParameters, "orientation", "D" },
+  { JNIClass::mapProjection3Parameters, "centralMeridian", "D" },
+  { JNIClass::mapProjection3Parameters, "coordinateType", "I" },
+  { JNIClass::mapProjection3Parameters, "falseEasting", "D" },
+  { JNIClass::mapProjection3Parameters, "falseNorthing", "D" },
+  { JNIClass::mapProjection4Parameters, "centralMeridian", "D" },
+  { JNIClass::mapProjection4Parameters, "coordinateType", "I" },
+  { JNIClass::mapProjection4Parameters, "falseEasting", "D" },
+  { JNIClass::mapProjection4Parameters, "falseNorthing", "D" },
+  { JNIClass::mapProjection4Parameters, "originLatitude", "D" },
+  { JNIClass::mapProjection5Parameters, "centralMeridian", "D" },
+  { JNIClass::mapProjection5Parameters, "coordinateType", "I" },
+  { JNIClass::mapProjection5Parameters, "falseEasting", "D" },
+  { JNIClass::mapProjection5Parameters, "falseNorthing", "D" },
+  { JNIClass::mapProjection5Parameters, "originLatitude", "D" },
+  { JNIClass::mapProjection5Parameters, "scaleFactor", "D" },
+  { JNIClass::mapProjection6Parameters, "centralMeridian", "D" },
+  { JNIClass::mapProjection6Parameters, "coordinateType", "I" },
+  { JNIClass::mapProjection6Parameters, "falseEasting", "D" },
+  { JNIClass::mapProjection6Parameters, "falseNorthing", "D" },
+  { JNIClass::mapProjection6Parameters, "originLatitude", "D" },
+  { JNIClass::mapProjection6Parameters, "standardParallel1", "D" },
+  { JNIClass::mapProjection6Parameters, "standardParallel2", "D" },
+  { JNIClass::mapProjectionCoordinates, "coordinateType", "I" },
+  { JNIClass::mapProjectionCoordinates, "easting", "D" },
+  { JNIClass::mapProjectionCoordinates, "northing", "D" },
+  { JNIClass::mercatorScaleFactorParameters, "centralMeridian", "D" },
+  { JNIClass::mercatorScaleFactorParameters, "coordinateType", "I" },
+  { JNIClass::mercatorScaleFactorParameters, "falseEasting", "D" },
+  { JNIClass::mercatorScaleFactorParameters, "falseNorthing", "D" },
+  { JNIClass::mercatorScaleFactorParameters, "scaleFactor", "D" },
+  { JNIClass::mercatorStandardParallelParameters, "centralMeridian", "D" },
+  { JNIClass::mercatorStandardParallelParameters, "coordinateType", "I" },
+  { JNIClass::mercatorStandardParallelParameters, "falseEasting", "D" },
+  { JNIClass::mercatorStandardParallelParameters, "falseNorthing", "D" },
+  { JNIClass::mercatorStandardParallelParameters, "scaleFactor", "D" },
+  { JNIClass::mercatorStandardParallelParameters, "standardParallel", "D" },
+  { JNIClass::neysParameters, "centralMeridian", "D" },
+  { JNIClass::neysParameters, "coordinateType", "I" },
+  { JNIClass::neysParameters, "falseEasting", "D" },
+  { JNIClass::neysParameters, "falseNorthing", "D" },
+  { JNIClass::neysParameters, "originLatitude", "D" },
+  { JNIClass::neysParameters, "standardParallel1", "D" },
+  { JNIClass::obliqueMercatorParameters, "coordinateType", "I" },
+  { JNIClass::obliqueMercatorParameters, "falseEasting", "D" },
+  { JNIClass::obliqueMercatorParameters, "falseNorthing", "D" },
+  { JNIClass::obliqueMercatorParameters, "latitude1", "D" },
+  { JNIClass::obliqueMercatorParameters, "latitude2", "D" },
+  { JNIClass::obliqueMercatorParameters, "longitude1", "D" },
+  { JNIClass::obliqueMercatorParameters, "longitude2", "D" },
+  { JNIClass::obliqueMercatorParameters, "originLatitude", "D" },
+  { JNIClass::obliqueMercatorParameters, "scaleFactor", "D" },
+  { JNIClass::polarStereographicScaleFactorParameters, "centralMeridian", "D" },
+  { JNIClass::polarStereographicScaleFactorParameters, "coordinateType", "I" },
+  { JNIClass::polarStereographicScaleFactorParameters, "falseEasting", "D" },
+  { JNIClass::polarStereographicScaleFactorParameters, "falseNorthing", "D" },
+  { JNIClass::polarStereographicScaleFactorParameters, "hemisphere", "C" },
+  { JNIClass::polarStereographicScaleFactorParameters, "scaleFactor", "D" },
+  { JNIClass::polarStereographicStandardParallelParameters, "centralMeridian", "D" },
+  { JNIClass::polarStereographicStandardParallelParameters, "coordinateType", "I" },
+  { JNIClass::polarStereographicStandardParallelParameters, "falseEasting", "D" },
+  { JNIClass::polarStereographicStandardParallelParameters, "falseNorthing", "D" },
+  { JNIClass::polarStereographicStandardParallelParameters, "standardParallel", "D" },
+  { JNIClass::sphericalCoordinates, "azimuth", "D" },
+  { JNIClass::sphericalCoordinates, "coordinateType", "I" },
+  { JNIClass::sphericalCoordinates, "elevAngle", "D" },
+  { JNIClass::sphericalCoordinates, "radius", "D" },
+  { JNIClass::stringCoordinates, "coordinateString", "Ljava/lang/String;" },
+  { JNIClass::stringCoordinates, "coordinateType", "I" },
+  { JNIClass::stringCoordinates, "precision", "I" },
+  { JNIClass::upsCoordinates, "coordinateType", "I" },
+  { JNIClass::upsCoordinates, "easting", "D" },
+  { JNIClass::upsCoordinates, "hemisphere", "C" },
+  { JNIClass::upsCoordinates, "northing", "D" },
+  { JNIClass::utmCoordinates, "coordinateType", "I" },
+  { JNIClass::utmCoordinates, "easting", "D" },
+  { JNIClass::utmCoordinates, "hemisphere", "C" },
+  { JNIClass::utmCoordinates, "northing", "D" },
+  { JNIClass::utmCoordinates, "zone", "J" },
+  { JNIClass::utmParameters, "coordinateType", "I" },
+  { JNIClass::utmParameters, "override", "J" },
+  { JNIClass::utmParameters, "zone", "J" }
+};
+
+static_assert( sizeof( classNames ) / sizeof( classNames[0] ) == JNIClass::count, "JNIClass table out of date" );
+static_assert( sizeof( methodDescriptors ) / sizeof( methodDescriptors[0] ) == JNIMethod::count, "JNIMethod table out of date" );
+static_assert( sizeof( fieldDescriptors ) / sizeof( fieldDescriptors[0] ) == JNIField::count, "JNIField table out of date" );
+
+
+static jclass    classes[JNIClass::count];
+static jmethodID methodIDs[JNIMethod::count];
+static jfieldID  fieldIDs[JNIField::count];
+
+
+jclass jniClass( JNIClass::Enum javaClass )
+{
+  return classes[javaClass];
+}
+
+
+jmethodID jniMethodID( JNIMethod::Enum method )
+{
+  return methodIDs[method];
+}
+
+
+jfieldID jniFieldID( JNIField::Enum field )
+{
+  return fieldIDs[field];
+}
+
+
+static void releaseRegistry( JNIEnv *env )
+{
+  for( int i = 0; i < JNIClass::count; i++ )
+  {
+    if( classes[i] )
+    {
+      env->DeleteGlobalRef( classes[i] );
+      classes[i] = NULL;
+    }
+  }
+
+  for( int i = 0; i < JNIMethod::count; i++ )
+    methodIDs[i] = NULL;
+
+  for( int i = 0; i < JNIField::count; i++ )
+    fieldIDs[i] = NULL;
+}
+
+
+static bool loadRegistry( JNIEnv *env )
+{
+/*
+ *  The function loadRegistry resolves every class, method ID and field ID
+ *  in the descriptor tables.  If any lookup fails the Java exception
+ *  raised by the lookup (NoClassDefFoundError, NoSuchMethodError or
+ *  NoSuchFieldError) is left pending and false is returned.
+ */
+
+  for( int i = 0; i < JNIClass::count; i++ )
+  {
+    jclass localClass = env->FindClass( classNames[i] );
+    if( localClass == NULL )
+      return false;
+
+    classes[i] = ( jclass )env->NewGlobalRef( localClass );
+    env->DeleteLocalRef( localClass );
+    if( classes[i] == NULL )
+      return false;
+  }
+
+  for( int i = 0; i < JNIMethod::count; i++ )
+  {
+    const MemberDescriptor& method = methodDescriptors[i];
+
+    methodIDs[i] = env->GetMethodID( classes[method.javaClass], method.name, method.signature );
+    if( methodIDs[i] == NULL )
+      return false;
+  }
+
+  for( int i = 0; i < JNIField::count; i++ )
+  {
+    const MemberDescriptor& field = fieldDescriptors[i];
+
+    fieldIDs[i] = env->GetFieldID( classes[field.javaClass], field.name, field.signature );
+    if( fieldIDs[i] == NULL )
+      return false;
+  }
+
+  return true;
+}
+
+
+#ifdef __cplusplus
+extern "C" {
+#endif
+
+JNIEXPORT jint JNICALL JNI_OnLoad( JavaVM *vm, void *reserved )
+{
+  JNIEnv* env = NULL;
+
+  if( vm->GetEnv( ( void** )&env, JNI_VERSION_1_4 ) != JNI_OK )
+    return JNI_ERR;
+
+  if( !loadRegistry( env ) )
+  {
+    releaseRegistry( env );
+    return JNI_ERR;
+  }
+
+  return JNI_VERSION_1_4;
+}
+
+
+JNIEXPORT void JNICALL JNI_OnUnload( JavaVM *vm, void *reserved )
+{
+  JNIEnv* env = NULL;
+
+  if( vm->GetEnv( ( void** )&env, JNI_VERSION_1_4 ) == JNI_OK )
+    releaseRegistry( env );
+}
+
+#ifdef __cplusplus
+}
+#endif
+
+// CLASSIFICATION: UNCLASSIFIED
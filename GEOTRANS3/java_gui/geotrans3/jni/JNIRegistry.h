@@ -0,0 +1,229 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * JNIRegistry.h
+ *
+ * Java classes, method IDs and field IDs used by the JNI translators.
+ * They are resolved once, when the library is loaded (JNI_OnLoad), and
+ * are valid for the life of the library.  Classes are held as global
+ * references.
+ */
+
+#ifndef _Included_JNIRegistry
+#define _Included_JNIRegistry
+
+#include <jni.h>
+
+
+class JNIClass
+{
+public:
+
+  enum Enum
+  {
+    accuracy,
+    aoi,
+    bngCoordinates,
+    cartesianCoordinates,
+    convertCollectionResults,
+    convertResults,
+    coordinateConversionException,
+    coordinateSystemParameters,
+    equidistantCylindricalParameters,
+    garsCoordinates,
+    geodeticCoordinates,
+    geodeticParameters,
+    georefCoordinates,
+    info,
+    localCartesianParameters,
+    mapProjection3Parameters,
+    mapProjection4Parameters,
+    mapProjection5Parameters,
+    mapProjection6Parameters,
+    mapProjectionCoordinates,
+    mercatorScaleFactorParameters,
+    mercatorStandardParallelParameters,
+    mgrsOrUSNGCoordinates,
+    neysParameters,
+    obliqueMercatorParameters,
+    polarStereographicScaleFactorParameters,
+    polarStereographicStandardParallelParameters,
+    sphericalCoordinates,
+    stringCoordinates,
+    upsCoordinates,
+    utmCoordinates,
+    utmParameters,
+    vector,
+    count
+  };
+};
+
+
+class JNIMethod
+{
+public:
+
+  enum Enum
+  {
+    accuracyInit,
+    aoiInit,
+    bngCoordinatesInit,
+    cartesianCoordinatesInit,
+    convertCollectionResultsInit,
+    convertResultsInit,
+    coordinateSystemParametersInit,
+    equidistantCylindricalParametersInit,
+    garsCoordinatesInit,
+    geodeticCoordinatesInit,
+    geodeticParametersInit,
+    georefCoordinatesInit,
+    infoDatumInit,
+    infoInit,
+    localCartesianParametersInit,
+    mapProjection3ParametersInit,
+    mapProjection4ParametersInit,
+    mapProjection5ParametersInit,
+    mapProjection6ParametersInit,
+    mapProjectionCoordinatesInit,
+    mercatorScaleFactorParametersInit,
+    mercatorStandardParallelParametersInit,
+    mgrsOrUSNGCoordinatesInit,
+    neysParametersInit,
+    obliqueMercatorParametersInit,
+    polarStereographicScaleFactorParametersInit,
+    polarStereographicStandardParallelParametersInit,
+    sphericalCoordinatesInit,
+    upsCoordinatesInit,
+    utmCoordinatesInit,
+    utmParametersInit,
+    vectorAddElement,
+    vectorGet,
+    vectorInit,
+    vectorSize,
+    count
+  };
+};
+
+
+class JNIField
+{
+public:
+
+  enum Enum
+  {
+    accuracyCe90,
+    accuracyLe90,
+    accuracySe90,
+    cartesianCoordinatesCoordinateType,
+    cartesianCoordinatesX,
+    cartesianCoordinatesY,
+    cartesianCoordinatesZ,
+    coordinateSystemParametersCoordinateType,
+    equidistantCylindricalParametersCentralMeridian,
+    equidistantCylindricalParametersFalseEasting,
+    equidistantCylindricalParametersFalseNorthing,
+    equidistantCylindricalParametersStandardParallel,
+    geodeticCoordinatesHeight,
+    geodeticCoordinatesLatitude,
+    geodeticCoordinatesLongitude,
+    geodeticParametersHeightType,
+    localCartesianParametersCoordinateType,
+    localCartesianParametersHeight,
+    localCartesianParametersLatitude,
+    localCartesianParametersLongitude,
+    localCartesianParametersOrientation,
+    mapProjection3ParametersCentralMeridian,
+    mapProjection3ParametersCoordinateType,
+    mapProjection3ParametersFalseEasting,
+    mapProjection3ParametersFalseNorthing,
+    mapProjection4ParametersCentralMeridian,
+    mapProjection4ParametersCoordinateType,
+    mapProjection4ParametersFalseEasting,
+    mapProjection4ParametersFalseNorthing,
+    mapProjection4ParametersOriginLatitude,
+    mapProjection5ParametersCentralMeridian,
+    mapProjection5ParametersCoordinateType,
+    mapProjection5ParametersFalseEasting,
+    mapProjection5ParametersFalseNorthing,
+    mapProjection5ParametersOriginLatitude,
+    mapProjection5ParametersScaleFactor,
+    mapProjection6ParametersCentralMeridian,
+    mapProjection6ParametersCoordinateType,
+    mapProjection6ParametersFalseEasting,
+    mapProjection6ParametersFalseNorthing,
+    mapProjection6ParametersOriginLatitude,
+    mapProjection6ParametersStandardParallel1,
+    mapProjection6ParametersStandardParallel2,
+    mapProjectionCoordinatesCoordinateType,
+    mapProjectionCoordinatesEasting,
+    mapProjectionCoordinatesNorthing,
+    mercatorScaleFactorParametersCentralMeridian,
+    mercatorScaleFactorParametersCoordinateType,
+    mercatorScaleFactorParametersFalseEasting,
+    mercatorScaleFactorParametersFalseNorthing,
+    mercatorScaleFactorParametersScaleFactor,
+    mercatorStandardParallelParametersCentralMeridian,
+    mercatorStandardParallelParametersCoordinateType,
+    mercatorStandardParallelParametersFalseEasting,
+    mercatorStandardParallelParametersFalseNorthing,
+    mercatorStandardParallelParametersScaleFactor,
+    mercatorStandardParallelParametersStandardParallel,
+    neysParametersCentralMeridian,
+    neysParametersCoordinateType,
+    neysParametersFalseEasting,
+    neysParametersFalseNorthing,
+    neysParametersOriginLatitude,
+    neysParametersStandardParallel1,
+    obliqueMercatorParametersCoordinateType,
+    obliqueMercatorParametersFalseEasting,
+    obliqueMercatorParametersFalseNorthing,
+    obliqueMercatorParametersLatitude1,
+    obliqueMercatorParametersLatitude2,
+    obliqueMercatorParametersLongitude1,
+    obliqueMercatorParametersLongitude2,
+    obliqueMercatorParametersOriginLatitude,
+    obliqueMercatorParametersScaleFactor,
+    polarStereographicScaleFactorParametersCentralMeridian,
+    polarStereographicScaleFactorParametersCoordinateType,
+    polarStereographicScaleFactorParametersFalseEasting,
+    polarStereographicScaleFactorParametersFalseNorthing,
+    polarStereographicScaleFactorParametersHemisphere,
+    polarStereographicScaleFactorParametersScaleFactor,
+    polarStereographicStandardParallelParametersCentralMeridian,
+    polarStereographicStandardParallelParametersCoordinateType,
+    polarStereographicStandardParallelParametersFalseEasting,
+    polarStereographicStandardParallelParametersFalseNorthing,
+    polarStereographicStandardParallelParametersStandardParallel,
+    sphericalCoordinatesAzimuth,
+    sphericalCoordinatesCoordinateType,
+    sphericalCoordinatesElevAngle,
+    sphericalCoordinatesRadius,
+    stringCoordinatesCoordinateString,
+    stringCoordinatesCoordinateType,
+    stringCoordinatesPrecision,
+    upsCoordinatesCoordinateType,
+    upsCoordinatesEasting,
+    upsCoordinatesHemisphere,
+    upsCoordinatesNorthing,
+    utmCoordinatesCoordinateType,
+    utmCoordinatesEasting,
+    utmCoordinatesHemisphere,
+    utmCoordinatesNorthing,
+    utmCoordinatesZone,
+    utmParametersCoordinateType,
+    utmParametersOverride,
+    utmParametersZone,
+    count
+  };
+};
+
+
+jclass jniClass( JNIClass::Enum javaClass );
+
+jmethodID jniMethodID( JNIMethod::Enum method );
+
+jfieldID jniFieldID( JNIField::Enum field );
+
+#endif
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,168 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * LatencyHistogram.java
+ *
+ * Created on October 17, 2026
+ */
+
+package geotrans3.jni;
+
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Histogram of latencies in nanoseconds which may be recorded by several
+ * threads at once without locking.  Values are counted in log-linear
+ * buckets: each power of two is split into SUB_BUCKET_COUNT buckets, so a
+ * percentile is reported within about 6% of the recorded value, whatever
+ * its size.  Each bucket is a LongAdder, which spreads the updates of
+ * contending threads over several cells.
+ */
+final class LatencyHistogram
+{
+  private static final int SUB_BUCKET_BITS = 4;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  // Longer latencies (about 18 minutes) are counted in the last bucket
+  private static final int MAX_EXPONENT = 40;
+  private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+
+  private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+  private final LongAdder[] buckets = new LongAdder[BUCKET_COUNT];
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+
+  LatencyHistogram()
+  {
+    for(int i = 0; i < BUCKET_COUNT; i++)
+      buckets[i] = new LongAdder();
+  }
+
+
+  /**
+   * Counts one latency of the given nanoseconds.
+   */
+  void record(long nanos)
+  {
+    if(nanos < 0)
+      nanos = 0;
+
+    buckets[bucketIndex(nanos)].increment();
+    max.accumulate(nanos);
+  }
+
+
+  /**
+   * Returns the number of latencies recorded.
+   */
+  long getCount()
+  {
+    long count = 0;
+    for(int i = 0; i < BUCKET_COUNT; i++)
+      count += buckets[i].sum();
+
+    return count;
+  }
+
+
+  /**
+   * Returns the largest latency recorded, in nanoseconds.
+   */
+  long getMax()
+  {
+    return max.get();
+  }
+
+
+  /**
+   * Returns the latencies, in nanoseconds, below which the given fractions
+   * (0 to 1, in increasing order) of the recorded latencies fall.  The
+   * counts are read once, so the values are consistent with each other
+   * even while latencies are being recorded.
+   */
+  double[] getPercentiles(double[] fractions)
+  {
+    long[] counts = new long[BUCKET_COUNT];
+    long total = 0;
+    for(int i = 0; i < BUCKET_COUNT; i++)
+    {
+      counts[i] = buckets[i].sum();
+      total += counts[i];
+    }
+
+    double[] values = new double[fractions.length];
+    if(total == 0)
+      return values;
+
+    long largest = max.get();
+    long seen = 0;
+    int bucket = 0;
+    for(int f = 0; f < fractions.length; f++)
+    {
+      long rank = Math.max(1, (long)Math.ceil(fractions[f] * total));
+      while(bucket < BUCKET_COUNT - 1 && seen + counts[bucket] < rank)
+        seen += counts[bucket++];
+
+      // Middle of the bucket, but never more than the largest latency
+      double value = bucketLowest(bucket) + (bucketWidth(bucket) - 1) / 2.0;
+      values[f] = Math.min(value, (double)largest);
+    }
+
+    return values;
+  }
+
+
+  /**
+   * Clears the histogram.  Latencies recorded during the reset may be
+   * kept or lost.
+   */
+  void reset()
+  {
+    for(int i = 0; i < BUCKET_COUNT; i++)
+      buckets[i].reset();
+    max.reset();
+  }
+
+
+  private static int bucketIndex(long value)
+  {
+    if(value < SUB_BUCKET_COUNT)
+      return (int)value;
+    if(value > MAX_VALUE)
+      value = MAX_VALUE;
+
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+
+  private static long bucketLowest(int index)
+  {
+    if(index < SUB_BUCKET_COUNT)
+      return index;
+
+    int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+    long subBucket = index % SUB_BUCKET_COUNT;
+
+    return (SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS);
+  }
+
+
+  private static long bucketWidth(int index)
+  {
+    if(index < SUB_BUCKET_COUNT)
+      return 1;
+
+    int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+
+    return 1L << (exponent - SUB_BUCKET_BITS);
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,46 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/*
+ * NativeAllocations.h
+ *
+ * Counts the C++ objects created for the Java wrappers, and their sizes,
+ * so that objects leaked by wrappers that were never destroyed can be
+ * seen from Java (JNINativeAllocations).  The counts are updated
+ * atomically and may be read at any time.
+ */
+
+#ifndef _Included_NativeAllocations
+#define _Included_NativeAllocations
+
+#include <stddef.h>
+
+
+class NativeAllocation
+{
+public:
+
+  /* These must match the constants in JNINativeAllocations.java */
+  enum Enum
+  {
+    coordinateConversionService,
+    fiomeths,
+    count
+  };
+};
+
+
+/*
+ *  The function nativeAllocated records the creation of an object of the
+ *  given kind, and nativeReleased its deletion.
+ *
+ *  kind  : Kind of object                           (input)
+ *  bytes : Size of the object in bytes              (input)
+ */
+
+void nativeAllocated( NativeAllocation::Enum kind, size_t bytes );
+
+void nativeReleased( NativeAllocation::Enum kind, size_t bytes );
+
+#endif
+
+// CLASSIFICATION: UNCLASSIFIED
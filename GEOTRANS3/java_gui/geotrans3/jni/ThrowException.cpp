@@ -2,7 +2,9 @@
 
 #include <jni.h>
 #include <stdio.h>
+#include <string.h>
 #include "ThrowException.h"
+#include "JNIRegistry.h"
 
 
 
@@ -12,6 +14,15 @@ void throwException(JNIEnv* env, const char *name, const char *msg)
 
   env->ExceptionClear();
 
+  // Nearly every exception thrown is a CoordinateConversionException,
+  // which is resolved once at load time
+  cls = jniClass( JNIClass::coordinateConversionException );
+  if( cls != NULL && strcmp( name, "geotrans3/exception/CoordinateConversionException" ) == 0 )
+  {
+    env->ThrowNew ( cls, msg );
+    return;
+  }
+
   cls = env->FindClass( name );
   if( cls != NULL )
     env->ThrowNew ( cls, msg );
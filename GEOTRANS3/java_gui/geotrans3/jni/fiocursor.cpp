@@ -0,0 +1,401 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/******************************************************************************
+* Filename        : fiocursor.cpp
+*
+* MODIFICATION HISTORY:
+*
+* DATE      NAME        DR#               DESCRIPTION
+*
+* 10/17/26                                Original code
+******************************************************************************/
+
+#include <string.h>
+#include <ctype.h>
+#include "fiocursor.h"
+
+#ifndef WIN32
+#include <fcntl.h>
+#include <unistd.h>
+#include <sys/mman.h>
+#include <sys/stat.h>
+#endif
+
+
+/* Input files are read in blocks of this size when they are not mapped */
+const size_t FILE_READ_SIZE = 1024 * 1024;
+
+/* Characters which may appear in an angle written in degrees, minutes
+   and seconds */
+const CharacterSet dms_Characters( " 0123456789NSEW:/+.-" );
+
+
+/************************************************************************/
+/*                              CharacterSet
+ *
+ */
+
+CharacterSet::CharacterSet( const char* characters, bool exclude )
+{
+  for( int i = 0; i < 256; i++ )
+    member[i] = exclude;
+
+  for( const char* c = characters; *c; c++ )
+    member[( unsigned char )*c] = !exclude;
+
+  // The terminating null is never part of a scanned token
+  member[0] = false;
+}
+
+
+/************************************************************************/
+/*                              FileCursor
+ *
+ */
+
+FileCursor::FileCursor() :
+  begin( 0 ),
+  current( 0 ),
+  end( 0 ),
+  eof( false )
+{
+}
+
+
+FileCursor::FileCursor( const char* _begin, const char* _end ) :
+  begin( _begin ),
+  current( _begin ),
+  end( _end ),
+  eof( false )
+{
+}
+
+
+void FileCursor::setPosition( size_t _position )
+{
+  current = begin + _position;
+  if( current > end )
+    current = end;
+  eof = false;
+}
+
+
+int FileCursor::get()
+{
+  if( current == end )
+  {
+    eof = true;
+    return EOF;
+  }
+
+  return ( unsigned char )*current++;
+}
+
+
+int FileCursor::unget( int c )
+{
+  if( c == EOF || current == begin )
+    return EOF;
+
+  current--;
+  eof = false;
+  return c;
+}
+
+
+int FileCursor::peek()
+{
+  if( current == end )
+  {
+    eof = true;
+    return EOF;
+  }
+
+  return ( unsigned char )*current;
+}
+
+
+int FileCursor::scan( char* buffer, size_t width, const CharacterSet& set )
+{
+  if( current == end )
+  {
+    eof = true;
+    return EOF;
+  }
+
+  const char* start = current;
+  const char* limit = ( ( size_t )( end - current ) > width ) ? current + width : end;
+  while( current < limit && set.contains( *current ) )
+    current++;
+
+  if( current == end )
+    eof = true;
+
+  size_t length = current - start;
+  if( length == 0 )
+    return 0;
+
+  if( buffer )
+  {
+    memcpy( buffer, start, length );
+    buffer[length] = '\0';
+  }
+
+  return 1;
+}
+
+
+int FileCursor::skip( const CharacterSet& set )
+{
+  return scan( 0, ( size_t )( end - current ), set );
+}
+
+
+int FileCursor::scanWord( char* buffer, size_t width )
+{
+  skipWhiteSpace();
+  if( current == end )
+  {
+    eof = true;
+    return EOF;
+  }
+
+  const char* start = current;
+  const char* limit = ( ( size_t )( end - current ) > width ) ? current + width : end;
+  while( current < limit && !isspace( ( unsigned char )*current ) && *current != '\0' )
+    current++;
+
+  if( current == end )
+    eof = true;
+
+  size_t length = current - start;
+  if( length == 0 )
+    return 0;
+
+  memcpy( buffer, start, length );
+  buffer[length] = '\0';
+
+  return 1;
+}
+
+
+int FileCursor::scanDMS( char* buffer, size_t width )
+{
+  return scan( buffer, width, dms_Characters );
+}
+
+
+void FileCursor::skipWhiteSpace()
+{
+  while( current < end && isspace( ( unsigned char )*current ) )
+    current++;
+
+  if( current == end )
+    eof = true;
+}
+
+
+char* FileCursor::getLine( char* buffer, int size )
+{
+  if( size <= 0 )
+    return 0;
+
+  if( current == end )
+  {
+    eof = true;
+    return 0;
+  }
+
+  size_t available = ( size_t )( end - current );
+  size_t length = ( size_t )( size - 1 );
+  if( length > available )
+    length = available;
+
+  const char* newline = ( const char* )memchr( current, '\n', length );
+  if( newline )
+    length = newline - current + 1;
+
+  memcpy( buffer, current, length );
+  buffer[length] = '\0';
+  current += length;
+
+  if( current == end && !newline )
+    eof = true;
+
+  return buffer;
+}
+
+
+/************************************************************************/
+/*                              FileInput
+ *
+ */
+
+FileInput::FileInput() :
+  file( 0 ),
+  length( 0 ),
+  window( 0 ),
+  windowSize( 0 ),
+  consumed( 0 ),
+  eof( false ),
+  bufferStart( 0 ),
+  mapping( 0 ),
+  mappingSize( 0 )
+{
+}
+
+
+FileInput::~FileInput()
+{
+  close();
+}
+
+
+bool FileInput::open( const char* filename, bool useMemoryMapping )
+{
+  close();
+
+  if( useMemoryMapping && map( filename ) )
+    return true;
+
+  file = fopen( filename, "r" );
+  if( !file )
+    return false;
+
+  if( fseek( file, 0, SEEK_END ) == 0 )
+  {
+    long end = ftell( file );
+    if( end > 0 )
+      length = end;
+  }
+  rewind( file );
+
+  return true;
+}
+
+
+bool FileInput::map( const char* filename )
+{
+/*
+ *  The function map maps the whole file into memory.  It returns false,
+ *  leaving the file to be read in blocks, if the file cannot be mapped
+ *  (for example an empty file, a pipe or an unsupported platform).
+ */
+
+#ifdef WIN32
+  return false;
+#else
+  int descriptor = ::open( filename, O_RDONLY );
+  if( descriptor < 0 )
+    return false;
+
+  struct stat status;
+  if( fstat( descriptor, &status ) != 0 || !S_ISREG( status.st_mode ) ||
+      status.st_size <= 0 || ( unsigned long long )status.st_size > ( size_t )-1 )
+  {
+    ::close( descriptor );
+    return false;
+  }
+
+  size_t size = ( size_t )status.st_size;
+  void* address = mmap( 0, size, PROT_READ, MAP_PRIVATE, descriptor, 0 );
+  ::close( descriptor );
+  if( address == MAP_FAILED )
+    return false;
+
+  madvise( address, size, MADV_SEQUENTIAL );
+
+  mapping = address;
+  mappingSize = size;
+  length = size;
+  window = ( const char* )address;
+  windowSize = size;
+  eof = true;
+
+  return true;
+#endif
+}
+
+
+void FileInput::close()
+{
+#ifndef WIN32
+  if( mapping )
+    munmap( mapping, mappingSize );
+#endif
+  mapping = 0;
+  mappingSize = 0;
+
+  if( file )
+  {
+    fclose( file );
+    file = 0;
+  }
+
+  std::vector<char>().swap( buffer );
+  bufferStart = 0;
+  length = 0;
+  window = 0;
+  windowSize = 0;
+  consumed = 0;
+  eof = false;
+}
+
+
+bool FileInput::isOpen() const
+{
+  return mapping != 0 || file != 0;
+}
+
+
+bool FileInput::isMapped() const
+{
+  return mapping != 0;
+}
+
+
+void FileInput::fill( size_t minimum )
+{
+  if( !file )
+  {
+    eof = true;
+    return;
+  }
+
+  // Move the unread bytes to the front of the buffer
+  if( bufferStart > 0 )
+  {
+    buffer.erase( buffer.begin(), buffer.begin() + bufferStart );
+    bufferStart = 0;
+  }
+
+  while( !eof && buffer.size() < minimum )
+  {
+    size_t length = buffer.size();
+    size_t count = ( minimum - length > FILE_READ_SIZE ) ? minimum - length : FILE_READ_SIZE;
+    buffer.resize( length + count );
+    size_t read = fread( &buffer[length], 1, count, file );
+    buffer.resize( length + read );
+    if( read < count )
+      eof = true;
+  }
+
+  window = buffer.empty() ? 0 : &buffer[0];
+  windowSize = buffer.size();
+}
+
+
+void FileInput::consume( size_t count )
+{
+  if( count > windowSize )
+    count = windowSize;
+
+  window += count;
+  windowSize -= count;
+  consumed += count;
+
+  if( !mapping )
+    bufferStart += count;
+}
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,248 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/******************************************************************************
+* Filename        : fiocursor.h
+*
+* Input side of FIOMETHS.  FileInput makes the contents of a coordinate
+* file available in memory, either by mapping the whole file or by
+* reading it in blocks, and FileCursor scans tokens directly out of that
+* memory.  The scanning functions follow the fscanf/fgets conventions
+* they replace (return values and end-of-file indicator), so the file
+* parser behaves exactly as it did on a FILE*.
+*
+* MODIFICATION HISTORY:
+*
+* DATE      NAME        DR#               DESCRIPTION
+*
+* 10/17/26                                Original code
+******************************************************************************/
+
+#ifndef __fiocursor_h__
+#define __fiocursor_h__
+
+#include <stdio.h>
+#include <stddef.h>
+#include <vector>
+
+
+/*
+ *  CharacterSet is a precompiled scanf character class such as
+ *  "[, \t]" or "[^,\t\n]".
+ */
+class CharacterSet
+{
+public:
+
+  CharacterSet( const char* characters, bool exclude = false );
+
+  bool contains( char c ) const
+  {
+    return member[( unsigned char )c];
+  }
+
+private:
+
+  bool member[256];
+};
+
+
+/*
+ *  FileCursor reads from a block of memory without copying it.
+ */
+class FileCursor
+{
+public:
+
+  FileCursor();
+  FileCursor( const char* begin, const char* end );
+
+  /*
+   *  endOfFile returns true once a read has run into the end of the
+   *  memory block, like feof.
+   */
+  bool endOfFile() const
+  {
+    return eof;
+  }
+
+  size_t position() const
+  {
+    return ( size_t )( current - begin );
+  }
+
+  /*
+   *  setPosition moves the cursor and clears the end-of-file indicator,
+   *  like fseek.
+   */
+  void setPosition( size_t _position );
+
+  const char* data() const
+  {
+    return current;
+  }
+
+  size_t remaining() const
+  {
+    return ( size_t )( end - current );
+  }
+
+  /*
+   *  get returns the next character, or EOF (fgetc).
+   */
+  int get();
+
+  /*
+   *  peek returns the next character without consuming it, or EOF
+   *  (fgetc followed by ungetc).
+   */
+  int peek();
+
+  /*
+   *  unget steps back over the character c just read and returns c, or
+   *  returns EOF if c is EOF (ungetc).
+   */
+  int unget( int c );
+
+  /*
+   *  scan copies up to width characters of set into buffer and returns 1,
+   *  0 if the next character is not in set, or EOF at the end of the
+   *  block (fscanf "%<width>[set]").  A null buffer discards the
+   *  characters.
+   */
+  int scan( char* buffer, size_t width, const CharacterSet& set );
+
+  /*
+   *  skip consumes any number of characters of set (fscanf "%[set]"
+   *  into a scratch buffer).
+   */
+  int skip( const CharacterSet& set );
+
+  /*
+   *  scanWord skips white space and copies up to width non white space
+   *  characters into buffer (fscanf "%<width>s").
+   */
+  int scanWord( char* buffer, size_t width );
+
+  /*
+   *  scanDMS copies up to width characters of an angle written in
+   *  degrees, minutes and seconds, for example -105:30:15.25 or
+   *  45 30 15.25W, into buffer (fscanf "%<width>[ 0123456789NSEW:/+.-]").
+   */
+  int scanDMS( char* buffer, size_t width );
+
+  /*
+   *  skipWhiteSpace consumes white space (fscanf " ").
+   */
+  void skipWhiteSpace();
+
+  /*
+   *  getLine copies up to size - 1 characters, through the next newline,
+   *  into buffer and returns buffer, or null at the end of the block
+   *  (fgets).
+   */
+  char* getLine( char* buffer, int size );
+
+private:
+
+  const char* begin;
+  const char* current;
+  const char* end;
+  bool eof;
+};
+
+
+/*
+ *  FileInput holds the unread part of an input file in memory.  A mapped
+ *  file is available in full as soon as it is opened; otherwise the file
+ *  is read in blocks as the window is filled.
+ */
+class FileInput
+{
+public:
+
+  FileInput();
+  ~FileInput();
+
+  /*
+   *  open opens filename, mapping it into memory when useMemoryMapping
+   *  is set and the platform supports it.  Returns false if the file
+   *  cannot be opened.
+   */
+  bool open( const char* filename, bool useMemoryMapping );
+  void close();
+
+  bool isOpen() const;
+  bool isMapped() const;
+
+  /*
+   *  data and size describe the unread window of the file.
+   */
+  const char* data() const
+  {
+    return window;
+  }
+
+  size_t size() const
+  {
+    return windowSize;
+  }
+
+  /*
+   *  endOfFile returns true once the window reaches the end of the file.
+   */
+  bool endOfFile() const
+  {
+    return eof;
+  }
+
+  /*
+   *  fill reads until the window holds at least minimum bytes or the end
+   *  of the file is reached.  Pointers into the window are invalidated.
+   */
+  void fill( size_t minimum );
+
+  /*
+   *  consume removes count bytes from the start of the window.
+   */
+  void consume( size_t count );
+
+  /*
+   *  fileSize returns the size of the file in bytes.
+   */
+  long long fileSize() const
+  {
+    return length;
+  }
+
+  /*
+   *  bytesConsumed returns the file offset of the start of the window.
+   */
+  long long bytesConsumed() const
+  {
+    return consumed;
+  }
+
+private:
+
+  FILE* file;
+  long long length;
+  const char* window;
+  size_t windowSize;
+  long long consumed;
+  bool eof;
+
+  std::vector<char> buffer;
+  size_t bufferStart;
+
+  void* mapping;
+  size_t mappingSize;
+
+  FileInput( const FileInput& );
+  FileInput& operator=( const FileInput& );
+
+  bool map( const char* filename );
+};
+
+#endif
+
+// CLASSIFICATION: UNCLASSIFIED
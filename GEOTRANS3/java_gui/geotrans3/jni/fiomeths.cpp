@@ -68,6 +68,9 @@
  *    03-29-11          S. Gillis, BAEts28564, Fixed Windows memory crash
  *    06-09-11          K. Lam, BAEts28972, Fixed the timer for file processing
  *    11-30-11          K.Lam, BAEts29174, Set output format for file operation
+ *    10-17-26          Added multi-threaded chunked file conversion
+ *    10-17-26          Read input files through a memory mapped cursor
+ *    10-17-26          Added conversion progress and cancellation
  */
 
 
@@ -80,6 +83,13 @@
 #include <ctype.h>
 #include <math.h>
 #include <time.h>
+#include <chrono>
+#include <condition_variable>
+#include <deque>
+#include <map>
+#include <mutex>
+#include <string>
+#include <thread>
 #include "fiomeths.h"
 #include "CoordinateConversionService.h"
 #include "DatumLibrary.h"
@@ -126,6 +136,7 @@ using namespace MSP::CCS;
 #define FILE_CREATE_ERROR      "Output file: error creating file\n"
 //#define FILE_HEADER_WRITE_ERROR "Output file: error writing header to file\n"
 #define ERROR_PARSING_FILE     "Error reading input file coordinates\n"
+#define CONVERSION_CANCELLED   "File conversion cancelled\n"
 #define INVALID_SOURCE_CS "Input file: Invalid source coordinate system\n"
 #define INVALID_TARGET_CS "Output file: Invalid target coordinate system\n"
 #define INVALID_TARGET_PARAMETERS       "Output file: Target parameters invalid for target coordinate system type\n"
@@ -287,6 +298,27 @@ const char* ce90_String = "CE90";
 const char* le90_String = "LE90";
 const char* se90_String = "SE90";
 
+/* Character classes used to scan the input file */
+const CharacterSet noise_Characters(":, \n\r\t");
+const CharacterSet separator_Characters(", \t");
+const CharacterSet field_Characters(",\t\n", true);
+const CharacterSet last_Field_Characters(",\t\n#;", true);
+const CharacterSet value_Characters(", \t\n", true);
+const CharacterSet last_Value_Characters(", \t\n;", true);
+const CharacterSet height_Characters(", \t\n#;", true);
+const CharacterSet accuracy_Characters("\n#", true);
+const CharacterSet header_Keyword_Characters(":\n", true);
+const CharacterSet alphanumeric_Characters(
+   "1234567890abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ");
+const CharacterSet alphanumeric_Space_Characters(
+   " 1234567890abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ");
+
+/* Input is read and handed to the workers in chunks of about this size */
+const size_t FILE_CHUNK_SIZE = 1024 * 1024;
+
+/* Look-ahead kept in memory so a header or line is never split */
+const size_t MAX_HEADER_SIZE = 64 * 1024;
+
 
 
 /************************************************************************/
@@ -332,16 +364,61 @@ FVC_Status Close_File(FILE **file)
 } /* Close_File */
 
 
-FVC_Status Eat_Noise(FILE *file)
+struct Memory_Output
+{
+  FILE   *file;
+  char   *data;
+  size_t  length;
+};
+
+
+FVC_Status Open_Memory_Output(Memory_Output *output)
+{ /* Open_Memory_Output */
+  /* Opens a stream whose contents are collected by Close_Memory_Output */
+  FVC_Status error_Code = FVC_Success;
+  output->data = NULL;
+  output->length = 0;
+#ifdef WIN32
+  output->file = tmpfile();
+#else
+  output->file = open_memstream(&output->data, &output->length);
+#endif
+  if (output->file == NULL)
+    error_Code = FVC_Error_Opening_File;
+  return error_Code;
+} /* Open_Memory_Output */
+
+
+FVC_Status Close_Memory_Output(Memory_Output *output, std::string &contents)
+{ /* Close_Memory_Output */
+  FVC_Status error_Code = FVC_Success;
+#ifdef WIN32
+  long length = ftell(output->file);
+  contents.resize(length > 0 ? length : 0);
+  rewind(output->file);
+  if (length > 0 && fread(&contents[0], 1, length, output->file) != (size_t)length)
+    error_Code = FVC_Error_Closing_File;
+  fclose(output->file);
+#else
+  fclose(output->file);
+  contents.assign(output->data, output->length);
+  free(output->data);
+  output->data = NULL;
+#endif
+  output->file = NULL;
+  return error_Code;
+} /* Close_Memory_Output */
+
+
+FVC_Status Eat_Noise(FileCursor &cursor)
 { /* Eat_Noise */
-  char noise[256] = "";
-  if ((fscanf(file, "%255[:, \n\r\t]", noise) == 0) && feof(file))
+  if ((cursor.scan(NULL, 255, noise_Characters) == 0) && cursor.endOfFile())
     return FVC_EOF;
   return FVC_Success;
 } /* Eat_Noise */
 
 
-FVC_Status Next_Header_Line(FILE *file, FHD_Value *header)
+FVC_Status Next_Header_Line(FileCursor &cursor, FHD_Value *header)
 {
   FVC_Status error_Code = FVC_Success;
   FHD_Value header_Line = FHD_Comment;
@@ -350,20 +427,20 @@ FVC_Status Next_Header_Line(FILE *file, FHD_Value *header)
   while (header_Line == FHD_Comment && !error_Code)
   {
     /* eat all whitespace */
-    fscanf(file, " ");
-    next_Character = fgetc(file);
+    cursor.skipWhiteSpace();
+    next_Character = cursor.get();
     if (next_Character == '#')
-      fgets(garbage_Array, 511, file);
+      cursor.getLine(garbage_Array, 511);
     else
     {
-      if (ungetc(next_Character, file) != next_Character)
+      if (cursor.unget(next_Character) != next_Character)
         error_Code = FVC_Error_Parsing_Header;
       else
       {
         int i, length;
         char header_Value[32] = "";
-        long ftell_Location = ftell(file);
-        fscanf(file, "%31[^:\n]", header_Value);
+        size_t ftell_Location = cursor.position();
+        cursor.scan(header_Value, 31, header_Keyword_Characters);
         length = strlen(header_Value);
         for (i = 0; i < length; i++)
           header_Value[i] = (char)toupper(header_Value[i]);
@@ -437,9 +514,9 @@ FVC_Status Next_Header_Line(FILE *file, FHD_Value *header)
         {
           error_Code = FVC_Invalid_Header;
           header_Line = FHD_Invalid_Header;
-          fseek(file, ftell_Location, SEEK_SET);
+          cursor.setPosition(ftell_Location);
         }
-        Eat_Noise(file);
+        Eat_Noise(cursor);
       }
     }
   }
@@ -486,7 +563,7 @@ char* remove_trailing_spaces( char* str )
 
 Fiomeths::Fiomeths() :
   coordinateConversionService( 0 ),
-  inputFile( 0 ),
+  useMemoryMapping( true ),
   outputFile( 0 ),
   sourceProjectionType( CoordinateType::geodetic ),
   targetProjectionType( CoordinateType::geodetic ),
@@ -508,10 +585,13 @@ Fiomeths::Fiomeths() :
   polarStereographicScaleFactorParameters( 0 ),
   utmParameters( 0 ),
   targetParameters( 0 ),
-  _numErrors( 0 ),
-  _numProcessed( 0 ),
-  _numWarnings( 0 ),
+  _counts(),
   _elapsedTime( 0 ),
+  numThreads( 1 ),
+  fileSize( 0 ),
+  cancelled( false ),
+  bytesRead( 0 ),
+  numConverted( 0 ),
   invalid( -1 ),
   inputLatitudeLongitudeOrder( true ),
   outputLatitudeLongitudeOrder( true )
@@ -523,9 +603,9 @@ Fiomeths::Fiomeths() :
 }
 
 
-Fiomeths::Fiomeths( const char* fileName ) :
+Fiomeths::Fiomeths( const char* fileName, bool _useMemoryMapping ) :
   coordinateConversionService( 0 ),
-  inputFile( 0 ),
+  useMemoryMapping( _useMemoryMapping ),
   outputFile( 0 ),
   sourceProjectionType( CoordinateType::geodetic ),
   targetProjectionType( CoordinateType::geodetic ),
@@ -547,10 +627,13 @@ Fiomeths::Fiomeths( const char* fileName ) :
   polarStereographicScaleFactorParameters( 0 ),
   utmParameters( 0 ),
   targetParameters( 0 ),
-  _numErrors( 0 ),
-  _numProcessed( 0 ),
-  _numWarnings( 0 ),
+  _counts(),
   _elapsedTime( 0 ),
+  numThreads( 1 ),
+  fileSize( 0 ),
+  cancelled( false ),
+  bytesRead( 0 ),
+  numConverted( 0 ),
   invalid( -1 ),
   inputLatitudeLongitudeOrder( true ),
   outputLatitudeLongitudeOrder( true )
@@ -708,81 +791,75 @@ void Fiomeths::setOutputFilename( const char *filename, const char* _targetDatum
 
 void Fiomeths::convertFile()
 {
+  if( numThreads > 1 )
+  {
+    convertFileParallel();
+    return;
+  }
+
   std::vector<MSP::CCS::CoordinateTuple*> sourceCoordinateCollection;
   std::vector<MSP::CCS::Accuracy*>        sourceAccuracyCollection;
   std::vector<TrailingHeight>             trailingHeightCollection;
   std::vector<CoordinateTuple*>           targetCoordinateCollection;
   std::vector<Accuracy*>                  targetAccuracyCollection;
 
-  FIO_Status error_Code = FIO_Success;
-  long tempErrorCode = 0;
   char next_Character;
-  char Comment[256] = "";
 
   char next_Letters[7];
-  long position;
-  long coordinate = 1;
+  size_t position;
 
-  long MAX_CONVERSIONS = 100000;
+  // Points are converted, and progress reported, in batches of this size
+  long MAX_CONVERSIONS = 10000;
 
   static clock_t startTime, stopTime;
   startTime = clock();
 
-  while (!feof(inputFile))
+  FileCursor cursor( input.data(), input.data() + input.size() );
+
+  while (!cursor.endOfFile())
   {
+    // Keep enough unread input in memory for the next line or header
+    if( !input.endOfFile() && cursor.remaining() < MAX_HEADER_SIZE )
+    {
+      input.consume( cursor.position() );
+      input.fill( FILE_CHUNK_SIZE );
+      cursor = FileCursor( input.data(), input.data() + input.size() );
+    }
+
     CoordinateTuple* sourceCoordinate = 0;
     Accuracy*        sourceAccuracy = 0;
     TrailingHeight trailingHeight;
     trailingHeight.heightPresent = false;
     Accuracy*        targetAccuracy = new Accuracy();
 
-    next_Character = (char)fgetc(inputFile);
-    ungetc(next_Character, inputFile);
-    if (next_Character == '#')
-    {
-      fgets(Comment, 255, inputFile);
-      sourceCoordinate = new CoordinateTuple( ( CoordinateType::Enum )invalid );
-      sourceCoordinate->setErrorMessage( Comment );
-      coordinate = 0;
-    }
-    else if (next_Character == '\n')
-    {
-      fgetc(inputFile);
-      sourceCoordinate = new CoordinateTuple( ( CoordinateType::Enum )invalid );
-      sourceCoordinate->setErrorMessage( "\n" );
-      coordinate = 0;
-    }
-    else if (next_Character == '\r')
-    {
-      fgetc(inputFile);
-      sourceCoordinate = new CoordinateTuple( ( CoordinateType::Enum )invalid );
-      sourceCoordinate->setErrorMessage( "\r" );
-      coordinate = 0;
-    }
-    else if (next_Character == 'H')
+    next_Character = (char)cursor.peek();
+    if (next_Character == 'H')
     {
-      position = ftell(inputFile);
-      fgets(next_Letters, 7, inputFile);
+      position = cursor.position();
+      cursor.getLine(next_Letters, 7);
       if (strcmp(next_Letters, "HEADER") == 0)
       {
         convert(
+           coordinateConversionService,
+           outputFile,
+           _counts,
            sourceCoordinateCollection,
            sourceAccuracyCollection,
            trailingHeightCollection,
            targetCoordinateCollection,
            targetAccuracyCollection );
 
-        long errorCode = parseInputFileHeader(inputFile);
+        long errorCode = parseInputFileHeader(cursor);
         if( errorCode )
         {
           char errorStr[256];
-          getFileErrorString( errorCode, errorStr ); 
+          getFileErrorString( errorCode, errorStr );
           closeInputFile();
           throw CoordinateConversionException( errorStr );
         }
-        CoordinateConversionService* tempCoordinateConversionService = 
+        CoordinateConversionService* tempCoordinateConversionService =
            new CoordinateConversionService(
-              sourceDatumCode, 
+              sourceDatumCode,
               getCoordinateSystemParameters(),
               targetDatumCode,
               targetParameters );
@@ -792,65 +869,13 @@ void Fiomeths::convertFile()
 
         coordinateConversionService = tempCoordinateConversionService;
         sourceCoordinate = new CoordinateTuple( ( CoordinateType::Enum )invalid );
-        coordinate = 0;
       }
       else
-      {
-        fseek(inputFile, position, 0);
-        fputs(next_Letters, inputFile);
-        coordinate = 1;
-      }
-    }
-    else if (feof(inputFile))
-    {
-      sourceCoordinate = new CoordinateTuple( ( CoordinateType::Enum )invalid );
-      coordinate = 0;
+        cursor.setPosition(position);
     }
-    else
-      coordinate = 1;
 
-    if( coordinate )
-    {
-      // Read source coordinate values
-      try
-      {
-        sourceCoordinate = readCoordinate();
-
-        if( readHeight( trailingHeight.height ) == 0 )
-          trailingHeight.heightPresent = true;
-
-        // Read source accuracy values if given
-        char buf[256] = "";
-        fscanf(inputFile, "%[^\n#]", buf);
-        if(strstr(buf, ce90_String) && strstr(buf, le90_String) && strstr(buf, se90_String))
-        {
-          Accuracy* tempSourceAccuracy = readConversionErrors(buf);
-          sourceAccuracy = new Accuracy(
-             tempSourceAccuracy->circularError90(),
-             tempSourceAccuracy->linearError90(),
-             tempSourceAccuracy->sphericalError90() );
-          delete tempSourceAccuracy;
-          tempSourceAccuracy = 0;
-        }
-        else
-          sourceAccuracy = new Accuracy();
-
-        // Store any trailing comments on the coordinate line
-        fgets(Comment, 255, inputFile);
-        if(Comment[0] != '\n')
-          sourceCoordinate->setErrorMessage( Comment );
-      }
-      catch(CoordinateConversionException e)
-      {
-        fgets(Comment, 255, inputFile);
-        sourceCoordinate = new CoordinateTuple( ( CoordinateType::Enum )invalid );
-        sourceCoordinate->setErrorMessage( "# Error reading coordinates from input file\n");
-        _numErrors ++;
-      }
-
-      _numProcessed++;
-
-    }
+    if( !sourceCoordinate )
+      sourceCoordinate = readSourceLine( cursor, &sourceAccuracy, trailingHeight, _counts );
 
     CoordinateTuple* targetCoordinate = initTargetCoordinate();
 
@@ -863,21 +888,34 @@ void Fiomeths::convertFile()
     if( sourceCoordinateCollection.size() == MAX_CONVERSIONS )
     {
        convert(
+          coordinateConversionService,
+          outputFile,
+          _counts,
           sourceCoordinateCollection,
           sourceAccuracyCollection,
           trailingHeightCollection,
           targetCoordinateCollection,
           targetAccuracyCollection );
+
+       bytesRead = input.bytesConsumed() + cursor.position();
+       numConverted = _counts.numProcessed;
+       checkCancelled();
     }
   }
 
   convert(
+     coordinateConversionService,
+     outputFile,
+     _counts,
      sourceCoordinateCollection,
      sourceAccuracyCollection,
      trailingHeightCollection,
      targetCoordinateCollection,
      targetAccuracyCollection );
 
+  bytesRead = input.bytesConsumed() + cursor.position();
+  numConverted = _counts.numProcessed;
+
   stopTime = clock();
 
   _elapsedTime = ( double )( stopTime - startTime ) / CLOCKS_PER_SEC;
@@ -887,10 +925,530 @@ void Fiomeths::convertFile()
 }
 
 
+/*
+ *  ConversionPipeline converts the input file in three stages:
+ *
+ *    reader  - the calling thread splits the input file into
+ *              line-aligned chunks of about FILE_CHUNK_SIZE bytes and
+ *              queues them; a memory mapped file is queued in place,
+ *              otherwise each chunk is copied out of the read buffer,
+ *    workers - each worker thread parses and converts whole chunks
+ *              with its own CoordinateConversionService, formatting
+ *              the results into a memory buffer,
+ *    writer  - a single thread writes the converted chunks to the
+ *              output file in their original order.
+ *
+ *  A HEADER line in the middle of the file changes the source
+ *  coordinate system, so the reader waits for every earlier chunk to be
+ *  written before it parses the new header; the workers rebuild their
+ *  services when they see a chunk from the new header epoch.
+ */
+class Fiomeths::ConversionPipeline
+{
+public:
+
+  ConversionPipeline( Fiomeths& _fiomeths, int _numWorkers );
+
+  ~ConversionPipeline();
+
+  void run();
+
+private:
+
+  struct FileChunk
+  {
+    long             sequence;
+    long             epoch;
+    const char*      data;
+    size_t           length;
+    std::string      storage;
+    std::string      output;
+    ConversionCounts counts;
+    bool             failed;
+    std::string      errorMessage;
+  };
+
+  Fiomeths& fiomeths;
+  int numWorkers;
+  long maxChunksInFlight;
+
+  std::mutex mutex;
+  std::condition_variable chunkQueued;
+  std::condition_variable chunkConverted;
+  std::condition_variable chunkWritten;
+
+  std::deque<FileChunk*> pendingChunks;
+  std::map<long, FileChunk*> convertedChunks;
+  long numChunksRead;
+  long numChunksWritten;
+  long epoch;
+  bool endOfInput;
+  bool failed;
+  std::string errorMessage;
+
+  void readChunks();
+  void convertChunks();
+  void writeChunks();
+
+  void convertChunk( CoordinateConversionService* service, FileChunk* chunk );
+  bool queueChunk( const char* data, size_t length );
+  bool waitForChunks( long maxInFlight );
+  void readHeader( const char* data, size_t length, size_t* consumed );
+  void finishInput();
+  void fail( const char* message );
+};
+
+
+Fiomeths::ConversionPipeline::ConversionPipeline( Fiomeths& _fiomeths, int _numWorkers ) :
+  fiomeths( _fiomeths ),
+  numWorkers( _numWorkers ),
+  maxChunksInFlight( 2 * _numWorkers + 2 ),
+  numChunksRead( 0 ),
+  numChunksWritten( 0 ),
+  epoch( 0 ),
+  endOfInput( false ),
+  failed( false )
+{
+}
+
+
+Fiomeths::ConversionPipeline::~ConversionPipeline()
+{
+  for( size_t i = 0; i < pendingChunks.size(); i++ )
+    delete pendingChunks[i];
+
+  std::map<long, FileChunk*>::iterator iter;
+  for( iter = convertedChunks.begin(); iter != convertedChunks.end(); ++iter )
+    delete iter->second;
+}
+
+
+void Fiomeths::ConversionPipeline::run()
+{
+/*
+ *  The function run converts the whole input file and throws a
+ *  CoordinateConversionException if any stage failed.
+ */
+
+  std::vector<std::thread> workers;
+  for( int i = 0; i < numWorkers; i++ )
+    workers.push_back( std::thread( &ConversionPipeline::convertChunks, this ) );
+  std::thread writer( &ConversionPipeline::writeChunks, this );
+
+  try
+  {
+    readChunks();
+  }
+  catch( CoordinateConversionException e )
+  {
+    fail( e.getMessage() );
+  }
+
+  finishInput();
+
+  for( int i = 0; i < numWorkers; i++ )
+    workers[i].join();
+  writer.join();
+
+  if( failed )
+    throw CoordinateConversionException( errorMessage.c_str() );
+}
+
+
+void Fiomeths::ConversionPipeline::readChunks()
+{
+  FileInput& input = fiomeths.input;
+  bool needMore = false;
+
+  while( true )
+  {
+    // Keep at least one chunk of unread input in memory
+    if( !input.endOfFile() && ( needMore || input.size() < FILE_CHUNK_SIZE ) )
+    {
+      input.fill( input.size() + FILE_CHUNK_SIZE );
+      needMore = false;
+    }
+
+    const char* data = input.data();
+    size_t size = input.size();
+    bool endOfFile = input.endOfFile();
+
+    if( size == 0 )
+      break;
+
+    // End the chunk on a line boundary
+    size_t end = 0;
+    size_t limit = ( size < FILE_CHUNK_SIZE ) ? size : FILE_CHUNK_SIZE;
+    if( limit == size && endOfFile )
+      end = size;
+    else
+    {
+      size_t newline = limit;
+      while( newline > 0 && data[newline - 1] != '\n' )
+        newline--;
+      if( newline == 0 )
+      {
+        const char* next = ( const char* )memchr( data + limit, '\n', size - limit );
+        if( next )
+          newline = next - data + 1;
+      }
+
+      if( newline > 0 )
+        end = newline;
+      else if( endOfFile )
+        end = size;
+      else
+      {
+        // A single line longer than the chunk size
+        needMore = true;
+        continue;
+      }
+    }
+
+    // Look for a header at the start of any line in the chunk
+    size_t header = end;
+    size_t line = 0;
+    while( line < end )
+    {
+      if( end - line >= 6 && strncmp( data + line, header_String, 6 ) == 0 )
+      {
+        header = line;
+        break;
+      }
+      const char* next = ( const char* )memchr( data + line, '\n', end - line );
+      if( !next )
+        break;
+      line = next - data + 1;
+    }
+
+    if( header > 0 )
+    {
+      if( !queueChunk( data, header ) )
+        return;
+      input.consume( header );
+      fiomeths.bytesRead = input.bytesConsumed();
+      continue;
+    }
+
+    if( !endOfFile && size < MAX_HEADER_SIZE )
+    {
+      needMore = true;
+      continue;
+    }
+
+    // The new header changes the source coordinate system, so every
+    // chunk read under the old header must be finished first
+    if( !waitForChunks( 0 ) )
+      return;
+
+    size_t consumed = 0;
+    readHeader( data + 6, size - 6, &consumed );
+    input.consume( 6 + consumed );
+    fiomeths.bytesRead = input.bytesConsumed();
+  }
+}
+
+
+void Fiomeths::ConversionPipeline::readHeader( const char* data, size_t length, size_t* consumed )
+{
+/*
+ *  The function readHeader parses a header found in the middle of the
+ *  input file and starts a new header epoch.  It is only called when no
+ *  chunks are being converted.
+ *
+ *    data     : Header text following the HEADER keyword     (input)
+ *    length   : Length of data                                (input)
+ *    consumed : Number of bytes of data used by the header    (output)
+ */
+
+  char errorStr[256];
+
+  if( length == 0 )
+  {
+    fiomeths.getFileErrorString( FIO_Error_Parsing_Header, errorStr );
+    throw CoordinateConversionException( errorStr );
+  }
+
+  FileCursor cursor( data, data + length );
+  long errorCode = fiomeths.parseInputFileHeader( cursor );
+  size_t position = cursor.position();
+
+  if( errorCode )
+  {
+    fiomeths.getFileErrorString( errorCode, errorStr );
+    throw CoordinateConversionException( errorStr );
+  }
+
+  *consumed = ( position > 0 ) ? position : length;
+
+  CoordinateConversionService* tempCoordinateConversionService =
+     new CoordinateConversionService(
+        fiomeths.sourceDatumCode,
+        fiomeths.getCoordinateSystemParameters(),
+        fiomeths.targetDatumCode,
+        fiomeths.targetParameters );
+
+  delete fiomeths.coordinateConversionService;
+  fiomeths.coordinateConversionService = tempCoordinateConversionService;
+
+  std::lock_guard<std::mutex> lock( mutex );
+  epoch++;
+}
+
+
+bool Fiomeths::ConversionPipeline::queueChunk( const char* data, size_t length )
+{
+  if( !waitForChunks( maxChunksInFlight - 1 ) )
+    return false;
+
+  if( fiomeths.isCancelled() )
+  {
+    fail( CONVERSION_CANCELLED );
+    return false;
+  }
+
+  FileChunk* chunk = new FileChunk();
+  if( fiomeths.input.isMapped() )
+    chunk->data = data;
+  else
+  {
+    // The read buffer is reused, so the chunk keeps its own copy
+    chunk->storage.assign( data, length );
+    chunk->data = chunk->storage.data();
+  }
+  chunk->length = length;
+  chunk->counts = ConversionCounts();
+  chunk->failed = false;
+
+  {
+    std::lock_guard<std::mutex> lock( mutex );
+    chunk->sequence = numChunksRead++;
+    chunk->epoch = epoch;
+    pendingChunks.push_back( chunk );
+  }
+  chunkQueued.notify_one();
+
+  return true;
+}
+
+
+bool Fiomeths::ConversionPipeline::waitForChunks( long maxInFlight )
+{
+/*
+ *  The function waitForChunks blocks the reader until no more than
+ *  maxInFlight chunks are waiting to be written.  It returns false if
+ *  the conversion has failed.
+ */
+
+  std::unique_lock<std::mutex> lock( mutex );
+  while( !failed && numChunksRead - numChunksWritten > maxInFlight )
+    chunkWritten.wait( lock );
+  return !failed;
+}
+
+
+void Fiomeths::ConversionPipeline::convertChunks()
+{
+  CoordinateConversionService* service = 0;
+  long serviceEpoch = -1;
+
+  while( true )
+  {
+    FileChunk* chunk = 0;
+    {
+      std::unique_lock<std::mutex> lock( mutex );
+      while( !failed && !endOfInput && pendingChunks.empty() )
+        chunkQueued.wait( lock );
+      if( failed || pendingChunks.empty() )
+        break;
+      chunk = pendingChunks.front();
+      pendingChunks.pop_front();
+    }
+
+    try
+    {
+      if( chunk->epoch != serviceEpoch )
+      {
+        delete service;
+        service = 0;
+        service = new CoordinateConversionService(
+           fiomeths.sourceDatumCode,
+           fiomeths.getCoordinateSystemParameters(),
+           fiomeths.targetDatumCode,
+           fiomeths.targetParameters );
+        serviceEpoch = chunk->epoch;
+      }
+
+      convertChunk( service, chunk );
+    }
+    catch( CoordinateConversionException e )
+    {
+      chunk->failed = true;
+      chunk->errorMessage = e.getMessage();
+    }
+
+    {
+      std::lock_guard<std::mutex> lock( mutex );
+      convertedChunks[chunk->sequence] = chunk;
+    }
+    chunkConverted.notify_one();
+  }
+
+  delete service;
+}
+
+
+void Fiomeths::ConversionPipeline::convertChunk( CoordinateConversionService* service, FileChunk* chunk )
+{
+  std::vector<MSP::CCS::CoordinateTuple*> sourceCoordinateCollection;
+  std::vector<MSP::CCS::Accuracy*>        sourceAccuracyCollection;
+  std::vector<TrailingHeight>             trailingHeightCollection;
+  std::vector<CoordinateTuple*>           targetCoordinateCollection;
+  std::vector<Accuracy*>                  targetAccuracyCollection;
+
+  FileCursor cursor( chunk->data, chunk->data + chunk->length );
+
+  Memory_Output output;
+  if( Open_Memory_Output( &output ) )
+    throw CoordinateConversionException( FILE_CREATE_ERROR );
+
+  while( !cursor.endOfFile() )
+  {
+    Accuracy* sourceAccuracy = 0;
+    TrailingHeight trailingHeight;
+    trailingHeight.heightPresent = false;
+
+    CoordinateTuple* sourceCoordinate = fiomeths.readSourceLine(
+       cursor, &sourceAccuracy, trailingHeight, chunk->counts );
+
+    sourceCoordinateCollection.push_back( sourceCoordinate );
+    sourceAccuracyCollection.push_back( sourceAccuracy );
+    trailingHeightCollection.push_back( trailingHeight );
+    targetCoordinateCollection.push_back( fiomeths.initTargetCoordinate() );
+    targetAccuracyCollection.push_back( new Accuracy() );
+  }
+
+  fiomeths.convert(
+     service,
+     output.file,
+     chunk->counts,
+     sourceCoordinateCollection,
+     sourceAccuracyCollection,
+     trailingHeightCollection,
+     targetCoordinateCollection,
+     targetAccuracyCollection );
+
+  Close_Memory_Output( &output, chunk->output );
+
+  std::string().swap( chunk->storage );
+}
+
+
+void Fiomeths::ConversionPipeline::writeChunks()
+{
+  while( true )
+  {
+    FileChunk* chunk = 0;
+    {
+      std::unique_lock<std::mutex> lock( mutex );
+      std::map<long, FileChunk*>::iterator iter;
+      while( !failed &&
+             ( iter = convertedChunks.find( numChunksWritten ) ) == convertedChunks.end() &&
+             !( endOfInput && numChunksWritten == numChunksRead ) )
+        chunkConverted.wait( lock );
+      if( failed || iter == convertedChunks.end() )
+        break;
+      chunk = iter->second;
+      convertedChunks.erase( iter );
+    }
+
+    if( chunk->failed )
+    {
+      fail( chunk->errorMessage.c_str() );
+      delete chunk;
+      break;
+    }
+
+    fwrite( chunk->output.data(), 1, chunk->output.size(), fiomeths.outputFile );
+
+    fiomeths._counts.numErrors    += chunk->counts.numErrors;
+    fiomeths._counts.numProcessed += chunk->counts.numProcessed;
+    fiomeths._counts.numWarnings  += chunk->counts.numWarnings;
+    fiomeths.numConverted = fiomeths._counts.numProcessed;
+
+    delete chunk;
+
+    {
+      std::lock_guard<std::mutex> lock( mutex );
+      numChunksWritten++;
+    }
+    chunkWritten.notify_all();
+  }
+}
+
+
+void Fiomeths::ConversionPipeline::finishInput()
+{
+  {
+    std::lock_guard<std::mutex> lock( mutex );
+    endOfInput = true;
+  }
+  chunkQueued.notify_all();
+  chunkConverted.notify_all();
+  chunkWritten.notify_all();
+}
+
+
+void Fiomeths::ConversionPipeline::fail( const char* message )
+{
+  {
+    std::lock_guard<std::mutex> lock( mutex );
+    if( !failed )
+    {
+      failed = true;
+      errorMessage = message;
+    }
+  }
+  chunkQueued.notify_all();
+  chunkConverted.notify_all();
+  chunkWritten.notify_all();
+}
+
+
+void Fiomeths::convertFileParallel()
+{
+/*
+ *  The function convertFileParallel converts the input file with
+ *  numThreads worker threads.  The output is identical to the output of
+ *  the single threaded conversion.
+ */
+
+  std::chrono::steady_clock::time_point startTime = std::chrono::steady_clock::now();
+
+  try
+  {
+    ConversionPipeline pipeline( *this, numThreads );
+    pipeline.run();
+  }
+  catch( CoordinateConversionException e )
+  {
+    closeInputFile();
+    closeOutputFile();
+    throw CoordinateConversionException( e.getMessage() );
+  }
+
+  _elapsedTime = std::chrono::duration<double>(
+     std::chrono::steady_clock::now() - startTime ).count();
+
+  closeInputFile();
+  closeOutputFile();
+}
+
+
 void Fiomeths::closeInputFile()
 {
-  if (inputFile != NULL)
-    Close_File(&inputFile);
+  if (input.isOpen())
+    input.close();
 }
 
 
@@ -984,19 +1542,19 @@ CoordinateSystemParameters* Fiomeths::getCoordinateSystemParameters() const
 
 long Fiomeths::getNumErrors() const
 {
-  return _numErrors;
+  return _counts.numErrors;
 }
 
 
 long Fiomeths::getNumProcessed() const
 {
-  return _numProcessed;
+  return _counts.numProcessed;
 }
 
 
 long Fiomeths::getNumWarnings() const
 {
-  return _numWarnings;
+  return _counts.numWarnings;
 }
 
 
@@ -1068,6 +1626,55 @@ void Fiomeths::setGeodeticCoordinateOrder(bool _outputLatitudeLongitudeOrder)
 }
 
 
+void Fiomeths::setNumThreads(int _numThreads)
+{
+  if( _numThreads < 1 )
+  {
+    _numThreads = ( int )std::thread::hardware_concurrency();
+    if( _numThreads < 1 )
+      _numThreads = 1;
+  }
+
+  numThreads = _numThreads;
+}
+
+
+int Fiomeths::getNumThreads() const
+{
+  return numThreads;
+}
+
+
+void Fiomeths::cancelConversion()
+{
+  cancelled = true;
+}
+
+
+bool Fiomeths::isCancelled() const
+{
+  return cancelled;
+}
+
+
+long long Fiomeths::getFileSize() const
+{
+  return fileSize;
+}
+
+
+long long Fiomeths::getBytesRead() const
+{
+  return bytesRead;
+}
+
+
+long Fiomeths::getNumConverted() const
+{
+  return numConverted;
+}
+
+
 /************************************************************************/
 /*                              PRIVATE FUNCTIONS     
  *
@@ -1075,21 +1682,40 @@ void Fiomeths::setGeodeticCoordinateOrder(bool _outputLatitudeLongitudeOrder)
 
 void Fiomeths::setInputFilename( const char *filename )
 {
-  FVC_Status error_Code_File = Open_File( SourceOrTarget::source, filename, &inputFile);
-  if (error_Code_File)
+  if (!input.open(filename, useMemoryMapping))
     throw CoordinateConversionException( FILE_OPEN_ERROR );
-  else
+
+  fileSize = input.fileSize();
+
+  input.fill(MAX_HEADER_SIZE);
+  FileCursor cursor(input.data(), input.data() + input.size());
+
+  long error_Code = parseInputFileHeader(cursor);
+  if( error_Code )
   {
-    long error_Code = parseInputFileHeader(inputFile);
-    if( error_Code )
-    {
-      char errorStr[256];
-      getFileErrorString( error_Code, errorStr ); 
-      throw CoordinateConversionException( errorStr );
-    }
+    char errorStr[256];
+    getFileErrorString( error_Code, errorStr ); 
+    throw CoordinateConversionException( errorStr );
   }
 
-  Eat_Noise(inputFile);
+  Eat_Noise(cursor);
+  input.consume(cursor.position());
+}
+
+
+void Fiomeths::checkCancelled()
+{
+/*
+ *  The function checkCancelled stops the serial conversion, closing both
+ *  files, once cancelConversion has been called.
+ */
+
+  if( cancelled )
+  {
+    closeInputFile();
+    closeOutputFile();
+    throw CoordinateConversionException( CONVERSION_CANCELLED );
+  }
 }
 
 
@@ -1211,7 +1837,7 @@ void Fiomeths::getFileErrorString(long error, char *str)
 }
 
 
-long Fiomeths::parseInputFileHeader(FILE *file)
+long Fiomeths::parseInputFileHeader(FileCursor &cursor)
 {
   HeightType::Enum heightType = HeightType::ellipsoidHeight;
   double centralMeridian = 0.0;
@@ -1246,7 +1872,7 @@ long Fiomeths::parseInputFileHeader(FILE *file)
   inputLatitudeLongitudeOrder = true;
 
   /* Process each header line until end-of-header sequence reached */
-  error_Code_File = Next_Header_Line(file, &header_Line);
+  error_Code_File = Next_Header_Line(cursor, &header_Line);
   if (error_Code_File)
     return FIO_Error_Parsing_Header;
   while (header_Line != FHD_End_of_Header)
@@ -1256,7 +1882,7 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       case FHD_Projection:
       {
         char coord_Type[256] = "";
-        if (fgets(coord_Type,256,file) == NULL)
+        if (cursor.getLine(coord_Type,256) == NULL)
           return FIO_Error_Projection;
         else
         {
@@ -1280,7 +1906,7 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       case FHD_Datum:
       {
         char datumCode[7];
-        if (fscanf(file, "%s", datumCode) <=0)
+        if (cursor.scanWord(datumCode, 6) <=0)
           return FIO_Error_Datum;
         else
         {
@@ -1342,8 +1968,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
         double value = 0.0;
         long error_code = 0;
         longitude_header_type = FHD_Central_Meridian;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%14[ 0123456789NSEW:/+.-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 14);
         if (error_code)
         {
           error_code = String_to_Longitude(buf,&value);
@@ -1363,8 +1989,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
         double value = 0.0;
         long error_code = 0;
         latitude_header_type = FHD_Latitude_of_True_Scale;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%13[ 0123456789NSEW:/.+-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 13);
         if (error_code)
         {
           error_code = String_to_Latitude(buf,&value);
@@ -1384,8 +2010,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
         double value = 0.0;
         long error_code = 0;
         longitude_header_type = FHD_Longitude_Down_from_Pole;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%14[ 0123456789NSEW:/+.-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 14);
         if (error_code)
         {
           error_code = String_to_Longitude(buf,&value);
@@ -1405,8 +2031,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
         double value = 0.0;
         long error_code = 0;
         latitude_header_type = FHD_Origin_Latitude;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%13[ 0123456789NSEW:/.+-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 13);
         if (error_code)
         {
           error_code = String_to_Latitude(buf,&value);
@@ -1426,8 +2052,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
         double value = 0.0;
         long error_code = 0;
         longitude_header_type = FHD_Origin_Longitude;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%14[ 0123456789NSEW:/+.-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 14);
         if (error_code)
         {
           error_code = String_to_Longitude(buf,&value);
@@ -1445,7 +2071,7 @@ long Fiomeths::parseInputFileHeader(FILE *file)
     case FHD_Origin_Height:
       {
         double value = 0.0;
-        long error_code = fscanf(file, "%s", buf);
+        long error_code = cursor.scanWord(buf, 255);
         if (error_code)
         {
           length = strlen(buf)-1;
@@ -1465,8 +2091,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       {
         double value = 0.0;
         long error_code = 0;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%14[ 0123456789NSEW:/+.-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 14);
         if (error_code)
         {
           error_code = String_to_Longitude(buf,&value);
@@ -1485,8 +2111,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       {
         double value = 0.0;
         long error_code = 0;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%13[ 0123456789NSEW:/.+-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 13);
         if (error_code)
         {
           error_code = String_to_Latitude(buf,&value);
@@ -1505,8 +2131,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       {
         double value = 0.0;
         long error_code = 0;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%13[ 0123456789NSEW:/.+-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 13);
         if (error_code)
         {
           error_code = String_to_Longitude(buf,&value);
@@ -1525,8 +2151,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       {
         double value = 0.0;
         long error_code = 0;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%13[ 0123456789NSEW:/.+-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 13);
         if (error_code)
         {
           error_code = String_to_Latitude(buf,&value);
@@ -1545,8 +2171,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       {
         double value = 0.0;
         long error_code = 0;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%13[ 0123456789NSEW:/.+-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 13);
         if (error_code)
         {
           error_code = String_to_Longitude(buf,&value);
@@ -1566,8 +2192,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
         double value = 0.0;
         long error_code = 0;
         latitude_header_type = FHD_Standard_Parallel;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%13[ 0123456789NSEW:/.+-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 13);
         if (error_code)
         {
           error_code = String_to_Latitude(buf,&value);
@@ -1586,8 +2212,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       {
         double value = 0.0;
         long error_code = 0;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%13[ 0123456789NSEW:/.+-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 13);
         if (error_code)
         {
           error_code = String_to_Latitude(buf,&value);
@@ -1606,8 +2232,8 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       {
         double value = 0.0;
         long error_code = 0;
-        Eat_Noise(file);
-        error_code = fscanf(file, "%13[ 0123456789NSEW:/.+-]", buf);
+        Eat_Noise(cursor);
+        error_code = cursor.scanDMS(buf, 13);
         if (error_code)
         {
           error_code = String_to_Latitude(buf,&value);
@@ -1625,7 +2251,7 @@ long Fiomeths::parseInputFileHeader(FILE *file)
     case FHD_False_Easting:
       {
         double value = 0.0;
-        long error_code = fscanf(file, "%s", buf);
+        long error_code = cursor.scanWord(buf, 255);
         if (error_code)
         {
           length = strlen(buf)-1;
@@ -1644,7 +2270,7 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       case FHD_False_Northing:
       {
         double value = 0.0;
-        long error_code = fscanf(file, "%s", buf);
+        long error_code = cursor.scanWord(buf, 255);
         if (error_code)
         {
           length = strlen(buf)-1;
@@ -1663,7 +2289,7 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       case FHD_Scale_Factor:
       {
         double value = 0.0;
-        long error_code = fscanf(file, "%s", buf);
+        long error_code = cursor.scanWord(buf, 255);
         if (error_code)
         {
           length = strlen(buf)-1;
@@ -1687,7 +2313,7 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       case FHD_Coordinate_Order:
       {
         int i = 0;
-        long error_code = fscanf(file, "%s", buf);
+        long error_code = cursor.scanWord(buf, 255);
         if (error_code)
         {
           int length = strlen(buf);
@@ -1708,7 +2334,7 @@ long Fiomeths::parseInputFileHeader(FILE *file)
       case FHD_Hemisphere:
       {
         int i = 0;
-        long error_code = fscanf(file, "%s", buf);
+        long error_code = cursor.scanWord(buf, 255);
         if (error_code)
         {
           int length = strlen(buf);
@@ -1731,7 +2357,7 @@ long Fiomeths::parseInputFileHeader(FILE *file)
     default:
       return FIO_Error_Parsing_Header;
     } /* switch */
-    error_Code_File = Next_Header_Line(file, &header_Line);
+    error_Code_File = Next_Header_Line(cursor, &header_Line);
     if (error_Code_File)
       return FIO_Error_Parsing_Header;
   } /* while */
@@ -2741,7 +3367,94 @@ void Fiomeths::setCoordinateSystemParameters( MSP::CCS::CoordinateSystemParamete
 }
 
 
-CoordinateTuple* Fiomeths::readCoordinate()
+CoordinateTuple* Fiomeths::readSourceLine(
+   FileCursor& cursor, Accuracy** sourceAccuracy, TrailingHeight& trailingHeight, ConversionCounts& counts )
+{
+/*
+ *  The function readSourceLine reads the next line of the input file.
+ *  Comment and blank lines are returned as invalid coordinate tuples
+ *  holding the text of the line, which is copied to the output file.
+ *
+ *    cursor         : Input file cursor                       (input)
+ *    sourceAccuracy : Source accuracy read from the line      (output)
+ *    trailingHeight : Height following the coordinates        (output)
+ *    counts         : Processed and error counts              (output)
+ */
+
+  CoordinateTuple* sourceCoordinate = 0;
+  char Comment[256] = "";
+  char next_Character;
+
+  next_Character = (char)cursor.peek();
+  if (next_Character == '#')
+  {
+    cursor.getLine(Comment, 255);
+    sourceCoordinate = new CoordinateTuple( ( CoordinateType::Enum )invalid );
+    sourceCoordinate->setErrorMessage( Comment );
+  }
+  else if (next_Character == '\n')
+  {
+    cursor.get();
+    sourceCoordinate = new CoordinateTuple( ( CoordinateType::Enum )invalid );
+    sourceCoordinate->setErrorMessage( "\n" );
+  }
+  else if (next_Character == '\r')
+  {
+    cursor.get();
+    sourceCoordinate = new CoordinateTuple( ( CoordinateType::Enum )invalid );
+    sourceCoordinate->setErrorMessage( "\r" );
+  }
+  else if (cursor.endOfFile())
+  {
+    sourceCoordinate = new CoordinateTuple( ( CoordinateType::Enum )invalid );
+  }
+  else
+  {
+    // Read source coordinate values
+    try
+    {
+      sourceCoordinate = readCoordinate( cursor );
+
+      if( readHeight( cursor, trailingHeight.height ) == 0 )
+        trailingHeight.heightPresent = true;
+
+      // Read source accuracy values if given
+      char buf[256] = "";
+      cursor.scan(buf, 255, accuracy_Characters);
+      if(strstr(buf, ce90_String) && strstr(buf, le90_String) && strstr(buf, se90_String))
+      {
+        Accuracy* tempSourceAccuracy = readConversionErrors(buf);
+        *sourceAccuracy = new Accuracy(
+           tempSourceAccuracy->circularError90(),
+           tempSourceAccuracy->linearError90(),
+           tempSourceAccuracy->sphericalError90() );
+        delete tempSourceAccuracy;
+        tempSourceAccuracy = 0;
+      }
+      else
+        *sourceAccuracy = new Accuracy();
+
+      // Store any trailing comments on the coordinate line
+      cursor.getLine(Comment, 255);
+      if(Comment[0] != '\n')
+        sourceCoordinate->setErrorMessage( Comment );
+    }
+    catch(CoordinateConversionException e)
+    {
+      cursor.getLine(Comment, 255);
+      sourceCoordinate = new CoordinateTuple( ( CoordinateType::Enum )invalid );
+      sourceCoordinate->setErrorMessage( "# Error reading coordinates from input file\n");
+      counts.numErrors ++;
+    }
+
+    counts.numProcessed++;
+  }
+
+  return sourceCoordinate;
+}
+
+
+CoordinateTuple* Fiomeths::readCoordinate( FileCursor& cursor )
 {
   long tempErrorCode = 0;
 
@@ -2756,8 +3469,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
       double latitude = 0;
       double height = 0;
 
-      Eat_Noise(inputFile);
-      if (!feof(inputFile) && (fscanf(inputFile, "%255[^,\t\n]", buf)))
+      Eat_Noise(cursor);
+      if (!cursor.endOfFile() && (cursor.scan(buf, 255, field_Characters)))
       {
         if( inputLatitudeLongitudeOrder )  // first value is latitude
           tempErrorCode = String_to_Latitude(buf, &temp_val);
@@ -2771,8 +3484,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
           else                      // first value is longitude
             longitude =(temp_val*PI)/180;
 
-          fscanf(inputFile, "%[, \t]", buf);
-          if (!feof(inputFile) && (fscanf(inputFile, "%255[^,\t\n#;]", buf)))
+          cursor.skip(separator_Characters);
+          if (!cursor.endOfFile() && (cursor.scan(buf, 255, last_Field_Characters)))
           {
             length = strlen(buf)-1;
             if (!isdigit(buf[length]) && !isalpha(buf[length]))
@@ -2793,8 +3506,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
               /*only read height if not No Height*/
               if(geodeticParameters && geodeticParameters->heightType() != HeightType::noHeight)
               {
-                fscanf(inputFile, "%[, \t]", buf);
-                if (!feof(inputFile) && (fscanf(inputFile, "%[^, \t\n#;]", buf)))
+                cursor.skip(separator_Characters);
+                if (!cursor.endOfFile() && (cursor.scan(buf, 255, height_Characters)))
                 {
                   length = strlen(buf)-1;
                   if (!isdigit(buf[length]))
@@ -2826,8 +3539,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
       char return_Parameter[32];
       int i = 0;
 
-      Eat_Noise(inputFile);
-      if (!feof(inputFile) && (fscanf(inputFile, "%255[1234567890abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ]", return_Parameter)))
+      Eat_Noise(cursor);
+      if (!cursor.endOfFile() && (cursor.scan(return_Parameter, 31, alphanumeric_Characters)))
       {
         for (i = 0;(unsigned int)i < strlen(return_Parameter); i++)
           return_Parameter[i] = (char)toupper(return_Parameter[i]);
@@ -2844,12 +3557,12 @@ CoordinateTuple* Fiomeths::readCoordinate()
       char buf[256];
       double x, y, z;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &x, &y );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &x, &y );
       if(!tempErrorCode)
       {
-        fscanf(inputFile, "%[, \t]", buf);
-        if (!feof(inputFile) && (fscanf(inputFile, "%255[^, \t\n;]", buf)))
+        cursor.skip(separator_Characters);
+        if (!cursor.endOfFile() && (cursor.scan(buf, 255, last_Value_Characters)))
         {
           tempErrorCode = String_to_Double( buf, &z );
           if(!tempErrorCode)
@@ -2873,8 +3586,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
       double latitude = 0;
       double height = 0;
 
-      Eat_Noise(inputFile);
-      if (!feof(inputFile) && (fscanf(inputFile, "%255[^,\t\n]", buf)))
+      Eat_Noise(cursor);
+      if (!cursor.endOfFile() && (cursor.scan(buf, 255, field_Characters)))
       {
         if( inputLatitudeLongitudeOrder )  // first value is latitude
           tempErrorCode = String_to_Latitude(buf, &temp_val);
@@ -2888,8 +3601,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
           else                      // first value is longitude
             longitude =(temp_val*PI)/180;
 
-          fscanf(inputFile, "%[, \t]", buf);
-          if (!feof(inputFile) && (fscanf(inputFile, "%255[^,\t\n#;]", buf)))
+          cursor.skip(separator_Characters);
+          if (!cursor.endOfFile() && (cursor.scan(buf, 255, last_Field_Characters)))
           {
             length = strlen(buf)-1;
             if (!isdigit(buf[length]) && !isalpha(buf[length]))
@@ -2908,8 +3621,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
                     latitude =(temp_val*PI)/180;
 
 
-                fscanf(inputFile, "%[, \t]", buf);
-                if (!feof(inputFile) && (fscanf(inputFile, "%[^, \t\n#;]", buf)))
+                cursor.skip(separator_Characters);
+                if (!cursor.endOfFile() && (cursor.scan(buf, 255, height_Characters)))
                 {
                     length = strlen(buf)-1;
                     if (!isdigit(buf[length]))
@@ -2954,12 +3667,12 @@ CoordinateTuple* Fiomeths::readCoordinate()
       char buf[256];
       double x, y, z;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &x, &y );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &x, &y );
       if(!tempErrorCode)
       {
-        fscanf(inputFile, "%[, \t]", buf);
-        if (!feof(inputFile) && (fscanf(inputFile, "%255[^, \t\n;]", buf)))
+        cursor.skip(separator_Characters);
+        if (!cursor.endOfFile() && (cursor.scan(buf, 255, last_Value_Characters)))
         {
           tempErrorCode = String_to_Double( buf, &z );
           if(!tempErrorCode)
@@ -2978,8 +3691,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
       char return_Parameter[32];
       int i = 0;
 
-      Eat_Noise(inputFile);
-      if (!feof(inputFile) && (fscanf(inputFile, "%255[1234567890abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ]", return_Parameter)))
+      Eat_Noise(cursor);
+      if (!cursor.endOfFile() && (cursor.scan(return_Parameter, 31, alphanumeric_Characters)))
       {
         for (i = 0;(unsigned int)i < strlen(return_Parameter); i++)
           return_Parameter[i] = (char)toupper(return_Parameter[i]);
@@ -2995,8 +3708,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
       char return_Parameter[32];
       int i = 0;
 
-      Eat_Noise(inputFile);
-      if (!feof(inputFile) && (fscanf(inputFile, "%255[1234567890abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ]", return_Parameter)))
+      Eat_Noise(cursor);
+      if (!cursor.endOfFile() && (cursor.scan(return_Parameter, 31, alphanumeric_Characters)))
       {
         for (i = 0;(unsigned int)i < strlen(return_Parameter); i++)
           return_Parameter[i] = (char)toupper(return_Parameter[i]);
@@ -3015,23 +3728,23 @@ CoordinateTuple* Fiomeths::readCoordinate()
       double easting, northing;
       double temp = 0;
 
-      Eat_Noise(inputFile);
-      if (!feof(inputFile) && (fscanf(inputFile, "%255[^, \t\n]", buf)))
+      Eat_Noise(cursor);
+      if (!cursor.endOfFile() && (cursor.scan(buf, 255, value_Characters)))
       {
         tempErrorCode = String_to_Double(buf,&temp);
         if(!tempErrorCode)
         {
           zone = (long)temp;
-          fscanf(inputFile, "%[, \t]", buf);
-          if (!feof(inputFile) && (fscanf(inputFile, "%255[^, \t\n]", &hemisphere)))
+          cursor.skip(separator_Characters);
+          if (!cursor.endOfFile() && (cursor.scan(buf, 255, value_Characters)))
           {
-            hemisphere = (char)toupper(hemisphere);
+            hemisphere = (char)toupper(buf[0]);
             if ((hemisphere != 'N') && (hemisphere != 'S'))
               throw CoordinateConversionException( ERROR_PARSING_FILE );
             else
             {
-              fscanf(inputFile, "%[, \t]", buf);
-              tempErrorCode = readCoord( &easting, &northing );
+              cursor.skip(separator_Characters);
+              tempErrorCode = readCoord( cursor, &easting, &northing );
               if(!tempErrorCode)
               {
                 return new UTMCoordinates(CoordinateType::universalTransverseMercator, zone, hemisphere, easting, northing);
@@ -3054,16 +3767,16 @@ CoordinateTuple* Fiomeths::readCoordinate()
       char hemisphere;
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      if (!feof(inputFile) && (fscanf(inputFile, "%255[^, \t\n]", &hemisphere)))
+      Eat_Noise(cursor);
+      if (!cursor.endOfFile() && (cursor.scan(buf, 255, value_Characters)))
       {
-        hemisphere = (char)toupper(hemisphere);
+        hemisphere = (char)toupper(buf[0]);
         if ((hemisphere != 'N') && (hemisphere != 'S'))
           throw CoordinateConversionException( ERROR_PARSING_FILE );
         else
         {
-          fscanf(inputFile, "%[, \t]", buf);
-          tempErrorCode = readCoord(&easting, &northing);
+          cursor.skip(separator_Characters);
+          tempErrorCode = readCoord( cursor, &easting, &northing);
           if(!tempErrorCode)
           {
             return new UPSCoordinates(CoordinateType::universalPolarStereographic, hemisphere, easting, northing);
@@ -3080,8 +3793,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::albersEqualAreaConic, easting, northing);
@@ -3094,8 +3807,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::azimuthalEquidistant, easting, northing);
@@ -3108,8 +3821,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::bonne, easting, northing);
@@ -3122,8 +3835,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::cassini, easting, northing);
@@ -3136,8 +3849,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::cylindricalEqualArea, easting, northing);
@@ -3150,8 +3863,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::eckert4, easting, northing);
@@ -3164,8 +3877,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::eckert6, easting, northing);
@@ -3178,8 +3891,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::equidistantCylindrical, easting, northing);
@@ -3192,8 +3905,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::gnomonic, easting, northing);
@@ -3206,8 +3919,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::lambertConformalConic1Parallel, easting, northing);
@@ -3220,8 +3933,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::lambertConformalConic2Parallels, easting, northing);
@@ -3234,8 +3947,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::mercatorStandardParallel, easting, northing);
@@ -3248,8 +3961,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::mercatorScaleFactor, easting, northing);
@@ -3262,8 +3975,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::millerCylindrical, easting, northing);
@@ -3276,8 +3989,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::mollweide, easting, northing);
@@ -3290,8 +4003,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::neys, easting, northing);
@@ -3304,8 +4017,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::newZealandMapGrid, easting, northing);
@@ -3318,8 +4031,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::obliqueMercator, easting, northing);
@@ -3332,8 +4045,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::orthographic, easting, northing);
@@ -3346,8 +4059,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::polarStereographicStandardParallel, easting, northing);
@@ -3360,8 +4073,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::polarStereographicScaleFactor, easting, northing);
@@ -3374,8 +4087,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::polyconic, easting, northing);
@@ -3388,8 +4101,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::sinusoidal, easting, northing);
@@ -3402,8 +4115,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::stereographic, easting, northing);
@@ -3416,8 +4129,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::transverseCylindricalEqualArea, easting, northing);
@@ -3430,8 +4143,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::transverseMercator, easting, northing);
@@ -3444,8 +4157,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(CoordinateType::vanDerGrinten, easting, northing);
@@ -3460,10 +4173,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
       char return_Parameter[32];
       int i = 0;
 
-      Eat_Noise(inputFile);
-      if (!feof(inputFile) && (fscanf(inputFile,
-         "%255[ 1234567890abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ]",
-         return_Parameter)))
+      Eat_Noise(cursor);
+      if (!cursor.endOfFile() && (cursor.scan(return_Parameter, 31, alphanumeric_Space_Characters)))
       {
         for (i = 0;(unsigned int)i < strlen(return_Parameter); i++)
           return_Parameter[i] = (char)toupper(return_Parameter[i]);
@@ -3481,10 +4192,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
       char return_Parameter[32];
       int i = 0;
 
-      Eat_Noise(inputFile);
-      if (!feof(inputFile) && (fscanf(inputFile,
-         "%255[1234567890abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ]",
-         return_Parameter)))
+      Eat_Noise(cursor);
+      if (!cursor.endOfFile() && (cursor.scan(return_Parameter, 31, alphanumeric_Characters)))
       {
         for (i = 0;(unsigned int)i < strlen(return_Parameter); i++)
           return_Parameter[i] = (char)toupper(return_Parameter[i]);
@@ -3500,8 +4209,8 @@ CoordinateTuple* Fiomeths::readCoordinate()
     {
       double easting, northing;
 
-      Eat_Noise(inputFile);
-      tempErrorCode = readCoord( &easting, &northing );
+      Eat_Noise(cursor);
+      tempErrorCode = readCoord( cursor, &easting, &northing );
       if(!tempErrorCode)
       {
         return new MapProjectionCoordinates(
@@ -3519,20 +4228,20 @@ CoordinateTuple* Fiomeths::readCoordinate()
 }
 
 
-long Fiomeths::readCoord(double *easting, double *northing)
+long Fiomeths::readCoord(FileCursor& cursor, double *easting, double *northing)
 {
   char buf[256];
   FVC_Status error_Code = FVC_Success;
 
-  if (!feof(inputFile) && (fscanf(inputFile, "%255[^, \t\n]", buf)))
+  if (!cursor.endOfFile() && (cursor.scan(buf, 255, value_Characters)))
     error_Code = (FVC_Status)String_to_Double(buf, easting);
   else
     error_Code = FVC_Error;
 
   if(!error_Code)
   {
-    fscanf(inputFile, "%[, \t]", buf);
-    if (!feof(inputFile) && (fscanf(inputFile, "%255[^, \t\n;]", buf)))
+    cursor.skip(separator_Characters);
+    if (!cursor.endOfFile() && (cursor.scan(buf, 255, last_Value_Characters)))
       error_Code = (FVC_Status)String_to_Double(buf, northing);
     else
       error_Code = FVC_Error;
@@ -3541,13 +4250,13 @@ long Fiomeths::readCoord(double *easting, double *northing)
 }
 
 
-long Fiomeths::readHeight(char* height)
+long Fiomeths::readHeight(FileCursor& cursor, char* height)
 {
   char buf[256];
   FVC_Status error_Code = FVC_Success;
 
-  fscanf(inputFile, "%[, \t]", buf);
-  if (!feof(inputFile) && (fscanf(inputFile, "%255[^, \t\n;]", buf)))
+  cursor.skip(separator_Characters);
+  if (!cursor.endOfFile() && (cursor.scan(buf, 255, last_Value_Characters)))
     strcpy(height, buf);
   else
     error_Code = FVC_Error;
@@ -3624,6 +4333,9 @@ Accuracy* Fiomeths::readConversionErrors( char* errors )
 
 
 void Fiomeths::convert( 
+   CoordinateConversionService*             service,
+   FILE*                                    file,
+   ConversionCounts&                        counts,
    std::vector<MSP::CCS::CoordinateTuple*>& sourceCoordinateCollection,
    std::vector<MSP::CCS::Accuracy*>&        sourceAccuracyCollection,
    std::vector<TrailingHeight>&             trailingHeightCollection,
@@ -3644,7 +4356,7 @@ void Fiomeths::convert(
 
 ///	t_start = time( NULL );
 
-  coordinateConversionService->convertSourceToTargetCollection(
+  service->convertSourceToTargetCollection(
      sourceCoordinateCollection,
      sourceAccuracyCollection,
      targetCoordinateCollection,
@@ -3670,7 +4382,7 @@ void Fiomeths::convert(
 
       if( targetCoordinate->coordinateType() == invalid )
       {
-        Output_String( outputFile, targetCoordinate->errorMessage() );
+        Output_String( file, targetCoordinate->errorMessage() );
       }
       else
       {
@@ -3678,7 +4390,7 @@ void Fiomeths::convert(
         int length = strlen( targetCoordinate->warningMessage() );
         if( length > 0 )
         {
-          Output_String( outputFile, "# Warning: " );
+          Output_String( file, "# Warning: " );
 
           char buf[256];
           const char* targetWarningMessage = targetCoordinate->warningMessage();
@@ -3690,23 +4402,23 @@ void Fiomeths::convert(
             const char* tempWarningMessage = targetWarningMessage + index;
             sscanf(tempWarningMessage, "%[^\n]", buf);
             index += strlen( buf );
-            Output_String( outputFile, buf );
+            Output_String( file, buf );
             buf[0] = 0;
             sscanf(targetWarningMessage + index, "%[\n]", buf);
             index += strlen( buf );
           }
           while( strlen( buf ) > 0 && index < length );
 
-          Output_Newline(outputFile);
+          Output_Newline(file);
 
-          _numWarnings ++;
+          counts.numWarnings ++;
         }
 
         // Write any error messages
         length = strlen( targetCoordinate->errorMessage() );
         if( length > 0)
         {
-          Output_String( outputFile, "# Error: " );
+          Output_String( file, "# Error: " );
 
           char buf[256];
           const char* targetErrorMessage = targetCoordinate->errorMessage();
@@ -3718,21 +4430,21 @@ void Fiomeths::convert(
             const char* tempErrorMessage = targetErrorMessage + index;
             sscanf(tempErrorMessage, "%[^\n]", buf);
             index += strlen( buf );
-            Output_String( outputFile, buf );
+            Output_String( file, buf );
             buf[0] = 0;
             sscanf(targetErrorMessage + index, "%[\n]", buf);
             index += strlen( buf );
           }
           while( strlen( buf ) > 0 && index < length );
 
-          _numErrors ++;
+          counts.numErrors ++;
         }
         else
         {
-          writeTargetCoordinate( targetCoordinate );
+          writeTargetCoordinate( file, targetCoordinate, counts );
           if( trailingHeight.heightPresent )
-            writeHeight( trailingHeight.height );
-          writeTargetAccuracy( targetAccuracy );
+            writeHeight( file, trailingHeight.height );
+          writeTargetAccuracy( file, targetAccuracy );
         }
 
         // Write out any comments on the coordinate line in the source file
@@ -3740,11 +4452,11 @@ void Fiomeths::convert(
         CoordinateTuple* sourceCoordinate = sourceCoordinateCollection[i];
         if( strlen( sourceCoordinate->errorMessage() ) > 0 )
         {
-          Output_String( outputFile, " " );
-          Output_String( outputFile, sourceCoordinate->errorMessage() );
+          Output_String( file, " " );
+          Output_String( file, sourceCoordinate->errorMessage() );
         }
         else
-          Output_Newline(outputFile);
+          Output_Newline(file);
       }
     }
   }
@@ -3869,7 +4581,7 @@ CoordinateTuple* Fiomeths::initTargetCoordinate()
 }
 
 
-void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
+void Fiomeths::writeTargetCoordinate( FILE* file, CoordinateTuple* targetCoordinate, ConversionCounts& counts )
 {
   char meter_str[17];
   switch( targetProjectionType )
@@ -3885,31 +4597,31 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
         if( outputLatitudeLongitudeOrder )  // first value is latitude, second value is longitude
         {
           Latitude_to_String( ( coord.latitude()*180 )/PI, latitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", latitude_str);
-          fprintf(outputFile, ", ");
+          fprintf(file, "%s", latitude_str);
+          fprintf(file, ", ");
           Longitude_to_String( ( coord.longitude()*180 )/PI, longitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", longitude_str);
+          fprintf(file, "%s", longitude_str);
         }
         else
         {
           Longitude_to_String( ( coord.longitude()*180 )/PI, longitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", longitude_str);
-          fprintf(outputFile, ", ");
+          fprintf(file, "%s", longitude_str);
+          fprintf(file, ", ");
           Latitude_to_String( ( coord.latitude()*180 )/PI, latitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", latitude_str);
+          fprintf(file, "%s", latitude_str);
         }
         /*only output height if not No_Height*/
         if( params.heightType() != HeightType::noHeight )
         {
-          fprintf(outputFile, ", ");
+          fprintf(file, ", ");
           Meter_to_String(coord.height(), meter_str);
-          fprintf(outputFile, "%s", meter_str);
+          fprintf(file, "%s", meter_str);
         }
       }
       else
       {
-        fprintf(outputFile, INVALID_TARGET_COORDINATES );
-        _numErrors++;
+        fprintf(file, INVALID_TARGET_COORDINATES );
+        counts.numErrors++;
       }
       break;
     }
@@ -3918,12 +4630,12 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
       if( dynamic_cast< GEOREFCoordinates* >( targetCoordinate ) )
       {
         GEOREFCoordinates coord = ( *dynamic_cast< GEOREFCoordinates* >( targetCoordinate ) );
-        fprintf(outputFile, "%s", coord.GEOREFString());
+        fprintf(file, "%s", coord.GEOREFString());
       }
       else
       {
-        fprintf(outputFile, INVALID_TARGET_COORDINATES );
-        _numErrors++;
+        fprintf(file, INVALID_TARGET_COORDINATES );
+        counts.numErrors++;
       }
       break;
     }
@@ -3933,15 +4645,15 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
       if( dynamic_cast< CartesianCoordinates* >( targetCoordinate ) )
       {
         CartesianCoordinates coord = ( *dynamic_cast< CartesianCoordinates* >( targetCoordinate ) );
-        writeCoord( coord.x(), coord.y() );
-        fprintf(outputFile, ", ");
+        writeCoord( file, coord.x(), coord.y() );
+        fprintf(file, ", ");
         Meter_to_String( coord.z(), meter_str );
-        fprintf(outputFile, "%s", meter_str);
+        fprintf(file, "%s", meter_str);
       }
       else
       {
-        fprintf(outputFile, INVALID_TARGET_COORDINATES );
-        _numErrors++;
+        fprintf(file, INVALID_TARGET_COORDINATES );
+        counts.numErrors++;
       }
       break;
     }
@@ -3955,28 +4667,28 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
         if( outputLatitudeLongitudeOrder )  // first value is elevationAngle, second value is azimuth
         {
           Latitude_to_String( ( coord.elevationAngle()*180 )/PI, latitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", latitude_str);
-          fprintf(outputFile, ", ");
+          fprintf(file, "%s", latitude_str);
+          fprintf(file, ", ");
           Longitude_to_String( ( coord.azimuth()*180 )/PI, longitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", longitude_str);
+          fprintf(file, "%s", longitude_str);
         }
         else
         {
           Longitude_to_String( ( coord.azimuth()*180 )/PI, longitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", longitude_str);
-          fprintf(outputFile, ", ");
+          fprintf(file, "%s", longitude_str);
+          fprintf(file, ", ");
           Latitude_to_String( ( coord.elevationAngle()*180 )/PI, latitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", latitude_str);
+          fprintf(file, "%s", latitude_str);
         }
 
-        fprintf(outputFile, ", ");
+        fprintf(file, ", ");
         Meter_to_String(coord.range(), meter_str);
-        fprintf(outputFile, "%s", meter_str);
+        fprintf(file, "%s", meter_str);
       }
       else
       {
-        fprintf(outputFile, INVALID_TARGET_COORDINATES );
-        _numErrors++;
+        fprintf(file, INVALID_TARGET_COORDINATES );
+        counts.numErrors++;
       }
       break;
     }
@@ -3990,28 +4702,28 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
         if( outputLatitudeLongitudeOrder )  // first value is elevationAngle, second value is azimuth
         {
           Latitude_to_String( ( coord.sphericalLatitude()*180 )/PI, latitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", latitude_str);
-          fprintf(outputFile, ", ");
+          fprintf(file, "%s", latitude_str);
+          fprintf(file, ", ");
           Longitude_to_String( ( coord.sphericalLongitude()*180 )/PI, longitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", longitude_str);
+          fprintf(file, "%s", longitude_str);
         }
         else
         {
           Longitude_to_String( ( coord.sphericalLongitude()*180 )/PI, longitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", longitude_str);
-          fprintf(outputFile, ", ");
+          fprintf(file, "%s", longitude_str);
+          fprintf(file, ", ");
           Latitude_to_String( ( coord.sphericalLatitude()*180 )/PI, latitude_str, _useNSEW, _useMinutes, _useSeconds );
-          fprintf(outputFile, "%s", latitude_str);
+          fprintf(file, "%s", latitude_str);
         }
 
-        fprintf(outputFile, ", ");
+        fprintf(file, ", ");
         Meter_to_String(coord.radius(), meter_str);
-        fprintf(outputFile, "%s", meter_str);
+        fprintf(file, "%s", meter_str);
       }
       else
       {
-        fprintf(outputFile, INVALID_TARGET_COORDINATES );
-        _numErrors++;
+        fprintf(file, INVALID_TARGET_COORDINATES );
+        counts.numErrors++;
       }
       break;
     }
@@ -4021,12 +4733,12 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
       if( dynamic_cast< MGRSorUSNGCoordinates* >( targetCoordinate ) )
       {
         MGRSorUSNGCoordinates coord = ( *dynamic_cast< MGRSorUSNGCoordinates* >( targetCoordinate ) );
-        fprintf( outputFile, "%s", coord.MGRSString() );
+        fprintf( file, "%s", coord.MGRSString() );
       }
       else
       {
-        fprintf(outputFile, INVALID_TARGET_COORDINATES );
-        _numErrors++;
+        fprintf(file, INVALID_TARGET_COORDINATES );
+        counts.numErrors++;
       }
       break;
     }
@@ -4035,16 +4747,16 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
       if( dynamic_cast< UTMCoordinates* >( targetCoordinate ) )
       {
         UTMCoordinates coord = ( *dynamic_cast< UTMCoordinates* >( targetCoordinate ) );
-        fprintf(outputFile, "%d", coord.zone());
-        fprintf(outputFile, ", ");
-        fprintf(outputFile, "%c", coord.hemisphere());
-        fprintf(outputFile, ", ");
-        writeCoord( coord.easting(), coord.northing() );
+        fprintf(file, "%d", coord.zone());
+        fprintf(file, ", ");
+        fprintf(file, "%c", coord.hemisphere());
+        fprintf(file, ", ");
+        writeCoord( file, coord.easting(), coord.northing() );
       }
       else
       {
-        fprintf(outputFile, INVALID_TARGET_COORDINATES );
-        _numErrors++;
+        fprintf(file, INVALID_TARGET_COORDINATES );
+        counts.numErrors++;
       }
       break;
     }
@@ -4053,14 +4765,14 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
       if( dynamic_cast< UPSCoordinates* >( targetCoordinate ) )
       {
         UPSCoordinates coord = ( *dynamic_cast< UPSCoordinates* >( targetCoordinate ) );
-        fprintf(outputFile, "%c", coord.hemisphere());
-        fprintf(outputFile, ", ");
-        writeCoord( coord.easting(), coord.northing() );
+        fprintf(file, "%c", coord.hemisphere());
+        fprintf(file, ", ");
+        writeCoord( file, coord.easting(), coord.northing() );
       }
       else
       {
-        fprintf(outputFile, INVALID_TARGET_COORDINATES );
-        _numErrors++;
+        fprintf(file, INVALID_TARGET_COORDINATES );
+        counts.numErrors++;
       }
       break;
     }
@@ -4096,12 +4808,12 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
       if( dynamic_cast< MapProjectionCoordinates* >( targetCoordinate ) )
       {
         MapProjectionCoordinates coord = *( dynamic_cast< MapProjectionCoordinates* >( targetCoordinate ) );
-        writeCoord( coord.easting(), coord.northing() );
+        writeCoord( file, coord.easting(), coord.northing() );
       }
       else
       {
-        fprintf(outputFile, INVALID_TARGET_COORDINATES );
-        _numErrors++;
+        fprintf(file, INVALID_TARGET_COORDINATES );
+        counts.numErrors++;
       }
       break;
     }
@@ -4110,12 +4822,12 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
       if( dynamic_cast< BNGCoordinates* >( targetCoordinate ) )
       {
         BNGCoordinates coord = ( *dynamic_cast< BNGCoordinates* >( targetCoordinate ) );
-        fprintf( outputFile, "%s", coord.BNGString() );
+        fprintf( file, "%s", coord.BNGString() );
       }
       else
       {
-        fprintf(outputFile, INVALID_TARGET_COORDINATES );
-        _numErrors++;
+        fprintf(file, INVALID_TARGET_COORDINATES );
+        counts.numErrors++;
       }
       break;
     }
@@ -4124,12 +4836,12 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
       if( dynamic_cast< GARSCoordinates* >( targetCoordinate ) )
       {
         GARSCoordinates coord = ( *dynamic_cast< GARSCoordinates* >( targetCoordinate ) );
-        fprintf( outputFile, "%s", coord.GARSString() );
+        fprintf( file, "%s", coord.GARSString() );
       }
       else
       {
-        fprintf(outputFile, INVALID_TARGET_COORDINATES );
-        _numErrors++;
+        fprintf(file, INVALID_TARGET_COORDINATES );
+        counts.numErrors++;
       }
       break;
     }
@@ -4137,26 +4849,26 @@ void Fiomeths::writeTargetCoordinate( CoordinateTuple* targetCoordinate )
 }
 
 
-void Fiomeths::writeCoord(double easting, double northing)
+void Fiomeths::writeCoord(FILE* file, double easting, double northing)
 {
   char meter_str[17];
 
   Meter_to_String(easting,meter_str);
-  fprintf(outputFile, "%s", meter_str);
-  fprintf(outputFile, ", ");
+  fprintf(file, "%s", meter_str);
+  fprintf(file, ", ");
   Meter_to_String(northing,meter_str);
-  fprintf(outputFile, "%s", meter_str);
+  fprintf(file, "%s", meter_str);
 }
 
 
-void Fiomeths::writeHeight(char* height)
+void Fiomeths::writeHeight(FILE* file, char* height)
 {
-  fprintf(outputFile, ", ");
-  fprintf(outputFile, "%s", height);
+  fprintf(file, ", ");
+  fprintf(file, "%s", height);
 }
 
 
-void Fiomeths::writeTargetAccuracy( Accuracy* accuracy )
+void Fiomeths::writeTargetAccuracy( FILE* file, Accuracy* accuracy )
 {
   double ce90 = accuracy->circularError90();
   double le90 = accuracy->linearError90();
@@ -4164,21 +4876,21 @@ void Fiomeths::writeTargetAccuracy( Accuracy* accuracy )
 
   if(!((ce90 == -1.0) && (le90 == -1.0) && (se90 == -1.0)))
   {
-    fprintf(outputFile, "; CE90: ");
+    fprintf(file, "; CE90: ");
     if (ce90 == -1.0)
-      fprintf(outputFile,"Unk");
+      fprintf(file,"Unk");
     else
-      fprintf(outputFile,"%1.0f",ce90);
-    fprintf(outputFile, ", LE90: ");
+      fprintf(file,"%1.0f",ce90);
+    fprintf(file, ", LE90: ");
     if (le90 == -1.0)
-      fprintf(outputFile,"Unk");
+      fprintf(file,"Unk");
     else
-      fprintf(outputFile,"%1.0f",le90);
-    fprintf(outputFile, ", SE90: ");
+      fprintf(file,"%1.0f",le90);
+    fprintf(file, ", SE90: ");
     if (se90 == -1.0)
-      fprintf(outputFile,"Unk");
+      fprintf(file,"Unk");
     else
-      fprintf(outputFile,"%1.0f",se90);
+      fprintf(file,"%1.0f",se90);
   }
 }
 
@@ -4232,7 +4944,7 @@ void Fiomeths::writeExampleCoord()
     }
     case CoordinateType::geocentric:
     {
-      writeCoord(0, 0);
+      writeCoord(outputFile, 0, 0);
       fprintf(outputFile, ", ");
       Meter_to_String(0,meter_str);
       fprintf(outputFile, "%s", meter_str);
@@ -4240,7 +4952,7 @@ void Fiomeths::writeExampleCoord()
     }
     case CoordinateType::localCartesian:
     {
-      writeCoord(0, 0);
+      writeCoord(outputFile, 0, 0);
       fprintf(outputFile, ", ");
       Meter_to_String(0,meter_str);
       fprintf(outputFile, "%s", meter_str);
@@ -4291,14 +5003,14 @@ void Fiomeths::writeExampleCoord()
       fprintf(outputFile, ", ");
       fprintf(outputFile, "N");
       fprintf(outputFile, ", ");
-      writeCoord(500000, 0);
+      writeCoord(outputFile, 500000, 0);
       break;
     }
     case CoordinateType::universalPolarStereographic:
     {
       fprintf(outputFile, "N");
       fprintf(outputFile, ", ");
-      writeCoord(2000000, 2000000);
+      writeCoord(outputFile, 2000000, 2000000);
       break;
     }
     case CoordinateType::britishNationalGrid:
@@ -4334,12 +5046,12 @@ void Fiomeths::writeExampleCoord()
     case CoordinateType::vanDerGrinten:
     case CoordinateType::webMercator:
     {
-      writeCoord(0, 0);
+      writeCoord(outputFile, 0, 0);
       break;
     }
     case CoordinateType::newZealandMapGrid:
     {
-      writeCoord(2510000, 6023150);
+      writeCoord(outputFile, 2510000, 6023150);
       break;
     }
     default:
@@ -4,7 +4,9 @@
 #define __fiomeths_h__
 
 #include <stdio.h>
+#include <atomic>
 #include "CoordinateConversionService.h"
+#include "fiocursor.h"
 
 #ifdef __cplusplus
 extern "C" {
@@ -69,6 +71,9 @@ extern "C" {
  *    01-18-06          Added changes for new height types
  *    04-18-07          Updated to use C++ MSPCCS
  *    11-30-11          K.Lam, BAEts29174, Set output format for file operation
+ *    10-17-26          Added multi-threaded chunked file conversion
+ *    10-17-26          Read input files through a memory mapped cursor
+ *    10-17-26          Added conversion progress and cancellation
  */
 
 
@@ -88,7 +93,7 @@ class Fiomeths
 public:
 
   Fiomeths();
-  Fiomeths( const char* fileName );
+  Fiomeths( const char* fileName, bool _useMemoryMapping = true );
 
   ~Fiomeths();
 
@@ -128,6 +133,34 @@ public:
   
   void setGeodeticCoordinateOrder(bool _outputLatitudeLongitudeOrder);
 
+  /*
+   *  The function setNumThreads sets the number of worker threads used
+   *  by convertFile.  A value of 1 (the default) converts the file on
+   *  the calling thread; a value less than 1 uses one worker per
+   *  hardware thread.
+   */
+  void setNumThreads(int _numThreads);
+  int getNumThreads() const;
+
+  /*
+   *  The function cancelConversion asks a running convertFile to stop.
+   *  It may be called from any thread.  The request is checked between
+   *  chunks of the input file; convertFile then closes both files and
+   *  throws a CoordinateConversionException.
+   */
+  void cancelConversion();
+  bool isCancelled() const;
+
+  /*
+   *  The functions getFileSize, getBytesRead and getNumConverted report
+   *  the progress of convertFile and may be called from any thread while
+   *  it is running.  The input file is read, and its points converted, a
+   *  chunk at a time, so the values advance in steps.
+   */
+  long long getFileSize() const;
+  long long getBytesRead() const;
+  long getNumConverted() const;
+
 
 private:
 
@@ -137,9 +170,19 @@ private:
     char height[10];
   };
 
+  struct ConversionCounts
+  {
+    long numErrors;
+    long numProcessed;
+    long numWarnings;
+  };
+
+  class ConversionPipeline;
+
   CoordinateConversionService* coordinateConversionService;
 
-  FILE* inputFile;
+  FileInput input;
+  bool useMemoryMapping;
   FILE* outputFile;
 
   CoordinateType::Enum sourceProjectionType;
@@ -165,10 +208,14 @@ private:
   
   CoordinateSystemParameters* targetParameters;
 
-  long _numErrors;
-  long _numProcessed;
-  long _numWarnings;
+  ConversionCounts _counts;
   double _elapsedTime;
+  int numThreads;
+
+  long long fileSize;
+  std::atomic<bool> cancelled;
+  std::atomic<long long> bytesRead;
+  std::atomic<long> numConverted;
 
   bool _useNSEW;
   bool _useMinutes;
@@ -182,26 +229,31 @@ private:
 
   void getFileErrorString( long error, char *str );
 
-  long parseInputFileHeader( FILE *file );
+  long parseInputFileHeader( FileCursor& cursor );
 
   void writeOutputFileHeader( const char* targetDatumCode, CoordinateSystemParameters* targetParameters );
 
   void setCoordinateSystemParameters( MSP::CCS::CoordinateSystemParameters* parameters );
 
-  CoordinateTuple* readCoordinate();
-  long readCoord( double *easting, double *northing );
-  long readHeight( char* height );
+  void convertFileParallel();
+
+  void checkCancelled();
+
+  CoordinateTuple* readSourceLine( FileCursor& cursor, Accuracy** sourceAccuracy, TrailingHeight& trailingHeight, ConversionCounts& counts );
+  CoordinateTuple* readCoordinate( FileCursor& cursor );
+  long readCoord( FileCursor& cursor, double *easting, double *northing );
+  long readHeight( FileCursor& cursor, char* height );
 
   Accuracy* readConversionErrors( char* errors );
 
-  void convert( std::vector<MSP::CCS::CoordinateTuple*>& sourceCoordinateCollection, std::vector<MSP::CCS::Accuracy*>& sourceAccuracyCollection, std::vector<TrailingHeight>& trailingHeightCollection, std::vector<MSP::CCS::CoordinateTuple*>& targetCoordinates, std::vector<MSP::CCS::Accuracy*>& targetAccuracy );
+  void convert( CoordinateConversionService* service, FILE* file, ConversionCounts& counts, std::vector<MSP::CCS::CoordinateTuple*>& sourceCoordinateCollection, std::vector<MSP::CCS::Accuracy*>& sourceAccuracyCollection, std::vector<TrailingHeight>& trailingHeightCollection, std::vector<MSP::CCS::CoordinateTuple*>& targetCoordinates, std::vector<MSP::CCS::Accuracy*>& targetAccuracy );
 
   CoordinateTuple* initTargetCoordinate();
-  void writeTargetCoordinate( CoordinateTuple* targetCoordinate );
-  void writeCoord( double easting, double northing );
-  void writeHeight( char* height );
+  void writeTargetCoordinate( FILE* file, CoordinateTuple* targetCoordinate, ConversionCounts& counts );
+  void writeCoord( FILE* file, double easting, double northing );
+  void writeHeight( FILE* file, char* height );
 
-  void writeTargetAccuracy( Accuracy* accuracy );
+  void writeTargetAccuracy( FILE* file, Accuracy* accuracy );
 };
 
 #ifdef __cplusplus
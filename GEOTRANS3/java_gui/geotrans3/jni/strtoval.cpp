@@ -8,6 +8,9 @@
 * DATE      NAME        DR#               DESCRIPTION
 *
 * 03/29/11  S. Gillis   BAEts28564        Fixed Windows memory crash
+* 10/17/26                                  Replaced strtok with a reentrant
+*                                           tokenizer for threaded file
+*                                           conversion
 ******************************************************************************/
 
 #include <string.h>
@@ -26,6 +29,31 @@ char Lat_Long_Sep = ' ';
 Range Long_Range = _180_180;
 Precision::Enum Lat_Long_Prec = Precision::tenthOfSecond;
 
+/*
+ * Next_Token splits str on any of the delim characters like strtok, but
+ * keeps its position in *next so that several threads may parse at once.
+ */
+static char *Next_Token(char *str, const char *delim, char **next)
+{
+  if (str == NULL)
+    str = *next;
+
+  str += strspn(str, delim);
+  if (*str == '\0')
+  {
+    *next = str;
+    return NULL;
+  }
+
+  char *end = str + strcspn(str, delim);
+  if (*end != '\0')
+    *end++ = '\0';
+  *next = end;
+
+  return str;
+}
+
+
 void Show_Leading_Zeros(int lz)
 {
   leading_zeros = lz;
@@ -713,6 +741,7 @@ SVC_Status String_to_Longitude(const char *str, double *val)
   char *reference_Pointer = new char[strlen(str) + 1];
   char *parse_String;
   char *next_Str = 0;
+  char *next_Position = 0;
   /* Longitudes may have the following format :
 
      PDDD/MM/SS.FFH
@@ -741,21 +770,21 @@ SVC_Status String_to_Longitude(const char *str, double *val)
         sign = -1;
       }
 
-      next_Str = strtok(parse_String, ":/ ");
+      next_Str = Next_Token(parse_String, ":/ ", &next_Position);
 
       if (next_Str != NULL)
       {
         degrees = atof(next_Str);
       }
 
-      next_Str = strtok(NULL, ":/ ");
+      next_Str = Next_Token(NULL, ":/ ", &next_Position);
 
       if (next_Str != NULL)
       {
         minutes = atof(next_Str);
       }
 
-      next_Str = strtok(NULL, ":/ ");
+      next_Str = Next_Token(NULL, ":/ ", &next_Position);
 
       if (next_Str != NULL)
       {
@@ -1122,6 +1151,7 @@ SVC_Status String_to_Latitude(const char *str, double *val)
   char *reference_Pointer = new char[strlen(str) + 1];
   char *parse_String;
   char *next_Str = 0;
+  char *next_Position = 0;
   /* Longitudes may have the following format :
 
      PDD/MM/SS.FFH
@@ -1150,21 +1180,21 @@ SVC_Status String_to_Latitude(const char *str, double *val)
         sign = -1;
       }
 
-      next_Str = strtok(parse_String, ":/ ");
+      next_Str = Next_Token(parse_String, ":/ ", &next_Position);
 
       if (next_Str != NULL)
       {
         degrees = atof(next_Str);
       }
 
-      next_Str = strtok(NULL, ":/ ");
+      next_Str = Next_Token(NULL, ":/ ", &next_Position);
 
       if (next_Str != NULL)
       {
         minutes = atof(next_Str);
       }
 
-      next_Str = strtok(NULL, ":/ ");
+      next_Str = Next_Token(NULL, ":/ ", &next_Position);
 
       if (next_Str != NULL)
       {
@@ -11,11 +11,16 @@
 *
 * 07/18/12  S. Gillis   MSP_00029550 Updated exception handling 
 * 01/12/16  K. Chen     MSP_00030518 Add US Survey Feet Support
+* 10/17/26                           Format latitude and longitude into
+*                                    caller buffers and parse them from
+*                                    character sequences without garbage
 *****************************************************************************/
 
 package geotrans3.misc;
 
 
+import java.io.IOException;
+import java.nio.CharBuffer;
 import geotrans3.enumerations.CoordinateType;
 import geotrans3.enumerations.Precision;
 import geotrans3.enumerations.Range;
@@ -32,6 +37,44 @@ public class StringToVal
 {
   private final int Lat_String = 1;
   private final int Long_String = 2;
+
+  /* Largest degrees value that can be formatted */
+  private static final double MAX_DEGREES = 1.0e9;
+
+  /* Initial capacity of formatted latitude and longitude strings */
+  private static final int MAX_STRING_LENGTH = 24;
+
+  /* Largest mantissa a decimal digit can be added to while it is still exactly a double */
+  private static final long MAX_EXACT_MANTISSA = ((1L << 53) - 9) / 10;
+
+  private static final long[] LONG_POWERS_OF_TEN =
+  {
+    1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L, 1000000000L,
+    10000000000L, 100000000000L, 1000000000000L, 10000000000000L, 100000000000000L,
+    1000000000000000L, 10000000000000000L, 100000000000000000L, 1000000000000000000L
+  };
+
+  /* Powers of ten that are exactly doubles */
+  private static final double[] DOUBLE_POWERS_OF_TEN =
+  {
+    1.0e0, 1.0e1, 1.0e2, 1.0e3, 1.0e4, 1.0e5, 1.0e6, 1.0e7, 1.0e8, 1.0e9, 1.0e10, 1.0e11,
+    1.0e12, 1.0e13, 1.0e14, 1.0e15, 1.0e16, 1.0e17, 1.0e18, 1.0e19, 1.0e20, 1.0e21, 1.0e22
+  };
+
+  private static final double[] NEGATIVE_POWERS_OF_TEN = { 1.0e0, 1.0e-1, 1.0e-2 };
+
+  /* Tens and ones digits of 0 to 99 */
+  private static final char[] DIGIT_TENS = new char[100];
+  private static final char[] DIGIT_ONES = new char[100];
+
+  static
+  {
+    for(int i = 0; i < 100; i++)
+    {
+      DIGIT_TENS[i] = (char)('0' + i / 10);
+      DIGIT_ONES[i] = (char)('0' + i % 10);
+    }
+  }
   
   private int lonRange;
   private boolean leadingZeros;
@@ -122,256 +165,277 @@ public class StringToVal
 
 
   /**
-   * Converts a double longitude value to a string. 
+   * Converts a double longitude value to a string.
    *
-   * @param    inLongitude    longitude value  
+   * @param    inLongitude    longitude value
    * @param    useNSEW        true if longitude string should use 'E' or 'W' for hemisphere, false if it should use '+' or '-'
    * @param    useMinutes     true if longitude string should be in degrees minutes seconds or degrees minutes format
    * @param    useSeconds     true if longitude string should be in degrees minutes seconds format
    * @return   string representation of the longitude double value
    * @exception  CoordinateConversionException      invalid longitude value
-   * @see      ccs.enumerations.Precision	      
+   * @see      ccs.enumerations.Precision
    */
   public String longitudeToString(final double inLongitude, boolean useNSEW, boolean useMinutes, boolean useSeconds) throws CoordinateConversionException
   {
-    try
-    {
-      double degrees = 0.0;
-
-      double longitude = inLongitude;
-      if ((longitude > -0.00000001) && (longitude < 0.00000001))
-      {
-        longitude = 0.0;
-      }
+    StringBuilder buffer = new StringBuilder(MAX_STRING_LENGTH);
+    appendLongitude(buffer, inLongitude, useNSEW, useMinutes, useSeconds);
+    return buffer.toString();
+  }
 
-      switch (lonRange)
-      {
-        case Range._180_180:
-        {
-          if (longitude > 180)
-            degrees = Math.abs(longitude - 360);
-          else
-            degrees = Math.abs(longitude);
-          break;
-        }
-        case Range._0_360:
-        {
-          if (longitude < 0)
-            degrees = longitude + 360;
-          else
-            degrees = longitude;
-          break;
-        }
-      }
 
-      String degrees_As_String = degreesToString(degrees, useMinutes, useSeconds, Long_String);
+  /**
+   * Appends a double longitude value to a string builder, in the format
+   * of longitudeToString.
+   *
+   * @param    buffer         string builder to append the longitude to
+   * @param    inLongitude    longitude value
+   * @param    useNSEW        true if longitude string should use 'E' or 'W' for hemisphere, false if it should use '+' or '-'
+   * @param    useMinutes     true if longitude string should be in degrees minutes seconds or degrees minutes format
+   * @param    useSeconds     true if longitude string should be in degrees minutes seconds format
+   * @exception  CoordinateConversionException      invalid longitude value
+   */
+  public void appendLongitude(StringBuilder buffer, final double inLongitude, boolean useNSEW, boolean useMinutes, boolean useSeconds) throws CoordinateConversionException
+  {
+    try
+    {
+      formatLongitude(buffer, inLongitude, useNSEW, useMinutes, useSeconds);
+    }
+    catch(IOException e)
+    {
+      throw new CoordinateConversionException(ErrorMessages.longitude);
+    }
+  }
 
-      switch (lonRange)
-      {
-        case Range._180_180:
-        {
-          if (useNSEW)
-          {
-            if ((longitude > 180) || (longitude < 0))
-              degrees_As_String  += 'W';
-            else
-              degrees_As_String += 'E';
-          }
-          else
-          {
-            if ((longitude > 180) || (longitude < 0))
-            {
-              String temp = degrees_As_String;
-              degrees_As_String = '-' + temp;
-            }
-          }
-          break;
-        }
-        case Range._0_360:
-        {
-            if (useNSEW)
-              degrees_As_String += 'E';
-            break;
-        }
-      }
 
-      return degrees_As_String;
+  /**
+   * Puts a double longitude value into a character buffer, in the format
+   * of longitudeToString.
+   *
+   * @param    buffer         character buffer to put the longitude into
+   * @param    inLongitude    longitude value
+   * @param    useNSEW        true if longitude string should use 'E' or 'W' for hemisphere, false if it should use '+' or '-'
+   * @param    useMinutes     true if longitude string should be in degrees minutes seconds or degrees minutes format
+   * @param    useSeconds     true if longitude string should be in degrees minutes seconds format
+   * @exception  CoordinateConversionException      invalid longitude value
+   * @exception  java.nio.BufferOverflowException   buffer has too little space remaining
+   */
+  public void appendLongitude(CharBuffer buffer, final double inLongitude, boolean useNSEW, boolean useMinutes, boolean useSeconds) throws CoordinateConversionException
+  {
+    try
+    {
+      formatLongitude(buffer, inLongitude, useNSEW, useMinutes, useSeconds);
     }
-    catch(Exception e)
+    catch(IOException e)
     {
       throw new CoordinateConversionException(ErrorMessages.longitude);
-    }           
+    }
   }
 
 
   /**
-   * Converts a double latitude value to a string. 
+   * Converts a double latitude value to a string.
    *
-   * @param    inLatitude     latitude value  
+   * @param    inLatitude     latitude value
    * @param    useNSEW        true if latitude string should use 'N' or 'S'for hemisphere, false if it should use '+' or '-'
    * @param    useMinutes     true if latitude string should be in degrees minutes seconds or degrees minutes format
    * @param    useSeconds     true if latitude string should be in degrees minutes seconds format
    * @return   string representation of the latitude double value
    * @exception  CoordinateConversionException      invalid latitude value
-   * @see      ccs.enumerations.Precision	      
+   * @see      ccs.enumerations.Precision
    */
   public String latitudeToString(final double in_latitude, boolean useNSEW, boolean useMinutes, boolean useSeconds) throws CoordinateConversionException
+  {
+    StringBuilder buffer = new StringBuilder(MAX_STRING_LENGTH);
+    appendLatitude(buffer, in_latitude, useNSEW, useMinutes, useSeconds);
+    return buffer.toString();
+  }
+
+
+  /**
+   * Appends a double latitude value to a string builder, in the format
+   * of latitudeToString.
+   *
+   * @param    buffer         string builder to append the latitude to
+   * @param    inLatitude     latitude value
+   * @param    useNSEW        true if latitude string should use 'N' or 'S'for hemisphere, false if it should use '+' or '-'
+   * @param    useMinutes     true if latitude string should be in degrees minutes seconds or degrees minutes format
+   * @param    useSeconds     true if latitude string should be in degrees minutes seconds format
+   * @exception  CoordinateConversionException      invalid latitude value
+   */
+  public void appendLatitude(StringBuilder buffer, final double in_latitude, boolean useNSEW, boolean useMinutes, boolean useSeconds) throws CoordinateConversionException
   {
     try
     {
-      double degrees = Math.abs(in_latitude);
-      double latitude;
+      formatLatitude(buffer, in_latitude, useNSEW, useMinutes, useSeconds);
+    }
+    catch(IOException e)
+    {
+      throw new CoordinateConversionException(ErrorMessages.latitude);
+    }
+  }
 
-      latitude = in_latitude;
-      if ((latitude > -0.00000001) && (latitude < 0.00000001))
-      {
-        latitude = 0.0;
-      }
 
-      String degrees_As_String = degreesToString(degrees, useMinutes, useSeconds, Lat_String);
+  /**
+   * Puts a double latitude value into a character buffer, in the format
+   * of latitudeToString.
+   *
+   * @param    buffer         character buffer to put the latitude into
+   * @param    inLatitude     latitude value
+   * @param    useNSEW        true if latitude string should use 'N' or 'S'for hemisphere, false if it should use '+' or '-'
+   * @param    useMinutes     true if latitude string should be in degrees minutes seconds or degrees minutes format
+   * @param    useSeconds     true if latitude string should be in degrees minutes seconds format
+   * @exception  CoordinateConversionException      invalid latitude value
+   * @exception  java.nio.BufferOverflowException   buffer has too little space remaining
+   */
+  public void appendLatitude(CharBuffer buffer, final double in_latitude, boolean useNSEW, boolean useMinutes, boolean useSeconds) throws CoordinateConversionException
+  {
+    try
+    {
+      formatLatitude(buffer, in_latitude, useNSEW, useMinutes, useSeconds);
+    }
+    catch(IOException e)
+    {
+      throw new CoordinateConversionException(ErrorMessages.latitude);
+    }
+  }
 
-      if (useNSEW)
+
+  private void formatLongitude(Appendable out, final double inLongitude, boolean useNSEW, boolean useMinutes, boolean useSeconds) throws CoordinateConversionException, IOException
+  {
+    double degrees = 0.0;
+
+    double longitude = inLongitude;
+    if ((longitude > -0.00000001) && (longitude < 0.00000001))
+    {
+      longitude = 0.0;
+    }
+
+    switch (lonRange)
+    {
+      case Range._180_180:
       {
-        if (latitude < 0)
-        {
-          degrees_As_String += 'S';
-        }
+        if (longitude > 180)
+          degrees = Math.abs(longitude - 360);
         else
-        {
-          degrees_As_String += 'N';
-        }
+          degrees = Math.abs(longitude);
+        break;
       }
-      else
+      case Range._0_360:
       {
-        if (latitude < 0)
-        {
-          String temp = degrees_As_String;
-          degrees_As_String = '-' + temp;
-        }
+        if (longitude < 0)
+          degrees = longitude + 360;
+        else
+          degrees = longitude;
+        break;
       }
+    }
 
-      return degrees_As_String;
+    // Rejects NaN and infinite values, and longitudes below -360 in the 0 to 360 range
+    if (!((degrees >= 0.0) && (degrees < MAX_DEGREES)))
+      throw new CoordinateConversionException(ErrorMessages.longitude);
+
+    boolean west = (lonRange == Range._180_180) && ((longitude > 180) || (longitude < 0));
+
+    if (west && !useNSEW)
+      out.append('-');
+
+    formatDegrees(out, degrees, useMinutes, useSeconds, Long_String);
+
+    if (useNSEW)
+    {
+      if (west)
+        out.append('W');
+      else if ((lonRange == Range._180_180) || (lonRange == Range._0_360))
+        out.append('E');
     }
-    catch(Exception e)
+  }
+
+
+  private void formatLatitude(Appendable out, final double in_latitude, boolean useNSEW, boolean useMinutes, boolean useSeconds) throws CoordinateConversionException, IOException
+  {
+    double degrees = Math.abs(in_latitude);
+    double latitude;
+
+    latitude = in_latitude;
+    if ((latitude > -0.00000001) && (latitude < 0.00000001))
     {
+      latitude = 0.0;
+    }
+
+    // Rejects NaN and infinite values
+    if (!(degrees < MAX_DEGREES))
       throw new CoordinateConversionException(ErrorMessages.latitude);
-    }           
+
+    if ((latitude < 0) && !useNSEW)
+      out.append('-');
+
+    formatDegrees(out, degrees, useMinutes, useSeconds, Lat_String);
+
+    if (useNSEW)
+    {
+      if (latitude < 0)
+        out.append('S');
+      else
+        out.append('N');
+    }
   }
 
 
   /**
-   * Converts a latitude or longitude value in degrees to a string. 
+   * Appends a latitude or longitude value in degrees, without sign or
+   * hemisphere, using the current precision, leading zeros and separator
+   * settings.  Rounded values are kept as scaled integers, so that the
+   * digits are written straight from the digit tables.
    *
-   * @param    degrees       latitude or longitude value to convert
-   * @param    useMinutes    true if output string should be in degrees minutes seconds or degrees minutes format
-   * @param    useSeconds    true if output string should be in degrees minutes seconds format
+   * @param    out           destination of the characters
+   * @param    degrees       latitude or longitude value to convert, between 0 and MAX_DEGREES
+   * @param    useMinutes    true if output should be in degrees minutes seconds or degrees minutes format
+   * @param    useSeconds    true if output should be in degrees minutes seconds format
    * @param    type          indicates if the value represents a latitude or longitude string
-   * @return   string representation of the latitude or longitude double value
    */
-  private String degreesToString(double degrees, boolean useMinutes, boolean useSeconds, int type)
+  private void formatDegrees(Appendable out, double degrees, boolean useMinutes, boolean useSeconds, int type) throws IOException
   {
-    double minutes = 0.0;
-    double seconds = 0.0;
-    int integer_Degrees = 0;
-    int integer_Minutes = 0;
-    int integer_Seconds = 0;
-    String degreesString = "";
-    String minutesString = "";
-    String secondsString = "";
+    int degreesDigits = 1;
+    if(leadingZeros)
+      degreesDigits = (type == Lat_String) ? 2 : 3;
 
     if ((!useMinutes) || (precision == 0))
     { /* Decimal Degrees */
-      degrees = roundDMS(degrees, precision);
-      if(leadingZeros)
-      {
-        if(type == Lat_String)
-        {
-          if(Math.abs(degrees) < 10)
-            degreesString = "0" + Double.toString(degrees);
-          else
-            degreesString = Double.toString(degrees);
-        }
-        else
-        {
-          if(Math.abs(degrees) < 10)
-            degreesString = "00" + Double.toString(degrees);
-          else if(Math.abs(degrees) < 100)
-            degreesString = "0" + Double.toString(degrees);
-          else
-            degreesString = Double.toString(degrees);
-        }
-      }
-      else
-      {
-        degreesString = Double.toString(degrees);
-      }
-             
-      // Prevent the degrees string from being displayed in scientific notation
-      java.text.DecimalFormat df = new java.text.DecimalFormat();
-      df.setMinimumFractionDigits(precision);
-      degreesString = df.format(Double.parseDouble(degreesString));
-      
-      return addFractionZeros(degreesString, precision);
+      // Leading zeros have never been shown in decimal degrees
+      appendFixed(out, roundDMS(degrees, precision), precision, 1);
     }
     else if((useMinutes && !useSeconds) || (precision <= 2))
     { /* Degrees & Minutes */
-      integer_Degrees = (int)degrees;
-      minutes = (degrees - integer_Degrees) * 60.0;
-      minutes = roundDMS(minutes, precision - 2);
-      integer_Minutes = (int)minutes;
-      if (integer_Minutes >= 60)
+      int integer_Degrees = (int)degrees;
+      int place = precision - 2;
+      int decimals = Math.max(place, 0);
+      long minute = LONG_POWERS_OF_TEN[decimals];
+      long minutes = roundDMS((degrees - integer_Degrees) * 60.0, place);
+      if (minutes >= 60 * minute)
       {
-        integer_Minutes -= 60;
+        minutes -= 60 * minute;
         integer_Degrees += 1;
       }
-      if (minutes >= 60)
-        minutes -= 60;
-      if(leadingZeros)
-      {
-        if(type == Lat_String)
-        {
-          if(Math.abs(integer_Degrees) < 10)
-            degreesString = "0" + Integer.toString(integer_Degrees) + latLonSeparator;
-          else
-            degreesString = Integer.toString(integer_Degrees) + latLonSeparator;
-        }
-        else
-        {
-          if(Math.abs(integer_Degrees) < 10)
-            degreesString = "00" + Integer.toString(integer_Degrees) + latLonSeparator;
-          else if(Math.abs(integer_Degrees) < 100)
-            degreesString = "0" + Integer.toString(integer_Degrees) + latLonSeparator;
-          else
-            degreesString = Integer.toString(integer_Degrees) + latLonSeparator;
-        }
-        
-        if(integer_Minutes < 10)
-          minutesString = "0" + this.doubleToString(minutes, (precision-2));
-        else
-          minutesString = this.doubleToString(minutes, (precision-2));
-      }
-      else
-      {
-        degreesString = Integer.toString(integer_Degrees) + latLonSeparator;
-        minutesString = this.doubleToString(minutes, (precision-2));
-      }
-      
+
+      appendFixed(out, integer_Degrees, 0, degreesDigits);
+      out.append(latLonSeparator);
       if(precision <= 2)
-        return degreesString + Integer.toString(integer_Minutes);    
+        appendFixed(out, minutes, 0, 1);
       else
-        return addFractionZeros(degreesString + minutesString, precision-2);    
+        appendFixed(out, minutes, decimals, leadingZeros ? 2 : 1);
     }
     else
     { /* Degrees, Minutes, & Seconds */
-      integer_Degrees = (int)degrees;
-      minutes = (degrees - integer_Degrees) * 60.0;
-      integer_Minutes = (int)minutes;
-      seconds = (minutes - integer_Minutes) * 60.0;
-      seconds = roundDMS(seconds, precision - 4);
-      integer_Seconds = (int)seconds;
-      if (integer_Seconds >= 60)
+      int integer_Degrees = (int)degrees;
+      double minutes = (degrees - integer_Degrees) * 60.0;
+      int integer_Minutes = (int)minutes;
+      int place = precision - 4;
+      int decimals = Math.max(place, 0);
+      long second = LONG_POWERS_OF_TEN[decimals];
+      long seconds = roundDMS((minutes - integer_Minutes) * 60.0, place);
+      if (seconds >= 60 * second)
       {
-        integer_Seconds -= 60;
+        seconds -= 60 * second;
         integer_Minutes += 1;
         if (integer_Minutes >= 60)
         {
@@ -380,97 +444,75 @@ public class StringToVal
         }
       }
 
-      if (precision <= 4)
-      {
-        if(leadingZeros)
-        {
-          if(type == Lat_String)
-          {
-            if(Math.abs(integer_Degrees) < 10)
-              degreesString = "0" + Integer.toString(integer_Degrees) + latLonSeparator;
-            else
-              degreesString = Integer.toString(integer_Degrees) + latLonSeparator;
-          }
-          else
-          {
-            if(Math.abs(integer_Degrees) < 10)
-              degreesString = "00" + Integer.toString(integer_Degrees) + latLonSeparator;
-            else if(Math.abs(integer_Degrees) < 100)
-              degreesString = "0" + Integer.toString(integer_Degrees) + latLonSeparator;
-            else
-              degreesString = Integer.toString(integer_Degrees) + latLonSeparator;
-          }
+      int minimumDigits = leadingZeros ? 2 : 1;
+      appendFixed(out, integer_Degrees, 0, degreesDigits);
+      out.append(latLonSeparator);
+      appendFixed(out, integer_Minutes, 0, minimumDigits);
+      out.append(latLonSeparator);
+      appendFixed(out, seconds, decimals, minimumDigits);
+    }
+  }
 
-          if(integer_Minutes < 10)
-            minutesString = "0" + Integer.toString(integer_Minutes) + latLonSeparator;
-          else
-            minutesString = Integer.toString(integer_Minutes) + latLonSeparator;
-          
-          if(integer_Seconds < 10)
-            secondsString = "0" + Integer.toString(integer_Seconds);
-          else
-            secondsString = Integer.toString(integer_Seconds);
-        }
-        else
-        {
-          degreesString = Integer.toString(integer_Degrees) + latLonSeparator;
-          minutesString = Integer.toString(integer_Minutes) + latLonSeparator;
-          secondsString = Integer.toString(integer_Seconds);
-        }
-        
-        return degreesString + minutesString + secondsString;    
-      }
-      else
-      {
-        if (seconds >= 60)
-        {
-          seconds -= 60;
-        }
 
-        if(leadingZeros)
-        {
-          if(type == Lat_String)
-          {
-            if(Math.abs(integer_Degrees) < 10)
-              degreesString = "0" + Long.toString(integer_Degrees) + latLonSeparator;
-            else
-              degreesString = Long.toString(integer_Degrees) + latLonSeparator;
-          }
-          else
-          {
-            if(Math.abs(integer_Degrees) < 10)
-              degreesString = "00" + Long.toString(integer_Degrees) + latLonSeparator;
-            else if(Math.abs(integer_Degrees) < 100)
-              degreesString = "0" + Long.toString(integer_Degrees) + latLonSeparator;
-            else
-              degreesString = Long.toString(integer_Degrees) + latLonSeparator;
-          }
+  /**
+   * Appends a scaled integer as a fixed point number.
+   *
+   * @param    out              destination of the characters
+   * @param    value            non-negative value, scaled by 10 to the power of decimals
+   * @param    decimals         number of decimal places to write
+   * @param    minimumDigits    minimum number of integer digits, padded with leading zeros
+   */
+  private static void appendFixed(Appendable out, long value, int decimals, int minimumDigits) throws IOException
+  {
+    long integerPart = value;
+    long fractionPart = 0;
+    if (decimals > 0)
+    {
+      integerPart = value / LONG_POWERS_OF_TEN[decimals];
+      fractionPart = value - integerPart * LONG_POWERS_OF_TEN[decimals];
+    }
 
-          if(integer_Minutes < 10)
-            minutesString = "0" + Long.toString(integer_Minutes) + latLonSeparator;
-          else
-            minutesString = Long.toString(integer_Minutes) + latLonSeparator;
+    int digits = 1;
+    while ((digits < LONG_POWERS_OF_TEN.length) && (integerPart >= LONG_POWERS_OF_TEN[digits]))
+      digits++;
 
-          if(integer_Seconds < 10)
-            secondsString = "0" + this.doubleToString(seconds, (precision-4));
-          else
-            secondsString = this.doubleToString(seconds, (precision-4));
-        }
-        else
-        {
-          degreesString = Long.toString(integer_Degrees) + latLonSeparator;
-          minutesString = Long.toString(integer_Minutes) + latLonSeparator;
-          secondsString = this.doubleToString(seconds, (precision-4));
-        }
+    appendDigits(out, integerPart, Math.max(digits, minimumDigits));
+    if (decimals > 0)
+    {
+      out.append('.');
+      appendDigits(out, fractionPart, decimals);
+    }
+  }
 
-        return addFractionZeros(degreesString + minutesString + secondsString, precision-4);    
-      }
+
+  /**
+   * Appends exactly the given number of digits of a non-negative value,
+   * two at a time from the digit tables.
+   */
+  private static void appendDigits(Appendable out, long value, int digits) throws IOException
+  {
+    int place = digits;
+    if ((place & 1) != 0)
+    {
+      place--;
+      int digit = (int)(value / LONG_POWERS_OF_TEN[place]);
+      out.append(DIGIT_ONES[digit]);
+      value -= digit * LONG_POWERS_OF_TEN[place];
+    }
+
+    while (place > 0)
+    {
+      place -= 2;
+      int pair = (int)(value / LONG_POWERS_OF_TEN[place]);
+      out.append(DIGIT_TENS[pair]);
+      out.append(DIGIT_ONES[pair]);
+      value -= pair * LONG_POWERS_OF_TEN[place];
     }
   }
 
 
   /**
-   * Converts a DMS, DM or D longitude string value to a double value. 
+   * Converts a DMS, DM or D longitude string value to a double value.
    *
    * @param str Longitude string to parse.
    * @return Double representation of the longitude string value.
@@ -478,144 +520,29 @@ public class StringToVal
    */
   public double stringToLongitude(String str) throws CoordinateConversionException
   {
-    try
-    {
-      double val = 0.0;
-      double degrees = 0.0;
-      double minutes = 0.0;
-      double seconds = 0.0;
-      int sign = 1;
-      char [] reference_Pointer = new char[str.length() + 1];
-      String parse_String;
-      String [] next_Str;
-      /* Longitudes may have the following format :
-
-         PDDD/MM/SS.FFH
-         PDDD/MM.FFFFH
-         PDDD.FFFFFFH
-
-         where these are defined as follows
-         P = optional plus/minus
-         D = degrees (up to three places)
-         M = minutes (up to two places)
-         S = seconds (up to two places)
-         F = floating-point precision (up to 6 places)
-         H = optional hemisphere (NSEW)
-         / = separator character, one of ':' , '/' , ' '
-      */
-      if (str != null && (str.length() > 0))
-      {
-        reference_Pointer = str.toCharArray();
-
-        parse_String = str;
-        if (validCoord(reference_Pointer, Long_String))
-        {
-          if (str.charAt(0) == '-')
-          {
-            sign = -1;
-          }
-
-          java.util.StringTokenizer token = new java.util.StringTokenizer(str, " :/WwEeNnSs");
-          int count = token.countTokens();
-          String nextStr = token.nextToken();
-          if(nextStr != null)
-            degrees =  Double.parseDouble(nextStr);
-          if(token.hasMoreTokens())
-          {
-            nextStr = token.nextToken();
-            if(nextStr != null)
-              minutes =  Double.parseDouble(nextStr);
-            if(token.hasMoreTokens())
-            {
-              nextStr = token.nextToken();
-              if(nextStr != null)
-                seconds =  Double.parseDouble(nextStr);
-            }        
-          }
-
-          int indexOfN = str.indexOf('N');
-          int indexOfn = str.indexOf('n');
-          int indexOfS = str.indexOf('S');
-          int indexOfs = str.indexOf('s');
-          if ((indexOfN != -1) || (indexOfn != -1) ||
-              (indexOfS != -1) || (indexOfs != -1))
-          {
-            throw new CoordinateConversionException(ErrorMessages.hemisphere);
-          }
-
-          int indexOfE = str.indexOf('E');
-          int indexOfe = str.indexOf('e');
-          if ((indexOfE != -1) ||
-              (indexOfe != -1))
-          {
-            if (sign == -1)
-            {
-              throw new CoordinateConversionException(ErrorMessages.signHemisphere);
-            }
-          }
-
-          int indexOfW = str.indexOf('W');
-          int indexOfw = str.indexOf('w');
-          if ((indexOfW != -1) ||
-              (indexOfw != -1))
-          {
-            if (sign == -1)
-            {
-              throw new CoordinateConversionException(ErrorMessages.signHemisphere);
-            }
-            else
-              sign = -1;
-          }
-
-          if (seconds >= 60 || seconds < 0)
-          {
-            throw new CoordinateConversionException(ErrorMessages.seconds);
-          }
-
-          if (minutes >= 60 || minutes < 0)
-          {
-            throw new CoordinateConversionException(ErrorMessages.minutes);
-          }
-
-          if ((degrees == -180 || degrees == 360) &&
-              ((minutes != 0) || (seconds != 0)))
-          {
-            throw new CoordinateConversionException(ErrorMessages.longitude);
-          }
-
-          // Convert DMS to fractional degrees
-          val = ( Math.abs(degrees) + (minutes / 60.0) + (seconds / 3600.0) ) * sign;
-
-          // Convert longitude to be between -180 and 180
-          if (val > 180)
-            val -= 360;
+    return parseDegrees(str, 0, (str != null) ? str.length() : 0, Long_String);
+  }
 
-          if (val < -180)
-            val += 360;
 
-          if ((val > 180) || (val < -180))
-          {
-            throw new CoordinateConversionException(ErrorMessages.degrees);
-          }
-        }
-        else
-          throw new CoordinateConversionException(ErrorMessages.longitude);
-      }
-      else
-      {
-        throw new CoordinateConversionException(ErrorMessages.noEntryError);
-      }
-      return val;
-    }
-    catch(Exception e)
-    {
-      throw new CoordinateConversionException(e.getMessage());      
-    }
+  /**
+   * Converts the characters from start to end of a DMS, DM or D longitude
+   * string to a double value, as stringToLongitude does, without creating
+   * any objects.
+   *
+   * @param str Character sequence holding the longitude string.
+   * @param start Index of the first character of the longitude string.
+   * @param end Index after the last character of the longitude string.
+   * @return Double representation of the longitude string value.
+   * @exception CoordinateConversionException if invalid longitude string.
+   */
+  public double parseLongitude(CharSequence str, int start, int end) throws CoordinateConversionException
+  {
+    return parseDegrees(str, start, end, Long_String);
   }
 
 
   /**
-   * Converts a DMS, DM or D latitude string value to a double value. 
+   * Converts a DMS, DM or D latitude string value to a double value.
    *
    * @param str Latitude string to parse.
    * @return Double representation of the latitude string value.
@@ -623,130 +550,220 @@ public class StringToVal
    */
   public double stringToLatitude(String str) throws CoordinateConversionException
   {
-    try
-    {
+    return parseDegrees(str, 0, (str != null) ? str.length() : 0, Lat_String);
+  }
+
+
+  /**
+   * Converts the characters from start to end of a DMS, DM or D latitude
+   * string to a double value, as stringToLatitude does, without creating
+   * any objects.
+   *
+   * @param str Character sequence holding the latitude string.
+   * @param start Index of the first character of the latitude string.
+   * @param end Index after the last character of the latitude string.
+   * @return Double representation of the latitude string value.
+   * @exception CoordinateConversionException if invalid latitude string.
+   */
+  public double parseLatitude(CharSequence str, int start, int end) throws CoordinateConversionException
+  {
+    return parseDegrees(str, start, end, Lat_String);
+  }
+
+
+  /**
+   * Validates and converts a latitude or longitude string in one pass.
+   *
+   * Latitudes and longitudes may have the following formats :
+   *
+   *    PDDD/MM/SS.FFH
+   *    PDDD/MM.FFFFH
+   *    PDDD.FFFFFFH
+   *
+   * where these are defined as follows
+   *    P = optional plus/minus
+   *    D = degrees (up to two places for latitude, three for longitude)
+   *    M = minutes (up to two places)
+   *    S = seconds (up to two places)
+   *    F = floating-point precision
+   *    H = optional hemisphere (NS for latitude, EW for longitude)
+   *    / = separator character, one of ':' , '/' , ' '
+   *
+   * There may be at most three separators and one decimal point, and a
+   * hemisphere only when there is no sign.  Fields after the seconds are
+   * ignored.
+   *
+   * @param    str      character sequence holding the string
+   * @param    start    index of the first character of the string
+   * @param    end      index after the last character of the string
+   * @param    type     indicates if the string represents a latitude or longitude
+   * @return   the latitude or longitude in degrees
+   */
+  private double parseDegrees(CharSequence str, int start, int end, int type) throws CoordinateConversionException
+  {
+    String invalid = (type == Lat_String) ? ErrorMessages.latitude : ErrorMessages.longitude;
     double val = 0.0;
     double degrees = 0.0;
     double minutes = 0.0;
     double seconds = 0.0;
     int sign = 1;
-    char [] reference_Pointer = new char[str.length() + 1];
-    String parse_String;
-    String [] next_Str;
-    /* Latitudes may have the following format :
-
-       DDMMSSFFFH
-
-       where these are defined as follows
-       D = degrees (up to two places)
-       M = minutes (up to two places)
-       S = seconds (up to tw
-     o places)
-       F = floating-point precision (up to 6 places)
-       H = optional hemisphere (NSEW)
-       / = separator character, one of / : sp
-    */
-    if (str != null && (str.length() > 0))
+    boolean signed = false;
+    boolean decimal = false;
+    int separators = 0;
+    int fields = 0;
+    int pos = start;
+
+    if ((str == null) || (start >= end))
+      throw new CoordinateConversionException(ErrorMessages.noEntryError);
+
+    char c = str.charAt(pos);
+    if ((c == '-') || (c == '+'))
+    {
+      signed = true;
+      if (c == '-')
+        sign = -1;
+      pos++;
+
+      // The sign belongs to the degrees
+      c = (pos < end) ? str.charAt(pos) : ' ';
+      if ((c != '.') && ((c < '0') || (c > '9')))
+        throw new CoordinateConversionException(invalid);
+    }
+
+    while (pos < end)
     {
-      reference_Pointer = str.toCharArray();
-      parse_String = str;
-      if (validCoord(reference_Pointer, Lat_String))
+      c = str.charAt(pos);
+      if ((c == ' ') || (c == '/') || (c == ':'))
       {
-        if (str.charAt(0) == '-')
-        {
+        if (separators >= 3)
+          throw new CoordinateConversionException(invalid);
+        separators++;
+        pos++;
+      }
+      else if (((type == Lat_String) && ((c == 'N') || (c == 'n') || (c == 'S') || (c == 's')))
+               || ((type == Long_String) && ((c == 'E') || (c == 'e') || (c == 'W') || (c == 'w'))))
+      {
+        if (signed || (pos + 1 != end))
+          throw new CoordinateConversionException(invalid);
+        if ((c == 'S') || (c == 's') || (c == 'W') || (c == 'w'))
           sign = -1;
-        }
-        
-        java.util.StringTokenizer token = new java.util.StringTokenizer(str, " :/WwEeNnSs");
-        int count = token.countTokens();
-        String nextStr = token.nextToken();
-        if(nextStr != null)
-          degrees =  Double.parseDouble(nextStr);
-        if(token.hasMoreTokens())
-        {
-          nextStr = token.nextToken();
-          if(nextStr != null)
-            minutes =  Double.parseDouble(nextStr);
-          if(token.hasMoreTokens())
-          {
-            nextStr = token.nextToken();
-            if(nextStr != null)
-              seconds =  Double.parseDouble(nextStr);
-          }        
-        }
-
-        int indexOfW = str.indexOf('W');
-        int indexOfw = str.indexOf('w');
-        int indexOfE = str.indexOf('E');
-        int indexOfe = str.indexOf('e');
-        if ((indexOfW != -1) || (indexOfw != -1) ||
-            (indexOfE != -1) || (indexOfe != -1))
-        {
-          throw new CoordinateConversionException(ErrorMessages.hemisphere);
-        }
+        pos++;
+      }
+      else if ((c == '.') || ((c >= '0') && (c <= '9')))
+      {
+        int fieldStart = pos;
+        long mantissa = 0;
+        int fractionDigits = 0;
+        boolean point = false;
+        boolean exact = true;
+        boolean digits = false;
 
-        int indexOfN = str.indexOf('N');
-        int indexOfn = str.indexOf('n');
-        if ((indexOfN != -1) ||
-            (indexOfn != -1))
+        while (pos < end)
         {
-          if (sign == -1)
+          c = str.charAt(pos);
+          if (c == '.')
           {
-            throw new CoordinateConversionException(ErrorMessages.signHemisphere);
+            if (decimal)
+              throw new CoordinateConversionException(invalid);
+            decimal = true;
+            point = true;
           }
-        }
-
-        int indexOfS = str.indexOf('S');
-        int indexOfs = str.indexOf('s');
-        if ((indexOfS != -1) ||
-            (indexOfs != -1))
-        {
-          if (sign == -1)
+          else if ((c >= '0') && (c <= '9'))
           {
-            throw new CoordinateConversionException(ErrorMessages.signHemisphere);
+            digits = true;
+            if (mantissa <= MAX_EXACT_MANTISSA)
+            {
+              mantissa = mantissa * 10 + (c - '0');
+              if (point)
+                fractionDigits++;
+            }
+            else
+              exact = false;
           }
           else
-            sign = -1;
+            break;
+          pos++;
         }
-
-        if (seconds >= 60 || seconds < 0)
+        if (fields < 3)
         {
-          throw new CoordinateConversionException(ErrorMessages.seconds);
-        }
+          if (!digits)
+            throw new CoordinateConversionException(invalid);
 
-        if (minutes >= 60 || minutes < 0)
-        {
-          throw new CoordinateConversionException(ErrorMessages.minutes);
-        }
+          // Both operands are exact, so the quotient is the correctly
+          // rounded value, as Double.parseDouble returns
+          double value;
+          if (exact && (fractionDigits < DOUBLE_POWERS_OF_TEN.length))
+            value = mantissa / DOUBLE_POWERS_OF_TEN[fractionDigits];
+          else
+            value = Double.parseDouble(str.subSequence(fieldStart, pos).toString());
 
-        if (degrees < -90 || degrees > 90)
-        {
-          throw new CoordinateConversionException(ErrorMessages.degrees);
+          if (fields == 0)
+            degrees = (sign < 0) ? -value : value;
+          else if (fields == 1)
+            minutes = value;
+          else
+            seconds = value;
         }
+        fields++;
+      }
+      else
+        throw new CoordinateConversionException(invalid);
+    }
 
-        if ((degrees == -90 || degrees == 90) &&
-            ((minutes != 0) || (seconds != 0)))
-        {
-          throw new CoordinateConversionException(ErrorMessages.latitude);
-        }
+    if (fields == 0)
+      throw new CoordinateConversionException(invalid);
+
+    if (seconds >= 60 || seconds < 0)
+    {
+      throw new CoordinateConversionException(ErrorMessages.seconds);
+    }
 
-          // Convert DMS to fractional degrees
-          val = (double)( Math.abs(degrees) + (minutes / 60) + (seconds / 3600) ) * sign;
+    if (minutes >= 60 || minutes < 0)
+    {
+      throw new CoordinateConversionException(ErrorMessages.minutes);
+    }
+
+    if (type == Lat_String)
+    {
+      if (degrees < -90 || degrees > 90)
+      {
+        throw new CoordinateConversionException(ErrorMessages.degrees);
       }
-      else
+
+      if ((degrees == -90 || degrees == 90) &&
+          ((minutes != 0) || (seconds != 0)))
+      {
         throw new CoordinateConversionException(ErrorMessages.latitude);
+      }
+
+      // Convert DMS to fractional degrees
+      val = (double)( Math.abs(degrees) + (minutes / 60) + (seconds / 3600) ) * sign;
     }
     else
     {
-      throw new CoordinateConversionException(ErrorMessages.noEntryError);
+      if ((degrees == -180 || degrees == 360) &&
+          ((minutes != 0) || (seconds != 0)))
+      {
+        throw new CoordinateConversionException(ErrorMessages.longitude);
+      }
+
+      // Convert DMS to fractional degrees
+      val = ( Math.abs(degrees) + (minutes / 60.0) + (seconds / 3600.0) ) * sign;
+
+      // Convert longitude to be between -180 and 180
+      if (val > 180)
+        val -= 360;
+
+      if (val < -180)
+        val += 360;
+
+      if ((val > 180) || (val < -180))
+      {
+        throw new CoordinateConversionException(ErrorMessages.degrees);
+      }
     }
-    
+
     return val;
-    }
-    catch(Exception e)
-    {
-      throw new CoordinateConversionException(e.getMessage());      
-    }
   }
 
   public String surveyFeetToString(final double feet)
@@ -863,81 +880,6 @@ public class StringToVal
     return returnInt; 
   }
 
-  /**
-   * Checks if the string represents a valid latitude or longitude string. 
-   *
-   * @param    str     string to validate
-   * @param    type    indicates if the value represents a latitude or longitude string
-   * @return   true if the string is valid, false if the string is invalid
-   */
-  private boolean validCoord(char[] str, int type)
-  {
-    boolean Decimal = false;
-    boolean Signed = false;
-    int Separators = 0;
-    boolean Valid = true;
-    int Length;
-    int Pos = 0;
-
-    if (str != null)
-    {
-      Length = str.length;
-      if ((Pos<Length) && ((str[Pos] == '-') || (str[Pos] == '+')))
-      {
-        Signed = true;
-        Pos ++;
-      }
-      while ((Pos < Length) && Valid)
-      {
-        if (str[Pos] == '.')
-        {
-          if (Decimal)
-            Valid = false;
-          else
-          {
-            Decimal = true;
-            Pos++;
-          }
-        }
-        else if (java.lang.Character.isDigit(str[Pos]))
-        {
-          Pos++;
-        }
-        else if ((str[Pos] == ' ') || (str[Pos] == '/') || (str[Pos] == ':'))
-        {
-          if (Separators >= 3)
-            Valid = false;
-          else
-          {
-            Pos++;
-            Separators++;
-          }
-        }
-        else if (java.lang.Character.isLetter(str[Pos]))
-        {
-          String letter = "";
-          letter = letter.valueOf(str[Pos]);
-
-          if (((letter.equalsIgnoreCase("N") || letter.equalsIgnoreCase("S")) && (type == Lat_String))
-              || ((letter.equalsIgnoreCase("W") || letter.equalsIgnoreCase("E")) && (type == Long_String)))
-          {
-            if (Signed)
-              Valid = false;
-            Pos++;
-            if (Pos != Length)
-              Valid = false;
-          }
-          else
-            Valid = false;
-        }
-        else
-          Valid = false;
-      }
-    }
-    return (Valid);
-  }
-
-
   /**
    *  Rounds the specified value, in meters, according to
    *  the current precision level.
@@ -1024,50 +966,34 @@ public class StringToVal
    *  Rounds the specified  value according to
    *  the input precision level.
    *
-   * @param    value    value to be rounded
+   * @param    value    non-negative value to be rounded
    * @param    place    precision level
-   * @return   the rounded value
+   * @return   the rounded value, scaled by 10 to the power of place
+   *           when place is positive
    */
-  private double roundDMS(double val, int place)
+  private static long roundDMS(double val, int place)
   {
     double temp = 0;
     double fraction;
-    double int_temp;
+    long int_temp;
 
-    temp = val * Math.pow(10, (double)place);
+    if (place < 0)
+      temp = val * NEGATIVE_POWERS_OF_TEN[-place];
+    else
+      temp = val * DOUBLE_POWERS_OF_TEN[place];
 
     int_temp = (long)temp;
     fraction = temp - int_temp;
 
-    if (((temp - int_temp) > 0.5) ||
-        (((temp - int_temp) == 0.5) && ((int_temp % 2.0) == 1.0)))
-      return (int_temp + 1.0) / Math.pow(10, (double)place);
+    if ((fraction > 0.5) ||
+        ((fraction == 0.5) && ((int_temp % 2) == 1)))
+      int_temp++;
+
+    if (place < 0)
+      return int_temp * LONG_POWERS_OF_TEN[-place];
     else
-      return int_temp / Math.pow(10, (double)place);
+      return int_temp;
   }
-  
-  
-  /**
-   *  Adds zeros to the end of the decimal portion of the input string
-   *
-   * @param    _string    string to append
-   * @param    length     number of required decimal values
-   * @return   the appended string
-   */
-  private String addFractionZeros(String _string, int length)
-  {
-    int strLength = _string.length();
-    int indexOfDecimalPoint = _string.indexOf(".", 0) + 1;
-    int fractionLength = strLength - indexOfDecimalPoint;
-
-    while(fractionLength < length)
-    {
-      _string += "0";
-      fractionLength++;
-    }
-    
-    return _string; 
-  }  
 }
 
 // CLASSIFICATION: UNCLASSIFIED
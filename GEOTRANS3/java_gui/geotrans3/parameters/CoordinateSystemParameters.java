@@ -45,8 +45,37 @@ public class CoordinateSystemParameters
     else
       return false;
   }
-  
-  
+
+
+  /**
+   * Tests if another object is a CoordinateSystemParameters object of the
+   * same class holding the same information, so that parameters can be
+   * used as hash keys.
+   */
+  public boolean equals(Object object)
+  {
+    if(object == this)
+      return true;
+    if(object == null || object.getClass() != getClass())
+      return false;
+
+    return coordinateType == ((CoordinateSystemParameters)object).coordinateType;
+  }
+
+
+  public int hashCode()
+  {
+    return coordinateType;
+  }
+
+
+  protected static int hashCode(double value)
+  {
+    long bits = Double.doubleToLongBits(value);
+    return (int)(bits ^ (bits >>> 32));
+  }
+
+
   public int getCoordinateType()
   {
     return coordinateType;
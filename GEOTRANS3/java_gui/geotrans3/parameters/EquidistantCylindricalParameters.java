@@ -49,6 +49,32 @@ public class EquidistantCylindricalParameters extends CoordinateSystemParameters
     else
       return false;
   }
+
+
+  /**
+   * Tests if another object is a EquidistantCylindricalParameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    EquidistantCylindricalParameters parameters = (EquidistantCylindricalParameters)object;
+    return Double.compare(centralMeridian, parameters.centralMeridian) == 0 && Double.compare(standardParallel, parameters.standardParallel) == 0 &&
+           Double.compare(falseEasting, parameters.falseEasting) == 0 && Double.compare(falseNorthing, parameters.falseNorthing) == 0;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + hashCode(centralMeridian);
+    hash = 31 * hash + hashCode(standardParallel);
+    hash = 31 * hash + hashCode(falseEasting);
+    hash = 31 * hash + hashCode(falseNorthing);
+    return hash;
+  }
   
   
   public double getCentralMeridian()
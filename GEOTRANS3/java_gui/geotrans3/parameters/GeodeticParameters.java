@@ -44,6 +44,28 @@ public class GeodeticParameters extends CoordinateSystemParameters
     else
       return false;
   }
+
+
+  /**
+   * Tests if another object is a GeodeticParameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    GeodeticParameters parameters = (GeodeticParameters)object;
+    return heightType == parameters.heightType;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + heightType;
+    return hash;
+  }
   
   
   public int getHeightType()
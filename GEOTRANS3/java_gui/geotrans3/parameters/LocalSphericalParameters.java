@@ -47,6 +47,32 @@ public class LocalSphericalParameters extends CoordinateSystemParameters
     else
       return false;
   }
+
+
+  /**
+   * Tests if another object is a LocalSphericalParameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    LocalSphericalParameters parameters = (LocalSphericalParameters)object;
+    return Double.compare(longitude, parameters.longitude) == 0 && Double.compare(latitude, parameters.latitude) == 0 &&
+           Double.compare(height, parameters.height) == 0 && Double.compare(orientation, parameters.orientation) == 0;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + hashCode(longitude);
+    hash = 31 * hash + hashCode(latitude);
+    hash = 31 * hash + hashCode(height);
+    hash = 31 * hash + hashCode(orientation);
+    return hash;
+  }
   
   
   public double getLongitude()
@@ -48,6 +48,31 @@ public class MapProjection3Parameters extends CoordinateSystemParameters
     else
       return false;
   }
+
+
+  /**
+   * Tests if another object is a MapProjection3Parameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    MapProjection3Parameters parameters = (MapProjection3Parameters)object;
+    return Double.compare(centralMeridian, parameters.centralMeridian) == 0 && Double.compare(falseEasting, parameters.falseEasting) == 0 &&
+           Double.compare(falseNorthing, parameters.falseNorthing) == 0;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + hashCode(centralMeridian);
+    hash = 31 * hash + hashCode(falseEasting);
+    hash = 31 * hash + hashCode(falseNorthing);
+    return hash;
+  }
   
   
   public double getCentralMeridian()
@@ -50,6 +50,32 @@ public class MapProjection4Parameters extends CoordinateSystemParameters
     else
       return false;
   }
+
+
+  /**
+   * Tests if another object is a MapProjection4Parameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    MapProjection4Parameters parameters = (MapProjection4Parameters)object;
+    return Double.compare(centralMeridian, parameters.centralMeridian) == 0 && Double.compare(originLatitude, parameters.originLatitude) == 0 &&
+           Double.compare(falseEasting, parameters.falseEasting) == 0 && Double.compare(falseNorthing, parameters.falseNorthing) == 0;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + hashCode(centralMeridian);
+    hash = 31 * hash + hashCode(originLatitude);
+    hash = 31 * hash + hashCode(falseEasting);
+    hash = 31 * hash + hashCode(falseNorthing);
+    return hash;
+  }
   
   
   public double getCentralMeridian()
@@ -52,6 +52,34 @@ public class MapProjection5Parameters extends CoordinateSystemParameters
     else
       return false;
   }
+
+
+  /**
+   * Tests if another object is a MapProjection5Parameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    MapProjection5Parameters parameters = (MapProjection5Parameters)object;
+    return Double.compare(centralMeridian, parameters.centralMeridian) == 0 && Double.compare(originLatitude, parameters.originLatitude) == 0 &&
+           Double.compare(scaleFactor, parameters.scaleFactor) == 0 && Double.compare(falseEasting, parameters.falseEasting) == 0 &&
+           Double.compare(falseNorthing, parameters.falseNorthing) == 0;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + hashCode(centralMeridian);
+    hash = 31 * hash + hashCode(originLatitude);
+    hash = 31 * hash + hashCode(scaleFactor);
+    hash = 31 * hash + hashCode(falseEasting);
+    hash = 31 * hash + hashCode(falseNorthing);
+    return hash;
+  }
   
   
   public double getCentralMeridian()
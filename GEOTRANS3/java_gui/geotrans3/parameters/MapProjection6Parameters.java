@@ -54,6 +54,35 @@ public class MapProjection6Parameters extends CoordinateSystemParameters
     else
       return false;
   }
+
+
+  /**
+   * Tests if another object is a MapProjection6Parameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    MapProjection6Parameters parameters = (MapProjection6Parameters)object;
+    return Double.compare(centralMeridian, parameters.centralMeridian) == 0 && Double.compare(originLatitude, parameters.originLatitude) == 0 &&
+           Double.compare(standardParallel1, parameters.standardParallel1) == 0 && Double.compare(standardParallel2, parameters.standardParallel2) == 0 &&
+           Double.compare(falseEasting, parameters.falseEasting) == 0 && Double.compare(falseNorthing, parameters.falseNorthing) == 0;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + hashCode(centralMeridian);
+    hash = 31 * hash + hashCode(originLatitude);
+    hash = 31 * hash + hashCode(standardParallel1);
+    hash = 31 * hash + hashCode(standardParallel2);
+    hash = 31 * hash + hashCode(falseEasting);
+    hash = 31 * hash + hashCode(falseNorthing);
+    return hash;
+  }
   
   
   public double getCentralMeridian()
@@ -53,6 +53,34 @@ public class MercatorStandardParallelParameters extends CoordinateSystemParamete
       return false;
   }
 
+
+  /**
+   * Tests if another object is a MercatorStandardParallelParameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    MercatorStandardParallelParameters parameters = (MercatorStandardParallelParameters)object;
+    return Double.compare(centralMeridian, parameters.centralMeridian) == 0 && Double.compare(standardParallel, parameters.standardParallel) == 0 &&
+           Double.compare(scaleFactor, parameters.scaleFactor) == 0 && Double.compare(falseEasting, parameters.falseEasting) == 0 &&
+           Double.compare(falseNorthing, parameters.falseNorthing) == 0;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + hashCode(centralMeridian);
+    hash = 31 * hash + hashCode(standardParallel);
+    hash = 31 * hash + hashCode(scaleFactor);
+    hash = 31 * hash + hashCode(falseEasting);
+    hash = 31 * hash + hashCode(falseNorthing);
+    return hash;
+  }
+
   
   public double getCentralMeridian()
   {
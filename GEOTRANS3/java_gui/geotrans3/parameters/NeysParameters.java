@@ -52,6 +52,34 @@ public class NeysParameters extends CoordinateSystemParameters
     else
       return false;
   }
+
+
+  /**
+   * Tests if another object is a NeysParameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    NeysParameters parameters = (NeysParameters)object;
+    return Double.compare(centralMeridian, parameters.centralMeridian) == 0 && Double.compare(originLatitude, parameters.originLatitude) == 0 &&
+           Double.compare(standardParallel1, parameters.standardParallel1) == 0 && Double.compare(falseEasting, parameters.falseEasting) == 0 &&
+           Double.compare(falseNorthing, parameters.falseNorthing) == 0;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + hashCode(centralMeridian);
+    hash = 31 * hash + hashCode(originLatitude);
+    hash = 31 * hash + hashCode(standardParallel1);
+    hash = 31 * hash + hashCode(falseEasting);
+    hash = 31 * hash + hashCode(falseNorthing);
+    return hash;
+  }
   
   
   public double getCentralMeridian()
@@ -61,6 +61,38 @@ public class ObliqueMercatorParameters extends CoordinateSystemParameters
     else
       return false;
   }
+
+
+  /**
+   * Tests if another object is a ObliqueMercatorParameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    ObliqueMercatorParameters parameters = (ObliqueMercatorParameters)object;
+    return Double.compare(originLatitude, parameters.originLatitude) == 0 && Double.compare(longitude1, parameters.longitude1) == 0 &&
+           Double.compare(latitude1, parameters.latitude1) == 0 && Double.compare(longitude2, parameters.longitude2) == 0 &&
+           Double.compare(latitude2, parameters.latitude2) == 0 && Double.compare(falseEasting, parameters.falseEasting) == 0 &&
+           Double.compare(falseNorthing, parameters.falseNorthing) == 0 && Double.compare(scaleFactor, parameters.scaleFactor) == 0;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + hashCode(originLatitude);
+    hash = 31 * hash + hashCode(longitude1);
+    hash = 31 * hash + hashCode(latitude1);
+    hash = 31 * hash + hashCode(longitude2);
+    hash = 31 * hash + hashCode(latitude2);
+    hash = 31 * hash + hashCode(falseEasting);
+    hash = 31 * hash + hashCode(falseNorthing);
+    hash = 31 * hash + hashCode(scaleFactor);
+    return hash;
+  }
   
   
   public double getOriginLatitude()
@@ -52,6 +52,34 @@ public class PolarStereographicScaleFactorParameters extends CoordinateSystemPar
     else
       return false;
   }
+
+
+  /**
+   * Tests if another object is a PolarStereographicScaleFactorParameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    PolarStereographicScaleFactorParameters parameters = (PolarStereographicScaleFactorParameters)object;
+    return Double.compare(centralMeridian, parameters.centralMeridian) == 0 && Double.compare(scaleFactor, parameters.scaleFactor) == 0 &&
+           hemisphere == parameters.hemisphere && Double.compare(falseEasting, parameters.falseEasting) == 0 &&
+           Double.compare(falseNorthing, parameters.falseNorthing) == 0;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + hashCode(centralMeridian);
+    hash = 31 * hash + hashCode(scaleFactor);
+    hash = 31 * hash + hemisphere;
+    hash = 31 * hash + hashCode(falseEasting);
+    hash = 31 * hash + hashCode(falseNorthing);
+    return hash;
+  }
   
   
   public double getCentralMeridian()
@@ -46,6 +46,29 @@ public class UTMParameters extends CoordinateSystemParameters
     else
       return false;
   }
+
+
+  /**
+   * Tests if another object is a UTMParameters object
+   * holding the same information.
+   */
+  public boolean equals(Object object)
+  {
+    if(!super.equals(object))
+      return false;
+
+    UTMParameters parameters = (UTMParameters)object;
+    return zone == parameters.zone && override == parameters.override;
+  }
+
+
+  public int hashCode()
+  {
+    int hash = super.hashCode();
+    hash = 31 * hash + (int)(zone ^ (zone >>> 32));
+    hash = 31 * hash + (int)(override ^ (override >>> 32));
+    return hash;
+  }
   
   
   public long getZone()
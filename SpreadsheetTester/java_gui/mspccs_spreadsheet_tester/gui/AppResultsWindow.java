@@ -6,6 +6,8 @@ import java.io.*;
 import java.awt.*;
 import java.awt.event.*;
 import javax.swing.*;
+import mspccs_spreadsheet_tester.jni.JNISpreadsheetTester;
+import mspccs_spreadsheet_tester.jni.SpreadsheetTestListener;
 import mspccs_spreadsheet_tester.utility.Directory;
 
 /** basic class to run an application
@@ -26,11 +28,78 @@ public class AppResultsWindow extends JFrame implements ActionListener {
 	private boolean text_blocked = false;
         
         private Directory currentDir;
+
+	// In process test, and the messages of its rows not yet shown
+	private JNISpreadsheetTester tester;
+	private StringBuffer pendingOutput = new StringBuffer();
+	private javax.swing.Timer progressTimer;
 	
 	public AppResultsWindow( Process p, String app, String cLine, Directory _currentDir )
 	{
                 currentDir = _currentDir;
                 
+		createWindow( app, cLine );
+
+		proc = p;
+
+		// exit code?		
+		ProcessExit procExit = new ProcessExit( proc );
+
+		// any error message? 
+		StreamGobbler errorGobbler = new StreamGobbler(proc.getErrorStream(), 
+		                                               "ERROR"); 
+
+		// any output? 
+		StreamGobbler outputGobbler = new StreamGobbler(proc.getInputStream(), 
+		                                                "OUTPUT"); 
+
+		procExit.setPriority(8);
+		errorGobbler.setPriority(4);
+		outputGobbler.setPriority(4);
+
+		// kick them off 
+		errorGobbler.start(); 
+		outputGobbler.start();                
+		procExit.start(); 
+		
+		showWindow();
+	}
+
+	/** Runs t on a thread of its own and shows its progress in the title,
+	/*  and the messages of its rows in the window, twice a second
+	*/
+	public AppResultsWindow( JNISpreadsheetTester t, String app, String cLine, Directory _currentDir )
+	{
+		currentDir = _currentDir;
+
+		createWindow( app, cLine );
+
+		tester = t;
+
+		// The header the tester executable writes to the console
+		output.append( "Source File: '" + tester.getInputFileName() + "'\n" );
+		output.append( "Output File: '" + tester.getOutputFileName() + "'\n" );
+		output.append( "Display Warnings: '" + ( tester.getShowWarnings() ? 1 : 0 ) + "'\n\n" );
+
+		TestRunner testRunner = new TestRunner();
+		testRunner.setPriority(4);
+
+		progressTimer = new javax.swing.Timer( 500, new ActionListener()
+		{
+			public void actionPerformed( ActionEvent e )
+			{
+				showProgress();
+			}
+		});
+
+		progressTimer.start();
+		testRunner.start();
+
+		showWindow();
+	}
+
+	private void createWindow( String app, String cLine )
+	{
 		setTitle( app + " " + "results (Status: Running)" );
                 
                 // Change title bar icon
@@ -79,38 +148,18 @@ public class AppResultsWindow extends JFrame implements ActionListener {
 		
 		contentPane.add( new JScrollPane( output ));
 
-		proc = p;
-
-		// exit code?		
-		ProcessExit procExit = new ProcessExit( proc );
-
-		// any error message? 
-		StreamGobbler errorGobbler = new StreamGobbler(proc.getErrorStream(), 
-		                                               "ERROR"); 
-
-		// any output? 
-		StreamGobbler outputGobbler = new StreamGobbler(proc.getInputStream(), 
-		                                                "OUTPUT"); 
-
-		procExit.setPriority(8);
-		errorGobbler.setPriority(4);
-		outputGobbler.setPriority(4);
-
-		// kick them off 
-		errorGobbler.start(); 
-		outputGobbler.start();                
-		procExit.start(); 
-		
 		addWindowListener(new WindowAdapter() 
 		{
 		       public void windowClosing(WindowEvent e) 
 			   {
-			   		proc.destroy();
-					proc_running = false;
+			   		stop();
 			   		dispose();
 		       }
 		});
+	}
 
+	private void showWindow()
+	{
 		pack();
 		setSize(800, 600);
 		Dimension dim = getToolkit().getScreenSize();
@@ -123,16 +172,17 @@ public class AppResultsWindow extends JFrame implements ActionListener {
 	{		 
 		if(e.getActionCommand().equals("Kill"))
 		{
-			proc.destroy();
-			proc_running = false;
+			stop();
 			btn_kill.setEnabled( false );
-			btn_save.setEnabled( true );
-			setTitle( app_name + " " + "results (Status: Killed)" );
+			if( tester == null )
+			{
+				btn_save.setEnabled( true );
+				setTitle( app_name + " " + "results (Status: Killed)" );
+			}
 		}
 		else if(e.getActionCommand().equals("Close"))
 		{
-			proc.destroy();
-			proc_running = false;
+			stop();
 			dispose();
 		}
 		else if(e.getActionCommand().equals("Save"))
@@ -171,6 +221,80 @@ public class AppResultsWindow extends JFrame implements ActionListener {
 	}
 	
 
+	/** Stops the process, or the in process test after its current row
+	*/
+	private void stop()
+	{
+		if( proc != null )
+			proc.destroy();
+		if( tester != null )
+			tester.cancel();
+		proc_running = false;
+	}
+
+	/** Shows the messages of the rows tested since the last call, and the
+	/*  counts of the test so far; called on the event dispatch thread
+	*/
+	private void showProgress()
+	{
+		String text;
+		synchronized( pendingOutput )
+		{
+			text = pendingOutput.toString();
+			pendingOutput.setLength( 0 );
+		}
+
+		if( text.length() > 0 )
+		{
+			output.append( text );
+			output.setCaretPosition( output.getText().length() );
+		}
+
+		setTitle( app_name + " " + "results (Status: Running, " + tester.getRows() + " rows, " +
+		          Math.round( tester.getRowsPerSecond() ) + " rows/s, " + tester.getErrors() + " errors, " +
+		          tester.getMismatches() + " mismatches)" );
+	}
+
+	class TestRunner extends Thread 
+	{ 
+	    public void run() 
+	    {
+			String error = null;
+			try
+			{
+				tester.run( new SpreadsheetTestListener()
+				{
+					public void rowTested( long row, String id, int result, String messages )
+					{
+						if( messages != null )
+							pendingOutput.append( messages );
+					}
+				});
+			}
+			catch ( IOException e )
+			{
+				error = e.getMessage();
+			}
+
+			final String status = tester.isCancelled() ? "Killed" : "Completed";
+			final String results = ( error != null ) ? error + "\n" : tester.getResults();
+			SwingUtilities.invokeLater( new Runnable()
+			{
+				public void run()
+				{
+					progressTimer.stop();
+					showProgress();
+					output.append( results );
+					output.setCaretPosition( output.getText().length() );
+					proc_running = false;
+					btn_kill.setEnabled( false );
+					btn_save.setEnabled( true );
+					setTitle( app_name + " " + "results (Status: " + status + ")" );
+				}
+			});
+	    }
+	}
+
 	class StreamGobbler extends Thread 
 	{ 
 	    InputStream is; 
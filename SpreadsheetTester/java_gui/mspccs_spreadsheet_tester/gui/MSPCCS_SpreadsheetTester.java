@@ -4,6 +4,7 @@ package mspccs_spreadsheet_tester.gui;
 
 import mspccs_spreadsheet_tester.gui.AppResultsWindow;
 import mspccs_spreadsheet_tester.gui.FilePanel;
+import mspccs_spreadsheet_tester.jni.JNISpreadsheetTester;
 import mspccs_spreadsheet_tester.utility.Directory;
 import mspccs_spreadsheet_tester.utility.Platform;
 import mspccs_spreadsheet_tester.utility.StartBrowser;
@@ -211,6 +212,14 @@ public class MSPCCS_SpreadsheetTester extends javax.swing.JFrame
             int showWarnings = 0;
             if(warningsCheckBoxMenuItem.isSelected())
               showWarnings = 1;
+
+            // Test in this process when the tester library can be loaded,
+            // otherwise run the tester executable
+            if (JNISpreadsheetTester.isAvailable())
+            {
+                new AppResultsWindow(new JNISpreadsheetTester(inputFilePath, outputFilePath, showWarnings == 1), "MSPCCS_SpreadsheetTester", (inputFilePath + " " + outputFilePath + " " + String.valueOf(showWarnings)), outputFilePanel.getCurrentDir());
+                return;
+            }
     
             if ((Platform.isWindows) /* || (Platform.isWindows2000)*/)
             {
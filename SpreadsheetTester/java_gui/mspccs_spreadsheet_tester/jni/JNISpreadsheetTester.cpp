@@ -0,0 +1,148 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+#include <jni.h>
+#include <string.h>
+#include <vector>
+#include "JNISpreadsheetTester.h"
+#include "SpreadsheetTester.h"
+#include "CoordinateConversionException.h"
+
+
+using namespace MSP::CCS;
+
+
+#define COUNT_LENGTH 6   /* Counts passed to JNISpreadsheetTester.rowTested */
+
+
+/*
+ * Returns a Java string of the characters of text, read as ISO-8859-1.
+ * Test files and messages are not necessarily UTF-8, which NewStringUTF
+ * requires.
+ */
+static jstring newString( JNIEnv *env, const char* text )
+{
+  size_t length = strlen( text );
+  std::vector< jchar > characters( length + 1 );
+
+  for( size_t i = 0; i < length; i++ )
+    characters[i] = ( unsigned char )text[i];
+
+  return env->NewString( &characters[0], ( jsize )length );
+}
+
+
+/*
+ * Passes the result of each row to JNISpreadsheetTester.rowTested, with the
+ * counts of the test so far.
+ */
+class JNISpreadsheetTesterListener : public SpreadsheetTesterListener
+{
+public:
+
+  JNISpreadsheetTesterListener( JNIEnv *_env, jobject _tester, jmethodID _rowTestedID, jlongArray _counts ) :
+    env( _env ),
+    tester( _tester ),
+    rowTestedID( _rowTestedID ),
+    counts( _counts )
+  {
+  }
+
+  bool rowTested( const SpreadsheetTester& spreadsheetTester, long row, const char* id, SpreadsheetTester::Result result, const char* messages )
+  {
+    jlong values[COUNT_LENGTH];
+    values[mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_ROWS_COUNT] = spreadsheetTester.getTotalTestCases();
+    values[mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_ERROR_COUNT] = spreadsheetTester.getErrorCount();
+    values[mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_SUCCESSFUL_EQUIVALENT_COUNT] = spreadsheetTester.getSuccessfulEquivalentCount();
+    values[mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_SUCCESSFUL_DIFFERENT_COUNT] = spreadsheetTester.getSuccessfulDifferentCount();
+    values[mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_WARNING_EQUIVALENT_COUNT] = spreadsheetTester.getWarningEquivalentCount();
+    values[mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_WARNING_DIFFERENT_COUNT] = spreadsheetTester.getWarningDifferentCount();
+    env->SetLongArrayRegion( counts, 0, COUNT_LENGTH, values );
+
+    jstring jId = newString( env, id );
+    jstring jMessages = 0;
+    if( messages[0] != '\0' )
+      jMessages = newString( env, messages );
+
+    jboolean proceed = env->CallBooleanMethod( tester, rowTestedID, ( jlong )row, jId, ( jint )result, jMessages, counts );
+
+    env->DeleteLocalRef( jId );
+    if( jMessages )
+      env->DeleteLocalRef( jMessages );
+
+    // An exception thrown by the listener stops the test and is rethrown
+    // when jniRun returns
+    if( env->ExceptionCheck() )
+      return false;
+
+    return proceed == JNI_TRUE;
+  }
+
+private:
+
+  JNIEnv *env;
+  jobject tester;
+  jmethodID rowTestedID;
+  jlongArray counts;
+};
+
+
+#ifdef __cplusplus
+extern "C" {
+#endif
+
+JNIEXPORT jboolean JNICALL Java_mspccs_1spreadsheet_1tester_jni_JNISpreadsheetTester_jniRun(JNIEnv *env, jobject obj, jstring inputFileName, jstring outputFileName, jboolean showWarnings)
+{
+  jclass cls = env->GetObjectClass( obj );
+  jmethodID rowTestedID = env->GetMethodID( cls, "rowTested", "(JLjava/lang/String;ILjava/lang/String;[J)Z" );
+  if( rowTestedID == 0 )
+    return JNI_FALSE;
+
+  jlongArray counts = env->NewLongArray( COUNT_LENGTH );
+  if( counts == 0 )
+    return JNI_FALSE;
+
+  const char *input_file_name = env->GetStringUTFChars( inputFileName, 0 );
+  if( input_file_name == 0 )
+    return JNI_FALSE;
+
+  const char *output_file_name = env->GetStringUTFChars( outputFileName, 0 );
+  if( output_file_name == 0 )
+  {
+    env->ReleaseStringUTFChars( inputFileName, input_file_name );
+    return JNI_FALSE;
+  }
+
+  jboolean tested = JNI_FALSE;
+  try
+  {
+    JNISpreadsheetTesterListener listener( env, obj, rowTestedID, counts );
+    SpreadsheetTester spreadsheetTester( input_file_name, output_file_name, showWarnings == JNI_TRUE, 1, &listener );
+    if( spreadsheetTester.wasTested() )
+      tested = JNI_TRUE;
+  }
+  catch( CoordinateConversionException e )
+  {
+    if( !env->ExceptionCheck() )
+    {
+      jclass exceptionClass = env->FindClass( "java/io/IOException" );
+      if( exceptionClass != 0 )
+      {
+        std::string message = "The file could not be tested: ";
+        message += e.getMessage();
+        env->ThrowNew( exceptionClass, message.c_str() );
+      }
+    }
+    tested = JNI_TRUE;
+  }
+
+  env->ReleaseStringUTFChars( inputFileName, input_file_name );
+  env->ReleaseStringUTFChars( outputFileName, output_file_name );
+
+  return tested;
+}
+
+#ifdef __cplusplus
+}
+#endif
+
+// CLASSIFICATION: UNCLASSIFIED
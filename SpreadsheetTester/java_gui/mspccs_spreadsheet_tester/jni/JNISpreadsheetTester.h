@@ -0,0 +1,47 @@
+// CLASSIFICATION: UNCLASSIFIED
+
+/* DO NOT EDIT THIS FILE - it is machine generated */
+#include <jni.h>
+/* Header for class mspccs_spreadsheet_tester_jni_JNISpreadsheetTester */
+
+#ifndef _Included_mspccs_spreadsheet_tester_jni_JNISpreadsheetTester
+#define _Included_mspccs_spreadsheet_tester_jni_JNISpreadsheetTester
+#ifdef __cplusplus
+extern "C" {
+#endif
+#undef mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_SUCCESSFUL_EQUIVALENT
+#define mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_SUCCESSFUL_EQUIVALENT 0L
+#undef mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_SUCCESSFUL_DIFFERENT
+#define mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_SUCCESSFUL_DIFFERENT 1L
+#undef mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_WARNING_EQUIVALENT
+#define mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_WARNING_EQUIVALENT 2L
+#undef mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_WARNING_DIFFERENT
+#define mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_WARNING_DIFFERENT 3L
+#undef mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_ERROR
+#define mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_ERROR 4L
+#undef mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_ROWS_COUNT
+#define mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_ROWS_COUNT 0L
+#undef mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_ERROR_COUNT
+#define mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_ERROR_COUNT 1L
+#undef mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_SUCCESSFUL_EQUIVALENT_COUNT
+#define mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_SUCCESSFUL_EQUIVALENT_COUNT 2L
+#undef mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_SUCCESSFUL_DIFFERENT_COUNT
+#define mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_SUCCESSFUL_DIFFERENT_COUNT 3L
+#undef mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_WARNING_EQUIVALENT_COUNT
+#define mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_WARNING_EQUIVALENT_COUNT 4L
+#undef mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_WARNING_DIFFERENT_COUNT
+#define mspccs_spreadsheet_tester_jni_JNISpreadsheetTester_WARNING_DIFFERENT_COUNT 5L
+/*
+ * Class:     mspccs_spreadsheet_tester_jni_JNISpreadsheetTester
+ * Method:    jniRun
+ * Signature: (Ljava/lang/String;Ljava/lang/String;Z)Z
+ */
+JNIEXPORT jboolean JNICALL Java_mspccs_1spreadsheet_1tester_jni_JNISpreadsheetTester_jniRun
+  (JNIEnv *, jobject, jstring, jstring, jboolean);
+
+#ifdef __cplusplus
+}
+#endif
+#endif
+
+// CLASSIFICATION: UNCLASSIFIED
@@ -0,0 +1,291 @@
+// CLASSIFICATION: UNCLASSIFIED
+package mspccs_spreadsheet_tester.jni;
+
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+
+/*
+ * JNISpreadsheetTester.java
+ *
+ * Created on October 17, 2026
+ */
+
+/**
+ * Runs the MSP CCS spreadsheet tester in the JVM, through the
+ * jnimspccs_spreadsheettester library, rather than as a separate process.
+ * Each row's result is passed to a listener as soon as the row has been
+ * written, and the counts of a test can be read from any thread while it
+ * runs.
+ */
+public class JNISpreadsheetTester
+{
+  // Row results; these must match SpreadsheetTester::Result
+  public static final int SUCCESSFUL_EQUIVALENT = 0;
+  public static final int SUCCESSFUL_DIFFERENT = 1;
+  public static final int WARNING_EQUIVALENT = 2;
+  public static final int WARNING_DIFFERENT = 3;
+  public static final int ERROR = 4;
+
+  public static final String LIBRARY_NAME = "jnimspccs_spreadsheettester";
+
+  // Indexes of the counts passed to rowTested; these must match
+  // JNISpreadsheetTester.cpp
+  private static final int ROWS_COUNT = 0;
+  private static final int ERROR_COUNT = 1;
+  private static final int SUCCESSFUL_EQUIVALENT_COUNT = 2;
+  private static final int SUCCESSFUL_DIFFERENT_COUNT = 3;
+  private static final int WARNING_EQUIVALENT_COUNT = 4;
+  private static final int WARNING_DIFFERENT_COUNT = 5;
+
+  private static boolean libraryLoaded = false;
+
+  private native boolean jniRun(String inputFileName, String outputFileName, boolean showWarnings) throws IOException;
+
+  private String inputFileName;
+  private String outputFileName;
+  private boolean showWarnings;
+
+  private SpreadsheetTestListener listener;
+  private volatile boolean running = false;
+  private volatile boolean cancelled = false;
+  private volatile long startTime;
+  private volatile long endTime;
+
+  private volatile long rows;
+  private volatile long errors;
+  private volatile long successfulEquivalent;
+  private volatile long successfulDifferent;
+  private volatile long warningEquivalent;
+  private volatile long warningDifferent;
+
+
+  public JNISpreadsheetTester(String _inputFileName, String _outputFileName, boolean _showWarnings)
+  {
+    inputFileName = _inputFileName;
+    outputFileName = _outputFileName;
+    showWarnings = _showWarnings;
+  }
+
+
+  public String getInputFileName()
+  {
+    return inputFileName;
+  }
+
+
+  public String getOutputFileName()
+  {
+    return outputFileName;
+  }
+
+
+  public boolean getShowWarnings()
+  {
+    return showWarnings;
+  }
+
+
+  /**
+   * Loads the native tester library if it is not loaded.  Returns false if
+   * it cannot be loaded, in which case the tester executable has to be run
+   * instead.
+   */
+  public static synchronized boolean isAvailable()
+  {
+    if(!libraryLoaded)
+    {
+      try
+      {
+        System.loadLibrary(LIBRARY_NAME);
+        libraryLoaded = true;
+      }
+      catch(UnsatisfiedLinkError e)
+      {
+      }
+      catch(SecurityException e)
+      {
+      }
+    }
+
+    return libraryLoaded;
+  }
+
+
+  /**
+   * Tests the rows of the input file on the calling thread, writing them to
+   * the output file, and passes the result of each row to listener, which
+   * may be null.  Returns when every row has been tested or, after cancel()
+   * has been called, when the row being tested is done.
+   */
+  public void run(SpreadsheetTestListener _listener) throws IOException
+  {
+    if(!isAvailable())
+      throw new UnsatisfiedLinkError("The " + LIBRARY_NAME + " library could not be loaded");
+
+    synchronized(this)
+    {
+      if(running)
+        throw new IllegalStateException("The test is already running");
+      running = true;
+    }
+
+    listener = _listener;
+    cancelled = false;
+    rows = 0;
+    errors = 0;
+    successfulEquivalent = 0;
+    successfulDifferent = 0;
+    warningEquivalent = 0;
+    warningDifferent = 0;
+    startTime = System.nanoTime();
+    endTime = 0;
+
+    try
+    {
+      if(!new File(inputFileName).canRead())
+        throw new FileNotFoundException("The file, " + inputFileName + ", could not be opened.");
+      if(!jniRun(inputFileName, outputFileName, showWarnings))
+        throw new IOException("The file, " + outputFileName + ", could not be opened.");
+    }
+    finally
+    {
+      endTime = System.nanoTime();
+      listener = null;
+      running = false;
+    }
+  }
+
+
+  /**
+   * Stops the test after the row being tested.
+   */
+  public void cancel()
+  {
+    cancelled = true;
+  }
+
+
+  public boolean isRunning()
+  {
+    return running;
+  }
+
+
+  public boolean isCancelled()
+  {
+    return cancelled;
+  }
+
+
+  public long getRows()
+  {
+    return rows;
+  }
+
+
+  public long getErrors()
+  {
+    return errors;
+  }
+
+
+  /**
+   * Returns the number of rows whose calculated coordinates differ from the
+   * expected ones, with or without a warning.
+   */
+  public long getMismatches()
+  {
+    return successfulDifferent + warningDifferent;
+  }
+
+
+  public long getWarnings()
+  {
+    return warningEquivalent + warningDifferent;
+  }
+
+
+  public long getSuccessfulEquivalent()
+  {
+    return successfulEquivalent;
+  }
+
+
+  public long getSuccessfulDifferent()
+  {
+    return successfulDifferent;
+  }
+
+
+  public long getWarningEquivalent()
+  {
+    return warningEquivalent;
+  }
+
+
+  public long getWarningDifferent()
+  {
+    return warningDifferent;
+  }
+
+
+  /**
+   * Returns the rows tested per second, since the test started and until it
+   * ended.
+   */
+  public double getRowsPerSecond()
+  {
+    long start = startTime;
+    long end = endTime;
+    if(start == 0)
+      return 0;
+    if(end == 0)
+      end = System.nanoTime();
+
+    return end > start ? rows * 1.0e9 / (end - start) : 0;
+  }
+
+
+  /**
+   * Returns the totals of the test, laid out as the tester executable writes
+   * them to the console.
+   */
+  public String getResults()
+  {
+    StringBuilder results = new StringBuilder();
+    results.append("\n\nResults: \n\n");
+    results.append("\tSuccessful\n");
+    results.append("\t\tEquivalent Results\t").append(successfulEquivalent).append(" \n");
+    results.append("\t\tDifferent Results\t").append(successfulDifferent).append(" \n");
+    results.append("\tWarnings\n");
+    results.append("\t\tEquivalent Results\t").append(warningEquivalent).append(" \n");
+    results.append("\t\tDifferent Results\t").append(warningDifferent).append(" \n");
+    results.append("\tErrors (No Results)\t\t").append(errors).append(" \n");
+    results.append("\tTotal Test Cases\t\t").append(rows).append(" \n");
+
+    return results.toString();
+  }
+
+
+  // Called by jniRun after each row; counts is only valid during the call.
+  // Returns false to stop the test.
+  private boolean rowTested(long row, String id, int result, String messages, long[] counts)
+  {
+    rows = counts[ROWS_COUNT];
+    errors = counts[ERROR_COUNT];
+    successfulEquivalent = counts[SUCCESSFUL_EQUIVALENT_COUNT];
+    successfulDifferent = counts[SUCCESSFUL_DIFFERENT_COUNT];
+    warningEquivalent = counts[WARNING_EQUIVALENT_COUNT];
+    warningDifferent = counts[WARNING_DIFFERENT_COUNT];
+
+    if(listener != null)
+      listener.rowTested(row, id, result, messages);
+
+    return !cancelled;
+  }
+}
+
+// CLASSIFICATION: UNCLASSIFIED
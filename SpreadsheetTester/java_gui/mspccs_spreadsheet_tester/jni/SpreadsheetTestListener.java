@@ -0,0 +1,29 @@
+// CLASSIFICATION: UNCLASSIFIED
+package mspccs_spreadsheet_tester.jni;
+
+
+/*
+ * SpreadsheetTestListener.java
+ *
+ * Created on October 17, 2026
+ */
+
+/**
+ * Receives the result of each row of a test run by JNISpreadsheetTester.
+ */
+public interface SpreadsheetTestListener
+{
+  /**
+   * Called on the thread running the test after a row has been written to
+   * the output file.
+   *
+   * @param row       number of the row, counting from 1
+   * @param id        test case id of the row
+   * @param result    one of the JNISpreadsheetTester result constants
+   * @param messages  messages the tester would have written to the console
+   *                  for the row, or null if there are none
+   */
+  public void rowTested(long row, String id, int result, String messages);
+}
+
+// CLASSIFICATION: UNCLASSIFIED
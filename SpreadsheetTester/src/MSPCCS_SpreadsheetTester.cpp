@@ -15,15 +15,27 @@ using namespace std;
 
 int main(int argc, char* argv[])
 {
-	if ( argc == 4 )
+  int numThreads = 1;
+  int arg = 1;
+
+  if ( argc > 2 && strcmp( argv[1], "--threads" ) == 0 )
+  {
+    numThreads = atoi( argv[2] );
+    arg = 3;
+  }
+
+	if ( argc - arg == 3 )
 	{
-		cout << "Source File: '" << argv[1] << "'" << endl;
-		cout << "Output File: '" << argv[2] << "'" << endl;
-		cout << "Display Warnings: '" << argv[3] << "'" << endl << endl;
+		cout << "Source File: '" << argv[arg] << "'" << endl;
+		cout << "Output File: '" << argv[arg + 1] << "'" << endl;
+		cout << "Display Warnings: '" << argv[arg + 2] << "'" << endl;
+		if ( numThreads != 1 )
+			cout << "Threads: '" << argv[2] << "'" << endl;
+		cout << endl;
     
     try
     {
-      SpreadsheetTester* spreadsheetTester = new SpreadsheetTester( argv[1], argv[2], atoi( argv[3] ) != 0 );
+      SpreadsheetTester* spreadsheetTester = new SpreadsheetTester( argv[arg], argv[arg + 1], atoi( argv[arg + 2] ) != 0, numThreads );
       delete spreadsheetTester;
       spreadsheetTester = 0;
     }
@@ -35,7 +47,7 @@ int main(int argc, char* argv[])
 ///      cout << "The file could not be tested." << endl;
 	}
 	else
-		cout << "Usage: mspccs_tester <input file> <output file> <display warnings 1 or 0>" << endl;
+		cout << "Usage: mspccs_tester [--threads <number of threads, 0 for all processors>] <input file> <output file> <display warnings 1 or 0>" << endl;
 
   return 0;
 }
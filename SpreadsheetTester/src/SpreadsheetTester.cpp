@@ -37,6 +37,9 @@ History
 01-06-2009 - updated to work with thread safe msp ccs
 06-16-2010 - S. Gillis, BAEts26660, spreadsheet tester has incorrect datum string
 02-25-2010 - K. Lam, BAEts26267, add EGM 2008 support
+10-17-2026 - reuse conversion services and row buffers across test cases
+10-17-2026 - convert ranges of rows on several threads
+10-17-2026 - report each row to an optional SpreadsheetTesterListener
  
 */
 
@@ -46,6 +49,9 @@ History
 #include <stdlib.h>
 #include <math.h>
 #include <ctype.h>
+#include <stdarg.h>
+#include <thread>
+#include <vector>
 #include "SpreadsheetTester.h"
 #include "CoordinateConversionService.h"
 #include "CoordinateSystemParameters.h"
@@ -95,6 +101,8 @@ using namespace MSP::CCS;
 #define LETTER_I               8   /* ARRAY INDEX FOR LETTER I               */
 #define LETTER_O              14   /* ARRAY INDEX FOR LETTER O               */
 
+#define MAX_CONVERSION_SERVICES 256  /* Services kept for reuse by later rows */
+
 
 /* Convert a string to uppercase - if there is a space, convert it to an underscore(_) */
 void To_UpperCase (char* string)
@@ -381,9 +389,14 @@ BOOLEAN Compare_GEOREF_Result(char* expected_str, char* results_str)
 
 /* Open the input file for reading, output file for writing and create a file */
 /* to contain error messages */
-SpreadsheetTester::SpreadsheetTester( const char* input_file_name, const char* output_file_name, bool _showWarnings ):
+SpreadsheetTester::SpreadsheetTester( const char* input_file_name, const char* output_file_name, bool _showWarnings, int _numThreads, SpreadsheetTesterListener* _listener ):
   input_file( 0 ),
   output_file( 0 ),
+  message_file( stdout ),
+  tested( false ),
+  listener( 0 ),
+  row_result( error ),
+  total_test_cases( 0 ),
   error_count( 0 ),
   warning_different_count( 0 ),
   warning_equivalent_count( 0 ),
@@ -398,14 +411,6 @@ SpreadsheetTester::SpreadsheetTester( const char* input_file_name, const char* o
   output_coord3( 0.0 ),
   input_hemisphere( '\0' ),
   output_hemisphere( '\0' ),
-  id( NULL ),
-  input_coord1_str( NULL ),
-  output_coord1_str( NULL ),
-  input_datum( NULL ),
-  output_datum( NULL ),
-  input_projection( NULL ),
-  output_projection( NULL ),
-  data( NULL ),
   input_height( 0 ),
   output_height( 0 ),
   zone( 0 ),
@@ -420,6 +425,34 @@ SpreadsheetTester::SpreadsheetTester( const char* input_file_name, const char* o
   showWarnings = _showWarnings;
   testEGM2008  = false;
 
+  numThreads = _numThreads;
+  if( numThreads < 1 )
+  {
+    numThreads = ( int )std::thread::hardware_concurrency();
+    if( numThreads < 1 )
+      numThreads = 1;
+  }
+
+  listener = _listener;
+  if( listener )
+  {
+    numThreads = 1;
+    message_file = 0;
+  }
+
+  id[0] = '\0';
+  input_coord1_str[0] = '\0';
+  output_coord1_str[0] = '\0';
+  input_datum[0] = '\0';
+  output_datum[0] = '\0';
+  input_projection[0] = '\0';
+  output_projection[0] = '\0';
+  data[0] = '\0';
+
+  // The destructor deletes the coordinate systems, even if no row was read
+  initCoordinateSystemState( SourceOrTarget::source );
+  initCoordinateSystemState( SourceOrTarget::target );
+
   char* envEGM2008 = getenv( "EGM2008_TEST" );
   if (envEGM2008)
   {
@@ -431,7 +464,8 @@ SpreadsheetTester::SpreadsheetTester( const char* input_file_name, const char* o
   {
     if( Open_Test_File( SourceOrTarget::target, output_file_name, &output_file ) )
     {
-      Convert_Test_File();
+      Convert_Test_File( input_file_name );
+      tested = true;
 
       Close_Test_File( &input_file );
       Close_Test_File( &output_file );
@@ -453,57 +487,60 @@ SpreadsheetTester::SpreadsheetTester( const char* input_file_name, const char* o
 }
 
 
+/* Create a tester for a range of the rows of a file, whose files are set by */
+/* Convert_Shards */
+SpreadsheetTester::SpreadsheetTester( bool _showWarnings, bool _testEGM2008 ):
+  input_file( 0 ),
+  output_file( 0 ),
+  message_file( stdout ),
+  tested( false ),
+  listener( 0 ),
+  row_result( error ),
+  total_test_cases( 0 ),
+  error_count( 0 ),
+  warning_different_count( 0 ),
+  warning_equivalent_count( 0 ),
+  successful_different_count( 0 ),
+  successful_equivalent_count( 0 ),
+  coordinateConversionService( 0 ),
+  input_coord1( 0.0 ),
+  input_coord2( 0.0 ),
+  input_coord3( 0.0 ),
+  output_coord1( 0.0 ),
+  output_coord2( 0.0 ),
+  output_coord3( 0.0 ),
+  input_hemisphere( '\0' ),
+  output_hemisphere( '\0' ),
+  input_height( 0 ),
+  output_height( 0 ),
+  zone( 0 ),
+  showWarnings( true )
+
+{
+  showWarnings = _showWarnings;
+  testEGM2008  = _testEGM2008;
+  numThreads   = 1;
+
+  id[0] = '\0';
+  input_coord1_str[0] = '\0';
+  output_coord1_str[0] = '\0';
+  input_datum[0] = '\0';
+  output_datum[0] = '\0';
+  input_projection[0] = '\0';
+  output_projection[0] = '\0';
+  data[0] = '\0';
+
+  initCoordinateSystemState( SourceOrTarget::source );
+  initCoordinateSystemState( SourceOrTarget::target );
+}
+
+
 SpreadsheetTester::~SpreadsheetTester()
 {
-  if( coordinateConversionService )
-  {
-    delete coordinateConversionService;
-    coordinateConversionService = 0;
-  }
+  deleteCoordinateConversionServices();
 
   deleteCoordinateSystem( SourceOrTarget::source );
   deleteCoordinateSystem( SourceOrTarget::target );
-
-  if (id != NULL)
-  {
-      free(id);
-      id = NULL;
-  }
-  if (input_coord1_str != NULL)
-  {
-      free(input_coord1_str);
-      input_coord1_str = NULL;
-  }
-  if (output_coord1_str != NULL)
-  {
-      free(output_coord1_str);
-      output_coord1_str = NULL;
-  }
-  if (input_datum != NULL)
-  {
-      free(input_datum);
-      input_datum = NULL;
-  }
-  if (output_datum != NULL)
-  {
-      free(output_datum);
-      output_datum = NULL;
-  }
-  if (input_projection != NULL)
-  {
-      free(input_projection);
-      input_projection = NULL;
-  }
-  if (output_projection != NULL)
-  {
-      free(output_projection);
-      output_projection = NULL;
-  }
-  if (data != NULL)
-  {
-      free(data);
-      data = NULL;
-  }
 }
 
 
@@ -546,13 +583,24 @@ void SpreadsheetTester::Close_Test_File(FILE **file)
 
 
 /* Convert a test case file */
-void SpreadsheetTester::Convert_Test_File()
+void SpreadsheetTester::Convert_Test_File( const char* input_file_name )
 { 
-  int total_test_cases = 0;
-
   Read_Header();
 
-  while (!feof(input_file))
+  if ((numThreads < 2) || !Convert_Shards(input_file_name))
+    Convert_Rows(-1);
+
+  deleteCoordinateConversionServices();
+
+  Write_Results();
+}
+
+
+/* Convert the rows from the current position of the input file to */
+/* end_offset, or to the end of the file if end_offset is negative */
+void SpreadsheetTester::Convert_Rows( long end_offset )
+{
+  while (!feof(input_file) && (end_offset < 0 || ftell(input_file) < end_offset))
   {
     initCoordinateSystemState( SourceOrTarget::source );
     initCoordinateSystemState( SourceOrTarget::target );
@@ -569,16 +617,7 @@ void SpreadsheetTester::Convert_Test_File()
     {
       try
       {
-        MSP::CCS::CoordinateConversionService* tempCoordinateConversionService = new MSP::CCS::CoordinateConversionService( coordinateSystemState[SourceOrTarget::source].datumCode, getCoordinateSystem( SourceOrTarget::source ), 
-                                     coordinateSystemState[SourceOrTarget::target].datumCode, getCoordinateSystem( SourceOrTarget::target ) );
-      
-        if( coordinateConversionService )
-        {
-          delete coordinateConversionService;
-          coordinateConversionService = 0;
-        }
-      
-        coordinateConversionService = tempCoordinateConversionService;
+        coordinateConversionService = getCoordinateConversionService();
 
         convertSourceToTarget();
 
@@ -587,7 +626,7 @@ void SpreadsheetTester::Convert_Test_File()
       catch( CoordinateConversionException e )
       {
         error_count++;
-        printf("Test Case Id: %s - Conversion Error: %s\n", id, e.getMessage());
+        Write_Message("Test Case Id: %s - Conversion Error: %s\n", id, e.getMessage());
         Write_To_File(FALSE);
       }
 
@@ -602,64 +641,179 @@ void SpreadsheetTester::Convert_Test_File()
         Write_To_File(TRUE);
     }
 
-    if (id != NULL)
-    {
-        free(id);
-        id = NULL;
-    }
-    if (input_coord1_str != NULL)
-    {
-        free(input_coord1_str);
-        input_coord1_str = NULL;
-    }
-    if (output_coord1_str != NULL)
+    if (listener)
     {
-        free(output_coord1_str);
-        output_coord1_str = NULL;
-    }
-    if (input_datum != NULL)
-    {
-        free(input_datum);
-        input_datum = NULL;
-    }
-    if (output_datum != NULL)
-    {
-        free(output_datum);
-        output_datum = NULL;
-    }
-    if (input_projection != NULL)
-    {
-        free(input_projection);
-        input_projection = NULL;
+      bool proceed = listener->rowTested( *this, total_test_cases, id, row_result, row_messages.c_str() );
+      row_messages.clear();
+      if (!proceed)
+        break;
     }
-    if (output_projection != NULL)
+  }
+}
+
+
+bool SpreadsheetTester::Convert_Shards( const char* input_file_name )
+{
+/*
+ *  The function Convert_Shards splits the rows of the input file into
+ *  numThreads ranges of consecutive rows and converts each range on its
+ *  own thread, with its own services.  The rows and messages of each range
+ *  are written to temporary files, which are copied in row order to the
+ *  output file and the console, so the results are those of converting
+ *  the rows one after another.  If the rows cannot be split, the input
+ *  file is left at the first row and false is returned.
+ *
+ *  input_file_name  : Name of the input file, opened again for each range
+ *                                                                  (input)
+ */
+
+  std::vector< long > row_offsets;
+  std::vector< SpreadsheetTester* > shards;
+  std::vector< std::thread > workers;
+  char line[1024];
+  long first_row_offset = ftell(input_file);
+  long offset;
+  bool line_start = true;
+  int shard_count = 0;
+  int index;
+
+  /* Find the start of each row, a line which is not blank */
+  fscanf(input_file, " ");
+  offset = ftell(input_file);
+  while (fgets(line, sizeof(line), input_file))
+  {
+    if (line_start && (line[strspn(line, " \t\r\n")] != '\0'))
+      row_offsets.push_back(offset);
+    line_start = (strchr(line, '\n') != NULL);
+    offset = ftell(input_file);
+  }
+
+  fseek(input_file, first_row_offset, SEEK_SET);
+
+  shard_count = numThreads;
+  if (shard_count > (int)row_offsets.size())
+    shard_count = (int)row_offsets.size();
+  if (shard_count < 2)
+    return false;
+
+  for (index = 0; index < shard_count; index++)
+  {
+    SpreadsheetTester* shard = new SpreadsheetTester( showWarnings, testEGM2008 );
+    shards.push_back(shard);
+
+    Open_Test_File(SourceOrTarget::source, input_file_name, &shard->input_file);
+    shard->output_file = tmpfile();
+    shard->message_file = tmpfile();
+    if (shard->input_file && shard->output_file && shard->message_file)
+      fseek(shard->input_file, row_offsets[row_offsets.size() * index / shard_count], SEEK_SET);
+    else
+      break;
+  }
+
+  if (index == shard_count)
+  {
+    for (index = 0; index < shard_count; index++)
     {
-        free(output_projection);
-        output_projection = NULL;
+      long end_offset = -1;
+      if (index < shard_count - 1)
+        end_offset = row_offsets[row_offsets.size() * (index + 1) / shard_count];
+
+      workers.push_back(std::thread(&SpreadsheetTester::Convert_Rows, shards[index], end_offset));
     }
-    if (data != NULL)
+
+    for (index = 0; index < shard_count; index++)
+      workers[index].join();
+
+    /* Merge the ranges in row order */
+    for (index = 0; index < shard_count; index++)
     {
-        free(data);
-        data = NULL;
+      SpreadsheetTester* shard = shards[index];
+      size_t length;
+
+      fflush(shard->output_file);
+      rewind(shard->output_file);
+      while ((length = fread(line, 1, sizeof(line), shard->output_file)) > 0)
+        fwrite(line, 1, length, output_file);
+
+      fflush(shard->message_file);
+      rewind(shard->message_file);
+      while ((length = fread(line, 1, sizeof(line), shard->message_file)) > 0)
+        fwrite(line, 1, length, message_file);
+
+      total_test_cases += shard->total_test_cases;
+      error_count += shard->error_count;
+      warning_different_count += shard->warning_different_count;
+      warning_equivalent_count += shard->warning_equivalent_count;
+      successful_different_count += shard->successful_different_count;
+      successful_equivalent_count += shard->successful_equivalent_count;
     }
   }
 
-  if( coordinateConversionService )
+  for (index = 0; index < (int)shards.size(); index++)
   {
-    delete coordinateConversionService;
-    coordinateConversionService = 0;
+    if (shards[index]->input_file)
+      Close_Test_File(&shards[index]->input_file);
+    if (shards[index]->output_file)
+      Close_Test_File(&shards[index]->output_file);
+    if (shards[index]->message_file)
+      Close_Test_File(&shards[index]->message_file);
+    delete shards[index];
   }
 
-  printf("\n\nResults: \n\n");
-  printf("\tSuccessful\n");
-  printf("\t\tEquivalent Results\t%d \n", successful_equivalent_count);
-  printf("\t\tDifferent Results\t%d \n", successful_different_count);
-  printf("\tWarnings\n");
-  printf("\t\tEquivalent Results\t%d \n", warning_equivalent_count);
-  printf("\t\tDifferent Results\t%d \n", warning_different_count);
-  printf("\tErrors (No Results)\t\t%d \n", error_count);
-  printf("\tTotal Test Cases\t\t%d \n", total_test_cases);
+  return !workers.empty();
+}
+
 
+/* Write the totals of the results to the console */
+void SpreadsheetTester::Write_Results()
+{
+  if (!message_file)
+    return;
+
+  fprintf(message_file, "\n\nResults: \n\n");
+  fprintf(message_file, "\tSuccessful\n");
+  fprintf(message_file, "\t\tEquivalent Results\t%ld \n", successful_equivalent_count);
+  fprintf(message_file, "\t\tDifferent Results\t%ld \n", successful_different_count);
+  fprintf(message_file, "\tWarnings\n");
+  fprintf(message_file, "\t\tEquivalent Results\t%ld \n", warning_equivalent_count);
+  fprintf(message_file, "\t\tDifferent Results\t%ld \n", warning_different_count);
+  fprintf(message_file, "\tErrors (No Results)\t\t%ld \n", error_count);
+  fprintf(message_file, "\tTotal Test Cases\t\t%ld \n", total_test_cases);
+}
+
+
+/* Write a message about the current row to the console, or keep it for the */
+/* listener */
+void SpreadsheetTester::Write_Message( const char* format, ... )
+{
+  char message[1024];
+  va_list arguments;
+  int length;
+
+  va_start(arguments, format);
+  length = vsnprintf(message, sizeof(message), format, arguments);
+  va_end(arguments);
+
+  if (length < 0)
+    return;
+
+  if (length >= (int)sizeof(message))
+  {
+    std::vector< char > long_message(length + 1);
+
+    va_start(arguments, format);
+    vsnprintf(&long_message[0], long_message.size(), format, arguments);
+    va_end(arguments);
+
+    if (listener)
+      row_messages += &long_message[0];
+    else
+      fputs(&long_message[0], message_file);
+  }
+  else if (listener)
+    row_messages += message;
+  else
+    fputs(message, message_file);
 }
 
 
@@ -708,6 +862,8 @@ void SpreadsheetTester::initCoordinateSystemState( const SourceOrTarget::Enum di
   coordinateSystemState[direction].coordinates.upsCoordinates = 0;
   coordinateSystemState[direction].coordinates.utmCoordinates = 0;
 
+  coordinateSystemKey[direction].clear();
+
 /*  if( !mutex_error )
     mutex_error = Threads_Unlock_Mutex( mutex );
   if( !mutex_error )
@@ -1215,7 +1371,7 @@ void SpreadsheetTester::Read_Header(void)
 /* Read a row from the file, set input & output projections and datums */
 long SpreadsheetTester::Read_File(void)
 {
-  char buf[200] = "";
+  char buf[FIELD_LENGTH] = "";
   int next_character = '\0';  
   char temp_input_projection[COORD_SYS_NAME_LENGTH] = "";
   char temp_output_projection[COORD_SYS_NAME_LENGTH] = "";
@@ -1229,29 +1385,27 @@ long SpreadsheetTester::Read_File(void)
   output_coord3 = 0.0;
   input_height = 0;
   output_height = 0;
+  input_coord1_str[0] = '\0';
+  output_coord1_str[0] = '\0';
+  data[0] = '\0';
 
   fscanf(input_file, " %s", buf);
-  id = (char *)malloc((strlen(buf) + 1) * sizeof(char));
   strcpy(id, buf);
   buf[0] = '\0';
 
   fscanf(input_file, " %[^\t\n]", buf);
-  input_datum = (char *)malloc((strlen(buf) + 1) * sizeof(char));
   strcpy(input_datum, buf);
   buf[0] = '\0';
 
   fscanf(input_file, " %[^\t\n]", buf);
-  input_projection = (char *)malloc((strlen(buf) + 1) * sizeof(char));
   strcpy(input_projection, buf);
   buf[0] = '\0';
 
   fscanf(input_file, " %[^\t\n]", buf);
-  output_datum = (char *)malloc((strlen(buf) + 1) * sizeof(char));
   strcpy(output_datum, buf);
   buf[0] = '\0';
 
   fscanf(input_file, " %[^\t\n]", buf);
-  output_projection = (char *)malloc((strlen(buf) + 1) * sizeof(char));
   strcpy(output_projection, buf);
   buf[0] = '\0';
 
@@ -1313,7 +1467,6 @@ long SpreadsheetTester::Read_File(void)
       {
         // BNG string contains a space
         fscanf(input_file, " %34[^\t\n]", buf);
-        input_coord1_str = (char *)malloc((strlen(buf) + 1) * sizeof(char));
         strcpy(input_coord1_str, buf);
       }
       else
@@ -1339,7 +1492,6 @@ long SpreadsheetTester::Read_File(void)
       {
         fscanf(input_file, " %34[^\t\n]", buf);
         buf_length = strlen(buf);
-        output_coord1_str = (char *)malloc((buf_length + 1) * sizeof(char));
         strcpy(output_coord1_str, buf);
         if (output_coord1_str[buf_length-1] == ' ')
           output_coord1_str[buf_length-1] = '\0';
@@ -1472,13 +1624,13 @@ long SpreadsheetTester::Read_File(void)
           if( longitude < -PI || longitude > 2 * PI )
           {
             error_count++;
-            printf("Test Case ID: %s - Error: Source Geodetic Coordinates:  Longitude out of range \n", id);
+            Write_Message("Test Case ID: %s - Error: Source Geodetic Coordinates:  Longitude out of range \n", id);
             return COORDINATES_ERROR;
           }
          if( latitude < -PI/2 || latitude > PI/2 )
           {
             error_count++;
-            printf("Test Case ID: %s - Error: Source Geodetic Coordinates:  Latitude out of range \n", id);
+            Write_Message("Test Case ID: %s - Error: Source Geodetic Coordinates:  Latitude out of range \n", id);
             return COORDINATES_ERROR;
           }
 
@@ -1529,10 +1681,9 @@ long SpreadsheetTester::Read_File(void)
     else
     {
       error_count++;
-      printf("Test Case ID: %s - Error: Invalid Output Projection: %s\n", id, output_projection);
+      Write_Message("Test Case ID: %s - Error: Invalid Output Projection: %s\n", id, output_projection);
       fgetc(input_file);
       fscanf(input_file, "%199[^\n]", buf);
-      data = (char *)malloc((strlen(buf) + 1) * sizeof(char));
       strcpy(data, buf);
       fscanf(input_file, " ");
       return FALSE;
@@ -1541,10 +1692,9 @@ long SpreadsheetTester::Read_File(void)
   else
   {
     error_count++;
-    printf("Test Case ID: %s - Error: Invalid Input Projection: %s\n", id, input_projection);
+    Write_Message("Test Case ID: %s - Error: Invalid Input Projection: %s\n", id, input_projection);
     fgetc(input_file);
     fscanf(input_file, "%199[^\n]", buf);
-    data = (char *)malloc((strlen(buf) + 1) * sizeof(char));
     strcpy(data, buf);
     fscanf(input_file, " ");
     return FALSE;
@@ -1734,7 +1884,7 @@ bool SpreadsheetTester::Set_Projection(SourceOrTarget::Enum direction, const cha
 /* Read the input and output projection parameters */
 void SpreadsheetTester::Read_Parameters( SourceOrTarget::Enum direction, CoordinateType::Enum projection_type )
 {
-  char buf[28] = "";
+  char buf[12] = "";
 
   /* Read parameters of projection */
   switch(projection_type)
@@ -1743,33 +1893,22 @@ void SpreadsheetTester::Read_Parameters( SourceOrTarget::Enum direction, Coordin
     case CoordinateType::lambertConformalConic2Parallels:
     {
       coordinateSystemState[direction].parameters.mapProjection6Parameters = new MSP::CCS::MapProjection6Parameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection6Parameters->setStandardParallel1( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection6Parameters->setStandardParallel2( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection6Parameters->setCentralMeridian( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection6Parameters->setOriginLatitude( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection6Parameters->setFalseEasting( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection6Parameters->setFalseNorthing( atof(buf) );
+      coordinateSystemState[direction].parameters.mapProjection6Parameters->setStandardParallel1( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mapProjection6Parameters->setStandardParallel2( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mapProjection6Parameters->setCentralMeridian( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mapProjection6Parameters->setOriginLatitude( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mapProjection6Parameters->setFalseEasting( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.mapProjection6Parameters->setFalseNorthing( Read_Parameter( direction ) );
       break;
     }
     case CoordinateType::neys:
     {
       coordinateSystemState[direction].parameters.neysParameters = new MSP::CCS::NeysParameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.neysParameters->setStandardParallel1( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.neysParameters->setCentralMeridian( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.neysParameters->setOriginLatitude( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.neysParameters->setFalseEasting( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.neysParameters->setFalseNorthing( atof(buf) );
+      coordinateSystemState[direction].parameters.neysParameters->setStandardParallel1( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.neysParameters->setCentralMeridian( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.neysParameters->setOriginLatitude( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.neysParameters->setFalseEasting( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.neysParameters->setFalseNorthing( Read_Parameter( direction ) );
       break;
     }
     case CoordinateType::lambertConformalConic1Parallel:
@@ -1777,37 +1916,24 @@ void SpreadsheetTester::Read_Parameters( SourceOrTarget::Enum direction, Coordin
     case CoordinateType::transverseMercator:
     {
       coordinateSystemState[direction].parameters.mapProjection5Parameters = new MSP::CCS::MapProjection5Parameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection5Parameters->setScaleFactor( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection5Parameters->setCentralMeridian( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection5Parameters->setOriginLatitude( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection5Parameters->setFalseEasting( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection5Parameters->setFalseNorthing( atof(buf) );
+      coordinateSystemState[direction].parameters.mapProjection5Parameters->setScaleFactor( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.mapProjection5Parameters->setCentralMeridian( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mapProjection5Parameters->setOriginLatitude( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mapProjection5Parameters->setFalseEasting( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.mapProjection5Parameters->setFalseNorthing( Read_Parameter( direction ) );
       break;
     }
     case CoordinateType::obliqueMercator:
     {
       coordinateSystemState[direction].parameters.obliqueMercatorParameters = new MSP::CCS::ObliqueMercatorParameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setScaleFactor( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setOriginLatitude( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setFalseEasting( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setFalseNorthing( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setLongitude1( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setLatitude1( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setLongitude2( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setLatitude2( atof(buf) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setScaleFactor( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setOriginLatitude( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setFalseEasting( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setFalseNorthing( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setLongitude1( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setLatitude1( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setLongitude2( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.obliqueMercatorParameters->setLatitude2( Read_Parameter( direction ) * PI_OVER_180 );
       break;
     }
     case CoordinateType::eckert4:
@@ -1818,12 +1944,9 @@ void SpreadsheetTester::Read_Parameters( SourceOrTarget::Enum direction, Coordin
     case CoordinateType::vanDerGrinten:
     {
       coordinateSystemState[direction].parameters.mapProjection3Parameters = new MSP::CCS::MapProjection3Parameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection3Parameters->setCentralMeridian( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection3Parameters->setFalseEasting( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection3Parameters->setFalseNorthing( atof(buf) );
+      coordinateSystemState[direction].parameters.mapProjection3Parameters->setCentralMeridian( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mapProjection3Parameters->setFalseEasting( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.mapProjection3Parameters->setFalseNorthing( Read_Parameter( direction ) );
       break;
     }
     case CoordinateType::azimuthalEquidistant:
@@ -1836,83 +1959,60 @@ void SpreadsheetTester::Read_Parameters( SourceOrTarget::Enum direction, Coordin
     case CoordinateType::stereographic:
     {
       coordinateSystemState[direction].parameters.mapProjection4Parameters = new MSP::CCS::MapProjection4Parameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection4Parameters->setCentralMeridian( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection4Parameters->setOriginLatitude( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection4Parameters->setFalseEasting( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mapProjection4Parameters->setFalseNorthing( atof(buf) );
+      coordinateSystemState[direction].parameters.mapProjection4Parameters->setCentralMeridian( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mapProjection4Parameters->setOriginLatitude( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mapProjection4Parameters->setFalseEasting( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.mapProjection4Parameters->setFalseNorthing( Read_Parameter( direction ) );
       break;
     }
     case CoordinateType::equidistantCylindrical:
     {
       coordinateSystemState[direction].parameters.equidistantCylindricalParameters = new MSP::CCS::EquidistantCylindricalParameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.equidistantCylindricalParameters->setCentralMeridian( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.equidistantCylindricalParameters->setStandardParallel( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.equidistantCylindricalParameters->setFalseEasting( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.equidistantCylindricalParameters->setFalseNorthing( atof(buf) );
+      coordinateSystemState[direction].parameters.equidistantCylindricalParameters->setCentralMeridian( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.equidistantCylindricalParameters->setStandardParallel( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.equidistantCylindricalParameters->setFalseEasting( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.equidistantCylindricalParameters->setFalseNorthing( Read_Parameter( direction ) );
       break;
     }
     case CoordinateType::mercatorStandardParallel:
     {
       coordinateSystemState[direction].parameters.mercatorStandardParallelParameters = new MSP::CCS::MercatorStandardParallelParameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mercatorStandardParallelParameters->setCentralMeridian( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mercatorStandardParallelParameters->setStandardParallel( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mercatorStandardParallelParameters->setFalseEasting( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mercatorStandardParallelParameters->setFalseNorthing( atof(buf) );
+      coordinateSystemState[direction].parameters.mercatorStandardParallelParameters->setCentralMeridian( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mercatorStandardParallelParameters->setStandardParallel( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mercatorStandardParallelParameters->setFalseEasting( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.mercatorStandardParallelParameters->setFalseNorthing( Read_Parameter( direction ) );
       break;
     }
     case CoordinateType::mercatorScaleFactor:
     {
       coordinateSystemState[direction].parameters.mercatorScaleFactorParameters = new MSP::CCS::MercatorScaleFactorParameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mercatorScaleFactorParameters->setScaleFactor( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mercatorScaleFactorParameters->setCentralMeridian( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mercatorScaleFactorParameters->setFalseEasting( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.mercatorScaleFactorParameters->setFalseNorthing( atof(buf) );
+      coordinateSystemState[direction].parameters.mercatorScaleFactorParameters->setScaleFactor( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.mercatorScaleFactorParameters->setCentralMeridian( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.mercatorScaleFactorParameters->setFalseEasting( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.mercatorScaleFactorParameters->setFalseNorthing( Read_Parameter( direction ) );
       break;
     }
     case CoordinateType::polarStereographicStandardParallel:
     {
       coordinateSystemState[direction].parameters.polarStereographicStandardParallelParameters = new MSP::CCS::PolarStereographicStandardParallelParameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.polarStereographicStandardParallelParameters->setCentralMeridian( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.polarStereographicStandardParallelParameters->setStandardParallel( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.polarStereographicStandardParallelParameters->setFalseEasting( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.polarStereographicStandardParallelParameters->setFalseNorthing( atof(buf) );
+      coordinateSystemState[direction].parameters.polarStereographicStandardParallelParameters->setCentralMeridian( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.polarStereographicStandardParallelParameters->setStandardParallel( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.polarStereographicStandardParallelParameters->setFalseEasting( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.polarStereographicStandardParallelParameters->setFalseNorthing( Read_Parameter( direction ) );
       break;
     }
     case CoordinateType::polarStereographicScaleFactor:
     {
       coordinateSystemState[direction].parameters.polarStereographicScaleFactorParameters = new MSP::CCS::PolarStereographicScaleFactorParameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.polarStereographicScaleFactorParameters->setScaleFactor( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.polarStereographicScaleFactorParameters->setCentralMeridian( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.polarStereographicScaleFactorParameters->setFalseEasting( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.polarStereographicScaleFactorParameters->setFalseNorthing( atof(buf) );
+      coordinateSystemState[direction].parameters.polarStereographicScaleFactorParameters->setScaleFactor( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.polarStereographicScaleFactorParameters->setCentralMeridian( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.polarStereographicScaleFactorParameters->setFalseEasting( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.polarStereographicScaleFactorParameters->setFalseNorthing( Read_Parameter( direction ) );
       if( direction == SourceOrTarget::source )
         coordinateSystemState[direction].parameters.polarStereographicScaleFactorParameters->setHemisphere( input_hemisphere );
       else
         coordinateSystemState[direction].parameters.polarStereographicScaleFactorParameters->setHemisphere( output_hemisphere );
+      coordinateSystemKey[direction] += ( direction == SourceOrTarget::source ) ? input_hemisphere : output_hemisphere;
       break;
     }
     case CoordinateType::geodetic:
@@ -1929,20 +2029,18 @@ void SpreadsheetTester::Read_Parameters( SourceOrTarget::Enum direction, Coordin
     case CoordinateType::localSpherical:
     {
       coordinateSystemState[direction].parameters.localCartesianParameters = new MSP::CCS::LocalCartesianParameters( projection_type );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.localCartesianParameters->setLongitude( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.localCartesianParameters->setLatitude( atof(buf) * PI_OVER_180 );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.localCartesianParameters->setHeight( atof(buf) );
-      fscanf(input_file, " %s", buf);
-      coordinateSystemState[direction].parameters.localCartesianParameters->setOrientation( atof(buf) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.localCartesianParameters->setLongitude( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.localCartesianParameters->setLatitude( Read_Parameter( direction ) * PI_OVER_180 );
+      coordinateSystemState[direction].parameters.localCartesianParameters->setHeight( Read_Parameter( direction ) );
+      coordinateSystemState[direction].parameters.localCartesianParameters->setOrientation( Read_Parameter( direction ) * PI_OVER_180 );
       break;
     }
     case CoordinateType::universalTransverseMercator:
     {
       coordinateSystemState[direction].parameters.utmParameters = new MSP::CCS::UTMParameters( projection_type );
       coordinateSystemState[direction].parameters.utmParameters->set( abs(zone), 1 );
+      sprintf( buf, "%ld", abs(zone) );
+      coordinateSystemKey[direction] += buf;
       break;
     }
     default:
@@ -1956,6 +2054,19 @@ void SpreadsheetTester::Read_Parameters( SourceOrTarget::Enum direction, Coordin
 }
 
 
+/* Read a parameter field and add it to the key of the coordinate system */
+double SpreadsheetTester::Read_Parameter( SourceOrTarget::Enum direction )
+{
+  char buf[FIELD_LENGTH] = "";
+
+  fscanf(input_file, " %s", buf);
+  coordinateSystemKey[direction] += buf;
+  coordinateSystemKey[direction] += '\t';
+
+  return atof(buf);
+}
+
+
 MSP::CCS::CoordinateSystemParameters* SpreadsheetTester::getCoordinateSystem( const SourceOrTarget::Enum direction )
 {
 /*
@@ -2030,6 +2141,64 @@ MSP::CCS::CoordinateSystemParameters* SpreadsheetTester::getCoordinateSystem( co
 }
 
 
+MSP::CCS::CoordinateConversionService* SpreadsheetTester::getCoordinateConversionService()
+{
+/*
+ *  The function getCoordinateConversionService returns a service which
+ *  converts from the current source to the current target coordinate
+ *  system.  A service is created for the first row with a given pair of
+ *  datums and coordinate systems and is reused by later rows with the
+ *  same pair, which are common in test files.  The key holds the datum
+ *  codes, coordinate types and the parameter fields as read, so rows
+ *  share a service only if their parameters are identical.
+ */
+
+  char buf[12] = "";
+  std::string key;
+
+  for( int direction = SourceOrTarget::source; direction <= SourceOrTarget::target; direction++ )
+  {
+    sprintf( buf, "%d", coordinateSystemState[direction].coordinateType );
+    key += coordinateSystemState[direction].datumCode;
+    key += '\n';
+    key += buf;
+    key += '\n';
+    key += coordinateSystemKey[direction];
+    key += '\n';
+  }
+
+  std::map< std::string, MSP::CCS::CoordinateConversionService* >::iterator service = coordinateConversionServices.find( key );
+  if( service != coordinateConversionServices.end() )
+    return service->second;
+
+  MSP::CCS::CoordinateConversionService* newCoordinateConversionService = new MSP::CCS::CoordinateConversionService( coordinateSystemState[SourceOrTarget::source].datumCode, getCoordinateSystem( SourceOrTarget::source ), 
+                               coordinateSystemState[SourceOrTarget::target].datumCode, getCoordinateSystem( SourceOrTarget::target ) );
+
+  if( coordinateConversionServices.size() >= MAX_CONVERSION_SERVICES )
+    deleteCoordinateConversionServices();
+
+  coordinateConversionServices[key] = newCoordinateConversionService;
+
+  return newCoordinateConversionService;
+}
+
+
+void SpreadsheetTester::deleteCoordinateConversionServices()
+{
+/*
+ *  The function deleteCoordinateConversionServices deletes the services
+ *  kept for reuse.
+ */
+
+  std::map< std::string, MSP::CCS::CoordinateConversionService* >::iterator service;
+  for( service = coordinateConversionServices.begin(); service != coordinateConversionServices.end(); service++ )
+    delete service->second;
+
+  coordinateConversionServices.clear();
+  coordinateConversionService = 0;
+}
+
+
 void SpreadsheetTester::convertSourceToTarget()
 {
   Accuracy sourceAccuracy;
@@ -2903,13 +3072,13 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
               {
                 warning_different = TRUE;
                 warning_different_count++;
-                printf("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f - Warning: %s\n", id, output_coord1, output_coord2, easting, northing, mapProjectionCoordinates.warningMessage()); 
+                Write_Message("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f - Warning: %s\n", id, output_coord1, output_coord2, easting, northing, mapProjectionCoordinates.warningMessage()); 
               }
               else
               {
                 successful_different = TRUE;
                 successful_different_count++;
-                printf("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f \n", id, output_coord1, output_coord2, easting, northing); 
+                Write_Message("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f \n", id, output_coord1, output_coord2, easting, northing); 
               }
             }
             else
@@ -2919,7 +3088,7 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                 warning_equivalent = TRUE;
                 warning_equivalent_count++; 
                 if( showWarnings )
-                  printf("Test Case Id: %s - Warning: %s\n", id, mapProjectionCoordinates.warningMessage()); 
+                  Write_Message("Test Case Id: %s - Warning: %s\n", id, mapProjectionCoordinates.warningMessage()); 
              }
               else
               {
@@ -2950,13 +3119,13 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
               {
                 warning_different = TRUE;
                 warning_different_count++;
-                printf("Test Case Id: %s - Expected: %s   Calculated: %s - Warning: %s\n", id, output_coord1_str, bngCoordinates.BNGString(), bngCoordinates.warningMessage()); 
+                Write_Message("Test Case Id: %s - Expected: %s   Calculated: %s - Warning: %s\n", id, output_coord1_str, bngCoordinates.BNGString(), bngCoordinates.warningMessage()); 
               }
               else
               {
                 successful_different = TRUE;
                 successful_different_count++;
-                printf("Test Case Id: %s - Expected: %s   Calculated: %s \n", id, output_coord1_str, bngCoordinates.BNGString()); 
+                Write_Message("Test Case Id: %s - Expected: %s   Calculated: %s \n", id, output_coord1_str, bngCoordinates.BNGString()); 
               }
             }
             else
@@ -2966,7 +3135,7 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                 warning_equivalent = TRUE;
                 warning_equivalent_count++; 
                 if( showWarnings )
-                  printf("Test Case Id: %s - Warning: %s\n", id, bngCoordinates.warningMessage()); 
+                  Write_Message("Test Case Id: %s - Warning: %s\n", id, bngCoordinates.warningMessage()); 
               }
               else
               {
@@ -3002,13 +3171,13 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
               {
                 warning_different = TRUE;
                 warning_different_count++;
-                printf("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f - Warning: %s\n", id, output_coord1, output_coord2, output_coord3, x, y, z, cartesianCoordinates.warningMessage()); 
+                Write_Message("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f - Warning: %s\n", id, output_coord1, output_coord2, output_coord3, x, y, z, cartesianCoordinates.warningMessage()); 
               }
               else
               {
                 successful_different = TRUE;
                 successful_different_count++;
-                printf("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f \n", id, output_coord1, output_coord2, output_coord3, x, y, z); 
+                Write_Message("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f \n", id, output_coord1, output_coord2, output_coord3, x, y, z); 
               }
             }
             else
@@ -3018,7 +3187,7 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                 warning_equivalent = TRUE;
                 warning_equivalent_count++; 
                 if( showWarnings )
-                  printf("Test Case Id: %s - Warning: %s\n", id, cartesianCoordinates.warningMessage()); 
+                  Write_Message("Test Case Id: %s - Warning: %s\n", id, cartesianCoordinates.warningMessage()); 
               }
               else
               {
@@ -3072,13 +3241,13 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                 {
                   warning_different = TRUE;
                   warning_different_count++;
-                  printf("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f - Warning: %s\n", id, output_coord1, output_coord2, output_coord3, elevation * _180_OVER_PI, azimuth * _180_OVER_PI, range, sphericalCoordinates.warningMessage()); 
+                  Write_Message("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f - Warning: %s\n", id, output_coord1, output_coord2, output_coord3, elevation * _180_OVER_PI, azimuth * _180_OVER_PI, range, sphericalCoordinates.warningMessage()); 
                 }
                 else
                 {
                   successful_different = TRUE;
                   successful_different_count++;
-                  printf("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f \n", id, output_coord1, output_coord2, output_coord3, elevation * _180_OVER_PI, azimuth * _180_OVER_PI, range); 
+                  Write_Message("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f \n", id, output_coord1, output_coord2, output_coord3, elevation * _180_OVER_PI, azimuth * _180_OVER_PI, range); 
                 }
               }
               else
@@ -3088,7 +3257,7 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                   warning_equivalent = TRUE;
                   warning_equivalent_count++; 
                   if( showWarnings )
-                    printf("Test Case Id: %s - Warning: %s\n", id, sphericalCoordinates.warningMessage()); 
+                    Write_Message("Test Case Id: %s - Warning: %s\n", id, sphericalCoordinates.warningMessage()); 
                 }
                 else
                 {
@@ -3141,13 +3310,13 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                 {
                   warning_different = TRUE;
                   warning_different_count++;
-                  printf("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f - Warning: %s\n", id, output_coord1, output_coord2, output_coord3, latitude * _180_OVER_PI, longitude * _180_OVER_PI, radius, sphericalCoordinates.warningMessage()); 
+                  Write_Message("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f - Warning: %s\n", id, output_coord1, output_coord2, output_coord3, latitude * _180_OVER_PI, longitude * _180_OVER_PI, radius, sphericalCoordinates.warningMessage()); 
                 }
                 else
                 {
                   successful_different = TRUE;
                   successful_different_count++;
-                  printf("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f \n", id, output_coord1, output_coord2, output_coord3, latitude * _180_OVER_PI, longitude * _180_OVER_PI, radius); 
+                  Write_Message("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f \n", id, output_coord1, output_coord2, output_coord3, latitude * _180_OVER_PI, longitude * _180_OVER_PI, radius); 
                 }
               }
               else
@@ -3157,7 +3326,7 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                   warning_equivalent = TRUE;
                   warning_equivalent_count++; 
                   if( showWarnings )
-                    printf("Test Case Id: %s - Warning: %s\n", id, sphericalCoordinates.warningMessage()); 
+                    Write_Message("Test Case Id: %s - Warning: %s\n", id, sphericalCoordinates.warningMessage()); 
                 }
                 else
                 {
@@ -3209,13 +3378,13 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                 {
                   warning_different = TRUE;
                   warning_different_count++;
-                  printf("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f - Warning: %s\n", id, output_coord2, output_coord1, output_coord3, longitude * _180_OVER_PI, latitude * _180_OVER_PI, height, geodeticCoordinates.warningMessage()); 
+                  Write_Message("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f - Warning: %s\n", id, output_coord2, output_coord1, output_coord3, longitude * _180_OVER_PI, latitude * _180_OVER_PI, height, geodeticCoordinates.warningMessage()); 
                 }
                 else
                 {
                   successful_different = TRUE;
                   successful_different_count++;
-                  printf("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f \n", id, output_coord2, output_coord1, output_coord3, longitude * _180_OVER_PI, latitude * _180_OVER_PI, height); 
+                  Write_Message("Test Case Id: %s - Expected: %.6f, %.6f, %.6f   Calculated: %.6f, %.6f, %.6f \n", id, output_coord2, output_coord1, output_coord3, longitude * _180_OVER_PI, latitude * _180_OVER_PI, height); 
                 }
               }
               else
@@ -3225,7 +3394,7 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                   warning_equivalent = TRUE;
                   warning_equivalent_count++; 
                   if( showWarnings )
-                    printf("Test Case Id: %s - Warning: %s\n", id, geodeticCoordinates.warningMessage()); 
+                    Write_Message("Test Case Id: %s - Warning: %s\n", id, geodeticCoordinates.warningMessage()); 
                 }
                 else
                 {
@@ -3244,13 +3413,13 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                 {
                   warning_different = TRUE;
                   warning_different_count++;
-                  printf("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f - Warning: %s\n", id, output_coord2, output_coord1, longitude * _180_OVER_PI, latitude * _180_OVER_PI, geodeticCoordinates.warningMessage()); 
+                  Write_Message("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f - Warning: %s\n", id, output_coord2, output_coord1, longitude * _180_OVER_PI, latitude * _180_OVER_PI, geodeticCoordinates.warningMessage()); 
                 }
                 else
                 {
                   successful_different = TRUE;
                   successful_different_count++;
-                  printf("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f \n", id, output_coord2, output_coord1, longitude * _180_OVER_PI, latitude * _180_OVER_PI); 
+                  Write_Message("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f \n", id, output_coord2, output_coord1, longitude * _180_OVER_PI, latitude * _180_OVER_PI); 
                 }
               }
               else
@@ -3260,7 +3429,7 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                   warning_equivalent = TRUE;
                   warning_equivalent_count++; 
                   if( showWarnings )
-                    printf("Test Case Id: %s - Warning: %s\n", id, geodeticCoordinates.warningMessage()); 
+                    Write_Message("Test Case Id: %s - Warning: %s\n", id, geodeticCoordinates.warningMessage()); 
                 }
                 else
                 {
@@ -3292,13 +3461,13 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
               {
                 warning_different = TRUE;
                 warning_different_count++;
-                printf("Test Case Id: %s - Expected: %s   Calculated: %s - Warning: %s\n", id, output_coord1_str, georefCoordinates.GEOREFString(), georefCoordinates.warningMessage()); 
+                Write_Message("Test Case Id: %s - Expected: %s   Calculated: %s - Warning: %s\n", id, output_coord1_str, georefCoordinates.GEOREFString(), georefCoordinates.warningMessage()); 
               }
               else
               {
                 successful_different = TRUE;
                 successful_different_count++;
-                printf("Test Case Id: %s - Expected: %s   Calculated: %s \n", id, output_coord1_str, georefCoordinates.GEOREFString()); 
+                Write_Message("Test Case Id: %s - Expected: %s   Calculated: %s \n", id, output_coord1_str, georefCoordinates.GEOREFString()); 
               }
             }
             else
@@ -3308,7 +3477,7 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                 warning_equivalent = TRUE;
                 warning_equivalent_count++; 
                 if( showWarnings )
-                  printf("Test Case Id: %s - Warning: %s\n", id, georefCoordinates.warningMessage()); 
+                  Write_Message("Test Case Id: %s - Warning: %s\n", id, georefCoordinates.warningMessage()); 
               }
               else
               {
@@ -3340,13 +3509,13 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
               {
                 warning_different = TRUE;
                 warning_different_count++;
-                printf("Test Case Id: %s - Expected: %s   Calculated: %s - Warning: %s\n", id, output_coord1_str, mgrsOrUSNGCoordinates.MGRSString(), mgrsOrUSNGCoordinates.warningMessage()); 
+                Write_Message("Test Case Id: %s - Expected: %s   Calculated: %s - Warning: %s\n", id, output_coord1_str, mgrsOrUSNGCoordinates.MGRSString(), mgrsOrUSNGCoordinates.warningMessage()); 
               }
               else
               {
                 successful_different = TRUE;
                 successful_different_count++;
-                printf("Test Case Id: %s - Expected: %s   Calculated: %s \n", id, output_coord1_str, mgrsOrUSNGCoordinates.MGRSString()); 
+                Write_Message("Test Case Id: %s - Expected: %s   Calculated: %s \n", id, output_coord1_str, mgrsOrUSNGCoordinates.MGRSString()); 
               }
             }
             else
@@ -3356,7 +3525,7 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                 warning_equivalent = TRUE;
                 warning_equivalent_count++; 
                 if( showWarnings )
-                  printf("Test Case Id: %s - Warning: %s\n", id, mgrsOrUSNGCoordinates.warningMessage()); 
+                  Write_Message("Test Case Id: %s - Warning: %s\n", id, mgrsOrUSNGCoordinates.warningMessage()); 
               }
               else
               {
@@ -3390,15 +3559,15 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
             if ((fabs(easting - output_coord1) > 1.0) || (fabs(northing - output_coord2) > 1.0))
             {
               error = TRUE;
-              printf("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f ", id, output_coord1, output_coord2, easting, northing); 
+              Write_Message("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f ", id, output_coord1, output_coord2, easting, northing); 
             }
             if (hemisphere != output_hemisphere)
             {
               if (error)
-                printf("\n");
+                Write_Message("\n");
 
               error = TRUE;
-              printf("Test Case Id: %s - Expected Hemisphere: %c   Calculated Hemisphere: %c ", id, output_hemisphere, hemisphere); 
+              Write_Message("Test Case Id: %s - Expected Hemisphere: %c   Calculated Hemisphere: %c ", id, output_hemisphere, hemisphere); 
             }
             if (error)
             {
@@ -3406,13 +3575,13 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
               {
                 warning_different = TRUE;
                 warning_different_count++;
-                printf("- Warning: %s\n", upsCoordinates.warningMessage());
+                Write_Message("- Warning: %s\n", upsCoordinates.warningMessage());
               }
               else
               {
                 successful_different = TRUE;
                 successful_different_count++;
-                printf("\n");
+                Write_Message("\n");
               }
             }
             else
@@ -3422,7 +3591,7 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                 warning_equivalent = TRUE;
                 warning_equivalent_count++; 
                 if( showWarnings )
-                  printf("Test Case Id: %s - Warning: %s\n", id, upsCoordinates.warningMessage()); 
+                  Write_Message("Test Case Id: %s - Warning: %s\n", id, upsCoordinates.warningMessage()); 
               }
               else
               {
@@ -3460,23 +3629,23 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
             if ((fabs(easting - output_coord1) > 1.0) || (fabs(northing - output_coord2) > 1.0))
             {
               error = TRUE;
-              printf("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f ", id, output_coord1, output_coord2, easting, northing); 
+              Write_Message("Test Case Id: %s - Expected: %.6f, %.6f   Calculated: %.6f, %.6f ", id, output_coord1, output_coord2, easting, northing); 
             }
             if (zone != abs(zone))
             {
               if (error)
-                printf("\n");
+                Write_Message("\n");
 
               error = TRUE;
-              printf("Test Case Id: %s - Expected Zone: %d   Calculated Zone: %d ", id, zone, zone); 
+              Write_Message("Test Case Id: %s - Expected Zone: %d   Calculated Zone: %d ", id, zone, zone); 
             }
             if (hemisphere != output_hemisphere)
             {
               if (error)
-                printf("\n");
+                Write_Message("\n");
 
               error = TRUE;
-              printf("Test Case Id: %s - Expected Hemisphere: %c   Calculated Hemisphere: %c ", id, output_hemisphere, hemisphere); 
+              Write_Message("Test Case Id: %s - Expected Hemisphere: %c   Calculated Hemisphere: %c ", id, output_hemisphere, hemisphere); 
             }
             if (error)
             {
@@ -3484,13 +3653,13 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
               {
                 warning_different = TRUE;
                 warning_different_count++;
-                printf("- Warning: %s\n", utmCoordinates.warningMessage());
+                Write_Message("- Warning: %s\n", utmCoordinates.warningMessage());
               }
               else
               {
                 successful_different = TRUE;
                 successful_different_count++;
-                printf("\n");
+                Write_Message("\n");
               }
             }
             else
@@ -3500,7 +3669,7 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
                 warning_equivalent = TRUE;
                 warning_equivalent_count++; 
                 if( showWarnings )
-                  printf("Test Case Id: %s - Warning: %s\n", id, utmCoordinates.warningMessage()); 
+                  Write_Message("Test Case Id: %s - Warning: %s\n", id, utmCoordinates.warningMessage()); 
               }
               else
               {
@@ -3526,18 +3695,34 @@ void SpreadsheetTester::Write_To_File(bool file_read_error)
     Write_Parameters( SourceOrTarget::target, output_projection_type );
 
     if (successful_equivalent)
+    {
+      row_result = successfulEquivalent;
       fprintf(output_file, "Successful-Equivalent\n");
+    }
     else if (successful_different)
+    {
+      row_result = successfulDifferent;
       fprintf(output_file, "Successful-Different\n");
+    }
     else if (warning_equivalent)
+    {
+      row_result = warningEquivalent;
       fprintf(output_file, "Warning-Equivalent\n");
+    }
     else if (warning_different)
+    {
+      row_result = warningDifferent;
       fprintf(output_file, "Warning-Different\n");
+    }
     else
+    {
+      row_result = error;
       fprintf(output_file, "Error\n");
+    }
   }
   else
   {
+    row_result = error;
     fprintf(output_file, "%s", data);
     fprintf(output_file, "Error\n");
   }
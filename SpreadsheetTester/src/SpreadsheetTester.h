@@ -4,6 +4,8 @@
   #define COORD_TEST_H
 
 #include <stdio.h>
+#include <map>
+#include <string>
 #include "CoordinateType.h"
 #include "SourceOrTarget.h"
 #include "CoordinateConversionService.h"
@@ -27,17 +29,47 @@ namespace MSP
   }
 }
 
+class SpreadsheetTesterListener;
+
 class SpreadsheetTester
 {
 public:
 
-  SpreadsheetTester( const char* input_File_Name, const char* output_File_Name, bool _showWarnings );
+  /* Result of a row, as written in its last column */
+  enum Result
+  {
+    successfulEquivalent,
+    successfulDifferent,
+    warningEquivalent,
+    warningDifferent,
+    error
+  };
+
+  /* With a listener, the rows are converted on the calling thread and their */
+  /* messages are passed to the listener instead of being written to stdout */
+  SpreadsheetTester( const char* input_File_Name, const char* output_File_Name, bool _showWarnings, int _numThreads = 1, SpreadsheetTesterListener* _listener = 0 );
   ~SpreadsheetTester();
 
+  /* Returns true if the input and output files could be opened and tested */
+  bool wasTested() const { return tested; }
+
+  long getTotalTestCases() const { return total_test_cases; }
+  long getErrorCount() const { return error_count; }
+  long getWarningDifferentCount() const { return warning_different_count; }
+  long getWarningEquivalentCount() const { return warning_equivalent_count; }
+  long getSuccessfulDifferentCount() const { return successful_different_count; }
+  long getSuccessfulEquivalentCount() const { return successful_equivalent_count; }
+
 private:
 
+  SpreadsheetTester( bool _showWarnings, bool _testEGM2008 );
+
+  /* Length of the longest field read from a row, including its terminator */
+  enum { FIELD_LENGTH = 200 };
+
   FILE* input_file;
   FILE* output_file;
+  FILE* message_file;
 
   double input_coord1;
   double input_coord2;
@@ -47,20 +79,27 @@ private:
   double output_coord3;
   char input_hemisphere;
   char output_hemisphere;
-  char *id;
-  char *input_coord1_str;
-  char *output_coord1_str;
-  char *input_datum;
-  char *output_datum;
-  char *input_projection;
-  char *output_projection;
-  char *data;
+  char id[FIELD_LENGTH];
+  char input_coord1_str[FIELD_LENGTH];
+  char output_coord1_str[FIELD_LENGTH];
+  char input_datum[FIELD_LENGTH];
+  char output_datum[FIELD_LENGTH];
+  char input_projection[FIELD_LENGTH];
+  char output_projection[FIELD_LENGTH];
+  char data[FIELD_LENGTH];
   long input_height;
   long output_height;
   long zone;
   bool showWarnings;
   bool testEGM2008;
+  int numThreads;
+  bool tested;
+
+  SpreadsheetTesterListener* listener;
+  std::string row_messages;
+  Result row_result;
 
+  long total_test_cases;
   long error_count;
   long warning_different_count;
   long warning_equivalent_count;
@@ -124,11 +163,22 @@ private:
      c = Number of IO states (Source, Target, etc.) */
   Coordinate_State_Row coordinateSystemState[2];
 
+  /* Parameter fields read for the source and target of the current row */
+  std::string coordinateSystemKey[2];
+
+  /* Services created for the rows so far, keyed on their datums and
+     coordinate systems; the current row's service is one of them */
+  std::map< std::string, MSP::CCS::CoordinateConversionService* > coordinateConversionServices;
+
   MSP::CCS::CoordinateConversionService* coordinateConversionService;
 
   bool Open_Test_File( SourceOrTarget::Enum direction, const char *filename, FILE **file );
   void Close_Test_File(FILE **file);
-  void Convert_Test_File();
+  void Convert_Test_File( const char* input_file_name );
+  void Convert_Rows( long end_offset );
+  bool Convert_Shards( const char* input_file_name );
+  void Write_Results();
+  void Write_Message( const char* format, ... );
   void initCoordinateSystemState( const SourceOrTarget::Enum direction );
   void deleteCoordinateSystem( const SourceOrTarget::Enum direction );
   void Read_Header(void);
@@ -136,12 +186,29 @@ private:
   bool Set_Projection( SourceOrTarget::Enum direction, const char* projection_str/*, CoordinateType::Enum* projection_type*/ );
   bool Set_Datums(const char* datum_str, SourceOrTarget::Enum direction);
   void Read_Parameters( SourceOrTarget::Enum direction, CoordinateType::Enum projection_type );
+  double Read_Parameter( SourceOrTarget::Enum direction );
+  MSP::CCS::CoordinateConversionService* getCoordinateConversionService();
+  void deleteCoordinateConversionServices();
   MSP::CCS::CoordinateSystemParameters* getCoordinateSystem( const SourceOrTarget::Enum direction );
   void convertSourceToTarget();
   void Write_To_File(bool file_read_error);
   void Write_Parameters( SourceOrTarget::Enum direction, CoordinateType::Enum projectionType );
 };
 
+
+/* Receives the result of each row tested by a SpreadsheetTester */
+class SpreadsheetTesterListener
+{
+public:
+
+  virtual ~SpreadsheetTesterListener() {}
+
+  /* Called after a row has been written to the output file, with the row's */
+  /* number, counting from 1, and its messages.  Returning false stops the  */
+  /* test after the row.                                                     */
+  virtual bool rowTested( const SpreadsheetTester& tester, long row, const char* id, SpreadsheetTester::Result result, const char* messages ) = 0;
+};
+
 #endif
 
 // CLASSIFICATION: UNCLASSIFIED